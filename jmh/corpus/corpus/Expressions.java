@@ -0,0 +1,56 @@
+package corpus;
+
+public class Expressions {
+  private int counter;
+  private long total;
+  private final int[] values = new int[16];
+
+  public int next() {
+    return counter++;
+  }
+
+  public int previous() {
+    return --counter;
+  }
+
+  public long accumulate(int value) {
+    total += value;
+    total *= 31;
+    total ^= total >>> 7;
+    return total;
+  }
+
+  public boolean check(int a, int b, boolean flag) {
+    return flag && (a > b || a == 0) || !flag && b >= 0 && a != b;
+  }
+
+  public int clamp(int value, int min, int max) {
+    return value < min ? min : value > max ? max : value;
+  }
+
+  public String format(String name, int age, double score) {
+    return "name=" + name + ", age=" + age + ", score=" + score + (age > 17 ? " (adult)" : "");
+  }
+
+  public int sum() {
+    int sum = 0;
+    for (int i = 0; i < values.length; i++) {
+      values[i] += i * i;
+      sum += values[i];
+    }
+    return sum;
+  }
+
+  public static double evaluate(double x) {
+    return Math.sqrt(x * x + 1) / (x == 0 ? 1 : Math.abs(x)) - (int)x % 3;
+  }
+
+  public static int bits(long value) {
+    int count = 0;
+    while (value != 0) {
+      value &= value - 1;
+      count++;
+    }
+    return count;
+  }
+}
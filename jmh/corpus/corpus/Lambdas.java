@@ -0,0 +1,49 @@
+package corpus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class Lambdas {
+  private final List<String> words = new ArrayList<String>();
+
+  public Lambdas(List<String> words) {
+    this.words.addAll(words);
+  }
+
+  public List<String> longWords(int length) {
+    return words.stream().filter(w -> w.length() > length).map(String::toUpperCase).collect(Collectors.toList());
+  }
+
+  public Map<Integer, List<String>> byLength() {
+    return words.stream().collect(Collectors.groupingBy(String::length, TreeMap::new, Collectors.toList()));
+  }
+
+  public int count(Predicate<String> predicate) {
+    int count = 0;
+    for (String word : words) {
+      if (predicate.test(word)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  public int countVowelWords() {
+    return count(w -> !w.isEmpty() && "aeiou".indexOf(Character.toLowerCase(w.charAt(0))) >= 0);
+  }
+
+  public static <T, R> Function<T, R> memoize(Function<T, R> function) {
+    Map<T, R> cache = new TreeMap<T, R>();
+    return key -> cache.computeIfAbsent(key, function);
+  }
+
+  public Supplier<String> joined(String separator) {
+    return () -> String.join(separator, words);
+  }
+}
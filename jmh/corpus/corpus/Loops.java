@@ -0,0 +1,74 @@
+package corpus;
+
+public class Loops {
+  public static int[] primes(int limit) {
+    boolean[] composite = new boolean[limit + 1];
+    int count = 0;
+    for (int i = 2; i <= limit; i++) {
+      if (!composite[i]) {
+        count++;
+        for (long j = (long)i * i; j <= limit; j += i) {
+          composite[(int)j] = true;
+        }
+      }
+    }
+    int[] result = new int[count];
+    for (int i = 2, k = 0; i <= limit; i++) {
+      if (!composite[i]) {
+        result[k++] = i;
+      }
+    }
+    return result;
+  }
+
+  public static int find(int[][] matrix, int value) {
+    int steps = 0;
+    outer:
+    for (int i = 0; i < matrix.length; i++) {
+      for (int j = 0; j < matrix[i].length; j++) {
+        steps++;
+        if (matrix[i][j] < 0) {
+          continue outer;
+        }
+        if (matrix[i][j] == value) {
+          break outer;
+        }
+      }
+    }
+    return steps;
+  }
+
+  public static int collatz(long n) {
+    int steps = 0;
+    do {
+      n = (n & 1) == 0 ? n / 2 : 3 * n + 1;
+      steps++;
+    }
+    while (n != 1);
+    return steps;
+  }
+
+  public static long gcd(long a, long b) {
+    while (b != 0) {
+      long t = a % b;
+      a = b;
+      b = t;
+    }
+    return a;
+  }
+
+  public static void bubbleSort(int[] array) {
+    boolean swapped = true;
+    for (int end = array.length - 1; swapped && end > 0; end--) {
+      swapped = false;
+      for (int i = 0; i < end; i++) {
+        if (array[i] > array[i + 1]) {
+          int tmp = array[i];
+          array[i] = array[i + 1];
+          array[i + 1] = tmp;
+          swapped = true;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package corpus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Resources {
+  private final Object lock = new Object();
+  private int opened;
+  private int closed;
+
+  public List<String> readLines(InputStream in) throws IOException {
+    List<String> lines = new ArrayList<String>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.trim().isEmpty()) {
+          lines.add(line);
+        }
+      }
+    }
+    return lines;
+  }
+
+  public void copy(InputStream in, OutputStream out) throws IOException {
+    byte[] buffer = new byte[4096];
+    try {
+      int count;
+      while ((count = in.read(buffer)) >= 0) {
+        out.write(buffer, 0, count);
+      }
+    }
+    finally {
+      try {
+        in.close();
+      }
+      finally {
+        out.close();
+      }
+    }
+  }
+
+  public int parse(String value, int fallback) {
+    try {
+      return Integer.parseInt(value.trim());
+    }
+    catch (NumberFormatException ex) {
+      return fallback;
+    }
+    catch (NullPointerException ex) {
+      return -fallback;
+    }
+    finally {
+      synchronized (lock) {
+        opened++;
+      }
+    }
+  }
+
+  public boolean release() {
+    synchronized (lock) {
+      if (closed < opened) {
+        closed++;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  public String describe(Object value) {
+    try {
+      if (value instanceof String) {
+        return "string " + value;
+      }
+      else if (value instanceof Number) {
+        return "number " + ((Number)value).intValue();
+      }
+      return String.valueOf(value);
+    }
+    catch (RuntimeException ex) {
+      return "failed: " + ex.getMessage();
+    }
+    finally {
+      release();
+    }
+  }
+}
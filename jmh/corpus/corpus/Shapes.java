@@ -0,0 +1,117 @@
+package corpus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class Shapes {
+  public interface Shape {
+    double area();
+
+    double perimeter();
+  }
+
+  public static final class Circle implements Shape {
+    private final double radius;
+
+    public Circle(double radius) {
+      this.radius = radius;
+    }
+
+    @Override
+    public double area() {
+      return Math.PI * radius * radius;
+    }
+
+    @Override
+    public double perimeter() {
+      return 2 * Math.PI * radius;
+    }
+  }
+
+  public static final class Rectangle implements Shape {
+    private final double width;
+    private final double height;
+
+    public Rectangle(double width, double height) {
+      this.width = width;
+      this.height = height;
+    }
+
+    @Override
+    public double area() {
+      return width * height;
+    }
+
+    @Override
+    public double perimeter() {
+      return 2 * (width + height);
+    }
+  }
+
+  private final List<Shape> shapes = new ArrayList<Shape>();
+
+  public void add(Shape shape) {
+    if (shape == null) {
+      throw new IllegalArgumentException("shape");
+    }
+    shapes.add(shape);
+  }
+
+  public double totalArea() {
+    double total = 0;
+    for (Shape shape : shapes) {
+      total += shape.area();
+    }
+    return total;
+  }
+
+  public Shape largest() {
+    Shape result = null;
+    for (Shape shape : shapes) {
+      if (result == null || shape.area() > result.area()) {
+        result = shape;
+      }
+    }
+    return result;
+  }
+
+  public void sortByPerimeter() {
+    shapes.sort(new Comparator<Shape>() {
+      @Override
+      public int compare(Shape o1, Shape o2) {
+        return Double.compare(o1.perimeter(), o2.perimeter());
+      }
+    });
+  }
+
+  public Iterator<Shape> circles() {
+    return new Iterator<Shape>() {
+      private int index = advance(0);
+
+      private int advance(int from) {
+        while (from < shapes.size() && !(shapes.get(from) instanceof Circle)) {
+          from++;
+        }
+        return from;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return index < shapes.size();
+      }
+
+      @Override
+      public Shape next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        Shape shape = shapes.get(index);
+        index = advance(index + 1);
+        return shape;
+      }
+    };
+  }
+}
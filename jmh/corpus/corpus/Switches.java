@@ -0,0 +1,60 @@
+package corpus;
+
+public class Switches {
+  public enum Color { RED, GREEN, BLUE, YELLOW }
+
+  public static int dense(int value) {
+    switch (value) {
+      case 0: return 10;
+      case 1: return 11;
+      case 2: return 13;
+      case 3: return 17;
+      case 4:
+      case 5: return 23;
+      case 6: return 29;
+      default: return -1;
+    }
+  }
+
+  public static int sparse(int value) {
+    int result = 0;
+    switch (value) {
+      case -1000:
+        result = 1;
+        break;
+      case 7:
+        result = 2;
+      case 4096:
+        result += 3;
+        break;
+      case 1 << 20:
+        return 4;
+      default:
+        result = value * 2;
+    }
+    return result;
+  }
+
+  public static String text(String command) {
+    switch (command) {
+      case "start": return "starting";
+      case "stop": return "stopping";
+      case "pause": return "pausing";
+      default: return "unknown " + command;
+    }
+  }
+
+  public static boolean warm(Color color) {
+    switch (color) {
+      case RED:
+      case YELLOW:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  public static char hex(int digit) {
+    return digit < 10 ? (char)('0' + digit) : (char)('a' + digit - 10);
+  }
+}
@@ -0,0 +1,101 @@
+package corpus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Tokenizer {
+  public enum Kind {
+    NUMBER, STRING, IDENTIFIER, PUNCTUATION;
+
+    public boolean isLiteral() {
+      return this == NUMBER || this == STRING;
+    }
+  }
+
+  public static class Token {
+    public final Kind kind;
+    public final String text;
+    public final int offset;
+
+    public Token(Kind kind, String text, int offset) {
+      this.kind = kind;
+      this.text = text;
+      this.offset = offset;
+    }
+
+    @Override
+    public String toString() {
+      return kind + "(" + text + ")@" + offset;
+    }
+  }
+
+  private final String input;
+  private int position;
+
+  public Tokenizer(String input) {
+    this.input = input;
+  }
+
+  public List<Token> tokenize() {
+    List<Token> tokens = new ArrayList<Token>();
+    Token token;
+    while ((token = next()) != null) {
+      tokens.add(token);
+    }
+    return tokens;
+  }
+
+  private Token next() {
+    while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+      position++;
+    }
+    if (position >= input.length()) {
+      return null;
+    }
+
+    int start = position;
+    char c = input.charAt(position);
+    if (Character.isDigit(c)) {
+      while (position < input.length() && (Character.isDigit(input.charAt(position)) || input.charAt(position) == '.')) {
+        position++;
+      }
+      return new Token(Kind.NUMBER, input.substring(start, position), start);
+    }
+    else if (c == '"') {
+      StringBuilder buffer = new StringBuilder();
+      position++;
+      while (position < input.length()) {
+        char ch = input.charAt(position++);
+        if (ch == '\\' && position < input.length()) {
+          char escaped = input.charAt(position++);
+          switch (escaped) {
+            case 'n':
+              buffer.append('\n');
+              break;
+            case 't':
+              buffer.append('\t');
+              break;
+            default:
+              buffer.append(escaped);
+          }
+        }
+        else if (ch == '"') {
+          return new Token(Kind.STRING, buffer.toString(), start);
+        }
+        else {
+          buffer.append(ch);
+        }
+      }
+      throw new IllegalStateException("unterminated string at " + start);
+    }
+    else if (Character.isJavaIdentifierStart(c)) {
+      while (position < input.length() && Character.isJavaIdentifierPart(input.charAt(position))) {
+        position++;
+      }
+      return new Token(Kind.IDENTIFIER, input.substring(start, position), start);
+    }
+
+    position++;
+    return new Token(Kind.PUNCTUATION, String.valueOf(c), start);
+  }
+}
@@ -0,0 +1,58 @@
+package corpus;
+
+public class Expressions {
+   private int counter;
+   private long total;
+   private final int[] values = new int[16];
+
+   public int next() {
+      return this.counter++;
+   }
+
+   public int previous() {
+      return --this.counter;
+   }
+
+   public long accumulate(int value) {
+      this.total += (long)value;
+      this.total *= 31L;
+      this.total ^= this.total >>> 7;
+      return this.total;
+   }
+
+   public boolean check(int a, int b, boolean flag) {
+      return flag && (a > b || a == 0) || !flag && b >= 0 && a != b;
+   }
+
+   public int clamp(int value, int min, int max) {
+      return value < min ? min : (value > max ? max : value);
+   }
+
+   public String format(String name, int age, double score) {
+      return "name=" + name + ", age=" + age + ", score=" + score + (age > 17 ? " (adult)" : "");
+   }
+
+   public int sum() {
+      int sum = 0;
+
+      for(int i = 0; i < this.values.length; ++i) {
+         this.values[i] += i * i;
+         sum += this.values[i];
+      }
+
+      return sum;
+   }
+
+   public static double evaluate(double x) {
+      return Math.sqrt(x * x + 1.0D) / (x == 0.0D ? 1.0D : Math.abs(x)) - (double)((int)x % 3);
+   }
+
+   public static int bits(long value) {
+      int count;
+      for(count = 0; value != 0L; ++count) {
+         value &= value - 1L;
+      }
+
+      return count;
+   }
+}
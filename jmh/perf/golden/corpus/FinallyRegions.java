@@ -0,0 +1,55 @@
+package corpus;
+
+public class FinallyRegions {
+   static int f(int var0) {
+      return var0 ^ var0 >>> 7;
+   }
+
+   public static int run(int var0) {
+      label146:
+      try {
+         var0 = f(var0);
+      } catch (Throwable var26) {
+         var0 += 2;
+         break label146;
+      }
+
+      label143:
+      try {
+         var0 = f(var0);
+      } catch (Throwable var25) {
+         var0 += 2;
+         break label143;
+      }
+
+      try {
+         var0 = f(var0);
+      } finally {
+         var0 += 3;
+      }
+
+      label139:
+      try {
+         var0 = f(var0);
+      } catch (Throwable var24) {
+         var0 += 2;
+         break label139;
+      }
+
+      label136:
+      try {
+         var0 = f(var0);
+      } catch (Throwable var23) {
+         var0 += 2;
+         break label136;
+      }
+
+      try {
+         var0 = f(var0);
+      } finally {
+         var0 += 3;
+      }
+
+      return var0;
+   }
+}
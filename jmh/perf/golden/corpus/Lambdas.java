@@ -0,0 +1,62 @@
+package corpus;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class Lambdas {
+   private final List words = new ArrayList();
+
+   public Lambdas(List words) {
+      this.words.addAll(words);
+   }
+
+   public List longWords(int length) {
+      return (List)this.words.stream().filter((w) -> {
+         return w.length() > length;
+      }).map(String::toUpperCase).collect(Collectors.toList());
+   }
+
+   public Map byLength() {
+      return (Map)this.words.stream().collect(Collectors.groupingBy(String::length, TreeMap::<init>, Collectors.toList()));
+   }
+
+   public int count(Predicate predicate) {
+      int count = 0;
+      Iterator var3 = this.words.iterator();
+
+      while(var3.hasNext()) {
+         String word = (String)var3.next();
+         if(predicate.test(word)) {
+            ++count;
+         }
+      }
+
+      return count;
+   }
+
+   public int countVowelWords() {
+      return this.count((w) -> {
+         return !w.isEmpty() && "aeiou".indexOf(Character.toLowerCase(w.charAt(0))) >= 0;
+      });
+   }
+
+   public static Function memoize(Function function) {
+      TreeMap cache = new TreeMap();
+      return (key) -> {
+         return cache.computeIfAbsent(key, function);
+      };
+   }
+
+   public Supplier joined(String separator) {
+      return () -> {
+         return String.join(separator, this.words);
+      };
+   }
+}
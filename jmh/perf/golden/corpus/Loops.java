@@ -0,0 +1,87 @@
+package corpus;
+
+public class Loops {
+   public static int[] primes(int limit) {
+      boolean[] composite = new boolean[limit + 1];
+      int count = 0;
+
+      for(int result = 2; result <= limit; ++result) {
+         if(!composite[result]) {
+            ++count;
+
+            for(long i = (long)result * (long)result; i <= (long)limit; i += (long)result) {
+               composite[(int)i] = true;
+            }
+         }
+      }
+
+      int[] var6 = new int[count];
+      int var7 = 2;
+
+      for(int k = 0; var7 <= limit; ++var7) {
+         if(!composite[var7]) {
+            var6[k++] = var7;
+         }
+      }
+
+      return var6;
+   }
+
+   public static int find(int[][] matrix, int value) {
+      int steps = 0;
+
+      for(int i = 0; i < matrix.length; ++i) {
+         for(int j = 0; j < matrix[i].length; ++j) {
+            ++steps;
+            if(matrix[i][j] < 0) {
+               break;
+            }
+
+            if(matrix[i][j] == value) {
+               return steps;
+            }
+         }
+      }
+
+      return steps;
+   }
+
+   public static int collatz(long n) {
+      int steps = 0;
+
+      do {
+         n = (n & 1L) == 0L ? n / 2L : 3L * n + 1L;
+         ++steps;
+      } while(n != 1L);
+
+      return steps;
+   }
+
+   public static long gcd(long a, long b) {
+      while(b != 0L) {
+         long t = a % b;
+         a = b;
+         b = t;
+      }
+
+      return a;
+   }
+
+   public static void bubbleSort(int[] array) {
+      boolean swapped = true;
+
+      for(int end = array.length - 1; swapped && end > 0; --end) {
+         swapped = false;
+
+         for(int i = 0; i < end; ++i) {
+            if(array[i] > array[i + 1]) {
+               int tmp = array[i];
+               array[i] = array[i + 1];
+               array[i + 1] = tmp;
+               swapped = true;
+            }
+         }
+      }
+
+   }
+}
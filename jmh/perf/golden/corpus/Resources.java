@@ -0,0 +1,144 @@
+package corpus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Resources {
+   private final Object lock = new Object();
+   private int opened;
+   private int closed;
+
+   public List readLines(InputStream in) throws IOException {
+      ArrayList lines = new ArrayList();
+      BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+
+      String line;
+      try {
+         while((line = reader.readLine()) != null) {
+            if(!line.trim().isEmpty()) {
+               lines.add(line);
+            }
+         }
+      } catch (Throwable var7) {
+         try {
+            reader.close();
+         } catch (Throwable var6) {
+            var7.addSuppressed(var6);
+         }
+
+         throw var7;
+      }
+
+      reader.close();
+      return lines;
+   }
+
+   public void copy(InputStream in, OutputStream out) throws IOException {
+      byte[] buffer = new byte[4096];
+
+      int count;
+      try {
+         while((count = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, count);
+         }
+      } finally {
+         try {
+            in.close();
+         } finally {
+            out.close();
+         }
+      }
+
+   }
+
+   public int parse(String value, int fallback) {
+      boolean var18 = false;
+
+      int ex;
+      label104: {
+         int var4;
+         Object var5;
+         label105: {
+            try {
+               var18 = true;
+               ex = Integer.parseInt(value.trim());
+               var18 = false;
+               break label104;
+            } catch (NumberFormatException var23) {
+               var4 = fallback;
+               var18 = false;
+            } catch (NullPointerException var24) {
+               var4 = -fallback;
+               var18 = false;
+               break label105;
+            } finally {
+               if(var18) {
+                  Object var9 = this.lock;
+                  synchronized(this.lock) {
+                     ++this.opened;
+                  }
+               }
+            }
+
+            var5 = this.lock;
+            synchronized(this.lock) {
+               ++this.opened;
+               return var4;
+            }
+         }
+
+         var5 = this.lock;
+         synchronized(this.lock) {
+            ++this.opened;
+            return var4;
+         }
+      }
+
+      Object var26 = this.lock;
+      synchronized(this.lock) {
+         ++this.opened;
+         return ex;
+      }
+   }
+
+   public boolean release() {
+      Object var1 = this.lock;
+      synchronized(this.lock) {
+         if(this.closed < this.opened) {
+            ++this.closed;
+            return true;
+         } else {
+            return false;
+         }
+      }
+   }
+
+   public String describe(Object value) {
+      String ex;
+      try {
+         if(value instanceof String) {
+            ex = "string " + value;
+            return ex;
+         }
+
+         if(!(value instanceof Number)) {
+            ex = String.valueOf(value);
+            return ex;
+         }
+
+         ex = "number " + ((Number)value).intValue();
+      } catch (RuntimeException var7) {
+         String var3 = "failed: " + var7.getMessage();
+         return var3;
+      } finally {
+         this.release();
+      }
+
+      return ex;
+   }
+}
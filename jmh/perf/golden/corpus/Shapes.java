@@ -0,0 +1,124 @@
+package corpus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class Shapes {
+   private final List shapes = new ArrayList();
+
+   public void add(Shapes.Shape shape) {
+      if(shape == null) {
+         throw new IllegalArgumentException("shape");
+      } else {
+         this.shapes.add(shape);
+      }
+   }
+
+   public double totalArea() {
+      double total = 0.0D;
+
+      Shapes.Shape shape;
+      for(Iterator var3 = this.shapes.iterator(); var3.hasNext(); total += shape.area()) {
+         shape = (Shapes.Shape)var3.next();
+      }
+
+      return total;
+   }
+
+   public Shapes.Shape largest() {
+      Shapes.Shape result = null;
+      Iterator var2 = this.shapes.iterator();
+
+      while(true) {
+         Shapes.Shape shape;
+         do {
+            if(!var2.hasNext()) {
+               return result;
+            }
+
+            shape = (Shapes.Shape)var2.next();
+         } while(result != null && shape.area() <= result.area());
+
+         result = shape;
+      }
+   }
+
+   public void sortByPerimeter() {
+      this.shapes.sort(new Comparator() {
+         public int compare(Shapes.Shape o1, Shapes.Shape o2) {
+            return Double.compare(o1.perimeter(), o2.perimeter());
+         }
+      });
+   }
+
+   public Iterator circles() {
+      return new Iterator() {
+         private int index = this.advance(0);
+
+         private int advance(int from) {
+            while(from < Shapes.this.shapes.size() && !(Shapes.this.shapes.get(from) instanceof Shapes.Circle)) {
+               ++from;
+            }
+
+            return from;
+         }
+
+         public boolean hasNext() {
+            return this.index < Shapes.this.shapes.size();
+         }
+
+         public Shapes.Shape next() {
+            if(!this.hasNext()) {
+               throw new NoSuchElementException();
+            } else {
+               Shapes.Shape shape = (Shapes.Shape)Shapes.this.shapes.get(this.index);
+               this.index = this.advance(this.index + 1);
+               return shape;
+            }
+         }
+      };
+   }
+
+   public interface Shape {
+      double area();
+
+      double perimeter();
+   }
+
+   public static final class Rectangle implements Shapes.Shape {
+      private final double width;
+      private final double height;
+
+      public Rectangle(double width, double height) {
+         this.width = width;
+         this.height = height;
+      }
+
+      public double area() {
+         return this.width * this.height;
+      }
+
+      public double perimeter() {
+         return 2.0D * (this.width + this.height);
+      }
+   }
+
+   public static final class Circle implements Shapes.Shape {
+      private final double radius;
+
+      public Circle(double radius) {
+         this.radius = radius;
+      }
+
+      public double area() {
+         return 3.141592653589793D * this.radius * this.radius;
+      }
+
+      public double perimeter() {
+         return 6.283185307179586D * this.radius;
+      }
+   }
+}
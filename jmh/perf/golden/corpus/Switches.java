@@ -0,0 +1,101 @@
+package corpus;
+
+public class Switches {
+   public static int dense(int value) {
+      switch(value) {
+      case 0:
+         return 10;
+      case 1:
+         return 11;
+      case 2:
+         return 13;
+      case 3:
+         return 17;
+      case 4:
+      case 5:
+         return 23;
+      case 6:
+         return 29;
+      default:
+         return -1;
+      }
+   }
+
+   public static int sparse(int value) {
+      byte result = 0;
+      int result1;
+      switch(value) {
+      case -1000:
+         result1 = 1;
+         break;
+      case 7:
+         result = 2;
+      case 4096:
+         result1 = result + 3;
+         break;
+      case 1048576:
+         return 4;
+      default:
+         result1 = value * 2;
+      }
+
+      return result1;
+   }
+
+   public static String text(String command) {
+      byte var2 = -1;
+      switch(command.hashCode()) {
+      case 3540994:
+         if(command.equals("stop")) {
+            var2 = 1;
+         }
+         break;
+      case 106440182:
+         if(command.equals("pause")) {
+            var2 = 2;
+         }
+         break;
+      case 109757538:
+         if(command.equals("start")) {
+            var2 = 0;
+         }
+      }
+
+      switch(var2) {
+      case 0:
+         return "starting";
+      case 1:
+         return "stopping";
+      case 2:
+         return "pausing";
+      default:
+         return "unknown " + command;
+      }
+   }
+
+   public static boolean warm(Switches.Color color) {
+      switch(null.$SwitchMap$corpus$Switches$Color[color.ordinal()]) {
+      case 1:
+      case 2:
+         return true;
+      default:
+         return false;
+      }
+   }
+
+   public static char hex(int digit) {
+      return digit < 10 ? (char)(48 + digit) : (char)(97 + digit - 10);
+   }
+
+   public static enum Color {
+      RED,
+      GREEN,
+      BLUE,
+      YELLOW;
+
+      // $FF: synthetic method
+      private static Switches.Color[] $values() {
+         return new Switches.Color[]{RED, GREEN, BLUE, YELLOW};
+      }
+   }
+}
@@ -0,0 +1,115 @@
+package corpus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Tokenizer {
+   private final String input;
+   private int position;
+
+   public Tokenizer(String input) {
+      this.input = input;
+   }
+
+   public List tokenize() {
+      ArrayList tokens = new ArrayList();
+
+      Tokenizer.Token token;
+      while((token = this.next()) != null) {
+         tokens.add(token);
+      }
+
+      return tokens;
+   }
+
+   private Tokenizer.Token next() {
+      while(this.position < this.input.length() && Character.isWhitespace(this.input.charAt(this.position))) {
+         ++this.position;
+      }
+
+      if(this.position >= this.input.length()) {
+         return null;
+      } else {
+         int start = this.position;
+         char c = this.input.charAt(this.position);
+         if(Character.isDigit(c)) {
+            while(this.position < this.input.length() && (Character.isDigit(this.input.charAt(this.position)) || this.input.charAt(this.position) == 46)) {
+               ++this.position;
+            }
+
+            return new Tokenizer.Token(Tokenizer.Kind.NUMBER, this.input.substring(start, this.position), start);
+         } else if(c == 34) {
+            StringBuilder buffer = new StringBuilder();
+            ++this.position;
+
+            while(true) {
+               while(this.position < this.input.length()) {
+                  char ch = this.input.charAt(this.position++);
+                  if(ch == 92 && this.position < this.input.length()) {
+                     char escaped = this.input.charAt(this.position++);
+                     switch(escaped) {
+                     case 'n':
+                        buffer.append('\n');
+                        break;
+                     case 't':
+                        buffer.append('\t');
+                        break;
+                     default:
+                        buffer.append(escaped);
+                     }
+                  } else {
+                     if(ch == 34) {
+                        return new Tokenizer.Token(Tokenizer.Kind.STRING, buffer.toString(), start);
+                     }
+
+                     buffer.append(ch);
+                  }
+               }
+
+               throw new IllegalStateException("unterminated string at " + start);
+            }
+         } else if(!Character.isJavaIdentifierStart(c)) {
+            ++this.position;
+            return new Tokenizer.Token(Tokenizer.Kind.PUNCTUATION, String.valueOf(c), start);
+         } else {
+            while(this.position < this.input.length() && Character.isJavaIdentifierPart(this.input.charAt(this.position))) {
+               ++this.position;
+            }
+
+            return new Tokenizer.Token(Tokenizer.Kind.IDENTIFIER, this.input.substring(start, this.position), start);
+         }
+      }
+   }
+
+   public static class Token {
+      public final Tokenizer.Kind kind;
+      public final String text;
+      public final int offset;
+
+      public Token(Tokenizer.Kind kind, String text, int offset) {
+         this.kind = kind;
+         this.text = text;
+         this.offset = offset;
+      }
+
+      public String toString() {
+         return this.kind + "(" + this.text + ")@" + this.offset;
+      }
+   }
+
+   public static enum Kind {
+      NUMBER,
+      STRING,
+      IDENTIFIER,
+      PUNCTUATION;
+
+      public boolean isLiteral() {
+         return this == NUMBER || this == STRING;
+      }
+
+      // $FF: synthetic method
+      private static Tokenizer.Kind[] $values() {
+         return new Tokenizer.Kind[]{NUMBER, STRING, IDENTIFIER, PUNCTUATION};
+      }
+   }
+}
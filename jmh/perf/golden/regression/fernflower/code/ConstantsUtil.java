@@ -0,0 +1,83 @@
+package regression.fernflower.code;
+
+import regression.fernflower.code.optinstructions.ALOAD;
+import regression.fernflower.code.optinstructions.ANEWARRAY;
+import regression.fernflower.code.optinstructions.ASTORE;
+import regression.fernflower.code.optinstructions.BIPUSH;
+import regression.fernflower.code.optinstructions.CHECKCAST;
+import regression.fernflower.code.optinstructions.DLOAD;
+import regression.fernflower.code.optinstructions.DSTORE;
+import regression.fernflower.code.optinstructions.FLOAD;
+import regression.fernflower.code.optinstructions.FSTORE;
+import regression.fernflower.code.optinstructions.GETFIELD;
+import regression.fernflower.code.optinstructions.GETSTATIC;
+import regression.fernflower.code.optinstructions.GOTO;
+import regression.fernflower.code.optinstructions.GOTO_W;
+import regression.fernflower.code.optinstructions.IINC;
+import regression.fernflower.code.optinstructions.ILOAD;
+import regression.fernflower.code.optinstructions.INSTANCEOF;
+import regression.fernflower.code.optinstructions.INVOKEDYNAMIC;
+import regression.fernflower.code.optinstructions.INVOKEINTERFACE;
+import regression.fernflower.code.optinstructions.INVOKESPECIAL;
+import regression.fernflower.code.optinstructions.INVOKESTATIC;
+import regression.fernflower.code.optinstructions.INVOKEVIRTUAL;
+import regression.fernflower.code.optinstructions.ISTORE;
+import regression.fernflower.code.optinstructions.JSR;
+import regression.fernflower.code.optinstructions.JSR_W;
+import regression.fernflower.code.optinstructions.LDC;
+import regression.fernflower.code.optinstructions.LDC2_W;
+import regression.fernflower.code.optinstructions.LDC_W;
+import regression.fernflower.code.optinstructions.LLOAD;
+import regression.fernflower.code.optinstructions.LOOKUPSWITCH;
+import regression.fernflower.code.optinstructions.LSTORE;
+import regression.fernflower.code.optinstructions.MULTIANEWARRAY;
+import regression.fernflower.code.optinstructions.NEW;
+import regression.fernflower.code.optinstructions.NEWARRAY;
+import regression.fernflower.code.optinstructions.PUTFIELD;
+import regression.fernflower.code.optinstructions.PUTSTATIC;
+import regression.fernflower.code.optinstructions.RET;
+import regression.fernflower.code.optinstructions.SIPUSH;
+import regression.fernflower.code.optinstructions.TABLESWITCH;
+
+public class ConstantsUtil {
+   private static String[] opcodeNames = new String[]{"nop", "aconst_null", "iconst_m1", "iconst_0", "iconst_1", "iconst_2", "iconst_3", "iconst_4", "iconst_5", "lconst_0", "lconst_1", "fconst_0", "fconst_1", "fconst_2", "dconst_0", "dconst_1", "bipush", "sipush", "ldc", "ldc_w", "ldc2_w", "iload", "lload", "fload", "dload", "aload", "iload_0", "iload_1", "iload_2", "iload_3", "lload_0", "lload_1", "lload_2", "lload_3", "fload_0", "fload_1", "fload_2", "fload_3", "dload_0", "dload_1", "dload_2", "dload_3", "aload_0", "aload_1", "aload_2", "aload_3", "iaload", "laload", "faload", "daload", "aaload", "baload", "caload", "saload", "istore", "lstore", "fstore", "dstore", "astore", "istore_0", "istore_1", "istore_2", "istore_3", "lstore_0", "lstore_1", "lstore_2", "lstore_3", "fstore_0", "fstore_1", "fstore_2", "fstore_3", "dstore_0", "dstore_1", "dstore_2", "dstore_3", "astore_0", "astore_1", "astore_2", "astore_3", "iastore", "lastore", "fastore", "dastore", "aastore", "bastore", "castore", "sastore", "pop", "pop2", "dup", "dup_x1", "dup_x2", "dup2", "dup2_x1", "dup2_x2", "swap", "iadd", "ladd", "fadd", "dadd", "isub", "lsub", "fsub", "dsub", "imul", "lmul", "fmul", "dmul", "idiv", "ldiv", "fdiv", "ddiv", "irem", "lrem", "frem", "drem", "ineg", "lneg", "fneg", "dneg", "ishl", "lshl", "ishr", "lshr", "iushr", "lushr", "iand", "land", "ior", "lor", "ixor", "lxor", "iinc", "i2l", "i2f", "i2d", "l2i", "l2f", "l2d", "f2i", "f2l", "f2d", "d2i", "d2l", "d2f", "i2b", "i2c", "i2s", "lcmp", "fcmpl", "fcmpg", "dcmpl", "dcmpg", "ifeq", "ifne", "iflt", "ifge", "ifgt", "ifle", "if_icmpeq", "if_icmpne", "if_icmplt", "if_icmpge", "if_icmpgt", "if_icmple", "if_acmpeq", "if_acmpne", "goto", "jsr", "ret", "tableswitch", "lookupswitch", "ireturn", "lreturn", "freturn", "dreturn", "areturn", "return", "getstatic", "putstatic", "getfield", "putfield", "invokevirtual", "invokespecial", "invokestatic", "invokeinterface", "invokedynamic", "new", "newarray", "anewarray", "arraylength", "athrow", "checkcast", "instanceof", "monitorenter", "monitorexit", "wide", "multianewarray", "ifnull", "ifnonnull", "goto_w", "jsr_w"};
+   private static Class[] opcodeClasses = new Class[]{null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, BIPUSH.class, SIPUSH.class, LDC.class, LDC_W.class, LDC2_W.class, ILOAD.class, LLOAD.class, FLOAD.class, DLOAD.class, ALOAD.class, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, ISTORE.class, LSTORE.class, FSTORE.class, DSTORE.class, ASTORE.class, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, IINC.class, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, GOTO.class, JSR.class, RET.class, TABLESWITCH.class, LOOKUPSWITCH.class, null, null, null, null, null, null, GETSTATIC.class, PUTSTATIC.class, GETFIELD.class, PUTFIELD.class, INVOKEVIRTUAL.class, INVOKESPECIAL.class, INVOKESTATIC.class, INVOKEINTERFACE.class, INVOKEDYNAMIC.class, NEW.class, NEWARRAY.class, ANEWARRAY.class, null, null, CHECKCAST.class, INSTANCEOF.class, null, null, null, MULTIANEWARRAY.class, null, null, GOTO_W.class, JSR_W.class};
+
+   public static String getName(int opcode) {
+      return opcodeNames[opcode];
+   }
+
+   public static Instruction getInstructionInstance(int opcode, boolean wide, int group, int bytecode_version, int[] operands) {
+      Instruction instr = getInstructionInstance(opcode, bytecode_version);
+      instr.wide = wide;
+      instr.group = group;
+      instr.bytecode_version = bytecode_version;
+      instr.setOperands(operands);
+      return instr;
+   }
+
+   private static Instruction getInstructionInstance(int opcode, int bytecode_version) {
+      try {
+         Object ex;
+         if((opcode < 153 || opcode > 166) && opcode != 198 && opcode != 199) {
+            Class cl = opcodeClasses[opcode];
+            if(opcode == 186 && bytecode_version < 4) {
+               cl = null;
+            }
+
+            if(cl == null) {
+               ex = new Instruction();
+            } else {
+               ex = (Instruction)cl.newInstance();
+            }
+         } else {
+            ex = new IfInstruction();
+         }
+
+         ((Instruction)ex).opcode = opcode;
+         return (Instruction)ex;
+      } catch (Exception var4) {
+         return null;
+      }
+   }
+}
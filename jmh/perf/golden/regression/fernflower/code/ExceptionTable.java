@@ -0,0 +1,40 @@
+package regression.fernflower.code;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.code.interpreter.Util;
+import regression.fernflower.struct.StructContext;
+
+public class ExceptionTable {
+   private List handlers = new ArrayList();
+
+   public ExceptionTable() {
+   }
+
+   public ExceptionTable(List handlers) {
+      this.handlers = handlers;
+   }
+
+   public ExceptionHandler getHandlerByClass(StructContext context, int line, String valclass, boolean withany) {
+      ExceptionHandler res = null;
+      Iterator var6 = this.handlers.iterator();
+
+      while(var6.hasNext()) {
+         ExceptionHandler handler = (ExceptionHandler)var6.next();
+         if(handler.from <= line && handler.to > line) {
+            String name = handler.exceptionClass;
+            if(withany && name == null || name != null && Util.instanceOf(context, valclass, name)) {
+               res = handler;
+               break;
+            }
+         }
+      }
+
+      return res;
+   }
+
+   public List getHandlers() {
+      return this.handlers;
+   }
+}
@@ -0,0 +1,19 @@
+package regression.fernflower.code;
+
+import java.util.Iterator;
+import regression.fernflower.util.VBStyleCollection;
+
+public class FullInstructionSequence extends InstructionSequence {
+   public FullInstructionSequence(VBStyleCollection collinstr, ExceptionTable extable) {
+      this.collinstr = collinstr;
+      this.exceptionTable = extable;
+
+      ExceptionHandler handler;
+      for(Iterator var3 = extable.getHandlers().iterator(); var3.hasNext(); handler.handler_instr = this.getPointerByAbsOffset(handler.handler)) {
+         handler = (ExceptionHandler)var3.next();
+         handler.from_instr = this.getPointerByAbsOffset(handler.from);
+         handler.to_instr = this.getPointerByAbsOffset(handler.to);
+      }
+
+   }
+}
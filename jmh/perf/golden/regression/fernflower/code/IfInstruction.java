@@ -0,0 +1,15 @@
+package regression.fernflower.code;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class IfInstruction extends JumpInstruction {
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      out.writeByte(this.opcode);
+      out.writeShort(this.getOperand(0));
+   }
+
+   public int length() {
+      return 3;
+   }
+}
@@ -0,0 +1,157 @@
+package regression.fernflower.code;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import regression.fernflower.code.interpreter.Util;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.struct.StructContext;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.VBStyleCollection;
+
+public abstract class InstructionSequence {
+   protected VBStyleCollection collinstr = new VBStyleCollection();
+   protected int pointer = 0;
+   protected ExceptionTable exceptionTable = new ExceptionTable();
+
+   public InstructionSequence clone() {
+      return null;
+   }
+
+   public void clear() {
+      this.collinstr.clear();
+      this.pointer = 0;
+      this.exceptionTable = new ExceptionTable();
+   }
+
+   public void addInstruction(Instruction inst, int offset) {
+      this.collinstr.addWithKey(inst, Integer.valueOf(offset));
+   }
+
+   public void addInstruction(int index, Instruction inst, int offset) {
+      this.collinstr.addWithKeyAndIndex(index, inst, Integer.valueOf(offset));
+   }
+
+   public void addSequence(InstructionSequence seq) {
+      for(int i = 0; i < seq.length(); ++i) {
+         this.addInstruction(seq.getInstr(i), -1);
+      }
+
+   }
+
+   public void removeInstruction(int index) {
+      this.collinstr.remove(index);
+   }
+
+   public Instruction getCurrentInstr() {
+      return (Instruction)this.collinstr.get(this.pointer);
+   }
+
+   public Instruction getInstr(int index) {
+      return (Instruction)this.collinstr.get(index);
+   }
+
+   public Instruction getLastInstr() {
+      return (Instruction)this.collinstr.getLast();
+   }
+
+   public int getCurrentOffset() {
+      return ((Integer)this.collinstr.getKey(this.pointer)).intValue();
+   }
+
+   public int getOffset(int index) {
+      return ((Integer)this.collinstr.getKey(index)).intValue();
+   }
+
+   public int getPointerByAbsOffset(int offset) {
+      Integer absoffset = new Integer(offset);
+      return this.collinstr.containsKey(absoffset) ? this.collinstr.getIndexByKey(absoffset) : -1;
+   }
+
+   public int getPointerByRelOffset(int offset) {
+      Integer absoffset = new Integer(((Integer)this.collinstr.getKey(this.pointer)).intValue() + offset);
+      return this.collinstr.containsKey(absoffset) ? this.collinstr.getIndexByKey(absoffset) : -1;
+   }
+
+   public void setPointerByAbsOffset(int offset) {
+      Integer absoffset = new Integer(((Integer)this.collinstr.getKey(this.pointer)).intValue() + offset);
+      if(this.collinstr.containsKey(absoffset)) {
+         this.pointer = this.collinstr.getIndexByKey(absoffset);
+      }
+
+   }
+
+   public int length() {
+      return this.collinstr.size();
+   }
+
+   public boolean isEmpty() {
+      return this.collinstr.isEmpty();
+   }
+
+   public void addToPointer(int diff) {
+      this.pointer += diff;
+   }
+
+   public String toString() {
+      return this.toString(0);
+   }
+
+   public String toString(int indent) {
+      String new_line_separator = DecompilerContext.getNewLineSeparator();
+      StringBuilder buf = new StringBuilder();
+
+      for(int i = 0; i < this.collinstr.size(); ++i) {
+         buf.append(InterpreterUtil.getIndentString(indent));
+         buf.append(((Integer)this.collinstr.getKey(i)).intValue());
+         buf.append(": ");
+         buf.append(((Instruction)this.collinstr.get(i)).toString());
+         buf.append(new_line_separator);
+      }
+
+      return buf.toString();
+   }
+
+   public void writeCodeToStream(DataOutputStream out) throws IOException {
+      for(int i = 0; i < this.collinstr.size(); ++i) {
+         ((Instruction)this.collinstr.get(i)).writeToStream(out, ((Integer)this.collinstr.getKey(i)).intValue());
+      }
+
+   }
+
+   public void writeExceptionsToStream(DataOutputStream out) throws IOException {
+      List handlers = this.exceptionTable.getHandlers();
+      out.writeShort(handlers.size());
+
+      for(int i = 0; i < handlers.size(); ++i) {
+         ((ExceptionHandler)handlers.get(i)).writeToStream(out);
+      }
+
+   }
+
+   public void sortHandlers(final StructContext context) {
+      Collections.sort(this.exceptionTable.getHandlers(), new Comparator() {
+         public int compare(ExceptionHandler handler0, ExceptionHandler handler1) {
+            return handler0.to == handler1.to ? (handler0.exceptionClass == null ? 1 : (handler1.exceptionClass == null ? -1 : (handler0.exceptionClass.equals(handler1.exceptionClass) ? (handler0.from > handler1.from ? -1 : 1) : (Util.instanceOf(context, handler0.exceptionClass, handler1.exceptionClass) ? -1 : 1)))) : (handler0.to > handler1.to ? 1 : -1);
+         }
+      });
+   }
+
+   public int getPointer() {
+      return this.pointer;
+   }
+
+   public void setPointer(int pointer) {
+      this.pointer = pointer;
+   }
+
+   public ExceptionTable getExceptionTable() {
+      return this.exceptionTable;
+   }
+
+   public void setExceptionTable(ExceptionTable exceptionTable) {
+      this.exceptionTable = exceptionTable;
+   }
+}
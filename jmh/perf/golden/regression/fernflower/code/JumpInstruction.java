@@ -0,0 +1,15 @@
+package regression.fernflower.code;
+
+public class JumpInstruction extends Instruction {
+   public int destination;
+
+   public void initInstruction(InstructionSequence seq) {
+      this.destination = seq.getPointerByRelOffset(this.getOperand(0));
+   }
+
+   public JumpInstruction clone() {
+      JumpInstruction newinstr = (JumpInstruction)super.clone();
+      newinstr.destination = this.destination;
+      return newinstr;
+   }
+}
@@ -0,0 +1,22 @@
+package regression.fernflower.code;
+
+import regression.fernflower.util.VBStyleCollection;
+
+public class SimpleInstructionSequence extends InstructionSequence {
+   public SimpleInstructionSequence() {
+   }
+
+   public SimpleInstructionSequence(VBStyleCollection collinstr) {
+      this.collinstr = collinstr;
+   }
+
+   public SimpleInstructionSequence clone() {
+      SimpleInstructionSequence newseq = new SimpleInstructionSequence(this.collinstr.clone());
+      newseq.setPointer(this.getPointer());
+      return newseq;
+   }
+
+   public void removeInstruction(int index) {
+      this.collinstr.remove(index);
+   }
+}
@@ -0,0 +1,234 @@
+package regression.fernflower.code.cfg;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.code.Instruction;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.code.SimpleInstructionSequence;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.decompiler.decompose.IGraphNode;
+
+public class BasicBlock implements IGraphNode {
+   public int id = 0;
+   public int mark = 0;
+   private InstructionSequence seq = new SimpleInstructionSequence();
+   private List preds = new ArrayList();
+   private List succs = new ArrayList();
+   private List instrOldOffsets = new ArrayList();
+   private List predExceptions = new ArrayList();
+   private List succExceptions = new ArrayList();
+
+   public BasicBlock() {
+   }
+
+   public BasicBlock(int id) {
+      this.id = id;
+   }
+
+   public Object clone() {
+      BasicBlock block = new BasicBlock();
+      block.id = this.id;
+      block.setSeq(this.seq.clone());
+      block.setInstrOldOffsets(new ArrayList(this.instrOldOffsets));
+      return block;
+   }
+
+   public void free() {
+      this.preds.clear();
+      this.succs.clear();
+      this.instrOldOffsets.clear();
+      this.succExceptions.clear();
+      this.seq = new SimpleInstructionSequence();
+   }
+
+   public Instruction getInstruction(int index) {
+      return this.seq.getInstr(index);
+   }
+
+   public Instruction getLastInstruction() {
+      return this.seq.isEmpty() ? null : this.seq.getLastInstr();
+   }
+
+   public Integer getOldOffset(int index) {
+      return index < this.instrOldOffsets.size() ? (Integer)this.instrOldOffsets.get(index) : Integer.valueOf(-1);
+   }
+
+   public int size() {
+      return this.seq.length();
+   }
+
+   public void addPredecessor(BasicBlock block) {
+      this.preds.add(block);
+   }
+
+   public void removePredecessor(BasicBlock block) {
+      while(this.preds.remove(block)) {
+      }
+
+   }
+
+   public void addSuccessor(BasicBlock block) {
+      this.succs.add(block);
+      block.addPredecessor(this);
+   }
+
+   public void removeSuccessor(BasicBlock block) {
+      while(this.succs.remove(block)) {
+      }
+
+      block.removePredecessor(this);
+   }
+
+   public void replaceSuccessor(BasicBlock oldBlock, BasicBlock newBlock) {
+      int i;
+      for(i = 0; i < this.succs.size(); ++i) {
+         if(((BasicBlock)this.succs.get(i)).id == oldBlock.id) {
+            this.succs.set(i, newBlock);
+            oldBlock.removePredecessor(this);
+            newBlock.addPredecessor(this);
+         }
+      }
+
+      for(i = 0; i < this.succExceptions.size(); ++i) {
+         if(((BasicBlock)this.succExceptions.get(i)).id == oldBlock.id) {
+            this.succExceptions.set(i, newBlock);
+            oldBlock.removePredecessorException(this);
+            newBlock.addPredecessorException(this);
+         }
+      }
+
+   }
+
+   public void addPredecessorException(BasicBlock block) {
+      this.predExceptions.add(block);
+   }
+
+   public void removePredecessorException(BasicBlock block) {
+      while(this.predExceptions.remove(block)) {
+      }
+
+   }
+
+   public void addSuccessorException(BasicBlock block) {
+      if(!this.succExceptions.contains(block)) {
+         this.succExceptions.add(block);
+         block.addPredecessorException(this);
+      }
+
+   }
+
+   public void removeSuccessorException(BasicBlock block) {
+      while(this.succExceptions.remove(block)) {
+      }
+
+      block.removePredecessorException(this);
+   }
+
+   public String toString() {
+      return this.toString(0);
+   }
+
+   public String toString(int indent) {
+      String new_line_separator = DecompilerContext.getNewLineSeparator();
+      return this.id + ":" + new_line_separator + this.seq.toString(indent);
+   }
+
+   public String toStringOldIndices() {
+      String new_line_separator = DecompilerContext.getNewLineSeparator();
+      StringBuilder buf = new StringBuilder();
+
+      for(int i = 0; i < this.seq.length(); ++i) {
+         if(i < this.instrOldOffsets.size()) {
+            buf.append(this.instrOldOffsets.get(i));
+         } else {
+            buf.append("-1");
+         }
+
+         buf.append(": ");
+         buf.append(this.seq.getInstr(i).toString());
+         buf.append(new_line_separator);
+      }
+
+      return buf.toString();
+   }
+
+   public boolean isSuccessor(BasicBlock block) {
+      Iterator var2 = this.succs.iterator();
+
+      BasicBlock succ;
+      do {
+         if(!var2.hasNext()) {
+            return false;
+         }
+
+         succ = (BasicBlock)var2.next();
+      } while(succ.id != block.id);
+
+      return true;
+   }
+
+   public boolean isPredecessor(BasicBlock block) {
+      for(int i = 0; i < this.preds.size(); ++i) {
+         if(((BasicBlock)this.preds.get(i)).id == block.id) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   public List getInstrOldOffsets() {
+      return this.instrOldOffsets;
+   }
+
+   public void setInstrOldOffsets(List instrInds) {
+      this.instrOldOffsets = instrInds;
+   }
+
+   public List getPredecessors() {
+      ArrayList lst = new ArrayList(this.preds);
+      lst.addAll(this.predExceptions);
+      return lst;
+   }
+
+   public List getPreds() {
+      return this.preds;
+   }
+
+   public void setPreds(List preds) {
+      this.preds = preds;
+   }
+
+   public InstructionSequence getSeq() {
+      return this.seq;
+   }
+
+   public void setSeq(InstructionSequence seq) {
+      this.seq = seq;
+   }
+
+   public List getSuccs() {
+      return this.succs;
+   }
+
+   public void setSuccs(List succs) {
+      this.succs = succs;
+   }
+
+   public List getSuccExceptions() {
+      return this.succExceptions;
+   }
+
+   public void setSuccExceptions(List succExceptions) {
+      this.succExceptions = succExceptions;
+   }
+
+   public List getPredExceptions() {
+      return this.predExceptions;
+   }
+
+   public void setPredExceptions(List predExceptions) {
+      this.predExceptions = predExceptions;
+   }
+}
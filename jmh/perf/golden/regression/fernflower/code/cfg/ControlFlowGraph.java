@@ -0,0 +1,786 @@
+package regression.fernflower.code.cfg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.code.CodeConstants;
+import regression.fernflower.code.ExceptionHandler;
+import regression.fernflower.code.Instruction;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.code.JumpInstruction;
+import regression.fernflower.code.SimpleInstructionSequence;
+import regression.fernflower.code.SwitchInstruction;
+import regression.fernflower.code.interpreter.InstructionImpact;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.code.DeadCodeHelper;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.struct.gen.DataPoint;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.ListStack;
+import regression.fernflower.util.VBStyleCollection;
+
+public class ControlFlowGraph implements CodeConstants {
+   public int last_id = 0;
+   private VBStyleCollection blocks;
+   private BasicBlock first;
+   private BasicBlock last;
+   private List exceptions;
+   private Map subroutines;
+   private Set finallyExits = new HashSet();
+
+   public ControlFlowGraph(InstructionSequence seq) {
+      this.buildBlocks(seq);
+   }
+
+   public void free() {
+      Iterator var1 = this.blocks.iterator();
+
+      while(var1.hasNext()) {
+         BasicBlock block = (BasicBlock)var1.next();
+         block.free();
+      }
+
+      this.blocks.clear();
+      this.first = null;
+      this.last = null;
+      this.exceptions.clear();
+      this.finallyExits.clear();
+   }
+
+   public void removeMarkers() {
+      BasicBlock block;
+      for(Iterator var1 = this.blocks.iterator(); var1.hasNext(); block.mark = 0) {
+         block = (BasicBlock)var1.next();
+      }
+
+   }
+
+   public String toString() {
+      if(this.blocks == null) {
+         return "Empty";
+      } else {
+         String new_line_separator = DecompilerContext.getNewLineSeparator();
+         StringBuilder buf = new StringBuilder();
+         Iterator var3 = this.blocks.iterator();
+
+         while(var3.hasNext()) {
+            BasicBlock block = (BasicBlock)var3.next();
+            buf.append("----- Block ").append(block.id).append(" -----").append(new_line_separator);
+            buf.append(block.toString());
+            buf.append("----- Edges -----").append(new_line_separator);
+            List suc = block.getSuccs();
+
+            int j;
+            for(j = 0; j < suc.size(); ++j) {
+               buf.append(">>>>>>>>(regular) Block ").append(((BasicBlock)suc.get(j)).id).append(new_line_separator);
+            }
+
+            suc = block.getSuccExceptions();
+
+            for(j = 0; j < suc.size(); ++j) {
+               BasicBlock handler = (BasicBlock)suc.get(j);
+               ExceptionRangeCFG range = this.getExceptionRange(handler, block);
+               if(range == null) {
+                  buf.append(">>>>>>>>(exception) Block ").append(handler.id).append("\t").append("ERROR: range not found!").append(new_line_separator);
+               } else {
+                  List exceptionTypes = range.getExceptionTypes();
+                  if(exceptionTypes == null) {
+                     buf.append(">>>>>>>>(exception) Block ").append(handler.id).append("\t").append("NULL").append(new_line_separator);
+                  } else {
+                     Iterator var10 = exceptionTypes.iterator();
+
+                     while(var10.hasNext()) {
+                        String exceptionType = (String)var10.next();
+                        buf.append(">>>>>>>>(exception) Block ").append(handler.id).append("\t").append(exceptionType).append(new_line_separator);
+                     }
+                  }
+               }
+            }
+
+            buf.append("----- ----- -----").append(new_line_separator);
+         }
+
+         return buf.toString();
+      }
+   }
+
+   public void inlineJsr(StructMethod mt) {
+      this.processJsr();
+      this.removeJsr(mt);
+      this.removeMarkers();
+      DeadCodeHelper.removeEmptyBlocks(this);
+   }
+
+   public void removeBlock(BasicBlock block) {
+      while(block.getSuccs().size() > 0) {
+         block.removeSuccessor((BasicBlock)block.getSuccs().get(0));
+      }
+
+      while(block.getSuccExceptions().size() > 0) {
+         block.removeSuccessorException((BasicBlock)block.getSuccExceptions().get(0));
+      }
+
+      while(block.getPreds().size() > 0) {
+         ((BasicBlock)block.getPreds().get(0)).removeSuccessor(block);
+      }
+
+      while(block.getPredExceptions().size() > 0) {
+         ((BasicBlock)block.getPredExceptions().get(0)).removeSuccessorException(block);
+      }
+
+      this.last.removePredecessor(block);
+      this.blocks.removeWithKey(Integer.valueOf(block.id));
+
+      for(int it = this.exceptions.size() - 1; it >= 0; --it) {
+         ExceptionRangeCFG ent = (ExceptionRangeCFG)this.exceptions.get(it);
+         if(ent.getHandler() == block) {
+            this.exceptions.remove(it);
+         } else {
+            List lstRange = ent.getProtectedRange();
+            lstRange.remove(block);
+            if(lstRange.isEmpty()) {
+               this.exceptions.remove(it);
+            }
+         }
+      }
+
+      Iterator var5 = this.subroutines.entrySet().iterator();
+
+      while(true) {
+         Entry var6;
+         do {
+            if(!var5.hasNext()) {
+               return;
+            }
+
+            var6 = (Entry)var5.next();
+         } while(var6.getKey() != block && var6.getValue() != block);
+
+         var5.remove();
+      }
+   }
+
+   public ExceptionRangeCFG getExceptionRange(BasicBlock handler, BasicBlock block) {
+      for(int i = this.exceptions.size() - 1; i >= 0; --i) {
+         ExceptionRangeCFG range = (ExceptionRangeCFG)this.exceptions.get(i);
+         if(range.getHandler() == handler && range.getProtectedRange().contains(block)) {
+            return range;
+         }
+      }
+
+      return null;
+   }
+
+   private void buildBlocks(InstructionSequence instrseq) {
+      short[] states = findStartInstructions(instrseq);
+      HashMap mapInstrBlocks = new HashMap();
+      VBStyleCollection colBlocks = this.createBasicBlocks(states, instrseq, mapInstrBlocks);
+      this.blocks = colBlocks;
+      connectBlocks(colBlocks, mapInstrBlocks);
+      this.setExceptionEdges(instrseq, mapInstrBlocks);
+      this.setSubroutineEdges();
+      this.setFirstAndLastBlocks();
+   }
+
+   private static short[] findStartInstructions(InstructionSequence seq) {
+      int len = seq.length();
+      short[] inststates = new short[len];
+      HashSet excSet = new HashSet();
+      Iterator i = seq.getExceptionTable().getHandlers().iterator();
+
+      while(i.hasNext()) {
+         ExceptionHandler instr = (ExceptionHandler)i.next();
+         excSet.add(Integer.valueOf(instr.from_instr));
+         excSet.add(Integer.valueOf(instr.to_instr));
+         excSet.add(Integer.valueOf(instr.handler_instr));
+      }
+
+      for(int var9 = 0; var9 < len; ++var9) {
+         if(excSet.contains(new Integer(var9))) {
+            inststates[var9] = 1;
+         }
+
+         Instruction var10 = seq.getInstr(var9);
+         switch(var10.group) {
+         case 2:
+            inststates[((JumpInstruction)var10).destination] = 1;
+         case 6:
+            if(var9 + 1 < len) {
+               inststates[var9 + 1] = 1;
+            }
+            break;
+         case 3:
+            SwitchInstruction swinstr = (SwitchInstruction)var10;
+            int[] dests = swinstr.getDestinations();
+
+            for(int j = dests.length - 1; j >= 0; --j) {
+               inststates[dests[j]] = 1;
+            }
+
+            inststates[swinstr.getDefaultdest()] = 1;
+            if(var9 + 1 < len) {
+               inststates[var9 + 1] = 1;
+            }
+         case 4:
+         case 5:
+         }
+      }
+
+      inststates[0] = 1;
+      return inststates;
+   }
+
+   private VBStyleCollection createBasicBlocks(short[] startblock, InstructionSequence instrseq, Map mapInstrBlocks) {
+      VBStyleCollection col = new VBStyleCollection();
+      SimpleInstructionSequence currseq = null;
+      ArrayList lstOffs = null;
+      int len = startblock.length;
+      short counter = 0;
+      int blockoffset = 0;
+      BasicBlock currentBlock = null;
+
+      for(int i = 0; i < len; ++i) {
+         if(startblock[i] == 1) {
+            currentBlock = new BasicBlock();
+            ++counter;
+            currentBlock.id = counter;
+            currseq = new SimpleInstructionSequence();
+            lstOffs = new ArrayList();
+            currentBlock.setSeq(currseq);
+            currentBlock.setInstrOldOffsets(lstOffs);
+            col.addWithKey(currentBlock, Integer.valueOf(currentBlock.id));
+            blockoffset = instrseq.getOffset(i);
+         }
+
+         startblock[i] = counter;
+         mapInstrBlocks.put(Integer.valueOf(i), currentBlock);
+         currseq.addInstruction(instrseq.getInstr(i), instrseq.getOffset(i) - blockoffset);
+         lstOffs.add(Integer.valueOf(instrseq.getOffset(i)));
+      }
+
+      this.last_id = counter;
+      return col;
+   }
+
+   private static void connectBlocks(List lstbb, Map mapInstrBlocks) {
+      for(int i = 0; i < lstbb.size(); ++i) {
+         BasicBlock block = (BasicBlock)lstbb.get(i);
+         Instruction instr = block.getLastInstruction();
+         boolean fallthrough = instr.canFallthrough();
+         BasicBlock bTemp;
+         switch(instr.group) {
+         case 2:
+            int defaultBlock = ((JumpInstruction)instr).destination;
+            bTemp = (BasicBlock)mapInstrBlocks.get(Integer.valueOf(defaultBlock));
+            block.addSuccessor(bTemp);
+            break;
+         case 3:
+            SwitchInstruction sinstr = (SwitchInstruction)instr;
+            int[] dests = sinstr.getDestinations();
+            bTemp = (BasicBlock)mapInstrBlocks.get(Integer.valueOf(((SwitchInstruction)instr).getDefaultdest()));
+            block.addSuccessor(bTemp);
+
+            for(int j = 0; j < dests.length; ++j) {
+               bTemp = (BasicBlock)mapInstrBlocks.get(Integer.valueOf(dests[j]));
+               block.addSuccessor(bTemp);
+            }
+         }
+
+         if(fallthrough && i < lstbb.size() - 1) {
+            BasicBlock var11 = (BasicBlock)lstbb.get(i + 1);
+            block.addSuccessor(var11);
+         }
+      }
+
+   }
+
+   private void setExceptionEdges(InstructionSequence instrseq, Map instrBlocks) {
+      this.exceptions = new ArrayList();
+      HashMap mapRanges = new HashMap();
+      Iterator var4 = instrseq.getExceptionTable().getHandlers().iterator();
+
+      while(true) {
+         while(var4.hasNext()) {
+            ExceptionHandler handler = (ExceptionHandler)var4.next();
+            BasicBlock from = (BasicBlock)instrBlocks.get(Integer.valueOf(handler.from_instr));
+            BasicBlock to = (BasicBlock)instrBlocks.get(Integer.valueOf(handler.to_instr));
+            BasicBlock handle = (BasicBlock)instrBlocks.get(Integer.valueOf(handler.handler_instr));
+            String key = from.id + ":" + to.id + ":" + handle.id;
+            if(mapRanges.containsKey(key)) {
+               ExceptionRangeCFG var13 = (ExceptionRangeCFG)mapRanges.get(key);
+               var13.addExceptionType(handler.exceptionClass);
+            } else {
+               ArrayList protectedRange = new ArrayList();
+
+               for(int range = from.id; range < to.id; ++range) {
+                  BasicBlock block = (BasicBlock)this.blocks.getWithKey(Integer.valueOf(range));
+                  protectedRange.add(block);
+                  block.addSuccessorException(handle);
+               }
+
+               ExceptionRangeCFG var14 = new ExceptionRangeCFG(protectedRange, handle, handler.exceptionClass == null ? null : Collections.singletonList(handler.exceptionClass));
+               mapRanges.put(key, var14);
+               this.exceptions.add(var14);
+            }
+         }
+
+         return;
+      }
+   }
+
+   private void setSubroutineEdges() {
+      HashMap subroutines = new HashMap();
+      Iterator var2 = this.blocks.iterator();
+
+      label54:
+      while(true) {
+         BasicBlock block;
+         do {
+            if(!var2.hasNext()) {
+               this.subroutines = subroutines;
+               return;
+            }
+
+            block = (BasicBlock)var2.next();
+         } while(block.getSeq().getLastInstr().opcode != 168);
+
+         LinkedList stack = new LinkedList();
+         LinkedList stackJsrStacks = new LinkedList();
+         HashSet setVisited = new HashSet();
+         stack.add(block);
+         stackJsrStacks.add(new LinkedList());
+
+         while(true) {
+            BasicBlock node;
+            LinkedList jsrstack;
+            BasicBlock succ;
+            do {
+               if(stack.isEmpty()) {
+                  continue label54;
+               }
+
+               node = (BasicBlock)stack.removeFirst();
+               jsrstack = (LinkedList)stackJsrStacks.removeFirst();
+               setVisited.add(node);
+               switch(node.getSeq().getLastInstr().opcode) {
+               case 168:
+                  jsrstack.add(node);
+                  break;
+               case 169:
+                  BasicBlock enter = (BasicBlock)jsrstack.getLast();
+                  succ = (BasicBlock)this.blocks.getWithKey(Integer.valueOf(enter.id + 1));
+                  if(succ == null) {
+                     throw new RuntimeException("ERROR: last instruction jsr");
+                  }
+
+                  if(!node.isSuccessor(succ)) {
+                     node.addSuccessor(succ);
+                  }
+
+                  jsrstack.removeLast();
+                  subroutines.put(enter, succ);
+               }
+            } while(jsrstack.isEmpty());
+
+            Iterator enter1 = node.getSuccs().iterator();
+
+            while(enter1.hasNext()) {
+               succ = (BasicBlock)enter1.next();
+               if(!setVisited.contains(succ)) {
+                  stack.add(succ);
+                  stackJsrStacks.add(new LinkedList(jsrstack));
+               }
+            }
+         }
+      }
+   }
+
+   private void processJsr() {
+      while(this.processJsrRanges() != 0) {
+      }
+
+   }
+
+   private int processJsrRanges() {
+      ArrayList lstJsrAll = new ArrayList();
+      Iterator lstJsr = this.subroutines.entrySet().iterator();
+
+      while(lstJsr.hasNext()) {
+         Entry i = (Entry)lstJsr.next();
+         BasicBlock arr = (BasicBlock)i.getKey();
+         BasicBlock set = (BasicBlock)i.getValue();
+         lstJsrAll.add(new ControlFlowGraph.JsrRecord(arr, this.getJsrRange(arr, set), set, null));
+      }
+
+      ArrayList var10 = new ArrayList();
+
+      ControlFlowGraph.JsrRecord var13;
+      int var14;
+      for(Iterator var11 = lstJsrAll.iterator(); var11.hasNext(); var10.add(var14, var13)) {
+         var13 = (ControlFlowGraph.JsrRecord)var11.next();
+
+         for(var14 = 0; var14 < var10.size(); ++var14) {
+            ControlFlowGraph.JsrRecord j = (ControlFlowGraph.JsrRecord)var10.get(var14);
+            if(j.range.contains(var13.jsr)) {
+               break;
+            }
+         }
+      }
+
+      for(int var12 = 0; var12 < var10.size(); ++var12) {
+         var13 = (ControlFlowGraph.JsrRecord)var10.get(var12);
+         Set var15 = var13.range;
+
+         for(int var16 = var12 + 1; var16 < var10.size(); ++var16) {
+            ControlFlowGraph.JsrRecord arr1 = (ControlFlowGraph.JsrRecord)var10.get(var16);
+            Set set1 = arr1.range;
+            if(!var15.contains(arr1.jsr) && !set1.contains(var13.jsr)) {
+               HashSet setc = new HashSet(var15);
+               setc.retainAll(set1);
+               if(!setc.isEmpty()) {
+                  this.splitJsrRange(var13.jsr, var13.ret, setc);
+                  return 1;
+               }
+            }
+         }
+      }
+
+      return 0;
+   }
+
+   private Set getJsrRange(BasicBlock jsr, BasicBlock ret) {
+      HashSet blocks = new HashSet();
+      LinkedList lstNodes = new LinkedList();
+      lstNodes.add(jsr);
+      BasicBlock dom = (BasicBlock)jsr.getSuccs().get(0);
+
+      while(!lstNodes.isEmpty()) {
+         BasicBlock node = (BasicBlock)lstNodes.remove(0);
+
+         for(int j = 0; j < 2; ++j) {
+            List lst;
+            if(j == 0) {
+               if(node.getLastInstruction().opcode == 169 && node.getSuccs().contains(ret)) {
+                  continue;
+               }
+
+               lst = node.getSuccs();
+            } else {
+               if(node == jsr) {
+                  continue;
+               }
+
+               lst = node.getSuccExceptions();
+            }
+
+            label75:
+            for(int i = lst.size() - 1; i >= 0; --i) {
+               BasicBlock child = (BasicBlock)lst.get(i);
+               if(!blocks.contains(child)) {
+                  if(node != jsr) {
+                     int k;
+                     for(k = 0; k < child.getPreds().size(); ++k) {
+                        if(!DeadCodeHelper.isDominator(this, (BasicBlock)child.getPreds().get(k), dom)) {
+                           continue label75;
+                        }
+                     }
+
+                     for(k = 0; k < child.getPredExceptions().size(); ++k) {
+                        if(!DeadCodeHelper.isDominator(this, (BasicBlock)child.getPredExceptions().get(k), dom)) {
+                           continue label75;
+                        }
+                     }
+                  }
+
+                  if(child != this.last) {
+                     blocks.add(child);
+                  }
+
+                  lstNodes.add(child);
+               }
+            }
+         }
+      }
+
+      return blocks;
+   }
+
+   private void splitJsrRange(BasicBlock jsr, BasicBlock ret, Set common_blocks) {
+      LinkedList lstNodes = new LinkedList();
+      HashMap mapNewNodes = new HashMap();
+      lstNodes.add(jsr);
+      mapNewNodes.put(Integer.valueOf(jsr.id), jsr);
+
+      while(!lstNodes.isEmpty()) {
+         BasicBlock node = (BasicBlock)lstNodes.remove(0);
+
+         for(int j = 0; j < 2; ++j) {
+            List lst;
+            if(j == 0) {
+               if(node.getLastInstruction().opcode == 169 && node.getSuccs().contains(ret)) {
+                  continue;
+               }
+
+               lst = node.getSuccs();
+            } else {
+               if(node == jsr) {
+                  continue;
+               }
+
+               lst = node.getSuccExceptions();
+            }
+
+            for(int i = lst.size() - 1; i >= 0; --i) {
+               BasicBlock child = (BasicBlock)lst.get(i);
+               Integer childid = Integer.valueOf(child.id);
+               if(mapNewNodes.containsKey(childid)) {
+                  node.replaceSuccessor(child, (BasicBlock)mapNewNodes.get(childid));
+               } else if(!common_blocks.contains(child)) {
+                  mapNewNodes.put(childid, child);
+               } else {
+                  BasicBlock copy = (BasicBlock)child.clone();
+                  copy.id = ++this.last_id;
+                  int k;
+                  if(copy.getLastInstruction().opcode == 169 && child.getSuccs().contains(ret)) {
+                     copy.addSuccessor(ret);
+                     child.removeSuccessor(ret);
+                  } else {
+                     for(k = 0; k < child.getSuccs().size(); ++k) {
+                        copy.addSuccessor((BasicBlock)child.getSuccs().get(k));
+                     }
+                  }
+
+                  for(k = 0; k < child.getSuccExceptions().size(); ++k) {
+                     copy.addSuccessorException((BasicBlock)child.getSuccExceptions().get(k));
+                  }
+
+                  lstNodes.add(copy);
+                  mapNewNodes.put(childid, copy);
+                  if(this.last.getPreds().contains(child)) {
+                     this.last.addPredecessor(copy);
+                  }
+
+                  node.replaceSuccessor(child, copy);
+                  this.blocks.addWithKey(copy, Integer.valueOf(copy.id));
+               }
+            }
+         }
+      }
+
+      this.splitJsrExceptionRanges(common_blocks, mapNewNodes);
+   }
+
+   private void splitJsrExceptionRanges(Set common_blocks, Map mapNewNodes) {
+      for(int i = this.exceptions.size() - 1; i >= 0; --i) {
+         ExceptionRangeCFG range = (ExceptionRangeCFG)this.exceptions.get(i);
+         List lstRange = range.getProtectedRange();
+         HashSet setBoth = new HashSet(common_blocks);
+         setBoth.retainAll(lstRange);
+         if(setBoth.size() > 0) {
+            Object lstNewRange;
+            if(setBoth.size() == lstRange.size()) {
+               lstNewRange = new ArrayList();
+               ExceptionRangeCFG newRange = new ExceptionRangeCFG((List)lstNewRange, (BasicBlock)mapNewNodes.get(Integer.valueOf(range.getHandler().id)), range.getExceptionTypes());
+               this.exceptions.add(newRange);
+            } else {
+               lstNewRange = lstRange;
+            }
+
+            Iterator var10 = setBoth.iterator();
+
+            while(var10.hasNext()) {
+               BasicBlock block = (BasicBlock)var10.next();
+               ((List)lstNewRange).add((BasicBlock)mapNewNodes.get(Integer.valueOf(block.id)));
+            }
+         }
+      }
+
+   }
+
+   private void removeJsr(StructMethod mt) {
+      removeJsrInstructions(mt.getClassStruct().getPool(), this.first, DataPoint.getInitialDataPoint(mt));
+   }
+
+   private static void removeJsrInstructions(ConstantPool pool, BasicBlock block, DataPoint data) {
+      ListStack stack = data.getStack();
+      InstructionSequence seq = block.getSeq();
+
+      int i;
+      for(i = 0; i < seq.length(); ++i) {
+         Instruction suc = seq.getInstr(i);
+         VarType point = null;
+         if(suc.opcode == 58 || suc.opcode == 87) {
+            point = (VarType)stack.getByOffset(-1);
+         }
+
+         InstructionImpact.stepTypes(data, suc, pool);
+         switch(suc.opcode) {
+         case 58:
+         case 87:
+            if(point.type == 9) {
+               seq.removeInstruction(i);
+               --i;
+            }
+            break;
+         case 168:
+         case 169:
+            seq.removeInstruction(i);
+            --i;
+         }
+      }
+
+      block.mark = 1;
+
+      BasicBlock var8;
+      for(i = 0; i < block.getSuccs().size(); ++i) {
+         var8 = (BasicBlock)block.getSuccs().get(i);
+         if(var8.mark != 1) {
+            removeJsrInstructions(pool, var8, data.copy());
+         }
+      }
+
+      for(i = 0; i < block.getSuccExceptions().size(); ++i) {
+         var8 = (BasicBlock)block.getSuccExceptions().get(i);
+         if(var8.mark != 1) {
+            DataPoint var9 = new DataPoint();
+            var9.setLocalVariables(new ArrayList(data.getLocalVariables()));
+            var9.getStack().push(new VarType(8, 0, (String)null));
+            removeJsrInstructions(pool, var8, var9);
+         }
+      }
+
+   }
+
+   private void setFirstAndLastBlocks() {
+      this.first = (BasicBlock)this.blocks.get(0);
+      this.last = new BasicBlock();
+      this.last.id = ++this.last_id;
+      this.last.setSeq(new SimpleInstructionSequence());
+      Iterator var1 = this.blocks.iterator();
+
+      while(var1.hasNext()) {
+         BasicBlock block = (BasicBlock)var1.next();
+         if(block.getSuccs().isEmpty()) {
+            this.last.addPredecessor(block);
+         }
+      }
+
+   }
+
+   public List getReversePostOrder() {
+      LinkedList res = new LinkedList();
+      addToReversePostOrderListIterative(this.first, res);
+      return res;
+   }
+
+   private static void addToReversePostOrderListIterative(BasicBlock root, List lst) {
+      LinkedList stackNode = new LinkedList();
+      LinkedList stackIndex = new LinkedList();
+      HashSet setVisited = new HashSet();
+      stackNode.add(root);
+      stackIndex.add(Integer.valueOf(0));
+
+      while(!stackNode.isEmpty()) {
+         BasicBlock node = (BasicBlock)stackNode.getLast();
+         int index = ((Integer)stackIndex.removeLast()).intValue();
+         setVisited.add(node);
+         ArrayList lstSuccs = new ArrayList(node.getSuccs());
+         lstSuccs.addAll(node.getSuccExceptions());
+
+         while(index < lstSuccs.size()) {
+            BasicBlock succ = (BasicBlock)lstSuccs.get(index);
+            if(!setVisited.contains(succ)) {
+               stackIndex.add(Integer.valueOf(index + 1));
+               stackNode.add(succ);
+               stackIndex.add(Integer.valueOf(0));
+               break;
+            }
+
+            ++index;
+         }
+
+         if(index == lstSuccs.size()) {
+            lst.add(0, node);
+            stackNode.removeLast();
+         }
+      }
+
+   }
+
+   public VBStyleCollection getBlocks() {
+      return this.blocks;
+   }
+
+   public void setBlocks(VBStyleCollection blocks) {
+      this.blocks = blocks;
+   }
+
+   public BasicBlock getFirst() {
+      return this.first;
+   }
+
+   public void setFirst(BasicBlock first) {
+      this.first = first;
+   }
+
+   public List getEndBlocks() {
+      return this.last.getPreds();
+   }
+
+   public List getExceptions() {
+      return this.exceptions;
+   }
+
+   public void setExceptions(List exceptions) {
+      this.exceptions = exceptions;
+   }
+
+   public BasicBlock getLast() {
+      return this.last;
+   }
+
+   public void setLast(BasicBlock last) {
+      this.last = last;
+   }
+
+   public Map getSubroutines() {
+      return this.subroutines;
+   }
+
+   public void setSubroutines(Map subroutines) {
+      this.subroutines = subroutines;
+   }
+
+   public Set getFinallyExits() {
+      return this.finallyExits;
+   }
+
+   public void setFinallyExits(HashSet finallyExits) {
+      this.finallyExits = finallyExits;
+   }
+
+   private static class JsrRecord {
+      private final BasicBlock jsr;
+      private final Set range;
+      private final BasicBlock ret;
+
+      private JsrRecord(BasicBlock jsr, Set range, BasicBlock ret) {
+         this.jsr = jsr;
+         this.range = range;
+         this.ret = ret;
+      }
+
+      // $FF: synthetic method
+      JsrRecord(BasicBlock x0, Set x1, BasicBlock x2, Object x3) {
+         this(x0, x1, x2);
+      }
+   }
+}
@@ -0,0 +1,106 @@
+package regression.fernflower.code.cfg;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.main.DecompilerContext;
+
+public class ExceptionRangeCFG {
+   private List protectedRange = new ArrayList();
+   private BasicBlock handler;
+   private List exceptionTypes;
+
+   public ExceptionRangeCFG(List protectedRange, BasicBlock handler, List exceptionType) {
+      this.protectedRange = protectedRange;
+      this.handler = handler;
+      if(exceptionType != null) {
+         this.exceptionTypes = new ArrayList(exceptionType);
+      }
+
+   }
+
+   public boolean isCircular() {
+      return this.protectedRange.contains(this.handler);
+   }
+
+   public String toString() {
+      String new_line_separator = DecompilerContext.getNewLineSeparator();
+      StringBuilder buf = new StringBuilder();
+      buf.append("exceptionType:");
+      Iterator i = this.exceptionTypes.iterator();
+
+      while(i.hasNext()) {
+         String exception_type = (String)i.next();
+         buf.append(" ").append(exception_type);
+      }
+
+      buf.append(new_line_separator);
+      buf.append("handler: ").append(this.handler.id).append(new_line_separator);
+      buf.append("range: ");
+
+      for(int var5 = 0; var5 < this.protectedRange.size(); ++var5) {
+         buf.append(((BasicBlock)this.protectedRange.get(var5)).id).append(" ");
+      }
+
+      buf.append(new_line_separator);
+      return buf.toString();
+   }
+
+   public BasicBlock getHandler() {
+      return this.handler;
+   }
+
+   public void setHandler(BasicBlock handler) {
+      this.handler = handler;
+   }
+
+   public List getProtectedRange() {
+      return this.protectedRange;
+   }
+
+   public void setProtectedRange(List protectedRange) {
+      this.protectedRange = protectedRange;
+   }
+
+   public List getExceptionTypes() {
+      return this.exceptionTypes;
+   }
+
+   public void addExceptionType(String exceptionType) {
+      if(this.exceptionTypes != null) {
+         if(exceptionType == null) {
+            this.exceptionTypes = null;
+         } else {
+            this.exceptionTypes.add(exceptionType);
+         }
+
+      }
+   }
+
+   public String getUniqueExceptionsString() {
+      if(this.exceptionTypes == null) {
+         return null;
+      } else {
+         HashSet setExceptionStrings = new HashSet();
+         Iterator ret = this.exceptionTypes.iterator();
+
+         while(ret.hasNext()) {
+            String exceptionType = (String)ret.next();
+            setExceptionStrings.add(exceptionType);
+         }
+
+         String ret1 = "";
+
+         String exception;
+         for(Iterator exceptionType1 = setExceptionStrings.iterator(); exceptionType1.hasNext(); ret1 = ret1 + exception) {
+            exception = (String)exceptionType1.next();
+            if(!ret1.isEmpty()) {
+               ret1 = ret1 + ":";
+            }
+         }
+
+         return ret1;
+      }
+   }
+}
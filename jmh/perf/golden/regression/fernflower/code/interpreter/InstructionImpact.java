@@ -0,0 +1,211 @@
+package regression.fernflower.code.interpreter;
+
+import regression.fernflower.code.Instruction;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.struct.consts.LinkConstant;
+import regression.fernflower.struct.consts.PooledConstant;
+import regression.fernflower.struct.consts.PrimitiveConstant;
+import regression.fernflower.struct.gen.DataPoint;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.ListStack;
+
+public class InstructionImpact {
+   private static final int[][][] stack_impact = new int[][][]{{null, null}, null, null, null, null, null, null, null, null, {null, {5}}, {null, {5}}, {null, {3}}, {null, {3}}, {null, {3}}, {null, {2}}, {null, {2}}, {null, {4}}, {null, {4}}, null, null, null, {null, {4}}, {null, {5}}, {null, {3}}, {null, {2}}, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, {{8, 4}, {4}}, {{8, 4}, {5}}, {{8, 4}, {3}}, {{8, 4}, {2}}, null, {{8, 4}, {4}}, {{8, 4}, {4}}, {{8, 4}, {4}}, {{4}, null}, {{5}, null}, {{3}, null}, {{2}, null}, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, {{8, 4, 4}, null}, {{8, 4, 5}, null}, {{8, 4, 3}, null}, {{8, 4, 2}, null}, {{8, 4, 8}, null}, {{8, 4, 4}, null}, {{8, 4, 4}, null}, {{8, 4, 4}, null}, {{11}, null}, {{11, 11}, null}, null, null, null, null, null, null, null, {{4, 4}, {4}}, {{5, 5}, {5}}, {{3, 3}, {3}}, {{2, 2}, {2}}, {{4, 4}, {4}}, {{5, 5}, {5}}, {{3, 3}, {3}}, {{2, 2}, {2}}, {{4, 4}, {4}}, {{5, 5}, {5}}, {{3, 3}, {3}}, {{2, 2}, {2}}, {{4, 4}, {4}}, {{5, 5}, {5}}, {{3, 3}, {3}}, {{2, 2}, {2}}, {{4, 4}, {4}}, {{5, 5}, {5}}, {{3, 3}, {3}}, {{2, 2}, {2}}, {{4}, {4}}, {{5}, {5}}, {{3}, {3}}, {{2}, {2}}, {{4, 4}, {4}}, {{5, 4}, {5}}, {{4, 4}, {4}}, {{5, 4}, {5}}, {{4, 4}, {4}}, {{5, 4}, {5}}, {{4, 4}, {4}}, {{5, 5}, {5}}, {{4, 4}, {4}}, {{5, 5}, {5}}, {{4, 4}, {4}}, {{5, 5}, {5}}, {null, null}, {{4}, {5}}, {{4}, {3}}, {{4}, {2}}, {{5}, {4}}, {{5}, {3}}, {{5}, {2}}, {{3}, {4}}, {{3}, {5}}, {{3}, {2}}, {{2}, {4}}, {{2}, {5}}, {{2}, {3}}, {{4}, {4}}, {{4}, {4}}, {{4}, {4}}, {{5, 5}, {4}}, {{3, 3}, {4}}, {{3, 3}, {4}}, {{2, 2}, {4}}, {{2, 2}, {4}}, {{4}, null}, {{4}, null}, {{4}, null}, {{4}, null}, {{4}, null}, {{4}, null}, {{4, 4}, null}, {{4, 4}, null}, {{4, 4}, null}, {{4, 4}, null}, {{4, 4}, null}, {{4, 4}, null}, {{8, 8}, null}, {{8, 8}, null}, {null, null}, {null, {9}}, {null, null}, {{4}, null}, {{4}, null}, {{4}, null}, {{5}, null}, {{3}, null}, {{2}, null}, {{8}, null}, {null, null}, null, null, null, null, null, null, null, null, null, null, null, null, {{8}, {4}}, null, null, null, {{8}, null}, {{8}, null}, null, null, {{8}, null}, {{8}, null}, {null, null}, {null, {9}}};
+   private static final int[] arr_type = new int[]{7, 1, 3, 2, 0, 6, 4, 5};
+
+   public static void stepTypes(DataPoint data, Instruction instr, ConstantPool pool) {
+      ListStack stack = data.getStack();
+      int[][] arr = stack_impact[instr.opcode];
+      if(arr != null) {
+         int[] read = arr[0];
+         int[] write = arr[1];
+         int i;
+         int type;
+         if(read != null) {
+            i = 0;
+            type = 0;
+
+            while(true) {
+               if(type >= read.length) {
+                  stack.removeMultiple(i);
+                  break;
+               }
+
+               int type1 = read[type];
+               ++i;
+               if(type1 == 5 || type1 == 2) {
+                  ++i;
+               }
+
+               ++type;
+            }
+         }
+
+         if(write != null) {
+            for(i = 0; i < write.length; ++i) {
+               type = write[i];
+               stack.push(new VarType(type));
+               if(type == 5 || type == 2) {
+                  stack.push(new VarType(12));
+               }
+            }
+         }
+      } else {
+         processSpecialInstructions(data, instr, pool);
+      }
+
+   }
+
+   private static void processSpecialInstructions(DataPoint data, Instruction instr, ConstantPool pool) {
+      ListStack stack = data.getStack();
+      VarType var1;
+      PrimitiveConstant cn;
+      LinkConstant ck;
+      switch(instr.opcode) {
+      case 1:
+         stack.push(new VarType(13, 0, (String)null));
+         break;
+      case 18:
+      case 19:
+      case 20:
+         PooledConstant constant = pool.getConstant(instr.getOperand(0));
+         switch(constant.type) {
+         case 3:
+            stack.push(new VarType(4));
+            return;
+         case 4:
+            stack.push(new VarType(3));
+            return;
+         case 5:
+            stack.push(new VarType(5));
+            stack.push(new VarType(12));
+            return;
+         case 6:
+            stack.push(new VarType(2));
+            stack.push(new VarType(12));
+            return;
+         case 7:
+            stack.push(new VarType(8, 0, "java/lang/Class"));
+            return;
+         case 8:
+            stack.push(new VarType(8, 0, "java/lang/String"));
+            return;
+         case 9:
+         case 10:
+         case 11:
+         case 12:
+         case 13:
+         case 14:
+         default:
+            return;
+         case 15:
+            stack.push(new VarType(((LinkConstant)constant).descriptor));
+            return;
+         }
+      case 25:
+         var1 = data.getVariable(instr.getOperand(0));
+         if(var1 != null) {
+            stack.push(var1);
+         } else {
+            stack.push(new VarType(8, 0, (String)null));
+         }
+         break;
+      case 50:
+         var1 = (VarType)stack.pop(2);
+         stack.push(new VarType(var1.type, var1.arrayDim - 1, var1.value));
+         break;
+      case 58:
+         data.setVariable(instr.getOperand(0), (VarType)stack.pop());
+         break;
+      case 89:
+      case 90:
+      case 91:
+         int depth1 = 88 - instr.opcode;
+         stack.insertByOffset(depth1, ((VarType)stack.getByOffset(-1)).copy());
+         break;
+      case 92:
+      case 93:
+      case 94:
+         int depth2 = 90 - instr.opcode;
+         stack.insertByOffset(depth2, ((VarType)stack.getByOffset(-2)).copy());
+         stack.insertByOffset(depth2, ((VarType)stack.getByOffset(-1)).copy());
+         break;
+      case 95:
+         var1 = (VarType)stack.pop();
+         stack.insertByOffset(-1, var1);
+         break;
+      case 180:
+         stack.pop();
+      case 178:
+         ck = pool.getLinkConstant(instr.getOperand(0));
+         var1 = new VarType(ck.descriptor);
+         stack.push(var1);
+         if(var1.stackSize == 2) {
+            stack.push(new VarType(12));
+         }
+         break;
+      case 181:
+         stack.pop();
+      case 179:
+         ck = pool.getLinkConstant(instr.getOperand(0));
+         var1 = new VarType(ck.descriptor);
+         stack.pop(var1.stackSize);
+         break;
+      case 182:
+      case 183:
+      case 185:
+         stack.pop();
+      case 184:
+      case 186:
+         if(instr.opcode != 186 || instr.bytecode_version >= 4) {
+            ck = pool.getLinkConstant(instr.getOperand(0));
+            MethodDescriptor var12 = MethodDescriptor.parseDescriptor(ck.descriptor);
+
+            for(int i = 0; i < var12.params.length; ++i) {
+               stack.pop(var12.params[i].stackSize);
+            }
+
+            if(var12.ret.type != 10) {
+               stack.push(var12.ret);
+               if(var12.ret.stackSize == 2) {
+                  stack.push(new VarType(12));
+               }
+            }
+         }
+         break;
+      case 187:
+         cn = pool.getPrimitiveConstant(instr.getOperand(0));
+         stack.push(new VarType(8, 0, cn.getString()));
+         break;
+      case 188:
+         stack.pop();
+         stack.push((new VarType(arr_type[instr.getOperand(0) - 4], 1)).resizeArrayDim(1));
+         break;
+      case 189:
+      case 197:
+         int dimensions = instr.opcode == 189 ? 1 : instr.getOperand(1);
+         stack.pop(dimensions);
+         cn = pool.getPrimitiveConstant(instr.getOperand(0));
+         if(cn.isArray) {
+            var1 = new VarType(8, 0, cn.getString());
+            var1 = var1.resizeArrayDim(var1.arrayDim + dimensions);
+            stack.push(var1);
+         } else {
+            stack.push(new VarType(8, dimensions, cn.getString()));
+         }
+         break;
+      case 191:
+         var1 = (VarType)stack.pop();
+         stack.clear();
+         stack.push(var1);
+         break;
+      case 192:
+      case 193:
+         stack.pop();
+         cn = pool.getPrimitiveConstant(instr.getOperand(0));
+         stack.push(new VarType(8, 0, cn.getString()));
+      }
+
+   }
+}
@@ -0,0 +1,33 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.Instruction;
+
+public class ALOAD extends Instruction {
+   private static int[] opcodes = new int[]{42, 43, 44, 45};
+
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      int index = this.getOperand(0);
+      if(index > 3) {
+         if(this.wide) {
+            out.writeByte(196);
+         }
+
+         out.writeByte(25);
+         if(this.wide) {
+            out.writeShort(index);
+         } else {
+            out.writeByte(index);
+         }
+      } else {
+         out.writeByte(opcodes[index]);
+      }
+
+   }
+
+   public int length() {
+      int index = this.getOperand(0);
+      return index > 3 ? (this.wide ? 4 : 2) : 1;
+   }
+}
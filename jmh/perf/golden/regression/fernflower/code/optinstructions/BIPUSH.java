@@ -0,0 +1,25 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.Instruction;
+
+public class BIPUSH extends Instruction {
+   private static int[] opcodes = new int[]{2, 3, 4, 5, 6, 7, 8};
+
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      int value = this.getOperand(0);
+      if(value >= -1 && value <= 5) {
+         out.writeByte(opcodes[value + 1]);
+      } else {
+         out.writeByte(16);
+         out.writeByte(value);
+      }
+
+   }
+
+   public int length() {
+      int value = this.getOperand(0);
+      return value >= -1 && value <= 5 ? 1 : 2;
+   }
+}
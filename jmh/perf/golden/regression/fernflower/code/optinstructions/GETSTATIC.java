@@ -0,0 +1,16 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.Instruction;
+
+public class GETSTATIC extends Instruction {
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      out.writeByte(178);
+      out.writeShort(this.getOperand(0));
+   }
+
+   public int length() {
+      return 3;
+   }
+}
@@ -0,0 +1,27 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.Instruction;
+
+public class IINC extends Instruction {
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      if(this.wide) {
+         out.writeByte(196);
+      }
+
+      out.writeByte(132);
+      if(this.wide) {
+         out.writeShort(this.getOperand(0));
+         out.writeShort(this.getOperand(1));
+      } else {
+         out.writeByte(this.getOperand(0));
+         out.writeByte(this.getOperand(1));
+      }
+
+   }
+
+   public int length() {
+      return this.wide ? 6 : 3;
+   }
+}
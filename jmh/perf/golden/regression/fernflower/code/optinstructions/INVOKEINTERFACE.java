@@ -0,0 +1,18 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.Instruction;
+
+public class INVOKEINTERFACE extends Instruction {
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      out.writeByte(185);
+      out.writeShort(this.getOperand(0));
+      out.writeByte(this.getOperand(1));
+      out.writeByte(0);
+   }
+
+   public int length() {
+      return 5;
+   }
+}
@@ -0,0 +1,24 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.JumpInstruction;
+
+public class JSR extends JumpInstruction {
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      int operand = this.getOperand(0);
+      if(operand >= -32768 && operand <= 32767) {
+         out.writeByte(168);
+         out.writeShort(operand);
+      } else {
+         out.writeByte(201);
+         out.writeInt(operand);
+      }
+
+   }
+
+   public int length() {
+      int operand = this.getOperand(0);
+      return operand >= -32768 && operand <= 32767 ? 3 : 5;
+   }
+}
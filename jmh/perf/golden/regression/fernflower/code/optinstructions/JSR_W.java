@@ -0,0 +1,16 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.JumpInstruction;
+
+public class JSR_W extends JumpInstruction {
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      out.writeByte(201);
+      out.writeInt(this.getOperand(0));
+   }
+
+   public int length() {
+      return 5;
+   }
+}
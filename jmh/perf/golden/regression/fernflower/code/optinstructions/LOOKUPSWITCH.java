@@ -0,0 +1,26 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.SwitchInstruction;
+
+public class LOOKUPSWITCH extends SwitchInstruction {
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      out.writeByte(171);
+      int padding = 3 - offset % 4;
+
+      int i;
+      for(i = 0; i < padding; ++i) {
+         out.writeByte(0);
+      }
+
+      for(i = 0; i < this.operandsCount(); ++i) {
+         out.writeInt(this.getOperand(i));
+      }
+
+   }
+
+   public int length() {
+      return 1 + this.operandsCount() * 4;
+   }
+}
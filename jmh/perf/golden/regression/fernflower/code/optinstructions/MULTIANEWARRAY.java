@@ -0,0 +1,17 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.Instruction;
+
+public class MULTIANEWARRAY extends Instruction {
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      out.writeByte(197);
+      out.writeShort(this.getOperand(0));
+      out.writeByte(this.getOperand(1));
+   }
+
+   public int length() {
+      return 4;
+   }
+}
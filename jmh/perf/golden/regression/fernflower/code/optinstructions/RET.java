@@ -0,0 +1,25 @@
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.Instruction;
+
+public class RET extends Instruction {
+   public void writeToStream(DataOutputStream out, int offset) throws IOException {
+      if(this.wide) {
+         out.writeByte(196);
+      }
+
+      out.writeByte(169);
+      if(this.wide) {
+         out.writeShort(this.getOperand(0));
+      } else {
+         out.writeByte(this.getOperand(0));
+      }
+
+   }
+
+   public int length() {
+      return this.wide ? 4 : 2;
+   }
+}
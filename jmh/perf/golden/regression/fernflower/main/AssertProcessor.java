@@ -0,0 +1,278 @@
+package regression.fernflower.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.main.rels.ClassWrapper;
+import regression.fernflower.main.rels.MethodWrapper;
+import regression.fernflower.modules.decompiler.SecondaryFunctionsHelper;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.exps.AssertExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.ExitExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FieldExprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.SequenceStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.struct.StructField;
+import regression.fernflower.struct.gen.FieldDescriptor;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+
+public class AssertProcessor {
+   private static final VarType CLASS_ASSERTION_ERROR = new VarType(8, 0, "java/lang/AssertionError");
+
+   public static void buildAssertions(ClassesProcessor.ClassNode node) {
+      ClassWrapper wrapper = node.getWrapper();
+      StructField field = findAssertionField(node);
+      if(field != null) {
+         String key = InterpreterUtil.makeUniqueKey(field.getName(), field.getDescriptor());
+         boolean res = false;
+         Iterator var5 = wrapper.getMethods().iterator();
+
+         while(var5.hasNext()) {
+            MethodWrapper meth = (MethodWrapper)var5.next();
+            RootStatement root = meth.root;
+            if(root != null) {
+               res |= replaceAssertions(root, wrapper.getClassStruct().qualifiedName, key);
+            }
+         }
+
+         if(res) {
+            wrapper.getHiddenMembers().add(key);
+         }
+      }
+
+   }
+
+   private static StructField findAssertionField(ClassesProcessor.ClassNode node) {
+      ClassWrapper wrapper = node.getWrapper();
+      boolean noSynthFlag = DecompilerContext.getOption("nns");
+      Iterator var3 = wrapper.getClassStruct().getFields().iterator();
+
+      StructField fd;
+      ClassesProcessor.ClassNode nd;
+      do {
+         ConstExprent cexpr;
+         do {
+            InvocationExprent invexpr;
+            do {
+               do {
+                  do {
+                     do {
+                        do {
+                           FunctionExprent fexpr;
+                           do {
+                              do {
+                                 Exprent initializer;
+                                 do {
+                                    String keyField;
+                                    FieldDescriptor fdescr;
+                                    do {
+                                       do {
+                                          do {
+                                             do {
+                                                do {
+                                                   if(!var3.hasNext()) {
+                                                      return null;
+                                                   }
+
+                                                   fd = (StructField)var3.next();
+                                                   keyField = InterpreterUtil.makeUniqueKey(fd.getName(), fd.getDescriptor());
+                                                } while(!wrapper.getStaticFieldInitializers().containsKey(keyField));
+                                             } while(!fd.hasModifier(8));
+                                          } while(!fd.hasModifier(16));
+                                       } while(!noSynthFlag && !fd.isSynthetic());
+
+                                       fdescr = FieldDescriptor.parseDescriptor(fd.getDescriptor());
+                                    } while(!VarType.VARTYPE_BOOLEAN.equals(fdescr.type));
+
+                                    initializer = (Exprent)wrapper.getStaticFieldInitializers().getWithKey(keyField);
+                                 } while(initializer.type != 6);
+
+                                 fexpr = (FunctionExprent)initializer;
+                              } while(fexpr.getFuncType() != 12);
+                           } while(((Exprent)fexpr.getLstOperands().get(0)).type != 8);
+
+                           invexpr = (InvocationExprent)fexpr.getLstOperands().get(0);
+                        } while(invexpr.getInstance() == null);
+                     } while(invexpr.getInstance().type != 3);
+                  } while(!"desiredAssertionStatus".equals(invexpr.getName()));
+               } while(!"java/lang/Class".equals(invexpr.getClassname()));
+            } while(!invexpr.getLstParameters().isEmpty());
+
+            cexpr = (ConstExprent)invexpr.getInstance();
+         } while(!VarType.VARTYPE_CLASS.equals(cexpr.getConstType()));
+
+         for(nd = node; nd != null && !nd.getWrapper().getClassStruct().qualifiedName.equals(cexpr.getValue()); nd = nd.parent) {
+         }
+      } while(nd == null);
+
+      return fd;
+   }
+
+   private static boolean replaceAssertions(Statement statement, String classname, String key) {
+      boolean res = false;
+
+      Statement st;
+      for(Iterator replaced = statement.getStats().iterator(); replaced.hasNext(); res |= replaceAssertions(st, classname, key)) {
+         st = (Statement)replaced.next();
+      }
+
+      for(boolean replaced1 = true; replaced1; res |= replaced1) {
+         replaced1 = false;
+         Iterator st2 = statement.getStats().iterator();
+
+         while(st2.hasNext()) {
+            Statement st1 = (Statement)st2.next();
+            if(st1.type == 2 && replaceAssertion(statement, (IfStatement)st1, classname, key)) {
+               replaced1 = true;
+               break;
+            }
+         }
+      }
+
+      return res;
+   }
+
+   private static boolean replaceAssertion(Statement parent, IfStatement stat, String classname, String key) {
+      Statement ifstat = stat.getIfstat();
+      InvocationExprent throwError = isAssertionError(ifstat);
+      if(throwError == null) {
+         return false;
+      } else {
+         Object[] exprres = getAssertionExprent(stat.getHeadexprent().getCondition().copy(), classname, key);
+         if(!((Boolean)exprres[1]).booleanValue()) {
+            return false;
+         } else {
+            ArrayList lstParams = new ArrayList();
+            FunctionExprent ascond = null;
+            Exprent retcond = null;
+            if(exprres[0] != null) {
+               ascond = new FunctionExprent(12, (Exprent)exprres[0], throwError.bytecode);
+               retcond = SecondaryFunctionsHelper.propagateBoolNot(ascond);
+            }
+
+            lstParams.add(retcond == null ? ascond : retcond);
+            if(!throwError.getLstParameters().isEmpty()) {
+               lstParams.add((Exprent)throwError.getLstParameters().get(0));
+            }
+
+            AssertExprent asexpr = new AssertExprent(lstParams);
+            Object newstat = new BasicBlockStatement(new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0)));
+            ((Statement)newstat).setExprents(Arrays.asList(new Exprent[]{asexpr}));
+            Statement first = stat.getFirst();
+            if(stat.iftype == 1 || first.getExprents() != null && !first.getExprents().isEmpty()) {
+               first.removeSuccessor(stat.getIfEdge());
+               first.removeSuccessor(stat.getElseEdge());
+               ArrayList lstStatements = new ArrayList();
+               if(first.getExprents() != null && !first.getExprents().isEmpty()) {
+                  lstStatements.add(first);
+               }
+
+               lstStatements.add(newstat);
+               if(stat.iftype == 1) {
+                  lstStatements.add(stat.getElsestat());
+               }
+
+               SequenceStatement sequence = new SequenceStatement(lstStatements);
+               sequence.setAllParent();
+
+               for(int ifelse = 0; ifelse < sequence.getStats().size() - 1; ++ifelse) {
+                  ((Statement)sequence.getStats().get(ifelse)).addSuccessor(new StatEdge(1, (Statement)sequence.getStats().get(ifelse), (Statement)sequence.getStats().get(ifelse + 1)));
+               }
+
+               if(stat.iftype == 1) {
+                  Statement var18 = stat.getElsestat();
+                  List lstSuccs = var18.getAllSuccessorEdges();
+                  if(!lstSuccs.isEmpty()) {
+                     StatEdge endedge = (StatEdge)lstSuccs.get(0);
+                     if(endedge.closure == stat) {
+                        sequence.addLabeledEdge(endedge);
+                     }
+                  }
+               }
+
+               newstat = sequence;
+            }
+
+            ((Statement)newstat).getVarDefinitions().addAll(stat.getVarDefinitions());
+            parent.replaceStatement(stat, (Statement)newstat);
+            return true;
+         }
+      }
+   }
+
+   private static InvocationExprent isAssertionError(Statement stat) {
+      if(stat != null && stat.getExprents() != null && stat.getExprents().size() == 1) {
+         Exprent expr = (Exprent)stat.getExprents().get(0);
+         if(expr.type == 4) {
+            ExitExprent exexpr = (ExitExprent)expr;
+            if(exexpr.getExitType() == 1 && exexpr.getValue().type == 10) {
+               NewExprent nexpr = (NewExprent)exexpr.getValue();
+               if(CLASS_ASSERTION_ERROR.equals(nexpr.getNewType()) && nexpr.getConstructor() != null) {
+                  return nexpr.getConstructor();
+               }
+            }
+         }
+
+         return null;
+      } else {
+         return null;
+      }
+   }
+
+   private static Object[] getAssertionExprent(Exprent exprent, String classname, String key) {
+      if(exprent.type == 6) {
+         FunctionExprent fexpr = (FunctionExprent)exprent;
+         if(fexpr.getFuncType() == 48) {
+            int i;
+            Exprent param;
+            for(i = 0; i < 2; ++i) {
+               param = (Exprent)fexpr.getLstOperands().get(i);
+               if(isAssertionField(param, classname, key)) {
+                  return new Object[]{fexpr.getLstOperands().get(1 - i), Boolean.valueOf(true)};
+               }
+            }
+
+            for(i = 0; i < 2; ++i) {
+               param = (Exprent)fexpr.getLstOperands().get(i);
+               Object[] res = getAssertionExprent(param, classname, key);
+               if(((Boolean)res[1]).booleanValue()) {
+                  if(param != res[0]) {
+                     fexpr.getLstOperands().set(i, (Exprent)res[0]);
+                  }
+
+                  return new Object[]{fexpr, Boolean.valueOf(true)};
+               }
+            }
+         } else if(isAssertionField(fexpr, classname, key)) {
+            return new Object[]{null, Boolean.valueOf(true)};
+         }
+      }
+
+      return new Object[]{exprent, Boolean.valueOf(false)};
+   }
+
+   private static boolean isAssertionField(Exprent exprent, String classname, String key) {
+      if(exprent.type == 6) {
+         FunctionExprent fparam = (FunctionExprent)exprent;
+         if(fparam.getFuncType() == 12 && ((Exprent)fparam.getLstOperands().get(0)).type == 5) {
+            FieldExprent fdparam = (FieldExprent)fparam.getLstOperands().get(0);
+            if(classname.equals(fdparam.getClassname()) && key.equals(InterpreterUtil.makeUniqueKey(fdparam.getName(), fdparam.getDescriptor().descriptorString))) {
+               return true;
+            }
+         }
+      }
+
+      return false;
+   }
+}
@@ -0,0 +1,228 @@
+package regression.fernflower.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.rels.ClassWrapper;
+import regression.fernflower.main.rels.MethodWrapper;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.ExitExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FieldExprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.CatchStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.struct.StructField;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.VBStyleCollection;
+
+public class ClassReference14Processor {
+   public ExitExprent bodyexprent;
+   public ExitExprent handlerexprent;
+
+   public ClassReference14Processor() {
+      InvocationExprent invfor = new InvocationExprent();
+      invfor.setName("forName");
+      invfor.setClassname("java/lang/Class");
+      invfor.setStringDescriptor("(Ljava/lang/String;)Ljava/lang/Class;");
+      invfor.setDescriptor(MethodDescriptor.parseDescriptor("(Ljava/lang/String;)Ljava/lang/Class;"));
+      invfor.setStatic(true);
+      invfor.setLstParameters(Arrays.asList(new Exprent[]{new VarExprent(0, VarType.VARTYPE_STRING, (VarProcessor)null)}));
+      this.bodyexprent = new ExitExprent(0, invfor, VarType.VARTYPE_CLASS, (Set)null);
+      InvocationExprent constr = new InvocationExprent();
+      constr.setName("<init>");
+      constr.setClassname("java/lang/NoClassDefFoundError");
+      constr.setStringDescriptor("()V");
+      constr.setFunctype(2);
+      constr.setDescriptor(MethodDescriptor.parseDescriptor("()V"));
+      NewExprent newexpr = new NewExprent(new VarType(8, 0, "java/lang/NoClassDefFoundError"), new ArrayList(), (Set)null);
+      newexpr.setConstructor(constr);
+      InvocationExprent invcause = new InvocationExprent();
+      invcause.setName("initCause");
+      invcause.setClassname("java/lang/NoClassDefFoundError");
+      invcause.setStringDescriptor("(Ljava/lang/Throwable;)Ljava/lang/Throwable;");
+      invcause.setDescriptor(MethodDescriptor.parseDescriptor("(Ljava/lang/Throwable;)Ljava/lang/Throwable;"));
+      invcause.setInstance(newexpr);
+      invcause.setLstParameters(Arrays.asList(new Exprent[]{new VarExprent(2, new VarType(8, 0, "java/lang/ClassNotFoundException"), (VarProcessor)null)}));
+      this.handlerexprent = new ExitExprent(1, invcause, (VarType)null, (Set)null);
+   }
+
+   public void processClassReferences(ClassesProcessor.ClassNode node) {
+      ClassWrapper wrapper = node.getWrapper();
+      if(!wrapper.getClassStruct().isVersionGE_1_5()) {
+         HashMap mapClassMeths = new HashMap();
+         this.mapClassMethods(node, mapClassMeths);
+         if(!mapClassMeths.isEmpty()) {
+            HashSet setFound = new HashSet();
+            processClassRec(node, mapClassMeths, setFound);
+            if(!setFound.isEmpty()) {
+               Iterator var5 = setFound.iterator();
+
+               while(var5.hasNext()) {
+                  ClassWrapper wrp = (ClassWrapper)var5.next();
+                  StructMethod mt = ((MethodWrapper)mapClassMeths.get(wrp)).methodStruct;
+                  wrp.getHiddenMembers().add(InterpreterUtil.makeUniqueKey(mt.getName(), mt.getDescriptor()));
+               }
+            }
+
+         }
+      }
+   }
+
+   private static void processClassRec(ClassesProcessor.ClassNode node, final HashMap mapClassMeths, final HashSet setFound) {
+      ClassWrapper wrapper = node.getWrapper();
+      Iterator j = wrapper.getMethods().iterator();
+
+      while(j.hasNext()) {
+         MethodWrapper nd = (MethodWrapper)j.next();
+         RootStatement i = nd.root;
+         if(i != null) {
+            DirectGraph graph = nd.getOrBuildGraph();
+            graph.iterateExprents(new DirectGraph.ExprentIterator() {
+               public int processExprent(Exprent exprent) {
+                  Iterator var2 = mapClassMeths.entrySet().iterator();
+
+                  while(var2.hasNext()) {
+                     Entry ent = (Entry)var2.next();
+                     if(ClassReference14Processor.replaceInvocations(exprent, (ClassWrapper)ent.getKey(), (MethodWrapper)ent.getValue())) {
+                        setFound.add((ClassWrapper)ent.getKey());
+                     }
+                  }
+
+                  return 0;
+               }
+            });
+         }
+      }
+
+      for(int var11 = 0; var11 < 2; ++var11) {
+         VBStyleCollection var12 = var11 == 0 ? wrapper.getStaticFieldInitializers() : wrapper.getDynamicFieldInitializers();
+
+         for(int var14 = 0; var14 < var12.size(); ++var14) {
+            Iterator var15 = mapClassMeths.entrySet().iterator();
+
+            while(var15.hasNext()) {
+               Entry ent = (Entry)var15.next();
+               Exprent exprent = (Exprent)var12.get(var14);
+               if(replaceInvocations(exprent, (ClassWrapper)ent.getKey(), (MethodWrapper)ent.getValue())) {
+                  setFound.add((ClassWrapper)ent.getKey());
+               }
+
+               String cl = isClass14Invocation(exprent, (ClassWrapper)ent.getKey(), (MethodWrapper)ent.getValue());
+               if(cl != null) {
+                  var12.set(var14, new ConstExprent(VarType.VARTYPE_CLASS, cl.replace('.', '/'), exprent.bytecode));
+                  setFound.add((ClassWrapper)ent.getKey());
+               }
+            }
+         }
+      }
+
+      j = node.nested.iterator();
+
+      while(j.hasNext()) {
+         ClassesProcessor.ClassNode var13 = (ClassesProcessor.ClassNode)j.next();
+         processClassRec(var13, mapClassMeths, setFound);
+      }
+
+   }
+
+   private void mapClassMethods(ClassesProcessor.ClassNode node, Map map) {
+      boolean noSynthFlag = DecompilerContext.getOption("nns");
+      ClassWrapper wrapper = node.getWrapper();
+      Iterator var5 = wrapper.getMethods().iterator();
+
+      while(var5.hasNext()) {
+         MethodWrapper nd = (MethodWrapper)var5.next();
+         StructMethod mt = nd.methodStruct;
+         if((noSynthFlag || mt.isSynthetic()) && mt.getDescriptor().equals("(Ljava/lang/String;)Ljava/lang/Class;") && mt.hasModifier(8)) {
+            RootStatement root = nd.root;
+            if(root != null && root.getFirst().type == 7) {
+               CatchStatement cst = (CatchStatement)root.getFirst();
+               if(cst.getStats().size() == 2 && cst.getFirst().type == 8 && ((Statement)cst.getStats().get(1)).type == 8 && ((VarExprent)cst.getVars().get(0)).getVarType().equals(new VarType(8, 0, "java/lang/ClassNotFoundException"))) {
+                  BasicBlockStatement body = (BasicBlockStatement)cst.getFirst();
+                  BasicBlockStatement handler = (BasicBlockStatement)cst.getStats().get(1);
+                  if(body.getExprents().size() == 1 && handler.getExprents().size() == 1 && this.bodyexprent.equals(body.getExprents().get(0)) && this.handlerexprent.equals(handler.getExprents().get(0))) {
+                     map.put(wrapper, nd);
+                     break;
+                  }
+               }
+            }
+         }
+      }
+
+      var5 = node.nested.iterator();
+
+      while(var5.hasNext()) {
+         ClassesProcessor.ClassNode nd1 = (ClassesProcessor.ClassNode)var5.next();
+         this.mapClassMethods(nd1, map);
+      }
+
+   }
+
+   private static boolean replaceInvocations(Exprent exprent, ClassWrapper wrapper, MethodWrapper meth) {
+      boolean res = false;
+
+      boolean found;
+      do {
+         found = false;
+
+         Exprent expr;
+         for(Iterator var5 = exprent.getAllExprents().iterator(); var5.hasNext(); res |= replaceInvocations(expr, wrapper, meth)) {
+            expr = (Exprent)var5.next();
+            String cl = isClass14Invocation(expr, wrapper, meth);
+            if(cl != null) {
+               exprent.replaceExprent(expr, new ConstExprent(VarType.VARTYPE_CLASS, cl.replace('.', '/'), expr.bytecode));
+               found = true;
+               res = true;
+               break;
+            }
+         }
+      } while(found);
+
+      return res;
+   }
+
+   private static String isClass14Invocation(Exprent exprent, ClassWrapper wrapper, MethodWrapper meth) {
+      if(exprent.type == 6) {
+         FunctionExprent fexpr = (FunctionExprent)exprent;
+         if(fexpr.getFuncType() == 36 && ((Exprent)fexpr.getLstOperands().get(0)).type == 6) {
+            FunctionExprent headexpr = (FunctionExprent)fexpr.getLstOperands().get(0);
+            if(headexpr.getFuncType() == 42 && ((Exprent)headexpr.getLstOperands().get(0)).type == 5 && ((Exprent)headexpr.getLstOperands().get(1)).type == 3 && ((ConstExprent)headexpr.getLstOperands().get(1)).getConstType().equals(VarType.VARTYPE_NULL)) {
+               FieldExprent field = (FieldExprent)headexpr.getLstOperands().get(0);
+               ClassesProcessor.ClassNode fieldnode = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(field.getClassname());
+               if(fieldnode != null && fieldnode.classStruct.qualifiedName.equals(wrapper.getClassStruct().qualifiedName)) {
+                  StructField fd = wrapper.getClassStruct().getField(field.getName(), field.getDescriptor().descriptorString);
+                  if(fd != null && fd.hasModifier(8) && (fd.isSynthetic() || DecompilerContext.getOption("nns")) && ((Exprent)fexpr.getLstOperands().get(1)).type == 2 && ((Exprent)fexpr.getLstOperands().get(2)).equals(field)) {
+                     AssignmentExprent asexpr = (AssignmentExprent)fexpr.getLstOperands().get(1);
+                     if(asexpr.getLeft().equals(field) && asexpr.getRight().type == 8) {
+                        InvocationExprent invexpr = (InvocationExprent)asexpr.getRight();
+                        if(invexpr.getClassname().equals(wrapper.getClassStruct().qualifiedName) && invexpr.getName().equals(meth.methodStruct.getName()) && invexpr.getStringDescriptor().equals(meth.methodStruct.getDescriptor()) && ((Exprent)invexpr.getLstParameters().get(0)).type == 3) {
+                           wrapper.getHiddenMembers().add(InterpreterUtil.makeUniqueKey(fd.getName(), fd.getDescriptor()));
+                           return ((ConstExprent)invexpr.getLstParameters().get(0)).getValue().toString();
+                        }
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+      return null;
+   }
+}
@@ -0,0 +1,1103 @@
+package regression.fernflower.main;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.Map.Entry;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.main.rels.ClassWrapper;
+import regression.fernflower.main.rels.MethodWrapper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.exps.AnnotationExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.modules.renamer.PoolInterceptor;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructField;
+import regression.fernflower.struct.StructMember;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.attr.StructAnnDefaultAttribute;
+import regression.fernflower.struct.attr.StructAnnotationAttribute;
+import regression.fernflower.struct.attr.StructAnnotationParameterAttribute;
+import regression.fernflower.struct.attr.StructConstantValueAttribute;
+import regression.fernflower.struct.attr.StructExceptionsAttribute;
+import regression.fernflower.struct.attr.StructGenericSignatureAttribute;
+import regression.fernflower.struct.attr.StructLineNumberTableAttribute;
+import regression.fernflower.struct.consts.PrimitiveConstant;
+import regression.fernflower.struct.gen.FieldDescriptor;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.struct.gen.generics.GenericClassDescriptor;
+import regression.fernflower.struct.gen.generics.GenericFieldDescriptor;
+import regression.fernflower.struct.gen.generics.GenericMain;
+import regression.fernflower.struct.gen.generics.GenericMethodDescriptor;
+import regression.fernflower.struct.gen.generics.GenericType;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.VBStyleCollection;
+
+public class ClassWriter {
+   private ClassReference14Processor ref14processor = new ClassReference14Processor();
+   private PoolInterceptor interceptor = DecompilerContext.getPoolInterceptor();
+   private static final String[] ANNOTATION_ATTRIBUTES = new String[]{"RuntimeVisibleAnnotations", "RuntimeInvisibleAnnotations"};
+   private static final String[] PARAMETER_ANNOTATION_ATTRIBUTES = new String[]{"RuntimeVisibleParameterAnnotations", "RuntimeInvisibleParameterAnnotations"};
+   private static final Map MODIFIERS = new LinkedHashMap() {
+      {
+         this.put(Integer.valueOf(1), "public");
+         this.put(Integer.valueOf(4), "protected");
+         this.put(Integer.valueOf(2), "private");
+         this.put(Integer.valueOf(1024), "abstract");
+         this.put(Integer.valueOf(8), "static");
+         this.put(Integer.valueOf(16), "final");
+         this.put(Integer.valueOf(2048), "strictfp");
+         this.put(Integer.valueOf(128), "transient");
+         this.put(Integer.valueOf(64), "volatile");
+         this.put(Integer.valueOf(32), "synchronized");
+         this.put(Integer.valueOf(256), "native");
+      }
+   };
+   private static final int CLASS_ALLOWED = 3103;
+   private static final int FIELD_ALLOWED = 223;
+   private static final int METHOD_ALLOWED = 3391;
+   private static final int CLASS_EXCLUDED = 1032;
+   private static final int FIELD_EXCLUDED = 25;
+   private static final int METHOD_EXCLUDED = 1025;
+
+   private void invokeProcessors(ClassesProcessor.ClassNode node) {
+      ClassWrapper wrapper = node.getWrapper();
+      StructClass cl = wrapper.getClassStruct();
+      InitializerProcessor.extractInitializers(wrapper);
+      if(node.type == 0 && DecompilerContext.getOption("dc4")) {
+         this.ref14processor.processClassReferences(node);
+      }
+
+      if(cl.hasModifier(16384) && DecompilerContext.getOption("den")) {
+         EnumProcessor.clearEnum(wrapper);
+      }
+
+      if(DecompilerContext.getOption("das")) {
+         AssertProcessor.buildAssertions(node);
+      }
+
+   }
+
+   public void classLambdaToJava(ClassesProcessor.ClassNode node, TextBuffer buffer, Exprent method_object, int indent, BytecodeMappingTracer origTracer) {
+      ClassWrapper wrapper = node.getWrapper();
+      if(wrapper != null) {
+         boolean lambdaToAnonymous = DecompilerContext.getOption("lac");
+         ClassesProcessor.ClassNode outerNode = (ClassesProcessor.ClassNode)DecompilerContext.getProperty("CURRENT_CLASS_NODE");
+         DecompilerContext.setProperty("CURRENT_CLASS_NODE", node);
+         BytecodeMappingTracer tracer = new BytecodeMappingTracer(origTracer.getCurrentSourceLine());
+
+         try {
+            StructClass cl = wrapper.getClassStruct();
+            DecompilerContext.getLogger().startWriteClass(node.simpleName);
+            if(node.lambdaInformation.is_method_reference) {
+               if(!node.lambdaInformation.is_content_method_static && method_object != null) {
+                  buffer.append(method_object.toJava(indent, tracer));
+               } else {
+                  buffer.append(ExprProcessor.getCastTypeName(new VarType(node.lambdaInformation.content_class_name, false)));
+               }
+
+               buffer.append("::");
+               buffer.append(node.lambdaInformation.content_method_name);
+            } else {
+               StructMethod mt = cl.getMethod(node.lambdaInformation.content_method_key);
+               MethodWrapper methodWrapper = wrapper.getMethodWrapper(mt.getName(), mt.getDescriptor());
+               MethodDescriptor md_content = MethodDescriptor.parseDescriptor(node.lambdaInformation.content_method_descriptor);
+               MethodDescriptor md_lambda = MethodDescriptor.parseDescriptor(node.lambdaInformation.method_descriptor);
+               if(!lambdaToAnonymous) {
+                  buffer.append('(');
+                  boolean firstParameter = true;
+                  int index = node.lambdaInformation.is_content_method_static ? 0 : 1;
+                  int start_index = md_content.params.length - md_lambda.params.length;
+
+                  for(int i = 0; i < md_content.params.length; ++i) {
+                     if(i >= start_index) {
+                        if(!firstParameter) {
+                           buffer.append(", ");
+                        }
+
+                        String parameterName = methodWrapper.varproc.getVarName(new VarVersionPair(index, 0));
+                        buffer.append(parameterName == null ? "param" + index : parameterName);
+                        firstParameter = false;
+                     }
+
+                     index += md_content.params[i].stackSize;
+                  }
+
+                  buffer.append(") ->");
+               }
+
+               buffer.append(" {").appendLineSeparator();
+               tracer.incrementCurrentSourceLine();
+               methodLambdaToJava(node, wrapper, mt, buffer, indent + 1, !lambdaToAnonymous, tracer);
+               buffer.appendIndent(indent).append("}");
+               addTracer(cl, mt, tracer);
+            }
+         } finally {
+            DecompilerContext.setProperty("CURRENT_CLASS_NODE", outerNode);
+         }
+
+         DecompilerContext.getLogger().endWriteClass();
+      }
+   }
+
+   private static void addTracer(StructClass cls, StructMethod method, BytecodeMappingTracer tracer) {
+      StructLineNumberTableAttribute lineNumberTable = (StructLineNumberTableAttribute)method.getAttributes().getWithKey("LineNumberTable");
+      tracer.setLineNumberTable(lineNumberTable);
+      DecompilerContext.getBytecodeSourceMapper().addTracer(cls.qualifiedName, InterpreterUtil.makeUniqueKey(method.getName(), method.getDescriptor()), tracer);
+   }
+
+   public void classToJava(ClassesProcessor.ClassNode node, TextBuffer buffer, int indent, BytecodeMappingTracer tracer) {
+      ClassesProcessor.ClassNode outerNode = (ClassesProcessor.ClassNode)DecompilerContext.getProperty("CURRENT_CLASS_NODE");
+      DecompilerContext.setProperty("CURRENT_CLASS_NODE", node);
+      int startLine = tracer != null ? tracer.getCurrentSourceLine() : 0;
+      BytecodeMappingTracer dummy_tracer = new BytecodeMappingTracer(startLine);
+
+      try {
+         this.invokeProcessors(node);
+         ClassWrapper wrapper = node.getWrapper();
+         StructClass cl = wrapper.getClassStruct();
+         DecompilerContext.getLogger().startWriteClass(cl.qualifiedName);
+         int start_class_def = buffer.length();
+         this.writeClassDefinition(node, buffer, indent);
+         boolean hasContent = false;
+         boolean enumFields = false;
+         dummy_tracer.incrementCurrentSourceLine(buffer.countLines(start_class_def));
+         Iterator var13 = cl.getFields().iterator();
+
+         label303:
+         while(true) {
+            StructField inner;
+            boolean innerCl;
+            boolean isSynthetic;
+            do {
+               if(!var13.hasNext()) {
+                  if(enumFields) {
+                     buffer.append(';').appendLineSeparator();
+                     dummy_tracer.incrementCurrentSourceLine();
+                  }
+
+                  startLine += buffer.countLines(start_class_def);
+                  var13 = cl.getMethods().iterator();
+
+                  BytecodeMappingTracer class_tracer;
+                  while(var13.hasNext()) {
+                     StructMethod var23 = (StructMethod)var13.next();
+                     innerCl = var23.isSynthetic() && DecompilerContext.getOption("rsy") || var23.hasModifier(64) && DecompilerContext.getOption("rbr") || wrapper.getHiddenMembers().contains(InterpreterUtil.makeUniqueKey(var23.getName(), var23.getDescriptor()));
+                     if(!innerCl) {
+                        int var26 = buffer.length();
+                        int hide = startLine;
+                        if(hasContent) {
+                           buffer.appendLineSeparator();
+                           ++startLine;
+                        }
+
+                        class_tracer = new BytecodeMappingTracer(startLine);
+                        boolean methodSkipped = !this.methodToJava(node, var23, buffer, indent + 1, class_tracer);
+                        if(!methodSkipped) {
+                           hasContent = true;
+                           addTracer(cl, var23, class_tracer);
+                           startLine = class_tracer.getCurrentSourceLine();
+                        } else {
+                           buffer.setLength(var26);
+                           startLine = hide;
+                        }
+                     }
+                  }
+
+                  var13 = node.nested.iterator();
+
+                  while(var13.hasNext()) {
+                     ClassesProcessor.ClassNode var24 = (ClassesProcessor.ClassNode)var13.next();
+                     if(var24.type == 1) {
+                        StructClass var25 = var24.classStruct;
+                        isSynthetic = (var24.access & 4096) != 0 || var25.isSynthetic() || var24.namelessConstructorStub;
+                        boolean var27 = isSynthetic && DecompilerContext.getOption("rsy") || wrapper.getHiddenMembers().contains(var25.qualifiedName);
+                        if(!var27) {
+                           if(hasContent) {
+                              buffer.appendLineSeparator();
+                              ++startLine;
+                           }
+
+                           class_tracer = new BytecodeMappingTracer(startLine);
+                           this.classToJava(var24, buffer, indent + 1, class_tracer);
+                           startLine = buffer.countLines();
+                           hasContent = true;
+                        }
+                     }
+                  }
+
+                  buffer.appendIndent(indent).append('}');
+                  if(node.type != 2) {
+                     buffer.appendLineSeparator();
+                  }
+                  break label303;
+               }
+
+               inner = (StructField)var13.next();
+               innerCl = inner.isSynthetic() && DecompilerContext.getOption("rsy") || wrapper.getHiddenMembers().contains(InterpreterUtil.makeUniqueKey(inner.getName(), inner.getDescriptor()));
+            } while(innerCl);
+
+            isSynthetic = inner.hasModifier(16384) && DecompilerContext.getOption("den");
+            if(isSynthetic) {
+               if(enumFields) {
+                  buffer.append(',').appendLineSeparator();
+                  dummy_tracer.incrementCurrentSourceLine();
+               }
+
+               enumFields = true;
+            } else if(enumFields) {
+               buffer.append(';');
+               buffer.appendLineSeparator();
+               buffer.appendLineSeparator();
+               dummy_tracer.incrementCurrentSourceLine(2);
+               enumFields = false;
+            }
+
+            this.fieldToJava(wrapper, cl, inner, buffer, indent + 1, dummy_tracer);
+            hasContent = true;
+         }
+      } finally {
+         DecompilerContext.setProperty("CURRENT_CLASS_NODE", outerNode);
+      }
+
+      DecompilerContext.getLogger().endWriteClass();
+   }
+
+   private void writeClassDefinition(ClassesProcessor.ClassNode node, TextBuffer buffer, int indent) {
+      if(node.type == 2) {
+         buffer.append(" {").appendLineSeparator();
+      } else {
+         ClassWrapper wrapper = node.getWrapper();
+         StructClass cl = wrapper.getClassStruct();
+         int flags = node.type == 0 ? cl.getAccessFlags() : node.access;
+         boolean isDeprecated = cl.getAttributes().containsKey("Deprecated");
+         boolean isSynthetic = (flags & 4096) != 0 || cl.getAttributes().containsKey("Synthetic");
+         boolean isEnum = DecompilerContext.getOption("den") && (flags & 16384) != 0;
+         boolean isInterface = (flags & 512) != 0;
+         boolean isAnnotation = (flags & 8192) != 0;
+         if(isDeprecated) {
+            appendDeprecation(buffer, indent);
+         }
+
+         if(this.interceptor != null) {
+            String descriptor = this.interceptor.getOldName(cl.qualifiedName);
+            appendRenameComment(buffer, descriptor, ClassWriter.MType.CLASS, indent);
+         }
+
+         if(isSynthetic) {
+            appendComment(buffer, "synthetic class", indent);
+         }
+
+         appendAnnotations(buffer, cl, indent);
+         buffer.appendIndent(indent);
+         if(isEnum) {
+            flags &= -1025;
+            flags &= -17;
+         }
+
+         appendModifiers(buffer, flags, 3103, isInterface, 1032);
+         if(isEnum) {
+            buffer.append("enum ");
+         } else if(isInterface) {
+            if(isAnnotation) {
+               buffer.append('@');
+            }
+
+            buffer.append("interface ");
+         } else {
+            buffer.append("class ");
+         }
+
+         GenericClassDescriptor var15 = null;
+         if(DecompilerContext.getOption("dgs")) {
+            StructGenericSignatureAttribute interfaces = (StructGenericSignatureAttribute)cl.getAttributes().getWithKey("Signature");
+            if(interfaces != null) {
+               var15 = GenericMain.parseClassSignature(interfaces.getSignature());
+            }
+         }
+
+         buffer.append(node.simpleName);
+         if(var15 != null && !var15.fparameters.isEmpty()) {
+            appendTypeParameters(buffer, var15.fparameters, var15.fbounds);
+         }
+
+         buffer.append(' ');
+         if(!isEnum && !isInterface && cl.superClass != null) {
+            VarType var16 = new VarType(cl.superClass.getString(), true);
+            if(!VarType.VARTYPE_OBJECT.equals(var16)) {
+               buffer.append("extends ");
+               if(var15 != null) {
+                  buffer.append(GenericMain.getGenericCastTypeName(var15.superclass));
+               } else {
+                  buffer.append(ExprProcessor.getCastTypeName(var16));
+               }
+
+               buffer.append(' ');
+            }
+         }
+
+         if(!isAnnotation) {
+            int[] var17 = cl.getInterfaces();
+            if(var17.length > 0) {
+               buffer.append(isInterface ? "extends " : "implements ");
+
+               for(int i = 0; i < var17.length; ++i) {
+                  if(i > 0) {
+                     buffer.append(", ");
+                  }
+
+                  if(var15 != null) {
+                     buffer.append(GenericMain.getGenericCastTypeName((GenericType)var15.superinterfaces.get(i)));
+                  } else {
+                     buffer.append(ExprProcessor.getCastTypeName(new VarType(cl.getInterface(i), true)));
+                  }
+               }
+
+               buffer.append(' ');
+            }
+         }
+
+         buffer.append('{').appendLineSeparator();
+      }
+   }
+
+   private void fieldToJava(ClassWrapper wrapper, StructClass cl, StructField fd, TextBuffer buffer, int indent, BytecodeMappingTracer tracer) {
+      int start = buffer.length();
+      boolean isInterface = cl.hasModifier(512);
+      boolean isDeprecated = fd.getAttributes().containsKey("Deprecated");
+      boolean isEnum = fd.hasModifier(16384) && DecompilerContext.getOption("den");
+      if(isDeprecated) {
+         appendDeprecation(buffer, indent);
+      }
+
+      if(this.interceptor != null) {
+         String fieldType = this.interceptor.getOldName(cl.qualifiedName + " " + fd.getName() + " " + fd.getDescriptor());
+         appendRenameComment(buffer, fieldType, ClassWriter.MType.FIELD, indent);
+      }
+
+      if(fd.isSynthetic()) {
+         appendComment(buffer, "synthetic field", indent);
+      }
+
+      appendAnnotations(buffer, fd, indent);
+      buffer.appendIndent(indent);
+      if(!isEnum) {
+         appendModifiers(buffer, fd.getAccessFlags(), 223, isInterface, 25);
+      }
+
+      VarType fieldType1 = new VarType(fd.getDescriptor(), false);
+      GenericFieldDescriptor descriptor = null;
+      if(DecompilerContext.getOption("dgs")) {
+         StructGenericSignatureAttribute initializer = (StructGenericSignatureAttribute)fd.getAttributes().getWithKey("Signature");
+         if(initializer != null) {
+            descriptor = GenericMain.parseFieldSignature(initializer.getSignature());
+         }
+      }
+
+      if(!isEnum) {
+         if(descriptor != null) {
+            buffer.append(GenericMain.getGenericCastTypeName(descriptor.type));
+         } else {
+            buffer.append(ExprProcessor.getCastTypeName(fieldType1));
+         }
+
+         buffer.append(' ');
+      }
+
+      buffer.append(fd.getName());
+      tracer.incrementCurrentSourceLine(buffer.countLines(start));
+      Exprent initializer1;
+      if(fd.hasModifier(8)) {
+         initializer1 = (Exprent)wrapper.getStaticFieldInitializers().getWithKey(InterpreterUtil.makeUniqueKey(fd.getName(), fd.getDescriptor()));
+      } else {
+         initializer1 = (Exprent)wrapper.getDynamicFieldInitializers().getWithKey(InterpreterUtil.makeUniqueKey(fd.getName(), fd.getDescriptor()));
+      }
+
+      if(initializer1 != null) {
+         if(isEnum && initializer1.type == 10) {
+            NewExprent attr = (NewExprent)initializer1;
+            attr.setEnumConst(true);
+            buffer.append(attr.toJava(indent, tracer));
+         } else {
+            buffer.append(" = ");
+            buffer.append(initializer1.toJava(indent, tracer));
+         }
+      } else if(fd.hasModifier(16) && fd.hasModifier(8)) {
+         StructConstantValueAttribute attr1 = (StructConstantValueAttribute)fd.getAttributes().getWithKey("ConstantValue");
+         if(attr1 != null) {
+            PrimitiveConstant constant = cl.getPool().getPrimitiveConstant(attr1.getIndex());
+            buffer.append(" = ");
+            buffer.append((new ConstExprent(fieldType1, constant.value, (Set)null)).toJava(indent, tracer));
+         }
+      }
+
+      if(!isEnum) {
+         buffer.append(";").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+   }
+
+   private static void methodLambdaToJava(ClassesProcessor.ClassNode lambdaNode, ClassWrapper classWrapper, StructMethod mt, TextBuffer buffer, int indent, boolean codeOnly, BytecodeMappingTracer tracer) {
+      MethodWrapper methodWrapper = classWrapper.getMethodWrapper(mt.getName(), mt.getDescriptor());
+      MethodWrapper outerWrapper = (MethodWrapper)DecompilerContext.getProperty("CURRENT_METHOD_WRAPPER");
+      DecompilerContext.setProperty("CURRENT_METHOD_WRAPPER", methodWrapper);
+
+      try {
+         String method_name = lambdaNode.lambdaInformation.method_name;
+         MethodDescriptor md_content = MethodDescriptor.parseDescriptor(lambdaNode.lambdaInformation.content_method_descriptor);
+         MethodDescriptor md_lambda = MethodDescriptor.parseDescriptor(lambdaNode.lambdaInformation.method_descriptor);
+         if(!codeOnly) {
+            buffer.appendIndent(indent);
+            buffer.append("public ");
+            buffer.append(method_name);
+            buffer.append("(");
+            boolean root = true;
+            int ex = lambdaNode.lambdaInformation.is_content_method_static ? 0 : 1;
+            int start_index = md_content.params.length - md_lambda.params.length;
+
+            for(int i = 0; i < md_content.params.length; ++i) {
+               if(i >= start_index) {
+                  if(!root) {
+                     buffer.append(", ");
+                  }
+
+                  String typeName = ExprProcessor.getCastTypeName(md_content.params[i].copy());
+                  if("<undefinedtype>".equals(typeName) && DecompilerContext.getOption("uto")) {
+                     typeName = ExprProcessor.getCastTypeName(VarType.VARTYPE_OBJECT);
+                  }
+
+                  buffer.append(typeName);
+                  buffer.append(" ");
+                  String parameterName = methodWrapper.varproc.getVarName(new VarVersionPair(ex, 0));
+                  buffer.append(parameterName == null ? "param" + ex : parameterName);
+                  root = false;
+               }
+
+               ex += md_content.params[i].stackSize;
+            }
+
+            buffer.append(") {").appendLineSeparator();
+            ++indent;
+         }
+
+         if(!methodWrapper.decompiledWithErrors) {
+            RootStatement var23 = classWrapper.getMethodWrapper(mt.getName(), mt.getDescriptor()).root;
+            if(var23 != null) {
+               try {
+                  buffer.append(var23.toJava(indent, tracer));
+               } catch (Throwable var21) {
+                  DecompilerContext.getLogger().writeMessage("Method " + mt.getName() + " " + mt.getDescriptor() + " couldn\'t be written.", var21);
+                  methodWrapper.decompiledWithErrors = true;
+               }
+            }
+         }
+
+         if(methodWrapper.decompiledWithErrors) {
+            buffer.appendIndent(indent);
+            buffer.append("// $FF: Couldn\'t be decompiled");
+            buffer.appendLineSeparator();
+         }
+
+         if(!codeOnly) {
+            --indent;
+            buffer.appendIndent(indent);
+            buffer.append('}');
+            buffer.appendLineSeparator();
+         }
+      } finally {
+         DecompilerContext.setProperty("CURRENT_METHOD_WRAPPER", outerWrapper);
+      }
+
+   }
+
+   public static String toValidJavaIdentifier(String name) {
+      if(name != null && !name.isEmpty()) {
+         boolean changed = false;
+         StringBuilder res = new StringBuilder(name.length());
+
+         for(int i = 0; i < name.length(); ++i) {
+            char c = name.charAt(i);
+            if((i != 0 || Character.isJavaIdentifierStart(c)) && (i <= 0 || Character.isJavaIdentifierPart(c))) {
+               res.append(c);
+            } else {
+               changed = true;
+               res.append("_");
+            }
+         }
+
+         if(!changed) {
+            return name;
+         } else {
+            return res.append("/* $FF was: ").append(name).append("*/").toString();
+         }
+      } else {
+         return name;
+      }
+   }
+
+   private boolean methodToJava(ClassesProcessor.ClassNode node, StructMethod mt, TextBuffer buffer, int indent, BytecodeMappingTracer tracer) {
+      ClassWrapper wrapper = node.getWrapper();
+      StructClass cl = wrapper.getClassStruct();
+      MethodWrapper methodWrapper = wrapper.getMethodWrapper(mt.getName(), mt.getDescriptor());
+      boolean hideMethod = false;
+      int start_index_method = buffer.length();
+      MethodWrapper outerWrapper = (MethodWrapper)DecompilerContext.getProperty("CURRENT_METHOD_WRAPPER");
+      DecompilerContext.setProperty("CURRENT_METHOD_WRAPPER", methodWrapper);
+
+      try {
+         boolean isInterface = cl.hasModifier(512);
+         boolean isAnnotation = cl.hasModifier(8192);
+         boolean isEnum = cl.hasModifier(16384) && DecompilerContext.getOption("den");
+         boolean isDeprecated = mt.getAttributes().containsKey("Deprecated");
+         boolean clinit = false;
+         boolean init = false;
+         boolean dinit = false;
+         MethodDescriptor md = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+         int flags = mt.getAccessFlags();
+         if((flags & 256) != 0) {
+            flags &= -2049;
+         }
+
+         if("<clinit>".equals(mt.getName())) {
+            flags &= 8;
+         }
+
+         if(isDeprecated) {
+            appendDeprecation(buffer, indent);
+         }
+
+         if(this.interceptor != null) {
+            String isSynthetic = this.interceptor.getOldName(cl.qualifiedName + " " + mt.getName() + " " + mt.getDescriptor());
+            appendRenameComment(buffer, isSynthetic, ClassWriter.MType.METHOD, indent);
+         }
+
+         boolean var44 = (flags & 4096) != 0 || mt.getAttributes().containsKey("Synthetic");
+         boolean isBridge = (flags & 64) != 0;
+         if(var44) {
+            appendComment(buffer, "synthetic method", indent);
+         }
+
+         if(isBridge) {
+            appendComment(buffer, "bridge method", indent);
+         }
+
+         appendAnnotations(buffer, mt, indent);
+         if(DecompilerContext.getOption("ovr") && cl.getBytecodeVersion() >= 2 && !"<init>".equals(mt.getName()) && !"<clinit>".equals(mt.getName()) && !mt.hasModifier(8) && !mt.hasModifier(2)) {
+            boolean name = searchForMethod(cl, mt.getName(), md, false);
+            if(name) {
+               buffer.appendIndent(indent);
+               buffer.append("@Override");
+               buffer.appendLineSeparator();
+            }
+         }
+
+         buffer.appendIndent(indent);
+         appendModifiers(buffer, flags, 3391, isInterface, 1025);
+         if(isInterface && mt.containsCode()) {
+            buffer.append("default ");
+         }
+
+         String var45 = mt.getName();
+         if("<init>".equals(var45)) {
+            if(node.type == 2) {
+               var45 = "";
+               dinit = true;
+            } else {
+               var45 = node.simpleName;
+               init = true;
+            }
+         } else if("<clinit>".equals(var45)) {
+            var45 = "";
+            clinit = true;
+         }
+
+         GenericMethodDescriptor descriptor = null;
+         int paramCount;
+         if(DecompilerContext.getOption("dgs")) {
+            StructGenericSignatureAttribute throwsExceptions = (StructGenericSignatureAttribute)mt.getAttributes().getWithKey("Signature");
+            if(throwsExceptions != null) {
+               descriptor = GenericMain.parseMethodSignature(throwsExceptions.getSignature());
+               if(descriptor != null) {
+                  paramCount = md.params.length;
+                  List lineNumberTable = methodWrapper.signatureFields;
+                  if(lineNumberTable != null) {
+                     paramCount = 0;
+                     Iterator root = methodWrapper.signatureFields.iterator();
+
+                     while(root.hasNext()) {
+                        VarVersionPair ex = (VarVersionPair)root.next();
+                        if(ex == null) {
+                           ++paramCount;
+                        }
+                     }
+                  } else if(isEnum && init) {
+                     paramCount -= 2;
+                  }
+
+                  if(paramCount != descriptor.params.size()) {
+                     String var50 = "Inconsistent generic signature in method " + mt.getName() + " " + mt.getDescriptor() + " in " + cl.qualifiedName;
+                     DecompilerContext.getLogger().writeMessage(var50, IFernflowerLogger.Severity.WARN);
+                     descriptor = null;
+                  }
+               }
+            }
+         }
+
+         boolean var46 = false;
+         paramCount = 0;
+         int var53;
+         if(!clinit && !dinit) {
+            boolean var47 = !mt.hasModifier(8);
+            if(descriptor != null && !descriptor.fparameters.isEmpty()) {
+               appendTypeParameters(buffer, descriptor.fparameters, descriptor.fbounds);
+               buffer.append(' ');
+            }
+
+            if(!init) {
+               if(descriptor != null) {
+                  buffer.append(GenericMain.getGenericCastTypeName(descriptor.ret));
+               } else {
+                  buffer.append(ExprProcessor.getCastTypeName(md.ret));
+               }
+
+               buffer.append(' ');
+            }
+
+            buffer.append(toValidJavaIdentifier(var45));
+            buffer.append('(');
+            List var51 = methodWrapper.signatureFields;
+            var53 = -1;
+            int code = 0;
+
+            label778:
+            while(true) {
+               if(code >= md.params.length) {
+                  boolean var54 = true;
+                  int index = isEnum && init ? 3 : (var47 ? 1 : 0);
+                  boolean hasDescriptor = descriptor != null;
+                  int start = isEnum && init && !hasDescriptor ? 2 : 0;
+                  int params = hasDescriptor ? descriptor.params.size() : md.params.length;
+
+                  for(int attr = start; attr < params; ++attr) {
+                     if(hasDescriptor || var51 == null || var51.get(attr) == null) {
+                        if(!var54) {
+                           buffer.append(", ");
+                        }
+
+                        appendParameterAnnotations(buffer, mt, paramCount);
+                        if(methodWrapper.varproc.getVarFinal(new VarVersionPair(index, 0)) == 2) {
+                           buffer.append("final ");
+                        }
+
+                        boolean type;
+                        String typeName;
+                        if(descriptor != null) {
+                           GenericType i = (GenericType)descriptor.params.get(attr);
+                           type = attr == var53 && mt.hasModifier(128) && i.arrayDim > 0;
+                           if(type) {
+                              i = i.decreaseArrayDim();
+                           }
+
+                           typeName = GenericMain.getGenericCastTypeName(i);
+                           if("<undefinedtype>".equals(typeName) && DecompilerContext.getOption("uto")) {
+                              typeName = ExprProcessor.getCastTypeName(VarType.VARTYPE_OBJECT);
+                           }
+
+                           buffer.append(typeName);
+                           if(type) {
+                              buffer.append("...");
+                           }
+                        } else {
+                           VarType var57 = md.params[attr];
+                           type = attr == var53 && mt.hasModifier(128) && var57.arrayDim > 0;
+                           if(type) {
+                              var57 = var57.decreaseArrayDim();
+                           }
+
+                           typeName = ExprProcessor.getCastTypeName(var57);
+                           if("<undefinedtype>".equals(typeName) && DecompilerContext.getOption("uto")) {
+                              typeName = ExprProcessor.getCastTypeName(VarType.VARTYPE_OBJECT);
+                           }
+
+                           buffer.append(typeName);
+                           if(type) {
+                              buffer.append("...");
+                           }
+                        }
+
+                        buffer.append(' ');
+                        String var60 = methodWrapper.varproc.getVarName(new VarVersionPair(index, 0));
+                        buffer.append(var60 == null ? "param" + index : var60);
+                        var54 = false;
+                        ++paramCount;
+                     }
+
+                     index += md.params[attr].stackSize;
+                  }
+
+                  buffer.append(')');
+                  StructExceptionsAttribute var56 = (StructExceptionsAttribute)mt.getAttributes().getWithKey("Exceptions");
+                  if((descriptor == null || descriptor.exceptions.isEmpty()) && var56 == null) {
+                     break;
+                  }
+
+                  var46 = true;
+                  buffer.append(" throws ");
+                  int var61 = 0;
+
+                  while(true) {
+                     if(var61 >= var56.getThrowsExceptions().size()) {
+                        break label778;
+                     }
+
+                     if(var61 > 0) {
+                        buffer.append(", ");
+                     }
+
+                     if(descriptor != null && !descriptor.exceptions.isEmpty()) {
+                        GenericType var59 = (GenericType)descriptor.exceptions.get(var61);
+                        buffer.append(GenericMain.getGenericCastTypeName(var59));
+                     } else {
+                        VarType var58 = new VarType(var56.getExcClassname(var61, cl.getPool()), true);
+                        buffer.append(ExprProcessor.getCastTypeName(var58));
+                     }
+
+                     ++var61;
+                  }
+               }
+
+               if(var51 == null || var51.get(code) == null) {
+                  var53 = code;
+               }
+
+               ++code;
+            }
+         }
+
+         tracer.incrementCurrentSourceLine(buffer.countLines(start_index_method));
+         if((flags & 1280) != 0) {
+            if(isAnnotation) {
+               StructAnnDefaultAttribute var48 = (StructAnnDefaultAttribute)mt.getAttributes().getWithKey("AnnotationDefault");
+               if(var48 != null) {
+                  buffer.append(" default ");
+                  buffer.append(var48.getDefaultValue().toJava(indent + 1, new BytecodeMappingTracer()));
+               }
+            }
+
+            buffer.append(';');
+            buffer.appendLineSeparator();
+            tracer.incrementCurrentSourceLine();
+         } else {
+            if(!clinit && !dinit) {
+               buffer.append(' ');
+            }
+
+            StructLineNumberTableAttribute var49 = (StructLineNumberTableAttribute)mt.getAttributes().getWithKey("LineNumberTable");
+            if(var49 != null && DecompilerContext.getOption("udl")) {
+               buffer.setCurrentLine(var49.getFirstLine() - 1);
+            }
+
+            buffer.append('{').appendLineSeparator();
+            tracer.incrementCurrentSourceLine();
+            RootStatement var52 = wrapper.getMethodWrapper(mt.getName(), mt.getDescriptor()).root;
+            if(var52 != null && !methodWrapper.decompiledWithErrors) {
+               try {
+                  var53 = tracer.getCurrentSourceLine();
+                  TextBuffer var55 = var52.toJava(indent + 1, tracer);
+                  hideMethod = (clinit || dinit || hideConstructor(wrapper, init, var46, paramCount)) && var55.length() == 0;
+                  if(!hideMethod && var49 != null && DecompilerContext.getOption("udl")) {
+                     mapLines(var55, var49, tracer, var53);
+                  }
+
+                  buffer.append(var55);
+               } catch (Throwable var42) {
+                  DecompilerContext.getLogger().writeMessage("Method " + mt.getName() + " " + mt.getDescriptor() + " couldn\'t be written.", var42);
+                  methodWrapper.decompiledWithErrors = true;
+               }
+            }
+
+            if(methodWrapper.decompiledWithErrors) {
+               buffer.appendIndent(indent + 1);
+               buffer.append("// $FF: Couldn\'t be decompiled");
+               buffer.appendLineSeparator();
+               tracer.incrementCurrentSourceLine();
+            }
+
+            buffer.appendIndent(indent).append('}').appendLineSeparator();
+            tracer.incrementCurrentSourceLine();
+         }
+      } finally {
+         DecompilerContext.setProperty("CURRENT_METHOD_WRAPPER", outerWrapper);
+      }
+
+      return !hideMethod;
+   }
+
+   private static boolean searchForMethod(StructClass cl, String name, MethodDescriptor md, boolean search) {
+      if(cl == null) {
+         return false;
+      } else {
+         VBStyleCollection methods = cl.getMethods();
+         if(search) {
+            Iterator superClass = methods.iterator();
+
+            while(superClass.hasNext()) {
+               StructMethod foundInSuperClass = (StructMethod)superClass.next();
+               if(md.equals(MethodDescriptor.parseDescriptor(foundInSuperClass.getDescriptor())) && name.equals(foundInSuperClass.getName()) && !foundInSuperClass.hasModifier(8)) {
+                  return true;
+               }
+            }
+         }
+
+         if(cl.superClass != null) {
+            StructClass var11 = DecompilerContext.getStructContext().getClass((String)cl.superClass.value);
+            boolean var13 = searchForMethod(var11, name, md, true);
+            if(var13) {
+               return true;
+            }
+         }
+
+         String[] var12 = cl.getInterfaceNames();
+         int var14 = var12.length;
+
+         for(int var7 = 0; var7 < var14; ++var7) {
+            String ifaceName = var12[var7];
+            StructClass iface = DecompilerContext.getStructContext().getClass(ifaceName);
+            boolean foundInIface = searchForMethod(iface, name, md, true);
+            if(foundInIface) {
+               return true;
+            }
+         }
+
+         return false;
+      }
+   }
+
+   private static void mapLines(TextBuffer code, StructLineNumberTableAttribute table, BytecodeMappingTracer tracer, int startLine) {
+      HashMap lineStartOffsets = new HashMap();
+      Iterator lineSeparator = tracer.getMapping().entrySet().iterator();
+
+      while(lineSeparator.hasNext()) {
+         Entry text = (Entry)lineSeparator.next();
+         Integer pos = Integer.valueOf(((Integer)text.getValue()).intValue() - startLine);
+         Object lineNumber = (Set)lineStartOffsets.get(pos);
+         if(lineNumber == null) {
+            lineNumber = new TreeSet();
+         }
+
+         ((Set)lineNumber).add((Integer)text.getKey());
+         lineStartOffsets.put(pos, lineNumber);
+      }
+
+      String var13 = DecompilerContext.getNewLineSeparator();
+      StringBuilder var14 = code.getOriginalText();
+      int var15 = var14.indexOf(var13);
+
+      for(int var16 = 0; var15 != -1; ++var16) {
+         Set startOffsets = (Set)lineStartOffsets.get(Integer.valueOf(var16));
+         if(startOffsets != null) {
+            Iterator var10 = startOffsets.iterator();
+
+            while(var10.hasNext()) {
+               Integer offset = (Integer)var10.next();
+               int number = table.findLineNumber(offset.intValue());
+               if(number >= 0) {
+                  code.setLineMapping(number, var15);
+                  break;
+               }
+            }
+         }
+
+         var15 = var14.indexOf(var13, var15 + 1);
+      }
+
+   }
+
+   private static boolean hideConstructor(ClassWrapper wrapper, boolean init, boolean throwsExceptions, int paramCount) {
+      if(init && !throwsExceptions && paramCount <= 0 && DecompilerContext.getOption("hdc")) {
+         int count = 0;
+         Iterator var5 = wrapper.getClassStruct().getMethods().iterator();
+
+         while(var5.hasNext()) {
+            StructMethod mt = (StructMethod)var5.next();
+            if("<init>".equals(mt.getName())) {
+               ++count;
+               if(count > 1) {
+                  return false;
+               }
+            }
+         }
+
+         return true;
+      } else {
+         return false;
+      }
+   }
+
+   private static void appendDeprecation(TextBuffer buffer, int indent) {
+      buffer.appendIndent(indent).append("/** @deprecated */").appendLineSeparator();
+   }
+
+   private static void appendRenameComment(TextBuffer buffer, String oldName, ClassWriter.MType type, int indent) {
+      if(oldName != null) {
+         buffer.appendIndent(indent);
+         buffer.append("// $FF: renamed from: ");
+         switch(null.$SwitchMap$regression$fernflower$main$ClassWriter$MType[type.ordinal()]) {
+         case 1:
+            buffer.append(ExprProcessor.buildJavaClassName(oldName));
+            break;
+         case 2:
+            String[] fParts = oldName.split(" ");
+            FieldDescriptor fd = FieldDescriptor.parseDescriptor(fParts[2]);
+            buffer.append(fParts[1]);
+            buffer.append(' ');
+            buffer.append(getTypePrintOut(fd.type));
+            break;
+         default:
+            String[] mParts = oldName.split(" ");
+            MethodDescriptor md = MethodDescriptor.parseDescriptor(mParts[2]);
+            buffer.append(mParts[1]);
+            buffer.append(" (");
+            boolean first = true;
+            VarType[] var9 = md.params;
+            int var10 = var9.length;
+
+            for(int var11 = 0; var11 < var10; ++var11) {
+               VarType paramType = var9[var11];
+               if(!first) {
+                  buffer.append(", ");
+               }
+
+               first = false;
+               buffer.append(getTypePrintOut(paramType));
+            }
+
+            buffer.append(") ");
+            buffer.append(getTypePrintOut(md.ret));
+         }
+
+         buffer.appendLineSeparator();
+      }
+   }
+
+   private static String getTypePrintOut(VarType type) {
+      String typeText = ExprProcessor.getCastTypeName(type, false);
+      if("<undefinedtype>".equals(typeText) && DecompilerContext.getOption("uto")) {
+         typeText = ExprProcessor.getCastTypeName(VarType.VARTYPE_OBJECT, false);
+      }
+
+      return typeText;
+   }
+
+   private static void appendComment(TextBuffer buffer, String comment, int indent) {
+      if(!DecompilerContext.getOption("nco")) {
+         buffer.appendIndent(indent).append("// $FF: ").append(comment).appendLineSeparator();
+      }
+   }
+
+   private static void appendAnnotations(TextBuffer buffer, StructMember mb, int indent) {
+      BytecodeMappingTracer tracer_dummy = new BytecodeMappingTracer();
+      String[] var4 = ANNOTATION_ATTRIBUTES;
+      int var5 = var4.length;
+
+      for(int var6 = 0; var6 < var5; ++var6) {
+         String name = var4[var6];
+         StructAnnotationAttribute attribute = (StructAnnotationAttribute)mb.getAttributes().getWithKey(name);
+         if(attribute != null) {
+            Iterator var9 = attribute.getAnnotations().iterator();
+
+            while(var9.hasNext()) {
+               AnnotationExprent annotation = (AnnotationExprent)var9.next();
+               buffer.append(annotation.toJava(indent, tracer_dummy)).appendLineSeparator();
+            }
+         }
+      }
+
+   }
+
+   private static void appendParameterAnnotations(TextBuffer buffer, StructMethod mt, int param) {
+      BytecodeMappingTracer tracer_dummy = new BytecodeMappingTracer();
+      String[] var4 = PARAMETER_ANNOTATION_ATTRIBUTES;
+      int var5 = var4.length;
+
+      for(int var6 = 0; var6 < var5; ++var6) {
+         String name = var4[var6];
+         StructAnnotationParameterAttribute attribute = (StructAnnotationParameterAttribute)mt.getAttributes().getWithKey(name);
+         if(attribute != null) {
+            List annotations = attribute.getParamAnnotations();
+            if(param < annotations.size()) {
+               Iterator var10 = ((List)annotations.get(param)).iterator();
+
+               while(var10.hasNext()) {
+                  AnnotationExprent annotation = (AnnotationExprent)var10.next();
+                  buffer.append(annotation.toJava(0, tracer_dummy)).append(' ');
+               }
+            }
+         }
+      }
+
+   }
+
+   private static void appendModifiers(TextBuffer buffer, int flags, int allowed, boolean isInterface, int excluded) {
+      flags &= allowed;
+      if(!isInterface) {
+         excluded = 0;
+      }
+
+      Iterator var5 = MODIFIERS.keySet().iterator();
+
+      while(var5.hasNext()) {
+         int modifier = ((Integer)var5.next()).intValue();
+         if((flags & modifier) == modifier && (modifier & excluded) == 0) {
+            buffer.append((String)MODIFIERS.get(Integer.valueOf(modifier))).append(' ');
+         }
+      }
+
+   }
+
+   private static void appendTypeParameters(TextBuffer buffer, List parameters, List bounds) {
+      buffer.append('<');
+
+      for(int i = 0; i < parameters.size(); ++i) {
+         if(i > 0) {
+            buffer.append(", ");
+         }
+
+         buffer.append((String)parameters.get(i));
+         List parameterBounds = (List)bounds.get(i);
+         if(parameterBounds.size() > 1 || !"java/lang/Object".equals(((GenericType)parameterBounds.get(0)).value)) {
+            buffer.append(" extends ");
+            buffer.append(GenericMain.getGenericCastTypeName((GenericType)parameterBounds.get(0)));
+
+            for(int j = 1; j < parameterBounds.size(); ++j) {
+               buffer.append(" & ");
+               buffer.append(GenericMain.getGenericCastTypeName((GenericType)parameterBounds.get(j)));
+            }
+         }
+      }
+
+      buffer.append('>');
+   }
+
+   private static enum MType {
+      CLASS,
+      FIELD,
+      METHOD;
+
+      // $FF: synthetic method
+      private static ClassWriter.MType[] $values() {
+         return new ClassWriter.MType[]{CLASS, FIELD, METHOD};
+      }
+   }
+}
@@ -0,0 +1,385 @@
+package regression.fernflower.main;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.main.collectors.BytecodeSourceMapper;
+import regression.fernflower.main.collectors.CounterContainer;
+import regression.fernflower.main.collectors.ImportCollector;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.main.extern.IIdentifierRenamer;
+import regression.fernflower.main.rels.ClassWrapper;
+import regression.fernflower.main.rels.LambdaProcessor;
+import regression.fernflower.main.rels.NestedClassProcessor;
+import regression.fernflower.main.rels.NestedMemberAccess;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructContext;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.attr.StructInnerClassesAttribute;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+
+public class ClassesProcessor {
+   public static final int AVERAGE_CLASS_SIZE = 16384;
+   private Map mapRootClasses = new HashMap();
+
+   public ClassesProcessor(StructContext context) {
+      HashMap mapInnerClasses = new HashMap();
+      HashMap mapNestedClassReferences = new HashMap();
+      HashMap mapEnclosingClassReferences = new HashMap();
+      HashMap mapNewSimpleNames = new HashMap();
+      boolean bDecompileInner = DecompilerContext.getOption("din");
+      Iterator var7 = context.getClasses().values().iterator();
+
+      while(true) {
+         StructClass ent;
+         Object[] arr;
+         String var33;
+         do {
+            do {
+               if(!var7.hasNext()) {
+                  if(bDecompileInner) {
+                     var7 = this.mapRootClasses.entrySet().iterator();
+
+                     label122:
+                     while(true) {
+                        Entry var23;
+                        do {
+                           if(!var7.hasNext()) {
+                              return;
+                           }
+
+                           var23 = (Entry)var7.next();
+                        } while(mapInnerClasses.containsKey(var23.getKey()));
+
+                        HashSet var25 = new HashSet();
+                        LinkedList var26 = new LinkedList();
+                        var26.add((String)var23.getKey());
+                        var25.add((String)var23.getKey());
+
+                        while(true) {
+                           ClassesProcessor.ClassNode var28;
+                           HashSet var29;
+                           do {
+                              if(var26.isEmpty()) {
+                                 continue label122;
+                              }
+
+                              String var27 = (String)var26.removeFirst();
+                              var28 = (ClassesProcessor.ClassNode)this.mapRootClasses.get(var27);
+                              var29 = (HashSet)mapNestedClassReferences.get(var27);
+                           } while(var29 == null);
+
+                           StructClass var30 = var28.classStruct;
+                           StructInnerClassesAttribute var31 = (StructInnerClassesAttribute)var30.getAttributes().getWithKey("InnerClasses");
+
+                           for(int var32 = 0; var32 < var31.getStringEntries().size(); ++var32) {
+                              var33 = ((String[])var31.getStringEntries().get(var32))[0];
+                              if(var29.contains(var33) && var25.add(var33)) {
+                                 ClassesProcessor.ClassNode var34 = (ClassesProcessor.ClassNode)this.mapRootClasses.get(var33);
+                                 if(var34 == null) {
+                                    DecompilerContext.getLogger().writeMessage("Nested class " + var33 + " missing!", IFernflowerLogger.Severity.WARN);
+                                 } else {
+                                    arr = (Object[])mapInnerClasses.get(var33);
+                                    var34.type = ((Integer)arr[2]).intValue();
+                                    var34.simpleName = (String)arr[1];
+                                    var34.access = ((Integer)arr[3]).intValue();
+                                    if(var34.type == 2) {
+                                       StructClass var36 = var34.classStruct;
+                                       var34.access &= -9;
+                                       int[] interfaces = var36.getInterfaces();
+                                       if(interfaces.length > 0) {
+                                          if(interfaces.length > 1) {
+                                             String message = "Inconsistent anonymous class definition: " + var36.qualifiedName;
+                                             DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.WARN);
+                                          }
+
+                                          var34.anonymousClassType = new VarType(var36.getInterface(0), true);
+                                       } else {
+                                          var34.anonymousClassType = new VarType(var36.superClass.getString(), true);
+                                       }
+                                    } else if(var34.type == 4) {
+                                       var34.access &= 1040;
+                                    }
+
+                                    var28.nested.add(var34);
+                                    var34.parent = var28;
+                                    var34.enclosingClasses.addAll((Collection)mapEnclosingClassReferences.get(var33));
+                                    var26.add(var33);
+                                 }
+                              }
+                           }
+                        }
+                     }
+                  }
+
+                  return;
+               }
+
+               ent = (StructClass)var7.next();
+            } while(!ent.isOwn());
+         } while(this.mapRootClasses.containsKey(ent.qualifiedName));
+
+         if(bDecompileInner) {
+            StructInnerClassesAttribute setVisited = (StructInnerClassesAttribute)ent.getAttributes().getWithKey("InnerClasses");
+            if(setVisited != null) {
+               for(int stack = 0; stack < setVisited.getClassEntries().size(); ++stack) {
+                  int[] superClass = (int[])setVisited.getClassEntries().get(stack);
+                  String[] supernode = (String[])setVisited.getStringEntries().get(stack);
+                  Object[] setNestedClasses = new Object[4];
+                  String scl = supernode[0];
+                  setNestedClasses[2] = Integer.valueOf(superClass[1] == 0 ? (superClass[2] == 0 ? 2 : 4) : 1);
+                  String inner = supernode[2];
+                  String i = (String)mapNewSimpleNames.get(scl);
+                  if(i != null) {
+                     inner = i;
+                  } else if(inner != null && DecompilerContext.getOption("ren")) {
+                     IIdentifierRenamer nestedClass = DecompilerContext.getPoolInterceptor().getHelper();
+                     if(nestedClass.toBeRenamed(IIdentifierRenamer.Type.ELEMENT_CLASS, inner, (String)null, (String)null)) {
+                        inner = nestedClass.getNextClassName(scl, inner);
+                        mapNewSimpleNames.put(scl, inner);
+                     }
+                  }
+
+                  setNestedClasses[1] = inner;
+                  setNestedClasses[3] = Integer.valueOf(superClass[3]);
+                  if(superClass[1] != 0) {
+                     var33 = supernode[1];
+                  } else {
+                     var33 = ent.qualifiedName;
+                  }
+
+                  if(!scl.equals(var33)) {
+                     StructClass nestednode = (StructClass)context.getClasses().get(var33);
+                     if(nestednode != null && nestednode.isOwn()) {
+                        arr = (Object[])mapInnerClasses.get(scl);
+                        if(arr == null) {
+                           mapInnerClasses.put(scl, setNestedClasses);
+                        } else if(!InterpreterUtil.equalObjectArrays(arr, setNestedClasses)) {
+                           String cl = "Inconsistent inner class entries for " + scl + "!";
+                           DecompilerContext.getLogger().writeMessage(cl, IFernflowerLogger.Severity.WARN);
+                        }
+
+                        HashSet var35 = (HashSet)mapNestedClassReferences.get(var33);
+                        if(var35 == null) {
+                           mapNestedClassReferences.put(var33, var35 = new HashSet());
+                        }
+
+                        var35.add(scl);
+                        var35 = (HashSet)mapEnclosingClassReferences.get(scl);
+                        if(var35 == null) {
+                           mapEnclosingClassReferences.put(scl, var35 = new HashSet());
+                        }
+
+                        var35.add(var33);
+                     }
+                  }
+               }
+            }
+         }
+
+         ClassesProcessor.ClassNode var24 = new ClassesProcessor.ClassNode(0, ent);
+         var24.access = ent.getAccessFlags();
+         this.mapRootClasses.put(ent.qualifiedName, var24);
+      }
+   }
+
+   public void writeClass(StructClass cl, TextBuffer buffer) throws IOException {
+      ClassesProcessor.ClassNode root = (ClassesProcessor.ClassNode)this.mapRootClasses.get(cl.qualifiedName);
+      if(root.type == 0) {
+         DecompilerContext.getLogger().startReadingClass(cl.qualifiedName);
+
+         try {
+            ImportCollector importCollector = new ImportCollector(root);
+            DecompilerContext.setImportCollector(importCollector);
+            DecompilerContext.setCounterContainer(new CounterContainer());
+            DecompilerContext.setBytecodeSourceMapper(new BytecodeSourceMapper());
+            (new LambdaProcessor()).processClass(root);
+            addClassnameToImport(root, importCollector);
+            initWrappers(root);
+            (new NestedClassProcessor()).processClass(root, root);
+            (new NestedMemberAccess()).propagateMemberAccess(root);
+            TextBuffer classBuffer = new TextBuffer(16384);
+            (new ClassWriter()).classToJava(root, classBuffer, 0, (BytecodeMappingTracer)null);
+            int total_offset_lines = 0;
+            int index = cl.qualifiedName.lastIndexOf("/");
+            if(index >= 0) {
+               total_offset_lines += 2;
+               String import_lines_written = cl.qualifiedName.substring(0, index).replace('/', '.');
+               buffer.append("package ");
+               buffer.append(import_lines_written);
+               buffer.append(";");
+               buffer.appendLineSeparator();
+               buffer.appendLineSeparator();
+            }
+
+            int import_lines_written1 = importCollector.writeImports(buffer);
+            if(import_lines_written1 > 0) {
+               buffer.appendLineSeparator();
+               int var10000 = total_offset_lines + import_lines_written1 + 1;
+            }
+
+            total_offset_lines = buffer.countLines();
+            buffer.append(classBuffer);
+            if(DecompilerContext.getOption("bsm")) {
+               BytecodeSourceMapper mapper = DecompilerContext.getBytecodeSourceMapper();
+               mapper.addTotalOffset(total_offset_lines);
+               if(DecompilerContext.getOption("__dump_original_lines__")) {
+                  buffer.dumpOriginalLineNumbers(mapper.getOriginalLinesMapping());
+               }
+
+               if(DecompilerContext.getOption("__unit_test_mode__")) {
+                  buffer.appendLineSeparator();
+                  mapper.dumpMapping(buffer, true);
+               }
+            }
+         } finally {
+            destroyWrappers(root);
+            DecompilerContext.getLogger().endReadingClass();
+         }
+
+      }
+   }
+
+   private static void initWrappers(ClassesProcessor.ClassNode node) throws IOException {
+      if(node.type != 8) {
+         ClassWrapper wrapper = new ClassWrapper(node.classStruct);
+         wrapper.init();
+         node.wrapper = wrapper;
+         Iterator var2 = node.nested.iterator();
+
+         while(var2.hasNext()) {
+            ClassesProcessor.ClassNode nd = (ClassesProcessor.ClassNode)var2.next();
+            initWrappers(nd);
+         }
+
+      }
+   }
+
+   private static void addClassnameToImport(ClassesProcessor.ClassNode node, ImportCollector imp) {
+      if(node.simpleName != null && node.simpleName.length() > 0) {
+         imp.getShortName(node.type == 0 ? node.classStruct.qualifiedName : node.simpleName, false);
+      }
+
+      Iterator var2 = node.nested.iterator();
+
+      while(var2.hasNext()) {
+         ClassesProcessor.ClassNode nd = (ClassesProcessor.ClassNode)var2.next();
+         addClassnameToImport(nd, imp);
+      }
+
+   }
+
+   private static void destroyWrappers(ClassesProcessor.ClassNode node) {
+      node.wrapper = null;
+      node.classStruct.releaseResources();
+      Iterator var1 = node.nested.iterator();
+
+      while(var1.hasNext()) {
+         ClassesProcessor.ClassNode nd = (ClassesProcessor.ClassNode)var1.next();
+         destroyWrappers(nd);
+      }
+
+   }
+
+   public Map getMapRootClasses() {
+      return this.mapRootClasses;
+   }
+
+   public static class ClassNode {
+      public static final int CLASS_ROOT = 0;
+      public static final int CLASS_MEMBER = 1;
+      public static final int CLASS_ANONYMOUS = 2;
+      public static final int CLASS_LOCAL = 4;
+      public static final int CLASS_LAMBDA = 8;
+      public int type;
+      public int access;
+      public String simpleName;
+      public StructClass classStruct;
+      private ClassWrapper wrapper;
+      public String enclosingMethod;
+      public InvocationExprent superInvocation;
+      public Map mapFieldsToVars = new HashMap();
+      public VarType anonymousClassType;
+      public List nested = new ArrayList();
+      public Set enclosingClasses = new HashSet();
+      public ClassesProcessor.ClassNode parent;
+      public ClassesProcessor.ClassNode.LambdaInformation lambdaInformation;
+      public boolean namelessConstructorStub = false;
+
+      public ClassNode(String content_class_name, String content_method_name, String content_method_descriptor, int content_method_invocation_type, String lambda_class_name, String lambda_method_name, String lambda_method_descriptor, StructClass classStruct) {
+         this.type = 8;
+         this.classStruct = classStruct;
+         this.lambdaInformation = new ClassesProcessor.ClassNode.LambdaInformation();
+         this.lambdaInformation.class_name = lambda_class_name;
+         this.lambdaInformation.method_name = lambda_method_name;
+         this.lambdaInformation.method_descriptor = lambda_method_descriptor;
+         this.lambdaInformation.content_class_name = content_class_name;
+         this.lambdaInformation.content_method_name = content_method_name;
+         this.lambdaInformation.content_method_descriptor = content_method_descriptor;
+         this.lambdaInformation.content_method_invocation_type = content_method_invocation_type;
+         this.lambdaInformation.content_method_key = InterpreterUtil.makeUniqueKey(this.lambdaInformation.content_method_name, this.lambdaInformation.content_method_descriptor);
+         this.anonymousClassType = new VarType(lambda_class_name, true);
+         boolean is_method_reference = content_class_name != classStruct.qualifiedName;
+         if(!is_method_reference) {
+            StructMethod mt = classStruct.getMethod(content_method_name, content_method_descriptor);
+            is_method_reference = !mt.isSynthetic();
+         }
+
+         this.lambdaInformation.is_method_reference = is_method_reference;
+         this.lambdaInformation.is_content_method_static = this.lambdaInformation.content_method_invocation_type == 6;
+      }
+
+      public ClassNode(int type, StructClass classStruct) {
+         this.type = type;
+         this.classStruct = classStruct;
+         this.simpleName = classStruct.qualifiedName.substring(classStruct.qualifiedName.lastIndexOf(47) + 1);
+      }
+
+      public ClassesProcessor.ClassNode getClassNode(String qualifiedName) {
+         Iterator var2 = this.nested.iterator();
+
+         ClassesProcessor.ClassNode node;
+         do {
+            if(!var2.hasNext()) {
+               return null;
+            }
+
+            node = (ClassesProcessor.ClassNode)var2.next();
+         } while(!qualifiedName.equals(node.classStruct.qualifiedName));
+
+         return node;
+      }
+
+      public ClassWrapper getWrapper() {
+         ClassesProcessor.ClassNode node;
+         for(node = this; node.type == 8; node = node.parent) {
+         }
+
+         return node.wrapper;
+      }
+
+      public static class LambdaInformation {
+         public String class_name;
+         public String method_name;
+         public String method_descriptor;
+         public String content_class_name;
+         public String content_method_name;
+         public String content_method_descriptor;
+         public int content_method_invocation_type;
+         public String content_method_key;
+         public boolean is_method_reference;
+         public boolean is_content_method_static;
+      }
+   }
+}
@@ -0,0 +1,100 @@
+package regression.fernflower.main;
+
+import java.util.Iterator;
+import regression.fernflower.main.rels.ClassWrapper;
+import regression.fernflower.main.rels.MethodWrapper;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructField;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.util.InterpreterUtil;
+
+public class EnumProcessor {
+   public static void clearEnum(ClassWrapper wrapper) {
+      StructClass cl = wrapper.getClassStruct();
+      Iterator var2 = wrapper.getMethods().iterator();
+
+      while(var2.hasNext()) {
+         MethodWrapper fd = (MethodWrapper)var2.next();
+         StructMethod descriptor = fd.methodStruct;
+         String name = descriptor.getName();
+         String descriptor1 = descriptor.getDescriptor();
+         if("values".equals(name)) {
+            if(descriptor1.equals("()[L" + cl.qualifiedName + ";")) {
+               wrapper.getHiddenMembers().add(InterpreterUtil.makeUniqueKey(name, descriptor1));
+            }
+         } else if("valueOf".equals(name)) {
+            if(descriptor1.equals("(Ljava/lang/String;)L" + cl.qualifiedName + ";")) {
+               wrapper.getHiddenMembers().add(InterpreterUtil.makeUniqueKey(name, descriptor1));
+            }
+         } else if("<init>".equals(name)) {
+            Statement firstData = findFirstData(fd.root);
+            if(firstData != null && !firstData.getExprents().isEmpty()) {
+               Exprent exprent = (Exprent)firstData.getExprents().get(0);
+               if(exprent.type == 8) {
+                  InvocationExprent invexpr = (InvocationExprent)exprent;
+                  if(isInvocationSuperConstructor(invexpr, fd, wrapper)) {
+                     firstData.getExprents().remove(0);
+                  }
+               }
+            }
+         }
+      }
+
+      var2 = cl.getFields().iterator();
+
+      while(var2.hasNext()) {
+         StructField fd1 = (StructField)var2.next();
+         String descriptor2 = fd1.getDescriptor();
+         if(fd1.isSynthetic() && descriptor2.equals("[L" + cl.qualifiedName + ";")) {
+            wrapper.getHiddenMembers().add(InterpreterUtil.makeUniqueKey(fd1.getName(), descriptor2));
+         }
+      }
+
+   }
+
+   private static Statement findFirstData(Statement stat) {
+      if(stat.getExprents() != null) {
+         return stat;
+      } else if(stat.isLabeled()) {
+         return null;
+      } else {
+         switch(stat.type) {
+         case 2:
+         case 6:
+         case 10:
+         case 13:
+         case 15:
+            return findFirstData(stat.getFirst());
+         case 3:
+         case 4:
+         case 5:
+         case 7:
+         case 8:
+         case 9:
+         case 11:
+         case 12:
+         case 14:
+         default:
+            return null;
+         }
+      }
+   }
+
+   private static boolean isInvocationSuperConstructor(InvocationExprent inv, MethodWrapper meth, ClassWrapper wrapper) {
+      if(inv.getFunctype() == 2 && inv.getInstance().type == 12) {
+         VarExprent instvar = (VarExprent)inv.getInstance();
+         VarVersionPair varpaar = new VarVersionPair(instvar);
+         String classname = (String)meth.varproc.getThisVars().get(varpaar);
+         if(classname != null && !wrapper.getClassStruct().qualifiedName.equals(inv.getClassname())) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+}
@@ -0,0 +1,67 @@
+package regression.fernflower.main;
+
+import java.util.Map;
+import regression.fernflower.main.collectors.CounterContainer;
+import regression.fernflower.main.extern.IBytecodeProvider;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.main.extern.IResultSaver;
+import regression.fernflower.modules.renamer.IdentifierConverter;
+import regression.fernflower.struct.IDecompiledData;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructContext;
+import regression.fernflower.struct.lazy.LazyLoader;
+
+public class Fernflower implements IDecompiledData {
+   private StructContext structContext;
+   private ClassesProcessor classesProcessor;
+
+   public Fernflower(IBytecodeProvider provider, IResultSaver saver, Map options, IFernflowerLogger logger) {
+      this.structContext = new StructContext(saver, this, new LazyLoader(provider));
+      DecompilerContext.initContext(options);
+      DecompilerContext.setCounterContainer(new CounterContainer());
+      DecompilerContext.setLogger(logger);
+   }
+
+   public void decompileContext() {
+      if(DecompilerContext.getOption("ren")) {
+         (new IdentifierConverter()).rename(this.structContext);
+      }
+
+      this.classesProcessor = new ClassesProcessor(this.structContext);
+      DecompilerContext.setClassProcessor(this.classesProcessor);
+      DecompilerContext.setStructContext(this.structContext);
+      this.structContext.saveContext();
+   }
+
+   public void clearContext() {
+      DecompilerContext.setCurrentContext((DecompilerContext)null);
+   }
+
+   public StructContext getStructContext() {
+      return this.structContext;
+   }
+
+   public String getClassEntryName(StructClass cl, String entryName) {
+      ClassesProcessor.ClassNode node = (ClassesProcessor.ClassNode)this.classesProcessor.getMapRootClasses().get(cl.qualifiedName);
+      if(node.type != 0) {
+         return null;
+      } else if(DecompilerContext.getOption("ren")) {
+         String simple_classname = cl.qualifiedName.substring(cl.qualifiedName.lastIndexOf(47) + 1);
+         return entryName.substring(0, entryName.lastIndexOf(47) + 1) + simple_classname + ".java";
+      } else {
+         return entryName.substring(0, entryName.lastIndexOf(".class")) + ".java";
+      }
+   }
+
+   public String getClassContent(StructClass cl) {
+      try {
+         TextBuffer ex = new TextBuffer(16384);
+         ex.append(DecompilerContext.getProperty("ban").toString());
+         this.classesProcessor.writeClass(cl, ex);
+         return ex.toString();
+      } catch (Throwable var3) {
+         DecompilerContext.getLogger().writeMessage("Class " + cl.qualifiedName + " couldn\'t be fully decompiled.", var3);
+         return null;
+      }
+   }
+}
@@ -0,0 +1,293 @@
+package regression.fernflower.main;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.main.rels.ClassWrapper;
+import regression.fernflower.main.rels.MethodWrapper;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FieldExprent;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructField;
+import regression.fernflower.util.InterpreterUtil;
+
+public class InitializerProcessor {
+   public static void extractInitializers(ClassWrapper wrapper) {
+      MethodWrapper meth = wrapper.getMethodWrapper("<clinit>", "()V");
+      if(meth != null && meth.root != null) {
+         extractStaticInitializers(wrapper, meth);
+      }
+
+      extractDynamicInitializers(wrapper);
+      liftConstructor(wrapper);
+      if(DecompilerContext.getOption("hes")) {
+         hideEmptySuper(wrapper);
+      }
+
+   }
+
+   private static void liftConstructor(ClassWrapper wrapper) {
+      Iterator var1 = wrapper.getMethods().iterator();
+
+      while(true) {
+         MethodWrapper meth;
+         do {
+            do {
+               if(!var1.hasNext()) {
+                  return;
+               }
+
+               meth = (MethodWrapper)var1.next();
+            } while(!"<init>".equals(meth.methodStruct.getName()));
+         } while(meth.root == null);
+
+         Statement firstdata = findFirstData(meth.root);
+         if(firstdata == null) {
+            return;
+         }
+
+         int index = 0;
+         List lstExprents = firstdata.getExprents();
+
+         for(Iterator var6 = lstExprents.iterator(); var6.hasNext(); ++index) {
+            Exprent exprent = (Exprent)var6.next();
+            boolean action = false;
+            if(exprent.type == 2) {
+               AssignmentExprent asexpr = (AssignmentExprent)exprent;
+               if(asexpr.getLeft().type == 5 && asexpr.getRight().type == 12) {
+                  FieldExprent fexpr = (FieldExprent)asexpr.getLeft();
+                  if(fexpr.getClassname().equals(wrapper.getClassStruct().qualifiedName)) {
+                     StructField structField = wrapper.getClassStruct().getField(fexpr.getName(), fexpr.getDescriptor().descriptorString);
+                     if(structField != null && structField.hasModifier(16)) {
+                        action = false;
+                     }
+                  }
+               }
+            } else if(index > 0 && exprent.type == 8 && isInvocationInitConstructor((InvocationExprent)exprent, meth, wrapper, true)) {
+               lstExprents.add(0, (Exprent)lstExprents.remove(index));
+               action = true;
+            }
+
+            if(action) {
+               break;
+            }
+         }
+      }
+   }
+
+   private static void hideEmptySuper(ClassWrapper wrapper) {
+      Iterator var1 = wrapper.getMethods().iterator();
+
+      while(true) {
+         MethodWrapper meth;
+         do {
+            do {
+               if(!var1.hasNext()) {
+                  return;
+               }
+
+               meth = (MethodWrapper)var1.next();
+            } while(!"<init>".equals(meth.methodStruct.getName()));
+         } while(meth.root == null);
+
+         Statement firstdata = findFirstData(meth.root);
+         if(firstdata == null || firstdata.getExprents().isEmpty()) {
+            return;
+         }
+
+         Exprent exprent = (Exprent)firstdata.getExprents().get(0);
+         if(exprent.type == 8) {
+            InvocationExprent invexpr = (InvocationExprent)exprent;
+            if(isInvocationInitConstructor(invexpr, meth, wrapper, false) && invexpr.getLstParameters().isEmpty()) {
+               firstdata.getExprents().remove(0);
+            }
+         }
+      }
+   }
+
+   private static void extractStaticInitializers(ClassWrapper wrapper, MethodWrapper meth) {
+      RootStatement root = meth.root;
+      StructClass cl = wrapper.getClassStruct();
+      Statement firstdata = findFirstData(root);
+      if(firstdata != null) {
+         while(!firstdata.getExprents().isEmpty()) {
+            Exprent exprent = (Exprent)firstdata.getExprents().get(0);
+            boolean found = false;
+            if(exprent.type == 2) {
+               AssignmentExprent asexpr = (AssignmentExprent)exprent;
+               if(asexpr.getLeft().type == 5) {
+                  FieldExprent fexpr = (FieldExprent)asexpr.getLeft();
+                  if(fexpr.isStatic() && fexpr.getClassname().equals(cl.qualifiedName) && cl.hasField(fexpr.getName(), fexpr.getDescriptor().descriptorString) && isExprentIndependent(asexpr.getRight(), meth)) {
+                     String keyField = InterpreterUtil.makeUniqueKey(fexpr.getName(), fexpr.getDescriptor().descriptorString);
+                     if(!wrapper.getStaticFieldInitializers().containsKey(keyField)) {
+                        wrapper.getStaticFieldInitializers().addWithKey(asexpr.getRight(), keyField);
+                        firstdata.getExprents().remove(0);
+                        found = true;
+                     }
+                  }
+               }
+            }
+
+            if(!found) {
+               break;
+            }
+         }
+      }
+
+   }
+
+   private static void extractDynamicInitializers(ClassWrapper wrapper) {
+      StructClass cl = wrapper.getClassStruct();
+      boolean isAnonymous = ((ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(cl.qualifiedName)).type == 2;
+      ArrayList lstFirst = new ArrayList();
+      ArrayList lstMethWrappers = new ArrayList();
+      Iterator fieldWithDescr = wrapper.getMethods().iterator();
+
+      while(true) {
+         MethodWrapper value;
+         do {
+            do {
+               if(!fieldWithDescr.hasNext()) {
+                  if(lstFirst.isEmpty()) {
+                     return;
+                  }
+
+                  while(true) {
+                     String var14 = null;
+                     Exprent var15 = null;
+
+                     List var18;
+                     for(int var16 = 0; var16 < lstFirst.size(); ++var16) {
+                        var18 = (List)lstFirst.get(var16);
+                        if(var18.size() < (isAnonymous ? 1 : 2)) {
+                           return;
+                        }
+
+                        Exprent exprent = (Exprent)var18.get(isAnonymous ? 0 : 1);
+                        boolean found = false;
+                        if(exprent.type == 2) {
+                           AssignmentExprent asexpr = (AssignmentExprent)exprent;
+                           if(asexpr.getLeft().type == 5) {
+                              FieldExprent fexpr = (FieldExprent)asexpr.getLeft();
+                              if(!fexpr.isStatic() && fexpr.getClassname().equals(cl.qualifiedName) && cl.hasField(fexpr.getName(), fexpr.getDescriptor().descriptorString) && isExprentIndependent(asexpr.getRight(), (MethodWrapper)lstMethWrappers.get(var16))) {
+                                 String fieldKey = InterpreterUtil.makeUniqueKey(fexpr.getName(), fexpr.getDescriptor().descriptorString);
+                                 if(var14 == null) {
+                                    var14 = fieldKey;
+                                    var15 = asexpr.getRight();
+                                 } else if(!var14.equals(fieldKey) || !var15.equals(asexpr.getRight())) {
+                                    return;
+                                 }
+
+                                 found = true;
+                              }
+                           }
+                        }
+
+                        if(!found) {
+                           return;
+                        }
+                     }
+
+                     if(wrapper.getDynamicFieldInitializers().containsKey(var14)) {
+                        return;
+                     }
+
+                     wrapper.getDynamicFieldInitializers().addWithKey(var15, var14);
+                     Iterator var17 = lstFirst.iterator();
+
+                     while(var17.hasNext()) {
+                        var18 = (List)var17.next();
+                        var18.remove(isAnonymous ? 0 : 1);
+                     }
+                  }
+               }
+
+               value = (MethodWrapper)fieldWithDescr.next();
+            } while(!"<init>".equals(value.methodStruct.getName()));
+         } while(value.root == null);
+
+         Statement i = findFirstData(value.root);
+         if(i != null && !i.getExprents().isEmpty()) {
+            lstFirst.add(i.getExprents());
+            lstMethWrappers.add(value);
+            Exprent lst = (Exprent)i.getExprents().get(0);
+            if(isAnonymous || lst.type == 8 && isInvocationInitConstructor((InvocationExprent)lst, value, wrapper, false)) {
+               continue;
+            }
+
+            return;
+         }
+
+         return;
+      }
+   }
+
+   private static boolean isExprentIndependent(Exprent exprent, MethodWrapper meth) {
+      List lst = exprent.getAllExprents(true);
+      lst.add(exprent);
+      Iterator var3 = lst.iterator();
+
+      while(var3.hasNext()) {
+         Exprent expr = (Exprent)var3.next();
+         switch(expr.type) {
+         case 12:
+            VarVersionPair varpaar = new VarVersionPair((VarExprent)expr);
+            if(!meth.varproc.getExternalVars().contains(varpaar)) {
+               String varname = meth.varproc.getVarName(varpaar);
+               if(!varname.equals("this") && !varname.endsWith(".this")) {
+                  return false;
+               }
+            }
+         }
+      }
+
+      return true;
+   }
+
+   private static Statement findFirstData(Statement stat) {
+      if(stat.getExprents() != null) {
+         return stat;
+      } else if(stat.isLabeled()) {
+         return null;
+      } else {
+         switch(stat.type) {
+         case 2:
+         case 6:
+         case 10:
+         case 13:
+         case 15:
+            return findFirstData(stat.getFirst());
+         case 3:
+         case 4:
+         case 5:
+         case 7:
+         case 8:
+         case 9:
+         case 11:
+         case 12:
+         case 14:
+         default:
+            return null;
+         }
+      }
+   }
+
+   private static boolean isInvocationInitConstructor(InvocationExprent inv, MethodWrapper meth, ClassWrapper wrapper, boolean withThis) {
+      if(inv.getFunctype() == 2 && inv.getInstance().type == 12) {
+         VarExprent instvar = (VarExprent)inv.getInstance();
+         VarVersionPair varpaar = new VarVersionPair(instvar);
+         String classname = (String)meth.varproc.getThisVars().get(varpaar);
+         if(classname != null && (withThis || !wrapper.getClassStruct().qualifiedName.equals(inv.getClassname()))) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+}
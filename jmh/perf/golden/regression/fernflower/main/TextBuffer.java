@@ -0,0 +1,345 @@
+package regression.fernflower.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+public class TextBuffer {
+   private final String myLineSeparator = DecompilerContext.getNewLineSeparator();
+   private final String myIndent = (String)DecompilerContext.getProperty("ind");
+   private final StringBuilder myStringBuilder;
+   private Map myLineToOffsetMapping = null;
+   private Map myLineMapping = null;
+
+   public TextBuffer() {
+      this.myStringBuilder = new StringBuilder();
+   }
+
+   public TextBuffer(int size) {
+      this.myStringBuilder = new StringBuilder(size);
+   }
+
+   public TextBuffer(String text) {
+      this.myStringBuilder = new StringBuilder(text);
+   }
+
+   public void setCurrentLine(int line) {
+      this.setLineMapping(line, this.myStringBuilder.length() + 1);
+   }
+
+   public void setLineMapping(int line, int offset) {
+      if(line >= 0) {
+         this.checkMapCreated();
+         this.myLineToOffsetMapping.put(Integer.valueOf(line), Integer.valueOf(offset));
+      }
+
+   }
+
+   public TextBuffer append(String str) {
+      this.myStringBuilder.append(str);
+      return this;
+   }
+
+   public TextBuffer append(char ch) {
+      this.myStringBuilder.append(ch);
+      return this;
+   }
+
+   public TextBuffer append(int i) {
+      this.myStringBuilder.append(i);
+      return this;
+   }
+
+   public TextBuffer appendLineSeparator() {
+      this.myStringBuilder.append(this.myLineSeparator);
+      return this;
+   }
+
+   public TextBuffer appendIndent(int length) {
+      while(length-- > 0) {
+         this.append(this.myIndent);
+      }
+
+      return this;
+   }
+
+   public TextBuffer prepend(String s) {
+      this.insert(0, s);
+      return this;
+   }
+
+   public TextBuffer enclose(String left, String right) {
+      this.prepend(left);
+      this.append(right);
+      return this;
+   }
+
+   public boolean containsOnlyWhitespaces() {
+      for(int i = 0; i < this.myStringBuilder.length(); ++i) {
+         if(this.myStringBuilder.charAt(i) != 32) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   public String toString() {
+      String original = this.myStringBuilder.toString();
+      if(this.myLineToOffsetMapping != null && !this.myLineToOffsetMapping.isEmpty()) {
+         StringBuilder res = new StringBuilder();
+         String[] srcLines = original.split(this.myLineSeparator);
+         int currentLineStartOffset = 0;
+         int currentLine = 0;
+         int previousMarkLine = 0;
+         int dumpedLines = 0;
+         ArrayList linesWithMarks = new ArrayList(this.myLineToOffsetMapping.keySet());
+         Collections.sort(linesWithMarks);
+         Iterator var9 = linesWithMarks.iterator();
+
+         while(true) {
+            while(var9.hasNext()) {
+               Integer markLine = (Integer)var9.next();
+
+               for(Integer markOffset = (Integer)this.myLineToOffsetMapping.get(markLine); currentLine < srcLines.length; ++currentLine) {
+                  String line = srcLines[currentLine];
+                  int lineEnd = currentLineStartOffset + line.length() + this.myLineSeparator.length();
+                  if(markOffset.intValue() <= lineEnd) {
+                     int requiredLine = markLine.intValue() - 1;
+                     int linesToAdd = requiredLine - dumpedLines;
+                     dumpedLines = requiredLine;
+                     this.appendLines(res, srcLines, previousMarkLine, currentLine, linesToAdd);
+                     previousMarkLine = currentLine;
+                     break;
+                  }
+
+                  currentLineStartOffset = lineEnd;
+               }
+            }
+
+            if(previousMarkLine < srcLines.length) {
+               this.appendLines(res, srcLines, previousMarkLine, srcLines.length, srcLines.length - previousMarkLine);
+            }
+
+            return res.toString();
+         }
+      } else {
+         return this.myLineMapping != null ? this.addOriginalLineNumbers() : original;
+      }
+   }
+
+   private String addOriginalLineNumbers() {
+      StringBuilder sb = new StringBuilder();
+      int lineStart = 0;
+      int count = 0;
+
+      int lineEnd;
+      for(int length = this.myLineSeparator.length(); (lineEnd = this.myStringBuilder.indexOf(this.myLineSeparator, lineStart)) > 0; lineStart = lineEnd + length) {
+         ++count;
+         sb.append(this.myStringBuilder.substring(lineStart, lineEnd));
+         Integer integer = (Integer)this.myLineMapping.get(Integer.valueOf(count));
+         if(integer != null) {
+            sb.append("// ").append(integer);
+         }
+
+         sb.append(this.myLineSeparator);
+      }
+
+      if(lineStart < this.myStringBuilder.length()) {
+         sb.append(this.myStringBuilder.substring(lineStart));
+      }
+
+      return sb.toString();
+   }
+
+   private void appendLines(StringBuilder res, String[] srcLines, int from, int to, int requiredLineNumber) {
+      if(to - from > requiredLineNumber) {
+         List i = compactLines(Arrays.asList(srcLines).subList(from, to), requiredLineNumber);
+         int separatorsRequired = requiredLineNumber - 1;
+         Iterator var8 = i.iterator();
+
+         while(var8.hasNext()) {
+            String s = (String)var8.next();
+            res.append(s);
+            if(separatorsRequired-- > 0) {
+               res.append(this.myLineSeparator);
+            }
+         }
+
+         res.append(this.myLineSeparator);
+      } else if(to - from <= requiredLineNumber) {
+         int var10;
+         for(var10 = from; var10 < to; ++var10) {
+            res.append(srcLines[var10]).append(this.myLineSeparator);
+         }
+
+         for(var10 = 0; var10 < requiredLineNumber - to + from; ++var10) {
+            res.append(this.myLineSeparator);
+         }
+      }
+
+   }
+
+   public int length() {
+      return this.myStringBuilder.length();
+   }
+
+   public String substring(int start) {
+      return this.myStringBuilder.substring(start);
+   }
+
+   public TextBuffer setStart(int position) {
+      this.myStringBuilder.delete(0, position);
+      this.shiftMapping(0, -position);
+      return this;
+   }
+
+   public void setLength(int position) {
+      this.myStringBuilder.setLength(position);
+      if(this.myLineToOffsetMapping != null) {
+         HashMap newMap = new HashMap();
+         Iterator var3 = this.myLineToOffsetMapping.entrySet().iterator();
+
+         while(var3.hasNext()) {
+            Entry entry = (Entry)var3.next();
+            if(((Integer)entry.getValue()).intValue() <= position) {
+               newMap.put((Integer)entry.getKey(), (Integer)entry.getValue());
+            }
+         }
+
+         this.myLineToOffsetMapping = newMap;
+      }
+
+   }
+
+   public TextBuffer append(TextBuffer buffer) {
+      if(buffer.myLineToOffsetMapping != null && !buffer.myLineToOffsetMapping.isEmpty()) {
+         this.checkMapCreated();
+         Iterator var2 = buffer.myLineToOffsetMapping.entrySet().iterator();
+
+         while(var2.hasNext()) {
+            Entry entry = (Entry)var2.next();
+            this.myLineToOffsetMapping.put((Integer)entry.getKey(), Integer.valueOf(((Integer)entry.getValue()).intValue() + this.myStringBuilder.length()));
+         }
+      }
+
+      this.myStringBuilder.append(buffer.myStringBuilder);
+      return this;
+   }
+
+   private void shiftMapping(int startOffset, int shiftOffset) {
+      if(this.myLineToOffsetMapping != null) {
+         HashMap newMap = new HashMap();
+         Iterator var4 = this.myLineToOffsetMapping.entrySet().iterator();
+
+         while(var4.hasNext()) {
+            Entry entry = (Entry)var4.next();
+            int newValue = ((Integer)entry.getValue()).intValue();
+            if(newValue >= startOffset) {
+               newValue += shiftOffset;
+            }
+
+            if(newValue >= 0) {
+               newMap.put((Integer)entry.getKey(), Integer.valueOf(newValue));
+            }
+         }
+
+         this.myLineToOffsetMapping = newMap;
+      }
+
+   }
+
+   private void checkMapCreated() {
+      if(this.myLineToOffsetMapping == null) {
+         this.myLineToOffsetMapping = new HashMap();
+      }
+
+   }
+
+   public TextBuffer insert(int offset, String s) {
+      this.myStringBuilder.insert(offset, s);
+      this.shiftMapping(offset, s.length());
+      return this;
+   }
+
+   public int countLines() {
+      return this.countLines(0);
+   }
+
+   public int countLines(int from) {
+      return this.count(this.myLineSeparator, from);
+   }
+
+   public int count(String substring, int from) {
+      int count = 0;
+      int length = substring.length();
+
+      for(int p = from; (p = this.myStringBuilder.indexOf(substring, p)) > 0; p += length) {
+         ++count;
+      }
+
+      return count;
+   }
+
+   private static List compactLines(List srcLines, int requiredLineNumber) {
+      if(srcLines.size() >= 2 && srcLines.size() > requiredLineNumber) {
+         LinkedList res = new LinkedList(srcLines);
+
+         int i;
+         String s;
+         for(i = res.size() - 1; i > 0; --i) {
+            s = (String)res.get(i);
+            if(s.trim().equals("{") || s.trim().equals("}")) {
+               res.set(i - 1, ((String)res.get(i - 1)).concat(s));
+               res.remove(i);
+            }
+
+            if(res.size() <= requiredLineNumber) {
+               return res;
+            }
+         }
+
+         for(i = res.size() - 1; i > 0; --i) {
+            s = (String)res.get(i);
+            if(s.trim().isEmpty()) {
+               res.set(i - 1, ((String)res.get(i - 1)).concat(s));
+               res.remove(i);
+            }
+
+            if(res.size() <= requiredLineNumber) {
+               return res;
+            }
+         }
+
+         return res;
+      } else {
+         return srcLines;
+      }
+   }
+
+   public StringBuilder getOriginalText() {
+      return this.myStringBuilder;
+   }
+
+   public void dumpOriginalLineNumbers(int[] lineMapping) {
+      if(lineMapping.length > 0) {
+         this.myLineMapping = new HashMap();
+
+         for(int i = 0; i < lineMapping.length; i += 2) {
+            int key = lineMapping[i + 1];
+            int value = lineMapping[i];
+            Integer existing = (Integer)this.myLineMapping.get(Integer.valueOf(key));
+            if(existing == null || value < existing.intValue()) {
+               this.myLineMapping.put(Integer.valueOf(key), Integer.valueOf(value));
+            }
+         }
+      }
+
+   }
+}
@@ -0,0 +1,120 @@
+package regression.fernflower.main.collectors;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.struct.attr.StructLineNumberTableAttribute;
+
+public class BytecodeMappingTracer {
+   private int currentSourceLine;
+   private StructLineNumberTableAttribute lineNumberTable = null;
+   private Map mapping = new HashMap();
+
+   public BytecodeMappingTracer() {
+   }
+
+   public BytecodeMappingTracer(int initial_source_line) {
+      this.currentSourceLine = initial_source_line;
+   }
+
+   public void incrementCurrentSourceLine() {
+      ++this.currentSourceLine;
+   }
+
+   public void incrementCurrentSourceLine(int number_lines) {
+      this.currentSourceLine += number_lines;
+   }
+
+   public void shiftSourceLines(int shift) {
+      Iterator var2 = this.mapping.entrySet().iterator();
+
+      while(var2.hasNext()) {
+         Entry entry = (Entry)var2.next();
+         entry.setValue(Integer.valueOf(((Integer)entry.getValue()).intValue() + shift));
+      }
+
+   }
+
+   public void addMapping(int bytecode_offset) {
+      if(!this.mapping.containsKey(Integer.valueOf(bytecode_offset))) {
+         this.mapping.put(Integer.valueOf(bytecode_offset), Integer.valueOf(this.currentSourceLine));
+      }
+
+   }
+
+   public void addMapping(Set bytecode_offsets) {
+      if(bytecode_offsets != null) {
+         Iterator var2 = bytecode_offsets.iterator();
+
+         while(var2.hasNext()) {
+            Integer bytecode_offset = (Integer)var2.next();
+            this.addMapping(bytecode_offset.intValue());
+         }
+      }
+
+   }
+
+   public void addTracer(BytecodeMappingTracer tracer) {
+      if(tracer != null) {
+         Iterator var2 = tracer.mapping.entrySet().iterator();
+
+         while(var2.hasNext()) {
+            Entry entry = (Entry)var2.next();
+            if(!this.mapping.containsKey(entry.getKey())) {
+               this.mapping.put((Integer)entry.getKey(), (Integer)entry.getValue());
+            }
+         }
+      }
+
+   }
+
+   public Map getMapping() {
+      return this.mapping;
+   }
+
+   public int getCurrentSourceLine() {
+      return this.currentSourceLine;
+   }
+
+   public void setCurrentSourceLine(int currentSourceLine) {
+      this.currentSourceLine = currentSourceLine;
+   }
+
+   public void setLineNumberTable(StructLineNumberTableAttribute lineNumberTable) {
+      this.lineNumberTable = lineNumberTable;
+   }
+
+   public Map getOriginalLinesMapping() {
+      if(this.lineNumberTable == null) {
+         return Collections.emptyMap();
+      } else {
+         HashMap res = new HashMap();
+         int[] data = this.lineNumberTable.getRawData();
+
+         int originalLine;
+         for(int i = 0; i < data.length; i += 2) {
+            int entry = data[i];
+            originalLine = data[i + 1];
+            Integer newLine = (Integer)this.mapping.get(Integer.valueOf(entry));
+            if(newLine != null) {
+               res.put(Integer.valueOf(originalLine), newLine);
+            }
+         }
+
+         Iterator i1 = this.mapping.entrySet().iterator();
+
+         while(i1.hasNext()) {
+            Entry entry1 = (Entry)i1.next();
+            originalLine = this.lineNumberTable.findLineNumber(((Integer)entry1.getKey()).intValue());
+            if(originalLine > -1) {
+               res.put(Integer.valueOf(originalLine), (Integer)entry1.getValue());
+            }
+         }
+
+         return res;
+      }
+   }
+}
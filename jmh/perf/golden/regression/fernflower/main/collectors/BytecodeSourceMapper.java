@@ -0,0 +1,119 @@
+package regression.fernflower.main.collectors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Map.Entry;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+
+public class BytecodeSourceMapper {
+   private int offset_total;
+   private final Map mapping = new LinkedHashMap();
+   private final Map linesMapping = new HashMap();
+
+   public void addMapping(String className, String methodName, int bytecodeOffset, int sourceLine) {
+      Object class_mapping = (Map)this.mapping.get(className);
+      if(class_mapping == null) {
+         this.mapping.put(className, class_mapping = new LinkedHashMap());
+      }
+
+      Object method_mapping = (Map)((Map)class_mapping).get(methodName);
+      if(method_mapping == null) {
+         ((Map)class_mapping).put(methodName, method_mapping = new HashMap());
+      }
+
+      if(!((Map)method_mapping).containsKey(Integer.valueOf(bytecodeOffset))) {
+         ((Map)method_mapping).put(Integer.valueOf(bytecodeOffset), Integer.valueOf(sourceLine));
+      }
+
+   }
+
+   public void addTracer(String className, String methodName, BytecodeMappingTracer tracer) {
+      Iterator var4 = tracer.getMapping().entrySet().iterator();
+
+      while(var4.hasNext()) {
+         Entry entry = (Entry)var4.next();
+         this.addMapping(className, methodName, ((Integer)entry.getKey()).intValue(), ((Integer)entry.getValue()).intValue());
+      }
+
+      this.linesMapping.putAll(tracer.getOriginalLinesMapping());
+   }
+
+   public void dumpMapping(TextBuffer buffer, boolean offsetsToHex) {
+      if(!this.mapping.isEmpty() || !this.linesMapping.isEmpty()) {
+         String lineSeparator = DecompilerContext.getNewLineSeparator();
+         Iterator sorted = this.mapping.entrySet().iterator();
+
+         while(sorted.hasNext()) {
+            Entry class_entry = (Entry)sorted.next();
+            Map entry = (Map)class_entry.getValue();
+            buffer.append("class \'" + (String)class_entry.getKey() + "\' {" + lineSeparator);
+            boolean is_first_method = true;
+
+            for(Iterator var8 = entry.entrySet().iterator(); var8.hasNext(); is_first_method = false) {
+               Entry method_entry = (Entry)var8.next();
+               Map method_mapping = (Map)method_entry.getValue();
+               if(!is_first_method) {
+                  buffer.appendLineSeparator();
+               }
+
+               buffer.appendIndent(1).append("method \'" + (String)method_entry.getKey() + "\' {" + lineSeparator);
+               ArrayList lstBytecodeOffsets = new ArrayList(method_mapping.keySet());
+               Collections.sort(lstBytecodeOffsets);
+               Iterator var12 = lstBytecodeOffsets.iterator();
+
+               while(var12.hasNext()) {
+                  Integer offset = (Integer)var12.next();
+                  Integer line = (Integer)method_mapping.get(offset);
+                  String strOffset = offsetsToHex ? Integer.toHexString(offset.intValue()) : line.toString();
+                  buffer.appendIndent(2).append(strOffset).appendIndent(2).append(line.intValue() + this.offset_total + lineSeparator);
+               }
+
+               buffer.appendIndent(1).append("}").appendLineSeparator();
+            }
+
+            buffer.append("}").appendLineSeparator().appendLineSeparator();
+         }
+
+         buffer.append("Lines mapping:").appendLineSeparator();
+         TreeMap sorted1 = new TreeMap(this.linesMapping);
+         Iterator class_entry1 = sorted1.entrySet().iterator();
+
+         while(class_entry1.hasNext()) {
+            Entry entry1 = (Entry)class_entry1.next();
+            buffer.append(((Integer)entry1.getKey()).intValue()).append(" <-> ").append(((Integer)entry1.getValue()).intValue() + this.offset_total + 1).appendLineSeparator();
+         }
+
+      }
+   }
+
+   public int getTotalOffset() {
+      return this.offset_total;
+   }
+
+   public void setTotalOffset(int offset_total) {
+      this.offset_total = offset_total;
+   }
+
+   public void addTotalOffset(int offset_total) {
+      this.offset_total += offset_total;
+   }
+
+   public int[] getOriginalLinesMapping() {
+      int[] res = new int[this.linesMapping.size() * 2];
+      int i = 0;
+
+      for(Iterator var3 = this.linesMapping.entrySet().iterator(); var3.hasNext(); i += 2) {
+         Entry entry = (Entry)var3.next();
+         res[i] = ((Integer)entry.getKey()).intValue();
+         res[i + 1] = ((Integer)entry.getValue()).intValue() + this.offset_total + 1;
+      }
+
+      return res;
+   }
+}
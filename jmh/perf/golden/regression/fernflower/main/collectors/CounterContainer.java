@@ -0,0 +1,20 @@
+package regression.fernflower.main.collectors;
+
+public class CounterContainer {
+   public static final int STATEMENT_COUNTER = 0;
+   public static final int EXPRENT_COUNTER = 1;
+   public static final int VAR_COUNTER = 2;
+   private int[] values = new int[]{1, 1, 1};
+
+   public void setCounter(int counter, int value) {
+      this.values[counter] = value;
+   }
+
+   public int getCounter(int counter) {
+      return this.values[counter];
+   }
+
+   public int getCounterAndIncrement(int counter) {
+      return this.values[counter]++;
+   }
+}
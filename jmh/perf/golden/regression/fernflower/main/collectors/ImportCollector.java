@@ -0,0 +1,122 @@
+package regression.fernflower.main.collectors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.struct.StructContext;
+
+public class ImportCollector {
+   private static final String JAVA_LANG_PACKAGE = "java.lang";
+   private Map mapSimpleNames = new HashMap();
+   private Set setNotImportedNames = new HashSet();
+   private String currentPackageSlash = "";
+   private String currentPackagePoint = "";
+
+   public ImportCollector(ClassesProcessor.ClassNode root) {
+      String clname = root.classStruct.qualifiedName;
+      int index = clname.lastIndexOf("/");
+      if(index >= 0) {
+         this.currentPackageSlash = clname.substring(0, index);
+         this.currentPackagePoint = this.currentPackageSlash.replace('/', '.');
+         this.currentPackageSlash = this.currentPackageSlash + "/";
+      }
+
+   }
+
+   public String getShortName(String fullname) {
+      return this.getShortName(fullname, true);
+   }
+
+   public String getShortName(String fullname, boolean imported) {
+      ClassesProcessor clproc = DecompilerContext.getClassProcessor();
+      ClassesProcessor.ClassNode node = (ClassesProcessor.ClassNode)clproc.getMapRootClasses().get(fullname.replace('.', '/'));
+      String retname = null;
+      if(node != null && node.classStruct.isOwn()) {
+         for(retname = node.simpleName; node.parent != null && node.type == 1; node = node.parent) {
+            retname = node.parent.simpleName + "." + retname;
+         }
+
+         if(node.type != 0) {
+            return retname;
+         }
+
+         fullname = node.classStruct.qualifiedName;
+         fullname = fullname.replace('/', '.');
+      } else {
+         fullname = fullname.replace('$', '.');
+      }
+
+      String nshort = fullname;
+      String npackage = "";
+      int lastpoint = fullname.lastIndexOf(".");
+      if(lastpoint >= 0) {
+         nshort = fullname.substring(lastpoint + 1);
+         npackage = fullname.substring(0, lastpoint);
+      }
+
+      StructContext context = DecompilerContext.getStructContext();
+      boolean existsDefaultClass = context.getClass(this.currentPackageSlash + nshort) != null && !npackage.equals(this.currentPackagePoint) || context.getClass(nshort) != null && !this.currentPackagePoint.isEmpty();
+      if(!existsDefaultClass && (!this.mapSimpleNames.containsKey(nshort) || npackage.equals(this.mapSimpleNames.get(nshort)))) {
+         if(!this.mapSimpleNames.containsKey(nshort)) {
+            this.mapSimpleNames.put(nshort, npackage);
+            if(!imported) {
+               this.setNotImportedNames.add(nshort);
+            }
+         }
+
+         return retname == null ? nshort : retname;
+      } else {
+         return fullname;
+      }
+   }
+
+   public int writeImports(TextBuffer buffer) {
+      int importlines_written = 0;
+      List imports = this.packImports();
+
+      for(Iterator var4 = imports.iterator(); var4.hasNext(); ++importlines_written) {
+         String s = (String)var4.next();
+         buffer.append("import ");
+         buffer.append(s);
+         buffer.append(";");
+         buffer.appendLineSeparator();
+      }
+
+      return importlines_written;
+   }
+
+   private List packImports() {
+      ArrayList lst = new ArrayList(this.mapSimpleNames.entrySet());
+      Collections.sort(lst, new Comparator() {
+         public int compare(Entry par0, Entry par1) {
+            int res = ((String)par0.getValue()).compareTo((String)par1.getValue());
+            if(res == 0) {
+               res = ((String)par0.getKey()).compareTo((String)par1.getKey());
+            }
+
+            return res;
+         }
+      });
+      ArrayList res = new ArrayList();
+      Iterator var3 = lst.iterator();
+
+      while(var3.hasNext()) {
+         Entry ent = (Entry)var3.next();
+         if(!this.setNotImportedNames.contains(ent.getKey()) && !"java.lang".equals(ent.getValue()) && !this.currentPackagePoint.equals(ent.getValue()) && !((String)ent.getValue()).isEmpty()) {
+            res.add((String)ent.getValue() + "." + (String)ent.getKey());
+         }
+      }
+
+      return res;
+   }
+}
@@ -0,0 +1,32 @@
+package regression.fernflower.main.collectors;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class VarNamesCollector {
+   private Set usedNames = new HashSet();
+
+   public VarNamesCollector() {
+   }
+
+   public VarNamesCollector(Set setNames) {
+      this.usedNames.addAll(setNames);
+   }
+
+   public void addName(String value) {
+      this.usedNames.add(value);
+   }
+
+   public String getFreeName(int index) {
+      return this.getFreeName("var" + index);
+   }
+
+   public String getFreeName(String proposition) {
+      while(this.usedNames.contains(proposition)) {
+         proposition = proposition + "x";
+      }
+
+      this.usedNames.add(proposition);
+      return proposition;
+   }
+}
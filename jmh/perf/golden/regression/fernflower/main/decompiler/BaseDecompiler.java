@@ -0,0 +1,30 @@
+package regression.fernflower.main.decompiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import regression.fernflower.main.Fernflower;
+import regression.fernflower.main.extern.IBytecodeProvider;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.main.extern.IResultSaver;
+
+public class BaseDecompiler {
+   private final Fernflower fernflower;
+
+   public BaseDecompiler(IBytecodeProvider provider, IResultSaver saver, Map options, IFernflowerLogger logger) {
+      this.fernflower = new Fernflower(provider, saver, options, logger);
+   }
+
+   public void addSpace(File file, boolean isOwn) throws IOException {
+      this.fernflower.getStructContext().addSpace(file, isOwn);
+   }
+
+   public void decompileContext() {
+      try {
+         this.fernflower.decompileContext();
+      } finally {
+         this.fernflower.clearContext();
+      }
+
+   }
+}
@@ -0,0 +1,278 @@
+package regression.fernflower.main.decompiler;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.Fernflower;
+import regression.fernflower.main.extern.IBytecodeProvider;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.main.extern.IResultSaver;
+import regression.fernflower.util.InterpreterUtil;
+
+public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
+   private final File root;
+   private final Fernflower fernflower;
+   private Map mapArchiveStreams;
+   private Map mapArchiveEntries;
+
+   public static void main(String[] args) {
+      if(args.length < 2) {
+         System.out.println("Usage: java -jar fernflower.jar [-<option>=<value>]* [<source>]+ <destination>\nExample: java -jar fernflower.jar -dgs=true c:\\my\\source\\ c:\\my.jar d:\\decompiled\\");
+      } else {
+         HashMap mapOptions = new HashMap();
+         ArrayList lstSources = new ArrayList();
+         ArrayList lstLibraries = new ArrayList();
+         boolean isOption = true;
+
+         for(int destination = 0; destination < args.length - 1; ++destination) {
+            String logger = args[destination];
+            if(isOption && logger.startsWith("-") && logger.length() > 5 && logger.charAt(4) == 61) {
+               String decompiler = logger.substring(5).toUpperCase(Locale.US);
+               if("TRUE".equals(decompiler)) {
+                  decompiler = "1";
+               } else if("FALSE".equals(decompiler)) {
+                  decompiler = "0";
+               }
+
+               mapOptions.put(logger.substring(1, 4), decompiler);
+            } else {
+               isOption = false;
+               if(logger.startsWith("-e=")) {
+                  addPath(lstLibraries, logger.substring(3));
+               } else {
+                  addPath(lstSources, logger);
+               }
+            }
+         }
+
+         if(lstSources.isEmpty()) {
+            System.out.println("error: no sources given");
+         } else {
+            File var10 = new File(args[args.length - 1]);
+            if(!var10.isDirectory()) {
+               System.out.println("error: destination \'" + var10 + "\' is not a directory");
+            } else {
+               PrintStreamLogger var11 = new PrintStreamLogger(System.out);
+               ConsoleDecompiler var12 = new ConsoleDecompiler(var10, mapOptions, var11);
+               Iterator var8 = lstSources.iterator();
+
+               File library;
+               while(var8.hasNext()) {
+                  library = (File)var8.next();
+                  var12.addSpace(library, true);
+               }
+
+               var8 = lstLibraries.iterator();
+
+               while(var8.hasNext()) {
+                  library = (File)var8.next();
+                  var12.addSpace(library, false);
+               }
+
+               var12.decompileContext();
+            }
+         }
+      }
+   }
+
+   private static void addPath(List list, String path) {
+      File file = new File(path);
+      if(file.exists()) {
+         list.add(file);
+      } else {
+         System.out.println("warn: missing \'" + path + "\', ignored");
+      }
+
+   }
+
+   public ConsoleDecompiler(File destination, Map options) {
+      this(destination, options, new PrintStreamLogger(System.out));
+   }
+
+   protected ConsoleDecompiler(File destination, Map options, IFernflowerLogger logger) {
+      this.mapArchiveStreams = new HashMap();
+      this.mapArchiveEntries = new HashMap();
+      this.root = destination;
+      this.fernflower = new Fernflower(this, this, options, logger);
+   }
+
+   public void addSpace(File file, boolean isOwn) {
+      this.fernflower.getStructContext().addSpace(file, isOwn);
+   }
+
+   public void decompileContext() {
+      try {
+         this.fernflower.decompileContext();
+      } finally {
+         this.fernflower.clearContext();
+      }
+
+   }
+
+   public byte[] getBytecode(String externalPath, String internalPath) throws IOException {
+      File file = new File(externalPath);
+      if(internalPath == null) {
+         return InterpreterUtil.getBytes(file);
+      } else {
+         ZipFile archive = new ZipFile(file);
+
+         byte[] var6;
+         try {
+            ZipEntry entry = archive.getEntry(internalPath);
+            if(entry == null) {
+               throw new IOException("Entry not found: " + internalPath);
+            }
+
+            var6 = InterpreterUtil.getBytes(archive, entry);
+         } finally {
+            archive.close();
+         }
+
+         return var6;
+      }
+   }
+
+   private String getAbsolutePath(String path) {
+      return (new File(this.root, path)).getAbsolutePath();
+   }
+
+   public void saveFolder(String path) {
+      File dir = new File(this.getAbsolutePath(path));
+      if(!dir.mkdirs() && !dir.isDirectory()) {
+         throw new RuntimeException("Cannot create directory " + dir);
+      }
+   }
+
+   public void copyFile(String source, String path, String entryName) {
+      try {
+         InterpreterUtil.copyFile(new File(source), new File(this.getAbsolutePath(path), entryName));
+      } catch (IOException var5) {
+         DecompilerContext.getLogger().writeMessage("Cannot copy " + source + " to " + entryName, (Throwable)var5);
+      }
+
+   }
+
+   public void saveClassFile(String path, String qualifiedName, String entryName, String content, int[] mapping) {
+      File file = new File(this.getAbsolutePath(path), entryName);
+
+      try {
+         OutputStreamWriter ex = new OutputStreamWriter(new FileOutputStream(file), "UTF8");
+
+         try {
+            ex.write(content);
+         } finally {
+            ex.close();
+         }
+      } catch (IOException var12) {
+         DecompilerContext.getLogger().writeMessage("Cannot write class file " + file, (Throwable)var12);
+      }
+
+   }
+
+   public void createArchive(String path, String archiveName, Manifest manifest) {
+      File file = new File(this.getAbsolutePath(path), archiveName);
+
+      try {
+         if(!file.createNewFile() && !file.isFile()) {
+            throw new IOException("Cannot create file " + file);
+         }
+
+         FileOutputStream ex = new FileOutputStream(file);
+         Object zipStream = manifest != null ? new JarOutputStream(ex, manifest) : new ZipOutputStream(ex);
+         this.mapArchiveStreams.put(file.getPath(), zipStream);
+      } catch (IOException var7) {
+         DecompilerContext.getLogger().writeMessage("Cannot create archive " + file, (Throwable)var7);
+      }
+
+   }
+
+   public void saveDirEntry(String path, String archiveName, String entryName) {
+      this.saveClassEntry(path, archiveName, (String)null, entryName, (String)null);
+   }
+
+   public void copyEntry(String source, String path, String archiveName, String entryName) {
+      String file = (new File(this.getAbsolutePath(path), archiveName)).getPath();
+      if(this.checkEntry(entryName, file)) {
+         try {
+            ZipFile ex = new ZipFile(new File(source));
+
+            try {
+               ZipEntry message1 = ex.getEntry(entryName);
+               if(message1 != null) {
+                  InputStream in = ex.getInputStream(message1);
+                  ZipOutputStream out = (ZipOutputStream)this.mapArchiveStreams.get(file);
+                  out.putNextEntry(new ZipEntry(entryName));
+                  InterpreterUtil.copyStream(in, out);
+                  in.close();
+               }
+            } finally {
+               ex.close();
+            }
+         } catch (IOException var14) {
+            String message = "Cannot copy entry " + entryName + " from " + source + " to " + file;
+            DecompilerContext.getLogger().writeMessage(message, (Throwable)var14);
+         }
+
+      }
+   }
+
+   public void saveClassEntry(String path, String archiveName, String qualifiedName, String entryName, String content) {
+      String file = (new File(this.getAbsolutePath(path), archiveName)).getPath();
+      if(this.checkEntry(entryName, file)) {
+         try {
+            ZipOutputStream ex = (ZipOutputStream)this.mapArchiveStreams.get(file);
+            ex.putNextEntry(new ZipEntry(entryName));
+            if(content != null) {
+               ex.write(content.getBytes("UTF-8"));
+            }
+         } catch (IOException var9) {
+            String message = "Cannot write entry " + entryName + " to " + file;
+            DecompilerContext.getLogger().writeMessage(message, (Throwable)var9);
+         }
+
+      }
+   }
+
+   private boolean checkEntry(String entryName, String file) {
+      Object set = (Set)this.mapArchiveEntries.get(file);
+      if(set == null) {
+         this.mapArchiveEntries.put(file, set = new HashSet());
+      }
+
+      boolean added = ((Set)set).add(entryName);
+      if(!added) {
+         String message = "Zip entry " + entryName + " already exists in " + file;
+         DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.WARN);
+      }
+
+      return added;
+   }
+
+   public void closeArchive(String path, String archiveName) {
+      String file = (new File(this.getAbsolutePath(path), archiveName)).getPath();
+
+      try {
+         this.mapArchiveEntries.remove(file);
+         ((ZipOutputStream)this.mapArchiveStreams.remove(file)).close();
+      } catch (IOException var5) {
+         DecompilerContext.getLogger().writeMessage("Cannot close " + file, IFernflowerLogger.Severity.WARN);
+      }
+
+   }
+}
@@ -0,0 +1,156 @@
+package regression.fernflower.main.decompiler;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.extern.IResultSaver;
+import regression.fernflower.util.InterpreterUtil;
+
+public final class DirectoryResultSaver implements IResultSaver {
+   private final Path root;
+
+   public DirectoryResultSaver(File root) {
+      this.root = root.toPath();
+   }
+
+   public void saveClassEntry(String path, String archiveName, String qualifiedName, String entryName, String content) {
+      Path entryPath = this.root.resolve(entryName);
+
+      try {
+         BufferedWriter e = Files.newBufferedWriter(entryPath, new OpenOption[0]);
+
+         try {
+            if(content != null) {
+               e.write(content);
+            }
+
+            e.close();
+         } catch (Throwable var11) {
+            if(e != null) {
+               try {
+                  e.close();
+               } catch (Throwable var10) {
+                  var11.addSuppressed(var10);
+               }
+            }
+
+            throw var11;
+         }
+
+         if(e != null) {
+            e.close();
+         }
+
+      } catch (IOException var12) {
+         throw new RuntimeException("Failed to save class", var12);
+      }
+   }
+
+   public void saveDirEntry(String path, String archiveName, String entryName) {
+      Path entryPath = this.root.resolve(entryName);
+
+      try {
+         Files.createDirectories(entryPath, new FileAttribute[0]);
+      } catch (IOException var6) {
+         throw new RuntimeException("Failed to save directory", var6);
+      }
+   }
+
+   public void createArchive(String path, String archiveName, Manifest manifest) {
+   }
+
+   public void saveFolder(String path) {
+      Path entryPath = this.root.resolve(path);
+
+      try {
+         Files.createDirectories(entryPath, new FileAttribute[0]);
+      } catch (IOException var4) {
+         throw new RuntimeException("Failed to save directory", var4);
+      }
+   }
+
+   public void copyFile(String source, String path, String entryName) {
+      try {
+         InterpreterUtil.copyFile(new File(source), this.root.resolve(entryName).toFile());
+      } catch (IOException var5) {
+         DecompilerContext.getLogger().writeMessage("Cannot copy " + source + " to " + entryName, (Throwable)var5);
+      }
+
+   }
+
+   public void saveClassFile(String path, String qualifiedName, String entryName, String content, int[] mapping) {
+      Path entryPath = this.root.resolve(path).resolve(entryName);
+
+      try {
+         Files.createDirectories(entryPath.getParent(), new FileAttribute[0]);
+         BufferedWriter e = Files.newBufferedWriter(entryPath, new OpenOption[0]);
+         if(content != null) {
+            e.write(content);
+         }
+
+         e.close();
+      } catch (IOException var8) {
+         throw new RuntimeException("Failed to save class", var8);
+      }
+   }
+
+   public void copyEntry(String source, String path, String archiveName, String entryName) {
+      try {
+         ZipFile ex = new ZipFile(new File(source));
+
+         try {
+            ZipEntry message1 = ex.getEntry(entryName);
+            if(message1 != null) {
+               InputStream in = ex.getInputStream(message1);
+
+               try {
+                  FileOutputStream fos = new FileOutputStream(this.root.resolve(entryName).toFile());
+                  InterpreterUtil.copyStream(in, fos);
+                  fos.close();
+               } catch (Throwable var12) {
+                  if(in != null) {
+                     try {
+                        in.close();
+                     } catch (Throwable var11) {
+                        var12.addSuppressed(var11);
+                     }
+                  }
+
+                  throw var12;
+               }
+
+               if(in != null) {
+                  in.close();
+               }
+            }
+         } catch (Throwable var13) {
+            try {
+               ex.close();
+            } catch (Throwable var10) {
+               var13.addSuppressed(var10);
+            }
+
+            throw var13;
+         }
+
+         ex.close();
+      } catch (IOException var14) {
+         String message = "Cannot copy entry " + entryName + " from " + source;
+         DecompilerContext.getLogger().writeMessage(message, (Throwable)var14);
+      }
+
+   }
+
+   public void closeArchive(String path, String archiveName) {
+   }
+}
@@ -0,0 +1,94 @@
+package regression.fernflower.main.decompiler;
+
+import java.io.PrintStream;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.util.InterpreterUtil;
+
+public class PrintStreamLogger extends IFernflowerLogger {
+   private final PrintStream stream;
+   private int indent;
+
+   public PrintStreamLogger(PrintStream printStream) {
+      this.stream = printStream;
+      this.indent = 0;
+   }
+
+   public void writeMessage(String message, IFernflowerLogger.Severity severity) {
+      if(this.accepts(severity)) {
+         this.stream.println(severity.prefix + InterpreterUtil.getIndentString(this.indent) + message);
+      }
+
+   }
+
+   public void writeMessage(String message, Throwable t) {
+      if(this.accepts(IFernflowerLogger.Severity.ERROR)) {
+         this.writeMessage(message, IFernflowerLogger.Severity.ERROR);
+         t.printStackTrace(this.stream);
+      }
+
+   }
+
+   public void startReadingClass(String className) {
+      if(this.accepts(IFernflowerLogger.Severity.INFO)) {
+         this.writeMessage("Decompiling class " + className, IFernflowerLogger.Severity.INFO);
+         ++this.indent;
+      }
+
+   }
+
+   public void endReadingClass() {
+      if(this.accepts(IFernflowerLogger.Severity.INFO)) {
+         --this.indent;
+         this.writeMessage("... done", IFernflowerLogger.Severity.INFO);
+      }
+
+   }
+
+   public void startClass(String className) {
+      if(this.accepts(IFernflowerLogger.Severity.INFO)) {
+         this.writeMessage("Processing class " + className, IFernflowerLogger.Severity.TRACE);
+         ++this.indent;
+      }
+
+   }
+
+   public void endClass() {
+      if(this.accepts(IFernflowerLogger.Severity.INFO)) {
+         --this.indent;
+         this.writeMessage("... proceeded", IFernflowerLogger.Severity.TRACE);
+      }
+
+   }
+
+   public void startMethod(String methodName) {
+      if(this.accepts(IFernflowerLogger.Severity.INFO)) {
+         this.writeMessage("Processing method " + methodName, IFernflowerLogger.Severity.TRACE);
+         ++this.indent;
+      }
+
+   }
+
+   public void endMethod() {
+      if(this.accepts(IFernflowerLogger.Severity.INFO)) {
+         --this.indent;
+         this.writeMessage("... proceeded", IFernflowerLogger.Severity.TRACE);
+      }
+
+   }
+
+   public void startWriteClass(String className) {
+      if(this.accepts(IFernflowerLogger.Severity.INFO)) {
+         this.writeMessage("Writing class " + className, IFernflowerLogger.Severity.TRACE);
+         ++this.indent;
+      }
+
+   }
+
+   public void endWriteClass() {
+      if(this.accepts(IFernflowerLogger.Severity.INFO)) {
+         --this.indent;
+         this.writeMessage("... written", IFernflowerLogger.Severity.TRACE);
+      }
+
+   }
+}
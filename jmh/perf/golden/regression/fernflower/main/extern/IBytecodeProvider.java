@@ -0,0 +1,7 @@
+package regression.fernflower.main.extern;
+
+import java.io.IOException;
+
+public interface IBytecodeProvider {
+   byte[] getBytecode(String var1, String var2) throws IOException;
+}
@@ -0,0 +1,65 @@
+package regression.fernflower.main.extern;
+
+public abstract class IFernflowerLogger {
+   private IFernflowerLogger.Severity severity = IFernflowerLogger.Severity.INFO;
+
+   public boolean accepts(IFernflowerLogger.Severity severity) {
+      return severity.ordinal() >= this.severity.ordinal();
+   }
+
+   public void setSeverity(IFernflowerLogger.Severity severity) {
+      this.severity = severity;
+   }
+
+   public abstract void writeMessage(String var1, IFernflowerLogger.Severity var2);
+
+   public abstract void writeMessage(String var1, Throwable var2);
+
+   public void startReadingClass(String className) {
+   }
+
+   public void endReadingClass() {
+   }
+
+   public void startClass(String className) {
+   }
+
+   public void endClass() {
+   }
+
+   public void startMethod(String methodName) {
+   }
+
+   public void endMethod() {
+   }
+
+   public void startWriteClass(String className) {
+   }
+
+   public void endWriteClass() {
+   }
+
+   public void startSave(int total) {
+   }
+
+   public void updateSave(int current) {
+   }
+
+   public static enum Severity {
+      TRACE("TRACE: "),
+      INFO("INFO:  "),
+      WARN("WARN:  "),
+      ERROR("ERROR: ");
+
+      public final String prefix;
+
+      private Severity(String prefix) {
+         this.prefix = prefix;
+      }
+
+      // $FF: synthetic method
+      private static IFernflowerLogger.Severity[] $values() {
+         return new IFernflowerLogger.Severity[]{TRACE, INFO, WARN, ERROR};
+      }
+   }
+}
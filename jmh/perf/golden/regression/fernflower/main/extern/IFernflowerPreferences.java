@@ -0,0 +1,82 @@
+package regression.fernflower.main.extern;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import regression.fernflower.util.InterpreterUtil;
+
+public interface IFernflowerPreferences {
+   String REMOVE_BRIDGE = "rbr";
+   String REMOVE_SYNTHETIC = "rsy";
+   String DECOMPILE_INNER = "din";
+   String DECOMPILE_CLASS_1_4 = "dc4";
+   String DECOMPILE_ASSERTIONS = "das";
+   String HIDE_EMPTY_SUPER = "hes";
+   String HIDE_DEFAULT_CONSTRUCTOR = "hdc";
+   String DECOMPILE_GENERIC_SIGNATURES = "dgs";
+   String NO_EXCEPTIONS_RETURN = "ner";
+   String DECOMPILE_ENUM = "den";
+   String REMOVE_GET_CLASS_NEW = "rgn";
+   String LITERALS_AS_IS = "lit";
+   String BOOLEAN_TRUE_ONE = "bto";
+   String ASCII_STRING_CHARACTERS = "asc";
+   String SYNTHETIC_NOT_SET = "nns";
+   String UNDEFINED_PARAM_TYPE_OBJECT = "uto";
+   String USE_DEBUG_VAR_NAMES = "udv";
+   String REMOVE_EMPTY_RANGES = "rer";
+   String FINALLY_DEINLINE = "fdi";
+   String IDEA_NOT_NULL_ANNOTATION = "inn";
+   String LAMBDA_TO_ANONYMOUS_CLASS = "lac";
+   String BYTECODE_SOURCE_MAPPING = "bsm";
+   String USE_DEBUG_LINE_NUMBERS = "udl";
+   String NO_COMMENT_OUTPUT = "nco";
+   String OVERRIDE_ANNOTATION = "ovr";
+   String LOG_LEVEL = "log";
+   String MAX_PROCESSING_METHOD = "mpm";
+   String RENAME_ENTITIES = "ren";
+   String USER_RENAMER_CLASS = "urc";
+   String NEW_LINE_SEPARATOR = "nls";
+   String INDENT_STRING = "ind";
+   String BANNER = "ban";
+   String DUMP_ORIGINAL_LINES = "__dump_original_lines__";
+   String UNIT_TEST_MODE = "__unit_test_mode__";
+   String LINE_SEPARATOR_WIN = "\r\n";
+   String LINE_SEPARATOR_LIN = "\n";
+   Map DEFAULTS = Collections.unmodifiableMap(new HashMap() {
+      {
+         this.put("rbr", "1");
+         this.put("rsy", "0");
+         this.put("din", "1");
+         this.put("dc4", "1");
+         this.put("das", "1");
+         this.put("hes", "1");
+         this.put("hdc", "1");
+         this.put("dgs", "0");
+         this.put("ner", "1");
+         this.put("den", "1");
+         this.put("rgn", "1");
+         this.put("lit", "0");
+         this.put("bto", "1");
+         this.put("asc", "0");
+         this.put("nns", "1");
+         this.put("uto", "1");
+         this.put("udv", "1");
+         this.put("rer", "1");
+         this.put("fdi", "1");
+         this.put("inn", "1");
+         this.put("lac", "0");
+         this.put("bsm", "0");
+         this.put("udl", "0");
+         this.put("nco", "0");
+         this.put("ovr", "0");
+         this.put("log", IFernflowerLogger.Severity.INFO.name());
+         this.put("mpm", "0");
+         this.put("ren", "0");
+         this.put("nls", InterpreterUtil.IS_WINDOWS ? "0" : "1");
+         this.put("ind", "   ");
+         this.put("ban", "");
+         this.put("__unit_test_mode__", "0");
+         this.put("__dump_original_lines__", "0");
+      }
+   });
+}
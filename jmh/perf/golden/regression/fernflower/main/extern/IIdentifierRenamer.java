@@ -0,0 +1,22 @@
+package regression.fernflower.main.extern;
+
+public interface IIdentifierRenamer {
+   boolean toBeRenamed(IIdentifierRenamer.Type var1, String var2, String var3, String var4);
+
+   String getNextClassName(String var1, String var2);
+
+   String getNextFieldName(String var1, String var2, String var3);
+
+   String getNextMethodName(String var1, String var2, String var3);
+
+   public static enum Type {
+      ELEMENT_CLASS,
+      ELEMENT_FIELD,
+      ELEMENT_METHOD;
+
+      // $FF: synthetic method
+      private static IIdentifierRenamer.Type[] $values() {
+         return new IIdentifierRenamer.Type[]{ELEMENT_CLASS, ELEMENT_FIELD, ELEMENT_METHOD};
+      }
+   }
+}
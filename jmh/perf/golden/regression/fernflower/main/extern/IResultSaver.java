@@ -0,0 +1,21 @@
+package regression.fernflower.main.extern;
+
+import java.util.jar.Manifest;
+
+public interface IResultSaver {
+   void saveFolder(String var1);
+
+   void copyFile(String var1, String var2, String var3);
+
+   void saveClassFile(String var1, String var2, String var3, String var4, int[] var5);
+
+   void createArchive(String var1, String var2, Manifest var3);
+
+   void saveDirEntry(String var1, String var2, String var3);
+
+   void copyEntry(String var1, String var2, String var3, String var4);
+
+   void saveClassEntry(String var1, String var2, String var3, String var4, String var5);
+
+   void closeArchive(String var1, String var2);
+}
@@ -0,0 +1,167 @@
+package regression.fernflower.main.rels;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.collectors.CounterContainer;
+import regression.fernflower.main.collectors.VarNamesCollector;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructField;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.attr.StructLocalVariableTableAttribute;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.VBStyleCollection;
+
+public class ClassWrapper {
+   private StructClass classStruct;
+   private Set hiddenMembers = new HashSet();
+   private VBStyleCollection staticFieldInitializers = new VBStyleCollection();
+   private VBStyleCollection dynamicFieldInitializers = new VBStyleCollection();
+   private VBStyleCollection methods = new VBStyleCollection();
+
+   public ClassWrapper(StructClass classStruct) {
+      this.classStruct = classStruct;
+   }
+
+   public void init() throws IOException {
+      DecompilerContext.setProperty("CURRENT_CLASS", this.classStruct);
+      DecompilerContext.getLogger().startClass(this.classStruct.qualifiedName);
+      HashSet setFieldNames = new HashSet();
+      Iterator maxSec = this.classStruct.getFields().iterator();
+
+      while(maxSec.hasNext()) {
+         StructField testMode = (StructField)maxSec.next();
+         setFieldNames.add(testMode.getName());
+      }
+
+      int var20 = Integer.parseInt(DecompilerContext.getProperty("mpm").toString());
+      boolean var21 = DecompilerContext.getOption("__unit_test_mode__");
+
+      for(Iterator var4 = this.classStruct.getMethods().iterator(); var4.hasNext(); DecompilerContext.getLogger().endMethod()) {
+         StructMethod mt = (StructMethod)var4.next();
+         DecompilerContext.getLogger().startMethod(mt.getName() + " " + mt.getDescriptor());
+         VarNamesCollector vc = new VarNamesCollector();
+         DecompilerContext.setVarNamesCollector(vc);
+         CounterContainer counter = new CounterContainer();
+         DecompilerContext.setCounterContainer(counter);
+         DecompilerContext.setProperty("CURRENT_METHOD", mt);
+         DecompilerContext.setProperty("CURRENT_METHOD_DESCRIPTOR", MethodDescriptor.parseDescriptor(mt.getDescriptor()));
+         VarProcessor varProc = new VarProcessor();
+         DecompilerContext.setProperty("CURRENT_VAR_PROCESSOR", varProc);
+         RootStatement root = null;
+         boolean isError = false;
+
+         try {
+            if(mt.containsCode()) {
+               if(var20 != 0 && !var21) {
+                  MethodProcessorRunnable methodWrapper = new MethodProcessorRunnable(mt, varProc, DecompilerContext.getCurrentContext());
+                  Thread attr = new Thread(methodWrapper);
+                  long paramCount = System.currentTimeMillis() + (long)(var20 * 1000);
+                  attr.start();
+
+                  while(!methodWrapper.isFinished()) {
+                     try {
+                        Object i = methodWrapper.lock;
+                        synchronized(methodWrapper.lock) {
+                           methodWrapper.lock.wait(200L);
+                        }
+                     } catch (InterruptedException var18) {
+                        killThread(attr);
+                        throw var18;
+                     }
+
+                     if(System.currentTimeMillis() >= paramCount) {
+                        String var28 = "Processing time limit exceeded for method " + mt.getName() + ", execution interrupted.";
+                        DecompilerContext.getLogger().writeMessage(var28, IFernflowerLogger.Severity.ERROR);
+                        killThread(attr);
+                        isError = true;
+                        break;
+                     }
+                  }
+
+                  if(!isError) {
+                     root = methodWrapper.getResult();
+                  }
+               } else {
+                  root = MethodProcessorRunnable.codeToJava(mt, varProc);
+               }
+            } else {
+               boolean var22 = !mt.hasModifier(8);
+               MethodDescriptor var24 = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+               byte var26 = 0;
+               if(var22) {
+                  varProc.getThisVars().put(new VarVersionPair(0, 0), this.classStruct.qualifiedName);
+                  var26 = 1;
+               }
+
+               int var27 = var26 + var24.params.length;
+               int varIndex = 0;
+
+               for(int var29 = 0; var29 < var27; ++var29) {
+                  varProc.setVarName(new VarVersionPair(varIndex, 0), vc.getFreeName(varIndex));
+                  if(var22) {
+                     if(var29 == 0) {
+                        ++varIndex;
+                     } else {
+                        varIndex += var24.params[var29 - 1].stackSize;
+                     }
+                  } else {
+                     varIndex += var24.params[var29].stackSize;
+                  }
+               }
+            }
+         } catch (Throwable var19) {
+            DecompilerContext.getLogger().writeMessage("Method " + mt.getName() + " " + mt.getDescriptor() + " couldn\'t be decompiled.", var19);
+            isError = true;
+         }
+
+         MethodWrapper var23 = new MethodWrapper(root, varProc, mt, counter);
+         var23.decompiledWithErrors = isError;
+         this.methods.addWithKey(var23, InterpreterUtil.makeUniqueKey(mt.getName(), mt.getDescriptor()));
+         varProc.refreshVarNames(new VarNamesCollector(setFieldNames));
+         if(DecompilerContext.getOption("udv")) {
+            StructLocalVariableTableAttribute var25 = (StructLocalVariableTableAttribute)mt.getAttributes().getWithKey("LocalVariableTable");
+            if(var25 != null) {
+               varProc.setDebugVarNames(var25.getMapVarNames());
+            }
+         }
+      }
+
+      DecompilerContext.getLogger().endClass();
+   }
+
+   private static void killThread(Thread thread) {
+      thread.stop();
+   }
+
+   public MethodWrapper getMethodWrapper(String name, String descriptor) {
+      return (MethodWrapper)this.methods.getWithKey(InterpreterUtil.makeUniqueKey(name, descriptor));
+   }
+
+   public StructClass getClassStruct() {
+      return this.classStruct;
+   }
+
+   public VBStyleCollection getMethods() {
+      return this.methods;
+   }
+
+   public Set getHiddenMembers() {
+      return this.hiddenMembers;
+   }
+
+   public VBStyleCollection getStaticFieldInitializers() {
+      return this.staticFieldInitializers;
+   }
+
+   public VBStyleCollection getDynamicFieldInitializers() {
+      return this.dynamicFieldInitializers;
+   }
+}
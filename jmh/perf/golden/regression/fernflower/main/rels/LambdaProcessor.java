@@ -0,0 +1,112 @@
+package regression.fernflower.main.rels;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.code.Instruction;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.attr.StructBootstrapMethodsAttribute;
+import regression.fernflower.struct.consts.LinkConstant;
+import regression.fernflower.struct.consts.PrimitiveConstant;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.util.InterpreterUtil;
+
+public class LambdaProcessor {
+   private static final String JAVAC_LAMBDA_CLASS = "java/lang/invoke/LambdaMetafactory";
+   private static final String JAVAC_LAMBDA_METHOD = "metafactory";
+   private static final String JAVAC_LAMBDA_ALT_METHOD = "altMetafactory";
+
+   public void processClass(ClassesProcessor.ClassNode node) throws IOException {
+      Iterator var2 = node.nested.iterator();
+
+      while(var2.hasNext()) {
+         ClassesProcessor.ClassNode child = (ClassesProcessor.ClassNode)var2.next();
+         this.processClass(child);
+      }
+
+      this.hasLambda(node);
+   }
+
+   public boolean hasLambda(ClassesProcessor.ClassNode node) throws IOException {
+      ClassesProcessor clProcessor = DecompilerContext.getClassProcessor();
+      StructClass cl = node.classStruct;
+      if(cl.getBytecodeVersion() < 5) {
+         return false;
+      } else {
+         StructBootstrapMethodsAttribute bootstrap = (StructBootstrapMethodsAttribute)cl.getAttributes().getWithKey("BootstrapMethods");
+         if(bootstrap != null && bootstrap.getMethodsNumber() != 0) {
+            BitSet lambda_methods = new BitSet();
+
+            for(int mapMethodsLambda = 0; mapMethodsLambda < bootstrap.getMethodsNumber(); ++mapMethodsLambda) {
+               LinkConstant method_ref = bootstrap.getMethodReference(mapMethodsLambda);
+               if("java/lang/invoke/LambdaMetafactory".equals(method_ref.classname) && ("metafactory".equals(method_ref.elementname) || "altMetafactory".equals(method_ref.elementname))) {
+                  lambda_methods.set(mapMethodsLambda);
+               }
+            }
+
+            if(lambda_methods.isEmpty()) {
+               return false;
+            } else {
+               HashMap var21 = new HashMap();
+
+               StructMethod nd;
+               Iterator var22;
+               for(var22 = cl.getMethods().iterator(); var22.hasNext(); nd.releaseResources()) {
+                  nd = (StructMethod)var22.next();
+                  nd.expandData();
+                  InstructionSequence parent_class_name = nd.getInstructionSequence();
+                  if(parent_class_name != null && parent_class_name.length() > 0) {
+                     int parent_class = parent_class_name.length();
+
+                     for(int i = 0; i < parent_class; ++i) {
+                        Instruction instr = parent_class_name.getInstr(i);
+                        if(instr.opcode == 186) {
+                           LinkConstant invoke_dynamic = cl.getPool().getLinkConstant(instr.getOperand(0));
+                           if(lambda_methods.get(invoke_dynamic.index1)) {
+                              List bootstrap_arguments = bootstrap.getMethodArguments(invoke_dynamic.index1);
+                              MethodDescriptor md = MethodDescriptor.parseDescriptor(invoke_dynamic.descriptor);
+                              String lambda_class_name = md.ret.value;
+                              String lambda_method_name = invoke_dynamic.elementname;
+                              String lambda_method_descriptor = ((PrimitiveConstant)bootstrap_arguments.get(2)).getString();
+                              LinkConstant content_method_handle = (LinkConstant)bootstrap_arguments.get(1);
+                              ClassesProcessor.ClassNode node_lambda = new ClassesProcessor.ClassNode(content_method_handle.classname, content_method_handle.elementname, content_method_handle.descriptor, content_method_handle.index1, lambda_class_name, lambda_method_name, lambda_method_descriptor, cl);
+                              node_lambda.simpleName = cl.qualifiedName + "##Lambda_" + invoke_dynamic.index1 + "_" + invoke_dynamic.index2;
+                              node_lambda.enclosingMethod = InterpreterUtil.makeUniqueKey(nd.getName(), nd.getDescriptor());
+                              node.nested.add(node_lambda);
+                              node_lambda.parent = node;
+                              clProcessor.getMapRootClasses().put(node_lambda.simpleName, node_lambda);
+                              var21.put(node_lambda.lambdaInformation.content_method_key, node_lambda.simpleName);
+                           }
+                        }
+                     }
+                  }
+               }
+
+               var22 = node.nested.iterator();
+
+               while(var22.hasNext()) {
+                  ClassesProcessor.ClassNode var23 = (ClassesProcessor.ClassNode)var22.next();
+                  if(var23.type == 8) {
+                     String var24 = (String)var21.get(var23.enclosingMethod);
+                     if(var24 != null) {
+                        ClassesProcessor.ClassNode var25 = (ClassesProcessor.ClassNode)clProcessor.getMapRootClasses().get(var24);
+                        var25.nested.add(var23);
+                        var23.parent = var25;
+                     }
+                  }
+               }
+
+               return false;
+            }
+         } else {
+            return false;
+         }
+      }
+   }
+}
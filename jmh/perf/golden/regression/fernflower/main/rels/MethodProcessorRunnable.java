@@ -0,0 +1,158 @@
+package regression.fernflower.main.rels;
+
+import java.io.IOException;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.code.cfg.ControlFlowGraph;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.modules.code.DeadCodeHelper;
+import regression.fernflower.modules.decompiler.ClearStructHelper;
+import regression.fernflower.modules.decompiler.DomHelper;
+import regression.fernflower.modules.decompiler.ExitHelper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.FinallyProcessor;
+import regression.fernflower.modules.decompiler.IdeaNotNullHelper;
+import regression.fernflower.modules.decompiler.IfHelper;
+import regression.fernflower.modules.decompiler.InlineSingleBlockHelper;
+import regression.fernflower.modules.decompiler.LabelHelper;
+import regression.fernflower.modules.decompiler.LoopExtractHelper;
+import regression.fernflower.modules.decompiler.MergeHelper;
+import regression.fernflower.modules.decompiler.PPandMMHelper;
+import regression.fernflower.modules.decompiler.SecondaryFunctionsHelper;
+import regression.fernflower.modules.decompiler.SequenceHelper;
+import regression.fernflower.modules.decompiler.StackVarsProcessor;
+import regression.fernflower.modules.decompiler.deobfuscator.ExceptionDeobfuscator;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructMethod;
+
+public class MethodProcessorRunnable implements Runnable {
+   public final Object lock = new Object();
+   private final StructMethod method;
+   private final VarProcessor varProc;
+   private final DecompilerContext parentContext;
+   private volatile RootStatement root;
+   private volatile Throwable error;
+   private volatile boolean finished = false;
+
+   public MethodProcessorRunnable(StructMethod method, VarProcessor varProc, DecompilerContext parentContext) {
+      this.method = method;
+      this.varProc = varProc;
+      this.parentContext = parentContext;
+   }
+
+   public void run() {
+      DecompilerContext.setCurrentContext(this.parentContext);
+      this.error = null;
+      this.root = null;
+
+      try {
+         this.root = codeToJava(this.method, this.varProc);
+      } catch (ThreadDeath var9) {
+         throw var9;
+      } catch (Throwable var10) {
+         this.error = var10;
+      } finally {
+         DecompilerContext.setCurrentContext((DecompilerContext)null);
+      }
+
+      this.finished = true;
+      Object ex = this.lock;
+      synchronized(this.lock) {
+         this.lock.notifyAll();
+      }
+   }
+
+   public static RootStatement codeToJava(StructMethod mt, VarProcessor varProc) throws IOException {
+      StructClass cl = mt.getClassStruct();
+      boolean isInitializer = "<clinit>".equals(mt.getName());
+      mt.expandData();
+      InstructionSequence seq = mt.getInstructionSequence();
+      ControlFlowGraph graph = new ControlFlowGraph(seq);
+      DeadCodeHelper.removeDeadBlocks(graph);
+      graph.inlineJsr(mt);
+      DeadCodeHelper.connectDummyExitBlock(graph);
+      DeadCodeHelper.removeGotos(graph);
+      ExceptionDeobfuscator.removeCircularRanges(graph);
+      ExceptionDeobfuscator.restorePopRanges(graph);
+      if(DecompilerContext.getOption("rer")) {
+         ExceptionDeobfuscator.removeEmptyRanges(graph);
+      }
+
+      if(DecompilerContext.getOption("ner")) {
+         DeadCodeHelper.incorporateValueReturns(graph);
+      }
+
+      ExceptionDeobfuscator.insertEmptyExceptionHandlerBlocks(graph);
+      DeadCodeHelper.mergeBasicBlocks(graph);
+      DecompilerContext.getCounterContainer().setCounter(2, mt.getLocalVariables());
+      if(ExceptionDeobfuscator.hasObfuscatedExceptions(graph)) {
+         DecompilerContext.getLogger().writeMessage("Heavily obfuscated exception ranges found!", IFernflowerLogger.Severity.WARN);
+      }
+
+      RootStatement root = DomHelper.parseGraph(graph);
+
+      for(FinallyProcessor fProc = new FinallyProcessor(varProc); fProc.iterateGraph(mt, root, graph); root = DomHelper.parseGraph(graph)) {
+      }
+
+      DomHelper.removeSynchronizedHandler(root);
+      SequenceHelper.condenseSequences(root);
+      ClearStructHelper.clearStatements(root);
+      ExprProcessor proc = new ExprProcessor();
+      proc.processStatement(root, cl);
+      SequenceHelper.condenseSequences(root);
+
+      StackVarsProcessor stackProc;
+      do {
+         stackProc = new StackVarsProcessor();
+         stackProc.simplifyStackVars(root, mt, cl);
+         varProc.setVarVersions(root);
+      } while((new PPandMMHelper()).findPPandMM(root));
+
+      do {
+         do {
+            LabelHelper.cleanUpEdges(root);
+
+            do {
+               while(true) {
+                  MergeHelper.enhanceLoops(root);
+                  if(LoopExtractHelper.extractLoops(root)) {
+                     continue;
+                  }
+                  break;
+               }
+            } while(IfHelper.mergeAllIfs(root));
+
+            if(DecompilerContext.getOption("inn") && IdeaNotNullHelper.removeHardcodedChecks(root, mt)) {
+               SequenceHelper.condenseSequences(root);
+               stackProc = new StackVarsProcessor();
+               stackProc.simplifyStackVars(root, mt, cl);
+               varProc.setVarVersions(root);
+            }
+
+            LabelHelper.identifyLabels(root);
+         } while(InlineSingleBlockHelper.inlineSingleBlocks(root));
+      } while(!isInitializer && ExitHelper.condenseExits(root));
+
+      ExitHelper.removeRedundantReturns(root);
+      SecondaryFunctionsHelper.identifySecondaryFunctions(root);
+      varProc.setVarDefinitions(root);
+      LabelHelper.replaceContinueWithBreak(root);
+      mt.releaseResources();
+      return root;
+   }
+
+   public RootStatement getResult() throws Throwable {
+      Throwable t = this.error;
+      if(t != null) {
+         throw t;
+      } else {
+         return this.root;
+      }
+   }
+
+   public boolean isFinished() {
+      return this.finished;
+   }
+}
@@ -0,0 +1,37 @@
+package regression.fernflower.main.rels;
+
+import java.util.HashSet;
+import java.util.List;
+import regression.fernflower.main.collectors.CounterContainer;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.sforms.FlattenStatementsHelper;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.struct.StructMethod;
+
+public class MethodWrapper {
+   public RootStatement root;
+   public VarProcessor varproc;
+   public StructMethod methodStruct;
+   public CounterContainer counter;
+   public DirectGraph graph;
+   public List signatureFields;
+   public boolean decompiledWithErrors;
+   public HashSet setOuterVarNames = new HashSet();
+
+   public MethodWrapper(RootStatement root, VarProcessor varproc, StructMethod methodStruct, CounterContainer counter) {
+      this.root = root;
+      this.varproc = varproc;
+      this.methodStruct = methodStruct;
+      this.counter = counter;
+   }
+
+   public DirectGraph getOrBuildGraph() {
+      if(this.graph == null && this.root != null) {
+         FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
+         this.graph = flatthelper.buildDirectGraph(this.root);
+      }
+
+      return this.graph;
+   }
+}
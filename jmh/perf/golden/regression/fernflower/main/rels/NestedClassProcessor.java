@@ -0,0 +1,979 @@
+package regression.fernflower.main.rels;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.collectors.VarNamesCollector;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FieldExprent;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.sforms.DirectNode;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructField;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.attr.StructEnclosingMethodAttribute;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+
+public class NestedClassProcessor {
+   public void processClass(ClassesProcessor.ClassNode root, ClassesProcessor.ClassNode node) {
+      if(node.type == 8 && !node.lambdaInformation.is_method_reference) {
+         ClassesProcessor.ClassNode nameless = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(node.classStruct.qualifiedName);
+         if(nameless != null && nameless.getWrapper() != null) {
+            nameless.getWrapper().getHiddenMembers().add(node.lambdaInformation.content_method_key);
+         }
+      }
+
+      if(!node.nested.isEmpty()) {
+         if(node.type != 8) {
+            computeLocalVarsAndDefinitions(node);
+            checkNotFoundClasses(root, node);
+         }
+
+         int var9 = 0;
+         int synthetics = 0;
+         Iterator var5 = node.nested.iterator();
+
+         while(true) {
+            ClassesProcessor.ClassNode child;
+            do {
+               do {
+                  if(!var5.hasNext()) {
+                     var5 = node.nested.iterator();
+
+                     while(true) {
+                        while(var5.hasNext()) {
+                           child = (ClassesProcessor.ClassNode)var5.next();
+                           if(child.type == 8) {
+                              setLambdaVars(node, child);
+                           } else if(child.type != 1 || (child.access & 8) == 0) {
+                              insertLocalVars(node, child);
+                              if(child.type == 4) {
+                                 setLocalClassDefinition((MethodWrapper)node.getWrapper().getMethods().getWithKey(child.enclosingMethod), child);
+                              }
+                           }
+                        }
+
+                        var5 = node.nested.iterator();
+
+                        while(var5.hasNext()) {
+                           child = (ClassesProcessor.ClassNode)var5.next();
+                           this.processClass(root, child);
+                        }
+
+                        return;
+                     }
+                  }
+
+                  child = (ClassesProcessor.ClassNode)var5.next();
+               } while(child.type != 4 && child.type != 1);
+            } while(child.simpleName != null);
+
+            StructClass cl = child.classStruct;
+            StringBuilder var10001;
+            if((child.access & 4096) == 0 && !cl.isSynthetic()) {
+               String message = "Nameless local or member class " + cl.qualifiedName + "!";
+               DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.WARN);
+               var10001 = (new StringBuilder()).append("NamelessClass_");
+               ++var9;
+               child.simpleName = var10001.append(var9).toString();
+            } else {
+               var10001 = (new StringBuilder()).append("SyntheticClass_");
+               ++synthetics;
+               child.simpleName = var10001.append(synthetics).toString();
+            }
+
+            child.namelessConstructorStub = !cl.hasModifier(8) && cl.getMethods().size() + cl.getFields().size() == 0;
+         }
+      }
+   }
+
+   private static void setLambdaVars(ClassesProcessor.ClassNode parent, ClassesProcessor.ClassNode child) {
+      if(!child.lambdaInformation.is_method_reference) {
+         MethodWrapper meth = (MethodWrapper)parent.getWrapper().getMethods().getWithKey(child.lambdaInformation.content_method_key);
+         final MethodWrapper encmeth = (MethodWrapper)parent.getWrapper().getMethods().getWithKey(child.enclosingMethod);
+         MethodDescriptor md_lambda = MethodDescriptor.parseDescriptor(child.lambdaInformation.method_descriptor);
+         final MethodDescriptor md_content = MethodDescriptor.parseDescriptor(child.lambdaInformation.content_method_descriptor);
+         final int vars_count = md_content.params.length - md_lambda.params.length;
+         final boolean is_static_lambda_content = child.lambdaInformation.is_content_method_static;
+         String parent_class_name = parent.getWrapper().getClassStruct().qualifiedName;
+         String lambda_class_name = child.simpleName;
+         final VarType lambda_class_type = new VarType(lambda_class_name, true);
+         if(!is_static_lambda_content && DecompilerContext.getOption("lac")) {
+            meth.varproc.getThisVars().put(new VarVersionPair(0, 0), parent_class_name);
+            meth.varproc.setVarName(new VarVersionPair(0, 0), parent.simpleName + ".this");
+         }
+
+         DirectGraph graph = encmeth.getOrBuildGraph();
+         final HashMap mapNewNames = new HashMap();
+         graph.iterateExprents(new DirectGraph.ExprentIterator() {
+            public int processExprent(Exprent exprent) {
+               List lst = exprent.getAllExprents(true);
+               lst.add(exprent);
+               Iterator var3 = lst.iterator();
+
+               while(true) {
+                  NewExprent new_expr;
+                  do {
+                     do {
+                        Exprent expr;
+                        do {
+                           if(!var3.hasNext()) {
+                              return 0;
+                           }
+
+                           expr = (Exprent)var3.next();
+                        } while(expr.type != 10);
+
+                        new_expr = (NewExprent)expr;
+                     } while(!new_expr.isLambda());
+                  } while(!lambda_class_type.equals(new_expr.getNewType()));
+
+                  InvocationExprent inv_dynamic = new_expr.getConstructor();
+                  int param_index = is_static_lambda_content ? 0 : 1;
+                  int varindex = is_static_lambda_content ? 0 : 1;
+
+                  for(int i = 0; i < vars_count; ++i) {
+                     Exprent param = (Exprent)inv_dynamic.getLstParameters().get(param_index + i);
+                     if(param.type == 12) {
+                        VarVersionPair enc_varpaar = new VarVersionPair((VarExprent)param);
+                        String enc_varname = encmeth.varproc.getVarName(enc_varpaar);
+                        mapNewNames.put(new VarVersionPair(varindex, 0), enc_varname);
+                     }
+
+                     varindex += md_content.params[i].stackSize;
+                  }
+               }
+            }
+         });
+         HashSet setNewOuterNames = new HashSet(mapNewNames.values());
+         setNewOuterNames.removeAll(meth.setOuterVarNames);
+         meth.varproc.refreshVarNames(new VarNamesCollector(setNewOuterNames));
+         meth.setOuterVarNames.addAll(setNewOuterNames);
+         Iterator var14 = mapNewNames.entrySet().iterator();
+
+         while(var14.hasNext()) {
+            Entry entr = (Entry)var14.next();
+            meth.varproc.setVarName((VarVersionPair)entr.getKey(), (String)entr.getValue());
+         }
+
+      }
+   }
+
+   private static void checkNotFoundClasses(ClassesProcessor.ClassNode root, ClassesProcessor.ClassNode node) {
+      ArrayList lstChildren = new ArrayList(node.nested);
+      Iterator var3 = lstChildren.iterator();
+
+      while(true) {
+         while(true) {
+            ClassesProcessor.ClassNode child;
+            do {
+               do {
+                  if(!var3.hasNext()) {
+                     return;
+                  }
+
+                  child = (ClassesProcessor.ClassNode)var3.next();
+               } while(child.type != 4 && child.type != 2);
+            } while(child.enclosingMethod != null);
+
+            Set setEnclosing = child.enclosingClasses;
+            if(setEnclosing.size() == 1) {
+               StructEnclosingMethodAttribute hasEnclosing = (StructEnclosingMethodAttribute)child.classStruct.getAttributes().getWithKey("EnclosingMethod");
+               if(hasEnclosing != null && hasEnclosing.getMethodName() != null && node.classStruct.qualifiedName.equals(hasEnclosing.getClassName()) && node.classStruct.getMethod(hasEnclosing.getMethodName(), hasEnclosing.getMethodDescriptor()) != null) {
+                  child.enclosingMethod = InterpreterUtil.makeUniqueKey(hasEnclosing.getMethodName(), hasEnclosing.getMethodDescriptor());
+                  continue;
+               }
+            }
+
+            node.nested.remove(child);
+            child.parent = null;
+            setEnclosing.remove(node.classStruct.qualifiedName);
+            boolean hasEnclosing1 = !setEnclosing.isEmpty();
+            if(hasEnclosing1) {
+               hasEnclosing1 = insertNestedClass(root, child);
+            }
+
+            if(!hasEnclosing1) {
+               String message;
+               if(child.type == 2) {
+                  if(!child.classStruct.hasModifier(4096)) {
+                     message = "Unreferenced anonymous class " + child.classStruct.qualifiedName + "!";
+                     DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.WARN);
+                  }
+               } else if(child.type == 4) {
+                  message = "Unreferenced local class " + child.classStruct.qualifiedName + "!";
+                  DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.WARN);
+               }
+            }
+         }
+      }
+   }
+
+   private static boolean insertNestedClass(ClassesProcessor.ClassNode root, ClassesProcessor.ClassNode child) {
+      Set setEnclosing = child.enclosingClasses;
+      LinkedList stack = new LinkedList();
+      stack.add(root);
+
+      while(!stack.isEmpty()) {
+         ClassesProcessor.ClassNode node = (ClassesProcessor.ClassNode)stack.removeFirst();
+         if(setEnclosing.contains(node.classStruct.qualifiedName)) {
+            node.nested.add(child);
+            child.parent = node;
+            return true;
+         }
+
+         stack.addAll(node.nested);
+      }
+
+      return false;
+   }
+
+   private static void computeLocalVarsAndDefinitions(final ClassesProcessor.ClassNode node) {
+      final HashMap mapVarMasks = new HashMap();
+      int cltypes = 0;
+      Iterator mapVarFieldPairs = node.nested.iterator();
+
+      while(mapVarFieldPairs.hasNext()) {
+         ClassesProcessor.ClassNode nd = (ClassesProcessor.ClassNode)mapVarFieldPairs.next();
+         if(nd.type != 8 && (nd.access & 8) == 0 && (nd.access & 512) == 0) {
+            cltypes |= nd.type;
+            HashMap entcl = getMaskLocalVars(nd.getWrapper());
+            if(entcl.isEmpty()) {
+               if(!nd.classStruct.hasModifier(4096)) {
+                  String nestedNode = "Nested class " + nd.classStruct.qualifiedName + " has no constructor!";
+                  DecompilerContext.getLogger().writeMessage(nestedNode, IFernflowerLogger.Severity.WARN);
+               }
+            } else {
+               mapVarMasks.put(nd.classStruct.qualifiedName, entcl);
+            }
+         }
+      }
+
+      final HashMap var14 = new HashMap();
+      Iterator var15;
+      if(cltypes != 1) {
+         var15 = node.getWrapper().getMethods().iterator();
+
+         while(var15.hasNext()) {
+            final MethodWrapper var16 = (MethodWrapper)var15.next();
+            if(var16.root != null) {
+               DirectGraph var18 = var16.getOrBuildGraph();
+               var18.iterateExprents(new DirectGraph.ExprentIterator() {
+                  public int processExprent(Exprent exprent) {
+                     List lst = exprent.getAllExprents(true);
+                     lst.add(exprent);
+                     Iterator var3 = lst.iterator();
+
+                     while(true) {
+                        InvocationExprent constr;
+                        String refclname;
+                        ClassesProcessor.ClassNode nestedClassNode;
+                        do {
+                           do {
+                              do {
+                                 Exprent expr;
+                                 do {
+                                    if(!var3.hasNext()) {
+                                       return 0;
+                                    }
+
+                                    expr = (Exprent)var3.next();
+                                 } while(expr.type != 10);
+
+                                 constr = ((NewExprent)expr).getConstructor();
+                              } while(constr == null);
+                           } while(!mapVarMasks.containsKey(constr.getClassname()));
+
+                           refclname = constr.getClassname();
+                           nestedClassNode = node.getClassNode(refclname);
+                        } while(nestedClassNode.type == 1);
+
+                        List mask = (List)((HashMap)mapVarMasks.get(refclname)).get(constr.getStringDescriptor());
+                        if(!var14.containsKey(refclname)) {
+                           var14.put(refclname, new HashMap());
+                        }
+
+                        ArrayList lstTemp = new ArrayList();
+
+                        for(int pairmask = 0; pairmask < mask.size(); ++pairmask) {
+                           Exprent i = (Exprent)constr.getLstParameters().get(pairmask);
+                           NestedClassProcessor.VarFieldPair pair = null;
+                           if(i.type == 12 && mask.get(pairmask) != null) {
+                              VarVersionPair varpaar = new VarVersionPair((VarExprent)i);
+                              pair = new NestedClassProcessor.VarFieldPair(((NestedClassProcessor.VarFieldPair)mask.get(pairmask)).keyfield, varpaar);
+                           }
+
+                           lstTemp.add(pair);
+                        }
+
+                        Object var14x = (List)((HashMap)var14.get(refclname)).get(constr.getStringDescriptor());
+                        if(var14x == null) {
+                           var14x = lstTemp;
+                        } else {
+                           for(int var15 = 0; var15 < ((List)var14x).size(); ++var15) {
+                              if(!InterpreterUtil.equalObjects(((List)var14x).get(var15), lstTemp.get(var15))) {
+                                 ((List)var14x).set(var15, (Object)null);
+                              }
+                           }
+                        }
+
+                        ((HashMap)var14.get(refclname)).put(constr.getStringDescriptor(), var14x);
+                        nestedClassNode.enclosingMethod = InterpreterUtil.makeUniqueKey(var16.methodStruct.getName(), var16.methodStruct.getDescriptor());
+                     }
+                  }
+               });
+            }
+         }
+      }
+
+      var15 = mapVarMasks.entrySet().iterator();
+
+      while(var15.hasNext()) {
+         Entry var17 = (Entry)var15.next();
+         ClassesProcessor.ClassNode var19 = node.getClassNode((String)var17.getKey());
+         ArrayList intrPairMask = null;
+         if(var14.containsKey(var17.getKey())) {
+            Iterator intrMask = ((HashMap)var14.get(var17.getKey())).values().iterator();
+
+            while(intrMask.hasNext()) {
+               List i = (List)intrMask.next();
+               if(intrPairMask == null) {
+                  intrPairMask = new ArrayList(i);
+               } else {
+                  mergeListSignatures(intrPairMask, i, false);
+               }
+            }
+         }
+
+         ArrayList var20 = null;
+         Iterator var21 = ((HashMap)var17.getValue()).values().iterator();
+
+         while(var21.hasNext()) {
+            List entmt = (List)var21.next();
+            if(var20 == null) {
+               var20 = new ArrayList(entmt);
+            } else {
+               mergeListSignatures(var20, entmt, false);
+            }
+         }
+
+         if(intrPairMask == null) {
+            intrPairMask = new ArrayList(var20);
+            boolean var22 = false;
+
+            for(int var23 = 0; var23 < intrPairMask.size(); ++var23) {
+               if(intrPairMask.get(var23) != null) {
+                  if(var22) {
+                     intrPairMask.set(var23, (Object)null);
+                  }
+
+                  var22 = true;
+               }
+            }
+         }
+
+         mergeListSignatures(intrPairMask, var20, true);
+
+         for(int var24 = 0; var24 < intrPairMask.size(); ++var24) {
+            NestedClassProcessor.VarFieldPair var25 = (NestedClassProcessor.VarFieldPair)intrPairMask.get(var24);
+            if(var25 != null && var25.keyfield.length() > 0) {
+               var19.mapFieldsToVars.put(var25.keyfield, var25.varpaar);
+            }
+         }
+
+         var21 = ((HashMap)var17.getValue()).entrySet().iterator();
+
+         while(var21.hasNext()) {
+            Entry var26 = (Entry)var21.next();
+            mergeListSignatures((List)var26.getValue(), intrPairMask, false);
+            MethodWrapper meth = var19.getWrapper().getMethodWrapper("<init>", (String)var26.getKey());
+            meth.signatureFields = new ArrayList();
+            Iterator var12 = ((List)var26.getValue()).iterator();
+
+            while(var12.hasNext()) {
+               NestedClassProcessor.VarFieldPair pair = (NestedClassProcessor.VarFieldPair)var12.next();
+               meth.signatureFields.add(pair == null ? null : pair.varpaar);
+            }
+         }
+      }
+
+   }
+
+   private static void insertLocalVars(ClassesProcessor.ClassNode parent, final ClassesProcessor.ClassNode child) {
+      MethodWrapper encmeth = (MethodWrapper)parent.getWrapper().getMethods().getWithKey(child.enclosingMethod);
+      Iterator var3 = child.getWrapper().getMethods().iterator();
+
+      while(true) {
+         final MethodWrapper meth;
+         do {
+            if(!var3.hasNext()) {
+               return;
+            }
+
+            meth = (MethodWrapper)var3.next();
+         } while(meth.root == null);
+
+         HashMap mapNewNames = new HashMap();
+         HashMap mapNewTypes = new HashMap();
+         final HashMap mapParamsToNewVars = new HashMap();
+         VarVersionPair varpaar;
+         if(meth.signatureFields != null) {
+            int mapFieldsToNewVars = 0;
+            int setNewOuterNames = 1;
+            MethodDescriptor graph = MethodDescriptor.parseDescriptor(meth.methodStruct.getDescriptor());
+
+            for(Iterator entr = meth.signatureFields.iterator(); entr.hasNext(); setNewOuterNames += graph.params[mapFieldsToNewVars++].stackSize) {
+               varpaar = (VarVersionPair)entr.next();
+               if(varpaar != null) {
+                  VarVersionPair vartype = new VarVersionPair(meth.counter.getCounterAndIncrement(2), 0);
+                  mapParamsToNewVars.put(Integer.valueOf(setNewOuterNames), vartype);
+                  String vartype1 = null;
+                  VarType fd = null;
+                  if(child.type != 1) {
+                     vartype1 = encmeth.varproc.getVarName(varpaar);
+                     fd = encmeth.varproc.getVarType(varpaar);
+                     encmeth.varproc.setVarFinal(varpaar, 2);
+                  }
+
+                  if(varpaar.var == -1 || "this".equals(vartype1)) {
+                     if(parent.simpleName == null) {
+                        vartype1 = "<VAR_NAMELESS_ENCLOSURE>";
+                     } else {
+                        vartype1 = parent.simpleName + ".this";
+                     }
+
+                     meth.varproc.getThisVars().put(vartype, parent.classStruct.qualifiedName);
+                  }
+
+                  mapNewNames.put(vartype, vartype1);
+                  mapNewTypes.put(vartype, fd);
+               }
+            }
+         }
+
+         final HashMap var16 = new HashMap();
+
+         Iterator var19;
+         Entry var21;
+         for(ClassesProcessor.ClassNode var17 = child; var17 != null; var17 = var17.parent) {
+            var19 = var17.mapFieldsToVars.entrySet().iterator();
+
+            while(var19.hasNext()) {
+               var21 = (Entry)var19.next();
+               varpaar = new VarVersionPair(meth.counter.getCounterAndIncrement(2), 0);
+               var16.put(InterpreterUtil.makeUniqueKey(var17.classStruct.qualifiedName, (String)var21.getKey()), varpaar);
+               String var22 = null;
+               VarType var24 = null;
+               if(var17.type != 1) {
+                  MethodWrapper var25 = (MethodWrapper)var17.parent.getWrapper().getMethods().getWithKey(var17.enclosingMethod);
+                  var22 = var25.varproc.getVarName((VarVersionPair)var21.getValue());
+                  var24 = var25.varproc.getVarType((VarVersionPair)var21.getValue());
+                  var25.varproc.setVarFinal((VarVersionPair)var21.getValue(), 2);
+               }
+
+               if(((VarVersionPair)var21.getValue()).var == -1 || "this".equals(var22)) {
+                  if(var17.parent.simpleName == null) {
+                     var22 = "<VAR_NAMELESS_ENCLOSURE>";
+                  } else {
+                     var22 = var17.parent.simpleName + ".this";
+                  }
+
+                  meth.varproc.getThisVars().put(varpaar, var17.parent.classStruct.qualifiedName);
+               }
+
+               mapNewNames.put(varpaar, var22);
+               mapNewTypes.put(varpaar, var24);
+               if(var17 == child) {
+                  StructField var26 = (StructField)child.classStruct.getFields().getWithKey((String)var21.getKey());
+                  child.getWrapper().getHiddenMembers().add(InterpreterUtil.makeUniqueKey(var26.getName(), var26.getDescriptor()));
+               }
+            }
+         }
+
+         HashSet var18 = new HashSet(mapNewNames.values());
+         var18.removeAll(meth.setOuterVarNames);
+         meth.varproc.refreshVarNames(new VarNamesCollector(var18));
+         meth.setOuterVarNames.addAll(var18);
+         var19 = mapNewNames.entrySet().iterator();
+
+         while(var19.hasNext()) {
+            var21 = (Entry)var19.next();
+            varpaar = (VarVersionPair)var21.getKey();
+            VarType var23 = (VarType)mapNewTypes.get(varpaar);
+            meth.varproc.setVarName(varpaar, (String)var21.getValue());
+            if(var23 != null) {
+               meth.varproc.setVarType(varpaar, var23);
+            }
+         }
+
+         DirectGraph var20 = meth.getOrBuildGraph();
+         var20.iterateExprents(new DirectGraph.ExprentIterator() {
+            public int processExprent(Exprent exprent) {
+               if(exprent.type == 2) {
+                  AssignmentExprent invexpr = (AssignmentExprent)exprent;
+                  if(invexpr.getLeft().type == 5) {
+                     FieldExprent fexpr = (FieldExprent)invexpr.getLeft();
+                     if(fexpr.getClassname().equals(child.classStruct.qualifiedName) && var16.containsKey(InterpreterUtil.makeUniqueKey(child.classStruct.qualifiedName, InterpreterUtil.makeUniqueKey(fexpr.getName(), fexpr.getDescriptor().descriptorString)))) {
+                        return 2;
+                     }
+                  }
+               }
+
+               if(child.type == 2 && "<init>".equals(meth.methodStruct.getName()) && exprent.type == 8) {
+                  InvocationExprent invexpr1 = (InvocationExprent)exprent;
+                  if(invexpr1.getFunctype() == 2) {
+                     child.superInvocation = invexpr1;
+                     return 2;
+                  }
+               }
+
+               this.replaceExprent(exprent);
+               return 0;
+            }
+
+            private Exprent replaceExprent(Exprent exprent) {
+               if(exprent.type == 12) {
+                  int replaced = ((VarExprent)exprent).getIndex();
+                  if(mapParamsToNewVars.containsKey(Integer.valueOf(replaced))) {
+                     VarVersionPair keyField = (VarVersionPair)mapParamsToNewVars.get(Integer.valueOf(replaced));
+                     meth.varproc.getExternalVars().add(keyField);
+                     return new VarExprent(keyField.var, meth.varproc.getVarType(keyField), meth.varproc);
+                  }
+               } else if(exprent.type == 5) {
+                  FieldExprent replaced1 = (FieldExprent)exprent;
+                  String keyField1 = InterpreterUtil.makeUniqueKey(replaced1.getClassname(), InterpreterUtil.makeUniqueKey(replaced1.getName(), replaced1.getDescriptor().descriptorString));
+                  if(var16.containsKey(keyField1)) {
+                     VarVersionPair expr1 = (VarVersionPair)var16.get(keyField1);
+                     meth.varproc.getExternalVars().add(expr1);
+                     return new VarExprent(expr1.var, meth.varproc.getVarType(expr1), meth.varproc);
+                  }
+               }
+
+               boolean replaced2 = true;
+
+               while(true) {
+                  while(replaced2) {
+                     replaced2 = false;
+                     Iterator keyField2 = exprent.getAllExprents().iterator();
+
+                     while(keyField2.hasNext()) {
+                        Exprent expr = (Exprent)keyField2.next();
+                        Exprent retexpr = this.replaceExprent(expr);
+                        if(retexpr != null) {
+                           exprent.replaceExprent(expr, retexpr);
+                           replaced2 = true;
+                           break;
+                        }
+                     }
+                  }
+
+                  return null;
+               }
+            }
+         });
+      }
+   }
+
+   private static HashMap getMaskLocalVars(ClassWrapper wrapper) {
+      HashMap mapMasks = new HashMap();
+      StructClass cl = wrapper.getClassStruct();
+      Iterator var3 = cl.getMethods().iterator();
+
+      while(true) {
+         StructMethod mt;
+         MethodDescriptor md;
+         MethodWrapper meth;
+         DirectGraph graph;
+         do {
+            do {
+               if(!var3.hasNext()) {
+                  return mapMasks;
+               }
+
+               mt = (StructMethod)var3.next();
+            } while(!"<init>".equals(mt.getName()));
+
+            md = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+            meth = wrapper.getMethodWrapper("<init>", mt.getDescriptor());
+            graph = meth.getOrBuildGraph();
+         } while(graph == null);
+
+         ArrayList fields = new ArrayList();
+         int varindex = 1;
+
+         for(int i = 0; i < md.params.length; ++i) {
+            String keyField = getEnclosingVarField(cl, meth, graph, varindex);
+            fields.add(keyField == null ? null : new NestedClassProcessor.VarFieldPair(keyField, new VarVersionPair(-1, 0)));
+            varindex += md.params[i].stackSize;
+         }
+
+         mapMasks.put(mt.getDescriptor(), fields);
+      }
+   }
+
+   private static String getEnclosingVarField(StructClass cl, MethodWrapper meth, DirectGraph graph, int index) {
+      String field = "";
+      if(meth.varproc.getVarFinal(new VarVersionPair(index, 0)) == 1) {
+         return null;
+      } else {
+         boolean noSynthFlag = DecompilerContext.getOption("nns");
+         DirectNode firstnode = graph.first;
+         if(firstnode.preds.isEmpty()) {
+            Iterator var7 = firstnode.exprents.iterator();
+
+            FieldExprent left;
+            StructField fd;
+            do {
+               do {
+                  do {
+                     do {
+                        AssignmentExprent asexpr;
+                        do {
+                           do {
+                              do {
+                                 Exprent exprent;
+                                 do {
+                                    if(!var7.hasNext()) {
+                                       return field;
+                                    }
+
+                                    exprent = (Exprent)var7.next();
+                                 } while(exprent.type != 2);
+
+                                 asexpr = (AssignmentExprent)exprent;
+                              } while(asexpr.getRight().type != 12);
+                           } while(((VarExprent)asexpr.getRight()).getIndex() != index);
+                        } while(asexpr.getLeft().type != 5);
+
+                        left = (FieldExprent)asexpr.getLeft();
+                        fd = cl.getField(left.getName(), left.getDescriptor().descriptorString);
+                     } while(fd == null);
+                  } while(!cl.qualifiedName.equals(left.getClassname()));
+               } while(!fd.hasModifier(16));
+            } while(!fd.isSynthetic() && (!noSynthFlag || !fd.hasModifier(2)));
+
+            field = InterpreterUtil.makeUniqueKey(left.getName(), left.getDescriptor().descriptorString);
+         }
+
+         return field;
+      }
+   }
+
+   private static void mergeListSignatures(List first, List second, boolean both) {
+      int i;
+      NestedClassProcessor.VarFieldPair fobj;
+      NestedClassProcessor.VarFieldPair sobj;
+      boolean eq;
+      for(i = 1; first.size() > i && second.size() > i; ++i) {
+         fobj = (NestedClassProcessor.VarFieldPair)first.get(first.size() - i);
+         sobj = (NestedClassProcessor.VarFieldPair)second.get(second.size() - i);
+         eq = false;
+         if(fobj != null && sobj != null) {
+            eq = true;
+            if(fobj.keyfield.length() == 0) {
+               fobj.keyfield = sobj.keyfield;
+            } else if(sobj.keyfield.length() == 0) {
+               if(both) {
+                  sobj.keyfield = fobj.keyfield;
+               }
+            } else {
+               eq = fobj.keyfield.equals(sobj.keyfield);
+            }
+         } else {
+            eq = fobj == sobj;
+         }
+
+         if(!eq) {
+            first.set(first.size() - i, (Object)null);
+            if(both) {
+               second.set(second.size() - i, (Object)null);
+            }
+         } else if(fobj != null) {
+            if(fobj.varpaar.var == -1) {
+               fobj.varpaar = sobj.varpaar;
+            } else {
+               sobj.varpaar = fobj.varpaar;
+            }
+         }
+      }
+
+      int var7;
+      for(var7 = 1; var7 <= first.size() - i; ++var7) {
+         first.set(var7, (Object)null);
+      }
+
+      if(both) {
+         for(var7 = 1; var7 <= second.size() - i; ++var7) {
+            second.set(var7, (Object)null);
+         }
+      }
+
+      if(first.isEmpty()) {
+         if(!second.isEmpty() && both) {
+            second.set(0, (Object)null);
+         }
+      } else if(second.isEmpty()) {
+         first.set(0, (Object)null);
+      } else {
+         fobj = (NestedClassProcessor.VarFieldPair)first.get(0);
+         sobj = (NestedClassProcessor.VarFieldPair)second.get(0);
+         eq = false;
+         if(fobj != null && sobj != null) {
+            eq = true;
+            if(fobj.keyfield.length() == 0) {
+               fobj.keyfield = sobj.keyfield;
+            } else if(sobj.keyfield.length() == 0) {
+               if(both) {
+                  sobj.keyfield = fobj.keyfield;
+               }
+            } else {
+               eq = fobj.keyfield.equals(sobj.keyfield);
+            }
+         } else {
+            eq = fobj == sobj;
+         }
+
+         if(!eq) {
+            first.set(0, (Object)null);
+            if(both) {
+               second.set(0, (Object)null);
+            }
+         } else if(fobj != null) {
+            if(fobj.varpaar.var == -1) {
+               fobj.varpaar = sobj.varpaar;
+            } else {
+               sobj.varpaar = fobj.varpaar;
+            }
+         }
+      }
+
+   }
+
+   private static void setLocalClassDefinition(MethodWrapper meth, ClassesProcessor.ClassNode node) {
+      RootStatement root = meth.root;
+      HashSet setStats = new HashSet();
+      VarType classtype = new VarType(node.classStruct.qualifiedName, true);
+      Statement stdef = getDefStatement(root, classtype, setStats);
+      if(stdef == null) {
+         stdef = root.getFirst();
+      }
+
+      Statement first = findFirstBlock(stdef, setStats);
+      List lst;
+      if(first == null) {
+         lst = stdef.getVarDefinitions();
+      } else if(first.getExprents() == null) {
+         lst = first.getVarDefinitions();
+      } else {
+         lst = first.getExprents();
+      }
+
+      int addindex = 0;
+
+      for(Iterator var = lst.iterator(); var.hasNext(); ++addindex) {
+         Exprent expr = (Exprent)var.next();
+         if(searchForClass(expr, classtype)) {
+            break;
+         }
+      }
+
+      VarExprent var11 = new VarExprent(meth.counter.getCounterAndIncrement(2), classtype, meth.varproc);
+      var11.setDefinition(true);
+      var11.setClassDef(true);
+      lst.add(addindex, var11);
+   }
+
+   private static Statement findFirstBlock(Statement stat, HashSet setStats) {
+      LinkedList stack = new LinkedList();
+      stack.add(stat);
+
+      while(true) {
+         Statement st;
+         do {
+            if(stack.isEmpty()) {
+               return null;
+            }
+
+            st = (Statement)stack.remove(0);
+         } while(!stack.isEmpty() && !setStats.contains(st));
+
+         if(st.isLabeled() && !stack.isEmpty()) {
+            return st;
+         }
+
+         if(st.getExprents() != null) {
+            return st;
+         }
+
+         stack.clear();
+         switch(st.type) {
+         case 2:
+         case 6:
+         case 10:
+         case 13:
+            stack.add(st.getFirst());
+            break;
+         case 3:
+         case 4:
+         case 5:
+         case 7:
+         case 8:
+         case 9:
+         case 11:
+         case 12:
+         case 14:
+         default:
+            return st;
+         case 15:
+            stack.addAll(0, st.getStats());
+         }
+      }
+   }
+
+   private static Statement getDefStatement(Statement stat, VarType classtype, HashSet setStats) {
+      Object condlst = new ArrayList();
+      Statement retstat = null;
+      if(stat.getExprents() == null) {
+         int counter = 0;
+         Iterator exprent = stat.getSequentialObjects().iterator();
+
+         while(exprent.hasNext()) {
+            Object obj = exprent.next();
+            if(obj instanceof Statement) {
+               Statement st = (Statement)obj;
+               Statement stTemp = getDefStatement(st, classtype, setStats);
+               if(stTemp != null) {
+                  if(counter == 1) {
+                     retstat = stat;
+                     break;
+                  }
+
+                  retstat = stTemp;
+                  ++counter;
+               }
+
+               if(st.type == 5) {
+                  DoStatement dost = (DoStatement)st;
+                  ((List)condlst).addAll(dost.getInitExprentList());
+                  ((List)condlst).addAll(dost.getConditionExprentList());
+               }
+            } else if(obj instanceof Exprent) {
+               ((List)condlst).add((Exprent)obj);
+            }
+         }
+      } else {
+         condlst = stat.getExprents();
+      }
+
+      if(retstat != stat) {
+         Iterator var11 = ((List)condlst).iterator();
+
+         while(var11.hasNext()) {
+            Exprent var12 = (Exprent)var11.next();
+            if(var12 != null && searchForClass(var12, classtype)) {
+               retstat = stat;
+               break;
+            }
+         }
+      }
+
+      if(retstat != null) {
+         setStats.add(stat);
+      }
+
+      return retstat;
+   }
+
+   private static boolean searchForClass(Exprent exprent, VarType classtype) {
+      List lst = exprent.getAllExprents(true);
+      lst.add(exprent);
+      String classname = classtype.value;
+      Iterator var4 = lst.iterator();
+
+      boolean res;
+      do {
+         if(!var4.hasNext()) {
+            return false;
+         }
+
+         Exprent expr = (Exprent)var4.next();
+         res = false;
+         switch(expr.type) {
+         case 3:
+            ConstExprent cexpr = (ConstExprent)expr;
+            res = VarType.VARTYPE_CLASS.equals(cexpr.getConstType()) && classname.equals(cexpr.getValue()) || classtype.equals(cexpr.getConstType());
+         case 4:
+         case 6:
+         case 7:
+         case 9:
+         case 11:
+         default:
+            break;
+         case 5:
+            res = classname.equals(((FieldExprent)expr).getClassname());
+            break;
+         case 8:
+            res = classname.equals(((InvocationExprent)expr).getClassname());
+            break;
+         case 10:
+            VarType newType = expr.getExprType();
+            res = newType.type == 8 && classname.equals(newType.value);
+            break;
+         case 12:
+            VarExprent vexpr = (VarExprent)expr;
+            if(vexpr.isDefinition()) {
+               VarType vtype = vexpr.getVarType();
+               if(classtype.equals(vtype) || vtype.arrayDim > 0 && classtype.value.equals(vtype.value)) {
+                  res = true;
+               }
+            }
+         }
+      } while(!res);
+
+      return true;
+   }
+
+   private static class VarFieldPair {
+      public String keyfield = "";
+      public VarVersionPair varpaar;
+
+      public VarFieldPair(String field, VarVersionPair varpaar) {
+         this.keyfield = field;
+         this.varpaar = varpaar;
+      }
+
+      public boolean equals(Object o) {
+         if(o == this) {
+            return true;
+         } else if(o != null && o instanceof NestedClassProcessor.VarFieldPair) {
+            NestedClassProcessor.VarFieldPair pair = (NestedClassProcessor.VarFieldPair)o;
+            return this.keyfield.equals(pair.keyfield) && this.varpaar.equals(pair.varpaar);
+         } else {
+            return false;
+         }
+      }
+
+      public int hashCode() {
+         return this.keyfield.hashCode() + this.varpaar.hashCode();
+      }
+   }
+}
@@ -0,0 +1,368 @@
+package regression.fernflower.main.rels;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.collectors.VarNamesCollector;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.ExitExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FieldExprent;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.sforms.DirectNode;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.util.InterpreterUtil;
+
+public class NestedMemberAccess {
+   private static final int METHOD_ACCESS_NORMAL = 1;
+   private static final int METHOD_ACCESS_FIELD_GET = 2;
+   private static final int METHOD_ACCESS_FIELD_SET = 3;
+   private static final int METHOD_ACCESS_METHOD = 4;
+   private boolean noSynthFlag;
+   private Map mapMethodType = new HashMap();
+
+   public void propagateMemberAccess(ClassesProcessor.ClassNode root) {
+      if(!root.nested.isEmpty()) {
+         this.noSynthFlag = DecompilerContext.getOption("nns");
+         this.computeMethodTypes(root);
+         this.eliminateStaticAccess(root);
+      }
+   }
+
+   private void computeMethodTypes(ClassesProcessor.ClassNode node) {
+      if(node.type != 8) {
+         Iterator var2 = node.nested.iterator();
+
+         while(var2.hasNext()) {
+            ClassesProcessor.ClassNode method = (ClassesProcessor.ClassNode)var2.next();
+            this.computeMethodTypes(method);
+         }
+
+         var2 = node.getWrapper().getMethods().iterator();
+
+         while(var2.hasNext()) {
+            MethodWrapper method1 = (MethodWrapper)var2.next();
+            this.computeMethodType(node, method1);
+         }
+
+      }
+   }
+
+   private void computeMethodType(ClassesProcessor.ClassNode node, MethodWrapper method) {
+      byte type = 1;
+      if(method.root != null) {
+         DirectGraph graph = method.getOrBuildGraph();
+         StructMethod mt = method.methodStruct;
+         if((this.noSynthFlag || mt.isSynthetic()) && mt.hasModifier(8) && graph.nodes.size() == 2) {
+            Exprent exprentFirst;
+            if(graph.first.exprents.size() == 1) {
+               exprentFirst = (Exprent)graph.first.exprents.get(0);
+               MethodDescriptor exprentSecond = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+               int mtdesc = exprentSecond.params.length;
+               Exprent parcount = exprentFirst;
+               if(exprentFirst.type == 4) {
+                  ExitExprent asexpr = (ExitExprent)exprentFirst;
+                  if(asexpr.getExitType() == 0 && asexpr.getValue() != null) {
+                     parcount = asexpr.getValue();
+                  }
+               }
+
+               switch(parcount.type) {
+               case 2:
+                  AssignmentExprent fexpras = (AssignmentExprent)parcount;
+                  if(fexpras.getLeft().type != 5 || fexpras.getRight().type != 12) {
+                     break;
+                  }
+
+                  FieldExprent exexpr = (FieldExprent)fexpras.getLeft();
+                  if((mtdesc == 2 && !exexpr.isStatic() || mtdesc == 1 && exexpr.isStatic()) && exexpr.getClassname().equals(node.classStruct.qualifiedName) && (exexpr.isStatic() || exexpr.getInstance().type == 12 && ((VarExprent)exexpr.getInstance()).getIndex() == 0) && ((VarExprent)fexpras.getRight()).getIndex() == mtdesc - 1) {
+                     type = 3;
+                  }
+                  break;
+               case 5:
+                  FieldExprent var17 = (FieldExprent)parcount;
+                  if((mtdesc == 1 && !var17.isStatic() || mtdesc == 0 && var17.isStatic()) && var17.getClassname().equals(node.classStruct.qualifiedName) && (var17.isStatic() || var17.getInstance().type == 12 && ((VarExprent)var17.getInstance()).getIndex() == 0)) {
+                     type = 2;
+                  }
+                  break;
+               case 8:
+                  type = 4;
+                  break;
+               case 12:
+                  if(mtdesc == 1 && ((VarExprent)parcount).getIndex() != 0) {
+                     type = 2;
+                  }
+               }
+
+               if(type == 4) {
+                  type = 1;
+                  InvocationExprent var18 = (InvocationExprent)parcount;
+                  if(var18.isStatic() && var18.getLstParameters().size() == mtdesc || !var18.isStatic() && var18.getInstance().type == 12 && ((VarExprent)var18.getInstance()).getIndex() == 0 && var18.getLstParameters().size() == mtdesc - 1) {
+                     boolean var20 = true;
+
+                     for(int var22 = 0; var22 < var18.getLstParameters().size(); ++var22) {
+                        Exprent parexpr = (Exprent)var18.getLstParameters().get(var22);
+                        if(parexpr.type != 12 || ((VarExprent)parexpr).getIndex() != var22 + (var18.isStatic() ? 0 : 1)) {
+                           var20 = false;
+                           break;
+                        }
+                     }
+
+                     if(var20) {
+                        type = 4;
+                     }
+                  }
+               }
+            } else if(graph.first.exprents.size() == 2) {
+               exprentFirst = (Exprent)graph.first.exprents.get(0);
+               Exprent var14 = (Exprent)graph.first.exprents.get(1);
+               if(exprentFirst.type == 2 && var14.type == 4) {
+                  MethodDescriptor var15 = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+                  int var16 = var15.params.length;
+                  AssignmentExprent var19 = (AssignmentExprent)exprentFirst;
+                  if(var19.getLeft().type == 5 && var19.getRight().type == 12) {
+                     FieldExprent var21 = (FieldExprent)var19.getLeft();
+                     if((var16 == 2 && !var21.isStatic() || var16 == 1 && var21.isStatic()) && var21.getClassname().equals(node.classStruct.qualifiedName) && (var21.isStatic() || var21.getInstance().type == 12 && ((VarExprent)var21.getInstance()).getIndex() == 0) && ((VarExprent)var19.getRight()).getIndex() == var16 - 1) {
+                        ExitExprent var23 = (ExitExprent)var14;
+                        if(var23.getExitType() == 0 && var23.getValue() != null && var23.getValue().type == 12 && ((VarExprent)var19.getRight()).getIndex() == var16 - 1) {
+                           type = 3;
+                        }
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+      if(type != 1) {
+         this.mapMethodType.put(method, Integer.valueOf(type));
+      } else {
+         this.mapMethodType.remove(method);
+      }
+
+   }
+
+   private void eliminateStaticAccess(ClassesProcessor.ClassNode node) {
+      if(node.type != 8) {
+         Iterator var2 = node.getWrapper().getMethods().iterator();
+
+         label69:
+         while(true) {
+            MethodWrapper child;
+            do {
+               if(!var2.hasNext()) {
+                  var2 = node.nested.iterator();
+
+                  while(var2.hasNext()) {
+                     ClassesProcessor.ClassNode var12 = (ClassesProcessor.ClassNode)var2.next();
+                     this.eliminateStaticAccess(var12);
+                  }
+
+                  return;
+               }
+
+               child = (MethodWrapper)var2.next();
+            } while(child.root == null);
+
+            boolean replaced = false;
+            DirectGraph graph = child.getOrBuildGraph();
+            HashSet setVisited = new HashSet();
+            LinkedList stack = new LinkedList();
+            stack.add(graph.first);
+
+            while(true) {
+               DirectNode nd;
+               do {
+                  if(stack.isEmpty()) {
+                     if(replaced) {
+                        this.computeMethodType(node, child);
+                     }
+                     continue label69;
+                  }
+
+                  nd = (DirectNode)stack.removeFirst();
+               } while(setVisited.contains(nd));
+
+               setVisited.add(nd);
+
+               for(int i = 0; i < nd.exprents.size(); ++i) {
+                  Exprent ndx = (Exprent)nd.exprents.get(i);
+                  replaced |= this.replaceInvocations(node, child, ndx);
+                  if(ndx.type == 8) {
+                     Exprent ret = this.replaceAccessExprent(node, child, (InvocationExprent)ndx);
+                     if(ret != null) {
+                        nd.exprents.set(i, ret);
+                        replaced = true;
+                     }
+                  }
+               }
+
+               Iterator var13 = nd.succs.iterator();
+
+               while(var13.hasNext()) {
+                  DirectNode var14 = (DirectNode)var13.next();
+                  stack.add(var14);
+               }
+            }
+         }
+      }
+   }
+
+   private boolean replaceInvocations(ClassesProcessor.ClassNode caller, MethodWrapper meth, Exprent exprent) {
+      boolean res = false;
+
+      Exprent expr;
+      for(Iterator found = exprent.getAllExprents().iterator(); found.hasNext(); res |= this.replaceInvocations(caller, meth, expr)) {
+         expr = (Exprent)found.next();
+      }
+
+      boolean found1;
+      do {
+         found1 = false;
+         Iterator expr2 = exprent.getAllExprents().iterator();
+
+         while(expr2.hasNext()) {
+            Exprent expr1 = (Exprent)expr2.next();
+            if(expr1.type == 8) {
+               Exprent newexpr = this.replaceAccessExprent(caller, meth, (InvocationExprent)expr1);
+               if(newexpr != null) {
+                  exprent.replaceExprent(expr1, newexpr);
+                  found1 = true;
+                  res = true;
+                  break;
+               }
+            }
+         }
+      } while(found1);
+
+      return res;
+   }
+
+   private static boolean sameTree(ClassesProcessor.ClassNode caller, ClassesProcessor.ClassNode callee) {
+      if(caller.classStruct.qualifiedName.equals(callee.classStruct.qualifiedName)) {
+         return false;
+      } else {
+         while(caller.parent != null) {
+            caller = caller.parent;
+         }
+
+         while(callee.parent != null) {
+            callee = callee.parent;
+         }
+
+         return caller == callee;
+      }
+   }
+
+   private Exprent replaceAccessExprent(ClassesProcessor.ClassNode caller, MethodWrapper methdest, InvocationExprent invexpr) {
+      ClassesProcessor.ClassNode node = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(invexpr.getClassname());
+      MethodWrapper methsource = null;
+      if(node != null && node.getWrapper() != null) {
+         methsource = node.getWrapper().getMethodWrapper(invexpr.getName(), invexpr.getStringDescriptor());
+      }
+
+      if(methsource != null && this.mapMethodType.containsKey(methsource)) {
+         if(node.classStruct.qualifiedName.equals(caller.classStruct.qualifiedName) && methsource.methodStruct.getName().equals(methdest.methodStruct.getName()) && methsource.methodStruct.getDescriptor().equals(methdest.methodStruct.getDescriptor())) {
+            return null;
+         } else {
+            int type = ((Integer)this.mapMethodType.get(methsource)).intValue();
+            if(!sameTree(caller, node)) {
+               return null;
+            } else {
+               DirectGraph graph = methsource.getOrBuildGraph();
+               Exprent source = (Exprent)graph.first.exprents.get(0);
+               Object retexprent = null;
+               switch(type) {
+               case 2:
+                  ExitExprent hide = (ExitExprent)source;
+                  if(hide.getValue().type == 12) {
+                     VarExprent var17 = (VarExprent)hide.getValue();
+                     String var20 = methsource.varproc.getVarName(new VarVersionPair(var17));
+                     if(!methdest.setOuterVarNames.contains(var20)) {
+                        VarNamesCollector var22 = new VarNamesCollector();
+                        var22.addName(var20);
+                        methdest.varproc.refreshVarNames(var22);
+                        methdest.setOuterVarNames.add(var20);
+                     }
+
+                     int var23 = methdest.counter.getCounterAndIncrement(2);
+                     VarExprent var24 = new VarExprent(var23, var17.getVarType(), methdest.varproc);
+                     methdest.varproc.setVarName(new VarVersionPair(var23, 0), var20);
+                     retexprent = var24;
+                  } else {
+                     FieldExprent var18 = (FieldExprent)hide.getValue().copy();
+                     if(!var18.isStatic()) {
+                        var18.replaceExprent(var18.getInstance(), (Exprent)invexpr.getLstParameters().get(0));
+                     }
+
+                     retexprent = var18;
+                  }
+                  break;
+               case 3:
+                  AssignmentExprent mt;
+                  if(source.type == 4) {
+                     ExitExprent fexpr = (ExitExprent)source;
+                     mt = (AssignmentExprent)fexpr.getValue().copy();
+                  } else {
+                     mt = (AssignmentExprent)source.copy();
+                  }
+
+                  FieldExprent var19 = (FieldExprent)mt.getLeft();
+                  if(var19.isStatic()) {
+                     mt.replaceExprent(mt.getRight(), (Exprent)invexpr.getLstParameters().get(0));
+                  } else {
+                     mt.replaceExprent(mt.getRight(), (Exprent)invexpr.getLstParameters().get(1));
+                     var19.replaceExprent(var19.getInstance(), (Exprent)invexpr.getLstParameters().get(0));
+                  }
+
+                  retexprent = mt;
+                  break;
+               case 4:
+                  if(source.type == 4) {
+                     source = ((ExitExprent)source).getValue();
+                  }
+
+                  InvocationExprent invret = (InvocationExprent)source.copy();
+                  byte index = 0;
+                  if(!invret.isStatic()) {
+                     invret.replaceExprent(invret.getInstance(), (Exprent)invexpr.getLstParameters().get(0));
+                     index = 1;
+                  }
+
+                  for(int i = 0; i < invret.getLstParameters().size(); ++i) {
+                     invret.replaceExprent((Exprent)invret.getLstParameters().get(i), (Exprent)invexpr.getLstParameters().get(i + index));
+                  }
+
+                  retexprent = invret;
+               }
+
+               if(retexprent != null) {
+                  boolean var16 = true;
+                  if(node.type == 0 || (node.access & 8) != 0) {
+                     StructMethod var21 = methsource.methodStruct;
+                     if(!var21.isSynthetic()) {
+                        var16 = false;
+                     }
+                  }
+
+                  if(var16) {
+                     node.getWrapper().getHiddenMembers().add(InterpreterUtil.makeUniqueKey(invexpr.getName(), invexpr.getStringDescriptor()));
+                  }
+               }
+
+               return (Exprent)retexprent;
+            }
+         }
+      } else {
+         return null;
+      }
+   }
+}
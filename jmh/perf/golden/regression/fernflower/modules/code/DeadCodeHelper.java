@@ -0,0 +1,429 @@
+package regression.fernflower.modules.code;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.code.Instruction;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.code.cfg.ControlFlowGraph;
+import regression.fernflower.code.cfg.ExceptionRangeCFG;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.util.VBStyleCollection;
+
+public class DeadCodeHelper {
+   public static void removeDeadBlocks(ControlFlowGraph graph) {
+      LinkedList stack = new LinkedList();
+      HashSet setStacked = new HashSet();
+      stack.add(graph.getFirst());
+      setStacked.add(graph.getFirst());
+
+      while(!stack.isEmpty()) {
+         BasicBlock setAllBlocks = (BasicBlock)stack.removeFirst();
+         ArrayList lstSuccs = new ArrayList(setAllBlocks.getSuccs());
+         lstSuccs.addAll(setAllBlocks.getSuccExceptions());
+         Iterator block = lstSuccs.iterator();
+
+         while(block.hasNext()) {
+            BasicBlock succ = (BasicBlock)block.next();
+            if(!setStacked.contains(succ)) {
+               stack.add(succ);
+               setStacked.add(succ);
+            }
+         }
+      }
+
+      HashSet setAllBlocks1 = new HashSet(graph.getBlocks());
+      setAllBlocks1.removeAll(setStacked);
+      Iterator lstSuccs1 = setAllBlocks1.iterator();
+
+      while(lstSuccs1.hasNext()) {
+         BasicBlock block1 = (BasicBlock)lstSuccs1.next();
+         graph.removeBlock(block1);
+      }
+
+   }
+
+   public static void removeEmptyBlocks(ControlFlowGraph graph) {
+      VBStyleCollection blocks = graph.getBlocks();
+
+      boolean cont;
+      do {
+         cont = false;
+
+         for(int i = blocks.size() - 1; i >= 0; --i) {
+            BasicBlock block = (BasicBlock)blocks.get(i);
+            if(removeEmptyBlock(graph, block, false)) {
+               cont = true;
+               break;
+            }
+         }
+      } while(cont);
+
+   }
+
+   private static boolean removeEmptyBlock(ControlFlowGraph graph, BasicBlock block, boolean merging) {
+      boolean deletedRanges = false;
+      if(block.getSeq().isEmpty()) {
+         if(block.getSuccs().size() > 1) {
+            if(block.getPreds().size() > 1) {
+               throw new RuntimeException("ERROR: empty block with multiple predecessors and successors found");
+            }
+
+            if(!merging) {
+               throw new RuntimeException("ERROR: empty block with multiple successors found");
+            }
+         }
+
+         HashSet setExits = new HashSet(graph.getLast().getPreds());
+         if(block.getPredExceptions().isEmpty() && (!setExits.contains(block) || block.getPreds().size() == 1)) {
+            if(setExits.contains(block)) {
+               BasicBlock setPreds = (BasicBlock)block.getPreds().get(0);
+               if(setPreds.getSuccs().size() != 1 || !setPreds.getSeq().isEmpty() && setPreds.getSeq().getLastInstr().group == 3) {
+                  return false;
+               }
+            }
+
+            HashSet var13 = new HashSet(block.getPreds());
+            HashSet setSuccs = new HashSet(block.getSuccs());
+            HashSet setCommonExceptionHandlers = null;
+
+            Iterator setFinallyExits;
+            BasicBlock pred;
+            for(int lstRanges = 0; lstRanges < 2; ++lstRanges) {
+               setFinallyExits = (lstRanges == 0 ? var13 : setSuccs).iterator();
+
+               while(setFinallyExits.hasNext()) {
+                  pred = (BasicBlock)setFinallyExits.next();
+                  if(setCommonExceptionHandlers == null) {
+                     setCommonExceptionHandlers = new HashSet(pred.getSuccExceptions());
+                  } else {
+                     setCommonExceptionHandlers.retainAll(pred.getSuccExceptions());
+                  }
+               }
+            }
+
+            BasicBlock var16;
+            if(setCommonExceptionHandlers != null && !setCommonExceptionHandlers.isEmpty()) {
+               Iterator var14 = setCommonExceptionHandlers.iterator();
+
+               while(var14.hasNext()) {
+                  var16 = (BasicBlock)var14.next();
+                  if(!block.getSuccExceptions().contains(var16)) {
+                     return false;
+                  }
+               }
+            }
+
+            List var15 = graph.getExceptions();
+
+            for(int var17 = var15.size() - 1; var17 >= 0; --var17) {
+               ExceptionRangeCFG var18 = (ExceptionRangeCFG)var15.get(var17);
+               List lst = var18.getProtectedRange();
+               if(lst.size() == 1 && lst.get(0) == block) {
+                  if(!DecompilerContext.getOption("rer")) {
+                     return false;
+                  }
+
+                  block.removeSuccessorException(var18.getHandler());
+                  var15.remove(var17);
+                  deletedRanges = true;
+               }
+            }
+
+            BasicBlock succ;
+            Iterator var21;
+            if(merging) {
+               var16 = (BasicBlock)block.getPreds().get(0);
+               var16.removeSuccessor(block);
+               ArrayList var19 = new ArrayList(block.getSuccs());
+               var21 = var19.iterator();
+
+               while(var21.hasNext()) {
+                  succ = (BasicBlock)var21.next();
+                  block.removeSuccessor(succ);
+                  var16.addSuccessor(succ);
+               }
+            } else {
+               setFinallyExits = var13.iterator();
+
+               while(setFinallyExits.hasNext()) {
+                  pred = (BasicBlock)setFinallyExits.next();
+                  var21 = setSuccs.iterator();
+
+                  while(var21.hasNext()) {
+                     succ = (BasicBlock)var21.next();
+                     pred.replaceSuccessor(block, succ);
+                  }
+               }
+            }
+
+            Set var20 = graph.getFinallyExits();
+            if(var20.contains(block)) {
+               var20.remove(block);
+               var20.add((BasicBlock)var13.iterator().next());
+            }
+
+            if(graph.getFirst() == block) {
+               if(setSuccs.size() != 1) {
+                  throw new RuntimeException("multiple or no entry blocks!");
+               }
+
+               graph.setFirst((BasicBlock)setSuccs.iterator().next());
+            }
+
+            graph.removeBlock(block);
+            if(deletedRanges) {
+               removeDeadBlocks(graph);
+            }
+         }
+      }
+
+      return deletedRanges;
+   }
+
+   public static boolean isDominator(ControlFlowGraph graph, BasicBlock block, BasicBlock dom) {
+      HashSet marked = new HashSet();
+      if(block == dom) {
+         return true;
+      } else {
+         LinkedList lstNodes = new LinkedList();
+         lstNodes.add(block);
+
+         while(true) {
+            BasicBlock node;
+            do {
+               if(lstNodes.isEmpty()) {
+                  return true;
+               }
+
+               node = (BasicBlock)lstNodes.remove(0);
+            } while(marked.contains(node));
+
+            marked.add(node);
+            if(node == graph.getFirst()) {
+               return false;
+            }
+
+            int i;
+            BasicBlock pred;
+            for(i = 0; i < node.getPreds().size(); ++i) {
+               pred = (BasicBlock)node.getPreds().get(i);
+               if(!marked.contains(pred) && pred != dom) {
+                  lstNodes.add(pred);
+               }
+            }
+
+            for(i = 0; i < node.getPredExceptions().size(); ++i) {
+               pred = (BasicBlock)node.getPredExceptions().get(i);
+               if(!marked.contains(pred) && pred != dom) {
+                  lstNodes.add(pred);
+               }
+            }
+         }
+      }
+   }
+
+   public static void removeGotos(ControlFlowGraph graph) {
+      Iterator var1 = graph.getBlocks().iterator();
+
+      while(var1.hasNext()) {
+         BasicBlock block = (BasicBlock)var1.next();
+         Instruction instr = block.getLastInstruction();
+         if(instr != null && instr.opcode == 167) {
+            block.getSeq().removeInstruction(block.getSeq().length() - 1);
+         }
+      }
+
+      removeEmptyBlocks(graph);
+   }
+
+   public static void connectDummyExitBlock(ControlFlowGraph graph) {
+      BasicBlock exit = graph.getLast();
+      Iterator var2 = (new HashSet(exit.getPreds())).iterator();
+
+      while(var2.hasNext()) {
+         BasicBlock block = (BasicBlock)var2.next();
+         exit.removePredecessor(block);
+         block.addSuccessor(exit);
+      }
+
+   }
+
+   public static void incorporateValueReturns(ControlFlowGraph graph) {
+      Iterator var1 = graph.getBlocks().iterator();
+
+      while(true) {
+         BasicBlock block;
+         BasicBlock bpred1;
+         do {
+            do {
+               do {
+                  boolean ok;
+                  do {
+                     InstructionSequence seq;
+                     int len;
+                     do {
+                        do {
+                           if(!var1.hasNext()) {
+                              return;
+                           }
+
+                           block = (BasicBlock)var1.next();
+                           seq = block.getSeq();
+                           len = seq.length();
+                        } while(len <= 0);
+                     } while(len >= 3);
+
+                     ok = false;
+                     if(seq.getLastInstr().opcode >= 172 && seq.getLastInstr().opcode <= 177) {
+                        if(len == 1) {
+                           ok = true;
+                        } else if(seq.getLastInstr().opcode != 177) {
+                           switch(seq.getInstr(0).opcode) {
+                           case 1:
+                           case 9:
+                           case 10:
+                           case 11:
+                           case 12:
+                           case 13:
+                           case 14:
+                           case 15:
+                           case 16:
+                           case 17:
+                           case 18:
+                           case 19:
+                           case 20:
+                           case 21:
+                           case 22:
+                           case 23:
+                           case 24:
+                           case 25:
+                              ok = true;
+                           case 2:
+                           case 3:
+                           case 4:
+                           case 5:
+                           case 6:
+                           case 7:
+                           case 8:
+                           }
+                        }
+                     }
+                  } while(!ok);
+
+                  if(!block.getPreds().isEmpty()) {
+                     HashSet bpred = new HashSet();
+                     HashSet setPredHandlersIntersection = new HashSet();
+                     boolean succ = true;
+
+                     BasicBlock setRangesToBeRemoved;
+                     for(Iterator range = block.getPreds().iterator(); range.hasNext(); bpred.addAll(setRangesToBeRemoved.getSuccExceptions())) {
+                        setRangesToBeRemoved = (BasicBlock)range.next();
+                        if(succ) {
+                           setPredHandlersIntersection.addAll(setRangesToBeRemoved.getSuccExceptions());
+                           succ = false;
+                        } else {
+                           setPredHandlersIntersection.retainAll(setRangesToBeRemoved.getSuccExceptions());
+                        }
+                     }
+
+                     setPredHandlersIntersection.removeAll(block.getSuccExceptions());
+                     BasicBlock range2 = (BasicBlock)block.getPreds().get(0);
+                     Iterator setRangesToBeRemoved1 = setPredHandlersIntersection.iterator();
+
+                     while(setRangesToBeRemoved1.hasNext()) {
+                        BasicBlock handler = (BasicBlock)setRangesToBeRemoved1.next();
+                        ExceptionRangeCFG handler1 = graph.getExceptionRange(handler, range2);
+                        handler1.getProtectedRange().add(block);
+                        block.addSuccessorException(handler);
+                     }
+
+                     HashSet setRangesToBeRemoved2 = new HashSet(block.getSuccExceptions());
+                     setRangesToBeRemoved2.removeAll(bpred);
+                     Iterator handler2 = setRangesToBeRemoved2.iterator();
+
+                     while(handler2.hasNext()) {
+                        BasicBlock handler3 = (BasicBlock)handler2.next();
+                        ExceptionRangeCFG range1 = graph.getExceptionRange(handler3, block);
+                        if(range1.getProtectedRange().size() > 1) {
+                           range1.getProtectedRange().remove(block);
+                           block.removeSuccessorException(handler3);
+                        }
+                     }
+                  }
+               } while(block.getPreds().size() != 1);
+            } while(!block.getPredExceptions().isEmpty());
+
+            bpred1 = (BasicBlock)block.getPreds().get(0);
+         } while(bpred1.getSuccs().size() != 1);
+
+         Iterator setPredHandlersIntersection1 = bpred1.getSuccExceptions().iterator();
+
+         BasicBlock succ1;
+         ExceptionRangeCFG range3;
+         while(setPredHandlersIntersection1.hasNext()) {
+            succ1 = (BasicBlock)setPredHandlersIntersection1.next();
+            if(!block.getSuccExceptions().contains(succ1)) {
+               range3 = graph.getExceptionRange(succ1, bpred1);
+               range3.getProtectedRange().add(block);
+               block.addSuccessorException(succ1);
+            }
+         }
+
+         setPredHandlersIntersection1 = (new HashSet(block.getSuccExceptions())).iterator();
+
+         while(setPredHandlersIntersection1.hasNext()) {
+            succ1 = (BasicBlock)setPredHandlersIntersection1.next();
+            if(!bpred1.getSuccExceptions().contains(succ1)) {
+               range3 = graph.getExceptionRange(succ1, block);
+               if(range3.getProtectedRange().size() > 1) {
+                  range3.getProtectedRange().remove(block);
+                  block.removeSuccessorException(succ1);
+               }
+            }
+         }
+      }
+   }
+
+   public static void mergeBasicBlocks(ControlFlowGraph graph) {
+      boolean merged;
+      do {
+         merged = false;
+         Iterator var2 = graph.getBlocks().iterator();
+
+         while(var2.hasNext()) {
+            BasicBlock block = (BasicBlock)var2.next();
+            InstructionSequence seq = block.getSeq();
+            if(block.getSuccs().size() == 1) {
+               BasicBlock next = (BasicBlock)block.getSuccs().get(0);
+               if(next != graph.getLast() && (seq.isEmpty() || seq.getLastInstr().group != 3) && next.getPreds().size() == 1 && next.getPredExceptions().isEmpty() && next != graph.getFirst()) {
+                  boolean sameRanges = true;
+                  Iterator var7 = graph.getExceptions().iterator();
+
+                  while(var7.hasNext()) {
+                     ExceptionRangeCFG range = (ExceptionRangeCFG)var7.next();
+                     if(range.getProtectedRange().contains(block) ^ range.getProtectedRange().contains(next)) {
+                        sameRanges = false;
+                        break;
+                     }
+                  }
+
+                  if(sameRanges) {
+                     seq.addSequence(next.getSeq());
+                     block.getInstrOldOffsets().addAll(next.getInstrOldOffsets());
+                     next.getSeq().clear();
+                     removeEmptyBlock(graph, next, true);
+                     merged = true;
+                     break;
+                  }
+               }
+            }
+         }
+      } while(merged);
+
+   }
+}
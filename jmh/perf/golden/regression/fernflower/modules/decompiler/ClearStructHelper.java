@@ -0,0 +1,19 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.LinkedList;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+
+public class ClearStructHelper {
+   public static void clearStatements(RootStatement root) {
+      LinkedList stack = new LinkedList();
+      stack.add(root);
+
+      while(!stack.isEmpty()) {
+         Statement stat = (Statement)stack.removeFirst();
+         stat.clearTempInformation();
+         stack.addAll(stat.getStats());
+      }
+
+   }
+}
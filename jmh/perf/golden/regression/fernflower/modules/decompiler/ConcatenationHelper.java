@@ -0,0 +1,179 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.VarType;
+
+public class ConcatenationHelper {
+   private static final String builderClass = "java/lang/StringBuilder";
+   private static final String bufferClass = "java/lang/StringBuffer";
+   private static final String stringClass = "java/lang/String";
+   private static final VarType builderType = new VarType(8, 0, "java/lang/StringBuilder");
+   private static final VarType bufferType = new VarType(8, 0, "java/lang/StringBuffer");
+
+   public static Exprent contractStringConcat(Exprent expr) {
+      Exprent exprTmp = null;
+      VarType cltype = null;
+      if(expr.type == 8) {
+         InvocationExprent lstOperands = (InvocationExprent)expr;
+         if("toString".equals(lstOperands.getName())) {
+            if("java/lang/StringBuilder".equals(lstOperands.getClassname())) {
+               cltype = builderType;
+            } else if("java/lang/StringBuffer".equals(lstOperands.getClassname())) {
+               cltype = bufferType;
+            }
+
+            if(cltype != null) {
+               exprTmp = lstOperands.getInstance();
+            }
+         }
+      }
+
+      if(exprTmp == null) {
+         return expr;
+      } else {
+         ArrayList var10 = new ArrayList();
+
+         byte first2str;
+         do {
+            first2str = 0;
+            switch(exprTmp.type) {
+            case 8:
+               InvocationExprent index = (InvocationExprent)exprTmp;
+               if(isAppendConcat(index, cltype)) {
+                  var10.add(0, (Exprent)index.getLstParameters().get(0));
+                  exprTmp = index.getInstance();
+                  first2str = 1;
+               }
+               break;
+            case 10:
+               NewExprent func = (NewExprent)exprTmp;
+               if(isNewConcat(func, cltype)) {
+                  VarType[] i = func.getConstructor().getDescriptor().params;
+                  if(i.length == 1) {
+                     var10.add(0, (Exprent)func.getConstructor().getLstParameters().get(0));
+                  }
+
+                  first2str = 2;
+               }
+            }
+
+            if(first2str == 0) {
+               return expr;
+            }
+         } while(first2str != 2);
+
+         int var11 = 0;
+
+         for(int var12 = 0; var12 < var10.size() && var12 < 2; ++var12) {
+            if(((Exprent)var10.get(var12)).getExprType().equals(VarType.VARTYPE_STRING)) {
+               var11 |= var12 + 1;
+            }
+         }
+
+         if(var11 == 0) {
+            var10.add(0, new ConstExprent(VarType.VARTYPE_STRING, "", expr.bytecode));
+         }
+
+         for(int var13 = 0; var13 < var10.size(); ++var13) {
+            Exprent var15 = removeStringValueOf((Exprent)var10.get(var13));
+            boolean lstTmp = var13 > 1;
+            if(!lstTmp) {
+               boolean isstr = var15.getExprType().equals(VarType.VARTYPE_STRING);
+               lstTmp = isstr || var11 != var13 + 1;
+               if(var13 == 0) {
+                  var11 &= 2;
+               }
+            }
+
+            if(lstTmp) {
+               var10.set(var13, var15);
+            }
+         }
+
+         Object var14 = (Exprent)var10.get(0);
+
+         for(int var16 = 1; var16 < var10.size(); ++var16) {
+            ArrayList var17 = new ArrayList();
+            var17.add(var14);
+            var17.add((Exprent)var10.get(var16));
+            var14 = new FunctionExprent(50, var17, expr.bytecode);
+         }
+
+         return (Exprent)var14;
+      }
+   }
+
+   private static boolean isAppendConcat(InvocationExprent expr, VarType cltype) {
+      if("append".equals(expr.getName())) {
+         MethodDescriptor md = expr.getDescriptor();
+         if(md.ret.equals(cltype) && md.params.length == 1) {
+            VarType param = md.params[0];
+            switch(param.type) {
+            case 1:
+            case 2:
+            case 3:
+            case 4:
+            case 5:
+            case 7:
+               return true;
+            case 6:
+            default:
+               break;
+            case 8:
+               if(param.equals(VarType.VARTYPE_STRING) || param.equals(VarType.VARTYPE_OBJECT)) {
+                  return true;
+               }
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean isNewConcat(NewExprent expr, VarType cltype) {
+      if(expr.getNewType().equals(cltype)) {
+         VarType[] params = expr.getConstructor().getDescriptor().params;
+         if(params.length == 0 || params.length == 1 && params[0].equals(VarType.VARTYPE_STRING)) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   private static Exprent removeStringValueOf(Exprent exprent) {
+      if(exprent.type == 8) {
+         InvocationExprent iex = (InvocationExprent)exprent;
+         if("valueOf".equals(iex.getName()) && "java/lang/String".equals(iex.getClassname())) {
+            MethodDescriptor md = iex.getDescriptor();
+            if(md.params.length == 1) {
+               VarType param = md.params[0];
+               switch(param.type) {
+               case 1:
+               case 2:
+               case 3:
+               case 4:
+               case 5:
+               case 7:
+                  return (Exprent)iex.getLstParameters().get(0);
+               case 6:
+               default:
+                  break;
+               case 8:
+                  if(param.equals(VarType.VARTYPE_OBJECT)) {
+                     return (Exprent)iex.getLstParameters().get(0);
+                  }
+               }
+            }
+         }
+      }
+
+      return exprent;
+   }
+}
@@ -0,0 +1,188 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.stats.Statement;
+
+public class DecHelper {
+   public static boolean checkStatementExceptions(List lst) {
+      HashSet all = new HashSet(lst);
+      HashSet handlers = new HashSet();
+      Set intersection = null;
+      Iterator i = lst.iterator();
+
+      Statement stat;
+      while(i.hasNext()) {
+         stat = (Statement)i.next();
+         Set setNew = stat.getNeighboursSet(2, 1);
+         if(intersection == null) {
+            intersection = setNew;
+         } else {
+            HashSet interclone = new HashSet(intersection);
+            interclone.removeAll(setNew);
+            intersection.retainAll(setNew);
+            setNew.removeAll(intersection);
+            handlers.addAll(interclone);
+            handlers.addAll(setNew);
+         }
+      }
+
+      i = handlers.iterator();
+
+      do {
+         if(!i.hasNext()) {
+            for(int var8 = 1; var8 < lst.size(); ++var8) {
+               stat = (Statement)lst.get(var8);
+               if(!stat.getPredecessorEdges(2).isEmpty() && !handlers.contains(stat)) {
+                  return false;
+               }
+            }
+
+            return true;
+         }
+
+         stat = (Statement)i.next();
+      } while(all.contains(stat) && all.containsAll(stat.getNeighbours(2, 0)));
+
+      return false;
+   }
+
+   public static boolean isChoiceStatement(Statement head, List lst) {
+      Statement post = null;
+      Set setDest = head.getNeighboursSet(1, 1);
+      if(setDest.contains(head)) {
+         return false;
+      } else {
+         boolean repeat;
+         do {
+            lst.clear();
+            repeat = false;
+            setDest.remove(post);
+
+            Statement stat;
+            for(Iterator var5 = setDest.iterator(); var5.hasNext(); lst.add(stat)) {
+               stat = (Statement)var5.next();
+               if(stat.getLastBasicType() != 2) {
+                  if(post != null) {
+                     return false;
+                  }
+
+                  post = stat;
+                  repeat = true;
+                  break;
+               }
+
+               Set setPred = stat.getNeighboursSet(1, 0);
+               setPred.remove(head);
+               if(setPred.contains(stat)) {
+                  return false;
+               }
+
+               if(!setDest.containsAll(setPred) || setPred.size() > 1) {
+                  if(post != null) {
+                     return false;
+                  }
+
+                  post = stat;
+                  repeat = true;
+                  break;
+               }
+
+               Set edge;
+               if(setPred.size() == 1) {
+                  Statement lstEdges = (Statement)setPred.iterator().next();
+
+                  while(lst.contains(lstEdges)) {
+                     edge = lstEdges.getNeighboursSet(1, 0);
+                     edge.remove(head);
+                     if(edge.isEmpty()) {
+                        break;
+                     }
+
+                     lstEdges = (Statement)edge.iterator().next();
+                     if(lstEdges == stat) {
+                        return false;
+                     }
+                  }
+               }
+
+               List lstEdges1 = stat.getSuccessorEdges(1073741824);
+               if(lstEdges1.size() > 1) {
+                  edge = stat.getNeighboursSet(1073741824, 1);
+                  edge.retainAll(setDest);
+                  if(edge.size() > 0) {
+                     return false;
+                  }
+
+                  if(post != null) {
+                     return false;
+                  }
+
+                  post = stat;
+                  repeat = true;
+                  break;
+               }
+
+               if(lstEdges1.size() == 1) {
+                  StatEdge edge1 = (StatEdge)lstEdges1.get(0);
+                  if(edge1.getType() == 1) {
+                     Statement statd = edge1.getDestination();
+                     if(head == statd) {
+                        return false;
+                     }
+
+                     if(!setDest.contains(statd) && post != statd) {
+                        if(post != null) {
+                           return false;
+                        }
+
+                        Set set = statd.getNeighboursSet(1, 0);
+                        if(set.size() <= 1) {
+                           return false;
+                        }
+
+                        post = statd;
+                        repeat = true;
+                        break;
+                     }
+                  }
+               }
+            }
+         } while(repeat);
+
+         lst.add(head);
+         lst.remove(post);
+         lst.add(0, post);
+         return true;
+      }
+   }
+
+   public static HashSet getUniquePredExceptions(Statement head) {
+      HashSet setHandlers = new HashSet(head.getNeighbours(2, 1));
+      Iterator it = setHandlers.iterator();
+
+      while(it.hasNext()) {
+         if(((Statement)it.next()).getPredecessorEdges(2).size() > 1) {
+            it.remove();
+         }
+      }
+
+      return setHandlers;
+   }
+
+   public static List copyExprentList(List lst) {
+      ArrayList ret = new ArrayList();
+      Iterator var2 = lst.iterator();
+
+      while(var2.hasNext()) {
+         Exprent expr = (Exprent)var2.next();
+         ret.add(expr.copy());
+      }
+
+      return ret;
+   }
+}
@@ -0,0 +1,610 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.code.cfg.ControlFlowGraph;
+import regression.fernflower.code.cfg.ExceptionRangeCFG;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.modules.decompiler.decompose.FastExtendedPostdominanceHelper;
+import regression.fernflower.modules.decompiler.deobfuscator.IrreducibleCFGDeobfuscator;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.CatchAllStatement;
+import regression.fernflower.modules.decompiler.stats.CatchStatement;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.GeneralStatement;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.SequenceStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.stats.SwitchStatement;
+import regression.fernflower.modules.decompiler.stats.SynchronizedStatement;
+import regression.fernflower.util.FastFixedSetFactory;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.VBStyleCollection;
+
+public class DomHelper {
+   private static RootStatement graphToStatement(ControlFlowGraph graph) {
+      VBStyleCollection stats = new VBStyleCollection();
+      VBStyleCollection blocks = graph.getBlocks();
+      Iterator firstblock = blocks.iterator();
+
+      while(firstblock.hasNext()) {
+         BasicBlock firstst = (BasicBlock)firstblock.next();
+         stats.addWithKey(new BasicBlockStatement(firstst), Integer.valueOf(firstst.id));
+      }
+
+      BasicBlock firstblock1 = graph.getFirst();
+      Statement firstst1 = (Statement)stats.getWithKey(Integer.valueOf(firstblock1.id));
+      Statement dummyexit = new Statement();
+      dummyexit.type = 14;
+      if(stats.size() <= 1 && !firstblock1.isSuccessor(firstblock1)) {
+         RootStatement root1 = new RootStatement(firstst1, dummyexit);
+         firstst1.addSuccessor(new StatEdge(4, firstst1, dummyexit, root1));
+         return root1;
+      } else {
+         GeneralStatement general = new GeneralStatement(firstst1, stats, (Statement)null);
+         Iterator root = blocks.iterator();
+
+         while(root.hasNext()) {
+            BasicBlock block = (BasicBlock)root.next();
+            Statement stat = (Statement)stats.getWithKey(Integer.valueOf(block.id));
+
+            Iterator var10;
+            BasicBlock succex;
+            Statement stsuccex;
+            byte range;
+            for(var10 = block.getSuccs().iterator(); var10.hasNext(); stat.addSuccessor(new StatEdge(range, stat, (Statement)(range == 8 ? general : stsuccex), range == 1 ? null : general))) {
+               succex = (BasicBlock)var10.next();
+               stsuccex = (Statement)stats.getWithKey(Integer.valueOf(succex.id));
+               if(stsuccex == firstst1) {
+                  range = 8;
+               } else if(graph.getFinallyExits().contains(block)) {
+                  range = 32;
+                  stsuccex = dummyexit;
+               } else if(succex.id == graph.getLast().id) {
+                  range = 4;
+                  stsuccex = dummyexit;
+               } else {
+                  range = 1;
+               }
+            }
+
+            var10 = block.getSuccExceptions().iterator();
+
+            while(var10.hasNext()) {
+               succex = (BasicBlock)var10.next();
+               stsuccex = (Statement)stats.getWithKey(Integer.valueOf(succex.id));
+               ExceptionRangeCFG range1 = graph.getExceptionRange(succex, block);
+               if(!range1.isCircular()) {
+                  stat.addSuccessor(new StatEdge(stat, stsuccex, range1.getExceptionTypes()));
+               }
+            }
+         }
+
+         general.buildContinueSet();
+         general.buildMonitorFlags();
+         return new RootStatement(general, dummyexit);
+      }
+   }
+
+   public static VBStyleCollection calcPostDominators(Statement container) {
+      HashMap lists = new HashMap();
+      StrongConnectivityHelper schelper = new StrongConnectivityHelper(container);
+      List components = schelper.getComponents();
+      List lstStats = container.getPostReversePostOrderList(StrongConnectivityHelper.getExitReps(components));
+      FastFixedSetFactory factory = new FastFixedSetFactory(lstStats);
+      FastFixedSetFactory.FastFixedSet setFlagNodes = factory.spawnEmptySet();
+      setFlagNodes.setAllElements();
+      FastFixedSetFactory.FastFixedSet initSet = factory.spawnEmptySet();
+      initSet.setAllElements();
+      Iterator ret = components.iterator();
+
+      List lstRevPost;
+      FastFixedSetFactory.FastFixedSet mapSortOrder;
+      Iterator i;
+      Statement st;
+      while(ret.hasNext()) {
+         lstRevPost = (List)ret.next();
+         if(StrongConnectivityHelper.isExitComponent(lstRevPost)) {
+            mapSortOrder = factory.spawnEmptySet();
+            mapSortOrder.addAll(lstRevPost);
+         } else {
+            mapSortOrder = initSet.getCopy();
+         }
+
+         i = lstRevPost.iterator();
+
+         while(i.hasNext()) {
+            st = (Statement)i.next();
+            lists.put(st, mapSortOrder);
+         }
+      }
+
+      Iterator var24;
+      Statement var25;
+      label95:
+      do {
+         ret = lstStats.iterator();
+
+         while(true) {
+            Statement var17;
+            FastFixedSetFactory.FastFixedSet var19;
+            do {
+               do {
+                  if(!ret.hasNext()) {
+                     continue label95;
+                  }
+
+                  var17 = (Statement)ret.next();
+               } while(!setFlagNodes.contains((Object)var17));
+
+               setFlagNodes.remove(var17);
+               mapSortOrder = (FastFixedSetFactory.FastFixedSet)lists.get(var17);
+               var19 = factory.spawnEmptySet();
+               List var21 = var17.getNeighbours(1, 1);
+
+               for(int lstPosts = 0; lstPosts < var21.size(); ++lstPosts) {
+                  Statement succ = (Statement)var21.get(lstPosts);
+                  FastFixedSetFactory.FastFixedSet stt = (FastFixedSetFactory.FastFixedSet)lists.get(succ);
+                  if(lstPosts == 0) {
+                     var19.union(stt);
+                  } else {
+                     var19.intersection(stt);
+                  }
+               }
+
+               if(!var19.contains((Object)var17)) {
+                  var19.add(var17);
+               }
+            } while(InterpreterUtil.equalObjects(var19, mapSortOrder));
+
+            lists.put(var17, var19);
+            List var22 = var17.getNeighbours(1, 0);
+            var24 = var22.iterator();
+
+            while(var24.hasNext()) {
+               var25 = (Statement)var24.next();
+               setFlagNodes.add(var25);
+            }
+         }
+      } while(!setFlagNodes.isEmpty());
+
+      VBStyleCollection var16 = new VBStyleCollection();
+      lstRevPost = container.getReversePostOrderList();
+      final HashMap var18 = new HashMap();
+
+      for(int var20 = 0; var20 < lstRevPost.size(); ++var20) {
+         var18.put(((Statement)lstRevPost.get(var20)).id, Integer.valueOf(var20));
+      }
+
+      ArrayList var23;
+      for(i = lstStats.iterator(); i.hasNext(); var16.addWithKey(var23, st.id)) {
+         st = (Statement)i.next();
+         var23 = new ArrayList();
+         var24 = ((FastFixedSetFactory.FastFixedSet)lists.get(st)).iterator();
+
+         while(var24.hasNext()) {
+            var25 = (Statement)var24.next();
+            var23.add(var25.id);
+         }
+
+         Collections.sort(var23, new Comparator() {
+            public int compare(Integer o1, Integer o2) {
+               return ((Integer)var18.get(o1)).compareTo((Integer)var18.get(o2));
+            }
+         });
+         if(var23.size() > 1 && ((Integer)var23.get(0)).intValue() == st.id.intValue()) {
+            var23.add((Integer)var23.remove(0));
+         }
+      }
+
+      return var16;
+   }
+
+   public static RootStatement parseGraph(ControlFlowGraph graph) {
+      RootStatement root = graphToStatement(graph);
+      if(!processStatement(root, new HashMap())) {
+         throw new RuntimeException("parsing failure!");
+      } else {
+         LabelHelper.lowContinueLabels(root, new HashSet());
+         SequenceHelper.condenseSequences(root);
+         root.buildMonitorFlags();
+         buildSynchronized(root);
+         return root;
+      }
+   }
+
+   public static void removeSynchronizedHandler(Statement stat) {
+      Iterator var1 = stat.getStats().iterator();
+
+      while(var1.hasNext()) {
+         Statement st = (Statement)var1.next();
+         removeSynchronizedHandler(st);
+      }
+
+      if(stat.type == 10) {
+         ((SynchronizedStatement)stat).removeExc();
+      }
+
+   }
+
+   private static void buildSynchronized(Statement stat) {
+      Iterator found = stat.getStats().iterator();
+
+      while(found.hasNext()) {
+         Statement lst = (Statement)found.next();
+         buildSynchronized(lst);
+      }
+
+      boolean var11;
+      if(stat.type == 15) {
+         do {
+            var11 = false;
+            VBStyleCollection var12 = stat.getStats();
+
+            for(int i = 0; i < var12.size() - 1; ++i) {
+               Statement current = (Statement)var12.get(i);
+               if(current.isMonitorEnter()) {
+                  Statement next = (Statement)var12.get(i + 1);
+
+                  Statement nextDirect;
+                  for(nextDirect = next; next.type == 15; next = next.getFirst()) {
+                  }
+
+                  if(next.type == 12) {
+                     CatchAllStatement ca = (CatchAllStatement)next;
+                     if(ca.getFirst().isContainsMonitorExit() && ca.getHandler().isContainsMonitorExit()) {
+                        current.removeSuccessor((StatEdge)current.getSuccessorEdges(1073741824).get(0));
+                        Iterator sync = current.getPredecessorEdges(1073741824).iterator();
+
+                        while(sync.hasNext()) {
+                           StatEdge edge = (StatEdge)sync.next();
+                           current.removePredecessor(edge);
+                           edge.getSource().changeEdgeNode(1, edge, nextDirect);
+                           nextDirect.addPredecessor(edge);
+                        }
+
+                        stat.getStats().removeWithKey(current.id);
+                        stat.setFirst((Statement)stat.getStats().get(0));
+                        SynchronizedStatement var13 = new SynchronizedStatement(current, ca.getFirst(), ca.getHandler());
+                        var13.setAllParent();
+                        Iterator var14 = (new HashSet(ca.getLabelEdges())).iterator();
+
+                        while(var14.hasNext()) {
+                           StatEdge edge1 = (StatEdge)var14.next();
+                           var13.addLabeledEdge(edge1);
+                        }
+
+                        current.addSuccessor(new StatEdge(1, current, ca.getFirst()));
+                        ca.getParent().replaceStatement(ca, var13);
+                        var11 = true;
+                        break;
+                     }
+                  }
+               }
+            }
+         } while(var11);
+      }
+
+   }
+
+   private static boolean processStatement(Statement general, HashMap mapExtPost) {
+      if(general.type == 13) {
+         Statement var9 = general.getFirst();
+         if(var9.type != 0) {
+            return true;
+         } else {
+            boolean var10 = processStatement(var9, mapExtPost);
+            if(var10) {
+               general.replaceStatement(var9, var9.getFirst());
+            }
+
+            return var10;
+         }
+      } else {
+         boolean mapRefreshed = mapExtPost.isEmpty();
+
+         for(int mapstage = 0; mapstage < 2; ++mapstage) {
+            for(int reducibility = 0; reducibility < 5; ++reducibility) {
+               if(reducibility > 0) {
+                  if(!IrreducibleCFGDeobfuscator.isStatementIrreducible(general)) {
+                     if(mapstage == 2 || mapRefreshed) {
+                        DecompilerContext.getLogger().writeMessage("Statement cannot be decomposed although reducible!", IFernflowerLogger.Severity.ERROR);
+                     }
+                     break;
+                  }
+
+                  if(!IrreducibleCFGDeobfuscator.splitIrreducibleNode(general)) {
+                     DecompilerContext.getLogger().writeMessage("Irreducible statement cannot be decomposed!", IFernflowerLogger.Severity.ERROR);
+                     break;
+                  }
+
+                  mapExtPost = new HashMap();
+                  mapRefreshed = true;
+               }
+
+               for(int i = 0; i < 2; ++i) {
+                  boolean forceall = i != 0;
+
+                  while(true) {
+                     if(findSimpleStatements(general, mapExtPost)) {
+                        reducibility = 0;
+                     }
+
+                     if(general.type == 11) {
+                        return true;
+                     }
+
+                     Statement stat = findGeneralStatement(general, forceall, mapExtPost);
+                     if(stat == null) {
+                        break;
+                     }
+
+                     boolean complete = processStatement(stat, general.getFirst() == stat ? mapExtPost : new HashMap());
+                     if(!complete) {
+                        return false;
+                     }
+
+                     general.replaceStatement(stat, stat.getFirst());
+                     mapExtPost = new HashMap();
+                     mapRefreshed = true;
+                     reducibility = 0;
+                  }
+               }
+            }
+
+            if(mapRefreshed) {
+               break;
+            }
+
+            mapExtPost = new HashMap();
+         }
+
+         return false;
+      }
+   }
+
+   private static Statement findGeneralStatement(Statement stat, boolean forceall, HashMap mapExtPost) {
+      VBStyleCollection stats = stat.getStats();
+      if(mapExtPost.isEmpty()) {
+         FastExtendedPostdominanceHelper k = new FastExtendedPostdominanceHelper();
+         mapExtPost.putAll(k.getExtendedPostdominators(stat));
+      }
+
+      VBStyleCollection vbPost;
+      if(forceall) {
+         vbPost = new VBStyleCollection();
+         List var23 = stat.getPostReversePostOrderList();
+         Iterator headid = var23.iterator();
+
+         while(headid.hasNext()) {
+            Statement posts = (Statement)headid.next();
+            Set head = (Set)mapExtPost.get(posts.id);
+            if(head != null) {
+               vbPost.addWithKey(new ArrayList(head), posts.id);
+            }
+         }
+
+         Set var25 = (Set)mapExtPost.get(stat.getFirst().id);
+         Object setExtPosts;
+         Integer var29;
+         if(var25 != null) {
+            for(Iterator var27 = var25.iterator(); var27.hasNext(); ((List)setExtPosts).add(var29)) {
+               var29 = (Integer)var27.next();
+               setExtPosts = (List)vbPost.getWithKey(var29);
+               if(setExtPosts == null) {
+                  vbPost.addWithKey(setExtPosts = new ArrayList(), var29);
+               }
+            }
+         }
+      } else {
+         vbPost = calcPostDominators(stat);
+      }
+
+      for(int var24 = 0; var24 < vbPost.size(); ++var24) {
+         Integer var26 = (Integer)vbPost.getKey(var24);
+         List var28 = (List)vbPost.get(var24);
+         if(mapExtPost.containsKey(var26) || var28.size() == 1 && ((Integer)var28.get(0)).equals(var26)) {
+            Statement var30 = (Statement)stats.getWithKey(var26);
+            Set var31 = (Set)mapExtPost.get(var26);
+
+            for(int i = 0; i < var28.size(); ++i) {
+               Integer postid = (Integer)var28.get(i);
+               if(postid.equals(var26) || var31.contains(postid)) {
+                  Statement post = (Statement)stats.getWithKey(postid);
+                  if(post != null) {
+                     boolean same = post == var30;
+                     HashSet setNodes = new HashSet();
+                     HashSet setPreds = new HashSet();
+                     HashSet setHandlers = new HashSet();
+                     setHandlers.add(var30);
+
+                     boolean excok;
+                     Iterator res;
+                     Statement handler;
+                     label177:
+                     do {
+                        excok = false;
+                        res = setHandlers.iterator();
+
+                        boolean addhd;
+                        do {
+                           do {
+                              if(!res.hasNext()) {
+                                 continue label177;
+                              }
+
+                              handler = (Statement)res.next();
+                           } while(setNodes.contains(handler));
+
+                           addhd = setNodes.size() == 0;
+                           if(!addhd) {
+                              List lstStack = handler.getNeighbours(2, 0);
+                              addhd = setNodes.containsAll(lstStack) && (setNodes.size() > lstStack.size() || setNodes.size() == 1);
+                           }
+                        } while(!addhd);
+
+                        LinkedList var35 = new LinkedList();
+                        var35.add(handler);
+
+                        while(true) {
+                           Statement st;
+                           do {
+                              do {
+                                 if(var35.isEmpty()) {
+                                    excok = true;
+                                    setHandlers.remove(handler);
+                                    continue label177;
+                                 }
+
+                                 st = (Statement)var35.remove(0);
+                              } while(setNodes.contains(st));
+                           } while(!same && st == post);
+
+                           setNodes.add(st);
+                           if(st != var30) {
+                              setPreds.addAll(st.getNeighbours(1, 0));
+                           }
+
+                           var35.addAll(st.getNeighbours(1, 1));
+                           setHandlers.addAll(st.getNeighbours(2, 1));
+                        }
+                     } while(excok);
+
+                     setHandlers.clear();
+                     Iterator var32 = setNodes.iterator();
+
+                     while(var32.hasNext()) {
+                        Statement var33 = (Statement)var32.next();
+                        setHandlers.addAll(var33.getNeighbours(2, 1));
+                     }
+
+                     setHandlers.removeAll(setNodes);
+                     excok = true;
+                     res = setHandlers.iterator();
+
+                     while(res.hasNext()) {
+                        handler = (Statement)res.next();
+                        if(!handler.getNeighbours(2, 0).containsAll(setNodes)) {
+                           excok = false;
+                           break;
+                        }
+                     }
+
+                     if(excok) {
+                        res = null;
+                        setPreds.removeAll(setNodes);
+                        if(setPreds.size() == 0 && (setNodes.size() > 1 || var30.getNeighbours(1, 0).contains(var30)) && setNodes.size() < stats.size() && checkSynchronizedCompleteness(var30, setNodes)) {
+                           GeneralStatement var34 = new GeneralStatement(var30, setNodes, same ? null : post);
+                           stat.collapseNodesToStatement(var34);
+                           return var34;
+                        }
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+      return null;
+   }
+
+   private static boolean checkSynchronizedCompleteness(Statement head, HashSet setNodes) {
+      Iterator var2 = setNodes.iterator();
+
+      List lstSuccs;
+      do {
+         Statement stat;
+         do {
+            if(!var2.hasNext()) {
+               return true;
+            }
+
+            stat = (Statement)var2.next();
+         } while(!stat.isMonitorEnter());
+
+         lstSuccs = stat.getSuccessorEdges(1073741824);
+         if(lstSuccs.size() != 1 || ((StatEdge)lstSuccs.get(0)).getType() != 1) {
+            return false;
+         }
+      } while(setNodes.contains(((StatEdge)lstSuccs.get(0)).getDestination()));
+
+      return false;
+   }
+
+   private static boolean findSimpleStatements(Statement stat, HashMap mapExtPost) {
+      boolean success = false;
+
+      boolean found;
+      do {
+         found = false;
+         List lstStats = stat.getPostReversePostOrderList();
+         Iterator var5 = lstStats.iterator();
+
+         while(var5.hasNext()) {
+            Statement st = (Statement)var5.next();
+            Statement result = detectStatement(st);
+            if(result != null) {
+               if(stat.type == 0 && result.getFirst() == stat.getFirst() && stat.getStats().size() == result.getStats().size()) {
+                  stat.type = 11;
+               }
+
+               stat.collapseNodesToStatement(result);
+               if(!mapExtPost.isEmpty()) {
+                  HashSet setOldNodes = new HashSet();
+                  Iterator newid = result.getStats().iterator();
+
+                  while(newid.hasNext()) {
+                     Statement old = (Statement)newid.next();
+                     setOldNodes.add(old.id);
+                  }
+
+                  Integer newid1 = result.id;
+                  Iterator old1 = (new ArrayList(mapExtPost.keySet())).iterator();
+
+                  while(old1.hasNext()) {
+                     Integer key = (Integer)old1.next();
+                     Set set = (Set)mapExtPost.get(key);
+                     int oldsize = set.size();
+                     set.removeAll(setOldNodes);
+                     if(setOldNodes.contains(key)) {
+                        Object setNew = (Set)mapExtPost.get(newid1);
+                        if(setNew == null) {
+                           mapExtPost.put(newid1, setNew = new HashSet());
+                        }
+
+                        ((Set)setNew).addAll(set);
+                        mapExtPost.remove(key);
+                     } else if(set.size() < oldsize) {
+                        set.add(newid1);
+                     }
+                  }
+               }
+
+               found = true;
+               break;
+            }
+         }
+
+         if(found) {
+            success = true;
+         }
+      } while(found);
+
+      return success;
+   }
+
+   private static Statement detectStatement(Statement head) {
+      Statement res;
+      return (res = DoStatement.isHead(head)) != null ? res : ((res = SwitchStatement.isHead(head)) != null ? res : ((res = IfStatement.isHead(head)) != null ? res : ((res = SequenceStatement.isHead2Block(head)) != null ? res : ((res = CatchStatement.isHead(head)) != null ? res : ((res = CatchAllStatement.isHead(head)) != null ? res : null)))));
+   }
+}
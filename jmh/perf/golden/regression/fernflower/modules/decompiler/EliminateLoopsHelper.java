@@ -0,0 +1,198 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import regression.fernflower.modules.decompiler.sforms.SSAConstructorSparseEx;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.struct.StructClass;
+
+public class EliminateLoopsHelper {
+   public static boolean eliminateLoops(Statement root) {
+      boolean ret = eliminateLoopsRec(root);
+      if(ret) {
+         SequenceHelper.condenseSequences(root);
+         HashSet setReorderedIfs = new HashSet();
+         SimplifyExprentsHelper sehelper = new SimplifyExprentsHelper(false);
+
+         while(sehelper.simplifyStackVarsStatement(root, setReorderedIfs, (SSAConstructorSparseEx)null, (StructClass)null)) {
+            SequenceHelper.condenseSequences(root);
+         }
+      }
+
+      return ret;
+   }
+
+   private static boolean eliminateLoopsRec(Statement stat) {
+      Iterator var1 = stat.getStats().iterator();
+
+      Statement st;
+      do {
+         if(!var1.hasNext()) {
+            if(stat.type == 5 && isLoopRedundant((DoStatement)stat)) {
+               return true;
+            }
+
+            return false;
+         }
+
+         st = (Statement)var1.next();
+      } while(!eliminateLoopsRec(st));
+
+      return true;
+   }
+
+   private static boolean isLoopRedundant(DoStatement loop) {
+      if(loop.getLooptype() != 0) {
+         return false;
+      } else {
+         Statement parentloop;
+         for(parentloop = loop.getParent(); parentloop != null && parentloop.type != 5; parentloop = parentloop.getParent()) {
+         }
+
+         if(parentloop != null && parentloop.getBasichead() == loop.getBasichead()) {
+            ArrayList lstBreakEdges = new ArrayList();
+            Iterator loopcontent = loop.getLabelEdges().iterator();
+
+            while(loopcontent.hasNext()) {
+               StatEdge firstok = (StatEdge)loopcontent.next();
+               if(firstok.getType() == 4) {
+                  lstBreakEdges.add(firstok);
+               }
+            }
+
+            Statement var11 = loop.getFirst();
+            boolean var12 = var11.getAllSuccessorEdges().isEmpty();
+            if(!var12) {
+               StatEdge statLabeled = (StatEdge)var11.getAllSuccessorEdges().get(0);
+               var12 = statLabeled.closure == loop && statLabeled.getType() == 4;
+               if(var12) {
+                  lstBreakEdges.remove(statLabeled);
+               }
+            }
+
+            if(!lstBreakEdges.isEmpty()) {
+               if(!var12) {
+                  return false;
+               }
+
+               HashMap var13 = new HashMap();
+               ArrayList lstEdgeClosures = new ArrayList();
+               Iterator precount = lstBreakEdges.iterator();
+
+               Statement i;
+               while(precount.hasNext()) {
+                  StatEdge postcount = (StatEdge)precount.next();
+                  i = LowBreakHelper.getMinClosure(var11, postcount.getSource());
+                  lstEdgeClosures.add(i);
+               }
+
+               int var14 = loop.isLabeled() ? 1 : 0;
+               Iterator var15 = lstEdgeClosures.iterator();
+
+               while(var15.hasNext()) {
+                  i = (Statement)var15.next();
+                  if(!var13.containsKey(i.id)) {
+                     boolean val = i.isLabeled();
+                     var14 += val ? 1 : 0;
+                     var13.put(i.id, Boolean.valueOf(val));
+                  }
+               }
+
+               int var16;
+               for(var16 = 0; var16 < lstBreakEdges.size(); ++var16) {
+                  i = (Statement)lstEdgeClosures.get(var16);
+                  var13.put(i.id, Boolean.valueOf(LowBreakHelper.isBreakEdgeLabeled(((StatEdge)lstBreakEdges.get(var16)).getSource(), i) | ((Boolean)var13.get(i.id)).booleanValue()));
+               }
+
+               for(var16 = 0; var16 < lstBreakEdges.size(); ++var16) {
+                  lstEdgeClosures.set(var16, getMaxBreakLift((Statement)lstEdgeClosures.get(var16), (StatEdge)lstBreakEdges.get(var16), var13, loop));
+               }
+
+               var13.clear();
+               var15 = lstEdgeClosures.iterator();
+
+               while(var15.hasNext()) {
+                  i = (Statement)var15.next();
+                  var13.put(i.id, Boolean.valueOf(i.isLabeled()));
+               }
+
+               for(var16 = 0; var16 < lstBreakEdges.size(); ++var16) {
+                  i = (Statement)lstEdgeClosures.get(var16);
+                  var13.put(i.id, Boolean.valueOf(LowBreakHelper.isBreakEdgeLabeled(((StatEdge)lstBreakEdges.get(var16)).getSource(), i) | ((Boolean)var13.get(i.id)).booleanValue()));
+               }
+
+               var16 = 0;
+
+               Boolean var17;
+               for(Iterator var18 = var13.values().iterator(); var18.hasNext(); var16 += var17.booleanValue() ? 1 : 0) {
+                  var17 = (Boolean)var18.next();
+               }
+
+               if(var14 <= var16) {
+                  return false;
+               }
+
+               for(int var19 = 0; var19 < lstBreakEdges.size(); ++var19) {
+                  ((Statement)lstEdgeClosures.get(var19)).addLabeledEdge((StatEdge)lstBreakEdges.get(var19));
+               }
+            }
+
+            eliminateLoop(loop, parentloop);
+            return true;
+         } else {
+            return false;
+         }
+      }
+   }
+
+   private static Statement getMaxBreakLift(Statement stat, StatEdge edge, HashMap statLabeled, Statement max) {
+      Statement closure = stat;
+
+      for(Statement newclosure = stat; (newclosure = getNextBreakLift(newclosure, edge, statLabeled, max)) != null; closure = newclosure) {
+      }
+
+      return closure;
+   }
+
+   private static Statement getNextBreakLift(Statement stat, StatEdge edge, HashMap statLabeled, Statement max) {
+      Statement closure = stat.getParent();
+
+      while(true) {
+         if(closure != null && closure != max && !closure.containsStatementStrict(edge.getDestination())) {
+            boolean edge_labeled = LowBreakHelper.isBreakEdgeLabeled(edge.getSource(), closure);
+            boolean stat_labeled = statLabeled.containsKey(closure.id) ? ((Boolean)statLabeled.get(closure.id)).booleanValue() : closure.isLabeled();
+            if(!stat_labeled && edge_labeled) {
+               closure = closure.getParent();
+               continue;
+            }
+
+            return closure;
+         }
+
+         return null;
+      }
+   }
+
+   private static void eliminateLoop(Statement loop, Statement parentloop) {
+      ArrayList lst = new ArrayList(loop.getLabelEdges());
+      Iterator loopcontent = lst.iterator();
+
+      while(loopcontent.hasNext()) {
+         StatEdge edge = (StatEdge)loopcontent.next();
+         loop.removePredecessor(edge);
+         edge.getSource().changeEdgeNode(1, edge, parentloop);
+         parentloop.addPredecessor(edge);
+         parentloop.addLabeledEdge(edge);
+      }
+
+      Statement loopcontent1 = loop.getFirst();
+      if(!loopcontent1.getAllSuccessorEdges().isEmpty()) {
+         loopcontent1.removeSuccessor((StatEdge)loopcontent1.getAllSuccessorEdges().get(0));
+      }
+
+      loop.getParent().replaceStatement(loop, loopcontent1);
+   }
+}
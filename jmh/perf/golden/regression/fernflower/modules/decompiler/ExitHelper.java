@@ -0,0 +1,282 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.decompiler.exps.ExitExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.SequenceStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.struct.gen.MethodDescriptor;
+
+public class ExitHelper {
+   public static boolean condenseExits(RootStatement root) {
+      int changed = integrateExits(root);
+      if(changed > 0) {
+         cleanUpUnreachableBlocks(root);
+         SequenceHelper.condenseSequences(root);
+      }
+
+      return changed > 0;
+   }
+
+   private static void cleanUpUnreachableBlocks(Statement stat) {
+      boolean found;
+      do {
+         found = false;
+
+         for(int i = 0; i < stat.getStats().size(); ++i) {
+            Statement st = (Statement)stat.getStats().get(i);
+            cleanUpUnreachableBlocks(st);
+            if(st.type == 15 && st.getStats().size() > 1) {
+               Statement last = (Statement)st.getStats().getLast();
+               Statement secondlast = (Statement)st.getStats().get(st.getStats().size() - 2);
+               if((last.getExprents() == null || !last.getExprents().isEmpty()) && !secondlast.hasBasicSuccEdge()) {
+                  Set set = last.getNeighboursSet(1073741824, 0);
+                  set.remove(secondlast);
+                  if(set.isEmpty()) {
+                     last.setExprents(new ArrayList());
+                     found = true;
+                     break;
+                  }
+               }
+            }
+         }
+      } while(found);
+
+   }
+
+   private static int integrateExits(Statement stat) {
+      byte ret = 0;
+      Statement dest = null;
+      StatEdge oldexitedge;
+      StatEdge newexitedge;
+      StatEdge destedge1;
+      BasicBlockStatement bstat1;
+      if(stat.getExprents() == null) {
+         label81:
+         while(true) {
+            int parent = 0;
+            Iterator destedge = stat.getStats().iterator();
+
+            while(destedge.hasNext()) {
+               Statement bstat = (Statement)destedge.next();
+               parent = integrateExits(bstat);
+               if(parent > 0) {
+                  ret = 1;
+                  break;
+               }
+            }
+
+            if(parent == 0) {
+               switch(stat.type) {
+               case 2:
+                  IfStatement parent1 = (IfStatement)stat;
+                  if(parent1.getIfstat() == null) {
+                     destedge1 = parent1.getIfEdge();
+                     dest = isExitEdge(destedge1);
+                     if(dest != null) {
+                        bstat1 = new BasicBlockStatement(new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0)));
+                        bstat1.setExprents(DecHelper.copyExprentList(dest.getExprents()));
+                        parent1.getFirst().removeSuccessor(destedge1);
+                        oldexitedge = new StatEdge(1, parent1.getFirst(), bstat1);
+                        parent1.getFirst().addSuccessor(oldexitedge);
+                        parent1.setIfEdge(oldexitedge);
+                        parent1.setIfstat(bstat1);
+                        parent1.getStats().addWithKey(bstat1, bstat1.id);
+                        bstat1.setParent(parent1);
+                        newexitedge = (StatEdge)dest.getAllSuccessorEdges().get(0);
+                        StatEdge block = new StatEdge(4, bstat1, newexitedge.getDestination());
+                        bstat1.addSuccessor(block);
+                        newexitedge.closure.addLabeledEdge(block);
+                        ret = 1;
+                     }
+                  }
+               default:
+                  break label81;
+               }
+            }
+         }
+      }
+
+      if(stat.getAllSuccessorEdges().size() == 1 && ((StatEdge)stat.getAllSuccessorEdges().get(0)).getType() == 4 && stat.getLabelEdges().isEmpty()) {
+         Statement parent2 = stat.getParent();
+         if(stat != parent2.getFirst() || parent2.type != 2 && parent2.type != 6) {
+            destedge1 = (StatEdge)stat.getAllSuccessorEdges().get(0);
+            dest = isExitEdge(destedge1);
+            if(dest != null) {
+               stat.removeSuccessor(destedge1);
+               bstat1 = new BasicBlockStatement(new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0)));
+               bstat1.setExprents(DecHelper.copyExprentList(dest.getExprents()));
+               oldexitedge = (StatEdge)dest.getAllSuccessorEdges().get(0);
+               newexitedge = new StatEdge(4, bstat1, oldexitedge.getDestination());
+               bstat1.addSuccessor(newexitedge);
+               oldexitedge.closure.addLabeledEdge(newexitedge);
+               SequenceStatement block1 = new SequenceStatement(Arrays.asList(new Statement[]{stat, bstat1}));
+               block1.setAllParent();
+               parent2.replaceStatement(stat, block1);
+               Iterator var9 = block1.getPredecessorEdges(8).iterator();
+
+               StatEdge edge;
+               while(var9.hasNext()) {
+                  edge = (StatEdge)var9.next();
+                  block1.removePredecessor(edge);
+                  edge.getSource().changeEdgeNode(1, edge, stat);
+                  stat.addPredecessor(edge);
+                  stat.addLabeledEdge(edge);
+               }
+
+               stat.addSuccessor(new StatEdge(1, stat, bstat1));
+               var9 = dest.getAllPredecessorEdges().iterator();
+
+               while(var9.hasNext()) {
+                  edge = (StatEdge)var9.next();
+                  if(!edge.explicit && stat.containsStatementStrict(edge.getSource()) && MergeHelper.isDirectPath(edge.getSource().getParent(), bstat1)) {
+                     dest.removePredecessor(edge);
+                     edge.getSource().changeEdgeNode(1, edge, bstat1);
+                     bstat1.addPredecessor(edge);
+                     if(!stat.containsStatementStrict(edge.closure)) {
+                        stat.addLabeledEdge(edge);
+                     }
+                  }
+               }
+
+               ret = 2;
+            }
+         }
+      }
+
+      return ret;
+   }
+
+   private static Statement isExitEdge(StatEdge edge) {
+      Statement dest = edge.getDestination();
+      if(edge.getType() == 4 && dest.type == 8 && edge.explicit && (edge.labeled || isOnlyEdge(edge))) {
+         List data = dest.getExprents();
+         if(data != null && data.size() == 1 && ((Exprent)data.get(0)).type == 4) {
+            return dest;
+         }
+      }
+
+      return null;
+   }
+
+   private static boolean isOnlyEdge(StatEdge edge) {
+      Statement stat = edge.getDestination();
+      Iterator var2 = stat.getAllPredecessorEdges().iterator();
+
+      Statement source;
+      do {
+         StatEdge ed;
+         do {
+            if(!var2.hasNext()) {
+               return true;
+            }
+
+            ed = (StatEdge)var2.next();
+         } while(ed == edge);
+
+         if(ed.getType() != 1) {
+            return false;
+         }
+
+         source = ed.getSource();
+      } while(source.type != 8 && (source.type != 2 || ((IfStatement)source).iftype != 0) && (source.type != 5 || ((DoStatement)source).getLooptype() == 0));
+
+      return false;
+   }
+
+   public static boolean removeRedundantReturns(RootStatement root) {
+      boolean res = false;
+      Iterator var2 = root.getDummyExit().getAllPredecessorEdges().iterator();
+
+      while(var2.hasNext()) {
+         StatEdge edge = (StatEdge)var2.next();
+         if(!edge.explicit) {
+            Statement source = edge.getSource();
+            List lstExpr = source.getExprents();
+            if(lstExpr != null && !lstExpr.isEmpty()) {
+               Exprent expr = (Exprent)lstExpr.get(lstExpr.size() - 1);
+               if(expr.type == 4) {
+                  ExitExprent ex = (ExitExprent)expr;
+                  if(ex.getExitType() == 0 && ex.getValue() == null) {
+                     lstExpr.remove(lstExpr.size() - 1);
+                     res = true;
+                  }
+               }
+            }
+         }
+      }
+
+      return res;
+   }
+
+   public static boolean handleReturnFromInitializer(RootStatement root) {
+      boolean res = false;
+      Statement exit = root.getDummyExit();
+      Statement top = root.getFirst();
+      Statement newret = null;
+      boolean sharedcreated = false;
+      Iterator var6 = exit.getAllPredecessorEdges().iterator();
+
+      while(var6.hasNext()) {
+         StatEdge edge = (StatEdge)var6.next();
+         if(edge.explicit) {
+            if(!sharedcreated) {
+               newret = addSharedInitializerReturn(root);
+               sharedcreated = true;
+            }
+
+            Statement source = edge.getSource();
+            List lstExpr = source.getExprents();
+            if(lstExpr != null && !lstExpr.isEmpty()) {
+               Exprent expr = (Exprent)lstExpr.get(lstExpr.size() - 1);
+               if(expr.type == 4) {
+                  ExitExprent ex = (ExitExprent)expr;
+                  if(ex.getExitType() == 0 && ex.getValue() == null) {
+                     lstExpr.remove(lstExpr.size() - 1);
+                     source.removeSuccessor(edge);
+                     source.addSuccessor(new StatEdge(4, source, newret, top));
+                     res = true;
+                  }
+               }
+            }
+         }
+      }
+
+      return res;
+   }
+
+   private static Statement addSharedInitializerReturn(RootStatement root) {
+      Statement exit = root.getDummyExit();
+      Statement top = root.getFirst();
+      BasicBlockStatement bstat = new BasicBlockStatement(new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0)));
+      ExitExprent retexpr = new ExitExprent(0, (Exprent)null, ((MethodDescriptor)DecompilerContext.getProperty("CURRENT_METHOD_DESCRIPTOR")).ret, (Set)null);
+      bstat.setExprents(new ArrayList(Arrays.asList(new Exprent[]{retexpr})));
+      SequenceStatement seq = new SequenceStatement(Arrays.asList(new Statement[]{top, bstat}));
+      top.setParent(seq);
+      bstat.setParent(seq);
+      seq.setParent(root);
+      root.getStats().removeWithKey(top.id);
+      root.getStats().addWithKeyAndIndex(0, seq, seq.id);
+      root.setFirst(seq);
+      Iterator var6 = top.getAllSuccessorEdges().iterator();
+
+      while(var6.hasNext()) {
+         StatEdge succedge = (StatEdge)var6.next();
+         top.removeSuccessor(succedge);
+      }
+
+      top.addSuccessor(new StatEdge(1, top, bstat));
+      bstat.addSuccessor(new StatEdge(4, bstat, exit, seq));
+      return bstat;
+   }
+}
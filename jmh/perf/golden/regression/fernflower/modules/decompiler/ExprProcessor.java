@@ -0,0 +1,870 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import regression.fernflower.code.CodeConstants;
+import regression.fernflower.code.Instruction;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.exps.ArrayExprent;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.ExitExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FieldExprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.IfExprent;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.modules.decompiler.exps.MonitorExprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.modules.decompiler.exps.SwitchExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.sforms.DirectNode;
+import regression.fernflower.modules.decompiler.sforms.FlattenStatementsHelper;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.CatchAllStatement;
+import regression.fernflower.modules.decompiler.stats.CatchStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.attr.StructBootstrapMethodsAttribute;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.struct.consts.LinkConstant;
+import regression.fernflower.struct.consts.PooledConstant;
+import regression.fernflower.struct.consts.PrimitiveConstant;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.VarType;
+
+public class ExprProcessor implements CodeConstants {
+   public static final String UNDEFINED_TYPE_STRING = "<undefinedtype>";
+   public static final String UNKNOWN_TYPE_STRING = "<unknown>";
+   public static final String NULL_TYPE_STRING = "<null>";
+   private static final HashMap mapConsts = new HashMap();
+   private static final VarType[] consts;
+   private static final VarType[] vartypes;
+   private static final VarType[] arrtypes;
+   private static final int[] func1;
+   private static final int[] func2;
+   private static final int[] func3;
+   private static final int[] func4;
+   private static final int[] func5;
+   private static final int[] func6;
+   private static final int[] func7;
+   private static final int[] func8;
+   private static final int[] arr_type;
+   private static final int[] negifs;
+   private static final String[] typeNames;
+   private VarProcessor varProcessor = (VarProcessor)DecompilerContext.getProperty("CURRENT_VAR_PROCESSOR");
+
+   public void processStatement(RootStatement root, StructClass cl) {
+      FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
+      DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+      HashSet setFinallyShortRangeEntryPoints = new HashSet();
+      Iterator setFinallyLongRangeEntryPaths = dgraph.mapShortRangeFinallyPaths.values().iterator();
+
+      while(setFinallyLongRangeEntryPaths.hasNext()) {
+         List mapCatch = (List)setFinallyLongRangeEntryPaths.next();
+         Iterator mapData = mapCatch.iterator();
+
+         while(mapData.hasNext()) {
+            FlattenStatementsHelper.FinallyPathWrapper stack = (FlattenStatementsHelper.FinallyPathWrapper)mapData.next();
+            setFinallyShortRangeEntryPoints.add(stack.entry);
+         }
+      }
+
+      HashSet var24 = new HashSet();
+      Iterator var25 = dgraph.mapLongRangeFinallyPaths.values().iterator();
+
+      while(var25.hasNext()) {
+         List var27 = (List)var25.next();
+         Iterator var29 = var27.iterator();
+
+         while(var29.hasNext()) {
+            FlattenStatementsHelper.FinallyPathWrapper stackEntryPoint = (FlattenStatementsHelper.FinallyPathWrapper)var29.next();
+            var24.add(stackEntryPoint.source + "##" + stackEntryPoint.entry);
+         }
+      }
+
+      HashMap var26 = new HashMap();
+      collectCatchVars(root, flatthelper, var26);
+      HashMap var28 = new HashMap();
+      LinkedList var30 = new LinkedList();
+      LinkedList var31 = new LinkedList();
+      var30.add(dgraph.first);
+      var31.add(new LinkedList());
+      HashMap map = new HashMap();
+      map.put((Object)null, new PrimitiveExprsList());
+      var28.put(dgraph.first, map);
+
+      label99:
+      while(!var30.isEmpty()) {
+         DirectNode node = (DirectNode)var30.removeFirst();
+         LinkedList entrypoints = (LinkedList)var31.removeFirst();
+         PrimitiveExprsList data;
+         if(var26.containsKey(node.id)) {
+            data = getExpressionData((VarExprent)var26.get(node.id));
+         } else {
+            data = (PrimitiveExprsList)((Map)var28.get(node)).get(buildEntryPointKey(entrypoints));
+         }
+
+         BasicBlockStatement block = node.block;
+         if(block != null) {
+            this.processBlock(block, data, cl);
+            block.setExprents(data.getLstExprents());
+         }
+
+         String currentEntrypoint = entrypoints.isEmpty() ? null : (String)entrypoints.getLast();
+         Iterator var17 = node.succs.iterator();
+
+         while(true) {
+            DirectNode nd;
+            boolean isSuccessor;
+            do {
+               if(!var17.hasNext()) {
+                  continue label99;
+               }
+
+               nd = (DirectNode)var17.next();
+               isSuccessor = true;
+               if(currentEntrypoint != null && dgraph.mapLongRangeFinallyPaths.containsKey(node.id)) {
+                  isSuccessor = false;
+                  Iterator mapSucc = ((List)dgraph.mapLongRangeFinallyPaths.get(node.id)).iterator();
+
+                  while(mapSucc.hasNext()) {
+                     FlattenStatementsHelper.FinallyPathWrapper ndentrypoints = (FlattenStatementsHelper.FinallyPathWrapper)mapSucc.next();
+                     if(ndentrypoints.source.equals(currentEntrypoint) && ndentrypoints.destination.equals(nd.id)) {
+                        isSuccessor = true;
+                        break;
+                     }
+                  }
+               }
+            } while(!isSuccessor);
+
+            Object var32 = (Map)var28.get(nd);
+            if(var32 == null) {
+               var28.put(nd, var32 = new HashMap());
+            }
+
+            LinkedList var33 = new LinkedList(entrypoints);
+            if(var24.contains(node.id + "##" + nd.id)) {
+               var33.addLast(node.id);
+            } else if(!setFinallyShortRangeEntryPoints.contains(nd.id) && dgraph.mapLongRangeFinallyPaths.containsKey(node.id)) {
+               var33.removeLast();
+            }
+
+            int succ_entry_index = var33.indexOf(nd.id);
+            if(succ_entry_index >= 0) {
+               for(int ndentrykey = var33.size() - succ_entry_index; ndentrykey > 0; --ndentrykey) {
+                  var33.removeLast();
+               }
+            }
+
+            String var34 = buildEntryPointKey(var33);
+            if(!((Map)var32).containsKey(var34)) {
+               ((Map)var32).put(var34, copyVarExprents(data.copyStack()));
+               var30.add(nd);
+               var31.add(var33);
+            }
+         }
+      }
+
+      initStatementExprents(root);
+   }
+
+   private static String buildEntryPointKey(LinkedList entrypoints) {
+      if(entrypoints.isEmpty()) {
+         return null;
+      } else {
+         StringBuilder buffer = new StringBuilder();
+         Iterator var2 = entrypoints.iterator();
+
+         while(var2.hasNext()) {
+            String point = (String)var2.next();
+            buffer.append(point);
+            buffer.append(":");
+         }
+
+         return buffer.toString();
+      }
+   }
+
+   private static PrimitiveExprsList copyVarExprents(PrimitiveExprsList data) {
+      ExprentStack stack = data.getStack();
+      copyEntries(stack);
+      return data;
+   }
+
+   public static void copyEntries(List stack) {
+      for(int i = 0; i < stack.size(); ++i) {
+         stack.set(i, ((Exprent)stack.get(i)).copy());
+      }
+
+   }
+
+   private static void collectCatchVars(Statement stat, FlattenStatementsHelper flatthelper, Map map) {
+      List lst = null;
+      if(stat.type == 12) {
+         CatchAllStatement i = (CatchAllStatement)stat;
+         if(!i.isFinally()) {
+            lst = i.getVars();
+         }
+      } else if(stat.type == 7) {
+         lst = ((CatchStatement)stat).getVars();
+      }
+
+      if(lst != null) {
+         for(int var6 = 1; var6 < stat.getStats().size(); ++var6) {
+            map.put(((String[])flatthelper.getMapDestinationNodes().get(((Statement)stat.getStats().get(var6)).id))[0], (VarExprent)lst.get(var6 - 1));
+         }
+      }
+
+      Iterator var7 = stat.getStats().iterator();
+
+      while(var7.hasNext()) {
+         Statement st = (Statement)var7.next();
+         collectCatchVars(st, flatthelper, map);
+      }
+
+   }
+
+   private static void initStatementExprents(Statement stat) {
+      stat.initExprents();
+      Iterator var1 = stat.getStats().iterator();
+
+      while(var1.hasNext()) {
+         Statement st = (Statement)var1.next();
+         initStatementExprents(st);
+      }
+
+   }
+
+   public void processBlock(BasicBlockStatement stat, PrimitiveExprsList data, StructClass cl) {
+      ConstantPool pool = cl.getPool();
+      StructBootstrapMethodsAttribute bootstrap = (StructBootstrapMethodsAttribute)cl.getAttributes().getWithKey("BootstrapMethods");
+      BasicBlock block = stat.getBlock();
+      ExprentStack stack = data.getStack();
+      List exprlist = data.getLstExprents();
+      InstructionSequence seq = block.getSeq();
+
+      for(int i = 0; i < seq.length(); ++i) {
+         Instruction instr = seq.getInstr(i);
+         Integer bytecode_offset = block.getOldOffset(i);
+         Set bytecode_offsets = bytecode_offset.intValue() >= 0 ? Collections.singleton(bytecode_offset) : null;
+         switch(instr.opcode) {
+         case 1:
+            this.pushEx(stack, exprlist, new ConstExprent(VarType.VARTYPE_NULL, (Object)null, bytecode_offsets));
+         case 2:
+         case 3:
+         case 4:
+         case 5:
+         case 6:
+         case 7:
+         case 8:
+         case 26:
+         case 27:
+         case 28:
+         case 29:
+         case 30:
+         case 31:
+         case 32:
+         case 33:
+         case 34:
+         case 35:
+         case 36:
+         case 37:
+         case 38:
+         case 39:
+         case 40:
+         case 41:
+         case 42:
+         case 43:
+         case 44:
+         case 45:
+         case 59:
+         case 60:
+         case 61:
+         case 62:
+         case 63:
+         case 64:
+         case 65:
+         case 66:
+         case 67:
+         case 68:
+         case 69:
+         case 70:
+         case 71:
+         case 72:
+         case 73:
+         case 74:
+         case 75:
+         case 76:
+         case 77:
+         case 78:
+         case 167:
+         case 168:
+         case 169:
+         case 196:
+         default:
+            break;
+         case 9:
+         case 10:
+            this.pushEx(stack, exprlist, new ConstExprent(VarType.VARTYPE_LONG, new Long((long)(instr.opcode - 9)), bytecode_offsets));
+            break;
+         case 11:
+         case 12:
+         case 13:
+            this.pushEx(stack, exprlist, new ConstExprent(VarType.VARTYPE_FLOAT, new Float((float)(instr.opcode - 11)), bytecode_offsets));
+            break;
+         case 14:
+         case 15:
+            this.pushEx(stack, exprlist, new ConstExprent(VarType.VARTYPE_DOUBLE, new Double((double)(instr.opcode - 14)), bytecode_offsets));
+            break;
+         case 16:
+         case 17:
+            this.pushEx(stack, exprlist, new ConstExprent(instr.getOperand(0), true, bytecode_offsets));
+            break;
+         case 18:
+         case 19:
+         case 20:
+            PooledConstant cn = pool.getConstant(instr.getOperand(0));
+            if(cn instanceof PrimitiveConstant) {
+               this.pushEx(stack, exprlist, new ConstExprent(consts[cn.type - 3], ((PrimitiveConstant)cn).value, bytecode_offsets));
+            } else if(cn instanceof LinkConstant) {
+               this.pushEx(stack, exprlist, new ConstExprent(VarType.VARTYPE_STRING, ((LinkConstant)cn).elementname, bytecode_offsets));
+            }
+            break;
+         case 21:
+         case 22:
+         case 23:
+         case 24:
+         case 25:
+            this.pushEx(stack, exprlist, new VarExprent(instr.getOperand(0), vartypes[instr.opcode - 21], this.varProcessor));
+            break;
+         case 46:
+         case 47:
+         case 48:
+         case 49:
+         case 50:
+         case 51:
+         case 52:
+         case 53:
+            Exprent index = stack.pop();
+            Exprent arr = stack.pop();
+            VarType vartype = null;
+            switch(instr.opcode) {
+            case 47:
+               vartype = VarType.VARTYPE_LONG;
+               break;
+            case 49:
+               vartype = VarType.VARTYPE_DOUBLE;
+            }
+
+            this.pushEx(stack, exprlist, new ArrayExprent(arr, index, arrtypes[instr.opcode - 46], bytecode_offsets), vartype);
+            break;
+         case 54:
+         case 55:
+         case 56:
+         case 57:
+         case 58:
+            Exprent top = stack.pop();
+            int varindex = instr.getOperand(0);
+            AssignmentExprent assign = new AssignmentExprent(new VarExprent(varindex, vartypes[instr.opcode - 54], this.varProcessor), top, bytecode_offsets);
+            exprlist.add(assign);
+            break;
+         case 79:
+         case 80:
+         case 81:
+         case 82:
+         case 83:
+         case 84:
+         case 85:
+         case 86:
+            Exprent value = stack.pop();
+            Exprent index_store = stack.pop();
+            Exprent arr_store = stack.pop();
+            AssignmentExprent arrassign = new AssignmentExprent(new ArrayExprent(arr_store, index_store, arrtypes[instr.opcode - 79], bytecode_offsets), value, bytecode_offsets);
+            exprlist.add(arrassign);
+            break;
+         case 87:
+         case 88:
+            stack.pop();
+            break;
+         case 89:
+            this.pushEx(stack, exprlist, ((Exprent)stack.getByOffset(-1)).copy());
+            break;
+         case 90:
+            this.insertByOffsetEx(-2, stack, exprlist, -1);
+            break;
+         case 91:
+            if(((Exprent)stack.getByOffset(-2)).getExprType().stackSize == 2) {
+               this.insertByOffsetEx(-2, stack, exprlist, -1);
+            } else {
+               this.insertByOffsetEx(-3, stack, exprlist, -1);
+            }
+            break;
+         case 92:
+            if(((Exprent)stack.getByOffset(-1)).getExprType().stackSize == 2) {
+               this.pushEx(stack, exprlist, ((Exprent)stack.getByOffset(-1)).copy());
+            } else {
+               this.pushEx(stack, exprlist, ((Exprent)stack.getByOffset(-2)).copy());
+               this.pushEx(stack, exprlist, ((Exprent)stack.getByOffset(-2)).copy());
+            }
+            break;
+         case 93:
+            if(((Exprent)stack.getByOffset(-1)).getExprType().stackSize == 2) {
+               this.insertByOffsetEx(-2, stack, exprlist, -1);
+            } else {
+               this.insertByOffsetEx(-3, stack, exprlist, -2);
+               this.insertByOffsetEx(-3, stack, exprlist, -1);
+            }
+            break;
+         case 94:
+            if(((Exprent)stack.getByOffset(-1)).getExprType().stackSize == 2) {
+               if(((Exprent)stack.getByOffset(-2)).getExprType().stackSize == 2) {
+                  this.insertByOffsetEx(-2, stack, exprlist, -1);
+               } else {
+                  this.insertByOffsetEx(-3, stack, exprlist, -1);
+               }
+            } else if(((Exprent)stack.getByOffset(-3)).getExprType().stackSize == 2) {
+               this.insertByOffsetEx(-3, stack, exprlist, -2);
+               this.insertByOffsetEx(-3, stack, exprlist, -1);
+            } else {
+               this.insertByOffsetEx(-4, stack, exprlist, -2);
+               this.insertByOffsetEx(-4, stack, exprlist, -1);
+            }
+            break;
+         case 95:
+            this.insertByOffsetEx(-2, stack, exprlist, -1);
+            stack.pop();
+            break;
+         case 96:
+         case 97:
+         case 98:
+         case 99:
+         case 100:
+         case 101:
+         case 102:
+         case 103:
+         case 104:
+         case 105:
+         case 106:
+         case 107:
+         case 108:
+         case 109:
+         case 110:
+         case 111:
+         case 112:
+         case 113:
+         case 114:
+         case 115:
+            this.pushEx(stack, exprlist, new FunctionExprent(func1[(instr.opcode - 96) / 4], stack, bytecode_offsets));
+            break;
+         case 116:
+         case 117:
+         case 118:
+         case 119:
+            this.pushEx(stack, exprlist, new FunctionExprent(13, stack, bytecode_offsets));
+            break;
+         case 120:
+         case 121:
+         case 122:
+         case 123:
+         case 124:
+         case 125:
+         case 126:
+         case 127:
+         case 128:
+         case 129:
+         case 130:
+         case 131:
+            this.pushEx(stack, exprlist, new FunctionExprent(func2[(instr.opcode - 120) / 2], stack, bytecode_offsets));
+            break;
+         case 132:
+            VarExprent vevar = new VarExprent(instr.getOperand(0), VarType.VARTYPE_INT, this.varProcessor);
+            exprlist.add(new AssignmentExprent(vevar, new FunctionExprent(instr.getOperand(1) < 0 ? 1 : 0, Arrays.asList(new Exprent[]{vevar.copy(), new ConstExprent(VarType.VARTYPE_INT, Integer.valueOf(Math.abs(instr.getOperand(1))), (Set)null)}), bytecode_offsets), bytecode_offsets));
+            break;
+         case 133:
+         case 134:
+         case 135:
+         case 136:
+         case 137:
+         case 138:
+         case 139:
+         case 140:
+         case 141:
+         case 142:
+         case 143:
+         case 144:
+         case 145:
+         case 146:
+         case 147:
+            this.pushEx(stack, exprlist, new FunctionExprent(func3[instr.opcode - 133], stack, bytecode_offsets));
+            break;
+         case 148:
+         case 149:
+         case 150:
+         case 151:
+         case 152:
+            this.pushEx(stack, exprlist, new FunctionExprent(func4[instr.opcode - 148], stack, bytecode_offsets));
+            break;
+         case 153:
+         case 154:
+         case 155:
+         case 156:
+         case 157:
+         case 158:
+            exprlist.add(new IfExprent(negifs[func5[instr.opcode - 153]], stack, bytecode_offsets));
+            break;
+         case 159:
+         case 160:
+         case 161:
+         case 162:
+         case 163:
+         case 164:
+         case 165:
+         case 166:
+            exprlist.add(new IfExprent(negifs[func6[instr.opcode - 159]], stack, bytecode_offsets));
+            break;
+         case 170:
+         case 171:
+            exprlist.add(new SwitchExprent(stack.pop(), bytecode_offsets));
+            break;
+         case 172:
+         case 173:
+         case 174:
+         case 175:
+         case 176:
+         case 177:
+         case 191:
+            exprlist.add(new ExitExprent(instr.opcode == 191 ? 1 : 0, instr.opcode == 177 ? null : stack.pop(), instr.opcode == 191 ? null : ((MethodDescriptor)DecompilerContext.getProperty("CURRENT_METHOD_DESCRIPTOR")).ret, bytecode_offsets));
+            break;
+         case 178:
+         case 180:
+            this.pushEx(stack, exprlist, new FieldExprent(pool.getLinkConstant(instr.getOperand(0)), instr.opcode == 178 ? null : stack.pop(), bytecode_offsets));
+            break;
+         case 179:
+         case 181:
+            Exprent valfield = stack.pop();
+            FieldExprent exprfield = new FieldExprent(pool.getLinkConstant(instr.getOperand(0)), instr.opcode == 179 ? null : stack.pop(), bytecode_offsets);
+            exprlist.add(new AssignmentExprent(exprfield, valfield, bytecode_offsets));
+            break;
+         case 182:
+         case 183:
+         case 184:
+         case 185:
+         case 186:
+            if(instr.opcode == 186 && instr.bytecode_version < 4) {
+               break;
+            }
+
+            LinkConstant var32 = pool.getLinkConstant(instr.getOperand(0));
+            int var33 = -1;
+            if(instr.opcode == 186 && bootstrap != null) {
+               List exprinv = bootstrap.getMethodArguments(var32.index1);
+               LinkConstant content_method_handle = (LinkConstant)exprinv.get(1);
+               var33 = content_method_handle.index1;
+            }
+
+            InvocationExprent var34 = new InvocationExprent(instr.opcode, var32, stack, var33, bytecode_offsets);
+            if(var34.getDescriptor().ret.type == 10) {
+               exprlist.add(var34);
+            } else {
+               this.pushEx(stack, exprlist, var34);
+            }
+            break;
+         case 187:
+         case 189:
+         case 197:
+            int dimensions = instr.opcode == 187 ? 0 : (instr.opcode == 189 ? 1 : instr.getOperand(1));
+            VarType arrType = new VarType(pool.getPrimitiveConstant(instr.getOperand(0)).getString(), true);
+            if(instr.opcode != 197) {
+               arrType = arrType.resizeArrayDim(arrType.arrayDim + dimensions);
+            }
+
+            this.pushEx(stack, exprlist, new NewExprent(arrType, stack, dimensions, bytecode_offsets));
+            break;
+         case 188:
+            this.pushEx(stack, exprlist, new NewExprent(new VarType(arr_type[instr.getOperand(0) - 4], 1), stack, 1, bytecode_offsets));
+            break;
+         case 192:
+         case 193:
+            stack.push(new ConstExprent(new VarType(pool.getPrimitiveConstant(instr.getOperand(0)).getString(), true), (Object)null, (Set)null));
+         case 190:
+            this.pushEx(stack, exprlist, new FunctionExprent(((Integer)mapConsts.get(Integer.valueOf(instr.opcode))).intValue(), stack, bytecode_offsets));
+            break;
+         case 194:
+         case 195:
+            exprlist.add(new MonitorExprent(func8[instr.opcode - 194], stack.pop(), bytecode_offsets));
+            break;
+         case 198:
+         case 199:
+            exprlist.add(new IfExprent(negifs[func7[instr.opcode - 198]], stack, bytecode_offsets));
+         }
+      }
+
+   }
+
+   private void pushEx(ExprentStack stack, List exprlist, Exprent exprent) {
+      this.pushEx(stack, exprlist, exprent, (VarType)null);
+   }
+
+   private void pushEx(ExprentStack stack, List exprlist, Exprent exprent, VarType vartype) {
+      int varindex = 10000 + stack.size();
+      VarExprent var = new VarExprent(varindex, vartype == null ? exprent.getExprType() : vartype, this.varProcessor);
+      var.setStack(true);
+      exprlist.add(new AssignmentExprent(var, exprent, (Set)null));
+      stack.push(var.copy());
+   }
+
+   private void insertByOffsetEx(int offset, ExprentStack stack, List exprlist, int copyoffset) {
+      int base = 10000 + stack.size();
+      LinkedList lst = new LinkedList();
+
+      for(int exprent = -1; exprent >= offset; --exprent) {
+         Exprent var = stack.pop();
+         VarExprent varnew = new VarExprent(base + exprent + 1, var.getExprType(), this.varProcessor);
+         varnew.setStack(true);
+         exprlist.add(new AssignmentExprent(varnew, var, (Set)null));
+         lst.add(0, (VarExprent)varnew.copy());
+      }
+
+      Exprent var11 = ((VarExprent)lst.get(lst.size() + copyoffset)).copy();
+      VarExprent var12 = new VarExprent(base + offset, var11.getExprType(), this.varProcessor);
+      var12.setStack(true);
+      exprlist.add(new AssignmentExprent(var12, var11, (Set)null));
+      lst.add(0, (VarExprent)var12.copy());
+      Iterator var13 = lst.iterator();
+
+      while(var13.hasNext()) {
+         VarExprent expr = (VarExprent)var13.next();
+         stack.push(expr);
+      }
+
+   }
+
+   public static String getTypeName(VarType type) {
+      return getTypeName(type, true);
+   }
+
+   public static String getTypeName(VarType type, boolean getShort) {
+      int tp = type.type;
+      if(tp <= 7) {
+         return typeNames[tp];
+      } else if(tp == 17) {
+         return "<unknown>";
+      } else if(tp == 13) {
+         return "<null>";
+      } else if(tp == 10) {
+         return "void";
+      } else if(tp == 8) {
+         String ret = buildJavaClassName(type.value);
+         if(getShort) {
+            ret = DecompilerContext.getImportCollector().getShortName(ret);
+         }
+
+         if(ret == null) {
+            ret = "<undefinedtype>";
+         }
+
+         return ret;
+      } else {
+         throw new RuntimeException("invalid type");
+      }
+   }
+
+   public static String getCastTypeName(VarType type) {
+      return getCastTypeName(type, true);
+   }
+
+   public static String getCastTypeName(VarType type, boolean getShort) {
+      String s = getTypeName(type, getShort);
+
+      for(int dim = type.arrayDim; dim-- > 0; s = s + "[]") {
+      }
+
+      return s;
+   }
+
+   public static PrimitiveExprsList getExpressionData(VarExprent var) {
+      PrimitiveExprsList prlst = new PrimitiveExprsList();
+      VarExprent vartmp = new VarExprent(10000, var.getExprType(), var.getProcessor());
+      vartmp.setStack(true);
+      prlst.getLstExprents().add(new AssignmentExprent(vartmp, var.copy(), (Set)null));
+      prlst.getStack().push(vartmp.copy());
+      return prlst;
+   }
+
+   public static boolean endsWithSemikolon(Exprent expr) {
+      int type = expr.type;
+      return type != 11 && type != 9 && type != 7 && (type != 12 || !((VarExprent)expr).isClassDef());
+   }
+
+   public static TextBuffer jmpWrapper(Statement stat, int indent, boolean semicolon, BytecodeMappingTracer tracer) {
+      TextBuffer buf = stat.toJava(indent, tracer);
+      List lstSuccs = stat.getSuccessorEdges(1073741824);
+      if(lstSuccs.size() == 1) {
+         StatEdge edge = (StatEdge)lstSuccs.get(0);
+         if(edge.getType() != 1 && edge.explicit && edge.getDestination().type != 14) {
+            buf.appendIndent(indent);
+            switch(edge.getType()) {
+            case 4:
+               buf.append("break");
+               break;
+            case 8:
+               buf.append("continue");
+            }
+
+            if(edge.labeled) {
+               buf.append(" label").append(edge.closure.id.toString());
+            }
+
+            buf.append(";").appendLineSeparator();
+            tracer.incrementCurrentSourceLine();
+         }
+      }
+
+      if(buf.length() == 0 && semicolon) {
+         buf.appendIndent(indent).append(";").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      return buf;
+   }
+
+   public static String buildJavaClassName(String name) {
+      String res = name.replace('/', '.');
+      if(res.contains("$")) {
+         StructClass cl = DecompilerContext.getStructContext().getClass(name);
+         if(cl == null || !cl.isOwn()) {
+            res = res.replace('$', '.');
+         }
+      }
+
+      return res;
+   }
+
+   public static TextBuffer listToJava(List lst, int indent, BytecodeMappingTracer tracer) {
+      if(lst != null && !lst.isEmpty()) {
+         TextBuffer buf = new TextBuffer();
+         Iterator var4 = lst.iterator();
+
+         while(true) {
+            Exprent expr;
+            TextBuffer content;
+            do {
+               if(!var4.hasNext()) {
+                  return buf;
+               }
+
+               expr = (Exprent)var4.next();
+               content = expr.toJava(indent, tracer);
+            } while(content.length() <= 0);
+
+            if(expr.type != 12 || !((VarExprent)expr).isClassDef()) {
+               buf.appendIndent(indent);
+            }
+
+            buf.append(content);
+            if(expr.type == 9 && ((MonitorExprent)expr).getMonType() == 0) {
+               buf.append("{}");
+            }
+
+            if(endsWithSemikolon(expr)) {
+               buf.append(";");
+            }
+
+            buf.appendLineSeparator();
+            tracer.incrementCurrentSourceLine();
+         }
+      } else {
+         return new TextBuffer();
+      }
+   }
+
+   public static ConstExprent getDefaultArrayValue(VarType arrtype) {
+      ConstExprent defaultval;
+      if(arrtype.type != 8 && arrtype.arrayDim <= 0) {
+         if(arrtype.type == 3) {
+            defaultval = new ConstExprent(VarType.VARTYPE_FLOAT, new Float(0.0F), (Set)null);
+         } else if(arrtype.type == 5) {
+            defaultval = new ConstExprent(VarType.VARTYPE_LONG, new Long(0L), (Set)null);
+         } else if(arrtype.type == 2) {
+            defaultval = new ConstExprent(VarType.VARTYPE_DOUBLE, new Double(0.0D), (Set)null);
+         } else {
+            defaultval = new ConstExprent(0, true, (Set)null);
+         }
+      } else {
+         defaultval = new ConstExprent(VarType.VARTYPE_NULL, (Object)null, (Set)null);
+      }
+
+      return defaultval;
+   }
+
+   public static boolean getCastedExprent(Exprent exprent, VarType leftType, TextBuffer buffer, int indent, boolean castNull, BytecodeMappingTracer tracer) {
+      return getCastedExprent(exprent, leftType, buffer, indent, castNull, false, tracer);
+   }
+
+   public static boolean getCastedExprent(Exprent exprent, VarType leftType, TextBuffer buffer, int indent, boolean castNull, boolean castAlways, BytecodeMappingTracer tracer) {
+      VarType rightType = exprent.getExprType();
+      TextBuffer res = exprent.toJava(indent, tracer);
+      boolean cast = castAlways || !leftType.isSuperset(rightType) && (rightType.equals(VarType.VARTYPE_OBJECT) || leftType.type != 8) || castNull && rightType.type == 13 && !"<undefinedtype>".equals(getTypeName(leftType)) || isIntConstant(exprent) && VarType.VARTYPE_INT.isStrictSuperset(leftType);
+      if(cast) {
+         if(exprent.getPrecedence() >= FunctionExprent.getPrecedence(29)) {
+            res.enclose("(", ")");
+         }
+
+         res.prepend("(" + getCastTypeName(leftType) + ")");
+      }
+
+      buffer.append(res);
+      return cast;
+   }
+
+   private static boolean isIntConstant(Exprent exprent) {
+      if(exprent.type == 3) {
+         ConstExprent cexpr = (ConstExprent)exprent;
+         switch(cexpr.getConstType().type) {
+         case 0:
+         case 4:
+         case 6:
+         case 15:
+         case 16:
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   static {
+      mapConsts.put(new Integer(190), new Integer(31));
+      mapConsts.put(new Integer(192), new Integer(29));
+      mapConsts.put(new Integer(193), new Integer(30));
+      consts = new VarType[]{VarType.VARTYPE_INT, VarType.VARTYPE_FLOAT, VarType.VARTYPE_LONG, VarType.VARTYPE_DOUBLE, VarType.VARTYPE_CLASS, VarType.VARTYPE_STRING};
+      vartypes = new VarType[]{VarType.VARTYPE_INT, VarType.VARTYPE_LONG, VarType.VARTYPE_FLOAT, VarType.VARTYPE_DOUBLE, VarType.VARTYPE_OBJECT};
+      arrtypes = new VarType[]{VarType.VARTYPE_INT, VarType.VARTYPE_LONG, VarType.VARTYPE_FLOAT, VarType.VARTYPE_DOUBLE, VarType.VARTYPE_OBJECT, VarType.VARTYPE_BOOLEAN, VarType.VARTYPE_CHAR, VarType.VARTYPE_SHORT};
+      func1 = new int[]{0, 1, 2, 3, 7};
+      func2 = new int[]{8, 9, 10, 4, 5, 6};
+      func3 = new int[]{14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28};
+      func4 = new int[]{37, 38, 39, 40, 41};
+      func5 = new int[]{0, 1, 2, 3, 4, 5};
+      func6 = new int[]{8, 9, 10, 11, 12, 13, 14, 15};
+      func7 = new int[]{6, 7};
+      func8 = new int[]{0, 1};
+      arr_type = new int[]{7, 1, 3, 2, 0, 6, 4, 5};
+      negifs = new int[]{1, 0, 3, 2, 5, 4, 7, 6, 9, 8, 11, 10, 13, 12, 15, 14};
+      typeNames = new String[]{"byte", "char", "double", "float", "int", "long", "short", "boolean"};
+   }
+}
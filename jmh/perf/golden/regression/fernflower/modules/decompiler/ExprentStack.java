@@ -0,0 +1,27 @@
+package regression.fernflower.modules.decompiler;
+
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.util.ListStack;
+
+public class ExprentStack extends ListStack {
+   public ExprentStack() {
+   }
+
+   public ExprentStack(ListStack list) {
+      super(list);
+      this.pointer = list.getPointer();
+   }
+
+   public Exprent push(Exprent item) {
+      super.push(item);
+      return item;
+   }
+
+   public Exprent pop() {
+      return (Exprent)this.remove(--this.pointer);
+   }
+
+   public ExprentStack clone() {
+      return new ExprentStack(this);
+   }
+}
@@ -0,0 +1,921 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.code.ConstantsUtil;
+import regression.fernflower.code.Instruction;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.code.SimpleInstructionSequence;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.code.cfg.ControlFlowGraph;
+import regression.fernflower.code.cfg.ExceptionRangeCFG;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.code.DeadCodeHelper;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.ExitExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.sforms.DirectNode;
+import regression.fernflower.modules.decompiler.sforms.FlattenStatementsHelper;
+import regression.fernflower.modules.decompiler.sforms.SSAConstructorSparseEx;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.CatchAllStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+
+public class FinallyProcessor {
+   private Map finallyBlockIDs = new HashMap();
+   private Map catchallBlockIDs = new HashMap();
+   private VarProcessor varprocessor;
+
+   public FinallyProcessor(VarProcessor varprocessor) {
+      this.varprocessor = varprocessor;
+   }
+
+   public boolean iterateGraph(StructMethod mt, RootStatement root, ControlFlowGraph graph) {
+      return this.processStatementEx(mt, root, graph);
+   }
+
+   private boolean processStatementEx(StructMethod mt, RootStatement root, ControlFlowGraph graph) {
+      int bytecode_version = mt.getClassStruct().getBytecodeVersion();
+      LinkedList stack = new LinkedList();
+      stack.add(root);
+
+      Statement stat;
+      for(; !stack.isEmpty(); stack.addAll(stat.getStats())) {
+         stat = (Statement)stack.removeLast();
+         Statement parent = stat.getParent();
+         if(parent != null && parent.type == 12 && stat == parent.getFirst() && !parent.isCopied()) {
+            CatchAllStatement fin = (CatchAllStatement)parent;
+            BasicBlock head = fin.getBasichead().getBlock();
+            BasicBlock handler = fin.getHandler().getBasichead().getBlock();
+            if(!this.catchallBlockIDs.containsKey(Integer.valueOf(handler.id))) {
+               if(!this.finallyBlockIDs.containsKey(Integer.valueOf(handler.id))) {
+                  FinallyProcessor.Record inf1 = getFinallyInformation(mt, root, fin);
+                  if(inf1 == null) {
+                     this.catchallBlockIDs.put(Integer.valueOf(handler.id), (Object)null);
+                  } else {
+                     if(DecompilerContext.getOption("fdi") && this.verifyFinallyEx(graph, fin, inf1)) {
+                        this.finallyBlockIDs.put(Integer.valueOf(handler.id), (Object)null);
+                     } else {
+                        int varindex = DecompilerContext.getCounterContainer().getCounterAndIncrement(2);
+                        insertSemaphore(graph, getAllBasicBlocks(fin.getFirst()), head, handler, varindex, inf1, bytecode_version);
+                        this.finallyBlockIDs.put(Integer.valueOf(handler.id), Integer.valueOf(varindex));
+                     }
+
+                     DeadCodeHelper.removeDeadBlocks(graph);
+                     DeadCodeHelper.removeEmptyBlocks(graph);
+                     DeadCodeHelper.mergeBasicBlocks(graph);
+                  }
+
+                  return true;
+               }
+
+               fin.setFinally(true);
+               Integer inf = (Integer)this.finallyBlockIDs.get(Integer.valueOf(handler.id));
+               fin.setMonitor(inf == null ? null : new VarExprent(inf.intValue(), VarType.VARTYPE_INT, this.varprocessor));
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static FinallyProcessor.Record getFinallyInformation(StructMethod mt, RootStatement root, CatchAllStatement fstat) {
+      HashMap mapLast = new HashMap();
+      BasicBlockStatement firstBlockStatement = fstat.getHandler().getBasichead();
+      BasicBlock firstBasicBlock = firstBlockStatement.getBlock();
+      Instruction instrFirst = firstBasicBlock.getInstruction(0);
+      byte firstcode = 0;
+      switch(instrFirst.opcode) {
+      case 58:
+         firstcode = 2;
+         break;
+      case 87:
+         firstcode = 1;
+      }
+
+      ExprProcessor proc = new ExprProcessor();
+      proc.processStatement(root, mt.getClassStruct());
+      SSAConstructorSparseEx ssa = new SSAConstructorSparseEx();
+      ssa.splitVariables(root, mt);
+      List lstExprents = firstBlockStatement.getExprents();
+      VarVersionPair varpaar = new VarVersionPair((VarExprent)((AssignmentExprent)lstExprents.get(firstcode == 2 ? 1 : 0)).getLeft());
+      FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
+      DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+      LinkedList stack = new LinkedList();
+      stack.add(dgraph.first);
+      HashSet setVisited = new HashSet();
+
+      while(true) {
+         DirectNode isEmpty;
+         do {
+            if(stack.isEmpty()) {
+               if(fstat.getHandler().type == 8) {
+                  boolean var25 = false;
+                  boolean var26 = mapLast.containsKey(firstBasicBlock);
+                  InstructionSequence var27 = firstBasicBlock.getSeq();
+                  switch(firstcode) {
+                  case 0:
+                     var25 = var26 && var27.length() == 1;
+                     break;
+                  case 1:
+                     var25 = var27.length() == 1;
+                     break;
+                  case 2:
+                     var25 = var26 ? var27.length() == 3 : var27.length() == 1;
+                  }
+
+                  if(var25) {
+                     firstcode = 3;
+                  }
+               }
+
+               return new FinallyProcessor.Record(firstcode, mapLast, null);
+            }
+
+            isEmpty = (DirectNode)stack.removeFirst();
+         } while(setVisited.contains(isEmpty));
+
+         setVisited.add(isEmpty);
+         BasicBlockStatement isFirstLast = null;
+         if(isEmpty.block != null) {
+            isFirstLast = isEmpty.block;
+         } else if(isEmpty.preds.size() == 1) {
+            isFirstLast = ((DirectNode)isEmpty.preds.get(0)).block;
+         }
+
+         boolean seq = true;
+         if(firstcode != 1) {
+            seq = false;
+
+            for(int handler = 0; handler < isEmpty.exprents.size(); ++handler) {
+               Exprent exprent = (Exprent)isEmpty.exprents.get(handler);
+               if(firstcode != 0) {
+                  if(firstcode == 2 && exprent.type == 2) {
+                     AssignmentExprent var30 = (AssignmentExprent)exprent;
+                     if(var30.getRight().type == 12 && (new VarVersionPair((VarExprent)var30.getRight())).equals(varpaar)) {
+                        Exprent var34 = null;
+                        if(handler == isEmpty.exprents.size() - 1) {
+                           if(isEmpty.succs.size() == 1) {
+                              DirectNode var33 = (DirectNode)isEmpty.succs.get(0);
+                              if(!var33.exprents.isEmpty()) {
+                                 var34 = (Exprent)var33.exprents.get(0);
+                              }
+                           }
+                        } else {
+                           var34 = (Exprent)isEmpty.exprents.get(handler + 1);
+                        }
+
+                        boolean var35 = false;
+                        if(var34 != null && var34.type == 4) {
+                           ExitExprent var36 = (ExitExprent)var34;
+                           if(var36.getExitType() == 1 && var36.getValue().type == 12 && var30.getLeft().equals(var36.getValue())) {
+                              var35 = true;
+                           }
+                        }
+
+                        if(!var35) {
+                           return null;
+                        }
+
+                        seq = true;
+                     }
+                  }
+               } else {
+                  List edge = exprent.getAllExprents();
+                  edge.add(exprent);
+                  boolean existingFlag = false;
+                  Iterator found = edge.iterator();
+
+                  while(found.hasNext()) {
+                     Exprent exexpr = (Exprent)found.next();
+                     if(exexpr.type == 12 && (new VarVersionPair((VarExprent)exexpr)).equals(varpaar)) {
+                        existingFlag = true;
+                        break;
+                     }
+                  }
+
+                  if(existingFlag) {
+                     existingFlag = false;
+                     if(exprent.type == 4) {
+                        ExitExprent var32 = (ExitExprent)exprent;
+                        if(var32.getExitType() == 1 && var32.getValue().type == 12) {
+                           existingFlag = true;
+                        }
+                     }
+
+                     if(!existingFlag) {
+                        return null;
+                     }
+
+                     seq = true;
+                  }
+               }
+            }
+         }
+
+         if(isFirstLast != null && isFirstLast.getBlock() != null) {
+            label223: {
+               Statement var28 = fstat.getHandler();
+               Iterator var29 = isFirstLast.getSuccessorEdges(1073741824).iterator();
+
+               Boolean var37;
+               do {
+                  StatEdge var31;
+                  do {
+                     do {
+                        do {
+                           if(!var29.hasNext()) {
+                              break label223;
+                           }
+
+                           var31 = (StatEdge)var29.next();
+                        } while(var31.getType() == 1);
+                     } while(!var28.containsStatement(isFirstLast));
+                  } while(var28.containsStatement(var31.getDestination()));
+
+                  var37 = (Boolean)mapLast.get(isFirstLast.getBlock());
+               } while(var37 != null && var37.booleanValue());
+
+               mapLast.put(isFirstLast.getBlock(), Boolean.valueOf(seq));
+            }
+         }
+
+         stack.addAll(isEmpty.succs);
+      }
+   }
+
+   private static void insertSemaphore(ControlFlowGraph graph, Set setTry, BasicBlock head, BasicBlock handler, int var, FinallyProcessor.Record information, int bytecode_version) {
+      HashSet setCopy = new HashSet(setTry);
+      int finallytype = information.firstCode;
+      Map mapLast = information.mapLast;
+      removeExceptionInstructionsEx(handler, 1, finallytype);
+      Iterator seq = mapLast.entrySet().iterator();
+
+      BasicBlock newheadinit;
+      while(seq.hasNext()) {
+         Entry newhead = (Entry)seq.next();
+         newheadinit = (BasicBlock)newhead.getKey();
+         if(((Boolean)newhead.getValue()).booleanValue()) {
+            removeExceptionInstructionsEx(newheadinit, 2, finallytype);
+            graph.getFinallyExits().add(newheadinit);
+         }
+      }
+
+      seq = setTry.iterator();
+
+      Iterator var13;
+      BasicBlock hd;
+      BasicBlock var21;
+      label52:
+      while(seq.hasNext()) {
+         var21 = (BasicBlock)seq.next();
+         List var22 = var21.getSuccs();
+         var13 = var22.iterator();
+
+         while(true) {
+            do {
+               do {
+                  if(!var13.hasNext()) {
+                     continue label52;
+                  }
+
+                  hd = (BasicBlock)var13.next();
+               } while(setCopy.contains(hd));
+            } while(hd == graph.getLast());
+
+            SimpleInstructionSequence range = new SimpleInstructionSequence();
+            range.addInstruction(ConstantsUtil.getInstructionInstance(16, false, 1, bytecode_version, new int[]{0}), -1);
+            range.addInstruction(ConstantsUtil.getInstructionInstance(54, false, 1, bytecode_version, new int[]{var}), -1);
+            BasicBlock newblock = new BasicBlock(++graph.last_id);
+            newblock.setSeq(range);
+            var21.replaceSuccessor(hd, newblock);
+            newblock.addSuccessor(hd);
+            setCopy.add(newblock);
+            graph.getBlocks().addWithKey(newblock, Integer.valueOf(newblock.id));
+
+            for(int j = 0; j < var21.getSuccExceptions().size(); ++j) {
+               BasicBlock hd1 = (BasicBlock)var21.getSuccExceptions().get(j);
+               newblock.addSuccessorException(hd1);
+               ExceptionRangeCFG range1 = graph.getExceptionRange(hd1, var21);
+               range1.getProtectedRange().add(newblock);
+            }
+         }
+      }
+
+      SimpleInstructionSequence var20 = new SimpleInstructionSequence();
+      var20.addInstruction(ConstantsUtil.getInstructionInstance(16, false, 1, bytecode_version, new int[]{1}), -1);
+      var20.addInstruction(ConstantsUtil.getInstructionInstance(54, false, 1, bytecode_version, new int[]{var}), -1);
+      var21 = new BasicBlock(++graph.last_id);
+      var21.setSeq(var20);
+      insertBlockBefore(graph, head, var21);
+      var20 = new SimpleInstructionSequence();
+      var20.addInstruction(ConstantsUtil.getInstructionInstance(16, false, 1, bytecode_version, new int[]{0}), -1);
+      var20.addInstruction(ConstantsUtil.getInstructionInstance(54, false, 1, bytecode_version, new int[]{var}), -1);
+      newheadinit = new BasicBlock(++graph.last_id);
+      newheadinit.setSeq(var20);
+      insertBlockBefore(graph, var21, newheadinit);
+      setCopy.add(var21);
+      setCopy.add(newheadinit);
+      var13 = (new HashSet(newheadinit.getSuccExceptions())).iterator();
+
+      while(var13.hasNext()) {
+         hd = (BasicBlock)var13.next();
+         ExceptionRangeCFG var23 = graph.getExceptionRange(hd, newheadinit);
+         if(setCopy.containsAll(var23.getProtectedRange())) {
+            newheadinit.removeSuccessorException(hd);
+            var23.getProtectedRange().remove(newheadinit);
+         }
+      }
+
+   }
+
+   private static void insertBlockBefore(ControlFlowGraph graph, BasicBlock oldblock, BasicBlock newblock) {
+      ArrayList lstTemp = new ArrayList();
+      lstTemp.addAll(oldblock.getPreds());
+      lstTemp.addAll(oldblock.getPredExceptions());
+      Iterator var4 = lstTemp.iterator();
+
+      BasicBlock range;
+      while(var4.hasNext()) {
+         range = (BasicBlock)var4.next();
+         range.replaceSuccessor(oldblock, newblock);
+      }
+
+      var4 = oldblock.getSuccExceptions().iterator();
+
+      while(var4.hasNext()) {
+         range = (BasicBlock)var4.next();
+         newblock.addSuccessorException(range);
+         ExceptionRangeCFG range1 = graph.getExceptionRange(range, oldblock);
+         range1.getProtectedRange().add(newblock);
+      }
+
+      var4 = graph.getExceptions().iterator();
+
+      while(var4.hasNext()) {
+         ExceptionRangeCFG range2 = (ExceptionRangeCFG)var4.next();
+         if(range2.getHandler() == oldblock) {
+            range2.setHandler(newblock);
+         }
+      }
+
+      newblock.addSuccessor(oldblock);
+      graph.getBlocks().addWithKey(newblock, Integer.valueOf(newblock.id));
+      if(graph.getFirst() == oldblock) {
+         graph.setFirst(newblock);
+      }
+
+   }
+
+   private static HashSet getAllBasicBlocks(Statement stat) {
+      LinkedList lst = new LinkedList();
+      lst.add(stat);
+      int index = 0;
+
+      do {
+         Statement res = (Statement)lst.get(index);
+         if(res.type == 8) {
+            ++index;
+         } else {
+            lst.addAll(res.getStats());
+            lst.remove(index);
+         }
+      } while(index < lst.size());
+
+      HashSet var6 = new HashSet();
+      Iterator var4 = lst.iterator();
+
+      while(var4.hasNext()) {
+         Statement st = (Statement)var4.next();
+         var6.add(((BasicBlockStatement)st).getBlock());
+      }
+
+      return var6;
+   }
+
+   private boolean verifyFinallyEx(ControlFlowGraph graph, CatchAllStatement fstat, FinallyProcessor.Record information) {
+      HashSet tryBlocks = getAllBasicBlocks(fstat.getFirst());
+      HashSet catchBlocks = getAllBasicBlocks(fstat.getHandler());
+      int finallytype = information.firstCode;
+      Map mapLast = information.mapLast;
+      BasicBlock first = fstat.getHandler().getBasichead().getBlock();
+      boolean skippedFirst = false;
+      if(finallytype == 3) {
+         removeExceptionInstructionsEx(first, 3, finallytype);
+         if(mapLast.containsKey(first)) {
+            graph.getFinallyExits().add(first);
+         }
+
+         return true;
+      } else {
+         if(first.getSeq().length() == 1 && finallytype > 0) {
+            BasicBlock startBlocks = (BasicBlock)first.getSuccs().get(0);
+            if(catchBlocks.contains(startBlocks)) {
+               first = startBlocks;
+               skippedFirst = true;
+            }
+         }
+
+         HashSet startBlocks1 = new HashSet();
+         Iterator lstAreas = tryBlocks.iterator();
+
+         while(lstAreas.hasNext()) {
+            BasicBlock block = (BasicBlock)lstAreas.next();
+            startBlocks1.addAll(block.getSuccs());
+         }
+
+         startBlocks1.remove(graph.getLast());
+         startBlocks1.removeAll(tryBlocks);
+         ArrayList lstAreas1 = new ArrayList();
+         Iterator block1 = startBlocks1.iterator();
+
+         while(block1.hasNext()) {
+            BasicBlock entry = (BasicBlock)block1.next();
+            FinallyProcessor.Area last = this.compareSubgraphsEx(graph, entry, catchBlocks, first, finallytype, mapLast, skippedFirst);
+            if(last == null) {
+               return false;
+            }
+
+            lstAreas1.add(last);
+         }
+
+         block1 = lstAreas1.iterator();
+
+         while(block1.hasNext()) {
+            FinallyProcessor.Area entry1 = (FinallyProcessor.Area)block1.next();
+            deleteArea(graph, entry1);
+         }
+
+         block1 = mapLast.entrySet().iterator();
+
+         while(block1.hasNext()) {
+            Entry entry2 = (Entry)block1.next();
+            BasicBlock last1 = (BasicBlock)entry2.getKey();
+            if(((Boolean)entry2.getValue()).booleanValue()) {
+               removeExceptionInstructionsEx(last1, 2, finallytype);
+               graph.getFinallyExits().add(last1);
+            }
+         }
+
+         removeExceptionInstructionsEx(fstat.getHandler().getBasichead().getBlock(), 1, finallytype);
+         return true;
+      }
+   }
+
+   private FinallyProcessor.Area compareSubgraphsEx(ControlFlowGraph graph, BasicBlock startSample, HashSet catchBlocks, BasicBlock startCatch, int finallytype, Map mapLast, boolean skippedFirst) {
+      LinkedList stack = new LinkedList();
+      HashSet setSample = new HashSet();
+      HashMap mapNext = new HashMap();
+      class BlockStackEntry {
+         public BasicBlock blockCatch;
+         public BasicBlock blockSample;
+         public List lstStoreVars;
+
+         public BlockStackEntry(BasicBlock blockCatch, BasicBlock blockSample, List lstStoreVars) {
+            this.blockCatch = blockCatch;
+            this.blockSample = blockSample;
+            this.lstStoreVars = new ArrayList(lstStoreVars);
+         }
+      }
+
+      stack.add(new BlockStackEntry(startCatch, startSample, new ArrayList()));
+
+      while(true) {
+         BasicBlock blockSample;
+         boolean isLastBlock;
+         boolean isTrueLastBlock;
+         BasicBlock succ;
+         do {
+            if(stack.isEmpty()) {
+               return new FinallyProcessor.Area(startSample, setSample, getUniqueNext(graph, new HashSet(mapNext.values())), null);
+            }
+
+            BlockStackEntry entry = (BlockStackEntry)stack.remove(0);
+            BasicBlock blockCatch = entry.blockCatch;
+            blockSample = entry.blockSample;
+            boolean isFirstBlock = !skippedFirst && blockCatch == startCatch;
+            isLastBlock = mapLast.containsKey(blockCatch);
+            isTrueLastBlock = isLastBlock && ((Boolean)mapLast.get(blockCatch)).booleanValue();
+            if(!this.compareBasicBlocksEx(graph, blockCatch, blockSample, (isFirstBlock ? 1 : 0) | (isTrueLastBlock ? 2 : 0), finallytype, entry.lstStoreVars)) {
+               return null;
+            }
+
+            if(blockSample.getSuccs().size() != blockCatch.getSuccs().size()) {
+               return null;
+            }
+
+            setSample.add(blockSample);
+
+            int setSuccs;
+            BasicBlock sucCatch;
+            for(setSuccs = 0; setSuccs < blockCatch.getSuccs().size(); ++setSuccs) {
+               sucCatch = (BasicBlock)blockCatch.getSuccs().get(setSuccs);
+               succ = (BasicBlock)blockSample.getSuccs().get(setSuccs);
+               if(catchBlocks.contains(sucCatch) && !setSample.contains(succ)) {
+                  stack.add(new BlockStackEntry(sucCatch, succ, entry.lstStoreVars));
+               }
+            }
+
+            if(!isLastBlock || !blockSample.getSeq().isEmpty()) {
+               if(blockCatch.getSuccExceptions().size() != blockSample.getSuccExceptions().size()) {
+                  return null;
+               }
+
+               for(setSuccs = 0; setSuccs < blockCatch.getSuccExceptions().size(); ++setSuccs) {
+                  sucCatch = (BasicBlock)blockCatch.getSuccExceptions().get(setSuccs);
+                  succ = (BasicBlock)blockSample.getSuccExceptions().get(setSuccs);
+                  String excCatch = graph.getExceptionRange(sucCatch, blockCatch).getUniqueExceptionsString();
+                  String excSample = graph.getExceptionRange(succ, blockSample).getUniqueExceptionsString();
+                  boolean equalexc = excCatch == null ? excSample == null : excCatch.equals(excSample);
+                  if(!equalexc) {
+                     return null;
+                  }
+
+                  if(catchBlocks.contains(sucCatch) && !setSample.contains(succ)) {
+                     Object lst = entry.lstStoreVars;
+                     if(sucCatch.getSeq().length() > 0 && succ.getSeq().length() > 0) {
+                        Instruction instrCatch = sucCatch.getSeq().getInstr(0);
+                        Instruction instrSample = succ.getSeq().getInstr(0);
+                        if(instrCatch.opcode == 58 && instrSample.opcode == 58) {
+                           lst = new ArrayList((Collection)lst);
+                           ((List)lst).add(new int[]{instrCatch.getOperand(0), instrSample.getOperand(0)});
+                        }
+                     }
+
+                     stack.add(new BlockStackEntry(sucCatch, succ, (List)lst));
+                  }
+               }
+            }
+         } while(!isLastBlock);
+
+         HashSet var26 = new HashSet(blockSample.getSuccs());
+         var26.removeAll(setSample);
+         Iterator var27 = stack.iterator();
+
+         while(var27.hasNext()) {
+            BlockStackEntry var28 = (BlockStackEntry)var27.next();
+            var26.remove(var28.blockSample);
+         }
+
+         var27 = var26.iterator();
+
+         while(var27.hasNext()) {
+            succ = (BasicBlock)var27.next();
+            if(graph.getLast() != succ) {
+               mapNext.put(blockSample.id + "#" + succ.id, new BasicBlock[]{blockSample, succ, isTrueLastBlock ? succ : null});
+            }
+         }
+      }
+   }
+
+   private static BasicBlock getUniqueNext(ControlFlowGraph graph, Set setNext) {
+      BasicBlock next = null;
+      boolean multiple = false;
+      Iterator var4 = setNext.iterator();
+
+      BasicBlock[] arr;
+      while(var4.hasNext()) {
+         arr = (BasicBlock[])var4.next();
+         if(arr[2] != null) {
+            next = arr[1];
+            multiple = false;
+            break;
+         }
+
+         if(next == null) {
+            next = arr[1];
+         } else if(next != arr[1]) {
+            multiple = true;
+         }
+
+         if(arr[1].getPreds().size() == 1) {
+            next = arr[1];
+         }
+      }
+
+      if(multiple) {
+         var4 = setNext.iterator();
+
+         while(true) {
+            if(!var4.hasNext()) {
+               var4 = setNext.iterator();
+
+               while(var4.hasNext()) {
+                  arr = (BasicBlock[])var4.next();
+                  if(arr[1] != next) {
+                     arr[0].removeSuccessor(arr[1]);
+                     arr[0].addSuccessor(next);
+                  }
+               }
+
+               DeadCodeHelper.removeDeadBlocks(graph);
+               break;
+            }
+
+            arr = (BasicBlock[])var4.next();
+            BasicBlock block = arr[1];
+            if(block != next) {
+               if(!InterpreterUtil.equalSets(next.getSuccs(), block.getSuccs())) {
+                  return null;
+               }
+
+               InstructionSequence seqNext = next.getSeq();
+               InstructionSequence seqBlock = block.getSeq();
+               if(seqNext.length() != seqBlock.length()) {
+                  return null;
+               }
+
+               for(int i = 0; i < seqNext.length(); ++i) {
+                  Instruction instrNext = seqNext.getInstr(i);
+                  Instruction instrBlock = seqBlock.getInstr(i);
+                  if(instrNext.opcode != instrBlock.opcode || instrNext.wide != instrBlock.wide || instrNext.operandsCount() != instrBlock.operandsCount()) {
+                     return null;
+                  }
+
+                  for(int j = 0; j < instrNext.getOperands().length; ++j) {
+                     if(instrNext.getOperand(j) != instrBlock.getOperand(j)) {
+                        return null;
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+      return next;
+   }
+
+   private boolean compareBasicBlocksEx(ControlFlowGraph graph, BasicBlock pattern, BasicBlock sample, int type, int finallytype, List lstStoreVars) {
+      InstructionSequence seqPattern = pattern.getSeq();
+      InstructionSequence seqSample = sample.getSeq();
+      if(type != 0) {
+         seqPattern = seqPattern.clone();
+         if((type & 1) > 0 && finallytype > 0) {
+            seqPattern.removeInstruction(0);
+         }
+
+         if((type & 2) > 0) {
+            if(finallytype == 0 || finallytype == 2) {
+               seqPattern.removeInstruction(seqPattern.length() - 1);
+            }
+
+            if(finallytype == 2) {
+               seqPattern.removeInstruction(seqPattern.length() - 1);
+            }
+         }
+      }
+
+      if(seqPattern.length() > seqSample.length()) {
+         return false;
+      } else {
+         for(int seq = 0; seq < seqPattern.length(); ++seq) {
+            Instruction newblock = seqPattern.getInstr(seq);
+            Instruction lstTemp = seqSample.getInstr(seq);
+            if(!this.equalInstructions(newblock, lstTemp, lstStoreVars)) {
+               return false;
+            }
+         }
+
+         if(seqPattern.length() < seqSample.length()) {
+            SimpleInstructionSequence var16 = new SimpleInstructionSequence();
+
+            for(int var17 = seqSample.length() - 1; var17 >= seqPattern.length(); --var17) {
+               var16.addInstruction(0, seqSample.getInstr(var17), -1);
+               seqSample.removeInstruction(var17);
+            }
+
+            BasicBlock var18 = new BasicBlock(++graph.last_id);
+            var18.setSeq(var16);
+            ArrayList var19 = new ArrayList();
+            var19.addAll(sample.getSuccs());
+            Iterator setFinallyExits = var19.iterator();
+
+            while(setFinallyExits.hasNext()) {
+               BasicBlock j = (BasicBlock)setFinallyExits.next();
+               sample.removeSuccessor(j);
+               var18.addSuccessor(j);
+            }
+
+            sample.addSuccessor(var18);
+            graph.getBlocks().addWithKey(var18, Integer.valueOf(var18.id));
+            Set var20 = graph.getFinallyExits();
+            if(var20.contains(sample)) {
+               var20.remove(sample);
+               var20.add(var18);
+            }
+
+            for(int var21 = 0; var21 < sample.getSuccExceptions().size(); ++var21) {
+               BasicBlock hd = (BasicBlock)sample.getSuccExceptions().get(var21);
+               var18.addSuccessorException(hd);
+               ExceptionRangeCFG range = graph.getExceptionRange(hd, sample);
+               range.getProtectedRange().add(var18);
+            }
+         }
+
+         return true;
+      }
+   }
+
+   public boolean equalInstructions(Instruction first, Instruction second, List lstStoreVars) {
+      if(first.opcode == second.opcode && first.wide == second.wide && first.operandsCount() == second.operandsCount()) {
+         if(first.group != 2 && first.getOperands() != null) {
+            for(int i = 0; i < first.getOperands().length; ++i) {
+               int firstOp = first.getOperand(i);
+               int secondOp = second.getOperand(i);
+               if(firstOp != secondOp) {
+                  if(first.opcode == 25 || first.opcode == 58) {
+                     Iterator var7 = lstStoreVars.iterator();
+
+                     while(var7.hasNext()) {
+                        int[] arr = (int[])var7.next();
+                        if(arr[0] == firstOp && arr[1] == secondOp) {
+                           return true;
+                        }
+                     }
+                  }
+
+                  return false;
+               }
+            }
+         }
+
+         return true;
+      } else {
+         return false;
+      }
+   }
+
+   private static void deleteArea(ControlFlowGraph graph, FinallyProcessor.Area area) {
+      BasicBlock start = area.start;
+      BasicBlock next = area.next;
+      if(start != next) {
+         if(next == null) {
+            next = graph.getLast();
+         }
+
+         HashSet setCommonExceptionHandlers = new HashSet(next.getSuccExceptions());
+         Iterator is_outside_range = start.getPreds().iterator();
+
+         while(is_outside_range.hasNext()) {
+            BasicBlock setPredecessors = (BasicBlock)is_outside_range.next();
+            setCommonExceptionHandlers.retainAll(setPredecessors.getSuccExceptions());
+         }
+
+         boolean var15 = false;
+         HashSet var16 = new HashSet(start.getPreds());
+         Iterator setBlocks = var16.iterator();
+
+         while(setBlocks.hasNext()) {
+            BasicBlock setCommonRemovedExceptionRanges = (BasicBlock)setBlocks.next();
+            setCommonRemovedExceptionRanges.replaceSuccessor(start, next);
+         }
+
+         Set var17 = area.sample;
+         HashSet var18 = null;
+         Iterator emptyblock = var17.iterator();
+
+         while(true) {
+            BasicBlock block;
+            do {
+               if(!emptyblock.hasNext()) {
+                  if(var15) {
+                     BasicBlock var19 = new BasicBlock(++graph.last_id);
+                     var19.setSeq(new SimpleInstructionSequence());
+                     graph.getBlocks().addWithKey(var19, Integer.valueOf(var19.id));
+                     Iterator var20;
+                     if(var18 != null) {
+                        var20 = var18.iterator();
+
+                        while(var20.hasNext()) {
+                           ExceptionRangeCFG var21 = (ExceptionRangeCFG)var20.next();
+                           var19.addSuccessorException(var21.getHandler());
+                           var21.getProtectedRange().add(var19);
+                        }
+                     }
+
+                     var19.addSuccessor(next);
+                     var20 = var16.iterator();
+
+                     while(var20.hasNext()) {
+                        BasicBlock var22 = (BasicBlock)var20.next();
+                        var22.replaceSuccessor(next, var19);
+                     }
+                  }
+
+                  return;
+               }
+
+               block = (BasicBlock)emptyblock.next();
+            } while(!graph.getBlocks().containsKey(Integer.valueOf(block.id)));
+
+            if(!block.getSuccExceptions().containsAll(setCommonExceptionHandlers)) {
+               var15 = true;
+            }
+
+            HashSet pred = new HashSet();
+            Iterator succs = block.getSuccExceptions().iterator();
+
+            while(succs.hasNext()) {
+               BasicBlock handler = (BasicBlock)succs.next();
+               pred.add(graph.getExceptionRange(handler, block));
+            }
+
+            if(var18 == null) {
+               var18 = pred;
+            } else {
+               var18.retainAll(pred);
+            }
+
+            if(block.getSeq().isEmpty() && block.getSuccs().size() == 1) {
+               BasicBlock var23 = (BasicBlock)block.getSuccs().get(0);
+               Iterator var24 = (new ArrayList(block.getPreds())).iterator();
+
+               while(var24.hasNext()) {
+                  BasicBlock pred1 = (BasicBlock)var24.next();
+                  if(!var17.contains(pred1)) {
+                     pred1.replaceSuccessor(block, var23);
+                  }
+               }
+
+               if(graph.getFirst() == block) {
+                  graph.setFirst(var23);
+               }
+            }
+
+            graph.removeBlock(block);
+         }
+      }
+   }
+
+   private static void removeExceptionInstructionsEx(BasicBlock block, int blocktype, int finallytype) {
+      InstructionSequence seq = block.getSeq();
+      if(finallytype == 3) {
+         for(int i = seq.length() - 1; i >= 0; --i) {
+            seq.removeInstruction(i);
+         }
+      } else {
+         if((blocktype & 1) > 0 && (finallytype == 2 || finallytype == 1)) {
+            seq.removeInstruction(0);
+         }
+
+         if((blocktype & 2) > 0) {
+            if(finallytype == 2 || finallytype == 0) {
+               seq.removeInstruction(seq.length() - 1);
+            }
+
+            if(finallytype == 2) {
+               seq.removeInstruction(seq.length() - 1);
+            }
+         }
+      }
+
+   }
+
+   private static class Record {
+      private final int firstCode;
+      private final Map mapLast;
+
+      private Record(int firstCode, Map mapLast) {
+         this.firstCode = firstCode;
+         this.mapLast = mapLast;
+      }
+
+      // $FF: synthetic method
+      Record(int x0, Map x1, Object x2) {
+         this(x0, x1);
+      }
+   }
+
+   private static class Area {
+      private final BasicBlock start;
+      private final Set sample;
+      private final BasicBlock next;
+
+      private Area(BasicBlock start, Set sample, BasicBlock next) {
+         this.start = start;
+         this.sample = sample;
+         this.next = next;
+      }
+
+      // $FF: synthetic method
+      Area(BasicBlock x0, Set x1, BasicBlock x2, Object x3) {
+         this(x0, x1, x2);
+      }
+   }
+}
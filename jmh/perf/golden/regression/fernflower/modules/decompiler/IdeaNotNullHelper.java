@@ -0,0 +1,232 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.modules.decompiler.exps.AnnotationExprent;
+import regression.fernflower.modules.decompiler.exps.ExitExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.SequenceStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.attr.StructAnnotationAttribute;
+import regression.fernflower.struct.attr.StructAnnotationParameterAttribute;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.util.VBStyleCollection;
+
+public class IdeaNotNullHelper {
+   public static boolean removeHardcodedChecks(Statement root, StructMethod mt) {
+      boolean checks_removed;
+      for(checks_removed = false; findAndRemoveParameterCheck(root, mt); checks_removed = true) {
+      }
+
+      while(findAndRemoveReturnCheck(root, mt)) {
+         checks_removed = true;
+      }
+
+      return checks_removed;
+   }
+
+   private static boolean findAndRemoveParameterCheck(Statement stat, StructMethod mt) {
+      Statement st;
+      for(st = stat.getFirst(); st.type == 15; st = st.getFirst()) {
+      }
+
+      if(st.type != 2) {
+         return false;
+      } else {
+         IfStatement ifstat = (IfStatement)st;
+         Statement ifbranch = ifstat.getIfstat();
+         Exprent if_condition = ifstat.getHeadexprent().getCondition();
+         boolean is_notnull_check = false;
+         if(ifbranch != null && if_condition.type == 6 && ((FunctionExprent)if_condition).getFuncType() == 42 && ifbranch.type == 8 && ifbranch.getExprents().size() == 1 && ((Exprent)ifbranch.getExprents().get(0)).type == 4) {
+            FunctionExprent func = (FunctionExprent)if_condition;
+            Exprent first_param = (Exprent)func.getLstOperands().get(0);
+            Exprent second_param = (Exprent)func.getLstOperands().get(1);
+            if(second_param.type == 3 && second_param.getExprType().type == 13 && first_param.type == 12) {
+               VarExprent var = (VarExprent)first_param;
+               boolean thisvar = !mt.hasModifier(8);
+               MethodDescriptor md = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+               VBStyleCollection attributes = mt.getAttributes();
+               StructAnnotationParameterAttribute param_annotations = (StructAnnotationParameterAttribute)attributes.getWithKey("RuntimeInvisibleParameterAnnotations");
+               if(param_annotations != null) {
+                  List param_annotations_lists = param_annotations.getParamAnnotations();
+                  int method_param_number = md.params.length;
+                  int index = thisvar ? 1 : 0;
+
+                  for(int i = 0; i < method_param_number; ++i) {
+                     if(index == var.getIndex()) {
+                        if(param_annotations_lists.size() >= method_param_number - i) {
+                           int shift = method_param_number - param_annotations_lists.size();
+                           List annotations = (List)param_annotations_lists.get(i - shift);
+                           Iterator var21 = annotations.iterator();
+
+                           while(var21.hasNext()) {
+                              AnnotationExprent ann = (AnnotationExprent)var21.next();
+                              if(ann.getClassName().equals("org/jetbrains/annotations/NotNull")) {
+                                 is_notnull_check = true;
+                              }
+                           }
+                        }
+                        break;
+                     }
+
+                     index += md.params[i].stackSize;
+                  }
+               }
+            }
+         }
+
+         if(!is_notnull_check) {
+            return false;
+         } else {
+            removeParameterCheck(stat, mt);
+            return true;
+         }
+      }
+   }
+
+   private static void removeParameterCheck(Statement stat, StructMethod mt) {
+      Statement st;
+      for(st = stat.getFirst(); st.type == 15; st = st.getFirst()) {
+      }
+
+      IfStatement ifstat = (IfStatement)st;
+      if(ifstat.getElsestat() != null) {
+         StatEdge ifedge = ifstat.getIfEdge();
+         StatEdge elseedge = ifstat.getElseEdge();
+         Statement ifbranch = ifstat.getIfstat();
+         Statement elsebranch = ifstat.getElsestat();
+         ifstat.getFirst().removeSuccessor(ifedge);
+         ifstat.getFirst().removeSuccessor(elseedge);
+         ifstat.getStats().removeWithKey(ifbranch.id);
+         ifstat.getStats().removeWithKey(elsebranch.id);
+         if(!ifbranch.getAllSuccessorEdges().isEmpty()) {
+            ifbranch.removeSuccessor((StatEdge)ifbranch.getAllSuccessorEdges().get(0));
+         }
+
+         ifstat.getParent().replaceStatement(ifstat, elsebranch);
+         ifstat.getParent().setAllParent();
+      }
+
+   }
+
+   private static boolean findAndRemoveReturnCheck(Statement stat, StructMethod mt) {
+      VBStyleCollection attributes = mt.getAttributes();
+      boolean is_notnull_check = false;
+      StructAnnotationAttribute attr = (StructAnnotationAttribute)attributes.getWithKey("RuntimeInvisibleAnnotations");
+      if(attr != null) {
+         List annotations = attr.getAnnotations();
+         Iterator var6 = annotations.iterator();
+
+         while(var6.hasNext()) {
+            AnnotationExprent ann = (AnnotationExprent)var6.next();
+            if(ann.getClassName().equals("org/jetbrains/annotations/NotNull")) {
+               is_notnull_check = true;
+            }
+         }
+      }
+
+      return is_notnull_check ? removeReturnCheck(stat, mt) : false;
+   }
+
+   private static boolean removeReturnCheck(Statement stat, StructMethod mt) {
+      Statement parent = stat.getParent();
+      Exprent exprent;
+      ExitExprent st;
+      Exprent exprent_value;
+      Exprent if_condition;
+      Statement ifbranch;
+      if(parent != null && parent.type == 2 && stat.type == 8 && stat.getExprents().size() == 1) {
+         exprent = (Exprent)stat.getExprents().get(0);
+         if(exprent.type == 4) {
+            st = (ExitExprent)exprent;
+            if(st.getExitType() == 0) {
+               exprent_value = st.getValue();
+               IfStatement sequence1 = (IfStatement)parent;
+               Exprent sequence_stats_number1 = sequence1.getHeadexprent().getCondition();
+               if(sequence1.getElsestat() == stat && sequence_stats_number1.type == 6 && ((FunctionExprent)sequence_stats_number1).getFuncType() == 42) {
+                  FunctionExprent ifstat1 = (FunctionExprent)sequence_stats_number1;
+                  if_condition = (Exprent)ifstat1.getLstOperands().get(0);
+                  Exprent func1 = (Exprent)ifstat1.getLstOperands().get(1);
+                  StatEdge first_param1 = sequence1.getIfEdge();
+                  StatEdge second_param1 = sequence1.getElseEdge();
+                  ifbranch = sequence1.getIfstat();
+                  Statement elsebranch1 = sequence1.getElsestat();
+                  if(func1.type == 3 && func1.getExprType().type == 13 && if_condition.equals(exprent_value) && ifbranch.type == 8 && ifbranch.getExprents().size() == 1 && ((Exprent)ifbranch.getExprents().get(0)).type == 4) {
+                     sequence1.getFirst().removeSuccessor(first_param1);
+                     sequence1.getFirst().removeSuccessor(second_param1);
+                     sequence1.getStats().removeWithKey(ifbranch.id);
+                     sequence1.getStats().removeWithKey(elsebranch1.id);
+                     if(!ifbranch.getAllSuccessorEdges().isEmpty()) {
+                        ifbranch.removeSuccessor((StatEdge)ifbranch.getAllSuccessorEdges().get(0));
+                     }
+
+                     if(!sequence1.getFirst().getExprents().isEmpty()) {
+                        elsebranch1.getExprents().addAll(0, sequence1.getFirst().getExprents());
+                     }
+
+                     sequence1.getParent().replaceStatement(sequence1, elsebranch1);
+                     sequence1.getParent().setAllParent();
+                     return true;
+                  }
+               }
+            }
+         }
+      } else if(parent != null && parent.type == 15 && stat.type == 8 && stat.getExprents().size() == 1) {
+         exprent = (Exprent)stat.getExprents().get(0);
+         if(exprent.type == 4) {
+            st = (ExitExprent)exprent;
+            if(st.getExitType() == 0) {
+               exprent_value = st.getValue();
+               SequenceStatement sequence = (SequenceStatement)parent;
+               int sequence_stats_number = sequence.getStats().size();
+               if(sequence_stats_number > 1 && sequence.getStats().getLast() == stat && ((Statement)sequence.getStats().get(sequence_stats_number - 2)).type == 2) {
+                  IfStatement ifstat = (IfStatement)sequence.getStats().get(sequence_stats_number - 2);
+                  if_condition = ifstat.getHeadexprent().getCondition();
+                  if(ifstat.iftype == 0 && if_condition.type == 6 && ((FunctionExprent)if_condition).getFuncType() == 42) {
+                     FunctionExprent func = (FunctionExprent)if_condition;
+                     Exprent first_param = (Exprent)func.getLstOperands().get(0);
+                     Exprent second_param = (Exprent)func.getLstOperands().get(1);
+                     ifbranch = ifstat.getIfstat();
+                     if(second_param.type == 3 && second_param.getExprType().type == 13 && first_param.equals(exprent_value) && ifbranch.type == 8 && ifbranch.getExprents().size() == 1 && ((Exprent)ifbranch.getExprents().get(0)).type == 4) {
+                        ifstat.removeSuccessor((StatEdge)ifstat.getAllSuccessorEdges().get(0));
+                        if(!ifstat.getFirst().getExprents().isEmpty()) {
+                           stat.getExprents().addAll(0, ifstat.getFirst().getExprents());
+                        }
+
+                        Iterator elsebranch = ifstat.getAllPredecessorEdges().iterator();
+
+                        while(elsebranch.hasNext()) {
+                           StatEdge edge = (StatEdge)elsebranch.next();
+                           ifstat.removePredecessor(edge);
+                           edge.getSource().changeEdgeNode(1, edge, stat);
+                           stat.addPredecessor(edge);
+                        }
+
+                        sequence.getStats().removeWithKey(ifstat.id);
+                        sequence.setFirst((Statement)sequence.getStats().get(0));
+                        return true;
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+      Iterator exprent1 = stat.getStats().iterator();
+
+      Statement st1;
+      do {
+         if(!exprent1.hasNext()) {
+            return false;
+         }
+
+         st1 = (Statement)exprent1.next();
+      } while(!removeReturnCheck(st1, mt));
+
+      return true;
+   }
+}
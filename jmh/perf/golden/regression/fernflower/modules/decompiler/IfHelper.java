@@ -0,0 +1,611 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.IfExprent;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.SequenceStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+
+public class IfHelper {
+   public static boolean mergeAllIfs(RootStatement root) {
+      boolean res = mergeAllIfsRec(root, new HashSet());
+      if(res) {
+         SequenceHelper.condenseSequences(root);
+      }
+
+      return res;
+   }
+
+   private static boolean mergeAllIfsRec(Statement stat, HashSet setReorderedIfs) {
+      boolean res = false;
+      boolean changed;
+      if(stat.getExprents() == null) {
+         do {
+            changed = false;
+            Iterator var4 = stat.getStats().iterator();
+
+            while(var4.hasNext()) {
+               Statement st = (Statement)var4.next();
+               res |= mergeAllIfsRec(st, setReorderedIfs);
+               if(changed = mergeIfs(st, setReorderedIfs)) {
+                  break;
+               }
+            }
+
+            res |= changed;
+         } while(changed);
+      }
+
+      return res;
+   }
+
+   public static boolean mergeIfs(Statement statement, HashSet setReorderedIfs) {
+      if(statement.type != 2 && statement.type != 15) {
+         return false;
+      } else {
+         boolean res = false;
+
+         while(true) {
+            boolean updated = false;
+            ArrayList lst = new ArrayList();
+            if(statement.type == 2) {
+               lst.add(statement);
+            } else {
+               lst.addAll(statement.getStats());
+            }
+
+            boolean stsingle = lst.size() == 1;
+            Iterator var6 = lst.iterator();
+
+            while(var6.hasNext()) {
+               Statement stat = (Statement)var6.next();
+               if(stat.type == 2) {
+                  IfHelper.IfNode rtnode = buildGraph((IfStatement)stat, stsingle);
+                  if(rtnode != null) {
+                     if((updated = collapseIfIf(rtnode)) || !setReorderedIfs.contains(stat.id) && ((updated = collapseIfElse(rtnode)) || (updated = collapseElse(rtnode)))) {
+                        break;
+                     }
+
+                     if(updated = reorderIf((IfStatement)stat)) {
+                        setReorderedIfs.add(stat.id);
+                        break;
+                     }
+                  }
+               }
+            }
+
+            if(!updated) {
+               return res;
+            }
+
+            res |= updated;
+         }
+      }
+   }
+
+   private static boolean collapseIfIf(IfHelper.IfNode rtnode) {
+      if(((Integer)rtnode.edgetypes.get(0)).intValue() == 0) {
+         IfHelper.IfNode ifbranch = (IfHelper.IfNode)rtnode.succs.get(0);
+         if(ifbranch.succs.size() == 2 && ((IfHelper.IfNode)ifbranch.succs.get(1)).value == ((IfHelper.IfNode)rtnode.succs.get(1)).value) {
+            IfStatement ifparent = (IfStatement)rtnode.value;
+            IfStatement ifchild = (IfStatement)ifbranch.value;
+            Statement ifinner = ((IfHelper.IfNode)ifbranch.succs.get(0)).value;
+            if(ifchild.getFirst().getExprents().isEmpty()) {
+               ifparent.getFirst().removeSuccessor(ifparent.getIfEdge());
+               ifchild.removeSuccessor((StatEdge)ifchild.getAllSuccessorEdges().get(0));
+               ifparent.getStats().removeWithKey(ifchild.id);
+               StatEdge statexpr;
+               if(((Integer)ifbranch.edgetypes.get(0)).intValue() == 1) {
+                  ifparent.setIfstat((Statement)null);
+                  statexpr = ifchild.getIfEdge();
+                  ifchild.getFirst().removeSuccessor(statexpr);
+                  statexpr.setSource(ifparent.getFirst());
+                  if(statexpr.closure == ifchild) {
+                     statexpr.closure = null;
+                  }
+
+                  ifparent.getFirst().addSuccessor(statexpr);
+                  ifparent.setIfEdge(statexpr);
+               } else {
+                  ifchild.getFirst().removeSuccessor(ifchild.getIfEdge());
+                  statexpr = new StatEdge(1, ifparent.getFirst(), ifinner);
+                  ifparent.getFirst().addSuccessor(statexpr);
+                  ifparent.setIfEdge(statexpr);
+                  ifparent.setIfstat(ifinner);
+                  ifparent.getStats().addWithKey(ifinner, ifinner.id);
+                  ifinner.setParent(ifparent);
+                  if(!ifinner.getAllSuccessorEdges().isEmpty()) {
+                     StatEdge lstOperands = (StatEdge)ifinner.getAllSuccessorEdges().get(0);
+                     if(lstOperands.closure == ifchild) {
+                        lstOperands.closure = null;
+                     }
+                  }
+               }
+
+               IfExprent statexpr1 = ifparent.getHeadexprent();
+               ArrayList lstOperands1 = new ArrayList();
+               lstOperands1.add(statexpr1.getCondition());
+               lstOperands1.add(ifchild.getHeadexprent().getCondition());
+               statexpr1.setCondition(new FunctionExprent(48, lstOperands1, (Set)null));
+               statexpr1.addBytecodeOffsets(ifchild.getHeadexprent().bytecode);
+               return true;
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean collapseIfElse(IfHelper.IfNode rtnode) {
+      if(((Integer)rtnode.edgetypes.get(0)).intValue() == 0) {
+         IfHelper.IfNode ifbranch = (IfHelper.IfNode)rtnode.succs.get(0);
+         if(ifbranch.succs.size() == 2 && ((IfHelper.IfNode)ifbranch.succs.get(0)).value == ((IfHelper.IfNode)rtnode.succs.get(1)).value) {
+            IfStatement ifparent = (IfStatement)rtnode.value;
+            IfStatement ifchild = (IfStatement)ifbranch.value;
+            if(ifchild.getFirst().getExprents().isEmpty()) {
+               ifparent.getFirst().removeSuccessor(ifparent.getIfEdge());
+               ifchild.getFirst().removeSuccessor(ifchild.getIfEdge());
+               ifparent.getStats().removeWithKey(ifchild.id);
+               if(((Integer)ifbranch.edgetypes.get(1)).intValue() == 1 && ((Integer)ifbranch.edgetypes.get(0)).intValue() == 1) {
+                  ifparent.setIfstat((Statement)null);
+                  StatEdge statexpr = (StatEdge)ifchild.getAllSuccessorEdges().get(0);
+                  ifchild.removeSuccessor(statexpr);
+                  statexpr.setSource(ifparent.getFirst());
+                  ifparent.getFirst().addSuccessor(statexpr);
+                  ifparent.setIfEdge(statexpr);
+                  IfExprent statexpr1 = ifparent.getHeadexprent();
+                  ArrayList lstOperands = new ArrayList();
+                  lstOperands.add(statexpr1.getCondition());
+                  lstOperands.add(new FunctionExprent(12, ifchild.getHeadexprent().getCondition(), (Set)null));
+                  statexpr1.setCondition(new FunctionExprent(48, lstOperands, (Set)null));
+                  statexpr1.addBytecodeOffsets(ifchild.getHeadexprent().bytecode);
+                  return true;
+               }
+
+               throw new RuntimeException("inconsistent if structure!");
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean collapseElse(IfHelper.IfNode rtnode) {
+      if(((Integer)rtnode.edgetypes.get(1)).intValue() == 0) {
+         IfHelper.IfNode elsebranch = (IfHelper.IfNode)rtnode.succs.get(1);
+         IfExprent statexpr1;
+         if(elsebranch.succs.size() == 2) {
+            int firstif = ((IfHelper.IfNode)elsebranch.succs.get(1)).value == ((IfHelper.IfNode)rtnode.succs.get(0)).value ? 2 : (((IfHelper.IfNode)elsebranch.succs.get(0)).value == ((IfHelper.IfNode)rtnode.succs.get(0)).value ? 1 : 0);
+            if(firstif > 0) {
+               IfStatement second = (IfStatement)rtnode.value;
+               IfStatement ifedge = (IfStatement)elsebranch.value;
+               Statement newifedge = second.getParent();
+               if(ifedge.getFirst().getExprents().isEmpty()) {
+                  second.getFirst().removeSuccessor(second.getIfEdge());
+                  second.removeAllSuccessors(ifedge);
+                  Iterator statexpr = second.getAllPredecessorEdges().iterator();
+
+                  while(statexpr.hasNext()) {
+                     StatEdge lstOperands = (StatEdge)statexpr.next();
+                     if(!second.containsStatementStrict(lstOperands.getSource())) {
+                        second.removePredecessor(lstOperands);
+                        lstOperands.getSource().changeEdgeNode(1, lstOperands, ifedge);
+                        ifedge.addPredecessor(lstOperands);
+                     }
+                  }
+
+                  newifedge.getStats().removeWithKey(second.id);
+                  if(newifedge.getFirst() == second) {
+                     newifedge.setFirst(ifedge);
+                  }
+
+                  statexpr1 = ifedge.getHeadexprent();
+                  ArrayList lstOperands1 = new ArrayList();
+                  lstOperands1.add(second.getHeadexprent().getCondition());
+                  if(firstif == 2) {
+                     lstOperands1.set(0, new FunctionExprent(12, (Exprent)lstOperands1.get(0), (Set)null));
+                  }
+
+                  lstOperands1.add(statexpr1.getCondition());
+                  statexpr1.setCondition(new FunctionExprent(firstif == 1 ? 49 : 48, lstOperands1, (Set)null));
+                  if(ifedge.getFirst().getExprents().isEmpty() && !second.getFirst().getExprents().isEmpty()) {
+                     ifedge.replaceStatement(ifedge.getFirst(), second.getFirst());
+                  }
+
+                  return true;
+               }
+            }
+         } else if(elsebranch.succs.size() == 1 && ((IfHelper.IfNode)elsebranch.succs.get(0)).value == ((IfHelper.IfNode)rtnode.succs.get(0)).value) {
+            IfStatement firstif1 = (IfStatement)rtnode.value;
+            Statement second1 = elsebranch.value;
+            firstif1.removeAllSuccessors(second1);
+            Iterator ifedge1 = second1.getAllSuccessorEdges().iterator();
+
+            StatEdge newifedge1;
+            while(ifedge1.hasNext()) {
+               newifedge1 = (StatEdge)ifedge1.next();
+               second1.removeSuccessor(newifedge1);
+               newifedge1.setSource(firstif1);
+               firstif1.addSuccessor(newifedge1);
+            }
+
+            StatEdge ifedge2 = firstif1.getIfEdge();
+            firstif1.getFirst().removeSuccessor(ifedge2);
+            second1.addSuccessor(new StatEdge(ifedge2.getType(), second1, ifedge2.getDestination(), ifedge2.closure));
+            newifedge1 = new StatEdge(1, firstif1.getFirst(), second1);
+            firstif1.getFirst().addSuccessor(newifedge1);
+            firstif1.setIfstat(second1);
+            firstif1.getStats().addWithKey(second1, second1.id);
+            second1.setParent(firstif1);
+            firstif1.getParent().getStats().removeWithKey(second1.id);
+            statexpr1 = firstif1.getHeadexprent();
+            statexpr1.setCondition(new FunctionExprent(12, statexpr1.getCondition(), (Set)null));
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   private static IfHelper.IfNode buildGraph(IfStatement stat, boolean stsingle) {
+      if(stat.iftype == 1) {
+         return null;
+      } else {
+         IfHelper.IfNode res = new IfHelper.IfNode(stat);
+         Statement ifchild = stat.getIfstat();
+         StatEdge edge;
+         if(ifchild == null) {
+            edge = stat.getIfEdge();
+            res.addChild(new IfHelper.IfNode(edge.getDestination()), 1);
+         } else {
+            IfHelper.IfNode edge1 = new IfHelper.IfNode(ifchild);
+            res.addChild(edge1, 0);
+            if(ifchild.type == 2 && ((IfStatement)ifchild).iftype == 0) {
+               IfStatement elsechild = (IfStatement)ifchild;
+               Statement elsenode = elsechild.getIfstat();
+               if(elsenode == null) {
+                  StatEdge stat2 = elsechild.getIfEdge();
+                  edge1.addChild(new IfHelper.IfNode(stat2.getDestination()), 1);
+               } else {
+                  edge1.addChild(new IfHelper.IfNode(elsenode), 0);
+               }
+            }
+
+            if(!ifchild.getAllSuccessorEdges().isEmpty()) {
+               edge1.addChild(new IfHelper.IfNode(((StatEdge)ifchild.getAllSuccessorEdges().get(0)).getDestination()), 1);
+            }
+         }
+
+         edge = (StatEdge)stat.getAllSuccessorEdges().get(0);
+         Statement elsechild1 = edge.getDestination();
+         IfHelper.IfNode elsenode1 = new IfHelper.IfNode(elsechild1);
+         if(!stsingle && edge.getType() == 1) {
+            res.addChild(elsenode1, 0);
+            if(elsechild1.type == 2 && ((IfStatement)elsechild1).iftype == 0) {
+               IfStatement stat21 = (IfStatement)elsechild1;
+               Statement ifchild2 = stat21.getIfstat();
+               if(ifchild2 == null) {
+                  elsenode1.addChild(new IfHelper.IfNode(stat21.getIfEdge().getDestination()), 1);
+               } else {
+                  elsenode1.addChild(new IfHelper.IfNode(ifchild2), 0);
+               }
+            }
+
+            if(!elsechild1.getAllSuccessorEdges().isEmpty()) {
+               elsenode1.addChild(new IfHelper.IfNode(((StatEdge)elsechild1.getAllSuccessorEdges().get(0)).getDestination()), 1);
+            }
+         } else {
+            res.addChild(elsenode1, 1);
+         }
+
+         return res;
+      }
+   }
+
+   private static boolean reorderIf(IfStatement ifstat) {
+      if(ifstat.iftype == 1) {
+         return false;
+      } else {
+         boolean ifdirect = false;
+         boolean elsedirect = false;
+         boolean noifstat = false;
+         boolean noelsestat = false;
+         boolean ifdirectpath = false;
+         boolean elsedirectpath = false;
+         Statement parent = ifstat.getParent();
+         Object from = parent.type == 15 ? parent : ifstat;
+         Statement next = getNextStatement((Statement)from);
+         if(ifstat.getIfstat() == null) {
+            noifstat = true;
+            if(ifstat.getIfEdge().getType() == 32) {
+               ifdirect = true;
+            } else {
+               ifdirect = MergeHelper.isDirectPath((Statement)from, ifstat.getIfEdge().getDestination());
+            }
+         } else {
+            List last = ifstat.getIfstat().getAllSuccessorEdges();
+            if(!last.isEmpty() && ((StatEdge)last.get(0)).getType() == 32) {
+               ifdirect = true;
+            } else {
+               ifdirect = hasDirectEndEdge(ifstat.getIfstat(), (Statement)from);
+            }
+         }
+
+         Object var17 = parent.type == 15 ? (Statement)parent.getStats().getLast() : ifstat;
+         noelsestat = var17 == ifstat;
+         if(!((Statement)var17).getAllSuccessorEdges().isEmpty() && ((StatEdge)((Statement)var17).getAllSuccessorEdges().get(0)).getType() == 32) {
+            elsedirect = true;
+         } else {
+            elsedirect = hasDirectEndEdge((Statement)var17, (Statement)from);
+         }
+
+         if(!noelsestat && existsPath(ifstat, ((StatEdge)ifstat.getAllSuccessorEdges().get(0)).getDestination())) {
+            return false;
+         } else {
+            if(!ifdirect && !noifstat) {
+               ifdirectpath = existsPath(ifstat, next);
+            }
+
+            SequenceStatement statexpr;
+            if(!elsedirect && !noelsestat) {
+               statexpr = (SequenceStatement)parent;
+
+               for(int sequence = statexpr.getStats().size() - 1; sequence >= 0; --sequence) {
+                  Statement lst = (Statement)statexpr.getStats().get(sequence);
+                  if(lst == ifstat || (elsedirectpath = existsPath(lst, next))) {
+                     break;
+                  }
+               }
+            }
+
+            Statement stelse;
+            Statement var28;
+            if((ifdirect || ifdirectpath) && (elsedirect || elsedirectpath) && !noifstat && !noelsestat) {
+               statexpr = (SequenceStatement)parent;
+               ArrayList var21 = new ArrayList();
+
+               for(int var24 = statexpr.getStats().size() - 1; var24 >= 0; --var24) {
+                  stelse = (Statement)statexpr.getStats().get(var24);
+                  if(stelse == ifstat) {
+                     break;
+                  }
+
+                  var21.add(0, stelse);
+               }
+
+               Object var26;
+               if(var21.size() == 1) {
+                  var26 = (Statement)var21.get(0);
+               } else {
+                  var26 = new SequenceStatement(var21);
+                  ((Statement)var26).setAllParent();
+               }
+
+               ifstat.removeSuccessor((StatEdge)ifstat.getAllSuccessorEdges().get(0));
+               Iterator var31 = var21.iterator();
+
+               while(var31.hasNext()) {
+                  var28 = (Statement)var31.next();
+                  statexpr.getStats().removeWithKey(var28.id);
+               }
+
+               StatEdge var32 = new StatEdge(1, ifstat.getFirst(), (Statement)var26);
+               ifstat.getFirst().addSuccessor(var32);
+               ifstat.setElsestat((Statement)var26);
+               ifstat.setElseEdge(var32);
+               ifstat.getStats().addWithKey(var26, ((Statement)var26).id);
+               ((Statement)var26).setParent(ifstat);
+               ifstat.iftype = 1;
+            } else {
+               if(!ifdirect || elsedirect && (!noifstat || noelsestat)) {
+                  return false;
+               }
+
+               IfExprent var18 = ifstat.getHeadexprent();
+               var18.setCondition(new FunctionExprent(12, var18.getCondition(), (Set)null));
+               if(noelsestat) {
+                  StatEdge var19 = ifstat.getIfEdge();
+                  StatEdge var22 = (StatEdge)ifstat.getAllSuccessorEdges().get(0);
+                  if(noifstat) {
+                     ifstat.getFirst().removeSuccessor(var19);
+                     ifstat.removeSuccessor(var22);
+                     var19.setSource(ifstat);
+                     var22.setSource(ifstat.getFirst());
+                     ifstat.addSuccessor(var19);
+                     ifstat.getFirst().addSuccessor(var22);
+                     ifstat.setIfEdge(var22);
+                  } else {
+                     stelse = ifstat.getIfstat();
+                     SequenceStatement newifedge = new SequenceStatement(Arrays.asList(new Statement[]{ifstat, stelse}));
+                     ifstat.getFirst().removeSuccessor(var19);
+                     ifstat.getStats().removeWithKey(stelse.id);
+                     ifstat.setIfstat((Statement)null);
+                     ifstat.removeSuccessor(var22);
+                     var22.setSource(ifstat.getFirst());
+                     ifstat.getFirst().addSuccessor(var22);
+                     ifstat.setIfEdge(var22);
+                     ifstat.getParent().replaceStatement(ifstat, newifedge);
+                     newifedge.setAllParent();
+                     ifstat.addSuccessor(new StatEdge(1, ifstat, stelse));
+                  }
+               } else {
+                  SequenceStatement var20 = (SequenceStatement)parent;
+                  ArrayList var23 = new ArrayList();
+
+                  for(int var25 = var20.getStats().size() - 1; var25 >= 0; --var25) {
+                     var28 = (Statement)var20.getStats().get(var25);
+                     if(var28 == ifstat) {
+                        break;
+                     }
+
+                     var23.add(0, var28);
+                  }
+
+                  Object var27;
+                  if(var23.size() == 1) {
+                     var27 = (Statement)var23.get(0);
+                  } else {
+                     var27 = new SequenceStatement(var23);
+                     ((Statement)var27).setAllParent();
+                  }
+
+                  ifstat.removeSuccessor((StatEdge)ifstat.getAllSuccessorEdges().get(0));
+                  Iterator var29 = var23.iterator();
+
+                  while(var29.hasNext()) {
+                     Statement st = (Statement)var29.next();
+                     var20.getStats().removeWithKey(st.id);
+                  }
+
+                  StatEdge var30;
+                  if(noifstat) {
+                     var30 = ifstat.getIfEdge();
+                     ifstat.getFirst().removeSuccessor(var30);
+                     var30.setSource(ifstat);
+                     ifstat.addSuccessor(var30);
+                  } else {
+                     var28 = ifstat.getIfstat();
+                     ifstat.getFirst().removeSuccessor(ifstat.getIfEdge());
+                     ifstat.getStats().removeWithKey(var28.id);
+                     ifstat.addSuccessor(new StatEdge(1, ifstat, var28));
+                     var20.getStats().addWithKey(var28, var28.id);
+                     var28.setParent(var20);
+                  }
+
+                  var30 = new StatEdge(1, ifstat.getFirst(), (Statement)var27);
+                  ifstat.getFirst().addSuccessor(var30);
+                  ifstat.setIfstat((Statement)var27);
+                  ifstat.setIfEdge(var30);
+                  ifstat.getStats().addWithKey(var27, ((Statement)var27).id);
+                  ((Statement)var27).setParent(ifstat);
+               }
+            }
+
+            return true;
+         }
+      }
+   }
+
+   private static boolean hasDirectEndEdge(Statement stat, Statement from) {
+      Iterator ifstat = stat.getAllSuccessorEdges().iterator();
+
+      while(ifstat.hasNext()) {
+         StatEdge st = (StatEdge)ifstat.next();
+         if(MergeHelper.isDirectPath(from, st.getDestination())) {
+            return true;
+         }
+      }
+
+      if(stat.getExprents() == null) {
+         switch(stat.type) {
+         case 2:
+            IfStatement ifstat1 = (IfStatement)stat;
+            if(ifstat1.iftype == 1) {
+               return hasDirectEndEdge(ifstat1.getIfstat(), from) || hasDirectEndEdge(ifstat1.getElsestat(), from);
+            }
+         case 3:
+         case 4:
+         case 5:
+         case 8:
+         case 9:
+         case 11:
+         case 13:
+         case 14:
+         default:
+            break;
+         case 6:
+            Iterator st3 = stat.getStats().iterator();
+
+            Statement st1;
+            do {
+               if(!st3.hasNext()) {
+                  return false;
+               }
+
+               st1 = (Statement)st3.next();
+            } while(!hasDirectEndEdge(st1, from));
+
+            return true;
+         case 7:
+         case 12:
+            ifstat = stat.getStats().iterator();
+
+            Statement st2;
+            do {
+               if(!ifstat.hasNext()) {
+                  return false;
+               }
+
+               st2 = (Statement)ifstat.next();
+            } while(!hasDirectEndEdge(st2, from));
+
+            return true;
+         case 10:
+            return hasDirectEndEdge((Statement)stat.getStats().get(1), from);
+         case 15:
+            return hasDirectEndEdge((Statement)stat.getStats().getLast(), from);
+         }
+      }
+
+      return false;
+   }
+
+   private static Statement getNextStatement(Statement stat) {
+      Statement parent = stat.getParent();
+      switch(parent.type) {
+      case 5:
+         return parent;
+      case 13:
+         return ((RootStatement)parent).getDummyExit();
+      case 15:
+         SequenceStatement sequence = (SequenceStatement)parent;
+         if(sequence.getStats().getLast() != stat) {
+            for(int i = sequence.getStats().size() - 1; i >= 0; --i) {
+               if(sequence.getStats().get(i) == stat) {
+                  return (Statement)sequence.getStats().get(i + 1);
+               }
+            }
+         }
+      default:
+         return getNextStatement(parent);
+      }
+   }
+
+   private static boolean existsPath(Statement from, Statement to) {
+      Iterator var2 = to.getAllPredecessorEdges().iterator();
+
+      StatEdge edge;
+      do {
+         if(!var2.hasNext()) {
+            return false;
+         }
+
+         edge = (StatEdge)var2.next();
+      } while(!from.containsStatementStrict(edge.getSource()));
+
+      return true;
+   }
+
+   private static class IfNode {
+      public Statement value;
+      public List succs = new ArrayList();
+      public List edgetypes = new ArrayList();
+
+      public IfNode(Statement value) {
+         this.value = value;
+      }
+
+      public void addChild(IfHelper.IfNode child, int type) {
+         this.succs.add(child);
+         this.edgetypes.add(new Integer(type));
+      }
+   }
+}
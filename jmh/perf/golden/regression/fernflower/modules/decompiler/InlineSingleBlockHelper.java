@@ -0,0 +1,177 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.SequenceStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.stats.SwitchStatement;
+
+public class InlineSingleBlockHelper {
+   public static boolean inlineSingleBlocks(RootStatement root) {
+      boolean res = inlineSingleBlocksRec(root);
+      if(res) {
+         SequenceHelper.condenseSequences(root);
+      }
+
+      return res;
+   }
+
+   private static boolean inlineSingleBlocksRec(Statement stat) {
+      boolean res = false;
+
+      Statement i;
+      for(Iterator seq = stat.getStats().iterator(); seq.hasNext(); res |= inlineSingleBlocksRec(i)) {
+         i = (Statement)seq.next();
+      }
+
+      if(stat.type == 15) {
+         SequenceStatement var4 = (SequenceStatement)stat;
+
+         for(int var5 = 1; var5 < var4.getStats().size(); ++var5) {
+            if(isInlineable(var4, var5)) {
+               inlineBlock(var4, var5);
+               return true;
+            }
+         }
+      }
+
+      return res;
+   }
+
+   private static void inlineBlock(SequenceStatement seq, int index) {
+      Statement first = (Statement)seq.getStats().get(index);
+      Statement pre = (Statement)seq.getStats().get(index - 1);
+      pre.removeSuccessor((StatEdge)pre.getAllSuccessorEdges().get(0));
+      StatEdge edge = (StatEdge)first.getPredecessorEdges(4).get(0);
+      Statement source = edge.getSource();
+      Statement parent = source.getParent();
+      source.removeSuccessor(edge);
+      ArrayList lst = new ArrayList();
+
+      for(int block = seq.getStats().size() - 1; block >= index; --block) {
+         lst.add(0, (Statement)seq.getStats().remove(block));
+      }
+
+      StatEdge prededge;
+      if(parent.type == 2 && ((IfStatement)parent).iftype == 0 && source == parent.getFirst()) {
+         IfStatement var12 = (IfStatement)parent;
+         SequenceStatement var13 = new SequenceStatement(lst);
+         var13.setAllParent();
+         prededge = new StatEdge(1, source, var13);
+         source.addSuccessor(prededge);
+         var12.setIfEdge(prededge);
+         var12.setIfstat(var13);
+         var12.getStats().addWithKey(var13, var13.id);
+         var13.setParent(var12);
+      } else {
+         lst.add(0, source);
+         SequenceStatement var11 = new SequenceStatement(lst);
+         var11.setAllParent();
+         parent.replaceStatement(source, var11);
+         Iterator block1 = var11.getPredecessorEdges(8).iterator();
+
+         while(block1.hasNext()) {
+            prededge = (StatEdge)block1.next();
+            var11.removePredecessor(prededge);
+            prededge.getSource().changeEdgeNode(1, prededge, source);
+            source.addPredecessor(prededge);
+            source.addLabeledEdge(prededge);
+         }
+
+         if(parent.type == 6) {
+            ((SwitchStatement)parent).sortEdgesAndNodes();
+         }
+
+         source.addSuccessor(new StatEdge(1, source, first));
+      }
+
+   }
+
+   private static boolean isInlineable(SequenceStatement seq, int index) {
+      Statement first = (Statement)seq.getStats().get(index);
+      Statement pre = (Statement)seq.getStats().get(index - 1);
+      if(pre.hasBasicSuccEdge()) {
+         return false;
+      } else {
+         List lst = first.getPredecessorEdges(4);
+         if(lst.size() == 1) {
+            StatEdge edge = (StatEdge)lst.get(0);
+            if(sameCatchRanges(edge)) {
+               if(edge.explicit) {
+                  return true;
+               }
+
+               for(int i = index; i < seq.getStats().size(); ++i) {
+                  if(!noExitLabels((Statement)seq.getStats().get(i), seq)) {
+                     return false;
+                  }
+               }
+
+               return true;
+            }
+         }
+
+         return false;
+      }
+   }
+
+   private static boolean sameCatchRanges(StatEdge edge) {
+      Statement from = edge.getSource();
+      Statement to = edge.getDestination();
+
+      while(true) {
+         Statement parent = from.getParent();
+         if(parent.containsStatementStrict(to)) {
+            return true;
+         }
+
+         if(parent.type != 7 && parent.type != 12) {
+            if(parent.type == 10 && parent.getStats().get(1) == from) {
+               return false;
+            }
+         } else if(parent.getFirst() == from) {
+            return false;
+         }
+
+         from = parent;
+      }
+   }
+
+   private static boolean noExitLabels(Statement block, Statement sequence) {
+      Iterator var2 = block.getAllSuccessorEdges().iterator();
+
+      StatEdge st;
+      do {
+         if(!var2.hasNext()) {
+            var2 = block.getStats().iterator();
+
+            Statement st1;
+            do {
+               if(!var2.hasNext()) {
+                  return true;
+               }
+
+               st1 = (Statement)var2.next();
+            } while(noExitLabels(st1, sequence));
+
+            return false;
+         }
+
+         st = (StatEdge)var2.next();
+      } while(st.getType() == 1 || st.getDestination().type == 14 || sequence.containsStatementStrict(st.getDestination()));
+
+      return false;
+   }
+
+   public static boolean isBreakEdgeLabeled(Statement source, Statement closure) {
+      if(closure.type != 5 && closure.type != 6) {
+         return true;
+      } else {
+         Statement parent = source.getParent();
+         return parent == closure ? false : parent.type == 5 || parent.type == 6 || isBreakEdgeLabeled(parent, closure);
+      }
+   }
+}
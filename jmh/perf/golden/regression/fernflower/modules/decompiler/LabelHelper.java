@@ -0,0 +1,579 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.stats.SwitchStatement;
+import regression.fernflower.modules.decompiler.stats.SynchronizedStatement;
+
+public class LabelHelper {
+   public static void cleanUpEdges(RootStatement root) {
+      resetAllEdges(root);
+      removeNonImmediateEdges(root);
+      liftClosures(root);
+      lowContinueLabels(root, new HashSet());
+      lowClosures(root);
+   }
+
+   public static void identifyLabels(RootStatement root) {
+      setExplicitEdges(root);
+      hideDefaultSwitchEdges(root);
+      processStatementLabel(root);
+      setRetEdgesUnlabeled(root);
+   }
+
+   private static void liftClosures(Statement stat) {
+      Iterator var1 = stat.getAllSuccessorEdges().iterator();
+
+      while(true) {
+         label50:
+         while(var1.hasNext()) {
+            StatEdge st = (StatEdge)var1.next();
+            switch(st.getType()) {
+            case 4:
+               Statement dest = st.getDestination();
+               if(dest.type == 14) {
+                  break;
+               }
+
+               Statement parent = dest.getParent();
+               ArrayList lst = new ArrayList();
+               if(parent.type == 15) {
+                  lst.addAll(parent.getStats());
+               } else if(parent.type == 6) {
+                  lst.addAll(((SwitchStatement)parent).getCaseStatements());
+               }
+
+               int i = 0;
+
+               while(true) {
+                  if(i >= lst.size()) {
+                     continue label50;
+                  }
+
+                  if(lst.get(i) == dest) {
+                     ((Statement)lst.get(i - 1)).addLabeledEdge(st);
+                     continue label50;
+                  }
+
+                  ++i;
+               }
+            case 8:
+               if(st.getDestination() != st.closure) {
+                  st.getDestination().addLabeledEdge(st);
+               }
+            }
+         }
+
+         var1 = stat.getStats().iterator();
+
+         while(var1.hasNext()) {
+            Statement var7 = (Statement)var1.next();
+            liftClosures(var7);
+         }
+
+         return;
+      }
+   }
+
+   private static void removeNonImmediateEdges(Statement stat) {
+      Iterator var1 = stat.getStats().iterator();
+
+      while(var1.hasNext()) {
+         Statement edge = (Statement)var1.next();
+         removeNonImmediateEdges(edge);
+      }
+
+      if(!stat.hasBasicSuccEdge()) {
+         var1 = stat.getSuccessorEdges(12).iterator();
+
+         while(var1.hasNext()) {
+            StatEdge edge1 = (StatEdge)var1.next();
+            stat.removeSuccessor(edge1);
+         }
+      }
+
+   }
+
+   public static void lowContinueLabels(Statement stat, HashSet edges) {
+      boolean ok = stat.type != 5;
+      if(!ok) {
+         DoStatement dostat = (DoStatement)stat;
+         ok = dostat.getLooptype() == 0 || dostat.getLooptype() == 2 || dostat.getLooptype() == 3 && dostat.getIncExprent() == null;
+      }
+
+      if(ok) {
+         edges.addAll(stat.getPredecessorEdges(8));
+      }
+
+      Iterator dostat1;
+      if(ok && stat.type == 5) {
+         dostat1 = edges.iterator();
+
+         while(dostat1.hasNext()) {
+            StatEdge st = (StatEdge)dostat1.next();
+            if(stat.containsStatementStrict(st.getSource())) {
+               st.getDestination().removePredecessor(st);
+               st.getSource().changeEdgeNode(1, st, stat);
+               stat.addPredecessor(st);
+               stat.addLabeledEdge(st);
+            }
+         }
+      }
+
+      dostat1 = stat.getStats().iterator();
+
+      while(dostat1.hasNext()) {
+         Statement st1 = (Statement)dostat1.next();
+         if(st1 == stat.getFirst()) {
+            lowContinueLabels(st1, edges);
+         } else {
+            lowContinueLabels(st1, new HashSet());
+         }
+      }
+
+   }
+
+   public static void lowClosures(Statement stat) {
+      Iterator var1 = (new ArrayList(stat.getLabelEdges())).iterator();
+
+      while(true) {
+         StatEdge st;
+         do {
+            if(!var1.hasNext()) {
+               var1 = stat.getStats().iterator();
+
+               while(var1.hasNext()) {
+                  Statement st2 = (Statement)var1.next();
+                  lowClosures(st2);
+               }
+
+               return;
+            }
+
+            st = (StatEdge)var1.next();
+         } while(st.getType() != 4);
+
+         Iterator var3 = stat.getStats().iterator();
+
+         while(var3.hasNext()) {
+            Statement st1 = (Statement)var3.next();
+            if(st1.containsStatementStrict(st.getSource()) && MergeHelper.isDirectPath(st1, st.getDestination())) {
+               st1.addLabeledEdge(st);
+            }
+         }
+      }
+   }
+
+   private static void resetAllEdges(Statement stat) {
+      Iterator var1 = stat.getStats().iterator();
+
+      while(var1.hasNext()) {
+         Statement edge = (Statement)var1.next();
+         resetAllEdges(edge);
+      }
+
+      StatEdge edge1;
+      for(var1 = stat.getAllSuccessorEdges().iterator(); var1.hasNext(); edge1.labeled = true) {
+         edge1 = (StatEdge)var1.next();
+         edge1.explicit = true;
+      }
+
+   }
+
+   private static void setRetEdgesUnlabeled(RootStatement root) {
+      Statement exit = root.getDummyExit();
+      Iterator var2 = exit.getAllPredecessorEdges().iterator();
+
+      while(true) {
+         StatEdge edge;
+         List lst;
+         do {
+            if(!var2.hasNext()) {
+               return;
+            }
+
+            edge = (StatEdge)var2.next();
+            lst = edge.getSource().getExprents();
+         } while(edge.getType() != 32 && (lst == null || lst.isEmpty() || ((Exprent)lst.get(lst.size() - 1)).type != 4));
+
+         edge.labeled = false;
+      }
+   }
+
+   private static HashMap setExplicitEdges(Statement stat) {
+      HashMap mapEdges = new HashMap();
+      if(stat.getExprents() != null) {
+         return mapEdges;
+      } else {
+         switch(stat.type) {
+         case 2:
+            IfStatement var9 = (IfStatement)stat;
+            if(var9.getIfstat() == null) {
+               processEdgesWithNext(var9.getFirst(), mapEdges, (Statement)null);
+            } else {
+               mapEdges = setExplicitEdges(var9.getIfstat());
+               processEdgesWithNext(var9.getIfstat(), mapEdges, (Statement)null);
+               HashMap var11 = null;
+               if(var9.getElsestat() != null) {
+                  var11 = setExplicitEdges(var9.getElsestat());
+                  processEdgesWithNext(var9.getElsestat(), var11, (Statement)null);
+               }
+
+               if(var11 != null) {
+                  Iterator var13 = var11.entrySet().iterator();
+
+                  while(var13.hasNext()) {
+                     Entry var15 = (Entry)var13.next();
+                     if(mapEdges.containsKey(var15.getKey())) {
+                        ((List)mapEdges.get(var15.getKey())).addAll((Collection)var15.getValue());
+                     } else {
+                        mapEdges.put((Statement)var15.getKey(), (List)var15.getValue());
+                     }
+                  }
+               }
+            }
+         case 3:
+         case 4:
+         case 8:
+         case 9:
+         case 11:
+         case 14:
+         default:
+            break;
+         case 5:
+            mapEdges = setExplicitEdges(stat.getFirst());
+            processEdgesWithNext(stat.getFirst(), mapEdges, stat);
+            break;
+         case 6:
+            SwitchStatement var14 = (SwitchStatement)stat;
+
+            int var16;
+            Statement var17;
+            for(var16 = 0; var16 < var14.getCaseStatements().size() - 1; ++var16) {
+               var17 = (Statement)var14.getCaseStatements().get(var16);
+               Statement edge = (Statement)var14.getCaseStatements().get(var16 + 1);
+               if(edge.getExprents() != null && edge.getExprents().isEmpty()) {
+                  edge = ((StatEdge)edge.getAllSuccessorEdges().get(0)).getDestination();
+               }
+
+               processEdgesWithNext(var17, setExplicitEdges(var17), edge);
+            }
+
+            var16 = var14.getCaseStatements().size() - 1;
+            if(var16 >= 0) {
+               var17 = (Statement)var14.getCaseStatements().get(var16);
+               if(var17.getExprents() != null && var17.getExprents().isEmpty()) {
+                  StatEdge var18 = (StatEdge)var17.getAllSuccessorEdges().get(0);
+                  mapEdges.put(var18.getDestination(), new ArrayList(Arrays.asList(new StatEdge[]{var18})));
+               } else {
+                  mapEdges = setExplicitEdges(var17);
+                  processEdgesWithNext(var17, mapEdges, (Statement)null);
+               }
+            }
+            break;
+         case 7:
+         case 12:
+            Iterator ifstat = stat.getStats().iterator();
+
+            while(true) {
+               Statement var10;
+               HashMap var12;
+               do {
+                  do {
+                     if(!ifstat.hasNext()) {
+                        return mapEdges;
+                     }
+
+                     var10 = (Statement)ifstat.next();
+                     var12 = setExplicitEdges(var10);
+                     processEdgesWithNext(var10, var12, (Statement)null);
+                  } while(stat.type != 7 && var10 != stat.getFirst());
+               } while(var12 == null);
+
+               Iterator swst = var12.entrySet().iterator();
+
+               while(swst.hasNext()) {
+                  Entry last = (Entry)swst.next();
+                  if(mapEdges.containsKey(last.getKey())) {
+                     ((List)mapEdges.get(last.getKey())).addAll((Collection)last.getValue());
+                  } else {
+                     mapEdges.put((Statement)last.getKey(), (List)last.getValue());
+                  }
+               }
+            }
+         case 10:
+            SynchronizedStatement synstat = (SynchronizedStatement)stat;
+            processEdgesWithNext(synstat.getFirst(), setExplicitEdges(stat.getFirst()), synstat.getBody());
+            mapEdges = setExplicitEdges(synstat.getBody());
+            processEdgesWithNext(synstat.getBody(), mapEdges, (Statement)null);
+            break;
+         case 13:
+            mapEdges = setExplicitEdges(stat.getFirst());
+            processEdgesWithNext(stat.getFirst(), mapEdges, ((RootStatement)stat).getDummyExit());
+            break;
+         case 15:
+            int index;
+            Statement st;
+            for(index = 0; index < stat.getStats().size() - 1; ++index) {
+               st = (Statement)stat.getStats().get(index);
+               processEdgesWithNext(st, setExplicitEdges(st), (Statement)stat.getStats().get(index + 1));
+            }
+
+            st = (Statement)stat.getStats().get(index);
+            mapEdges = setExplicitEdges(st);
+            processEdgesWithNext(st, mapEdges, (Statement)null);
+         }
+
+         return mapEdges;
+      }
+   }
+
+   private static void processEdgesWithNext(Statement stat, HashMap mapEdges, Statement next) {
+      StatEdge statedge = null;
+      List lstSuccs = stat.getAllSuccessorEdges();
+      if(!lstSuccs.isEmpty()) {
+         statedge = (StatEdge)lstSuccs.get(0);
+         if(statedge.getDestination() == next) {
+            statedge.explicit = false;
+            statedge = null;
+         } else {
+            next = statedge.getDestination();
+         }
+      }
+
+      if(stat.type == 5 && ((DoStatement)stat).getLooptype() == 0) {
+         next = null;
+      }
+
+      if(next == null) {
+         if(mapEdges.size() == 1) {
+            List implfound = (List)mapEdges.values().iterator().next();
+            if(implfound.size() > 1 && ((Statement)mapEdges.keySet().iterator().next()).type != 14) {
+               StatEdge lstEdges = (StatEdge)implfound.get(0);
+               Statement edge_example = stat.getParent();
+               if(!edge_example.containsStatementStrict(lstEdges.closure)) {
+                  edge_example = lstEdges.closure;
+               }
+
+               StatEdge closure = new StatEdge(lstEdges.getType(), stat, lstEdges.getDestination(), edge_example);
+               stat.addSuccessor(closure);
+
+               StatEdge edge;
+               for(Iterator newedge = implfound.iterator(); newedge.hasNext(); edge.explicit = false) {
+                  edge = (StatEdge)newedge.next();
+               }
+
+               mapEdges.put(closure.getDestination(), new ArrayList(Arrays.asList(new StatEdge[]{closure})));
+            }
+         }
+      } else {
+         boolean implfound1 = false;
+         Iterator lstEdges1 = mapEdges.entrySet().iterator();
+
+         StatEdge newedge1;
+         label119:
+         while(lstEdges1.hasNext()) {
+            Entry edge_example1 = (Entry)lstEdges1.next();
+            if(edge_example1.getKey() == next) {
+               Iterator closure1 = ((List)edge_example1.getValue()).iterator();
+
+               while(true) {
+                  do {
+                     do {
+                        if(!closure1.hasNext()) {
+                           implfound1 = true;
+                           break label119;
+                        }
+
+                        newedge1 = (StatEdge)closure1.next();
+                     } while(stat.type == 5 && newedge1.closure == stat);
+                  } while(newedge1.closure != null && newedge1.closure.type == 5 && stat.type == 2 && newedge1.getDestination().type == 14);
+
+                  newedge1.explicit = false;
+               }
+            }
+         }
+
+         if(stat.getAllSuccessorEdges().isEmpty() && !implfound1) {
+            List lstEdges2 = null;
+            Iterator edge_example2 = mapEdges.entrySet().iterator();
+
+            label92:
+            while(true) {
+               Entry closure2;
+               do {
+                  do {
+                     if(!edge_example2.hasNext()) {
+                        if(lstEdges2 == null || lstEdges2.size() <= 1) {
+                           break label92;
+                        }
+
+                        StatEdge edge_example3 = (StatEdge)lstEdges2.get(0);
+                        Statement closure3 = stat.getParent();
+                        if(!closure3.containsStatementStrict(edge_example3.closure)) {
+                           closure3 = edge_example3.closure;
+                        }
+
+                        newedge1 = new StatEdge(edge_example3.getType(), stat, edge_example3.getDestination(), closure3);
+                        stat.addSuccessor(newedge1);
+                        Iterator edge2 = lstEdges2.iterator();
+
+                        while(true) {
+                           if(!edge2.hasNext()) {
+                              break label92;
+                           }
+
+                           StatEdge edge1 = (StatEdge)edge2.next();
+                           edge1.explicit = false;
+                        }
+                     }
+
+                     closure2 = (Entry)edge_example2.next();
+                  } while(((Statement)closure2.getKey()).type == 14);
+               } while(lstEdges2 != null && ((List)closure2.getValue()).size() <= lstEdges2.size());
+
+               lstEdges2 = (List)closure2.getValue();
+            }
+         }
+
+         mapEdges.clear();
+      }
+
+      if(statedge != null) {
+         mapEdges.put(statedge.getDestination(), new ArrayList(Arrays.asList(new StatEdge[]{statedge})));
+      }
+
+   }
+
+   private static void hideDefaultSwitchEdges(Statement stat) {
+      if(stat.type == 6) {
+         SwitchStatement swst = (SwitchStatement)stat;
+         int st = swst.getCaseStatements().size() - 1;
+         if(st >= 0) {
+            Statement stlast = (Statement)swst.getCaseStatements().get(st);
+            if(stlast.getExprents() != null && stlast.getExprents().isEmpty() && !((StatEdge)stlast.getAllSuccessorEdges().get(0)).explicit) {
+               List lstEdges = (List)swst.getCaseEdges().get(st);
+               lstEdges.remove(swst.getDefault_edge());
+               if(lstEdges.isEmpty()) {
+                  swst.getCaseStatements().remove(st);
+                  swst.getCaseEdges().remove(st);
+               }
+            }
+         }
+      }
+
+      Iterator swst1 = stat.getStats().iterator();
+
+      while(swst1.hasNext()) {
+         Statement st1 = (Statement)swst1.next();
+         hideDefaultSwitchEdges(st1);
+      }
+
+   }
+
+   private static HashSet[] processStatementLabel(Statement stat) {
+      HashSet setBreak = new HashSet();
+      HashSet setContinue = new HashSet();
+      if(stat.getExprents() == null) {
+         Iterator shieldType = stat.getStats().iterator();
+
+         while(shieldType.hasNext()) {
+            Statement st = (Statement)shieldType.next();
+            HashSet[] edge = processStatementLabel(st);
+            setBreak.addAll(edge[0]);
+            setContinue.addAll(edge[1]);
+         }
+
+         boolean shieldType1 = stat.type == 5 || stat.type == 6;
+         if(shieldType1) {
+            Iterator st1 = stat.getLabelEdges().iterator();
+
+            label47:
+            while(true) {
+               StatEdge edge1;
+               do {
+                  do {
+                     if(!st1.hasNext()) {
+                        break label47;
+                     }
+
+                     edge1 = (StatEdge)st1.next();
+                  } while(!edge1.explicit);
+               } while((edge1.getType() != 4 || !setBreak.contains(edge1.getSource())) && (edge1.getType() != 8 || !setContinue.contains(edge1.getSource())));
+
+               edge1.labeled = false;
+            }
+         }
+
+         switch(stat.type) {
+         case 5:
+            setContinue.clear();
+         case 6:
+            setBreak.clear();
+         }
+      }
+
+      setBreak.add(stat);
+      setContinue.add(stat);
+      return new HashSet[]{setBreak, setContinue};
+   }
+
+   public static void replaceContinueWithBreak(Statement stat) {
+      if(stat.type == 5) {
+         List lst = stat.getPredecessorEdges(8);
+         Iterator st = lst.iterator();
+
+         while(st.hasNext()) {
+            StatEdge edge = (StatEdge)st.next();
+            if(edge.explicit) {
+               Statement minclosure = getMinContinueClosure(edge);
+               if(minclosure != edge.closure && !InlineSingleBlockHelper.isBreakEdgeLabeled(edge.getSource(), minclosure)) {
+                  edge.getSource().changeEdgeType(1, edge, 4);
+                  edge.labeled = false;
+                  minclosure.addLabeledEdge(edge);
+               }
+            }
+         }
+      }
+
+      Iterator lst1 = stat.getStats().iterator();
+
+      while(lst1.hasNext()) {
+         Statement st1 = (Statement)lst1.next();
+         replaceContinueWithBreak(st1);
+      }
+
+   }
+
+   private static Statement getMinContinueClosure(StatEdge edge) {
+      Statement closure = edge.closure;
+
+      boolean found;
+      do {
+         found = false;
+         Iterator var3 = closure.getStats().iterator();
+
+         while(var3.hasNext()) {
+            Statement st = (Statement)var3.next();
+            if(st.containsStatementStrict(edge.getSource()) && MergeHelper.isDirectPath(st, edge.getDestination())) {
+               closure = st;
+               found = true;
+               break;
+            }
+         }
+      } while(found);
+
+      return closure;
+   }
+}
@@ -0,0 +1,178 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.SequenceStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+
+public class LoopExtractHelper {
+   public static boolean extractLoops(Statement root) {
+      boolean res = extractLoopsRec(root) != 0;
+      if(res) {
+         SequenceHelper.condenseSequences(root);
+      }
+
+      return res;
+   }
+
+   private static int extractLoopsRec(Statement stat) {
+      boolean res = false;
+
+      boolean updated;
+      do {
+         updated = false;
+         Iterator var3 = stat.getStats().iterator();
+
+         while(var3.hasNext()) {
+            Statement st = (Statement)var3.next();
+            int extr = extractLoopsRec(st);
+            res |= extr != 0;
+            if(extr == 2) {
+               updated = true;
+               break;
+            }
+         }
+      } while(updated);
+
+      if(stat.type == 5 && extractLoop((DoStatement)stat)) {
+         return 2;
+      } else {
+         return res ? 1 : 0;
+      }
+   }
+
+   private static boolean extractLoop(DoStatement stat) {
+      if(stat.getLooptype() != 0) {
+         return false;
+      } else {
+         Iterator var1 = stat.getLabelEdges().iterator();
+
+         StatEdge edge;
+         do {
+            if(!var1.hasNext()) {
+               if(!extractLastIf(stat)) {
+                  return extractFirstIf(stat);
+               }
+
+               return true;
+            }
+
+            edge = (StatEdge)var1.next();
+         } while(edge.getType() == 8 || edge.getDestination().type == 14);
+
+         return false;
+      }
+   }
+
+   private static boolean extractLastIf(DoStatement stat) {
+      Statement last;
+      for(last = stat.getFirst(); last.type == 15; last = (Statement)last.getStats().getLast()) {
+      }
+
+      if(last.type == 2) {
+         IfStatement lastif = (IfStatement)last;
+         if(lastif.iftype == 0 && lastif.getIfstat() != null) {
+            Statement ifstat = lastif.getIfstat();
+            StatEdge elseedge = (StatEdge)lastif.getAllSuccessorEdges().get(0);
+            if(elseedge.getType() == 8 && elseedge.closure == stat) {
+               Set set = stat.getNeighboursSet(8, 0);
+               set.remove(last);
+               if(set.isEmpty() && isExternStatement(stat, ifstat, ifstat)) {
+                  extractIfBlock(stat, lastif);
+                  return true;
+               }
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean extractFirstIf(DoStatement stat) {
+      Statement first;
+      for(first = stat.getFirst(); first.type == 15; first = first.getFirst()) {
+      }
+
+      if(first.type == 2) {
+         IfStatement firstif = (IfStatement)first;
+         if(firstif.getFirst().getExprents().isEmpty() && firstif.iftype == 0 && firstif.getIfstat() != null) {
+            Statement ifstat = firstif.getIfstat();
+            if(isExternStatement(stat, ifstat, ifstat)) {
+               extractIfBlock(stat, firstif);
+               return true;
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean isExternStatement(DoStatement loop, Statement block, Statement stat) {
+      Iterator var3 = stat.getAllSuccessorEdges().iterator();
+
+      StatEdge st;
+      do {
+         if(!var3.hasNext()) {
+            var3 = stat.getStats().iterator();
+
+            Statement st1;
+            do {
+               if(!var3.hasNext()) {
+                  return true;
+               }
+
+               st1 = (Statement)var3.next();
+            } while(isExternStatement(loop, block, st1));
+
+            return false;
+         }
+
+         st = (StatEdge)var3.next();
+      } while(!loop.containsStatement(st.getDestination()) || block.containsStatement(st.getDestination()));
+
+      return false;
+   }
+
+   private static void extractIfBlock(DoStatement loop, IfStatement ifstat) {
+      Statement target = ifstat.getIfstat();
+      StatEdge ifedge = ifstat.getIfEdge();
+      ifstat.setIfstat((Statement)null);
+      ifedge.getSource().changeEdgeType(1, ifedge, 4);
+      ifedge.closure = loop;
+      ifstat.getStats().removeWithKey(target.id);
+      loop.addLabeledEdge(ifedge);
+      SequenceStatement block = new SequenceStatement(Arrays.asList(new Statement[]{loop, target}));
+      loop.getParent().replaceStatement(loop, block);
+      block.setAllParent();
+      loop.addSuccessor(new StatEdge(1, loop, target));
+      Iterator var5 = (new ArrayList(block.getLabelEdges())).iterator();
+
+      while(true) {
+         StatEdge edge;
+         do {
+            if(!var5.hasNext()) {
+               var5 = block.getPredecessorEdges(8).iterator();
+
+               while(var5.hasNext()) {
+                  edge = (StatEdge)var5.next();
+                  if(loop.containsStatementStrict(edge.getSource())) {
+                     block.removePredecessor(edge);
+                     edge.getSource().changeEdgeNode(1, edge, loop);
+                     loop.addPredecessor(edge);
+                  }
+               }
+
+               return;
+            }
+
+            edge = (StatEdge)var5.next();
+         } while(edge.getType() != 8 && edge != ifedge);
+
+         loop.addLabeledEdge(edge);
+      }
+   }
+}
@@ -0,0 +1,171 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.stats.SynchronizedStatement;
+
+public class LowBreakHelper {
+   public static void lowBreakLabels(Statement root) {
+      lowBreakLabelsRec(root);
+      liftBreakLabels(root);
+   }
+
+   private static void lowBreakLabelsRec(Statement stat) {
+      boolean found;
+      do {
+         found = false;
+         Iterator st = stat.getLabelEdges().iterator();
+
+         while(st.hasNext()) {
+            StatEdge edge = (StatEdge)st.next();
+            if(edge.getType() == 4) {
+               Statement minclosure = getMinClosure(stat, edge.getSource());
+               if(minclosure != stat) {
+                  minclosure.addLabeledEdge(edge);
+                  edge.labeled = isBreakEdgeLabeled(edge.getSource(), minclosure);
+                  found = true;
+                  break;
+               }
+            }
+         }
+      } while(found);
+
+      Iterator found1 = stat.getStats().iterator();
+
+      while(found1.hasNext()) {
+         Statement st1 = (Statement)found1.next();
+         lowBreakLabelsRec(st1);
+      }
+
+   }
+
+   public static boolean isBreakEdgeLabeled(Statement source, Statement closure) {
+      if(closure.type != 5 && closure.type != 6) {
+         return true;
+      } else {
+         Statement parent = source.getParent();
+         return parent == closure ? false : isBreakEdgeLabeled(parent, closure) || parent.type == 5 || parent.type == 6;
+      }
+   }
+
+   public static Statement getMinClosure(Statement closure, Statement source) {
+      while(true) {
+         Statement newclosure;
+         newclosure = null;
+         label35:
+         switch(closure.type) {
+         case 2:
+            IfStatement ifclosure = (IfStatement)closure;
+            if(isOkClosure(closure, source, ifclosure.getIfstat())) {
+               newclosure = ifclosure.getIfstat();
+            } else if(isOkClosure(closure, source, ifclosure.getElsestat())) {
+               newclosure = ifclosure.getElsestat();
+            }
+            break;
+         case 7:
+            Iterator body1 = closure.getStats().iterator();
+
+            Statement st;
+            do {
+               if(!body1.hasNext()) {
+                  break label35;
+               }
+
+               st = (Statement)body1.next();
+            } while(!isOkClosure(closure, source, st));
+
+            newclosure = st;
+            break;
+         case 10:
+            Statement body = ((SynchronizedStatement)closure).getBody();
+            if(isOkClosure(closure, source, body)) {
+               newclosure = body;
+            }
+            break;
+         case 15:
+            Statement last = (Statement)closure.getStats().getLast();
+            if(isOkClosure(closure, source, last)) {
+               newclosure = last;
+            }
+         }
+
+         if(newclosure == null) {
+            return closure;
+         }
+
+         closure = newclosure;
+      }
+   }
+
+   private static boolean isOkClosure(Statement closure, Statement source, Statement stat) {
+      boolean ok = false;
+      if(stat != null && stat.containsStatementStrict(source)) {
+         List lst = stat.getAllSuccessorEdges();
+         ok = lst.isEmpty();
+         if(!ok) {
+            StatEdge edge = (StatEdge)lst.get(0);
+            ok = edge.closure == closure && edge.getType() == 4;
+         }
+      }
+
+      return ok;
+   }
+
+   private static void liftBreakLabels(Statement stat) {
+      Iterator found = stat.getStats().iterator();
+
+      while(found.hasNext()) {
+         Statement st = (Statement)found.next();
+         liftBreakLabels(st);
+      }
+
+      boolean found1;
+      do {
+         found1 = false;
+         Iterator st1 = stat.getLabelEdges().iterator();
+
+         while(st1.hasNext()) {
+            StatEdge edge = (StatEdge)st1.next();
+            if(edge.explicit && edge.labeled && edge.getType() == 4) {
+               Statement newclosure = getMaxBreakLift(stat, edge);
+               if(newclosure != null) {
+                  newclosure.addLabeledEdge(edge);
+                  edge.labeled = isBreakEdgeLabeled(edge.getSource(), newclosure);
+                  found1 = true;
+                  break;
+               }
+            }
+         }
+      } while(found1);
+
+   }
+
+   private static Statement getMaxBreakLift(Statement stat, StatEdge edge) {
+      Statement closure = null;
+
+      for(Statement newclosure = stat; (newclosure = getNextBreakLift(newclosure, edge)) != null; closure = newclosure) {
+      }
+
+      return closure;
+   }
+
+   private static Statement getNextBreakLift(Statement stat, StatEdge edge) {
+      Statement closure = stat.getParent();
+
+      while(true) {
+         if(closure != null && !closure.containsStatementStrict(edge.getDestination())) {
+            boolean labeled = isBreakEdgeLabeled(edge.getSource(), closure);
+            if(!closure.isLabeled() && labeled) {
+               closure = closure.getParent();
+               continue;
+            }
+
+            return closure;
+         }
+
+         return null;
+      }
+   }
+}
@@ -0,0 +1,347 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.IfExprent;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.stats.SwitchStatement;
+
+public class MergeHelper {
+   public static void enhanceLoops(Statement root) {
+      while(enhanceLoopsRec(root)) {
+      }
+
+      SequenceHelper.condenseSequences(root);
+   }
+
+   private static boolean enhanceLoopsRec(Statement stat) {
+      boolean res = false;
+      Iterator var2 = stat.getStats().iterator();
+
+      while(var2.hasNext()) {
+         Statement st = (Statement)var2.next();
+         if(st.getExprents() == null) {
+            res |= enhanceLoopsRec(st);
+         }
+      }
+
+      if(stat.type == 5) {
+         res |= enhanceLoop((DoStatement)stat);
+      }
+
+      return res;
+   }
+
+   private static boolean enhanceLoop(DoStatement stat) {
+      int oldloop = stat.getLooptype();
+      switch(oldloop) {
+      case 0:
+         if(matchWhile(stat)) {
+            matchFor(stat);
+         } else {
+            matchDoWhile(stat);
+         }
+         break;
+      case 2:
+         matchFor(stat);
+      }
+
+      return stat.getLooptype() != oldloop;
+   }
+
+   private static boolean matchDoWhile(DoStatement stat) {
+      Statement last;
+      for(last = stat.getFirst(); last.type == 15; last = (Statement)last.getStats().getLast()) {
+      }
+
+      if(last.type == 2) {
+         IfStatement lastif = (IfStatement)last;
+         if(lastif.iftype == 0 && lastif.getIfstat() == null) {
+            StatEdge ifedge = lastif.getIfEdge();
+            StatEdge elseedge = (StatEdge)lastif.getAllSuccessorEdges().get(0);
+            if(ifedge.getType() == 4 && elseedge.getType() == 8 && elseedge.closure == stat && isDirectPath(stat, ifedge.getDestination()) || ifedge.getType() == 8 && elseedge.getType() == 4 && ifedge.closure == stat && isDirectPath(stat, elseedge.getDestination())) {
+               Set set = stat.getNeighboursSet(8, 0);
+               set.remove(last);
+               if(!set.isEmpty()) {
+                  return false;
+               }
+
+               stat.setLooptype(1);
+               IfExprent ifexpr = (IfExprent)lastif.getHeadexprent().copy();
+               if(ifedge.getType() == 4) {
+                  ifexpr.negateIf();
+               }
+
+               stat.setConditionExprent(ifexpr.getCondition());
+               lastif.getFirst().removeSuccessor(ifedge);
+               lastif.removeSuccessor(elseedge);
+               StatEdge edge;
+               if(lastif.getFirst().getExprents().isEmpty()) {
+                  removeLastEmptyStatement(stat, lastif);
+               } else {
+                  lastif.setExprents(lastif.getFirst().getExprents());
+                  edge = new StatEdge(8, lastif, stat);
+                  lastif.addSuccessor(edge);
+                  stat.addLabeledEdge(edge);
+               }
+
+               if(stat.getAllSuccessorEdges().isEmpty()) {
+                  edge = elseedge.getType() == 8 ? ifedge : elseedge;
+                  edge.setSource(stat);
+                  if(edge.closure == stat) {
+                     edge.closure = stat.getParent();
+                  }
+
+                  stat.addSuccessor(edge);
+               }
+
+               return true;
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean matchWhile(DoStatement stat) {
+      Statement first;
+      for(first = stat.getFirst(); first.type == 15; first = first.getFirst()) {
+      }
+
+      if(first.type == 2) {
+         IfStatement firstif = (IfStatement)first;
+         if(firstif.getFirst().getExprents().isEmpty() && firstif.iftype == 0) {
+            StatEdge elseedge;
+            BasicBlockStatement bstat;
+            if(firstif.getIfstat() == null) {
+               elseedge = firstif.getIfEdge();
+               if(isDirectPath(stat, elseedge.getDestination())) {
+                  stat.setLooptype(2);
+                  IfExprent ifedge = (IfExprent)firstif.getHeadexprent().copy();
+                  ifedge.negateIf();
+                  stat.setConditionExprent(ifedge.getCondition());
+                  firstif.getFirst().removeSuccessor(elseedge);
+                  firstif.removeSuccessor((StatEdge)firstif.getAllSuccessorEdges().get(0));
+                  if(stat.getAllSuccessorEdges().isEmpty()) {
+                     elseedge.setSource(stat);
+                     if(elseedge.closure == stat) {
+                        elseedge.closure = stat.getParent();
+                     }
+
+                     stat.addSuccessor(elseedge);
+                  }
+
+                  if(firstif == stat.getFirst()) {
+                     bstat = new BasicBlockStatement(new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0)));
+                     bstat.setExprents(new ArrayList());
+                     stat.replaceStatement(firstif, bstat);
+                  } else {
+                     Statement bstat1 = firstif.getParent();
+                     bstat1.getStats().removeWithKey(firstif.id);
+                     bstat1.setFirst((Statement)bstat1.getStats().get(0));
+                  }
+
+                  return true;
+               }
+            } else {
+               elseedge = (StatEdge)firstif.getAllSuccessorEdges().get(0);
+               if(isDirectPath(stat, elseedge.getDestination())) {
+                  stat.setLooptype(2);
+                  stat.setConditionExprent(((IfExprent)firstif.getHeadexprent().copy()).getCondition());
+                  StatEdge ifedge1 = firstif.getIfEdge();
+                  firstif.getFirst().removeSuccessor(ifedge1);
+                  firstif.removeSuccessor(elseedge);
+                  if(stat.getAllSuccessorEdges().isEmpty()) {
+                     elseedge.setSource(stat);
+                     if(elseedge.closure == stat) {
+                        elseedge.closure = stat.getParent();
+                     }
+
+                     stat.addSuccessor(elseedge);
+                  }
+
+                  if(firstif.getIfstat() == null) {
+                     bstat = new BasicBlockStatement(new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0)));
+                     bstat.setExprents(new ArrayList());
+                     ifedge1.setSource(bstat);
+                     bstat.addSuccessor(ifedge1);
+                     stat.replaceStatement(firstif, bstat);
+                  } else {
+                     first.getParent().replaceStatement(first, firstif.getIfstat());
+                     Iterator bstat2 = elseedge.getDestination().getPredecessorEdges(4).iterator();
+
+                     while(bstat2.hasNext()) {
+                        StatEdge prededge = (StatEdge)bstat2.next();
+                        if(stat.containsStatementStrict(prededge.closure)) {
+                           stat.addLabeledEdge(prededge);
+                        }
+                     }
+
+                     LabelHelper.lowClosures(stat);
+                  }
+
+                  return true;
+               }
+            }
+         }
+      }
+
+      return false;
+   }
+
+   public static boolean isDirectPath(Statement stat, Statement endstat) {
+      Set setStat = stat.getNeighboursSet(1073741824, 1);
+      if(setStat.isEmpty()) {
+         Statement parent = stat.getParent();
+         if(parent == null) {
+            return false;
+         } else {
+            switch(parent.type) {
+            case 5:
+               return endstat == parent;
+            case 6:
+               SwitchStatement swst = (SwitchStatement)parent;
+
+               for(int i = 0; i < swst.getCaseStatements().size() - 1; ++i) {
+                  Statement stt = (Statement)swst.getCaseStatements().get(i);
+                  if(stt == stat) {
+                     Statement stnext = (Statement)swst.getCaseStatements().get(i + 1);
+                     if(stnext.getExprents() != null && stnext.getExprents().isEmpty()) {
+                        stnext = ((StatEdge)stnext.getAllSuccessorEdges().get(0)).getDestination();
+                     }
+
+                     return endstat == stnext;
+                  }
+               }
+            default:
+               return isDirectPath(parent, endstat);
+            case 13:
+               return endstat.type == 14;
+            }
+         }
+      } else {
+         return setStat.contains(endstat);
+      }
+   }
+
+   private static boolean matchFor(DoStatement stat) {
+      Exprent lastDoExprent = null;
+      Exprent initDoExprent = null;
+      Statement lastData = null;
+      Statement preData = null;
+      lastData = getLastDirectData(stat.getFirst());
+      if(lastData != null && !lastData.getExprents().isEmpty()) {
+         List lstExpr = lastData.getExprents();
+         lastDoExprent = (Exprent)lstExpr.get(lstExpr.size() - 1);
+         boolean issingle = false;
+         if(lstExpr.size() == 1 && lastData.getAllPredecessorEdges().size() > 1) {
+            issingle = true;
+         }
+
+         boolean haslast = issingle || lastDoExprent.type == 2 || lastDoExprent.type == 6;
+         if(!haslast) {
+            return false;
+         } else {
+            boolean hasinit = false;
+            Object current = stat;
+
+            while(true) {
+               Statement lst = ((Statement)current).getParent();
+               if(lst == null || lst.type != 15) {
+                  break;
+               }
+
+               if(current != lst.getFirst()) {
+                  preData = (Statement)((Statement)current).getNeighbours(1, 0).get(0);
+                  preData = getLastDirectData(preData);
+                  if(preData != null && !preData.getExprents().isEmpty()) {
+                     initDoExprent = (Exprent)preData.getExprents().get(preData.getExprents().size() - 1);
+                     if(initDoExprent.type == 2) {
+                        hasinit = true;
+                     }
+                  }
+                  break;
+               }
+
+               current = lst;
+            }
+
+            if(hasinit && haslast || issingle) {
+               Set lst1 = stat.getNeighboursSet(8, 0);
+               lst1.remove(lastData);
+               if(!lst1.isEmpty()) {
+                  return false;
+               }
+
+               stat.setLooptype(3);
+               if(hasinit) {
+                  stat.setInitExprent((Exprent)preData.getExprents().remove(preData.getExprents().size() - 1));
+               }
+
+               stat.setIncExprent((Exprent)lastData.getExprents().remove(lastData.getExprents().size() - 1));
+            }
+
+            if(lastData.getExprents().isEmpty()) {
+               List lst2 = lastData.getAllSuccessorEdges();
+               if(!lst2.isEmpty()) {
+                  lastData.removeSuccessor((StatEdge)lst2.get(0));
+               }
+
+               removeLastEmptyStatement(stat, lastData);
+            }
+
+            return true;
+         }
+      } else {
+         return false;
+      }
+   }
+
+   private static void removeLastEmptyStatement(DoStatement dostat, Statement stat) {
+      if(stat == dostat.getFirst()) {
+         BasicBlockStatement bstat = new BasicBlockStatement(new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0)));
+         bstat.setExprents(new ArrayList());
+         dostat.replaceStatement(stat, bstat);
+      } else {
+         Iterator bstat1 = stat.getAllPredecessorEdges().iterator();
+
+         while(bstat1.hasNext()) {
+            StatEdge edge = (StatEdge)bstat1.next();
+            edge.getSource().changeEdgeType(1, edge, 8);
+            stat.removePredecessor(edge);
+            edge.getSource().changeEdgeNode(1, edge, dostat);
+            dostat.addPredecessor(edge);
+            dostat.addLabeledEdge(edge);
+         }
+
+         stat.getParent().getStats().removeWithKey(stat.id);
+      }
+
+   }
+
+   private static Statement getLastDirectData(Statement stat) {
+      if(stat.getExprents() != null) {
+         return stat;
+      } else {
+         switch(stat.type) {
+         case 15:
+            for(int i = stat.getStats().size() - 1; i >= 0; --i) {
+               Statement tmp = getLastDirectData((Statement)stat.getStats().get(i));
+               if(tmp == null || !tmp.getExprents().isEmpty()) {
+                  return tmp;
+               }
+            }
+         }
+
+         return null;
+      }
+   }
+}
@@ -0,0 +1,118 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.sforms.DirectNode;
+import regression.fernflower.modules.decompiler.sforms.FlattenStatementsHelper;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.struct.gen.VarType;
+
+public class PPandMMHelper {
+   private boolean exprentReplaced;
+
+   public boolean findPPandMM(RootStatement root) {
+      FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
+      DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+      LinkedList stack = new LinkedList();
+      stack.add(dgraph.first);
+      HashSet setVisited = new HashSet();
+      boolean res = false;
+
+      while(!stack.isEmpty()) {
+         DirectNode node = (DirectNode)stack.removeFirst();
+         if(!setVisited.contains(node)) {
+            setVisited.add(node);
+            res |= this.processExprentList(node.exprents);
+            stack.addAll(node.succs);
+         }
+      }
+
+      return res;
+   }
+
+   private boolean processExprentList(List lst) {
+      boolean result = false;
+
+      for(int i = 0; i < lst.size(); ++i) {
+         Exprent exprent = (Exprent)lst.get(i);
+         this.exprentReplaced = false;
+         Exprent retexpr = this.processExprentRecursive(exprent);
+         if(retexpr != null) {
+            lst.set(i, retexpr);
+            result = true;
+            --i;
+         }
+
+         result |= this.exprentReplaced;
+      }
+
+      return result;
+   }
+
+   private Exprent processExprentRecursive(Exprent exprent) {
+      boolean replaced = true;
+
+      while(true) {
+         while(replaced) {
+            replaced = false;
+            Iterator as = exprent.getAllExprents().iterator();
+
+            while(as.hasNext()) {
+               Exprent func = (Exprent)as.next();
+               Exprent midlayer = this.processExprentRecursive(func);
+               if(midlayer != null) {
+                  exprent.replaceExprent(func, midlayer);
+                  replaced = true;
+                  this.exprentReplaced = true;
+                  break;
+               }
+            }
+         }
+
+         if(exprent.type == 2) {
+            AssignmentExprent as1 = (AssignmentExprent)exprent;
+            if(as1.getRight().type == 6) {
+               FunctionExprent func1 = (FunctionExprent)as1.getRight();
+               VarType midlayer1 = null;
+               if(func1.getFuncType() >= 14 && func1.getFuncType() <= 28) {
+                  midlayer1 = func1.getSimpleCastType();
+                  if(((Exprent)func1.getLstOperands().get(0)).type != 6) {
+                     return null;
+                  }
+
+                  func1 = (FunctionExprent)func1.getLstOperands().get(0);
+               }
+
+               if(func1.getFuncType() == 0 || func1.getFuncType() == 1) {
+                  Exprent econd = (Exprent)func1.getLstOperands().get(0);
+                  Exprent econst = (Exprent)func1.getLstOperands().get(1);
+                  if(econst.type != 3 && econd.type == 3 && func1.getFuncType() == 0) {
+                     econd = econst;
+                     econst = (Exprent)func1.getLstOperands().get(0);
+                  }
+
+                  if(econst.type == 3 && ((ConstExprent)econst).hasValueOne()) {
+                     Exprent left = as1.getLeft();
+                     VarType condtype = econd.getExprType();
+                     if(left.equals(econd) && (midlayer1 == null || midlayer1.equals(condtype))) {
+                        FunctionExprent ret = new FunctionExprent(func1.getFuncType() == 0 ? 35 : 33, econd, func1.bytecode);
+                        ret.setImplicitType(condtype);
+                        this.exprentReplaced = true;
+                        return ret;
+                     }
+                  }
+               }
+            }
+         }
+
+         return null;
+      }
+   }
+}
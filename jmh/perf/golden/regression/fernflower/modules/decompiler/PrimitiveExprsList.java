@@ -0,0 +1,27 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PrimitiveExprsList {
+   private List lstExprents = new ArrayList();
+   private ExprentStack stack = new ExprentStack();
+
+   public PrimitiveExprsList copyStack() {
+      PrimitiveExprsList prlst = new PrimitiveExprsList();
+      prlst.setStack(this.stack.clone());
+      return prlst;
+   }
+
+   public List getLstExprents() {
+      return this.lstExprents;
+   }
+
+   public ExprentStack getStack() {
+      return this.stack;
+   }
+
+   public void setStack(ExprentStack stack) {
+      this.stack = stack;
+   }
+}
@@ -0,0 +1,387 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.IfExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.gen.VarType;
+
+public class SecondaryFunctionsHelper {
+   private static final int[] funcsnot = new int[]{43, 42, 45, 44, 47, 46, 49, 48};
+   private static final HashMap mapNumComparisons = new HashMap();
+
+   public static boolean identifySecondaryFunctions(Statement stat) {
+      if(stat.getExprents() == null && stat.type == 2) {
+         IfStatement replaced = (IfStatement)stat;
+         Statement lstObjects = replaced.getIfstat();
+         if(replaced.iftype == 1 && lstObjects.getExprents() != null && lstObjects.getExprents().isEmpty() && (lstObjects.getAllSuccessorEdges().isEmpty() || !((StatEdge)lstObjects.getAllSuccessorEdges().get(0)).explicit)) {
+            replaced.getStats().removeWithKey(lstObjects.id);
+            replaced.iftype = 0;
+            replaced.setIfstat(replaced.getElsestat());
+            replaced.setElsestat((Statement)null);
+            if(replaced.getAllSuccessorEdges().isEmpty() && !lstObjects.getAllSuccessorEdges().isEmpty()) {
+               StatEdge var8 = (StatEdge)lstObjects.getAllSuccessorEdges().get(0);
+               lstObjects.removeSuccessor(var8);
+               var8.setSource(replaced);
+               if(var8.closure != null) {
+                  replaced.getParent().addLabeledEdge(var8);
+               }
+
+               replaced.addSuccessor(var8);
+            }
+
+            replaced.getFirst().removeSuccessor(replaced.getIfEdge());
+            replaced.setIfEdge(replaced.getElseEdge());
+            replaced.setElseEdge((StatEdge)null);
+            replaced.setNegated(!replaced.isNegated());
+            replaced.getHeadexprentList().set(0, ((IfExprent)replaced.getHeadexprent().copy()).negateIf());
+            return true;
+         }
+      }
+
+      boolean var6 = true;
+
+      while(true) {
+         while(var6) {
+            var6 = false;
+            ArrayList var7 = new ArrayList(stat.getExprents() == null ? stat.getSequentialObjects() : stat.getExprents());
+
+            for(int i = 0; i < var7.size(); ++i) {
+               Object obj = var7.get(i);
+               if(obj instanceof Statement) {
+                  if(identifySecondaryFunctions((Statement)obj)) {
+                     var6 = true;
+                     break;
+                  }
+               } else if(obj instanceof Exprent) {
+                  Exprent retexpr = identifySecondaryFunctions((Exprent)obj, true);
+                  if(retexpr != null) {
+                     if(stat.getExprents() == null) {
+                        stat.replaceExprent((Exprent)obj, retexpr);
+                     } else {
+                        stat.getExprents().set(i, retexpr);
+                     }
+
+                     var6 = true;
+                     break;
+                  }
+               }
+            }
+         }
+
+         return false;
+      }
+   }
+
+   private static Exprent identifySecondaryFunctions(Exprent exprent, boolean statement_level) {
+      Exprent lstOperands;
+      Exprent asexpr;
+      ConstExprent left;
+      if(exprent.type == 6) {
+         FunctionExprent replaced = (FunctionExprent)exprent;
+         switch(replaced.getFuncType()) {
+         case 12:
+            Exprent fexpr = propagateBoolNot(replaced);
+            if(fexpr != null) {
+               return fexpr;
+            }
+            break;
+         case 42:
+         case 43:
+         case 44:
+         case 45:
+         case 46:
+         case 47:
+            lstOperands = (Exprent)replaced.getLstOperands().get(0);
+            asexpr = (Exprent)replaced.getLstOperands().get(1);
+            if(lstOperands.type == 3) {
+               asexpr = lstOperands;
+               lstOperands = (Exprent)replaced.getLstOperands().get(1);
+            }
+
+            if(lstOperands.type == 6 && asexpr.type == 3) {
+               FunctionExprent right = (FunctionExprent)lstOperands;
+               left = (ConstExprent)asexpr;
+               int retexpr = right.getFuncType();
+               if(retexpr == 37 || retexpr == 39 || retexpr == 38 || retexpr == 41 || retexpr == 40) {
+                  int midlayer = -1;
+                  Integer[] lstFuncOperands = (Integer[])mapNumComparisons.get(Integer.valueOf(replaced.getFuncType()));
+                  if(lstFuncOperands != null) {
+                     int cond = left.getIntValue() + 1;
+                     if(cond >= 0 && cond <= 2) {
+                        Integer destcon = lstFuncOperands[cond];
+                        if(destcon != null) {
+                           midlayer = destcon.intValue();
+                        }
+                     }
+                  }
+
+                  if(midlayer >= 0) {
+                     return new FunctionExprent(midlayer, right.getLstOperands(), right.bytecode);
+                  }
+               }
+            }
+         }
+      }
+
+      boolean var13 = true;
+
+      while(true) {
+         while(var13) {
+            var13 = false;
+            Iterator var14 = exprent.getAllExprents().iterator();
+
+            while(var14.hasNext()) {
+               lstOperands = (Exprent)var14.next();
+               asexpr = identifySecondaryFunctions(lstOperands, false);
+               if(asexpr != null) {
+                  exprent.replaceExprent(lstOperands, asexpr);
+                  var13 = true;
+                  break;
+               }
+            }
+         }
+
+         Exprent var19;
+         label167:
+         switch(exprent.type) {
+         case 2:
+            AssignmentExprent var21 = (AssignmentExprent)exprent;
+            var19 = var21.getRight();
+            Exprent var24 = var21.getLeft();
+            if(var19.type == 6) {
+               FunctionExprent var28 = (FunctionExprent)var19;
+               VarType var33 = null;
+               if(var28.getFuncType() >= 14 && var28.getFuncType() <= 28) {
+                  var19 = (Exprent)var28.getLstOperands().get(0);
+                  var33 = var28.getSimpleCastType();
+                  if(var19.type != 6) {
+                     return null;
+                  }
+
+                  var28 = (FunctionExprent)var19;
+               }
+
+               List var32 = var28.getLstOperands();
+               Exprent var36 = null;
+               switch(var28.getFuncType()) {
+               case 0:
+               case 4:
+               case 5:
+               case 6:
+                  if(var24.equals(var32.get(1))) {
+                     var36 = (Exprent)var32.get(0);
+                     break;
+                  }
+               case 1:
+               case 2:
+               case 3:
+               case 7:
+               case 8:
+               case 9:
+               case 10:
+                  if(var24.equals(var32.get(0))) {
+                     var36 = (Exprent)var32.get(1);
+                  }
+               }
+
+               if(var36 != null && (var33 == null || var33.equals(var36.getExprType()))) {
+                  var21.setRight(var36);
+                  var21.setCondType(var28.getFuncType());
+               }
+            }
+            break;
+         case 6:
+            FunctionExprent var15 = (FunctionExprent)exprent;
+            List var16 = var15.getLstOperands();
+            int var17;
+            int var20;
+            ConstExprent var27;
+            switch(var15.getFuncType()) {
+            case 6:
+               for(var17 = 0; var17 < 2; ++var17) {
+                  var19 = (Exprent)var16.get(var17);
+                  VarType var23 = var19.getExprType();
+                  if(var19.type == 3 && var23.type != 7) {
+                     var27 = (ConstExprent)var19;
+                     long var31;
+                     if(var23.type == 5) {
+                        var31 = ((Long)var27.getValue()).longValue();
+                     } else {
+                        var31 = (long)((Integer)var27.getValue()).intValue();
+                     }
+
+                     if(var31 == -1L) {
+                        ArrayList var35 = new ArrayList();
+                        var35.add((Exprent)var16.get(1 - var17));
+                        return new FunctionExprent(11, var35, var15.bytecode);
+                     }
+                  }
+               }
+               break label167;
+            case 7:
+            case 8:
+            case 9:
+            case 10:
+            case 11:
+            case 13:
+            case 14:
+            case 15:
+            case 16:
+            case 17:
+            case 18:
+            case 19:
+            case 20:
+            case 21:
+            case 22:
+            case 23:
+            case 24:
+            case 25:
+            case 26:
+            case 27:
+            case 28:
+            case 29:
+            case 30:
+            case 31:
+            case 32:
+            case 33:
+            case 34:
+            case 35:
+            default:
+               return null;
+            case 12:
+               if(((Exprent)var16.get(0)).type == 3) {
+                  var17 = ((ConstExprent)var16.get(0)).getIntValue();
+                  if(var17 == 0) {
+                     return new ConstExprent(VarType.VARTYPE_BOOLEAN, new Integer(1), var15.bytecode);
+                  }
+
+                  return new ConstExprent(VarType.VARTYPE_BOOLEAN, new Integer(0), var15.bytecode);
+               }
+
+               return null;
+            case 36:
+               asexpr = (Exprent)var16.get(1);
+               var19 = (Exprent)var16.get(2);
+               if(asexpr.type == 3 && var19.type == 3) {
+                  left = (ConstExprent)asexpr;
+                  var27 = (ConstExprent)var19;
+                  if(left.getExprType().type == 7 && var27.getExprType().type == 7) {
+                     if(left.getIntValue() == 0 && var27.getIntValue() != 0) {
+                        return new FunctionExprent(12, (Exprent)var16.get(0), var15.bytecode);
+                     }
+
+                     if(left.getIntValue() != 0 && var27.getIntValue() == 0) {
+                        return (Exprent)var16.get(0);
+                     }
+
+                     return null;
+                  }
+               }
+
+               return null;
+            case 37:
+            case 38:
+            case 39:
+            case 40:
+            case 41:
+               var20 = DecompilerContext.getCounterContainer().getCounterAndIncrement(2);
+               VarType var26 = ((Exprent)var16.get(0)).getExprType();
+               VarProcessor var29 = (VarProcessor)DecompilerContext.getProperty("CURRENT_VAR_PROCESSOR");
+               FunctionExprent var30 = new FunctionExprent(36, Arrays.asList(new Exprent[]{new FunctionExprent(44, Arrays.asList(new Exprent[]{new VarExprent(var20, var26, var29), ConstExprent.getZeroConstant(var26.type)}), (Set)null), new ConstExprent(VarType.VARTYPE_INT, new Integer(-1), (Set)null), new ConstExprent(VarType.VARTYPE_INT, new Integer(1), (Set)null)}), (Set)null);
+               FunctionExprent var34 = new FunctionExprent(42, Arrays.asList(new Exprent[]{new AssignmentExprent(new VarExprent(var20, var26, var29), new FunctionExprent(1, Arrays.asList(new Exprent[]{(Exprent)var16.get(0), (Exprent)var16.get(1)}), (Set)null), (Set)null), ConstExprent.getZeroConstant(var26.type)}), (Set)null);
+               var29.setVarType(new VarVersionPair(var20, 0), var26);
+               return new FunctionExprent(36, Arrays.asList(new Exprent[]{var34, new ConstExprent(VarType.VARTYPE_INT, new Integer(0), (Set)null), var30}), var15.bytecode);
+            case 42:
+            case 43:
+               if(((Exprent)var16.get(0)).getExprType().type == 7 && ((Exprent)var16.get(1)).getExprType().type == 7) {
+                  for(var17 = 0; var17 < 2; ++var17) {
+                     if(((Exprent)var16.get(var17)).type == 3) {
+                        ConstExprent var18 = (ConstExprent)var16.get(var17);
+                        var20 = ((Integer)var18.getValue()).intValue();
+                        if((var15.getFuncType() != 42 || var20 != 1) && (var15.getFuncType() != 43 || var20 != 0)) {
+                           ArrayList var25 = new ArrayList();
+                           var25.add((Exprent)var16.get(1 - var17));
+                           return new FunctionExprent(12, var25, var15.bytecode);
+                        }
+
+                        return (Exprent)var16.get(1 - var17);
+                     }
+                  }
+               }
+
+               return null;
+            }
+         case 8:
+            if(!statement_level) {
+               Exprent var22 = ConcatenationHelper.contractStringConcat(exprent);
+               if(!exprent.equals(var22)) {
+                  return var22;
+               }
+            }
+         }
+
+         return null;
+      }
+   }
+
+   public static Exprent propagateBoolNot(Exprent exprent) {
+      if(exprent.type == 6) {
+         FunctionExprent fexpr = (FunctionExprent)exprent;
+         if(fexpr.getFuncType() == 12) {
+            Exprent param = (Exprent)fexpr.getLstOperands().get(0);
+            if(param.type == 6) {
+               FunctionExprent fparam = (FunctionExprent)param;
+               int ftype = fparam.getFuncType();
+               switch(ftype) {
+               case 12:
+                  Exprent newexpr = (Exprent)fparam.getLstOperands().get(0);
+                  Exprent retexpr = propagateBoolNot(newexpr);
+                  return retexpr == null ? newexpr : retexpr;
+               case 48:
+               case 49:
+                  List operands = fparam.getLstOperands();
+
+                  for(int i = 0; i < operands.size(); ++i) {
+                     FunctionExprent newparam = new FunctionExprent(12, (Exprent)operands.get(i), ((Exprent)operands.get(i)).bytecode);
+                     Exprent retparam = propagateBoolNot(newparam);
+                     operands.set(i, retparam == null ? newparam : retparam);
+                  }
+               case 42:
+               case 43:
+               case 44:
+               case 45:
+               case 46:
+               case 47:
+                  fparam.setFuncType(funcsnot[ftype - 42]);
+                  return fparam;
+               }
+            }
+         }
+      }
+
+      return null;
+   }
+
+   static {
+      mapNumComparisons.put(Integer.valueOf(42), new Integer[]{Integer.valueOf(44), Integer.valueOf(42), Integer.valueOf(46)});
+      mapNumComparisons.put(Integer.valueOf(43), new Integer[]{Integer.valueOf(45), Integer.valueOf(43), Integer.valueOf(47)});
+      mapNumComparisons.put(Integer.valueOf(46), new Integer[]{Integer.valueOf(45), Integer.valueOf(46), null});
+      mapNumComparisons.put(Integer.valueOf(45), new Integer[]{null, Integer.valueOf(45), Integer.valueOf(46)});
+      mapNumComparisons.put(Integer.valueOf(44), new Integer[]{null, Integer.valueOf(44), Integer.valueOf(47)});
+      mapNumComparisons.put(Integer.valueOf(47), new Integer[]{Integer.valueOf(44), Integer.valueOf(47), null});
+   }
+}
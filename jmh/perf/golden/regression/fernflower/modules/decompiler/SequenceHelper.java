@@ -0,0 +1,305 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.SequenceStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+
+public class SequenceHelper {
+   public static void condenseSequences(Statement root) {
+      condenseSequencesRec(root);
+   }
+
+   private static void condenseSequencesRec(Statement stat) {
+      boolean st;
+      if(((Statement)stat).type == 15) {
+         ArrayList i = new ArrayList();
+         i.addAll(((Statement)stat).getStats());
+         st = false;
+
+         for(int edge = 0; edge < i.size(); ++edge) {
+            Statement statedge = (Statement)i.get(edge);
+            if(statedge.type == 15) {
+               removeEmptyStatements((SequenceStatement)statedge);
+               if(edge == i.size() - 1 || isSequenceDisbandable(statedge, (Statement)i.get(edge + 1))) {
+                  Statement first = statedge.getFirst();
+                  Iterator last = statedge.getAllPredecessorEdges().iterator();
+
+                  while(last.hasNext()) {
+                     StatEdge edge1 = (StatEdge)last.next();
+                     statedge.removePredecessor(edge1);
+                     edge1.getSource().changeEdgeNode(1, edge1, first);
+                     first.addPredecessor(edge1);
+                  }
+
+                  Statement var16 = (Statement)statedge.getStats().getLast();
+                  StatEdge edge2;
+                  Iterator var17;
+                  if(var16.getAllSuccessorEdges().isEmpty() && edge < i.size() - 1) {
+                     var16.addSuccessor(new StatEdge(1, var16, (Statement)i.get(edge + 1)));
+                  } else {
+                     var17 = var16.getAllSuccessorEdges().iterator();
+
+                     while(var17.hasNext()) {
+                        edge2 = (StatEdge)var17.next();
+                        if(edge == i.size() - 1) {
+                           if(edge2.closure == statedge) {
+                              ((Statement)stat).addLabeledEdge(edge2);
+                           }
+                        } else {
+                           edge2.getSource().changeEdgeType(1, edge2, 1);
+                           edge2.closure.getLabelEdges().remove(edge2);
+                           edge2.closure = null;
+                        }
+                     }
+                  }
+
+                  var17 = statedge.getAllSuccessorEdges().iterator();
+
+                  while(var17.hasNext()) {
+                     edge2 = (StatEdge)var17.next();
+                     statedge.removeSuccessor(edge2);
+                  }
+
+                  var17 = (new HashSet(statedge.getLabelEdges())).iterator();
+
+                  while(var17.hasNext()) {
+                     edge2 = (StatEdge)var17.next();
+                     if(edge2.getSource() != var16) {
+                        var16.addLabeledEdge(edge2);
+                     }
+                  }
+
+                  i.remove(edge);
+                  i.addAll(edge, statedge.getStats());
+                  --edge;
+                  st = true;
+               }
+            }
+         }
+
+         if(st) {
+            SequenceStatement var13 = new SequenceStatement(i);
+            var13.setAllParent();
+            ((Statement)stat).getParent().replaceStatement((Statement)stat, var13);
+            stat = var13;
+         }
+      }
+
+      if(((Statement)stat).type == 15) {
+         removeEmptyStatements((SequenceStatement)stat);
+         if(((Statement)stat).getStats().size() == 1) {
+            Statement var9 = ((Statement)stat).getFirst();
+            st = var9.getAllSuccessorEdges().isEmpty();
+            if(!st) {
+               StatEdge var15 = (StatEdge)var9.getAllSuccessorEdges().get(0);
+               st = ((Statement)stat).getAllSuccessorEdges().isEmpty();
+               if(!st) {
+                  StatEdge var14 = (StatEdge)((Statement)stat).getAllSuccessorEdges().get(0);
+                  st = var15.getDestination() == var14.getDestination();
+                  if(st) {
+                     var9.removeSuccessor(var15);
+                  }
+               }
+            }
+
+            if(st) {
+               ((Statement)stat).getParent().replaceStatement((Statement)stat, var9);
+               stat = var9;
+            }
+         }
+      }
+
+      while(true) {
+         Iterator var10 = ((Statement)stat).getStats().iterator();
+
+         Statement var12;
+         do {
+            do {
+               if(!var10.hasNext()) {
+                  for(int var11 = 0; var11 < ((Statement)stat).getStats().size(); ++var11) {
+                     condenseSequencesRec((Statement)((Statement)stat).getStats().get(var11));
+                  }
+
+                  return;
+               }
+
+               var12 = (Statement)var10.next();
+            } while(!var12.getStats().isEmpty() && var12.getExprents() == null);
+         } while(var12.type == 8);
+
+         destroyAndFlattenStatement(var12);
+      }
+   }
+
+   private static boolean isSequenceDisbandable(Statement block, Statement next) {
+      Statement last = (Statement)block.getStats().getLast();
+      List lstSuccs = last.getAllSuccessorEdges();
+      if(!lstSuccs.isEmpty() && ((StatEdge)lstSuccs.get(0)).getDestination() != next) {
+         return false;
+      } else {
+         Iterator var4 = next.getPredecessorEdges(4).iterator();
+
+         StatEdge edge;
+         do {
+            if(!var4.hasNext()) {
+               return true;
+            }
+
+            edge = (StatEdge)var4.next();
+         } while(last == edge.getSource() || last.containsStatementStrict(edge.getSource()));
+
+         return false;
+      }
+   }
+
+   private static void removeEmptyStatements(SequenceStatement sequence) {
+      if(sequence.getStats().size() > 1) {
+         mergeFlatStatements(sequence);
+
+         boolean found;
+         label75:
+         do {
+            found = false;
+            Iterator var2 = sequence.getStats().iterator();
+
+            Statement st;
+            do {
+               do {
+                  do {
+                     if(!var2.hasNext()) {
+                        continue label75;
+                     }
+
+                     st = (Statement)var2.next();
+                  } while(st.getExprents() == null);
+               } while(!st.getExprents().isEmpty());
+
+               Iterator var5;
+               StatEdge edge;
+               if(st.getAllSuccessorEdges().isEmpty()) {
+                  List sucedge1 = st.getPredecessorEdges(4);
+                  if(sucedge1.isEmpty()) {
+                     var5 = st.getAllPredecessorEdges().iterator();
+
+                     while(var5.hasNext()) {
+                        edge = (StatEdge)var5.next();
+                        edge.getSource().removeSuccessor(edge);
+                     }
+
+                     found = true;
+                  }
+               } else {
+                  StatEdge sucedge = (StatEdge)st.getAllSuccessorEdges().get(0);
+                  if(sucedge.getType() != 32) {
+                     st.removeSuccessor(sucedge);
+                     var5 = st.getAllPredecessorEdges().iterator();
+
+                     while(var5.hasNext()) {
+                        edge = (StatEdge)var5.next();
+                        if(sucedge.getType() != 1) {
+                           edge.getSource().changeEdgeType(1, edge, sucedge.getType());
+                        }
+
+                        st.removePredecessor(edge);
+                        edge.getSource().changeEdgeNode(1, edge, sucedge.getDestination());
+                        sucedge.getDestination().addPredecessor(edge);
+                        if(sucedge.closure != null) {
+                           sucedge.closure.addLabeledEdge(edge);
+                        }
+                     }
+
+                     found = true;
+                  }
+               }
+            } while(!found);
+
+            sequence.getStats().removeWithKey(st.id);
+         } while(found);
+
+         sequence.setFirst((Statement)sequence.getStats().get(0));
+      }
+   }
+
+   private static void mergeFlatStatements(SequenceStatement sequence) {
+      boolean found;
+      do {
+         Statement next = null;
+         Statement current = null;
+         found = false;
+
+         for(int i = sequence.getStats().size() - 1; i >= 0; --i) {
+            next = current;
+            current = (Statement)sequence.getStats().get(i);
+            if(next != null && current.getExprents() != null && !current.getExprents().isEmpty()) {
+               if(next.getExprents() != null) {
+                  next.getExprents().addAll(0, current.getExprents());
+                  current.getExprents().clear();
+                  found = true;
+               } else {
+                  Statement first = getFirstExprentlist(next);
+                  if(first != null) {
+                     first.getExprents().addAll(0, current.getExprents());
+                     current.getExprents().clear();
+                     found = true;
+                  }
+               }
+            }
+         }
+      } while(found);
+
+   }
+
+   private static Statement getFirstExprentlist(Statement stat) {
+      if(stat.getExprents() != null) {
+         return stat;
+      } else {
+         switch(stat.type) {
+         case 2:
+         case 6:
+         case 10:
+         case 15:
+            return getFirstExprentlist(stat.getFirst());
+         default:
+            return null;
+         }
+      }
+   }
+
+   public static void destroyAndFlattenStatement(Statement stat) {
+      destroyStatementContent(stat, false);
+      BasicBlockStatement bstat = new BasicBlockStatement(new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0)));
+      if(stat.getExprents() == null) {
+         bstat.setExprents(new ArrayList());
+      } else {
+         bstat.setExprents(DecHelper.copyExprentList(stat.getExprents()));
+      }
+
+      stat.getParent().replaceStatement(stat, bstat);
+   }
+
+   public static void destroyStatementContent(Statement stat, boolean self) {
+      Iterator var2 = stat.getStats().iterator();
+
+      while(var2.hasNext()) {
+         Statement edge = (Statement)var2.next();
+         destroyStatementContent(edge, true);
+      }
+
+      stat.getStats().clear();
+      if(self) {
+         var2 = stat.getAllSuccessorEdges().iterator();
+
+         while(var2.hasNext()) {
+            StatEdge edge1 = (StatEdge)var2.next();
+            stat.removeSuccessor(edge1);
+         }
+      }
+
+   }
+}
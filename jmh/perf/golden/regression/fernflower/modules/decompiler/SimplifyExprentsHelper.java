@@ -0,0 +1,572 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.decompiler.exps.ArrayExprent;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.ExitExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.IfExprent;
+import regression.fernflower.modules.decompiler.exps.InvocationExprent;
+import regression.fernflower.modules.decompiler.exps.MonitorExprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.sforms.SSAConstructorSparseEx;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.util.FastSparseSetFactory;
+import regression.fernflower.util.ListStack;
+
+public class SimplifyExprentsHelper {
+   static MatchEngine class14Builder = new MatchEngine();
+   private boolean firstInvocation;
+
+   public SimplifyExprentsHelper(boolean firstInvocation) {
+      this.firstInvocation = firstInvocation;
+   }
+
+   public boolean simplifyStackVarsStatement(Statement stat, HashSet setReorderedIfs, SSAConstructorSparseEx ssa, StructClass cl) {
+      boolean res = false;
+      if(stat.getExprents() == null) {
+         boolean processClass14 = DecompilerContext.getOption("dc4");
+
+         boolean changed;
+         do {
+            changed = false;
+            Iterator var8 = stat.getStats().iterator();
+
+            while(var8.hasNext()) {
+               Statement st = (Statement)var8.next();
+               res |= this.simplifyStackVarsStatement(st, setReorderedIfs, ssa, cl);
+               if((changed = IfHelper.mergeIfs(st, setReorderedIfs)) || (changed = buildIff(st, ssa)) || processClass14 && (changed = collapseInlinedClass14(st))) {
+                  break;
+               }
+            }
+
+            res |= changed;
+         } while(changed);
+      } else {
+         res |= this.simplifyStackVarsExprents(stat.getExprents(), cl);
+      }
+
+      return res;
+   }
+
+   private boolean simplifyStackVarsExprents(List list, StructClass cl) {
+      boolean res = false;
+      int index = 0;
+
+      while(index < list.size()) {
+         Exprent current = (Exprent)list.get(index);
+         Exprent ret = isSimpleConstructorInvocation(current);
+         if(ret != null) {
+            list.set(index, ret);
+            res = true;
+         } else {
+            ret = isLambda(current, cl);
+            if(ret != null) {
+               list.set(index, ret);
+               res = true;
+            } else if(isMonitorExit(current)) {
+               list.remove(index);
+               res = true;
+            } else if(isTrivialStackAssignment(current)) {
+               list.remove(index);
+               res = true;
+            } else {
+               if(index == list.size() - 1) {
+                  break;
+               }
+
+               Exprent next = (Exprent)list.get(index + 1);
+               if(isConstructorInvocationRemote(list, index)) {
+                  list.remove(index);
+                  res = true;
+               } else if(DecompilerContext.getOption("rgn") && isQualifiedNewGetClass(current, next)) {
+                  list.remove(index);
+                  res = true;
+               } else {
+                  int arrcount = isArrayInitializer(list, index);
+                  if(arrcount <= 0) {
+                     if(addArrayInitializer(current, next)) {
+                        list.remove(index + 1);
+                        res = true;
+                     } else {
+                        Exprent var10 = isPPIorMMI(current);
+                        if(var10 != null) {
+                           list.set(index, var10);
+                           res = true;
+                        } else if(isIPPorIMM(current, next)) {
+                           list.remove(index + 1);
+                           res = true;
+                        } else if(isStackAssignement(current, next)) {
+                           list.remove(index + 1);
+                           res = true;
+                        } else if(!this.firstInvocation && isStackAssignement2(current, next)) {
+                           list.remove(index + 1);
+                           res = true;
+                        } else {
+                           ++index;
+                        }
+                     }
+                  } else {
+                     for(int func = 0; func < arrcount; ++func) {
+                        list.remove(index + 1);
+                     }
+
+                     res = true;
+                  }
+               }
+            }
+         }
+      }
+
+      return res;
+   }
+
+   private static boolean addArrayInitializer(Exprent first, Exprent second) {
+      if(first.type == 2) {
+         AssignmentExprent as = (AssignmentExprent)first;
+         if(as.getRight().type == 10 && as.getLeft().type == 12) {
+            NewExprent newex = (NewExprent)as.getRight();
+            if(!newex.getLstArrayElements().isEmpty()) {
+               VarExprent arrvar = (VarExprent)as.getLeft();
+               if(second.type == 2) {
+                  AssignmentExprent aas = (AssignmentExprent)second;
+                  if(aas.getLeft().type == 1) {
+                     ArrayExprent arrex = (ArrayExprent)aas.getLeft();
+                     if(arrex.getArray().type == 12 && arrvar.equals(arrex.getArray()) && arrex.getIndex().type == 3) {
+                        int constvalue = ((ConstExprent)arrex.getIndex()).getIntValue();
+                        if(constvalue < newex.getLstArrayElements().size()) {
+                           Exprent init = (Exprent)newex.getLstArrayElements().get(constvalue);
+                           if(init.type == 3) {
+                              ConstExprent cinit = (ConstExprent)init;
+                              VarType arrtype = newex.getNewType().decreaseArrayDim();
+                              ConstExprent defaultval = ExprProcessor.getDefaultArrayValue(arrtype);
+                              if(cinit.equals(defaultval)) {
+                                 Exprent tempexpr = aas.getRight();
+                                 if(!tempexpr.containsExprent(arrvar)) {
+                                    newex.getLstArrayElements().set(constvalue, tempexpr);
+                                    if(tempexpr.type == 10) {
+                                       NewExprent tempnewex = (NewExprent)tempexpr;
+                                       int dims = newex.getNewType().arrayDim;
+                                       if(dims > 1 && !tempnewex.getLstArrayElements().isEmpty()) {
+                                          tempnewex.setDirectArrayInit(true);
+                                       }
+                                    }
+
+                                    return true;
+                                 }
+                              }
+                           }
+                        }
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static int isArrayInitializer(List list, int index) {
+      Exprent current = (Exprent)list.get(index);
+      if(current.type == 2) {
+         AssignmentExprent as = (AssignmentExprent)current;
+         if(as.getRight().type == 10 && as.getLeft().type == 12) {
+            NewExprent newex = (NewExprent)as.getRight();
+            if(newex.getExprType().arrayDim > 0 && newex.getLstDims().size() == 1 && newex.getLstArrayElements().isEmpty() && ((Exprent)newex.getLstDims().get(0)).type == 3) {
+               int size = ((Integer)((ConstExprent)newex.getLstDims().get(0)).getValue()).intValue();
+               if(size == 0) {
+                  return 0;
+               }
+
+               VarExprent arrvar = (VarExprent)as.getLeft();
+               HashMap mapInit = new HashMap();
+
+               for(int i = 1; index + i < list.size() && i <= size; ++i) {
+                  boolean fraction = false;
+                  Exprent expr = (Exprent)list.get(index + i);
+                  if(expr.type == 2) {
+                     AssignmentExprent lstRet = (AssignmentExprent)expr;
+                     if(lstRet.getLeft().type == 1) {
+                        ArrayExprent arrtype = (ArrayExprent)lstRet.getLeft();
+                        if(arrtype.getArray().type == 12 && arrvar.equals(arrtype.getArray()) && arrtype.getIndex().type == 3) {
+                           int defaultval = ((ConstExprent)arrtype.getIndex()).getIntValue();
+                           if(defaultval < size && !mapInit.containsKey(Integer.valueOf(defaultval)) && !lstRet.getRight().containsExprent(arrvar)) {
+                              mapInit.put(Integer.valueOf(defaultval), lstRet.getRight());
+                              fraction = true;
+                           }
+                        }
+                     }
+                  }
+
+                  if(!fraction) {
+                     break;
+                  }
+               }
+
+               double var19 = (double)mapInit.size() / (double)size;
+               if(arrvar.isStack() && var19 > 0.0D || size <= 7 && var19 >= 0.3D || size > 7 && var19 >= 0.7D) {
+                  ArrayList var20 = new ArrayList();
+                  VarType var21 = newex.getNewType().decreaseArrayDim();
+                  ConstExprent var22 = ExprProcessor.getDefaultArrayValue(var21);
+
+                  int dims;
+                  for(dims = 0; dims < size; ++dims) {
+                     var20.add(var22.copy());
+                  }
+
+                  dims = newex.getNewType().arrayDim;
+                  Iterator var15 = mapInit.entrySet().iterator();
+
+                  while(var15.hasNext()) {
+                     Entry ent = (Entry)var15.next();
+                     Exprent tempexpr = (Exprent)ent.getValue();
+                     var20.set(((Integer)ent.getKey()).intValue(), tempexpr);
+                     if(tempexpr.type == 10) {
+                        NewExprent tempnewex = (NewExprent)tempexpr;
+                        if(dims > 1 && !tempnewex.getLstArrayElements().isEmpty()) {
+                           tempnewex.setDirectArrayInit(true);
+                        }
+                     }
+                  }
+
+                  newex.setLstArrayElements(var20);
+                  return mapInit.size();
+               }
+            }
+         }
+      }
+
+      return 0;
+   }
+
+   private static boolean isTrivialStackAssignment(Exprent first) {
+      if(first.type == 2) {
+         AssignmentExprent asf = (AssignmentExprent)first;
+         if(asf.getLeft().type == 12 && asf.getRight().type == 12) {
+            VarExprent varleft = (VarExprent)asf.getLeft();
+            VarExprent varright = (VarExprent)asf.getRight();
+            if(varleft.getIndex() == varright.getIndex() && varleft.isStack() && varright.isStack()) {
+               return true;
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean isStackAssignement2(Exprent first, Exprent second) {
+      if(first.type == 2 && second.type == 2) {
+         AssignmentExprent asf = (AssignmentExprent)first;
+         AssignmentExprent ass = (AssignmentExprent)second;
+         if(asf.getLeft().type == 12 && ass.getRight().type == 12 && asf.getLeft().equals(ass.getRight()) && ((VarExprent)asf.getLeft()).isStack() && (ass.getLeft().type != 12 || !((VarExprent)ass.getLeft()).isStack())) {
+            asf.setRight(new AssignmentExprent(ass.getLeft(), asf.getRight(), ass.bytecode));
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean isStackAssignement(Exprent first, Exprent second) {
+      if(first.type == 2 && second.type == 2) {
+         AssignmentExprent asf = (AssignmentExprent)first;
+         AssignmentExprent ass = (AssignmentExprent)second;
+
+         while(true) {
+            if(asf.getRight().equals(ass.getRight()) && asf.getLeft().type == 12 && ((VarExprent)asf.getLeft()).isStack() && (ass.getLeft().type != 12 || !((VarExprent)ass.getLeft()).isStack()) && !ass.getLeft().containsExprent(asf.getLeft())) {
+               asf.setRight(ass);
+               return true;
+            }
+
+            if(asf.getRight().type != 2) {
+               break;
+            }
+
+            asf = (AssignmentExprent)asf.getRight();
+         }
+      }
+
+      return false;
+   }
+
+   private static Exprent isPPIorMMI(Exprent first) {
+      if(first.type == 2) {
+         AssignmentExprent as = (AssignmentExprent)first;
+         if(as.getRight().type == 6) {
+            FunctionExprent func = (FunctionExprent)as.getRight();
+            if(func.getFuncType() == 0 || func.getFuncType() == 1) {
+               Exprent econd = (Exprent)func.getLstOperands().get(0);
+               Exprent econst = (Exprent)func.getLstOperands().get(1);
+               if(econst.type != 3 && econd.type == 3 && func.getFuncType() == 0) {
+                  econd = econst;
+                  econst = (Exprent)func.getLstOperands().get(0);
+               }
+
+               if(econst.type == 3 && ((ConstExprent)econst).hasValueOne()) {
+                  Exprent left = as.getLeft();
+                  if(left.type != 12 && left.equals(econd)) {
+                     FunctionExprent ret = new FunctionExprent(func.getFuncType() == 0 ? 35 : 33, econd, func.bytecode);
+                     ret.setImplicitType(VarType.VARTYPE_INT);
+                     return ret;
+                  }
+               }
+            }
+         }
+      }
+
+      return null;
+   }
+
+   private static boolean isIPPorIMM(Exprent first, Exprent second) {
+      if(first.type == 2 && second.type == 6) {
+         AssignmentExprent as = (AssignmentExprent)first;
+         FunctionExprent in = (FunctionExprent)second;
+         if((in.getFuncType() == 33 || in.getFuncType() == 35) && ((Exprent)in.getLstOperands().get(0)).equals(as.getRight())) {
+            if(in.getFuncType() == 33) {
+               in.setFuncType(32);
+            } else {
+               in.setFuncType(34);
+            }
+
+            as.setRight(in);
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean isMonitorExit(Exprent first) {
+      if(first.type == 9) {
+         MonitorExprent monexpr = (MonitorExprent)first;
+         if(monexpr.getMonType() == 1 && monexpr.getValue().type == 12 && !((VarExprent)monexpr.getValue()).isStack()) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean isQualifiedNewGetClass(Exprent first, Exprent second) {
+      if(first.type == 8) {
+         InvocationExprent invexpr = (InvocationExprent)first;
+         if(!invexpr.isStatic() && invexpr.getInstance().type == 12 && invexpr.getName().equals("getClass") && invexpr.getStringDescriptor().equals("()Ljava/lang/Class;")) {
+            List lstExprents = second.getAllExprents();
+            lstExprents.add(second);
+            Iterator var4 = lstExprents.iterator();
+
+            while(var4.hasNext()) {
+               Exprent expr = (Exprent)var4.next();
+               if(expr.type == 10) {
+                  NewExprent nexpr = (NewExprent)expr;
+                  if(nexpr.getConstructor() != null && !nexpr.getConstructor().getLstParameters().isEmpty() && ((Exprent)nexpr.getConstructor().getLstParameters().get(0)).equals(invexpr.getInstance())) {
+                     String classname = nexpr.getNewType().value;
+                     ClassesProcessor.ClassNode node = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(classname);
+                     if(node != null && node.type != 0) {
+                        return true;
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean isConstructorInvocationRemote(List list, int index) {
+      Exprent current = (Exprent)list.get(index);
+      if(current.type == 2) {
+         AssignmentExprent as = (AssignmentExprent)current;
+         if(as.getLeft().type == 12 && as.getRight().type == 10) {
+            NewExprent newexpr = (NewExprent)as.getRight();
+            VarType newtype = newexpr.getNewType();
+            VarVersionPair leftPaar = new VarVersionPair((VarExprent)as.getLeft());
+            if(newtype.type == 8 && newtype.arrayDim == 0 && newexpr.getConstructor() == null) {
+               for(int i = index + 1; i < list.size(); ++i) {
+                  Exprent remote = (Exprent)list.get(i);
+                  if(remote.type == 8) {
+                     InvocationExprent setVars = (InvocationExprent)remote;
+                     if(setVars.getFunctype() == 2 && setVars.getInstance().type == 12 && as.getLeft().equals(setVars.getInstance())) {
+                        newexpr.setConstructor(setVars);
+                        setVars.setInstance((Exprent)null);
+                        list.set(i, as.copy());
+                        return true;
+                     }
+                  }
+
+                  Set var10 = remote.getAllVariables();
+                  if(var10.contains(leftPaar)) {
+                     return false;
+                  }
+               }
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static Exprent isLambda(Exprent exprent, StructClass cl) {
+      List lst = exprent.getAllExprents();
+      Iterator in = lst.iterator();
+
+      while(in.hasNext()) {
+         Exprent lambda_class_name = (Exprent)in.next();
+         Exprent lambda_class = isLambda(lambda_class_name, cl);
+         if(lambda_class != null) {
+            exprent.replaceExprent(lambda_class_name, lambda_class);
+         }
+      }
+
+      if(exprent.type == 8) {
+         InvocationExprent in1 = (InvocationExprent)exprent;
+         if(in1.getInvocationTyp() == 5) {
+            String lambda_class_name1 = cl.qualifiedName + in1.getInvokeDynamicClassSuffix();
+            ClassesProcessor.ClassNode lambda_class1 = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(lambda_class_name1);
+            if(lambda_class1 != null) {
+               NewExprent newexp = new NewExprent(new VarType(lambda_class_name1, true), (ListStack)null, 0, in1.bytecode);
+               newexp.setConstructor(in1);
+               return newexp;
+            }
+         }
+      }
+
+      return null;
+   }
+
+   private static Exprent isSimpleConstructorInvocation(Exprent exprent) {
+      List lst = exprent.getAllExprents();
+      Iterator in = lst.iterator();
+
+      while(in.hasNext()) {
+         Exprent newexp = (Exprent)in.next();
+         Exprent ret = isSimpleConstructorInvocation(newexp);
+         if(ret != null) {
+            exprent.replaceExprent(newexp, ret);
+         }
+      }
+
+      if(exprent.type == 8) {
+         InvocationExprent in1 = (InvocationExprent)exprent;
+         if(in1.getFunctype() == 2 && in1.getInstance().type == 10) {
+            NewExprent newexp1 = (NewExprent)in1.getInstance();
+            newexp1.setConstructor(in1);
+            in1.setInstance((Exprent)null);
+            return newexp1;
+         }
+      }
+
+      return null;
+   }
+
+   private static boolean buildIff(Statement stat, SSAConstructorSparseEx ssa) {
+      if(stat.type == 2 && stat.getExprents() == null) {
+         IfStatement stif = (IfStatement)stat;
+         IfExprent ifheadexpr = stif.getHeadexprent();
+         Set ifheadexpr_bytecode = ifheadexpr == null ? null : ifheadexpr.bytecode;
+         if(stif.iftype == 1) {
+            Statement ifstat = stif.getIfstat();
+            Statement elsestat = stif.getElsestat();
+            if(ifstat.getExprents() != null && ifstat.getExprents().size() == 1 && elsestat.getExprents() != null && elsestat.getExprents().size() == 1 && ifstat.getAllSuccessorEdges().size() == 1 && elsestat.getAllSuccessorEdges().size() == 1 && ((StatEdge)ifstat.getAllSuccessorEdges().get(0)).getDestination() == ((StatEdge)elsestat.getAllSuccessorEdges().get(0)).getDestination()) {
+               Exprent ifexpr = (Exprent)ifstat.getExprents().get(0);
+               Exprent elseexpr = (Exprent)elsestat.getExprents().get(0);
+               if(ifexpr.type == 2 && elseexpr.type == 2) {
+                  AssignmentExprent ifex1 = (AssignmentExprent)ifexpr;
+                  AssignmentExprent elseex1 = (AssignmentExprent)elseexpr;
+                  if(ifex1.getLeft().type == 12 && elseex1.getLeft().type == 12) {
+                     VarExprent data2 = (VarExprent)ifex1.getLeft();
+                     VarExprent retedge1 = (VarExprent)elseex1.getLeft();
+                     if(data2.getIndex() == retedge1.getIndex() && data2.isStack()) {
+                        boolean found = false;
+                        Iterator data1 = ssa.getPhi().entrySet().iterator();
+
+                        while(data1.hasNext()) {
+                           Entry ifedge = (Entry)data1.next();
+                           if(((VarVersionPair)ifedge.getKey()).var == data2.getIndex() && ((FastSparseSetFactory.FastSparseSet)ifedge.getValue()).contains((Object)Integer.valueOf(data2.getVersion())) && ((FastSparseSetFactory.FastSparseSet)ifedge.getValue()).contains((Object)Integer.valueOf(retedge1.getVersion()))) {
+                              found = true;
+                              break;
+                           }
+                        }
+
+                        if(found) {
+                           ArrayList data3 = new ArrayList();
+                           data3.addAll(stif.getFirst().getExprents());
+                           data3.add(new AssignmentExprent(data2, new FunctionExprent(36, Arrays.asList(new Exprent[]{stif.getHeadexprent().getCondition(), ifex1.getRight(), elseex1.getRight()}), ifheadexpr_bytecode), ifheadexpr_bytecode));
+                           stif.setExprents(data3);
+                           if(stif.getAllSuccessorEdges().isEmpty()) {
+                              StatEdge ifedge1 = (StatEdge)ifstat.getAllSuccessorEdges().get(0);
+                              StatEdge edge = new StatEdge(ifedge1.getType(), stif, ifedge1.getDestination());
+                              stif.addSuccessor(edge);
+                              if(ifedge1.closure != null) {
+                                 ifedge1.closure.addLabeledEdge(edge);
+                              }
+                           }
+
+                           SequenceHelper.destroyAndFlattenStatement(stif);
+                           return true;
+                        }
+                     }
+                  }
+               } else if(ifexpr.type == 4 && elseexpr.type == 4) {
+                  ExitExprent ifex = (ExitExprent)ifexpr;
+                  ExitExprent elseex = (ExitExprent)elseexpr;
+                  if(ifex.getExitType() == elseex.getExitType() && ifex.getValue() != null && elseex.getValue() != null && ifex.getExitType() == 0) {
+                     if(ifex.getExitType() == 1 && !ifex.getValue().getExprType().equals(elseex.getValue().getExprType())) {
+                        return false;
+                     }
+
+                     ArrayList data = new ArrayList();
+                     data.addAll(stif.getFirst().getExprents());
+                     data.add(new ExitExprent(ifex.getExitType(), new FunctionExprent(36, Arrays.asList(new Exprent[]{stif.getHeadexprent().getCondition(), ifex.getValue(), elseex.getValue()}), ifheadexpr_bytecode), ifex.getRetType(), ifheadexpr_bytecode));
+                     stif.setExprents(data);
+                     StatEdge retedge = (StatEdge)ifstat.getAllSuccessorEdges().get(0);
+                     stif.addSuccessor(new StatEdge(4, stif, retedge.getDestination(), retedge.closure == stif ? stif.getParent() : retedge.closure));
+                     SequenceHelper.destroyAndFlattenStatement(stif);
+                     return true;
+                  }
+               }
+            }
+         }
+      }
+
+      return false;
+   }
+
+   private static boolean collapseInlinedClass14(Statement stat) {
+      boolean ret = class14Builder.match(stat);
+      if(ret) {
+         String class_name = (String)class14Builder.getVariableValue("$classname$");
+         AssignmentExprent assfirst = (AssignmentExprent)class14Builder.getVariableValue("$assignfield$");
+         assfirst.replaceExprent(assfirst.getRight(), new ConstExprent(VarType.VARTYPE_CLASS, class_name, (Set)null));
+         ArrayList data = new ArrayList();
+         data.addAll(stat.getFirst().getExprents());
+         stat.setExprents(data);
+         SequenceHelper.destroyAndFlattenStatement(stat);
+      }
+
+      return ret;
+   }
+
+   static {
+      class14Builder.parse("statement type:if iftype:if exprsize:-1\n exprent position:head type:if\n  exprent type:function functype:eq\n   exprent type:field name:$field$\n   exprent type:constant consttype:null\n statement type:basicblock\n  exprent position:-1 type:assignment ret:$assignfield$\n   exprent type:var index:$var$\n   exprent type:field name:$field$\n statement type:sequence statsize:2\n  statement type:trycatch\n   statement type:basicblock exprsize:1\n    exprent type:assignment\n     exprent type:var index:$var$\n     exprent type:invocation invclass:java/lang/Class signature:forName(Ljava/lang/String;)Ljava/lang/Class;\n      exprent position:0 type:constant consttype:string constvalue:$classname$\n   statement type:basicblock exprsize:1\n    exprent type:exit exittype:throw\n  statement type:basicblock exprsize:1\n   exprent type:assignment\n    exprent type:field name:$field$\n    exprent type:var index:$var$");
+   }
+}
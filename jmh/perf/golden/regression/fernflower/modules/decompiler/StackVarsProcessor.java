@@ -0,0 +1,650 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map.Entry;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.MonitorExprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.sforms.DirectNode;
+import regression.fernflower.modules.decompiler.sforms.FlattenStatementsHelper;
+import regression.fernflower.modules.decompiler.sforms.SSAConstructorSparseEx;
+import regression.fernflower.modules.decompiler.sforms.SSAUConstructorSparseEx;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarVersionEdge;
+import regression.fernflower.modules.decompiler.vars.VarVersionNode;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.modules.decompiler.vars.VarVersionsGraph;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.util.FastSparseSetFactory;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.SFormsFastMapDirect;
+
+public class StackVarsProcessor {
+   public void simplifyStackVars(RootStatement root, StructMethod mt, StructClass cl) {
+      HashSet setReorderedIfs = new HashSet();
+      SSAUConstructorSparseEx ssau = null;
+
+      boolean found;
+      do {
+         found = false;
+         SSAConstructorSparseEx ssa = new SSAConstructorSparseEx();
+         ssa.splitVariables(root, mt);
+
+         for(SimplifyExprentsHelper sehelper = new SimplifyExprentsHelper(ssau == null); sehelper.simplifyStackVarsStatement(root, setReorderedIfs, ssa, cl); found = true) {
+         }
+
+         setVersionsToNull(root);
+         SequenceHelper.condenseSequences(root);
+         ssau = new SSAUConstructorSparseEx();
+         ssau.splitVariables(root, mt);
+         if(this.iterateStatements(root, ssau)) {
+            found = true;
+         }
+
+         setVersionsToNull(root);
+      } while(found);
+
+      ssau = new SSAUConstructorSparseEx();
+      ssau.splitVariables(root, mt);
+      this.iterateStatements(root, ssau);
+      setVersionsToNull(root);
+   }
+
+   private static void setVersionsToNull(Statement stat) {
+      Iterator var1;
+      if(stat.getExprents() == null) {
+         var1 = stat.getSequentialObjects().iterator();
+
+         while(var1.hasNext()) {
+            Object exprent = var1.next();
+            if(exprent instanceof Statement) {
+               setVersionsToNull((Statement)exprent);
+            } else if(exprent instanceof Exprent) {
+               setExprentVersionsToNull((Exprent)exprent);
+            }
+         }
+      } else {
+         var1 = stat.getExprents().iterator();
+
+         while(var1.hasNext()) {
+            Exprent exprent1 = (Exprent)var1.next();
+            setExprentVersionsToNull(exprent1);
+         }
+      }
+
+   }
+
+   private static void setExprentVersionsToNull(Exprent exprent) {
+      List lst = exprent.getAllExprents(true);
+      lst.add(exprent);
+      Iterator var2 = lst.iterator();
+
+      while(var2.hasNext()) {
+         Exprent expr = (Exprent)var2.next();
+         if(expr.type == 12) {
+            ((VarExprent)expr).setVersion(0);
+         }
+      }
+
+   }
+
+   private boolean iterateStatements(RootStatement root, SSAUConstructorSparseEx ssa) {
+      FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
+      DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+      boolean res = false;
+      HashSet setVisited = new HashSet();
+      LinkedList stack = new LinkedList();
+      LinkedList stackMaps = new LinkedList();
+      stack.add(dgraph.first);
+      stackMaps.add(new HashMap());
+
+      while(true) {
+         DirectNode nd;
+         do {
+            do {
+               HashMap mapVarValues;
+               do {
+                  if(stack.isEmpty()) {
+                     return res;
+                  }
+
+                  nd = (DirectNode)stack.removeFirst();
+                  mapVarValues = (HashMap)stackMaps.removeFirst();
+               } while(setVisited.contains(nd));
+
+               setVisited.add(nd);
+               ArrayList lstLists = new ArrayList();
+               if(!nd.exprents.isEmpty()) {
+                  lstLists.add(nd.exprents);
+               }
+
+               if(nd.succs.size() == 1) {
+                  DirectNode loop = (DirectNode)nd.succs.get(0);
+                  if(loop.type == 2 && !loop.exprents.isEmpty()) {
+                     lstLists.add(((DirectNode)nd.succs.get(0)).exprents);
+                     nd = loop;
+                  }
+               }
+
+               for(int var17 = 0; var17 < lstLists.size(); ++var17) {
+                  List ndx = (List)lstLists.get(var17);
+
+                  int[] ret;
+                  for(int index = 0; index < ndx.size(); res |= ret[1] == 1) {
+                     Exprent next = null;
+                     if(index == ndx.size() - 1) {
+                        if(var17 < lstLists.size() - 1) {
+                           next = (Exprent)((List)lstLists.get(var17 + 1)).get(0);
+                        }
+                     } else {
+                        next = (Exprent)ndx.get(index + 1);
+                     }
+
+                     ret = this.iterateExprent(ndx, index, next, mapVarValues, ssa);
+                     if(ret[0] >= 0) {
+                        index = ret[0];
+                     } else {
+                        ++index;
+                     }
+                  }
+               }
+
+               Iterator var18 = nd.succs.iterator();
+
+               while(var18.hasNext()) {
+                  DirectNode var19 = (DirectNode)var18.next();
+                  stack.add(var19);
+                  stackMaps.add(new HashMap(mapVarValues));
+               }
+            } while(!nd.exprents.isEmpty());
+         } while(nd.type != 3 && nd.type != 4 && nd.type != 5);
+
+         nd.exprents.add((Object)null);
+         if(nd.statement.type == 5) {
+            DoStatement var20 = (DoStatement)nd.statement;
+            if(var20.getLooptype() == 3 && var20.getInitExprent() == null && var20.getIncExprent() == null) {
+               var20.setLooptype(2);
+            }
+         }
+      }
+   }
+
+   private static Exprent isReplaceableVar(Exprent exprent, HashMap mapVarValues, SSAUConstructorSparseEx ssau) {
+      Exprent dest = null;
+      if(exprent.type == 12) {
+         VarExprent var = (VarExprent)exprent;
+         dest = (Exprent)mapVarValues.get(new VarVersionPair(var));
+      }
+
+      return dest;
+   }
+
+   private static void replaceSingleVar(Exprent parent, VarExprent var, Exprent dest, SSAUConstructorSparseEx ssau) {
+      parent.replaceExprent(var, dest);
+      SFormsFastMapDirect livemap = ssau.getLiveVarVersionsMap(new VarVersionPair(var));
+      HashSet setVars = getAllVersions(dest);
+      Iterator var6 = setVars.iterator();
+
+      while(var6.hasNext()) {
+         VarVersionPair varpaar = (VarVersionPair)var6.next();
+         VarVersionNode node = (VarVersionNode)ssau.getSsuversions().nodes.getWithKey(varpaar);
+         Iterator itent = node.live.entryList().iterator();
+
+         while(itent.hasNext()) {
+            Entry ent = (Entry)itent.next();
+            Integer key = (Integer)ent.getKey();
+            if(!livemap.containsKey(key.intValue())) {
+               itent.remove();
+            } else {
+               FastSparseSetFactory.FastSparseSet set = (FastSparseSetFactory.FastSparseSet)ent.getValue();
+               set.complement(livemap.get(key.intValue()));
+               if(set.isEmpty()) {
+                  itent.remove();
+               }
+            }
+         }
+      }
+
+   }
+
+   private int[] iterateExprent(List lstExprents, int index, Exprent next, HashMap mapVarValues, SSAUConstructorSparseEx ssau) {
+      Exprent exprent = (Exprent)lstExprents.get(index);
+      int changed = 0;
+      Iterator left = exprent.getAllExprents().iterator();
+
+      Exprent right;
+      boolean notdom;
+      while(left.hasNext()) {
+         right = (Exprent)left.next();
+
+         while(true) {
+            Object[] leftpaar = iterateChildExprent(right, exprent, next, mapVarValues, ssau);
+            Exprent usedVers = (Exprent)leftpaar[0];
+            changed |= ((Boolean)leftpaar[1]).booleanValue() ? 1 : 0;
+            notdom = ((Boolean)leftpaar[2]).booleanValue();
+            if(usedVers != null) {
+               if(notdom) {
+                  replaceSingleVar(exprent, (VarExprent)right, usedVers, ssau);
+                  right = usedVers;
+               } else {
+                  exprent.replaceExprent(right, usedVers);
+               }
+
+               changed = 1;
+            }
+
+            if(!notdom) {
+               break;
+            }
+         }
+      }
+
+      VarExprent left1 = null;
+      right = null;
+      if(exprent.type == 2) {
+         AssignmentExprent leftpaar1 = (AssignmentExprent)exprent;
+         if(leftpaar1.getLeft().type == 12) {
+            left1 = (VarExprent)leftpaar1.getLeft();
+            right = leftpaar1.getRight();
+         }
+      }
+
+      if(left1 == null) {
+         return new int[]{-1, changed};
+      } else {
+         VarVersionPair leftpaar2 = new VarVersionPair(left1);
+         ArrayList usedVers1 = new ArrayList();
+         notdom = getUsedVersions(ssau, leftpaar2, usedVers1);
+         if(!notdom && usedVers1.isEmpty()) {
+            if(left1.isStack() && (right.type == 8 || right.type == 2 || right.type == 10)) {
+               if(right.type == 10) {
+                  NewExprent useflags1 = (NewExprent)right;
+                  if(useflags1.isAnonymous() || useflags1.getNewType().arrayDim > 0 || useflags1.getNewType().type != 8) {
+                     return new int[]{-1, changed};
+                  }
+               }
+
+               lstExprents.set(index, right);
+               return new int[]{index + 1, 1};
+            } else if(right.type == 12) {
+               lstExprents.remove(index);
+               return new int[]{index, 1};
+            } else {
+               return new int[]{-1, changed};
+            }
+         } else {
+            int useflags = right.getExprentUse();
+            if(left1.isStack() || right.type == 12 && !((VarExprent)right).isStack()) {
+               if((useflags & 1) != 0 || !notdom && usedVers1.size() <= 1) {
+                  HashMap mapVars = getAllVarVersions(leftpaar2, right, ssau);
+                  boolean isSelfReference = mapVars.containsKey(Integer.valueOf(leftpaar2.var));
+                  if(isSelfReference && notdom) {
+                     return new int[]{-1, changed};
+                  } else {
+                     HashSet setNextVars = next == null ? null : getAllVersions(next);
+                     if(right.type != 3 && right.type != 12 && setNextVars != null && mapVars.containsKey(Integer.valueOf(leftpaar2.var))) {
+                        Iterator vernotreplaced = usedVers1.iterator();
+
+                        while(vernotreplaced.hasNext()) {
+                           VarVersionNode verreplaced = (VarVersionNode)vernotreplaced.next();
+                           if(!setNextVars.contains(new VarVersionPair(verreplaced.var, verreplaced.version))) {
+                              return new int[]{-1, changed};
+                           }
+                        }
+                     }
+
+                     mapVars.remove(Integer.valueOf(leftpaar2.var));
+                     boolean vernotreplaced1 = false;
+                     boolean verreplaced1 = false;
+                     HashSet setTempUsedVers = new HashSet();
+                     Iterator var20 = usedVers1.iterator();
+
+                     while(true) {
+                        while(var20.hasNext()) {
+                           VarVersionNode usedver = (VarVersionNode)var20.next();
+                           VarVersionPair copy = new VarVersionPair(usedver.var, usedver.version);
+                           if(isVersionToBeReplaced(copy, mapVars, ssau, leftpaar2) && (right.type == 3 || right.type == 12 || right.type == 5 || setNextVars == null || setNextVars.contains(copy))) {
+                              setTempUsedVers.add(copy);
+                              verreplaced1 = true;
+                           } else {
+                              vernotreplaced1 = true;
+                           }
+                        }
+
+                        if(isSelfReference && vernotreplaced1) {
+                           return new int[]{-1, changed};
+                        }
+
+                        VarVersionPair usedver1;
+                        Exprent copy1;
+                        for(var20 = setTempUsedVers.iterator(); var20.hasNext(); mapVarValues.put(usedver1, copy1)) {
+                           usedver1 = (VarVersionPair)var20.next();
+                           copy1 = right.copy();
+                           if(right.type == 5 && ssau.getMapFieldVars().containsKey(Integer.valueOf(right.id))) {
+                              ssau.getMapFieldVars().put(Integer.valueOf(copy1.id), (Integer)ssau.getMapFieldVars().get(Integer.valueOf(right.id)));
+                           }
+                        }
+
+                        if(!notdom && !vernotreplaced1) {
+                           lstExprents.remove(index);
+                           return new int[]{index, 1};
+                        }
+
+                        if(verreplaced1) {
+                           return new int[]{index + 1, changed};
+                        }
+
+                        return new int[]{-1, changed};
+                     }
+                  }
+               } else {
+                  return new int[]{-1, changed};
+               }
+            } else {
+               return new int[]{-1, changed};
+            }
+         }
+      }
+   }
+
+   private static HashSet getAllVersions(Exprent exprent) {
+      HashSet res = new HashSet();
+      ArrayList listTemp = new ArrayList(exprent.getAllExprents(true));
+      listTemp.add(exprent);
+      Iterator var3 = listTemp.iterator();
+
+      while(var3.hasNext()) {
+         Exprent expr = (Exprent)var3.next();
+         if(expr.type == 12) {
+            VarExprent var = (VarExprent)expr;
+            res.add(new VarVersionPair(var));
+         }
+      }
+
+      return res;
+   }
+
+   private static Object[] iterateChildExprent(Exprent exprent, Exprent parent, Exprent next, HashMap mapVarValues, SSAUConstructorSparseEx ssau) {
+      boolean changed = false;
+      Iterator dest = exprent.getAllExprents().iterator();
+
+      while(dest.hasNext()) {
+         Exprent left = (Exprent)dest.next();
+
+         while(true) {
+            Object[] right = iterateChildExprent(left, parent, next, mapVarValues, ssau);
+            Exprent isHeadSynchronized = (Exprent)right[0];
+            changed |= ((Boolean)right[1]).booleanValue();
+            boolean leftpaar = ((Boolean)right[2]).booleanValue();
+            if(isHeadSynchronized != null) {
+               if(leftpaar) {
+                  replaceSingleVar(exprent, (VarExprent)left, isHeadSynchronized, ssau);
+                  left = isHeadSynchronized;
+               } else {
+                  exprent.replaceExprent(left, isHeadSynchronized);
+               }
+
+               changed = true;
+            }
+
+            if(!leftpaar) {
+               break;
+            }
+         }
+      }
+
+      Exprent dest1 = isReplaceableVar(exprent, mapVarValues, ssau);
+      if(dest1 != null) {
+         return new Object[]{dest1, Boolean.valueOf(true), Boolean.valueOf(true)};
+      } else {
+         VarExprent left1 = null;
+         Exprent right1 = null;
+         if(exprent.type == 2) {
+            AssignmentExprent isHeadSynchronized1 = (AssignmentExprent)exprent;
+            if(isHeadSynchronized1.getLeft().type == 12) {
+               left1 = (VarExprent)isHeadSynchronized1.getLeft();
+               right1 = isHeadSynchronized1.getRight();
+            }
+         }
+
+         if(left1 == null) {
+            return new Object[]{null, Boolean.valueOf(changed), Boolean.valueOf(false)};
+         } else {
+            boolean isHeadSynchronized2 = false;
+            if(next == null && parent.type == 9) {
+               MonitorExprent leftpaar1 = (MonitorExprent)parent;
+               if(leftpaar1.getMonType() == 0 && exprent.equals(leftpaar1.getValue())) {
+                  isHeadSynchronized2 = true;
+               }
+            }
+
+            if(!left1.isStack() && !isHeadSynchronized2) {
+               return new Object[]{null, Boolean.valueOf(changed), Boolean.valueOf(false)};
+            } else {
+               VarVersionPair leftpaar2 = new VarVersionPair(left1);
+               ArrayList usedVers = new ArrayList();
+               boolean notdom = getUsedVersions(ssau, leftpaar2, usedVers);
+               if(!notdom && usedVers.isEmpty()) {
+                  return new Object[]{right1, Boolean.valueOf(changed), Boolean.valueOf(false)};
+               } else if(!left1.isStack()) {
+                  return new Object[]{null, Boolean.valueOf(changed), Boolean.valueOf(false)};
+               } else {
+                  int useflags = right1.getExprentUse();
+                  if((useflags & 3) != 3) {
+                     return new Object[]{null, Boolean.valueOf(changed), Boolean.valueOf(false)};
+                  } else {
+                     HashMap mapVars = getAllVarVersions(leftpaar2, right1, ssau);
+                     if(mapVars.containsKey(Integer.valueOf(leftpaar2.var)) && notdom) {
+                        return new Object[]{null, Boolean.valueOf(changed), Boolean.valueOf(false)};
+                     } else {
+                        mapVars.remove(Integer.valueOf(leftpaar2.var));
+                        HashSet setAllowedVars = getAllVersions(parent);
+                        if(next != null) {
+                           setAllowedVars.addAll(getAllVersions(next));
+                        }
+
+                        boolean vernotreplaced = false;
+                        HashSet setTempUsedVers = new HashSet();
+                        Iterator var18 = usedVers.iterator();
+
+                        while(true) {
+                           while(var18.hasNext()) {
+                              VarVersionNode usedver = (VarVersionNode)var18.next();
+                              VarVersionPair copy = new VarVersionPair(usedver.var, usedver.version);
+                              if(isVersionToBeReplaced(copy, mapVars, ssau, leftpaar2) && (right1.type == 12 || setAllowedVars.contains(copy))) {
+                                 setTempUsedVers.add(copy);
+                              } else {
+                                 vernotreplaced = true;
+                              }
+                           }
+
+                           if(!notdom && !vernotreplaced) {
+                              VarVersionPair usedver1;
+                              Exprent copy1;
+                              for(var18 = setTempUsedVers.iterator(); var18.hasNext(); mapVarValues.put(usedver1, copy1)) {
+                                 usedver1 = (VarVersionPair)var18.next();
+                                 copy1 = right1.copy();
+                                 if(right1.type == 5 && ssau.getMapFieldVars().containsKey(Integer.valueOf(right1.id))) {
+                                    ssau.getMapFieldVars().put(Integer.valueOf(copy1.id), (Integer)ssau.getMapFieldVars().get(Integer.valueOf(right1.id)));
+                                 }
+                              }
+
+                              return new Object[]{right1, Boolean.valueOf(changed), Boolean.valueOf(false)};
+                           }
+
+                           return new Object[]{null, Boolean.valueOf(changed), Boolean.valueOf(false)};
+                        }
+                     }
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   private static boolean getUsedVersions(SSAUConstructorSparseEx ssa, VarVersionPair var, List res) {
+      VarVersionsGraph ssuversions = ssa.getSsuversions();
+      VarVersionNode varnode = (VarVersionNode)ssuversions.nodes.getWithKey(var);
+      HashSet setVisited = new HashSet();
+      HashSet setNotDoms = new HashSet();
+      LinkedList stack = new LinkedList();
+      stack.add(varnode);
+
+      label50:
+      while(!stack.isEmpty()) {
+         VarVersionNode nd = (VarVersionNode)stack.remove(0);
+         setVisited.add(nd);
+         if(nd != varnode && (nd.flags & 2) == 0) {
+            res.add(nd);
+         }
+
+         Iterator var9 = nd.succs.iterator();
+
+         while(true) {
+            VarVersionEdge edge;
+            VarVersionNode succ;
+            do {
+               if(!var9.hasNext()) {
+                  continue label50;
+               }
+
+               edge = (VarVersionEdge)var9.next();
+               succ = edge.dest;
+            } while(setVisited.contains(edge.dest));
+
+            boolean isDominated = true;
+            Iterator var13 = succ.preds.iterator();
+
+            while(var13.hasNext()) {
+               VarVersionEdge prededge = (VarVersionEdge)var13.next();
+               if(!setVisited.contains(prededge.source)) {
+                  isDominated = false;
+                  break;
+               }
+            }
+
+            if(isDominated) {
+               stack.add(succ);
+            } else {
+               setNotDoms.add(succ);
+            }
+         }
+      }
+
+      setNotDoms.removeAll(setVisited);
+      return !setNotDoms.isEmpty();
+   }
+
+   private static boolean isVersionToBeReplaced(VarVersionPair usedvar, HashMap mapVars, SSAUConstructorSparseEx ssau, VarVersionPair leftpaar) {
+      VarVersionsGraph ssuversions = ssau.getSsuversions();
+      SFormsFastMapDirect mapLiveVars = ssau.getLiveVarVersionsMap(usedvar);
+      if(mapLiveVars == null) {
+         return false;
+      } else if(!InterpreterUtil.equalObjects(ssau.getMapVersionFirstRange().get(leftpaar), ssau.getMapVersionFirstRange().get(usedvar))) {
+         return false;
+      } else {
+         Iterator var6 = mapVars.entrySet().iterator();
+
+         boolean isdom1;
+         do {
+            if(!var6.hasNext()) {
+               return true;
+            }
+
+            Entry ent = (Entry)var6.next();
+            FastSparseSetFactory.FastSparseSet liveverset = mapLiveVars.get(((Integer)ent.getKey()).intValue());
+            if(liveverset == null) {
+               return false;
+            }
+
+            HashSet domset = new HashSet();
+            Iterator isdom = ((HashSet)ent.getValue()).iterator();
+
+            while(isdom.hasNext()) {
+               VarVersionPair verpaar = (VarVersionPair)isdom.next();
+               domset.add((VarVersionNode)ssuversions.nodes.getWithKey(verpaar));
+            }
+
+            isdom1 = false;
+            Iterator verpaar1 = liveverset.iterator();
+
+            while(verpaar1.hasNext()) {
+               Integer livever = (Integer)verpaar1.next();
+               VarVersionNode node = (VarVersionNode)ssuversions.nodes.getWithKey(new VarVersionPair(((Integer)ent.getKey()).intValue(), livever.intValue()));
+               if(ssuversions.isDominatorSet(node, domset)) {
+                  isdom1 = true;
+                  break;
+               }
+            }
+         } while(isdom1);
+
+         return false;
+      }
+   }
+
+   private static HashMap getAllVarVersions(VarVersionPair leftvar, Exprent exprent, SSAUConstructorSparseEx ssau) {
+      HashMap map = new HashMap();
+      SFormsFastMapDirect mapLiveVars = ssau.getLiveVarVersionsMap(leftvar);
+      List lst = exprent.getAllExprents(true);
+      lst.add(exprent);
+      Iterator var6 = lst.iterator();
+
+      while(true) {
+         while(true) {
+            while(var6.hasNext()) {
+               Exprent expr = (Exprent)var6.next();
+               int varindex;
+               HashSet verset;
+               Iterator var10;
+               Integer vers;
+               if(expr.type == 12) {
+                  varindex = ((VarExprent)expr).getIndex();
+                  if(leftvar.var != varindex) {
+                     if(!mapLiveVars.containsKey(varindex)) {
+                        throw new RuntimeException("inkonsistent live map!");
+                     }
+
+                     verset = new HashSet();
+                     var10 = mapLiveVars.get(varindex).iterator();
+
+                     while(var10.hasNext()) {
+                        vers = (Integer)var10.next();
+                        verset.add(new VarVersionPair(varindex, vers.intValue()));
+                     }
+
+                     map.put(Integer.valueOf(varindex), verset);
+                  } else {
+                     map.put(Integer.valueOf(varindex), (Object)null);
+                  }
+               } else if(expr.type == 5 && ssau.getMapFieldVars().containsKey(Integer.valueOf(expr.id))) {
+                  varindex = ((Integer)ssau.getMapFieldVars().get(Integer.valueOf(expr.id))).intValue();
+                  if(mapLiveVars.containsKey(varindex)) {
+                     verset = new HashSet();
+                     var10 = mapLiveVars.get(varindex).iterator();
+
+                     while(var10.hasNext()) {
+                        vers = (Integer)var10.next();
+                        verset.add(new VarVersionPair(varindex, vers.intValue()));
+                     }
+
+                     map.put(Integer.valueOf(varindex), verset);
+                  }
+               }
+            }
+
+            return map;
+         }
+      }
+   }
+}
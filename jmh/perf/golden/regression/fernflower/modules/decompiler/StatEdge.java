@@ -0,0 +1,71 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.modules.decompiler.stats.Statement;
+
+public class StatEdge {
+   public static final int TYPE_ALL = 255;
+   public static final int TYPE_REGULAR = 1;
+   public static final int TYPE_EXCEPTION = 2;
+   public static final int TYPE_BREAK = 4;
+   public static final int TYPE_CONTINUE = 8;
+   public static final int TYPE_FINALLYEXIT = 32;
+   public static final int[] TYPES = new int[]{1, 2, 4, 8, 32};
+   private int type;
+   private Statement source;
+   private Statement destination;
+   private List exceptions;
+   public Statement closure;
+   public boolean labeled;
+   public boolean explicit;
+
+   public StatEdge(int type, Statement source, Statement destination, Statement closure) {
+      this(type, source, destination);
+      this.closure = closure;
+   }
+
+   public StatEdge(int type, Statement source, Statement destination) {
+      this.labeled = true;
+      this.explicit = true;
+      this.type = type;
+      this.source = source;
+      this.destination = destination;
+   }
+
+   public StatEdge(Statement source, Statement destination, List exceptions) {
+      this(2, source, destination);
+      if(exceptions != null) {
+         this.exceptions = new ArrayList(exceptions);
+      }
+
+   }
+
+   public int getType() {
+      return this.type;
+   }
+
+   public void setType(int type) {
+      this.type = type;
+   }
+
+   public Statement getSource() {
+      return this.source;
+   }
+
+   public void setSource(Statement source) {
+      this.source = source;
+   }
+
+   public Statement getDestination() {
+      return this.destination;
+   }
+
+   public void setDestination(Statement destination) {
+      this.destination = destination;
+   }
+
+   public List getExceptions() {
+      return this.exceptions;
+   }
+}
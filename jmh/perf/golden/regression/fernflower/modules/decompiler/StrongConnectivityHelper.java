@@ -0,0 +1,134 @@
+package regression.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.util.ListStack;
+
+public class StrongConnectivityHelper {
+   private ListStack lstack;
+   private int ncounter;
+   private HashSet tset;
+   private HashMap dfsnummap;
+   private HashMap lowmap;
+   private List components;
+   private HashSet setProcessed;
+
+   public StrongConnectivityHelper() {
+   }
+
+   public StrongConnectivityHelper(Statement stat) {
+      this.findComponents(stat);
+   }
+
+   public List findComponents(Statement stat) {
+      this.components = new ArrayList();
+      this.setProcessed = new HashSet();
+      this.visitTree(stat.getFirst());
+      Iterator var2 = stat.getStats().iterator();
+
+      Statement st;
+      while(var2.hasNext()) {
+         st = (Statement)var2.next();
+         if(!this.setProcessed.contains(st) && st.getPredecessorEdges(1073741824).isEmpty()) {
+            this.visitTree(st);
+         }
+      }
+
+      var2 = stat.getStats().iterator();
+
+      while(var2.hasNext()) {
+         st = (Statement)var2.next();
+         if(!this.setProcessed.contains(st)) {
+            this.visitTree(st);
+         }
+      }
+
+      return this.components;
+   }
+
+   public static boolean isExitComponent(List lst) {
+      HashSet set = new HashSet();
+      Iterator var2 = lst.iterator();
+
+      while(var2.hasNext()) {
+         Statement stat = (Statement)var2.next();
+         set.addAll(stat.getNeighbours(1, 1));
+      }
+
+      set.removeAll(lst);
+      return set.size() == 0;
+   }
+
+   public static List getExitReps(List lst) {
+      ArrayList res = new ArrayList();
+      Iterator var2 = lst.iterator();
+
+      while(var2.hasNext()) {
+         List comp = (List)var2.next();
+         if(isExitComponent(comp)) {
+            res.add((Statement)comp.get(0));
+         }
+      }
+
+      return res;
+   }
+
+   private void visitTree(Statement stat) {
+      this.lstack = new ListStack();
+      this.ncounter = 0;
+      this.tset = new HashSet();
+      this.dfsnummap = new HashMap();
+      this.lowmap = new HashMap();
+      this.visit(stat);
+      this.setProcessed.addAll(this.tset);
+      this.setProcessed.add(stat);
+   }
+
+   private void visit(Statement stat) {
+      this.lstack.push(stat);
+      this.dfsnummap.put(stat, Integer.valueOf(this.ncounter));
+      this.lowmap.put(stat, Integer.valueOf(this.ncounter));
+      ++this.ncounter;
+      List lstSuccs = stat.getNeighbours(1, 1);
+      lstSuccs.removeAll(this.setProcessed);
+
+      Statement v;
+      for(int lst = 0; lst < lstSuccs.size(); ++lst) {
+         v = (Statement)lstSuccs.get(lst);
+         int secvalue;
+         if(this.tset.contains(v)) {
+            secvalue = ((Integer)this.dfsnummap.get(v)).intValue();
+         } else {
+            this.tset.add(v);
+            this.visit(v);
+            secvalue = ((Integer)this.lowmap.get(v)).intValue();
+         }
+
+         this.lowmap.put(stat, Integer.valueOf(Math.min(((Integer)this.lowmap.get(stat)).intValue(), secvalue)));
+      }
+
+      if(((Integer)this.lowmap.get(stat)).intValue() == ((Integer)this.dfsnummap.get(stat)).intValue()) {
+         ArrayList var6 = new ArrayList();
+
+         do {
+            v = (Statement)this.lstack.pop();
+            var6.add(v);
+         } while(v != stat);
+
+         this.components.add(var6);
+      }
+
+   }
+
+   public List getComponents() {
+      return this.components;
+   }
+
+   public void setComponents(List components) {
+      this.components = components;
+   }
+}
@@ -0,0 +1,4 @@
+package regression.fernflower.modules.decompiler;
+
+public class SwitchHelper {
+}
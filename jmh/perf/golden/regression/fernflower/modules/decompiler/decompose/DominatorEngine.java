@@ -0,0 +1,102 @@
+package regression.fernflower.modules.decompiler.decompose;
+
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.util.VBStyleCollection;
+
+public class DominatorEngine {
+   private Statement statement;
+   private VBStyleCollection colOrderedIDoms = new VBStyleCollection();
+
+   public DominatorEngine(Statement statement) {
+      this.statement = statement;
+   }
+
+   public void initialize() {
+      this.calcIDoms();
+   }
+
+   private void orderStatements() {
+      Iterator var1 = this.statement.getReversePostOrderList().iterator();
+
+      while(var1.hasNext()) {
+         Statement stat = (Statement)var1.next();
+         this.colOrderedIDoms.addWithKey((Object)null, stat.id);
+      }
+
+   }
+
+   private static Integer getCommonIDom(Integer key1, Integer key2, VBStyleCollection orderedIDoms) {
+      if(key1 == null) {
+         return key2;
+      } else if(key2 == null) {
+         return key1;
+      } else {
+         int index1 = orderedIDoms.getIndexByKey(key1);
+         int index2 = orderedIDoms.getIndexByKey(key2);
+
+         while(index1 != index2) {
+            if(index1 > index2) {
+               key1 = (Integer)orderedIDoms.getWithKey(key1);
+               index1 = orderedIDoms.getIndexByKey(key1);
+            } else {
+               key2 = (Integer)orderedIDoms.getWithKey(key2);
+               index2 = orderedIDoms.getIndexByKey(key2);
+            }
+         }
+
+         return key1;
+      }
+   }
+
+   private void calcIDoms() {
+      this.orderStatements();
+      this.colOrderedIDoms.putWithKey(this.statement.getFirst().id, this.statement.getFirst().id);
+      List lstIds = this.colOrderedIDoms.getLstKeys().subList(1, this.colOrderedIDoms.getLstKeys().size());
+
+      boolean changed;
+      do {
+         changed = false;
+         Iterator var3 = lstIds.iterator();
+
+         while(var3.hasNext()) {
+            Integer id = (Integer)var3.next();
+            Statement stat = (Statement)this.statement.getStats().getWithKey(id);
+            Integer idom = null;
+            Iterator oldidom = stat.getAllPredecessorEdges().iterator();
+
+            while(oldidom.hasNext()) {
+               StatEdge edge = (StatEdge)oldidom.next();
+               if(this.colOrderedIDoms.getWithKey(edge.getSource().id) != null) {
+                  idom = getCommonIDom(idom, edge.getSource().id, this.colOrderedIDoms);
+               }
+            }
+
+            Integer oldidom1 = (Integer)this.colOrderedIDoms.putWithKey(idom, id);
+            if(!idom.equals(oldidom1)) {
+               changed = true;
+            }
+         }
+      } while(changed);
+
+   }
+
+   public VBStyleCollection getOrderedIDoms() {
+      return this.colOrderedIDoms;
+   }
+
+   public boolean isDominator(Integer node, Integer dom) {
+      while(!node.equals(dom)) {
+         Integer idom = (Integer)this.colOrderedIDoms.getWithKey(node);
+         if(idom.equals(node)) {
+            return false;
+         }
+
+         node = idom;
+      }
+
+      return true;
+   }
+}
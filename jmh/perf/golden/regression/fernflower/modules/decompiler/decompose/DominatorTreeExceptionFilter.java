@@ -0,0 +1,173 @@
+package regression.fernflower.modules.decompiler.decompose;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.util.VBStyleCollection;
+
+public class DominatorTreeExceptionFilter {
+   private Statement statement;
+   private Map mapTreeBranches = new HashMap();
+   private Map mapExceptionRanges = new HashMap();
+   private Map mapExceptionDoms = new HashMap();
+   private Map mapExceptionRangeUniqueExit = new HashMap();
+   private DominatorEngine domEngine;
+
+   public DominatorTreeExceptionFilter(Statement statement) {
+      this.statement = statement;
+   }
+
+   public void initialize() {
+      this.domEngine = new DominatorEngine(this.statement);
+      this.domEngine.initialize();
+      this.buildDominatorTree();
+      this.buildExceptionRanges();
+      this.buildFilter(this.statement.getFirst().id);
+      this.mapTreeBranches.clear();
+      this.mapExceptionRanges.clear();
+   }
+
+   public boolean acceptStatementPair(Integer head, Integer exit) {
+      Map filter = (Map)this.mapExceptionRangeUniqueExit.get(head);
+      Iterator var4 = filter.entrySet().iterator();
+
+      Integer filterExit;
+      do {
+         Entry entry;
+         do {
+            if(!var4.hasNext()) {
+               return true;
+            }
+
+            entry = (Entry)var4.next();
+         } while(head.equals(this.mapExceptionDoms.get(entry.getKey())));
+
+         filterExit = (Integer)entry.getValue();
+      } while(filterExit.intValue() != -1 && filterExit.equals(exit));
+
+      return false;
+   }
+
+   private void buildDominatorTree() {
+      VBStyleCollection orderedIDoms = this.domEngine.getOrderedIDoms();
+      ArrayList lstKeys = orderedIDoms.getLstKeys();
+
+      for(int firstid = lstKeys.size() - 1; firstid >= 0; --firstid) {
+         Integer key = (Integer)lstKeys.get(firstid);
+         Integer idom = (Integer)orderedIDoms.get(firstid);
+         Object set = (Set)this.mapTreeBranches.get(idom);
+         if(set == null) {
+            this.mapTreeBranches.put(idom, set = new HashSet());
+         }
+
+         ((Set)set).add(key);
+      }
+
+      Integer var7 = this.statement.getFirst().id;
+      ((Set)this.mapTreeBranches.get(var7)).remove(var7);
+   }
+
+   private void buildExceptionRanges() {
+      Iterator var1 = this.statement.getStats().iterator();
+
+      while(true) {
+         Statement stat;
+         List lstPreds;
+         do {
+            if(!var1.hasNext()) {
+               this.mapExceptionDoms = this.buildExceptionDoms(this.statement.getFirst().id);
+               return;
+            }
+
+            stat = (Statement)var1.next();
+            lstPreds = stat.getNeighbours(2, 0);
+         } while(lstPreds.isEmpty());
+
+         HashSet set = new HashSet();
+         Iterator var5 = lstPreds.iterator();
+
+         while(var5.hasNext()) {
+            Statement st = (Statement)var5.next();
+            set.add(st.id);
+         }
+
+         this.mapExceptionRanges.put(stat.id, set);
+      }
+   }
+
+   private Map buildExceptionDoms(Integer id) {
+      HashMap map = new HashMap();
+      Set children = (Set)this.mapTreeBranches.get(id);
+      Iterator var4;
+      if(children != null) {
+         var4 = children.iterator();
+
+         while(var4.hasNext()) {
+            Integer entry = (Integer)var4.next();
+            Map mapChild = this.buildExceptionDoms(entry);
+            Iterator var7 = mapChild.keySet().iterator();
+
+            while(var7.hasNext()) {
+               Integer handler = (Integer)var7.next();
+               map.put(handler, map.containsKey(handler) ? id : (Integer)mapChild.get(handler));
+            }
+         }
+      }
+
+      var4 = this.mapExceptionRanges.entrySet().iterator();
+
+      while(var4.hasNext()) {
+         Entry entry1 = (Entry)var4.next();
+         if(((Set)entry1.getValue()).contains(id)) {
+            map.put((Integer)entry1.getKey(), id);
+         }
+      }
+
+      return map;
+   }
+
+   private void buildFilter(Integer id) {
+      HashMap map = new HashMap();
+      Set children = (Set)this.mapTreeBranches.get(id);
+      if(children != null) {
+         Iterator var4 = children.iterator();
+
+         while(var4.hasNext()) {
+            Integer childid = (Integer)var4.next();
+            this.buildFilter(childid);
+            Map mapChild = (Map)this.mapExceptionRangeUniqueExit.get(childid);
+            Iterator var7 = this.mapExceptionRanges.entrySet().iterator();
+
+            while(var7.hasNext()) {
+               Entry entry = (Entry)var7.next();
+               Integer handler = (Integer)entry.getKey();
+               Set range = (Set)entry.getValue();
+               if(range.contains(id)) {
+                  Integer exit = null;
+                  if(!range.contains(childid)) {
+                     exit = childid;
+                  } else {
+                     exit = map.containsKey(handler) ? new Integer(-1) : (Integer)mapChild.get(handler);
+                  }
+
+                  if(exit != null) {
+                     map.put(handler, exit);
+                  }
+               }
+            }
+         }
+      }
+
+      this.mapExceptionRangeUniqueExit.put(id, map);
+   }
+
+   public DominatorEngine getDomEngine() {
+      return this.domEngine;
+   }
+}
@@ -0,0 +1,330 @@
+package regression.fernflower.modules.decompiler.decompose;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.util.FastFixedSetFactory;
+import regression.fernflower.util.InterpreterUtil;
+
+public class FastExtendedPostdominanceHelper {
+   private List lstReversePostOrderList;
+   private HashMap mapSupportPoints = new LinkedHashMap();
+   private final HashMap mapExtPostdominators = new LinkedHashMap();
+   private Statement statement;
+   private FastFixedSetFactory factory;
+
+   public HashMap getExtendedPostdominators(Statement statement) {
+      this.statement = statement;
+      LinkedHashSet set = new LinkedHashSet();
+      Iterator filter = statement.getStats().iterator();
+
+      while(filter.hasNext()) {
+         Statement entries = (Statement)filter.next();
+         set.add(entries.id);
+      }
+
+      this.factory = new FastFixedSetFactory(set);
+      this.lstReversePostOrderList = statement.getReversePostOrderList();
+      this.calcDefaultReachableSets();
+      this.removeErroneousNodes();
+      DominatorTreeExceptionFilter filter1 = new DominatorTreeExceptionFilter(statement);
+      filter1.initialize();
+      this.filterOnExceptionRanges(filter1);
+      this.filterOnDominance(filter1);
+      Set entries1 = this.mapExtPostdominators.entrySet();
+      HashMap res = new HashMap(entries1.size());
+      Iterator var6 = entries1.iterator();
+
+      while(var6.hasNext()) {
+         Entry entry = (Entry)var6.next();
+         ArrayList lst = new ArrayList(((FastFixedSetFactory.FastFixedSet)entry.getValue()).toPlainSet());
+         Collections.sort(lst);
+         res.put((Integer)entry.getKey(), new LinkedHashSet(lst));
+      }
+
+      return res;
+   }
+
+   private void filterOnDominance(DominatorTreeExceptionFilter filter) {
+      DominatorEngine engine = filter.getDomEngine();
+      LinkedList stack = new LinkedList();
+      LinkedList stackPath = new LinkedList();
+      HashSet setVisited = new HashSet();
+      Iterator var6 = (new HashSet(this.mapExtPostdominators.keySet())).iterator();
+
+      label49:
+      while(var6.hasNext()) {
+         int head = ((Integer)var6.next()).intValue();
+         FastFixedSetFactory.FastFixedSet setPostdoms = (FastFixedSetFactory.FastFixedSet)this.mapExtPostdominators.get(Integer.valueOf(head));
+         stack.clear();
+         stackPath.clear();
+         stack.add((Statement)this.statement.getStats().getWithKey(Integer.valueOf(head)));
+         stackPath.add(this.factory.createEmptySet());
+         setVisited.clear();
+         setVisited.add((Statement)stack.getFirst());
+
+         while(true) {
+            while(true) {
+               Statement stat;
+               FastFixedSetFactory.FastFixedSet path;
+               do {
+                  if(stack.isEmpty()) {
+                     if(setPostdoms.isEmpty()) {
+                        this.mapExtPostdominators.remove(Integer.valueOf(head));
+                     }
+                     continue label49;
+                  }
+
+                  stat = (Statement)stack.removeFirst();
+                  path = (FastFixedSetFactory.FastFixedSet)stackPath.removeFirst();
+                  if(setPostdoms.contains((Object)stat.id)) {
+                     path.add(stat.id);
+                  }
+               } while(path.contains(setPostdoms));
+
+               if(!engine.isDominator(stat.id, Integer.valueOf(head))) {
+                  setPostdoms.complement(path);
+               } else {
+                  Iterator var11 = stat.getSuccessorEdges(1).iterator();
+
+                  while(var11.hasNext()) {
+                     StatEdge edge = (StatEdge)var11.next();
+                     Statement edge_destination = edge.getDestination();
+                     if(!setVisited.contains(edge_destination)) {
+                        stack.add(edge_destination);
+                        stackPath.add(path.getCopy());
+                        setVisited.add(edge_destination);
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+   }
+
+   private void filterOnExceptionRanges(DominatorTreeExceptionFilter filter) {
+      Iterator var2 = (new HashSet(this.mapExtPostdominators.keySet())).iterator();
+
+      while(var2.hasNext()) {
+         int head = ((Integer)var2.next()).intValue();
+         FastFixedSetFactory.FastFixedSet set = (FastFixedSetFactory.FastFixedSet)this.mapExtPostdominators.get(Integer.valueOf(head));
+         Iterator it = set.iterator();
+
+         while(it.hasNext()) {
+            if(!filter.acceptStatementPair(Integer.valueOf(head), (Integer)it.next())) {
+               it.remove();
+            }
+         }
+
+         if(set.isEmpty()) {
+            this.mapExtPostdominators.remove(Integer.valueOf(head));
+         }
+      }
+
+   }
+
+   private void removeErroneousNodes() {
+      this.mapSupportPoints = new HashMap();
+      this.calcReachabilitySuppPoints(1);
+      this.iterateReachability((node, mapSets) -> {
+         Integer nodeid = node.id;
+         FastFixedSetFactory.FastFixedSet setReachability = (FastFixedSetFactory.FastFixedSet)mapSets.get(nodeid);
+         ArrayList lstPredSets = new ArrayList();
+
+         Iterator var6;
+         FastFixedSetFactory.FastFixedSet setReachabilityCopy;
+         for(var6 = node.getPredecessorEdges(1).iterator(); var6.hasNext(); lstPredSets.add(setReachabilityCopy)) {
+            StatEdge id = (StatEdge)var6.next();
+            setReachabilityCopy = (FastFixedSetFactory.FastFixedSet)mapSets.get(id.getSource().id);
+            if(setReachabilityCopy == null) {
+               setReachabilityCopy = (FastFixedSetFactory.FastFixedSet)this.mapSupportPoints.get(id.getSource().id);
+            }
+         }
+
+         var6 = setReachability.iterator();
+
+         while(var6.hasNext()) {
+            int id1 = ((Integer)var6.next()).intValue();
+            setReachabilityCopy = setReachability.getCopy();
+            FastFixedSetFactory.FastFixedSet setIntersection = this.factory.createEmptySet();
+            boolean isIntersectionInitialized = false;
+            Iterator var11 = lstPredSets.iterator();
+
+            while(var11.hasNext()) {
+               FastFixedSetFactory.FastFixedSet predset = (FastFixedSetFactory.FastFixedSet)var11.next();
+               if(predset.contains((Object)Integer.valueOf(id1))) {
+                  if(!isIntersectionInitialized) {
+                     setIntersection.union(predset);
+                     isIntersectionInitialized = true;
+                  } else {
+                     setIntersection.intersection(predset);
+                  }
+               }
+            }
+
+            if(nodeid.intValue() != id1) {
+               setIntersection.add(nodeid);
+            } else {
+               setIntersection.remove(nodeid);
+            }
+
+            setReachabilityCopy.complement(setIntersection);
+            ((FastFixedSetFactory.FastFixedSet)this.mapExtPostdominators.get(Integer.valueOf(id1))).complement(setReachabilityCopy);
+         }
+
+         return false;
+      }, 1);
+      FastFixedSetFactory.FastFixedSet setHandlers = this.factory.createEmptySet();
+      boolean handlerfound = false;
+      Iterator var3 = this.statement.getStats().iterator();
+
+      while(var3.hasNext()) {
+         Statement set = (Statement)var3.next();
+         if(set.getPredecessorEdges(1073741824).isEmpty() && !set.getPredecessorEdges(2).isEmpty()) {
+            setHandlers.add(set.id);
+            handlerfound = true;
+         }
+      }
+
+      if(handlerfound) {
+         var3 = this.mapExtPostdominators.values().iterator();
+
+         while(var3.hasNext()) {
+            FastFixedSetFactory.FastFixedSet set1 = (FastFixedSetFactory.FastFixedSet)var3.next();
+            set1.complement(setHandlers);
+         }
+      }
+
+   }
+
+   private void calcDefaultReachableSets() {
+      byte edgetype = 3;
+      this.calcReachabilitySuppPoints(edgetype);
+      Iterator var2 = this.statement.getStats().iterator();
+
+      while(var2.hasNext()) {
+         Statement stat = (Statement)var2.next();
+         this.mapExtPostdominators.put(stat.id, this.factory.createEmptySet());
+      }
+
+      this.iterateReachability((node, mapSets) -> {
+         Integer nodeid = node.id;
+         FastFixedSetFactory.FastFixedSet setReachability = (FastFixedSetFactory.FastFixedSet)mapSets.get(nodeid);
+         Iterator var5 = setReachability.iterator();
+
+         while(var5.hasNext()) {
+            int id = ((Integer)var5.next()).intValue();
+            ((FastFixedSetFactory.FastFixedSet)this.mapExtPostdominators.get(Integer.valueOf(id))).add(nodeid);
+         }
+
+         return false;
+      }, edgetype);
+   }
+
+   private void calcReachabilitySuppPoints(int edgetype) {
+      this.iterateReachability((node, mapSets) -> {
+         Iterator var4 = node.getAllSuccessorEdges().iterator();
+
+         while(var4.hasNext()) {
+            StatEdge sucedge = (StatEdge)var4.next();
+            if((sucedge.getType() & edgetype) != 0 && mapSets.containsKey(sucedge.getDestination().id)) {
+               FastFixedSetFactory.FastFixedSet setReachability = (FastFixedSetFactory.FastFixedSet)mapSets.get(node.id);
+               if(!InterpreterUtil.equalObjects(setReachability, this.mapSupportPoints.get(node.id))) {
+                  this.mapSupportPoints.put(node.id, setReachability);
+                  return true;
+               }
+            }
+         }
+
+         return false;
+      }, edgetype);
+   }
+
+   private void iterateReachability(FastExtendedPostdominanceHelper.IReachabilityAction action, int edgetype) {
+      HashMap mapSets = new HashMap();
+
+      boolean iterate;
+      do {
+         iterate = false;
+         mapSets.clear();
+         Iterator var5 = this.lstReversePostOrderList.iterator();
+
+         label73:
+         while(var5.hasNext()) {
+            Statement stat = (Statement)var5.next();
+            FastFixedSetFactory.FastFixedSet set = this.factory.createEmptySet();
+            set.add(stat.id);
+            Iterator var8 = stat.getAllPredecessorEdges().iterator();
+
+            StatEdge prededge;
+            Statement pred;
+            while(var8.hasNext()) {
+               prededge = (StatEdge)var8.next();
+               if((prededge.getType() & edgetype) != 0) {
+                  pred = prededge.getSource();
+                  FastFixedSetFactory.FastFixedSet remstat = (FastFixedSetFactory.FastFixedSet)mapSets.get(pred.id);
+                  if(remstat == null) {
+                     remstat = (FastFixedSetFactory.FastFixedSet)this.mapSupportPoints.get(pred.id);
+                  }
+
+                  if(remstat != null) {
+                     set.union(remstat);
+                  }
+               }
+            }
+
+            mapSets.put(stat.id, set);
+            if(action != null) {
+               iterate |= action.action(stat, mapSets);
+            }
+
+            var8 = stat.getAllPredecessorEdges().iterator();
+
+            while(true) {
+               do {
+                  do {
+                     if(!var8.hasNext()) {
+                        continue label73;
+                     }
+
+                     prededge = (StatEdge)var8.next();
+                  } while((prededge.getType() & edgetype) == 0);
+
+                  pred = prededge.getSource();
+               } while(!mapSets.containsKey(pred.id));
+
+               boolean remstat1 = true;
+               Iterator var12 = pred.getAllSuccessorEdges().iterator();
+
+               while(var12.hasNext()) {
+                  StatEdge sucedge = (StatEdge)var12.next();
+                  if((sucedge.getType() & edgetype) != 0 && !mapSets.containsKey(sucedge.getDestination().id)) {
+                     remstat1 = false;
+                     break;
+                  }
+               }
+
+               if(remstat1) {
+                  mapSets.put(pred.id, (Object)null);
+               }
+            }
+         }
+      } while(iterate);
+
+   }
+
+   private interface IReachabilityAction {
+      boolean action(Statement var1, HashMap var2);
+   }
+}
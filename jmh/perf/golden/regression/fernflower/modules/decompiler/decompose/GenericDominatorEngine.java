@@ -0,0 +1,125 @@
+package regression.fernflower.modules.decompiler.decompose;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Set;
+import regression.fernflower.util.VBStyleCollection;
+
+public class GenericDominatorEngine {
+   private IGraph graph;
+   private VBStyleCollection colOrderedIDoms = new VBStyleCollection();
+   private Set setRoots;
+
+   public GenericDominatorEngine(IGraph graph) {
+      this.graph = graph;
+   }
+
+   public void initialize() {
+      this.calcIDoms();
+   }
+
+   private void orderNodes() {
+      this.setRoots = this.graph.getRoots();
+      Iterator var1 = this.graph.getReversePostOrderList().iterator();
+
+      while(var1.hasNext()) {
+         IGraphNode node = (IGraphNode)var1.next();
+         this.colOrderedIDoms.addWithKey((Object)null, node);
+      }
+
+   }
+
+   private static IGraphNode getCommonIDom(IGraphNode node1, IGraphNode node2, VBStyleCollection orderedIDoms) {
+      if(node1 == null) {
+         return node2;
+      } else if(node2 == null) {
+         return node1;
+      } else {
+         int index1 = orderedIDoms.getIndexByKey(node1);
+         int index2 = orderedIDoms.getIndexByKey(node2);
+
+         while(index1 != index2) {
+            IGraphNode nodeOld;
+            if(index1 > index2) {
+               nodeOld = node1;
+               node1 = (IGraphNode)orderedIDoms.getWithKey(node1);
+               if(nodeOld == node1) {
+                  return null;
+               }
+
+               index1 = orderedIDoms.getIndexByKey(node1);
+            } else {
+               nodeOld = node2;
+               node2 = (IGraphNode)orderedIDoms.getWithKey(node2);
+               if(nodeOld == node2) {
+                  return null;
+               }
+
+               index2 = orderedIDoms.getIndexByKey(node2);
+            }
+         }
+
+         return node1;
+      }
+   }
+
+   private void calcIDoms() {
+      this.orderNodes();
+      ArrayList lstNodes = this.colOrderedIDoms.getLstKeys();
+
+      boolean changed;
+      do {
+         changed = false;
+         Iterator var3 = lstNodes.iterator();
+
+         while(var3.hasNext()) {
+            IGraphNode node = (IGraphNode)var3.next();
+            IGraphNode idom = null;
+            if(!this.setRoots.contains(node)) {
+               Iterator oldidom = node.getPredecessors().iterator();
+
+               while(oldidom.hasNext()) {
+                  IGraphNode pred = (IGraphNode)oldidom.next();
+                  if(this.colOrderedIDoms.getWithKey(pred) != null) {
+                     idom = getCommonIDom(idom, pred, this.colOrderedIDoms);
+                     if(idom == null) {
+                        break;
+                     }
+                  }
+               }
+            }
+
+            if(idom == null) {
+               idom = node;
+            }
+
+            IGraphNode oldidom1 = (IGraphNode)this.colOrderedIDoms.putWithKey(idom, node);
+            if(!idom.equals(oldidom1)) {
+               changed = true;
+            }
+         }
+      } while(changed);
+
+   }
+
+   public VBStyleCollection getOrderedIDoms() {
+      return this.colOrderedIDoms;
+   }
+
+   public boolean isDominator(IGraphNode node, IGraphNode dom) {
+      while(!node.equals(dom)) {
+         IGraphNode idom = (IGraphNode)this.colOrderedIDoms.getWithKey(node);
+         if(idom == node) {
+            return false;
+         }
+
+         if(idom == null) {
+            throw new RuntimeException("Inconsistent idom sequence discovered!");
+         }
+
+         node = idom;
+      }
+
+      return true;
+   }
+}
@@ -0,0 +1,10 @@
+package regression.fernflower.modules.decompiler.decompose;
+
+import java.util.List;
+import java.util.Set;
+
+public interface IGraph {
+   List getReversePostOrderList();
+
+   Set getRoots();
+}
@@ -0,0 +1,7 @@
+package regression.fernflower.modules.decompiler.decompose;
+
+import java.util.List;
+
+public interface IGraphNode {
+   List getPredecessors();
+}
@@ -0,0 +1,353 @@
+package regression.fernflower.modules.decompiler.deobfuscator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.code.Instruction;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.code.SimpleInstructionSequence;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.code.cfg.ControlFlowGraph;
+import regression.fernflower.code.cfg.ExceptionRangeCFG;
+import regression.fernflower.modules.decompiler.decompose.GenericDominatorEngine;
+import regression.fernflower.modules.decompiler.decompose.IGraph;
+import regression.fernflower.modules.decompiler.decompose.IGraphNode;
+import regression.fernflower.util.InterpreterUtil;
+
+public class ExceptionDeobfuscator {
+   public static void restorePopRanges(ControlFlowGraph graph) {
+      ArrayList lstRanges = new ArrayList();
+      Iterator var2 = graph.getExceptions().iterator();
+
+      while(var2.hasNext()) {
+         ExceptionRangeCFG range = (ExceptionRangeCFG)var2.next();
+         boolean handler = false;
+         Iterator seq = lstRanges.iterator();
+
+         while(seq.hasNext()) {
+            ExceptionDeobfuscator.Range firstinstr = (ExceptionDeobfuscator.Range)seq.next();
+            if(firstinstr.handler == range.getHandler() && InterpreterUtil.equalObjects(range.getUniqueExceptionsString(), firstinstr.uniqueStr)) {
+               firstinstr.protectedRange.addAll(range.getProtectedRange());
+               handler = true;
+               break;
+            }
+         }
+
+         if(!handler) {
+            lstRanges.add(new ExceptionDeobfuscator.Range(range.getHandler(), range.getUniqueExceptionsString(), new HashSet(range.getProtectedRange()), range, null));
+         }
+      }
+
+      var2 = lstRanges.iterator();
+
+      label116:
+      while(true) {
+         ExceptionDeobfuscator.Range var16;
+         BasicBlock var17;
+         InstructionSequence var18;
+         Instruction var19;
+         do {
+            do {
+               do {
+                  if(!var2.hasNext()) {
+                     return;
+                  }
+
+                  var16 = (ExceptionDeobfuscator.Range)var2.next();
+               } while(var16.uniqueStr == null);
+
+               var17 = var16.handler;
+               var18 = var17.getSeq();
+            } while(var18.length() <= 0);
+
+            var19 = var18.getInstr(0);
+         } while(var19.opcode != 87 && var19.opcode != 58);
+
+         HashSet setrange = new HashSet(var16.protectedRange);
+         Iterator var8 = lstRanges.iterator();
+
+         while(true) {
+            ExceptionDeobfuscator.Range range_super;
+            HashSet setrange_super;
+            do {
+               do {
+                  do {
+                     do {
+                        do {
+                           if(!var8.hasNext()) {
+                              continue label116;
+                           }
+
+                           range_super = (ExceptionDeobfuscator.Range)var8.next();
+                        } while(var16 == range_super);
+
+                        setrange_super = new HashSet(range_super.protectedRange);
+                     } while(setrange.contains(range_super.handler));
+                  } while(setrange_super.contains(var17));
+               } while(range_super.uniqueStr != null && !setrange_super.containsAll(setrange));
+
+               if(range_super.uniqueStr == null) {
+                  setrange_super.retainAll(setrange);
+               } else {
+                  setrange_super.removeAll(setrange);
+               }
+            } while(setrange_super.isEmpty());
+
+            BasicBlock newblock = var17;
+            if(var18.length() > 1) {
+               newblock = new BasicBlock(++graph.last_id);
+               SimpleInstructionSequence newseq = new SimpleInstructionSequence();
+               newseq.addInstruction(var19.clone(), -1);
+               newblock.setSeq(newseq);
+               graph.getBlocks().addWithKey(newblock, Integer.valueOf(newblock.id));
+               ArrayList lstTemp = new ArrayList();
+               lstTemp.addAll(var17.getPreds());
+               lstTemp.addAll(var17.getPredExceptions());
+               Iterator var14 = lstTemp.iterator();
+
+               while(var14.hasNext()) {
+                  BasicBlock range_ext = (BasicBlock)var14.next();
+                  range_ext.replaceSuccessor(var17, newblock);
+               }
+
+               var14 = graph.getExceptions().iterator();
+
+               while(var14.hasNext()) {
+                  ExceptionRangeCFG var20 = (ExceptionRangeCFG)var14.next();
+                  if(var20.getHandler() == var17) {
+                     var20.setHandler(newblock);
+                  } else if(var20.getProtectedRange().contains(var17)) {
+                     newblock.addSuccessorException(var20.getHandler());
+                     var20.getProtectedRange().add(newblock);
+                  }
+               }
+
+               newblock.addSuccessor(var17);
+               if(graph.getFirst() == var17) {
+                  graph.setFirst(newblock);
+               }
+
+               var18.removeInstruction(0);
+            }
+
+            newblock.addSuccessorException(range_super.handler);
+            range_super.rangeCFG.getProtectedRange().add(newblock);
+            var17 = var16.rangeCFG.getHandler();
+            var18 = var17.getSeq();
+         }
+      }
+   }
+
+   public static void insertEmptyExceptionHandlerBlocks(ControlFlowGraph graph) {
+      HashSet setVisited = new HashSet();
+      Iterator var2 = graph.getExceptions().iterator();
+
+      while(true) {
+         BasicBlock handler;
+         do {
+            if(!var2.hasNext()) {
+               return;
+            }
+
+            ExceptionRangeCFG range = (ExceptionRangeCFG)var2.next();
+            handler = range.getHandler();
+         } while(setVisited.contains(handler));
+
+         setVisited.add(handler);
+         BasicBlock emptyblock = new BasicBlock(++graph.last_id);
+         graph.getBlocks().addWithKey(emptyblock, Integer.valueOf(emptyblock.id));
+         ArrayList lstTemp = new ArrayList();
+         lstTemp.addAll(handler.getPredExceptions());
+         Iterator var7 = lstTemp.iterator();
+
+         while(var7.hasNext()) {
+            BasicBlock range_ext = (BasicBlock)var7.next();
+            range_ext.replaceSuccessor(handler, emptyblock);
+         }
+
+         var7 = graph.getExceptions().iterator();
+
+         while(var7.hasNext()) {
+            ExceptionRangeCFG var9 = (ExceptionRangeCFG)var7.next();
+            if(var9.getHandler() == handler) {
+               var9.setHandler(emptyblock);
+            } else if(var9.getProtectedRange().contains(handler)) {
+               emptyblock.addSuccessorException(var9.getHandler());
+               var9.getProtectedRange().add(emptyblock);
+            }
+         }
+
+         emptyblock.addSuccessor(handler);
+         if(graph.getFirst() == handler) {
+            graph.setFirst(emptyblock);
+         }
+      }
+   }
+
+   public static void removeEmptyRanges(ControlFlowGraph graph) {
+      List lstRanges = graph.getExceptions();
+
+      for(int i = lstRanges.size() - 1; i >= 0; --i) {
+         ExceptionRangeCFG range = (ExceptionRangeCFG)lstRanges.get(i);
+         boolean isEmpty = true;
+         Iterator var5 = range.getProtectedRange().iterator();
+
+         BasicBlock block;
+         while(var5.hasNext()) {
+            block = (BasicBlock)var5.next();
+            if(!block.getSeq().isEmpty()) {
+               isEmpty = false;
+               break;
+            }
+         }
+
+         if(isEmpty) {
+            var5 = range.getProtectedRange().iterator();
+
+            while(var5.hasNext()) {
+               block = (BasicBlock)var5.next();
+               block.removeSuccessorException(range.getHandler());
+            }
+
+            lstRanges.remove(i);
+         }
+      }
+
+   }
+
+   public static void removeCircularRanges(final ControlFlowGraph graph) {
+      GenericDominatorEngine engine = new GenericDominatorEngine(new IGraph() {
+         public List getReversePostOrderList() {
+            return graph.getReversePostOrder();
+         }
+
+         public Set getRoots() {
+            return new HashSet(Arrays.asList(new IGraphNode[]{graph.getFirst()}));
+         }
+      });
+      engine.initialize();
+      List lstRanges = graph.getExceptions();
+
+      for(int i = lstRanges.size() - 1; i >= 0; --i) {
+         ExceptionRangeCFG range = (ExceptionRangeCFG)lstRanges.get(i);
+         BasicBlock handler = range.getHandler();
+         List rangeList = range.getProtectedRange();
+         if(rangeList.contains(handler)) {
+            List lstRemBlocks = getReachableBlocksRestricted(range, engine);
+            if(lstRemBlocks.size() < rangeList.size() || rangeList.size() == 1) {
+               Iterator var8 = lstRemBlocks.iterator();
+
+               while(var8.hasNext()) {
+                  BasicBlock block = (BasicBlock)var8.next();
+                  block.removeSuccessorException(handler);
+                  rangeList.remove(block);
+               }
+            }
+
+            if(rangeList.isEmpty()) {
+               lstRanges.remove(i);
+            }
+         }
+      }
+
+   }
+
+   private static List getReachableBlocksRestricted(ExceptionRangeCFG range, GenericDominatorEngine engine) {
+      ArrayList lstRes = new ArrayList();
+      LinkedList stack = new LinkedList();
+      HashSet setVisited = new HashSet();
+      BasicBlock handler = range.getHandler();
+      stack.addFirst(handler);
+
+      while(true) {
+         BasicBlock block;
+         do {
+            do {
+               if(stack.isEmpty()) {
+                  return lstRes;
+               }
+
+               block = (BasicBlock)stack.removeFirst();
+               setVisited.add(block);
+            } while(!range.getProtectedRange().contains(block));
+         } while(!engine.isDominator(block, handler));
+
+         lstRes.add(block);
+         ArrayList lstSuccs = new ArrayList(block.getSuccs());
+         lstSuccs.addAll(block.getSuccExceptions());
+         Iterator var8 = lstSuccs.iterator();
+
+         while(var8.hasNext()) {
+            BasicBlock succ = (BasicBlock)var8.next();
+            if(!setVisited.contains(succ)) {
+               stack.add(succ);
+            }
+         }
+      }
+   }
+
+   public static boolean hasObfuscatedExceptions(ControlFlowGraph graph) {
+      HashMap mapRanges = new HashMap();
+
+      Iterator var2;
+      ExceptionRangeCFG ent;
+      Object setEntries;
+      for(var2 = graph.getExceptions().iterator(); var2.hasNext(); ((Set)setEntries).addAll(ent.getProtectedRange())) {
+         ent = (ExceptionRangeCFG)var2.next();
+         setEntries = (Set)mapRanges.get(ent.getHandler());
+         if(setEntries == null) {
+            mapRanges.put(ent.getHandler(), setEntries = new HashSet());
+         }
+      }
+
+      var2 = mapRanges.entrySet().iterator();
+
+      HashSet setEntries1;
+      do {
+         if(!var2.hasNext()) {
+            return false;
+         }
+
+         Entry ent1 = (Entry)var2.next();
+         setEntries1 = new HashSet();
+         Iterator var5 = ((Set)ent1.getValue()).iterator();
+
+         while(var5.hasNext()) {
+            BasicBlock block = (BasicBlock)var5.next();
+            HashSet setTemp = new HashSet(block.getPreds());
+            setTemp.removeAll((Collection)ent1.getValue());
+            if(!setTemp.isEmpty()) {
+               setEntries1.add(block);
+            }
+         }
+      } while(setEntries1.isEmpty() || setEntries1.size() <= 1);
+
+      return true;
+   }
+
+   private static class Range {
+      private final BasicBlock handler;
+      private final String uniqueStr;
+      private final Set protectedRange;
+      private final ExceptionRangeCFG rangeCFG;
+
+      private Range(BasicBlock handler, String uniqueStr, Set protectedRange, ExceptionRangeCFG rangeCFG) {
+         this.handler = handler;
+         this.uniqueStr = uniqueStr;
+         this.protectedRange = protectedRange;
+         this.rangeCFG = rangeCFG;
+      }
+
+      // $FF: synthetic method
+      Range(BasicBlock x0, String x1, Set x2, ExceptionRangeCFG x3, Object x4) {
+         this(x0, x1, x2, x3);
+      }
+   }
+}
@@ -0,0 +1,233 @@
+package regression.fernflower.modules.decompiler.deobfuscator;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+
+public class IrreducibleCFGDeobfuscator {
+   public static boolean isStatementIrreducible(Statement statement) {
+      HashMap mapNodes = new HashMap();
+      Iterator ttype = statement.getStats().iterator();
+
+      Statement node;
+      class Node {
+         public Integer id;
+         public Set preds = new HashSet();
+         public Set succs = new HashSet();
+
+         public Node(Integer id) {
+            this.id = id;
+         }
+      }
+
+      while(ttype.hasNext()) {
+         node = (Statement)ttype.next();
+         if(!node.getSuccessorEdges(2).isEmpty()) {
+            return false;
+         }
+
+         mapNodes.put(node.id, new Node(node.id));
+      }
+
+      ttype = statement.getStats().iterator();
+
+      Node pred;
+      Iterator nd;
+      while(ttype.hasNext()) {
+         node = (Statement)ttype.next();
+         pred = (Node)mapNodes.get(node.id);
+         nd = node.getNeighbours(1, 1).iterator();
+
+         while(nd.hasNext()) {
+            Statement succ = (Statement)nd.next();
+            Node nodeSucc = (Node)mapNodes.get(succ.id);
+            pred.succs.add(nodeSucc);
+            nodeSucc.preds.add(pred);
+         }
+      }
+
+      while(true) {
+         while(true) {
+            byte ttype1 = 0;
+            Node node1 = null;
+            Iterator pred1 = mapNodes.values().iterator();
+
+            while(pred1.hasNext()) {
+               Node nd1 = (Node)pred1.next();
+               if(nd1.succs.contains(nd1)) {
+                  ttype1 = 1;
+               } else if(nd1.preds.size() == 1) {
+                  ttype1 = 2;
+               }
+
+               if(ttype1 != 0) {
+                  node1 = nd1;
+                  break;
+               }
+            }
+
+            if(node1 == null) {
+               return mapNodes.size() > 1;
+            }
+
+            if(ttype1 == 1) {
+               node1.succs.remove(node1);
+               node1.preds.remove(node1);
+            } else {
+               pred = (Node)node1.preds.iterator().next();
+               pred.succs.addAll(node1.succs);
+               pred.succs.remove(node1);
+               nd = node1.succs.iterator();
+
+               while(nd.hasNext()) {
+                  Node succ1 = (Node)nd.next();
+                  succ1.preds.remove(node1);
+                  succ1.preds.add(pred);
+               }
+
+               mapNodes.remove(node1.id);
+            }
+         }
+      }
+   }
+
+   private static Statement getCandidateForSplitting(Statement statement) {
+      Statement candidateForSplitting = null;
+      int sizeCandidateForSplitting = Integer.MAX_VALUE;
+      int succsCandidateForSplitting = Integer.MAX_VALUE;
+      Iterator var4 = statement.getStats().iterator();
+
+      while(true) {
+         Statement stat;
+         int succCount;
+         int size;
+         do {
+            Set setPreds;
+            do {
+               do {
+                  if(!var4.hasNext()) {
+                     return candidateForSplitting;
+                  }
+
+                  stat = (Statement)var4.next();
+                  setPreds = stat.getNeighboursSet(1, 0);
+               } while(setPreds.size() <= 1);
+
+               succCount = stat.getNeighboursSet(1, 1).size();
+            } while(succCount > succsCandidateForSplitting);
+
+            size = getStatementSize(stat) * (setPreds.size() - 1);
+         } while(succCount >= succsCandidateForSplitting && size >= sizeCandidateForSplitting);
+
+         candidateForSplitting = stat;
+         sizeCandidateForSplitting = size;
+         succsCandidateForSplitting = succCount;
+      }
+   }
+
+   public static boolean splitIrreducibleNode(Statement statement) {
+      Statement splitnode = getCandidateForSplitting(statement);
+      if(splitnode == null) {
+         return false;
+      } else {
+         StatEdge enteredge = (StatEdge)splitnode.getPredecessorEdges(1).iterator().next();
+         Statement splitcopy = copyStatement(splitnode, (Statement)null, new HashMap());
+         initCopiedStatement(splitcopy);
+         splitcopy.setParent(statement);
+         statement.getStats().addWithKey(splitcopy, splitcopy.id);
+         Iterator var4 = splitnode.getPredecessorEdges(1073741824).iterator();
+
+         while(true) {
+            StatEdge succ;
+            do {
+               if(!var4.hasNext()) {
+                  var4 = splitnode.getSuccessorEdges(1073741824).iterator();
+
+                  while(var4.hasNext()) {
+                     succ = (StatEdge)var4.next();
+                     splitcopy.addSuccessor(new StatEdge(succ.getType(), splitcopy, succ.getDestination(), succ.closure));
+                  }
+
+                  return true;
+               }
+
+               succ = (StatEdge)var4.next();
+            } while(succ.getSource() != enteredge.getSource() && succ.closure != enteredge.getSource());
+
+            splitnode.removePredecessor(succ);
+            succ.getSource().changeEdgeNode(1, succ, splitcopy);
+            splitcopy.addPredecessor(succ);
+         }
+      }
+   }
+
+   private static int getStatementSize(Statement statement) {
+      int res = 0;
+      Statement stat;
+      if(statement.type == 8) {
+         res = ((BasicBlockStatement)statement).getBlock().getSeq().length();
+      } else {
+         for(Iterator var2 = statement.getStats().iterator(); var2.hasNext(); res += getStatementSize(stat)) {
+            stat = (Statement)var2.next();
+         }
+      }
+
+      return res;
+   }
+
+   private static Statement copyStatement(Statement from, Statement to, HashMap mapAltToCopies) {
+      if(to == null) {
+         to = from.getSimpleCopy();
+         mapAltToCopies.put(from, to);
+      }
+
+      Iterator i = from.getStats().iterator();
+
+      Statement stold;
+      Statement stnew;
+      while(i.hasNext()) {
+         stold = (Statement)i.next();
+         stnew = stold.getSimpleCopy();
+         to.getStats().addWithKey(stnew, stnew.id);
+         mapAltToCopies.put(stold, stnew);
+      }
+
+      int var9;
+      for(var9 = 0; var9 < from.getStats().size(); ++var9) {
+         stold = (Statement)from.getStats().get(var9);
+         stnew = (Statement)to.getStats().get(var9);
+         Iterator var6 = stold.getSuccessorEdges(1073741824).iterator();
+
+         while(var6.hasNext()) {
+            StatEdge edgeold = (StatEdge)var6.next();
+            StatEdge edgenew = new StatEdge(edgeold.getType(), stnew, mapAltToCopies.containsKey(edgeold.getDestination()) ? (Statement)mapAltToCopies.get(edgeold.getDestination()) : edgeold.getDestination(), mapAltToCopies.containsKey(edgeold.closure) ? (Statement)mapAltToCopies.get(edgeold.closure) : edgeold.closure);
+            stnew.addSuccessor(edgenew);
+         }
+      }
+
+      for(var9 = 0; var9 < from.getStats().size(); ++var9) {
+         stold = (Statement)from.getStats().get(var9);
+         stnew = (Statement)to.getStats().get(var9);
+         copyStatement(stold, stnew, mapAltToCopies);
+      }
+
+      return to;
+   }
+
+   private static void initCopiedStatement(Statement statement) {
+      statement.initSimpleCopy();
+      statement.setCopied(true);
+      Iterator var1 = statement.getStats().iterator();
+
+      while(var1.hasNext()) {
+         Statement st = (Statement)var1.next();
+         st.setParent(statement);
+         initCopiedStatement(st);
+      }
+
+   }
+}
@@ -0,0 +1,72 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.List;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.util.InterpreterUtil;
+
+public class AnnotationExprent extends Exprent {
+   public static final int ANNOTATION_NORMAL = 1;
+   public static final int ANNOTATION_MARKER = 2;
+   public static final int ANNOTATION_SINGLE_ELEMENT = 3;
+   private final String className;
+   private final List parNames;
+   private final List parValues;
+
+   public AnnotationExprent(String className, List parNames, List parValues) {
+      super(13);
+      this.className = className;
+      this.parNames = parNames;
+      this.parValues = parValues;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buffer = new TextBuffer();
+      buffer.appendIndent(indent);
+      buffer.append("@");
+      buffer.append(DecompilerContext.getImportCollector().getShortName(ExprProcessor.buildJavaClassName(this.className)));
+      if(!this.parNames.isEmpty()) {
+         buffer.append("(");
+         if(this.parNames.size() == 1 && "value".equals(this.parNames.get(0))) {
+            buffer.append(((Exprent)this.parValues.get(0)).toJava(indent + 1, tracer));
+         } else {
+            for(int i = 0; i < this.parNames.size(); ++i) {
+               buffer.appendLineSeparator().appendIndent(indent + 1);
+               buffer.append((String)this.parNames.get(i));
+               buffer.append(" = ");
+               buffer.append(((Exprent)this.parValues.get(i)).toJava(indent + 2, tracer));
+               if(i < this.parNames.size() - 1) {
+                  buffer.append(",");
+               }
+            }
+
+            buffer.appendLineSeparator().appendIndent(indent);
+         }
+
+         buffer.append(")");
+      }
+
+      return buffer;
+   }
+
+   public String getClassName() {
+      return this.className;
+   }
+
+   public int getAnnotationType() {
+      return this.parNames.isEmpty() ? 2 : (this.parNames.size() == 1 && "value".equals(this.parNames.get(0)) ? 3 : 1);
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof AnnotationExprent) {
+         AnnotationExprent ann = (AnnotationExprent)o;
+         return this.className.equals(ann.className) && InterpreterUtil.equalLists(this.parNames, ann.parNames) && InterpreterUtil.equalLists(this.parValues, ann.parValues);
+      } else {
+         return false;
+      }
+   }
+}
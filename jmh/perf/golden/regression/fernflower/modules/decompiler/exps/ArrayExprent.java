@@ -0,0 +1,98 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.vars.CheckTypesResult;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+
+public class ArrayExprent extends Exprent {
+   private Exprent array;
+   private Exprent index;
+   private final VarType hardType;
+
+   public ArrayExprent(Exprent array, Exprent index, VarType hardType, Set bytecodeOffsets) {
+      super(1);
+      this.array = array;
+      this.index = index;
+      this.hardType = hardType;
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   public Exprent copy() {
+      return new ArrayExprent(this.array.copy(), this.index.copy(), this.hardType, this.bytecode);
+   }
+
+   public VarType getExprType() {
+      VarType exprType = this.array.getExprType();
+      return exprType.equals(VarType.VARTYPE_NULL) ? this.hardType.copy() : exprType.decreaseArrayDim();
+   }
+
+   public int getExprentUse() {
+      return this.array.getExprentUse() & this.index.getExprentUse() & 1;
+   }
+
+   public CheckTypesResult checkExprTypeBounds() {
+      CheckTypesResult result = new CheckTypesResult();
+      result.addMinTypeExprent(this.index, VarType.VARTYPE_BYTECHAR);
+      result.addMaxTypeExprent(this.index, VarType.VARTYPE_INT);
+      return result;
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      lst.add(this.array);
+      lst.add(this.index);
+      return lst;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer res = this.array.toJava(indent, tracer);
+      if(this.array.getPrecedence() > this.getPrecedence()) {
+         res.enclose("(", ")");
+      }
+
+      VarType arrType = this.array.getExprType();
+      if(arrType.arrayDim == 0) {
+         VarType objArr = VarType.VARTYPE_OBJECT.resizeArrayDim(1);
+         res.enclose("((" + ExprProcessor.getCastTypeName(objArr) + ")", ")");
+      }
+
+      tracer.addMapping(this.bytecode);
+      return res.append("[").append(this.index.toJava(indent, tracer)).append("]");
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      if(oldExpr == this.array) {
+         this.array = newExpr;
+      }
+
+      if(oldExpr == this.index) {
+         this.index = newExpr;
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof ArrayExprent) {
+         ArrayExprent arr = (ArrayExprent)o;
+         return InterpreterUtil.equalObjects(this.array, arr.getArray()) && InterpreterUtil.equalObjects(this.index, arr.getIndex());
+      } else {
+         return false;
+      }
+   }
+
+   public Exprent getArray() {
+      return this.array;
+   }
+
+   public Exprent getIndex() {
+      return this.index;
+   }
+}
@@ -0,0 +1,32 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.List;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+
+public class AssertExprent extends Exprent {
+   private final List parameters;
+
+   public AssertExprent(List parameters) {
+      super(14);
+      this.parameters = parameters;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buffer = new TextBuffer();
+      buffer.append("assert ");
+      tracer.addMapping(this.bytecode);
+      if(this.parameters.get(0) == null) {
+         buffer.append("false");
+      } else {
+         buffer.append(((Exprent)this.parameters.get(0)).toJava(indent, tracer));
+      }
+
+      if(this.parameters.size() > 1) {
+         buffer.append(" : ");
+         buffer.append(((Exprent)this.parameters.get(1)).toJava(indent, tracer));
+      }
+
+      return buffer;
+   }
+}
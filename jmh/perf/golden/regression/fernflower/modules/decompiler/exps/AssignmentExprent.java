@@ -0,0 +1,156 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.vars.CheckTypesResult;
+import regression.fernflower.struct.StructField;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+
+public class AssignmentExprent extends Exprent {
+   public static final int CONDITION_NONE = -1;
+   private static final String[] OPERATORS = new String[]{" += ", " -= ", " *= ", " /= ", " &= ", " |= ", " ^= ", " %= ", " <<= ", " >>= ", " >>>= "};
+   private Exprent left;
+   private Exprent right;
+   private int condType = -1;
+
+   public AssignmentExprent(Exprent left, Exprent right, Set bytecodeOffsets) {
+      super(2);
+      this.left = left;
+      this.right = right;
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   public VarType getExprType() {
+      return this.left.getExprType();
+   }
+
+   public CheckTypesResult checkExprTypeBounds() {
+      CheckTypesResult result = new CheckTypesResult();
+      VarType typeLeft = this.left.getExprType();
+      VarType typeRight = this.right.getExprType();
+      if(typeLeft.typeFamily > typeRight.typeFamily) {
+         result.addMinTypeExprent(this.right, VarType.getMinTypeInFamily(typeLeft.typeFamily));
+      } else if(typeLeft.typeFamily < typeRight.typeFamily) {
+         result.addMinTypeExprent(this.left, typeRight);
+      } else {
+         result.addMinTypeExprent(this.left, VarType.getCommonSupertype(typeLeft, typeRight));
+      }
+
+      return result;
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      lst.add(this.left);
+      lst.add(this.right);
+      return lst;
+   }
+
+   public Exprent copy() {
+      return new AssignmentExprent(this.left.copy(), this.right.copy(), this.bytecode);
+   }
+
+   public int getPrecedence() {
+      return 13;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      VarType leftType = this.left.getExprType();
+      VarType rightType = this.right.getExprType();
+      boolean fieldInClassInit = false;
+      boolean hiddenField = false;
+      if(this.left.type == 5) {
+         FieldExprent buffer = (FieldExprent)this.left;
+         ClassesProcessor.ClassNode res = (ClassesProcessor.ClassNode)DecompilerContext.getProperty("CURRENT_CLASS_NODE");
+         if(res != null) {
+            StructField fd = res.classStruct.getField(buffer.getName(), buffer.getDescriptor().descriptorString);
+            if(fd != null) {
+               if(buffer.isStatic() && fd.hasModifier(16)) {
+                  fieldInClassInit = true;
+               }
+
+               if(res.getWrapper() != null && res.getWrapper().getHiddenMembers().contains(InterpreterUtil.makeUniqueKey(fd.getName(), fd.getDescriptor()))) {
+                  hiddenField = true;
+               }
+            }
+         }
+      }
+
+      if(hiddenField) {
+         return new TextBuffer();
+      } else {
+         TextBuffer buffer1 = new TextBuffer();
+         if(fieldInClassInit) {
+            buffer1.append(((FieldExprent)this.left).getName());
+         } else {
+            buffer1.append(this.left.toJava(indent, tracer));
+         }
+
+         TextBuffer res1 = this.right.toJava(indent, tracer);
+         if(this.condType == -1 && !leftType.isSuperset(rightType) && (rightType.equals(VarType.VARTYPE_OBJECT) || leftType.type != 8)) {
+            if(this.right.getPrecedence() >= FunctionExprent.getPrecedence(29)) {
+               res1.enclose("(", ")");
+            }
+
+            res1.prepend("(" + ExprProcessor.getCastTypeName(leftType) + ")");
+         }
+
+         buffer1.append(this.condType == -1 ? " = " : OPERATORS[this.condType]).append(res1);
+         tracer.addMapping(this.bytecode);
+         return buffer1;
+      }
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      if(oldExpr == this.left) {
+         this.left = newExpr;
+      }
+
+      if(oldExpr == this.right) {
+         this.right = newExpr;
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof AssignmentExprent) {
+         AssignmentExprent as = (AssignmentExprent)o;
+         return InterpreterUtil.equalObjects(this.left, as.getLeft()) && InterpreterUtil.equalObjects(this.right, as.getRight()) && this.condType == as.getCondType();
+      } else {
+         return false;
+      }
+   }
+
+   public Exprent getLeft() {
+      return this.left;
+   }
+
+   public void setLeft(Exprent left) {
+      this.left = left;
+   }
+
+   public Exprent getRight() {
+      return this.right;
+   }
+
+   public void setRight(Exprent right) {
+      this.right = right;
+   }
+
+   public int getCondType() {
+      return this.condType;
+   }
+
+   public void setCondType(int condType) {
+      this.condType = condType;
+   }
+}
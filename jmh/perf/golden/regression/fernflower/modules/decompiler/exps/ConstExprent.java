@@ -0,0 +1,411 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.struct.gen.FieldDescriptor;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.struct.match.IMatchable;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.struct.match.MatchNode;
+import regression.fernflower.util.InterpreterUtil;
+
+public class ConstExprent extends Exprent {
+   private static final Map ESCAPES = new HashMap() {
+      {
+         this.put(new Integer(8), "\\b");
+         this.put(new Integer(9), "\\t");
+         this.put(new Integer(10), "\\n");
+         this.put(new Integer(12), "\\f");
+         this.put(new Integer(13), "\\r");
+         this.put(new Integer(34), "\\\"");
+         this.put(new Integer(39), "\\\'");
+         this.put(new Integer(92), "\\\\");
+      }
+   };
+   private VarType constType;
+   private final Object value;
+   private final boolean boolPermitted;
+
+   public ConstExprent(int val, boolean boolPermitted, Set bytecodeOffsets) {
+      this(guessType(val, boolPermitted), new Integer(val), boolPermitted, bytecodeOffsets);
+   }
+
+   public ConstExprent(VarType constType, Object value, Set bytecodeOffsets) {
+      this(constType, value, false, bytecodeOffsets);
+   }
+
+   private ConstExprent(VarType constType, Object value, boolean boolPermitted, Set bytecodeOffsets) {
+      super(3);
+      this.constType = constType;
+      this.value = value;
+      this.boolPermitted = boolPermitted;
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   private static VarType guessType(int val, boolean boolPermitted) {
+      if(boolPermitted) {
+         VarType constType = VarType.VARTYPE_BOOLEAN;
+         if(val != 0 && val != 1) {
+            constType = constType.copy(true);
+         }
+
+         return constType;
+      } else {
+         return 0 <= val && val <= 127 ? VarType.VARTYPE_BYTECHAR : (-128 <= val && val <= 127 ? VarType.VARTYPE_BYTE : (0 <= val && val <= 32767 ? VarType.VARTYPE_SHORTCHAR : (-32768 <= val && val <= 32767 ? VarType.VARTYPE_SHORT : (0 <= val && val <= '\uffff' ? VarType.VARTYPE_CHAR : VarType.VARTYPE_INT))));
+      }
+   }
+
+   public Exprent copy() {
+      return new ConstExprent(this.constType, this.value, this.bytecode);
+   }
+
+   public VarType getExprType() {
+      return this.constType;
+   }
+
+   public int getExprentUse() {
+      return 3;
+   }
+
+   public List getAllExprents() {
+      return new ArrayList();
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      boolean literal = DecompilerContext.getOption("lit");
+      boolean ascii = DecompilerContext.getOption("asc");
+      tracer.addMapping(this.bytecode);
+      if(this.constType.type != 13 && this.value == null) {
+         return new TextBuffer(ExprProcessor.getCastTypeName(this.constType));
+      } else {
+         switch(this.constType.type) {
+         case 0:
+         case 4:
+         case 6:
+         case 15:
+         case 16:
+            int ival1 = ((Integer)this.value).intValue();
+            if(literal) {
+               return new TextBuffer(this.value.toString());
+            } else {
+               String intfield;
+               if(ival1 == Integer.MAX_VALUE) {
+                  intfield = "MAX_VALUE";
+               } else {
+                  if(ival1 != Integer.MIN_VALUE) {
+                     return new TextBuffer(this.value.toString());
+                  }
+
+                  intfield = "MIN_VALUE";
+               }
+
+               return (new FieldExprent(intfield, "java/lang/Integer", true, (Exprent)null, FieldDescriptor.INTEGER_DESCRIPTOR, this.bytecode)).toJava(0, tracer);
+            }
+         case 1:
+            Integer val = (Integer)this.value;
+            String ret = (String)ESCAPES.get(val);
+            if(ret == null) {
+               char ival = (char)val.intValue();
+               if((ival < 32 || ival >= 127) && (ascii || !InterpreterUtil.isPrintableUnicode(ival))) {
+                  ret = InterpreterUtil.charToUnicodeLiteral(ival);
+               } else {
+                  ret = String.valueOf(ival);
+               }
+            }
+
+            return (new TextBuffer(ret)).enclose("\'", "\'");
+         case 2:
+            double dval = ((Double)this.value).doubleValue();
+            if(literal) {
+               if(Double.isNaN(dval)) {
+                  return new TextBuffer("0.0D / 0.0");
+               } else if(dval == Double.POSITIVE_INFINITY) {
+                  return new TextBuffer("1.0D / 0.0");
+               } else {
+                  if(dval == Double.NEGATIVE_INFINITY) {
+                     return new TextBuffer("-1.0D / 0.0");
+                  }
+
+                  return (new TextBuffer(this.value.toString())).append("D");
+               }
+            } else {
+               String doublefield;
+               if(Double.isNaN(dval)) {
+                  doublefield = "NaN";
+               } else if(dval == Double.POSITIVE_INFINITY) {
+                  doublefield = "POSITIVE_INFINITY";
+               } else if(dval == Double.NEGATIVE_INFINITY) {
+                  doublefield = "NEGATIVE_INFINITY";
+               } else if(dval == Double.MAX_VALUE) {
+                  doublefield = "MAX_VALUE";
+               } else {
+                  if(dval != Double.MIN_VALUE) {
+                     return (new TextBuffer(this.value.toString())).append("D");
+                  }
+
+                  doublefield = "MIN_VALUE";
+               }
+
+               return (new FieldExprent(doublefield, "java/lang/Double", true, (Exprent)null, FieldDescriptor.DOUBLE_DESCRIPTOR, this.bytecode)).toJava(0, tracer);
+            }
+         case 3:
+            float fval = ((Float)this.value).floatValue();
+            if(literal) {
+               if(Double.isNaN((double)fval)) {
+                  return new TextBuffer("0.0F / 0.0");
+               } else if((double)fval == Double.POSITIVE_INFINITY) {
+                  return new TextBuffer("1.0F / 0.0");
+               } else {
+                  if((double)fval == Double.NEGATIVE_INFINITY) {
+                     return new TextBuffer("-1.0F / 0.0");
+                  }
+
+                  return (new TextBuffer(this.value.toString())).append("F");
+               }
+            } else {
+               String floatfield;
+               if(Float.isNaN(fval)) {
+                  floatfield = "NaN";
+               } else if(fval == Float.POSITIVE_INFINITY) {
+                  floatfield = "POSITIVE_INFINITY";
+               } else if(fval == Float.NEGATIVE_INFINITY) {
+                  floatfield = "NEGATIVE_INFINITY";
+               } else if(fval == Float.MAX_VALUE) {
+                  floatfield = "MAX_VALUE";
+               } else {
+                  if(fval != Float.MIN_VALUE) {
+                     return (new TextBuffer(this.value.toString())).append("F");
+                  }
+
+                  floatfield = "MIN_VALUE";
+               }
+
+               return (new FieldExprent(floatfield, "java/lang/Float", true, (Exprent)null, FieldDescriptor.FLOAT_DESCRIPTOR, this.bytecode)).toJava(0, tracer);
+            }
+         case 5:
+            long lval = ((Long)this.value).longValue();
+            if(literal) {
+               return (new TextBuffer(this.value.toString())).append("L");
+            } else {
+               String longfield;
+               if(lval == Long.MAX_VALUE) {
+                  longfield = "MAX_VALUE";
+               } else {
+                  if(lval != Long.MIN_VALUE) {
+                     return (new TextBuffer(this.value.toString())).append("L");
+                  }
+
+                  longfield = "MIN_VALUE";
+               }
+
+               return (new FieldExprent(longfield, "java/lang/Long", true, (Exprent)null, FieldDescriptor.LONG_DESCRIPTOR, this.bytecode)).toJava(0, tracer);
+            }
+         case 7:
+            return new TextBuffer(Boolean.toString(((Integer)this.value).intValue() != 0));
+         case 8:
+            if(this.constType.equals(VarType.VARTYPE_STRING)) {
+               return (new TextBuffer(convertStringToJava(this.value.toString(), ascii))).enclose("\"", "\"");
+            } else if(this.constType.equals(VarType.VARTYPE_CLASS)) {
+               String strval = this.value.toString();
+               VarType classtype;
+               if(strval.startsWith("[")) {
+                  classtype = new VarType(strval, false);
+               } else {
+                  classtype = new VarType(strval, true);
+               }
+
+               return (new TextBuffer(ExprProcessor.getCastTypeName(classtype))).append(".class");
+            }
+         case 9:
+         case 10:
+         case 11:
+         case 12:
+         case 14:
+         default:
+            throw new RuntimeException("invalid constant type");
+         case 13:
+            return new TextBuffer("null");
+         }
+      }
+   }
+
+   private static String convertStringToJava(String value, boolean ascii) {
+      char[] arr = value.toCharArray();
+      StringBuilder buffer = new StringBuilder(arr.length);
+      char[] var4 = arr;
+      int var5 = arr.length;
+
+      for(int var6 = 0; var6 < var5; ++var6) {
+         char c = var4[var6];
+         switch(c) {
+         case '\b':
+            buffer.append("\\b");
+            continue;
+         case '\t':
+            buffer.append("\\t");
+            continue;
+         case '\n':
+            buffer.append("\\n");
+            continue;
+         case '\f':
+            buffer.append("\\f");
+            continue;
+         case '\r':
+            buffer.append("\\r");
+            continue;
+         case '\"':
+            buffer.append("\\\"");
+            continue;
+         case '\'':
+            buffer.append("\\\'");
+            continue;
+         case '\\':
+            buffer.append("\\\\");
+            continue;
+         }
+
+         if((c < 32 || c >= 127) && (ascii || !InterpreterUtil.isPrintableUnicode(c))) {
+            buffer.append(InterpreterUtil.charToUnicodeLiteral(c));
+         } else {
+            buffer.append(c);
+         }
+      }
+
+      return buffer.toString();
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof ConstExprent) {
+         ConstExprent cn = (ConstExprent)o;
+         return InterpreterUtil.equalObjects(this.constType, cn.getConstType()) && InterpreterUtil.equalObjects(this.value, cn.getValue());
+      } else {
+         return false;
+      }
+   }
+
+   public boolean hasBooleanValue() {
+      switch(this.constType.type) {
+      case 0:
+      case 1:
+      case 4:
+      case 6:
+      case 7:
+      case 15:
+      case 16:
+         Integer ival = (Integer)this.value;
+         return ival.intValue() == 0 || DecompilerContext.getOption("bto") && ival.intValue() == 1;
+      case 2:
+      case 3:
+      case 5:
+      case 8:
+      case 9:
+      case 10:
+      case 11:
+      case 12:
+      case 13:
+      case 14:
+      default:
+         return false;
+      }
+   }
+
+   public boolean hasValueOne() {
+      switch(this.constType.type) {
+      case 0:
+      case 1:
+      case 4:
+      case 6:
+      case 7:
+      case 15:
+      case 16:
+         return ((Integer)this.value).intValue() == 1;
+      case 2:
+         return ((Double)this.value).intValue() == 1;
+      case 3:
+         return ((Float)this.value).intValue() == 1;
+      case 5:
+         return ((Long)this.value).intValue() == 1;
+      case 8:
+      case 9:
+      case 10:
+      case 11:
+      case 12:
+      case 13:
+      case 14:
+      default:
+         return false;
+      }
+   }
+
+   public static ConstExprent getZeroConstant(int type) {
+      switch(type) {
+      case 2:
+         return new ConstExprent(VarType.VARTYPE_DOUBLE, new Double(0.0D), (Set)null);
+      case 3:
+         return new ConstExprent(VarType.VARTYPE_FLOAT, new Float(0.0F), (Set)null);
+      case 4:
+         return new ConstExprent(VarType.VARTYPE_INT, new Integer(0), (Set)null);
+      case 5:
+         return new ConstExprent(VarType.VARTYPE_LONG, new Long(0L), (Set)null);
+      default:
+         throw new RuntimeException("Invalid argument!");
+      }
+   }
+
+   public VarType getConstType() {
+      return this.constType;
+   }
+
+   public void setConstType(VarType constType) {
+      this.constType = constType;
+   }
+
+   public Object getValue() {
+      return this.value;
+   }
+
+   public int getIntValue() {
+      return ((Integer)this.value).intValue();
+   }
+
+   public boolean isBoolPermitted() {
+      return this.boolPermitted;
+   }
+
+   public boolean match(MatchNode matchNode, MatchEngine engine) {
+      if(!super.match(matchNode, engine)) {
+         return false;
+      } else {
+         Iterator var3 = matchNode.getRules().entrySet().iterator();
+
+         while(var3.hasNext()) {
+            Entry rule = (Entry)var3.next();
+            MatchNode.RuleValue rule_value = (MatchNode.RuleValue)rule.getValue();
+            switch(null.$SwitchMap$regression$fernflower$struct$match$IMatchable$MatchProperties[((IMatchable.MatchProperties)rule.getKey()).ordinal()]) {
+            case 1:
+               if(!rule_value.value.equals(this.constType)) {
+                  return false;
+               }
+               break;
+            case 2:
+               if(rule_value.isVariable() && !engine.checkAndSetVariableValue(rule_value.value.toString(), this.value)) {
+                  return false;
+               }
+            }
+         }
+
+         return true;
+      }
+   }
+}
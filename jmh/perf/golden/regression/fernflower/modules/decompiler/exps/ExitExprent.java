@@ -0,0 +1,139 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.main.rels.MethodWrapper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.vars.CheckTypesResult;
+import regression.fernflower.struct.attr.StructExceptionsAttribute;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.struct.match.IMatchable;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.struct.match.MatchNode;
+import regression.fernflower.util.InterpreterUtil;
+
+public class ExitExprent extends Exprent {
+   public static final int EXIT_RETURN = 0;
+   public static final int EXIT_THROW = 1;
+   private final int exitType;
+   private Exprent value;
+   private final VarType retType;
+
+   public ExitExprent(int exitType, Exprent value, VarType retType, Set bytecodeOffsets) {
+      super(4);
+      this.exitType = exitType;
+      this.value = value;
+      this.retType = retType;
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   public Exprent copy() {
+      return new ExitExprent(this.exitType, this.value == null ? null : this.value.copy(), this.retType, this.bytecode);
+   }
+
+   public CheckTypesResult checkExprTypeBounds() {
+      CheckTypesResult result = new CheckTypesResult();
+      if(this.exitType == 0 && this.retType.type != 10) {
+         result.addMinTypeExprent(this.value, VarType.getMinTypeInFamily(this.retType.typeFamily));
+         result.addMaxTypeExprent(this.value, this.retType);
+      }
+
+      return result;
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      if(this.value != null) {
+         lst.add(this.value);
+      }
+
+      return lst;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      tracer.addMapping(this.bytecode);
+      if(this.exitType == 0) {
+         TextBuffer var9 = new TextBuffer();
+         if(this.retType.type != 10) {
+            var9.append(" ");
+            ExprProcessor.getCastedExprent(this.value, this.retType, var9, indent, false, tracer);
+         }
+
+         return var9.prepend("return");
+      } else {
+         MethodWrapper method = (MethodWrapper)DecompilerContext.getProperty("CURRENT_METHOD_WRAPPER");
+         ClassesProcessor.ClassNode node = (ClassesProcessor.ClassNode)DecompilerContext.getProperty("CURRENT_CLASS_NODE");
+         if(method != null && node != null) {
+            StructExceptionsAttribute attr = (StructExceptionsAttribute)method.methodStruct.getAttributes().getWithKey("Exceptions");
+            if(attr != null) {
+               String classname = null;
+
+               for(int exType = 0; exType < attr.getThrowsExceptions().size(); ++exType) {
+                  String buffer = attr.getExcClassname(exType, node.classStruct.getPool());
+                  if("java/lang/Throwable".equals(buffer)) {
+                     classname = buffer;
+                     break;
+                  }
+
+                  if("java/lang/Exception".equals(buffer)) {
+                     classname = buffer;
+                  }
+               }
+
+               if(classname != null) {
+                  VarType var10 = new VarType(classname, true);
+                  TextBuffer var11 = new TextBuffer();
+                  ExprProcessor.getCastedExprent(this.value, var10, var11, indent, false, tracer);
+                  return var11.prepend("throw ");
+               }
+            }
+         }
+
+         return this.value.toJava(indent, tracer).prepend("throw ");
+      }
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      if(oldExpr == this.value) {
+         this.value = newExpr;
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof ExitExprent) {
+         ExitExprent et = (ExitExprent)o;
+         return this.exitType == et.getExitType() && InterpreterUtil.equalObjects(this.value, et.getValue());
+      } else {
+         return false;
+      }
+   }
+
+   public int getExitType() {
+      return this.exitType;
+   }
+
+   public Exprent getValue() {
+      return this.value;
+   }
+
+   public VarType getRetType() {
+      return this.retType;
+   }
+
+   public boolean match(MatchNode matchNode, MatchEngine engine) {
+      if(!super.match(matchNode, engine)) {
+         return false;
+      } else {
+         Integer type = (Integer)matchNode.getRuleValue(IMatchable.MatchProperties.EXPRENT_EXITTYPE);
+         return type == null || this.exitType == type.intValue();
+      }
+   }
+}
@@ -0,0 +1,179 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.vars.CheckTypesResult;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.struct.match.IMatchable;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.struct.match.MatchNode;
+
+public class Exprent implements IMatchable {
+   public static final int MULTIPLE_USES = 1;
+   public static final int SIDE_EFFECTS_FREE = 2;
+   public static final int BOTH_FLAGS = 3;
+   public static final int EXPRENT_ARRAY = 1;
+   public static final int EXPRENT_ASSIGNMENT = 2;
+   public static final int EXPRENT_CONST = 3;
+   public static final int EXPRENT_EXIT = 4;
+   public static final int EXPRENT_FIELD = 5;
+   public static final int EXPRENT_FUNCTION = 6;
+   public static final int EXPRENT_IF = 7;
+   public static final int EXPRENT_INVOCATION = 8;
+   public static final int EXPRENT_MONITOR = 9;
+   public static final int EXPRENT_NEW = 10;
+   public static final int EXPRENT_SWITCH = 11;
+   public static final int EXPRENT_VAR = 12;
+   public static final int EXPRENT_ANNOTATION = 13;
+   public static final int EXPRENT_ASSERT = 14;
+   public final int type;
+   public final int id;
+   public Set bytecode = null;
+
+   public Exprent(int type) {
+      this.type = type;
+      this.id = DecompilerContext.getCounterContainer().getCounterAndIncrement(1);
+   }
+
+   public int getPrecedence() {
+      return 0;
+   }
+
+   public VarType getExprType() {
+      return VarType.VARTYPE_VOID;
+   }
+
+   public int getExprentUse() {
+      return 0;
+   }
+
+   public CheckTypesResult checkExprTypeBounds() {
+      return new CheckTypesResult();
+   }
+
+   public boolean containsExprent(Exprent exprent) {
+      ArrayList listTemp = new ArrayList(this.getAllExprents(true));
+      listTemp.add(this);
+      Iterator var3 = listTemp.iterator();
+
+      Exprent lstExpr;
+      do {
+         if(!var3.hasNext()) {
+            return false;
+         }
+
+         lstExpr = (Exprent)var3.next();
+      } while(!lstExpr.equals(exprent));
+
+      return true;
+   }
+
+   public List getAllExprents(boolean recursive) {
+      List lst = this.getAllExprents();
+      if(recursive) {
+         for(int i = lst.size() - 1; i >= 0; --i) {
+            lst.addAll(((Exprent)lst.get(i)).getAllExprents(true));
+         }
+      }
+
+      return lst;
+   }
+
+   public Set getAllVariables() {
+      List lstAllExprents = this.getAllExprents(true);
+      lstAllExprents.add(this);
+      HashSet set = new HashSet();
+      Iterator var3 = lstAllExprents.iterator();
+
+      while(var3.hasNext()) {
+         Exprent expr = (Exprent)var3.next();
+         if(expr.type == 12) {
+            set.add(new VarVersionPair((VarExprent)expr));
+         }
+      }
+
+      return set;
+   }
+
+   public List getAllExprents() {
+      throw new RuntimeException("not implemented");
+   }
+
+   public Exprent copy() {
+      throw new RuntimeException("not implemented");
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      throw new RuntimeException("not implemented");
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+   }
+
+   public void addBytecodeOffsets(Collection bytecodeOffsets) {
+      if(bytecodeOffsets != null && !bytecodeOffsets.isEmpty()) {
+         if(this.bytecode == null) {
+            this.bytecode = new HashSet(bytecodeOffsets);
+         } else {
+            this.bytecode.addAll(bytecodeOffsets);
+         }
+      }
+
+   }
+
+   public IMatchable findObject(MatchNode matchNode, int index) {
+      if(matchNode.getType() != 1) {
+         return null;
+      } else {
+         List lstAllExprents = this.getAllExprents();
+         if(lstAllExprents != null && !lstAllExprents.isEmpty()) {
+            String position = (String)matchNode.getRuleValue(IMatchable.MatchProperties.EXPRENT_POSITION);
+            if(position != null) {
+               if(position.matches("-?\\d+")) {
+                  return (IMatchable)lstAllExprents.get((lstAllExprents.size() + Integer.parseInt(position)) % lstAllExprents.size());
+               }
+            } else if(index < lstAllExprents.size()) {
+               return (IMatchable)lstAllExprents.get(index);
+            }
+
+            return null;
+         } else {
+            return null;
+         }
+      }
+   }
+
+   public boolean match(MatchNode matchNode, MatchEngine engine) {
+      if(matchNode.getType() != 1) {
+         return false;
+      } else {
+         Iterator var3 = matchNode.getRules().entrySet().iterator();
+
+         while(var3.hasNext()) {
+            Entry rule = (Entry)var3.next();
+            switch(null.$SwitchMap$regression$fernflower$struct$match$IMatchable$MatchProperties[((IMatchable.MatchProperties)rule.getKey()).ordinal()]) {
+            case 1:
+               if(this.type != ((Integer)((MatchNode.RuleValue)rule.getValue()).value).intValue()) {
+                  return false;
+               }
+               break;
+            case 2:
+               if(!engine.checkAndSetVariableValue((String)((MatchNode.RuleValue)rule.getValue()).value, this)) {
+                  return false;
+               }
+            }
+         }
+
+         return true;
+      }
+   }
+}
@@ -0,0 +1,167 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.main.rels.MethodWrapper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.consts.LinkConstant;
+import regression.fernflower.struct.gen.FieldDescriptor;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.struct.match.IMatchable;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.struct.match.MatchNode;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.TextUtil;
+
+public class FieldExprent extends Exprent {
+   private final String name;
+   private final String classname;
+   private final boolean isStatic;
+   private Exprent instance;
+   private final FieldDescriptor descriptor;
+
+   public FieldExprent(LinkConstant cn, Exprent instance, Set bytecodeOffsets) {
+      this(cn.elementname, cn.classname, instance == null, instance, FieldDescriptor.parseDescriptor(cn.descriptor), bytecodeOffsets);
+   }
+
+   public FieldExprent(String name, String classname, boolean isStatic, Exprent instance, FieldDescriptor descriptor, Set bytecodeOffsets) {
+      super(5);
+      this.name = name;
+      this.classname = classname;
+      this.isStatic = isStatic;
+      this.instance = instance;
+      this.descriptor = descriptor;
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   public VarType getExprType() {
+      return this.descriptor.type;
+   }
+
+   public int getExprentUse() {
+      return this.instance == null ? 1 : this.instance.getExprentUse() & 1;
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      if(this.instance != null) {
+         lst.add(this.instance);
+      }
+
+      return lst;
+   }
+
+   public Exprent copy() {
+      return new FieldExprent(this.name, this.classname, this.isStatic, this.instance == null ? null : this.instance.copy(), this.descriptor, this.bytecode);
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buf = new TextBuffer();
+      if(this.isStatic) {
+         ClassesProcessor.ClassNode super_qualifier = (ClassesProcessor.ClassNode)DecompilerContext.getProperty("CURRENT_CLASS_NODE");
+         if(super_qualifier == null || !this.classname.equals(super_qualifier.classStruct.qualifiedName)) {
+            buf.append(DecompilerContext.getImportCollector().getShortName(ExprProcessor.buildJavaClassName(this.classname)));
+            buf.append(".");
+         }
+      } else {
+         String super_qualifier1 = null;
+         if(this.instance != null && this.instance.type == 12) {
+            VarExprent buff = (VarExprent)this.instance;
+            VarVersionPair casted = new VarVersionPair(buff);
+            MethodWrapper res = (MethodWrapper)DecompilerContext.getProperty("CURRENT_METHOD_WRAPPER");
+            if(res != null) {
+               String this_classname = (String)res.varproc.getThisVars().get(casted);
+               if(this_classname != null && !this.classname.equals(this_classname)) {
+                  super_qualifier1 = this_classname;
+               }
+            }
+         }
+
+         if(super_qualifier1 != null) {
+            TextUtil.writeQualifiedSuper(buf, super_qualifier1);
+         } else {
+            TextBuffer buff1 = new TextBuffer();
+            boolean casted1 = ExprProcessor.getCastedExprent(this.instance, new VarType(8, 0, this.classname), buff1, indent, true, tracer);
+            String res1 = buff1.toString();
+            if(casted1 || this.instance.getPrecedence() > this.getPrecedence()) {
+               res1 = "(" + res1 + ")";
+            }
+
+            buf.append(res1);
+         }
+
+         if(buf.toString().equals("<VAR_NAMELESS_ENCLOSURE>")) {
+            buf.setLength(0);
+         } else {
+            buf.append(".");
+         }
+      }
+
+      buf.append(this.name);
+      tracer.addMapping(this.bytecode);
+      return buf;
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      if(oldExpr == this.instance) {
+         this.instance = newExpr;
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof FieldExprent) {
+         FieldExprent ft = (FieldExprent)o;
+         return InterpreterUtil.equalObjects(this.name, ft.getName()) && InterpreterUtil.equalObjects(this.classname, ft.getClassname()) && this.isStatic == ft.isStatic() && InterpreterUtil.equalObjects(this.instance, ft.getInstance()) && InterpreterUtil.equalObjects(this.descriptor, ft.getDescriptor());
+      } else {
+         return false;
+      }
+   }
+
+   public String getClassname() {
+      return this.classname;
+   }
+
+   public FieldDescriptor getDescriptor() {
+      return this.descriptor;
+   }
+
+   public Exprent getInstance() {
+      return this.instance;
+   }
+
+   public boolean isStatic() {
+      return this.isStatic;
+   }
+
+   public String getName() {
+      return this.name;
+   }
+
+   public boolean match(MatchNode matchNode, MatchEngine engine) {
+      if(!super.match(matchNode, engine)) {
+         return false;
+      } else {
+         MatchNode.RuleValue rule = (MatchNode.RuleValue)matchNode.getRules().get(IMatchable.MatchProperties.EXPRENT_FIELD_NAME);
+         if(rule != null) {
+            if(rule.isVariable()) {
+               if(!engine.checkAndSetVariableValue((String)rule.value, this.name)) {
+                  return false;
+               }
+            } else if(!rule.value.equals(this.name)) {
+               return false;
+            }
+         }
+
+         return true;
+      }
+   }
+}
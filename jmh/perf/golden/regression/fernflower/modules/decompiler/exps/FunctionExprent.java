@@ -0,0 +1,492 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.vars.CheckTypesResult;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.struct.match.IMatchable;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.struct.match.MatchNode;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.ListStack;
+
+public class FunctionExprent extends Exprent {
+   public static final int FUNCTION_ADD = 0;
+   public static final int FUNCTION_SUB = 1;
+   public static final int FUNCTION_MUL = 2;
+   public static final int FUNCTION_DIV = 3;
+   public static final int FUNCTION_AND = 4;
+   public static final int FUNCTION_OR = 5;
+   public static final int FUNCTION_XOR = 6;
+   public static final int FUNCTION_REM = 7;
+   public static final int FUNCTION_SHL = 8;
+   public static final int FUNCTION_SHR = 9;
+   public static final int FUNCTION_USHR = 10;
+   public static final int FUNCTION_BIT_NOT = 11;
+   public static final int FUNCTION_BOOL_NOT = 12;
+   public static final int FUNCTION_NEG = 13;
+   public static final int FUNCTION_I2L = 14;
+   public static final int FUNCTION_I2F = 15;
+   public static final int FUNCTION_I2D = 16;
+   public static final int FUNCTION_L2I = 17;
+   public static final int FUNCTION_L2F = 18;
+   public static final int FUNCTION_L2D = 19;
+   public static final int FUNCTION_F2I = 20;
+   public static final int FUNCTION_F2L = 21;
+   public static final int FUNCTION_F2D = 22;
+   public static final int FUNCTION_D2I = 23;
+   public static final int FUNCTION_D2L = 24;
+   public static final int FUNCTION_D2F = 25;
+   public static final int FUNCTION_I2B = 26;
+   public static final int FUNCTION_I2C = 27;
+   public static final int FUNCTION_I2S = 28;
+   public static final int FUNCTION_CAST = 29;
+   public static final int FUNCTION_INSTANCEOF = 30;
+   public static final int FUNCTION_ARRAY_LENGTH = 31;
+   public static final int FUNCTION_IMM = 32;
+   public static final int FUNCTION_MMI = 33;
+   public static final int FUNCTION_IPP = 34;
+   public static final int FUNCTION_PPI = 35;
+   public static final int FUNCTION_IIF = 36;
+   public static final int FUNCTION_LCMP = 37;
+   public static final int FUNCTION_FCMPL = 38;
+   public static final int FUNCTION_FCMPG = 39;
+   public static final int FUNCTION_DCMPL = 40;
+   public static final int FUNCTION_DCMPG = 41;
+   public static final int FUNCTION_EQ = 42;
+   public static final int FUNCTION_NE = 43;
+   public static final int FUNCTION_LT = 44;
+   public static final int FUNCTION_GE = 45;
+   public static final int FUNCTION_GT = 46;
+   public static final int FUNCTION_LE = 47;
+   public static final int FUNCTION_CADD = 48;
+   public static final int FUNCTION_COR = 49;
+   public static final int FUNCTION_STR_CONCAT = 50;
+   private static final VarType[] TYPES = new VarType[]{VarType.VARTYPE_LONG, VarType.VARTYPE_FLOAT, VarType.VARTYPE_DOUBLE, VarType.VARTYPE_INT, VarType.VARTYPE_FLOAT, VarType.VARTYPE_DOUBLE, VarType.VARTYPE_INT, VarType.VARTYPE_LONG, VarType.VARTYPE_DOUBLE, VarType.VARTYPE_INT, VarType.VARTYPE_LONG, VarType.VARTYPE_FLOAT, VarType.VARTYPE_BYTE, VarType.VARTYPE_CHAR, VarType.VARTYPE_SHORT};
+   private static final String[] OPERATORS = new String[]{" + ", " - ", " * ", " / ", " & ", " | ", " ^ ", " % ", " << ", " >> ", " >>> ", " == ", " != ", " < ", " >= ", " > ", " <= ", " && ", " || ", " + "};
+   private static final int[] PRECEDENCE = new int[]{3, 3, 2, 2, 7, 9, 8, 2, 4, 4, 4, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 6, 0, 1, 1, 1, 1, 12, -1, -1, -1, -1, -1, 6, 6, 5, 5, 5, 5, 10, 11, 3};
+   private static final Set ASSOCIATIVITY = new HashSet(Arrays.asList(new Integer[]{Integer.valueOf(0), Integer.valueOf(2), Integer.valueOf(4), Integer.valueOf(5), Integer.valueOf(6), Integer.valueOf(48), Integer.valueOf(49), Integer.valueOf(50)}));
+   private int funcType;
+   private VarType implicitType;
+   private final List lstOperands;
+
+   public FunctionExprent(int funcType, ListStack stack, Set bytecodeOffsets) {
+      this(funcType, (List)(new ArrayList()), bytecodeOffsets);
+      if(funcType >= 11 && funcType <= 35 && funcType != 29 && funcType != 30) {
+         this.lstOperands.add((Exprent)stack.pop());
+      } else {
+         if(funcType == 36) {
+            throw new RuntimeException("no direct instantiation possible");
+         }
+
+         Exprent expr = (Exprent)stack.pop();
+         this.lstOperands.add((Exprent)stack.pop());
+         this.lstOperands.add(expr);
+      }
+
+   }
+
+   public FunctionExprent(int funcType, List operands, Set bytecodeOffsets) {
+      super(6);
+      this.funcType = funcType;
+      this.lstOperands = operands;
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   public FunctionExprent(int funcType, Exprent operand, Set bytecodeOffsets) {
+      this(funcType, (List)(new ArrayList(1)), bytecodeOffsets);
+      this.lstOperands.add(operand);
+   }
+
+   public VarType getExprType() {
+      VarType exprType = null;
+      if(this.funcType > 13 && this.funcType != 34 && this.funcType != 35 && this.funcType != 32 && this.funcType != 33) {
+         if(this.funcType == 29) {
+            exprType = ((Exprent)this.lstOperands.get(1)).getExprType();
+         } else if(this.funcType == 36) {
+            Exprent param11 = (Exprent)this.lstOperands.get(1);
+            Exprent param21 = (Exprent)this.lstOperands.get(2);
+            VarType supertype = VarType.getCommonSupertype(param11.getExprType(), param21.getExprType());
+            if(param11.type == 3 && param21.type == 3 && supertype.type != 7 && VarType.VARTYPE_INT.isSuperset(supertype)) {
+               exprType = VarType.VARTYPE_INT;
+            } else {
+               exprType = supertype;
+            }
+         } else if(this.funcType == 50) {
+            exprType = VarType.VARTYPE_STRING;
+         } else if(this.funcType < 42 && this.funcType != 30) {
+            if(this.funcType >= 31) {
+               exprType = VarType.VARTYPE_INT;
+            } else {
+               exprType = TYPES[this.funcType - 14];
+            }
+         } else {
+            exprType = VarType.VARTYPE_BOOLEAN;
+         }
+      } else {
+         VarType param1 = ((Exprent)this.lstOperands.get(0)).getExprType();
+         VarType param2 = null;
+         if(this.lstOperands.size() > 1) {
+            param2 = ((Exprent)this.lstOperands.get(1)).getExprType();
+         }
+
+         switch(this.funcType) {
+         case 0:
+         case 1:
+         case 2:
+         case 3:
+         case 7:
+            exprType = getMaxVarType(new VarType[]{param1, param2});
+            break;
+         case 4:
+         case 5:
+         case 6:
+            if(param1.type == 7 & param2.type == 7) {
+               exprType = VarType.VARTYPE_BOOLEAN;
+            } else {
+               exprType = getMaxVarType(new VarType[]{param1, param2});
+            }
+            break;
+         case 8:
+         case 9:
+         case 10:
+         case 11:
+         case 13:
+            exprType = getMaxVarType(new VarType[]{param1});
+            break;
+         case 12:
+            exprType = VarType.VARTYPE_BOOLEAN;
+         case 14:
+         case 15:
+         case 16:
+         case 17:
+         case 18:
+         case 19:
+         case 20:
+         case 21:
+         case 22:
+         case 23:
+         case 24:
+         case 25:
+         case 26:
+         case 27:
+         case 28:
+         case 29:
+         case 30:
+         case 31:
+         default:
+            break;
+         case 32:
+         case 33:
+         case 34:
+         case 35:
+            exprType = this.implicitType;
+         }
+      }
+
+      return exprType;
+   }
+
+   public int getExprentUse() {
+      if(this.funcType >= 32 && this.funcType <= 35) {
+         return 0;
+      } else {
+         int ret = 3;
+
+         Exprent expr;
+         for(Iterator var2 = this.lstOperands.iterator(); var2.hasNext(); ret &= expr.getExprentUse()) {
+            expr = (Exprent)var2.next();
+         }
+
+         return ret;
+      }
+   }
+
+   public CheckTypesResult checkExprTypeBounds() {
+      CheckTypesResult result = new CheckTypesResult();
+      Exprent param1 = (Exprent)this.lstOperands.get(0);
+      VarType type1 = param1.getExprType();
+      Exprent param2 = null;
+      VarType type2 = null;
+      if(this.lstOperands.size() > 1) {
+         param2 = (Exprent)this.lstOperands.get(1);
+         type2 = param2.getExprType();
+      }
+
+      switch(this.funcType) {
+      case 0:
+      case 1:
+      case 2:
+      case 3:
+      case 7:
+      case 8:
+      case 9:
+      case 10:
+      case 44:
+      case 45:
+      case 46:
+      case 47:
+         result.addMinTypeExprent(param2, VarType.VARTYPE_BYTECHAR);
+      case 11:
+      case 13:
+         result.addMinTypeExprent(param1, VarType.VARTYPE_BYTECHAR);
+         break;
+      case 4:
+      case 5:
+      case 6:
+      case 42:
+      case 43:
+         if(type1.type == 7) {
+            if(type2.isStrictSuperset(type1)) {
+               result.addMinTypeExprent(param1, VarType.VARTYPE_BYTECHAR);
+            } else {
+               boolean param1_false_boolean = type1.isFalseBoolean() || param1.type == 3 && !((ConstExprent)param1).hasBooleanValue();
+               boolean param2_false_boolean = type1.isFalseBoolean() || param2.type == 3 && !((ConstExprent)param2).hasBooleanValue();
+               if(param1_false_boolean || param2_false_boolean) {
+                  result.addMinTypeExprent(param1, VarType.VARTYPE_BYTECHAR);
+                  result.addMinTypeExprent(param2, VarType.VARTYPE_BYTECHAR);
+               }
+            }
+         } else if(type2.type == 7 && type1.isStrictSuperset(type2)) {
+            result.addMinTypeExprent(param2, VarType.VARTYPE_BYTECHAR);
+         }
+      case 12:
+      case 17:
+      case 18:
+      case 19:
+      case 20:
+      case 21:
+      case 22:
+      case 23:
+      case 24:
+      case 25:
+      case 29:
+      case 30:
+      case 31:
+      case 37:
+      case 38:
+      case 39:
+      case 40:
+      case 41:
+      default:
+         break;
+      case 14:
+      case 15:
+      case 16:
+      case 26:
+      case 27:
+      case 28:
+         result.addMinTypeExprent(param1, VarType.VARTYPE_BYTECHAR);
+         result.addMaxTypeExprent(param1, VarType.VARTYPE_INT);
+         break;
+      case 32:
+      case 33:
+      case 34:
+      case 35:
+         result.addMinTypeExprent(param1, this.implicitType);
+         result.addMaxTypeExprent(param1, this.implicitType);
+         break;
+      case 36:
+         VarType supertype = this.getExprType();
+         if(supertype == null) {
+            supertype = this.getExprType();
+         }
+
+         result.addMinTypeExprent(param1, VarType.VARTYPE_BOOLEAN);
+         result.addMinTypeExprent(param2, VarType.getMinTypeInFamily(supertype.typeFamily));
+         result.addMinTypeExprent((Exprent)this.lstOperands.get(2), VarType.getMinTypeInFamily(supertype.typeFamily));
+      }
+
+      return result;
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      lst.addAll(this.lstOperands);
+      return lst;
+   }
+
+   public Exprent copy() {
+      ArrayList lst = new ArrayList();
+      Iterator func = this.lstOperands.iterator();
+
+      while(func.hasNext()) {
+         Exprent expr = (Exprent)func.next();
+         lst.add(expr.copy());
+      }
+
+      FunctionExprent func1 = new FunctionExprent(this.funcType, lst, this.bytecode);
+      func1.setImplicitType(this.implicitType);
+      return func1;
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof FunctionExprent) {
+         FunctionExprent fe = (FunctionExprent)o;
+         return this.funcType == fe.getFuncType() && InterpreterUtil.equalLists(this.lstOperands, fe.getLstOperands());
+      } else {
+         return false;
+      }
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      for(int i = 0; i < this.lstOperands.size(); ++i) {
+         if(oldExpr == this.lstOperands.get(i)) {
+            this.lstOperands.set(i, newExpr);
+         }
+      }
+
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      tracer.addMapping(this.bytecode);
+      if(this.funcType <= 10) {
+         return this.wrapOperandString((Exprent)this.lstOperands.get(0), false, indent, tracer).append(OPERATORS[this.funcType]).append(this.wrapOperandString((Exprent)this.lstOperands.get(1), true, indent, tracer));
+      } else if(this.funcType >= 42) {
+         return this.wrapOperandString((Exprent)this.lstOperands.get(0), false, indent, tracer).append(OPERATORS[this.funcType - 42 + 11]).append(this.wrapOperandString((Exprent)this.lstOperands.get(1), true, indent, tracer));
+      } else {
+         switch(this.funcType) {
+         case 11:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("~");
+         case 12:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("!");
+         case 13:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("-");
+         case 14:
+         case 15:
+         case 16:
+         case 17:
+         case 18:
+         case 19:
+         case 20:
+         case 21:
+         case 22:
+         case 23:
+         case 24:
+         case 25:
+         case 26:
+         case 27:
+         case 28:
+         default:
+            if(this.funcType <= 28) {
+               return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("(" + ExprProcessor.getTypeName(TYPES[this.funcType - 14]) + ")");
+            }
+
+            throw new RuntimeException("invalid function");
+         case 29:
+            return ((Exprent)this.lstOperands.get(1)).toJava(indent, tracer).enclose("(", ")").append(this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer));
+         case 30:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).append(" instanceof ").append(this.wrapOperandString((Exprent)this.lstOperands.get(1), true, indent, tracer));
+         case 31:
+            Exprent arr = (Exprent)this.lstOperands.get(0);
+            TextBuffer res = this.wrapOperandString(arr, false, indent, tracer);
+            if(arr.getExprType().arrayDim == 0) {
+               VarType objArr = VarType.VARTYPE_OBJECT.resizeArrayDim(1);
+               res.enclose("((" + ExprProcessor.getCastTypeName(objArr) + ")", ")");
+            }
+
+            return res.append(".length");
+         case 32:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).append("--");
+         case 33:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("--");
+         case 34:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).append("++");
+         case 35:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("++");
+         case 36:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).append(" ? ").append(this.wrapOperandString((Exprent)this.lstOperands.get(1), true, indent, tracer)).append(" : ").append(this.wrapOperandString((Exprent)this.lstOperands.get(2), true, indent, tracer));
+         case 37:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("__lcmp__(").append(",").append(this.wrapOperandString((Exprent)this.lstOperands.get(1), true, indent, tracer)).append(")");
+         case 38:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("__fcmpl__(").append(",").append(this.wrapOperandString((Exprent)this.lstOperands.get(1), true, indent, tracer)).append(")");
+         case 39:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("__fcmpg__(").append(",").append(this.wrapOperandString((Exprent)this.lstOperands.get(1), true, indent, tracer)).append(")");
+         case 40:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("__dcmpl__(").append(",").append(this.wrapOperandString((Exprent)this.lstOperands.get(1), true, indent, tracer)).append(")");
+         case 41:
+            return this.wrapOperandString((Exprent)this.lstOperands.get(0), true, indent, tracer).prepend("__dcmpg__(").append(",").append(this.wrapOperandString((Exprent)this.lstOperands.get(1), true, indent, tracer)).append(")");
+         }
+      }
+   }
+
+   public int getPrecedence() {
+      return getPrecedence(this.funcType);
+   }
+
+   public static int getPrecedence(int func) {
+      return PRECEDENCE[func];
+   }
+
+   public VarType getSimpleCastType() {
+      return TYPES[this.funcType - 14];
+   }
+
+   private TextBuffer wrapOperandString(Exprent expr, boolean eq, int indent, BytecodeMappingTracer tracer) {
+      int myprec = this.getPrecedence();
+      int exprprec = expr.getPrecedence();
+      boolean parentheses = exprprec > myprec;
+      if(!parentheses && eq) {
+         parentheses = exprprec == myprec;
+         if(parentheses && expr.type == 6 && ((FunctionExprent)expr).getFuncType() == this.funcType) {
+            parentheses = !ASSOCIATIVITY.contains(Integer.valueOf(this.funcType));
+         }
+      }
+
+      TextBuffer res = expr.toJava(indent, tracer);
+      if(parentheses) {
+         res.enclose("(", ")");
+      }
+
+      return res;
+   }
+
+   private static VarType getMaxVarType(VarType[] arr) {
+      int[] types = new int[]{2, 3, 5};
+      VarType[] vartypes = new VarType[]{VarType.VARTYPE_DOUBLE, VarType.VARTYPE_FLOAT, VarType.VARTYPE_LONG};
+
+      for(int i = 0; i < types.length; ++i) {
+         for(int j = 0; j < arr.length; ++j) {
+            if(arr[j].type == types[i]) {
+               return vartypes[i];
+            }
+         }
+      }
+
+      return VarType.VARTYPE_INT;
+   }
+
+   public int getFuncType() {
+      return this.funcType;
+   }
+
+   public void setFuncType(int funcType) {
+      this.funcType = funcType;
+   }
+
+   public List getLstOperands() {
+      return this.lstOperands;
+   }
+
+   public void setImplicitType(VarType implicitType) {
+      this.implicitType = implicitType;
+   }
+
+   public boolean match(MatchNode matchNode, MatchEngine engine) {
+      if(!super.match(matchNode, engine)) {
+         return false;
+      } else {
+         Integer type = (Integer)matchNode.getRuleValue(IMatchable.MatchProperties.EXPRENT_FUNCTYPE);
+         return type == null || this.funcType == type.intValue();
+      }
+   }
+}
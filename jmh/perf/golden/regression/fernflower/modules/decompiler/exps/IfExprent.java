@@ -0,0 +1,103 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.ListStack;
+
+public class IfExprent extends Exprent {
+   public static final int IF_EQ = 0;
+   public static final int IF_NE = 1;
+   public static final int IF_LT = 2;
+   public static final int IF_GE = 3;
+   public static final int IF_GT = 4;
+   public static final int IF_LE = 5;
+   public static final int IF_NULL = 6;
+   public static final int IF_NONNULL = 7;
+   public static final int IF_ICMPEQ = 8;
+   public static final int IF_ICMPNE = 9;
+   public static final int IF_ICMPLT = 10;
+   public static final int IF_ICMPGE = 11;
+   public static final int IF_ICMPGT = 12;
+   public static final int IF_ICMPLE = 13;
+   public static final int IF_ACMPEQ = 14;
+   public static final int IF_ACMPNE = 15;
+   public static final int IF_CAND = 16;
+   public static final int IF_COR = 17;
+   public static final int IF_NOT = 18;
+   public static final int IF_VALUE = 19;
+   private static final int[] FUNC_TYPES = new int[]{42, 43, 44, 45, 46, 47, 42, 43, 42, 43, 44, 45, 46, 47, 42, 43, 48, 49, 12, -1};
+   private Exprent condition;
+
+   public IfExprent(int ifType, ListStack stack, Set bytecodeOffsets) {
+      this((Exprent)null, bytecodeOffsets);
+      if(ifType <= 5) {
+         stack.push(new ConstExprent(0, true, (Set)null));
+      } else if(ifType <= 7) {
+         stack.push(new ConstExprent(VarType.VARTYPE_NULL, (Object)null, (Set)null));
+      }
+
+      if(ifType == 19) {
+         this.condition = (Exprent)stack.pop();
+      } else {
+         this.condition = new FunctionExprent(FUNC_TYPES[ifType], stack, (Set)null);
+      }
+
+   }
+
+   private IfExprent(Exprent condition, Set bytecodeOffsets) {
+      super(7);
+      this.condition = condition;
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   public Exprent copy() {
+      return new IfExprent(this.condition.copy(), this.bytecode);
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      lst.add(this.condition);
+      return lst;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      tracer.addMapping(this.bytecode);
+      return this.condition.toJava(indent, tracer).enclose("if(", ")");
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      if(oldExpr == this.condition) {
+         this.condition = newExpr;
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof IfExprent) {
+         IfExprent ie = (IfExprent)o;
+         return InterpreterUtil.equalObjects(this.condition, ie.getCondition());
+      } else {
+         return false;
+      }
+   }
+
+   public IfExprent negateIf() {
+      this.condition = new FunctionExprent(12, this.condition, this.condition.bytecode);
+      return this;
+   }
+
+   public Exprent getCondition() {
+      return this.condition;
+   }
+
+   public void setCondition(Exprent condition) {
+      this.condition = condition;
+   }
+}
@@ -0,0 +1,502 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.main.rels.MethodWrapper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.vars.CheckTypesResult;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.consts.LinkConstant;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.struct.match.IMatchable;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.struct.match.MatchNode;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.ListStack;
+import regression.fernflower.util.TextUtil;
+
+public class InvocationExprent extends Exprent {
+   public static final int INVOKE_SPECIAL = 1;
+   public static final int INVOKE_VIRTUAL = 2;
+   public static final int INVOKE_STATIC = 3;
+   public static final int INVOKE_INTERFACE = 4;
+   public static final int INVOKE_DYNAMIC = 5;
+   public static final int TYP_GENERAL = 1;
+   public static final int TYP_INIT = 2;
+   public static final int TYP_CLINIT = 3;
+   private static final BitSet EMPTY_BIT_SET = new BitSet(0);
+   private String name;
+   private String classname;
+   private boolean isStatic;
+   private int functype;
+   private Exprent instance;
+   private MethodDescriptor descriptor;
+   private String stringDescriptor;
+   private String invokeDynamicClassSuffix;
+   private int invocationTyp;
+   private List lstParameters;
+
+   public InvocationExprent() {
+      super(8);
+      this.functype = 1;
+      this.invocationTyp = 2;
+      this.lstParameters = new ArrayList();
+   }
+
+   public InvocationExprent(int opcode, LinkConstant cn, ListStack stack, int dynamicInvocationType, Set bytecodeOffsets) {
+      this();
+      this.name = cn.elementname;
+      this.classname = cn.classname;
+      switch(opcode) {
+      case 182:
+         this.invocationTyp = 2;
+         break;
+      case 183:
+         this.invocationTyp = 1;
+         break;
+      case 184:
+         this.invocationTyp = 3;
+         break;
+      case 185:
+         this.invocationTyp = 4;
+         break;
+      case 186:
+         this.invocationTyp = 5;
+         this.classname = "java/lang/Class";
+         this.invokeDynamicClassSuffix = "##Lambda_" + cn.index1 + "_" + cn.index2;
+      }
+
+      if("<init>".equals(this.name)) {
+         this.functype = 2;
+      } else if("<clinit>".equals(this.name)) {
+         this.functype = 3;
+      }
+
+      this.stringDescriptor = cn.descriptor;
+      this.descriptor = MethodDescriptor.parseDescriptor(cn.descriptor);
+      VarType[] var6 = this.descriptor.params;
+      int var7 = var6.length;
+
+      for(int var8 = 0; var8 < var7; ++var8) {
+         VarType var10000 = var6[var8];
+         this.lstParameters.add(0, (Exprent)stack.pop());
+      }
+
+      if(opcode == 186) {
+         if(dynamicInvocationType == 6) {
+            this.isStatic = true;
+         } else if(!this.lstParameters.isEmpty()) {
+            this.instance = (Exprent)this.lstParameters.get(0);
+         }
+      } else if(opcode == 184) {
+         this.isStatic = true;
+      } else {
+         this.instance = (Exprent)stack.pop();
+      }
+
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   private InvocationExprent(InvocationExprent expr) {
+      this();
+      this.name = expr.getName();
+      this.classname = expr.getClassname();
+      this.isStatic = expr.isStatic();
+      this.functype = expr.getFunctype();
+      this.instance = expr.getInstance();
+      if(this.instance != null) {
+         this.instance = this.instance.copy();
+      }
+
+      this.invocationTyp = expr.getInvocationTyp();
+      this.invokeDynamicClassSuffix = expr.getInvokeDynamicClassSuffix();
+      this.stringDescriptor = expr.getStringDescriptor();
+      this.descriptor = expr.getDescriptor();
+      this.lstParameters = new ArrayList(expr.getLstParameters());
+      ExprProcessor.copyEntries(this.lstParameters);
+      this.addBytecodeOffsets(expr.bytecode);
+   }
+
+   public VarType getExprType() {
+      return this.descriptor.ret;
+   }
+
+   public CheckTypesResult checkExprTypeBounds() {
+      CheckTypesResult result = new CheckTypesResult();
+
+      for(int i = 0; i < this.lstParameters.size(); ++i) {
+         Exprent parameter = (Exprent)this.lstParameters.get(i);
+         VarType leftType = this.descriptor.params[i];
+         result.addMinTypeExprent(parameter, VarType.getMinTypeInFamily(leftType.typeFamily));
+         result.addMaxTypeExprent(parameter, leftType);
+      }
+
+      return result;
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      if(this.instance != null) {
+         lst.add(this.instance);
+      }
+
+      lst.addAll(this.lstParameters);
+      return lst;
+   }
+
+   public Exprent copy() {
+      return new InvocationExprent(this);
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buf = new TextBuffer();
+      String super_qualifier = null;
+      boolean isInstanceThis = false;
+      tracer.addMapping(this.bytecode);
+      if(this.isStatic) {
+         ClassesProcessor.ClassNode sigFields = (ClassesProcessor.ClassNode)DecompilerContext.getProperty("CURRENT_CLASS_NODE");
+         if(sigFields == null || !this.classname.equals(sigFields.classStruct.qualifiedName)) {
+            buf.append(DecompilerContext.getImportCollector().getShortName(ExprProcessor.buildJavaClassName(this.classname)));
+         }
+      } else {
+         if(this.instance != null && this.instance.type == 12) {
+            VarExprent var14 = (VarExprent)this.instance;
+            VarVersionPair isEnum = new VarVersionPair(var14);
+            VarProcessor setAmbiguousParameters = var14.getProcessor();
+            if(setAmbiguousParameters == null) {
+               MethodWrapper firstParameter = (MethodWrapper)DecompilerContext.getProperty("CURRENT_METHOD_WRAPPER");
+               if(firstParameter != null) {
+                  setAmbiguousParameters = firstParameter.varproc;
+               }
+            }
+
+            String var20 = null;
+            if(setAmbiguousParameters != null) {
+               var20 = (String)setAmbiguousParameters.getThisVars().get(isEnum);
+            }
+
+            if(var20 != null) {
+               isInstanceThis = true;
+               if(this.invocationTyp == 1 && !this.classname.equals(var20)) {
+                  super_qualifier = var20;
+               }
+            }
+         }
+
+         if(this.functype == 1) {
+            if(super_qualifier != null) {
+               TextUtil.writeQualifiedSuper(buf, super_qualifier);
+            } else if(this.instance != null) {
+               TextBuffer var15 = this.instance.toJava(indent, tracer);
+               VarType var17 = this.instance.getExprType();
+               VarType var19 = new VarType(8, 0, this.classname);
+               if(var17.equals(VarType.VARTYPE_OBJECT) && !var19.equals(var17)) {
+                  buf.append("((").append(ExprProcessor.getCastTypeName(var19)).append(")");
+                  if(this.instance.getPrecedence() >= FunctionExprent.getPrecedence(29)) {
+                     var15.enclose("(", ")");
+                  }
+
+                  buf.append(var15).append(")");
+               } else if(this.instance.getPrecedence() > this.getPrecedence()) {
+                  buf.append("(").append(var15).append(")");
+               } else {
+                  buf.append(var15);
+               }
+            }
+         }
+      }
+
+      switch(this.functype) {
+      case 1:
+         if("<VAR_NAMELESS_ENCLOSURE>".equals(buf.toString())) {
+            buf = new TextBuffer();
+         }
+
+         if(buf.length() > 0) {
+            buf.append(".");
+         }
+
+         buf.append(this.name);
+         if(this.invocationTyp == 5) {
+            buf.append("<invokedynamic>");
+         }
+
+         buf.append("(");
+         break;
+      case 2:
+         if(super_qualifier != null) {
+            buf.append("super(");
+         } else {
+            if(!isInstanceThis) {
+               throw new RuntimeException("Unrecognized invocation of <init>");
+            }
+
+            buf.append("this(");
+         }
+         break;
+      case 3:
+         throw new RuntimeException("Explicit invocation of <clinit>");
+      }
+
+      Object var16 = null;
+      boolean var18 = false;
+      if(this.functype == 2) {
+         ClassesProcessor.ClassNode var21 = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(this.classname);
+         if(var21 != null) {
+            if(var21.getWrapper() != null) {
+               var16 = var21.getWrapper().getMethodWrapper("<init>", this.stringDescriptor).signatureFields;
+            } else if(var21.type == 1 && (var21.access & 8) == 0) {
+               var16 = new ArrayList(Collections.nCopies(this.lstParameters.size(), (VarVersionPair)null));
+               ((List)var16).set(0, new VarVersionPair(-1, 0));
+            }
+
+            var18 = var21.classStruct.hasModifier(16384) && DecompilerContext.getOption("den");
+         }
+      }
+
+      BitSet var22 = this.getAmbiguousParameters();
+      boolean var23 = true;
+      int start = var18 ? 2 : 0;
+
+      for(int i = start; i < this.lstParameters.size(); ++i) {
+         if(var16 == null) {
+            if(!var23) {
+               buf.append(", ");
+            }
+
+            TextBuffer buff = new TextBuffer();
+            boolean ambiguous = var22.get(i);
+            ExprProcessor.getCastedExprent((Exprent)this.lstParameters.get(i), this.descriptor.params[i], buff, indent, true, ambiguous, tracer);
+            buf.append(buff);
+            var23 = false;
+         }
+      }
+
+      buf.append(")");
+      return buf;
+   }
+
+   private BitSet getAmbiguousParameters() {
+      StructClass cl = DecompilerContext.getStructContext().getClass(this.classname);
+      if(cl == null) {
+         return EMPTY_BIT_SET;
+      } else {
+         ArrayList matches = new ArrayList();
+         Iterator mt = cl.getMethods().iterator();
+
+         while(true) {
+            label90:
+            while(true) {
+               MethodDescriptor i;
+               int paramType;
+               do {
+                  StructMethod ambiguous;
+                  do {
+                     do {
+                        if(!mt.hasNext()) {
+                           if(matches.size() == 1) {
+                              return EMPTY_BIT_SET;
+                           }
+
+                           StructMethod var9 = cl.getMethod(InterpreterUtil.makeUniqueKey(this.name, this.stringDescriptor));
+                           if(var9 != null) {
+                              MethodDescriptor var10 = MethodDescriptor.parseDescriptor(var9.getDescriptor());
+                              if(var10.params.length == this.lstParameters.size()) {
+                                 boolean var12 = true;
+
+                                 for(paramType = 0; paramType < var10.params.length; ++paramType) {
+                                    if(!var10.params[paramType].equals(((Exprent)this.lstParameters.get(paramType)).getExprType())) {
+                                       var12 = false;
+                                       break;
+                                    }
+                                 }
+
+                                 if(var12) {
+                                    return EMPTY_BIT_SET;
+                                 }
+                              }
+                           }
+
+                           BitSet var11 = new BitSet(this.descriptor.params.length);
+
+                           for(int var13 = 0; var13 < this.descriptor.params.length; ++var13) {
+                              VarType var14 = this.descriptor.params[var13];
+                              Iterator var7 = matches.iterator();
+
+                              while(var7.hasNext()) {
+                                 MethodDescriptor md = (MethodDescriptor)var7.next();
+                                 if(!var14.equals(md.params[var13])) {
+                                    var11.set(var13);
+                                    break;
+                                 }
+                              }
+                           }
+
+                           return var11;
+                        }
+
+                        ambiguous = (StructMethod)mt.next();
+                     } while(ambiguous.hasModifier(64) && DecompilerContext.getOption("rbr"));
+                  } while(!this.name.equals(ambiguous.getName()));
+
+                  i = MethodDescriptor.parseDescriptor(ambiguous.getDescriptor());
+               } while(i.params.length != this.descriptor.params.length);
+
+               for(paramType = 0; paramType < i.params.length; ++paramType) {
+                  if(i.params[paramType].typeFamily != this.descriptor.params[paramType].typeFamily) {
+                     continue label90;
+                  }
+               }
+
+               matches.add(i);
+            }
+         }
+      }
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      if(oldExpr == this.instance) {
+         this.instance = newExpr;
+      }
+
+      for(int i = 0; i < this.lstParameters.size(); ++i) {
+         if(oldExpr == this.lstParameters.get(i)) {
+            this.lstParameters.set(i, newExpr);
+         }
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof InvocationExprent) {
+         InvocationExprent it = (InvocationExprent)o;
+         return InterpreterUtil.equalObjects(this.name, it.getName()) && InterpreterUtil.equalObjects(this.classname, it.getClassname()) && this.isStatic == it.isStatic() && InterpreterUtil.equalObjects(this.instance, it.getInstance()) && InterpreterUtil.equalObjects(this.descriptor, it.getDescriptor()) && this.functype == it.getFunctype() && InterpreterUtil.equalLists(this.lstParameters, it.getLstParameters());
+      } else {
+         return false;
+      }
+   }
+
+   public List getLstParameters() {
+      return this.lstParameters;
+   }
+
+   public void setLstParameters(List lstParameters) {
+      this.lstParameters = lstParameters;
+   }
+
+   public MethodDescriptor getDescriptor() {
+      return this.descriptor;
+   }
+
+   public void setDescriptor(MethodDescriptor descriptor) {
+      this.descriptor = descriptor;
+   }
+
+   public String getClassname() {
+      return this.classname;
+   }
+
+   public void setClassname(String classname) {
+      this.classname = classname;
+   }
+
+   public int getFunctype() {
+      return this.functype;
+   }
+
+   public void setFunctype(int functype) {
+      this.functype = functype;
+   }
+
+   public Exprent getInstance() {
+      return this.instance;
+   }
+
+   public void setInstance(Exprent instance) {
+      this.instance = instance;
+   }
+
+   public boolean isStatic() {
+      return this.isStatic;
+   }
+
+   public void setStatic(boolean isStatic) {
+      this.isStatic = isStatic;
+   }
+
+   public String getName() {
+      return this.name;
+   }
+
+   public void setName(String name) {
+      this.name = name;
+   }
+
+   public String getStringDescriptor() {
+      return this.stringDescriptor;
+   }
+
+   public void setStringDescriptor(String stringDescriptor) {
+      this.stringDescriptor = stringDescriptor;
+   }
+
+   public int getInvocationTyp() {
+      return this.invocationTyp;
+   }
+
+   public String getInvokeDynamicClassSuffix() {
+      return this.invokeDynamicClassSuffix;
+   }
+
+   public boolean match(MatchNode matchNode, MatchEngine engine) {
+      if(!super.match(matchNode, engine)) {
+         return false;
+      } else {
+         Iterator var3 = matchNode.getRules().entrySet().iterator();
+
+         while(var3.hasNext()) {
+            Entry rule = (Entry)var3.next();
+            MatchNode.RuleValue value = (MatchNode.RuleValue)rule.getValue();
+            switch(null.$SwitchMap$regression$fernflower$struct$match$IMatchable$MatchProperties[((IMatchable.MatchProperties)rule.getKey()).ordinal()]) {
+            case 1:
+               if(value.isVariable()) {
+                  if(value.parameter >= this.lstParameters.size()) {
+                     return false;
+                  }
+
+                  if(!engine.checkAndSetVariableValue(value.value.toString(), this.lstParameters.get(value.parameter))) {
+                     return false;
+                  }
+               }
+               break;
+            case 2:
+               if(!value.value.equals(this.classname)) {
+                  return false;
+               }
+               break;
+            case 3:
+               if(!value.value.equals(this.name + this.stringDescriptor)) {
+                  return false;
+               }
+            }
+         }
+
+         return true;
+      }
+   }
+}
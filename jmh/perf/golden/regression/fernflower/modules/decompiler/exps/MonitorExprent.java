@@ -0,0 +1,63 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.util.InterpreterUtil;
+
+public class MonitorExprent extends Exprent {
+   public static final int MONITOR_ENTER = 0;
+   public static final int MONITOR_EXIT = 1;
+   private final int monType;
+   private Exprent value;
+
+   public MonitorExprent(int monType, Exprent value, Set bytecodeOffsets) {
+      super(9);
+      this.monType = monType;
+      this.value = value;
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   public Exprent copy() {
+      return new MonitorExprent(this.monType, this.value.copy(), this.bytecode);
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      lst.add(this.value);
+      return lst;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      tracer.addMapping(this.bytecode);
+      return this.monType == 0 ? this.value.toJava(indent, tracer).enclose("synchronized(", ")") : new TextBuffer();
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      if(oldExpr == this.value) {
+         this.value = newExpr;
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof MonitorExprent) {
+         MonitorExprent me = (MonitorExprent)o;
+         return this.monType == me.getMonType() && InterpreterUtil.equalObjects(this.value, me.getValue());
+      } else {
+         return false;
+      }
+   }
+
+   public int getMonType() {
+      return this.monType;
+   }
+
+   public Exprent getValue() {
+      return this.value;
+   }
+}
@@ -0,0 +1,457 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.ClassWriter;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.vars.CheckTypesResult;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.ListStack;
+
+public class NewExprent extends Exprent {
+   private InvocationExprent constructor;
+   private VarType newType;
+   private List lstDims;
+   private List lstArrayElements;
+   private boolean directArrayInit;
+   private boolean anonymous;
+   private boolean lambda;
+   private boolean enumConst;
+
+   public NewExprent(VarType newType, ListStack stack, int arrayDim, Set bytecodeOffsets) {
+      this(newType, getDimensions(arrayDim, stack), bytecodeOffsets);
+   }
+
+   public NewExprent(VarType newType, List lstDims, Set bytecodeOffsets) {
+      super(10);
+      this.lstDims = new ArrayList();
+      this.lstArrayElements = new ArrayList();
+      this.newType = newType;
+      this.lstDims = lstDims;
+      this.anonymous = false;
+      this.lambda = false;
+      if(newType.type == 8 && newType.arrayDim == 0) {
+         ClassesProcessor.ClassNode node = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(newType.value);
+         if(node != null && (node.type == 2 || node.type == 8)) {
+            this.anonymous = true;
+            if(node.type == 8) {
+               this.lambda = true;
+            }
+         }
+      }
+
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   private static List getDimensions(int arrayDim, ListStack stack) {
+      ArrayList lstDims = new ArrayList();
+
+      for(int i = 0; i < arrayDim; ++i) {
+         lstDims.add(0, (Exprent)stack.pop());
+      }
+
+      return lstDims;
+   }
+
+   public VarType getExprType() {
+      return this.anonymous ? ((ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(this.newType.value)).anonymousClassType : this.newType;
+   }
+
+   public CheckTypesResult checkExprTypeBounds() {
+      CheckTypesResult result = new CheckTypesResult();
+      if(this.newType.arrayDim != 0) {
+         Iterator leftType = this.lstDims.iterator();
+
+         while(leftType.hasNext()) {
+            Exprent dim = (Exprent)leftType.next();
+            result.addMinTypeExprent(dim, VarType.VARTYPE_BYTECHAR);
+            result.addMaxTypeExprent(dim, VarType.VARTYPE_INT);
+         }
+
+         if(this.newType.arrayDim == 1) {
+            VarType leftType1 = this.newType.decreaseArrayDim();
+            Iterator dim1 = this.lstArrayElements.iterator();
+
+            while(dim1.hasNext()) {
+               Exprent element = (Exprent)dim1.next();
+               result.addMinTypeExprent(element, VarType.getMinTypeInFamily(leftType1.typeFamily));
+               result.addMaxTypeExprent(element, leftType1);
+            }
+         }
+      } else if(this.constructor != null) {
+         return this.constructor.checkExprTypeBounds();
+      }
+
+      return result;
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      if(this.newType.arrayDim == 0) {
+         if(this.constructor != null) {
+            Exprent constructor_instance = this.constructor.getInstance();
+            if(constructor_instance != null) {
+               lst.add(constructor_instance);
+            }
+
+            lst.addAll(this.constructor.getLstParameters());
+         }
+      } else {
+         lst.addAll(this.lstDims);
+         lst.addAll(this.lstArrayElements);
+      }
+
+      return lst;
+   }
+
+   public Exprent copy() {
+      ArrayList lst = new ArrayList();
+      Iterator ret = this.lstDims.iterator();
+
+      while(ret.hasNext()) {
+         Exprent expr = (Exprent)ret.next();
+         lst.add(expr.copy());
+      }
+
+      NewExprent ret1 = new NewExprent(this.newType, lst, this.bytecode);
+      ret1.setConstructor(this.constructor == null ? null : (InvocationExprent)this.constructor.copy());
+      ret1.setLstArrayElements(this.lstArrayElements);
+      ret1.setDirectArrayInit(this.directArrayInit);
+      ret1.setAnonymous(this.anonymous);
+      ret1.setEnumConst(this.enumConst);
+      return ret1;
+   }
+
+   public int getPrecedence() {
+      return 1;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buf = new TextBuffer();
+      ClassesProcessor.ClassNode buff;
+      boolean firstParam;
+      int i1;
+      String var17;
+      TextBuffer var24;
+      if(this.anonymous) {
+         ClassesProcessor.ClassNode leftType = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(this.newType.value);
+         buf.append("(");
+         if(!this.lambda && this.constructor != null) {
+            InvocationExprent i = leftType.superInvocation;
+            buff = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(i.getClassname());
+            Object start = null;
+            if(buff != null) {
+               if(buff.getWrapper() != null) {
+                  start = buff.getWrapper().getMethodWrapper("<init>", i.getStringDescriptor()).signatureFields;
+               } else if(buff.type == 1 && (buff.access & 8) == 0 && !this.constructor.getLstParameters().isEmpty()) {
+                  start = new ArrayList(Collections.nCopies(this.constructor.getLstParameters().size(), (VarVersionPair)null));
+                  ((List)start).set(0, new VarVersionPair(-1, 0));
+               }
+            }
+
+            firstParam = true;
+            i1 = 0;
+            int expr = i.getLstParameters().size();
+            if(this.enumConst) {
+               i1 += 2;
+               --expr;
+            }
+
+            for(int leftType1 = i1; leftType1 < expr; ++leftType1) {
+               if(start == null || ((List)start).get(leftType1) == null) {
+                  if(!firstParam) {
+                     buf.append(", ");
+                  }
+
+                  Exprent buff1 = (Exprent)i.getLstParameters().get(leftType1);
+                  if(buff1.type == 12) {
+                     int buff2 = ((VarExprent)buff1).getIndex();
+                     if(buff2 > 0 && buff2 <= this.constructor.getLstParameters().size()) {
+                        buff1 = (Exprent)this.constructor.getLstParameters().get(buff2 - 1);
+                     }
+                  }
+
+                  TextBuffer var31 = new TextBuffer();
+                  ExprProcessor.getCastedExprent(buff1, i.getDescriptor().params[leftType1], var31, indent, true, tracer);
+                  buf.append(var31);
+                  firstParam = false;
+               }
+            }
+         }
+
+         if(!this.enumConst) {
+            var17 = null;
+            if(!this.lambda && this.constructor != null) {
+               var17 = getQualifiedNewInstance(leftType.anonymousClassType.value, this.constructor.getLstParameters(), indent, tracer);
+            }
+
+            String var19 = ExprProcessor.getCastTypeName(leftType.anonymousClassType);
+            if(var17 != null) {
+               ClassesProcessor.ClassNode var26 = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(leftType.anonymousClassType.value);
+               if(var26 != null) {
+                  var19 = var26.simpleName;
+               } else {
+                  var19 = var19.substring(var19.lastIndexOf(46) + 1);
+               }
+            }
+
+            buf.prepend("new " + var19);
+            if(var17 != null) {
+               buf.prepend(var17 + ".");
+            }
+         }
+
+         buf.append(")");
+         if(this.enumConst && buf.length() == 2) {
+            buf.setLength(0);
+         }
+
+         if(this.lambda) {
+            if(!DecompilerContext.getOption("lac")) {
+               buf.setLength(0);
+            }
+
+            Exprent var20 = this.constructor == null ? null : this.constructor.getInstance();
+            var24 = new TextBuffer();
+            (new ClassWriter()).classLambdaToJava(leftType, var24, var20, indent, tracer);
+            buf.append(var24);
+            tracer.incrementCurrentSourceLine(var24.countLines());
+         } else {
+            TextBuffer var21 = new TextBuffer();
+            (new ClassWriter()).classToJava(leftType, var21, indent, tracer);
+            buf.append(var21);
+            tracer.incrementCurrentSourceLine(var21.countLines());
+         }
+      } else {
+         VarType var14;
+         int var22;
+         if(this.directArrayInit) {
+            var14 = this.newType.decreaseArrayDim();
+            buf.append("{");
+
+            for(var22 = 0; var22 < this.lstArrayElements.size(); ++var22) {
+               if(var22 > 0) {
+                  buf.append(", ");
+               }
+
+               ExprProcessor.getCastedExprent((Exprent)this.lstArrayElements.get(var22), var14, buf, indent, false, tracer);
+            }
+
+            buf.append("}");
+         } else if(this.newType.arrayDim == 0) {
+            if(this.constructor != null) {
+               List var15 = this.constructor.getLstParameters();
+               ClassesProcessor.ClassNode var23 = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(this.constructor.getClassname());
+               Object var25 = null;
+               if(var23 != null) {
+                  if(var23.getWrapper() != null) {
+                     var25 = var23.getWrapper().getMethodWrapper("<init>", this.constructor.getStringDescriptor()).signatureFields;
+                  } else if(var23.type == 1 && (var23.access & 8) == 0 && !this.constructor.getLstParameters().isEmpty()) {
+                     var25 = new ArrayList(Collections.nCopies(var15.size(), (VarVersionPair)null));
+                     ((List)var25).set(0, new VarVersionPair(-1, 0));
+                  }
+               }
+
+               int var27 = this.enumConst ? 2 : 0;
+               if(!this.enumConst || var27 < var15.size()) {
+                  buf.append("(");
+                  firstParam = true;
+
+                  for(i1 = var27; i1 < var15.size(); ++i1) {
+                     if(var25 == null || ((List)var25).get(i1) == null) {
+                        Exprent var28 = (Exprent)var15.get(i1);
+                        VarType var29 = this.constructor.getDescriptor().params[i1];
+                        if(i1 == var15.size() - 1 && var28.getExprType() == VarType.VARTYPE_NULL) {
+                           ClassesProcessor.ClassNode var30 = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(var29.value);
+                           if(var30 != null && var30.namelessConstructorStub) {
+                              break;
+                           }
+                        }
+
+                        if(!firstParam) {
+                           buf.append(", ");
+                        }
+
+                        TextBuffer var32 = new TextBuffer();
+                        ExprProcessor.getCastedExprent(var28, var29, var32, indent, true, tracer);
+                        buf.append(var32);
+                        firstParam = false;
+                     }
+                  }
+
+                  buf.append(")");
+               }
+            }
+
+            if(!this.enumConst) {
+               String var16 = null;
+               if(this.constructor != null) {
+                  var16 = getQualifiedNewInstance(this.newType.value, this.constructor.getLstParameters(), indent, tracer);
+               }
+
+               var17 = ExprProcessor.getTypeName(this.newType);
+               if(var16 != null) {
+                  buff = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(this.newType.value);
+                  if(buff != null) {
+                     var17 = buff.simpleName;
+                  } else {
+                     var17 = var17.substring(var17.lastIndexOf(46) + 1);
+                  }
+               }
+
+               buf.prepend("new " + var17);
+               if(var16 != null) {
+                  buf.prepend(var16 + ".");
+               }
+            }
+         } else {
+            buf.append("new ").append(ExprProcessor.getTypeName(this.newType));
+            int var18;
+            if(this.lstArrayElements.isEmpty()) {
+               for(var18 = 0; var18 < this.newType.arrayDim; ++var18) {
+                  buf.append("[");
+                  if(var18 < this.lstDims.size()) {
+                     buf.append(((Exprent)this.lstDims.get(var18)).toJava(indent, tracer));
+                  }
+
+                  buf.append("]");
+               }
+            } else {
+               for(var18 = 0; var18 < this.newType.arrayDim; ++var18) {
+                  buf.append("[]");
+               }
+
+               var14 = this.newType.decreaseArrayDim();
+               buf.append("{");
+
+               for(var22 = 0; var22 < this.lstArrayElements.size(); ++var22) {
+                  if(var22 > 0) {
+                     buf.append(", ");
+                  }
+
+                  var24 = new TextBuffer();
+                  ExprProcessor.getCastedExprent((Exprent)this.lstArrayElements.get(var22), var14, var24, indent, false, tracer);
+                  buf.append(var24);
+               }
+
+               buf.append("}");
+            }
+         }
+      }
+
+      return buf;
+   }
+
+   private static String getQualifiedNewInstance(String classname, List lstParams, int indent, BytecodeMappingTracer tracer) {
+      ClassesProcessor.ClassNode node = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(classname);
+      if(node != null && node.type != 0 && node.type != 4 && (node.access & 8) == 0 && !lstParams.isEmpty()) {
+         Exprent enclosing = (Exprent)lstParams.get(0);
+         boolean isQualifiedNew = false;
+         if(enclosing.type == 12) {
+            VarExprent varEnclosing = (VarExprent)enclosing;
+            StructClass current_class = ((ClassesProcessor.ClassNode)DecompilerContext.getProperty("CURRENT_CLASS_NODE")).classStruct;
+            String this_classname = (String)varEnclosing.getProcessor().getThisVars().get(new VarVersionPair(varEnclosing));
+            if(!current_class.qualifiedName.equals(this_classname)) {
+               isQualifiedNew = true;
+            }
+         } else {
+            isQualifiedNew = true;
+         }
+
+         if(isQualifiedNew) {
+            return enclosing.toJava(indent, tracer).toString();
+         }
+      }
+
+      return null;
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      if(oldExpr == this.constructor) {
+         this.constructor = (InvocationExprent)newExpr;
+      }
+
+      if(this.constructor != null) {
+         this.constructor.replaceExprent(oldExpr, newExpr);
+      }
+
+      int i;
+      for(i = 0; i < this.lstDims.size(); ++i) {
+         if(oldExpr == this.lstDims.get(i)) {
+            this.lstDims.set(i, newExpr);
+         }
+      }
+
+      for(i = 0; i < this.lstArrayElements.size(); ++i) {
+         if(oldExpr == this.lstArrayElements.get(i)) {
+            this.lstArrayElements.set(i, newExpr);
+         }
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof NewExprent) {
+         NewExprent ne = (NewExprent)o;
+         return InterpreterUtil.equalObjects(this.newType, ne.getNewType()) && InterpreterUtil.equalLists(this.lstDims, ne.getLstDims()) && InterpreterUtil.equalObjects(this.constructor, ne.getConstructor()) && this.directArrayInit == ne.directArrayInit && InterpreterUtil.equalLists(this.lstArrayElements, ne.getLstArrayElements());
+      } else {
+         return false;
+      }
+   }
+
+   public InvocationExprent getConstructor() {
+      return this.constructor;
+   }
+
+   public void setConstructor(InvocationExprent constructor) {
+      this.constructor = constructor;
+   }
+
+   public List getLstDims() {
+      return this.lstDims;
+   }
+
+   public VarType getNewType() {
+      return this.newType;
+   }
+
+   public List getLstArrayElements() {
+      return this.lstArrayElements;
+   }
+
+   public void setLstArrayElements(List lstArrayElements) {
+      this.lstArrayElements = lstArrayElements;
+   }
+
+   public void setDirectArrayInit(boolean directArrayInit) {
+      this.directArrayInit = directArrayInit;
+   }
+
+   public boolean isLambda() {
+      return this.lambda;
+   }
+
+   public boolean isAnonymous() {
+      return this.anonymous;
+   }
+
+   public void setAnonymous(boolean anonymous) {
+      this.anonymous = anonymous;
+   }
+
+   public void setEnumConst(boolean enumConst) {
+      this.enumConst = enumConst;
+   }
+}
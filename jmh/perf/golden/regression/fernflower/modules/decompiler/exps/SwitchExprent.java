@@ -0,0 +1,103 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.vars.CheckTypesResult;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.InterpreterUtil;
+
+public class SwitchExprent extends Exprent {
+   private Exprent value;
+   private List caseValues = new ArrayList();
+
+   public SwitchExprent(Exprent value, Set bytecodeOffsets) {
+      super(11);
+      this.value = value;
+      this.addBytecodeOffsets(bytecodeOffsets);
+   }
+
+   public Exprent copy() {
+      SwitchExprent swExpr = new SwitchExprent(this.value.copy(), this.bytecode);
+      ArrayList lstCaseValues = new ArrayList();
+      Iterator var3 = this.caseValues.iterator();
+
+      while(var3.hasNext()) {
+         List lst = (List)var3.next();
+         lstCaseValues.add(new ArrayList(lst));
+      }
+
+      swExpr.setCaseValues(lstCaseValues);
+      return swExpr;
+   }
+
+   public VarType getExprType() {
+      return this.value.getExprType();
+   }
+
+   public CheckTypesResult checkExprTypeBounds() {
+      CheckTypesResult result = new CheckTypesResult();
+      result.addMinTypeExprent(this.value, VarType.VARTYPE_BYTECHAR);
+      result.addMaxTypeExprent(this.value, VarType.VARTYPE_INT);
+      VarType valType = this.value.getExprType();
+      Iterator var3 = this.caseValues.iterator();
+
+      while(var3.hasNext()) {
+         List lst = (List)var3.next();
+         Iterator var5 = lst.iterator();
+
+         while(var5.hasNext()) {
+            ConstExprent expr = (ConstExprent)var5.next();
+            if(expr != null) {
+               VarType caseType = expr.getExprType();
+               if(!caseType.equals(valType)) {
+                  valType = VarType.getCommonSupertype(caseType, valType);
+                  result.addMinTypeExprent(this.value, valType);
+               }
+            }
+         }
+      }
+
+      return result;
+   }
+
+   public List getAllExprents() {
+      ArrayList lst = new ArrayList();
+      lst.add(this.value);
+      return lst;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      tracer.addMapping(this.bytecode);
+      return this.value.toJava(indent, tracer).enclose("switch(", ")");
+   }
+
+   public void replaceExprent(Exprent oldExpr, Exprent newExpr) {
+      if(oldExpr == this.value) {
+         this.value = newExpr;
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof SwitchExprent) {
+         SwitchExprent sw = (SwitchExprent)o;
+         return InterpreterUtil.equalObjects(this.value, sw.getValue());
+      } else {
+         return false;
+      }
+   }
+
+   public Exprent getValue() {
+      return this.value;
+   }
+
+   public void setCaseValues(List caseValues) {
+      this.caseValues = caseValues;
+   }
+}
@@ -0,0 +1,179 @@
+package regression.fernflower.modules.decompiler.exps;
+
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.main.ClassWriter;
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.struct.match.IMatchable;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.struct.match.MatchNode;
+import regression.fernflower.util.InterpreterUtil;
+
+public class VarExprent extends Exprent {
+   public static final int STACK_BASE = 10000;
+   public static final String VAR_NAMELESS_ENCLOSURE = "<VAR_NAMELESS_ENCLOSURE>";
+   private int index;
+   private VarType varType;
+   private boolean definition = false;
+   private VarProcessor processor;
+   private int version = 0;
+   private boolean classDef = false;
+   private boolean stack = false;
+
+   public VarExprent(int index, VarType varType, VarProcessor processor) {
+      super(12);
+      this.index = index;
+      this.varType = varType;
+      this.processor = processor;
+   }
+
+   public VarType getExprType() {
+      return this.getVarType();
+   }
+
+   public int getExprentUse() {
+      return 3;
+   }
+
+   public List getAllExprents() {
+      return new ArrayList();
+   }
+
+   public Exprent copy() {
+      VarExprent var = new VarExprent(this.index, this.getVarType(), this.processor);
+      var.setDefinition(this.definition);
+      var.setVersion(this.version);
+      var.setClassDef(this.classDef);
+      var.setStack(this.stack);
+      return var;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buffer = new TextBuffer();
+      tracer.addMapping(this.bytecode);
+      if(this.classDef) {
+         ClassesProcessor.ClassNode name = (ClassesProcessor.ClassNode)DecompilerContext.getClassProcessor().getMapRootClasses().get(this.varType.value);
+         (new ClassWriter()).classToJava(name, buffer, indent, tracer);
+         tracer.incrementCurrentSourceLine(buffer.countLines());
+      } else {
+         String name1 = null;
+         if(this.processor != null) {
+            name1 = this.processor.getVarName(new VarVersionPair(this.index, this.version));
+         }
+
+         if(this.definition) {
+            if(this.processor != null && this.processor.getVarFinal(new VarVersionPair(this.index, this.version)) == 2) {
+               buffer.append("final ");
+            }
+
+            buffer.append(ExprProcessor.getCastTypeName(this.getVarType())).append(" ");
+         }
+
+         buffer.append(name1 == null ? "var" + this.index + (this.version == 0 ? "" : "_" + this.version) : name1);
+      }
+
+      return buffer;
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof VarExprent) {
+         VarExprent ve = (VarExprent)o;
+         return this.index == ve.getIndex() && this.version == ve.getVersion() && InterpreterUtil.equalObjects(this.getVarType(), ve.getVarType());
+      } else {
+         return false;
+      }
+   }
+
+   public int getIndex() {
+      return this.index;
+   }
+
+   public void setIndex(int index) {
+      this.index = index;
+   }
+
+   public VarType getVarType() {
+      VarType vt = null;
+      if(this.processor != null) {
+         vt = this.processor.getVarType(new VarVersionPair(this.index, this.version));
+      }
+
+      if(vt == null || this.varType != null && this.varType.type != 17) {
+         vt = this.varType;
+      }
+
+      return vt == null ? VarType.VARTYPE_UNKNOWN : vt;
+   }
+
+   public void setVarType(VarType varType) {
+      this.varType = varType;
+   }
+
+   public boolean isDefinition() {
+      return this.definition;
+   }
+
+   public void setDefinition(boolean definition) {
+      this.definition = definition;
+   }
+
+   public VarProcessor getProcessor() {
+      return this.processor;
+   }
+
+   public void setProcessor(VarProcessor processor) {
+      this.processor = processor;
+   }
+
+   public int getVersion() {
+      return this.version;
+   }
+
+   public void setVersion(int version) {
+      this.version = version;
+   }
+
+   public boolean isClassDef() {
+      return this.classDef;
+   }
+
+   public void setClassDef(boolean classDef) {
+      this.classDef = classDef;
+   }
+
+   public boolean isStack() {
+      return this.stack;
+   }
+
+   public void setStack(boolean stack) {
+      this.stack = stack;
+   }
+
+   public boolean match(MatchNode matchNode, MatchEngine engine) {
+      if(!super.match(matchNode, engine)) {
+         return false;
+      } else {
+         MatchNode.RuleValue rule = (MatchNode.RuleValue)matchNode.getRules().get(IMatchable.MatchProperties.EXPRENT_VAR_INDEX);
+         if(rule != null) {
+            if(rule.isVariable()) {
+               if(!engine.checkAndSetVariableValue((String)rule.value, Integer.valueOf(this.index))) {
+                  return false;
+               }
+            } else if(this.index != Integer.valueOf((String)rule.value).intValue()) {
+               return false;
+            }
+         }
+
+         return true;
+      }
+   }
+}
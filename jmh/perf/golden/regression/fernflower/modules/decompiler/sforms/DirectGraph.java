@@ -0,0 +1,100 @@
+package regression.fernflower.modules.decompiler.sforms;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.util.VBStyleCollection;
+
+public class DirectGraph {
+   public VBStyleCollection nodes = new VBStyleCollection();
+   public DirectNode first;
+   public HashMap mapShortRangeFinallyPaths = new HashMap();
+   public HashMap mapLongRangeFinallyPaths = new HashMap();
+   public HashMap mapNegIfBranch = new HashMap();
+   public HashMap mapFinallyMonitorExceptionPathExits = new HashMap();
+
+   public void sortReversePostOrder() {
+      LinkedList res = new LinkedList();
+      addToReversePostOrderListIterative(this.first, res);
+      this.nodes.clear();
+      Iterator var2 = res.iterator();
+
+      while(var2.hasNext()) {
+         DirectNode node = (DirectNode)var2.next();
+         this.nodes.addWithKey(node, node.id);
+      }
+
+   }
+
+   private static void addToReversePostOrderListIterative(DirectNode root, List lst) {
+      LinkedList stackNode = new LinkedList();
+      LinkedList stackIndex = new LinkedList();
+      HashSet setVisited = new HashSet();
+      stackNode.add(root);
+      stackIndex.add(Integer.valueOf(0));
+
+      while(!stackNode.isEmpty()) {
+         DirectNode node = (DirectNode)stackNode.getLast();
+         int index = ((Integer)stackIndex.removeLast()).intValue();
+         setVisited.add(node);
+
+         while(index < node.succs.size()) {
+            DirectNode succ = (DirectNode)node.succs.get(index);
+            if(!setVisited.contains(succ)) {
+               stackIndex.add(Integer.valueOf(index + 1));
+               stackNode.add(succ);
+               stackIndex.add(Integer.valueOf(0));
+               break;
+            }
+
+            ++index;
+         }
+
+         if(index == node.succs.size()) {
+            lst.add(0, node);
+            stackNode.removeLast();
+         }
+      }
+
+   }
+
+   public boolean iterateExprents(DirectGraph.ExprentIterator iter) {
+      LinkedList stack = new LinkedList();
+      stack.add(this.first);
+      HashSet setVisited = new HashSet();
+
+      while(true) {
+         DirectNode node;
+         do {
+            if(stack.isEmpty()) {
+               return true;
+            }
+
+            node = (DirectNode)stack.removeFirst();
+         } while(setVisited.contains(node));
+
+         setVisited.add(node);
+
+         for(int i = 0; i < node.exprents.size(); ++i) {
+            int res = iter.processExprent((Exprent)node.exprents.get(i));
+            if(res == 1) {
+               return false;
+            }
+
+            if(res == 2) {
+               node.exprents.remove(i);
+               --i;
+            }
+         }
+
+         stack.addAll(node.succs);
+      }
+   }
+
+   public interface ExprentIterator {
+      int processExprent(Exprent var1);
+   }
+}
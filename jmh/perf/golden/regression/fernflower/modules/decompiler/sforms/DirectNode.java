@@ -0,0 +1,39 @@
+package regression.fernflower.modules.decompiler.sforms;
+
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+
+public class DirectNode {
+   public static final int NODE_DIRECT = 1;
+   public static final int NODE_TAIL = 2;
+   public static final int NODE_INIT = 3;
+   public static final int NODE_CONDITION = 4;
+   public static final int NODE_INCREMENT = 5;
+   public static final int NODE_TRY = 6;
+   public int type;
+   public String id;
+   public BasicBlockStatement block;
+   public Statement statement;
+   public List exprents = new ArrayList();
+   public List succs = new ArrayList();
+   public List preds = new ArrayList();
+
+   public DirectNode(int type, Statement statement, String id) {
+      this.type = type;
+      this.statement = statement;
+      this.id = id;
+   }
+
+   public DirectNode(int type, Statement statement, BasicBlockStatement block) {
+      this.type = type;
+      this.statement = statement;
+      this.id = block.id.toString();
+      this.block = block;
+   }
+
+   public String toString() {
+      return this.id;
+   }
+}
@@ -0,0 +1,480 @@
+package regression.fernflower.modules.decompiler.sforms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.CatchAllStatement;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.stats.SwitchStatement;
+import regression.fernflower.modules.decompiler.stats.SynchronizedStatement;
+
+public class FlattenStatementsHelper {
+   private Map mapDestinationNodes = new HashMap();
+   private List listEdges = new ArrayList();
+   private Map mapShortRangeFinallyPathIds = new HashMap();
+   private Map mapLongRangeFinallyPathIds = new HashMap();
+   private Map mapPosIfBranch = new HashMap();
+   private DirectGraph graph;
+   private RootStatement root;
+
+   public DirectGraph buildDirectGraph(RootStatement root) {
+      this.root = root;
+      this.graph = new DirectGraph();
+      this.flattenStatement();
+      Statement dummyexit = root.getDummyExit();
+      DirectNode node = new DirectNode(1, dummyexit, dummyexit.id.toString());
+      node.exprents = new ArrayList();
+      this.graph.nodes.addWithKey(node, node.id);
+      this.mapDestinationNodes.put(dummyexit.id, new String[]{node.id, null});
+      this.setEdges();
+      this.graph.first = (DirectNode)this.graph.nodes.getWithKey(((String[])this.mapDestinationNodes.get(root.id))[0]);
+      this.graph.sortReversePostOrder();
+      return this.graph;
+   }
+
+   private void flattenStatement() {
+      LinkedList lstStackStatements = new LinkedList();
+      class StatementStackEntry {
+         public Statement statement;
+         public LinkedList stackFinally;
+         public List tailExprents;
+         public int statementIndex;
+         public int edgeIndex;
+         public List succEdges;
+
+         public StatementStackEntry(Statement statement, LinkedList stackFinally, List tailExprents) {
+            this.statement = statement;
+            this.stackFinally = stackFinally;
+            this.tailExprents = tailExprents;
+         }
+      }
+
+      lstStackStatements.add(new StatementStackEntry(this.root, new LinkedList(), (List)null));
+
+      while(true) {
+         label223:
+         while(!lstStackStatements.isEmpty()) {
+            StatementStackEntry statEntry = (StatementStackEntry)lstStackStatements.removeFirst();
+            Statement stat = statEntry.statement;
+            LinkedList stackFinally = statEntry.stackFinally;
+            int statementBreakIndex = statEntry.statementIndex;
+            Object lstSuccEdges = new ArrayList();
+            DirectNode sourcenode = null;
+            LinkedList stack;
+            Statement destination;
+            DirectNode finallyLongRangeSource;
+            DirectNode var29;
+            if(statEntry.succEdges == null) {
+               DirectNode node;
+               DirectNode edge;
+               label217:
+               switch(stat.type) {
+               case 2:
+               case 6:
+               case 10:
+               case 13:
+               case 15:
+                  int var33 = stat.getStats().size();
+                  if(stat.type == 10) {
+                     var33 = 2;
+                  }
+
+                  if(statementBreakIndex <= var33) {
+                     List var32 = null;
+                     switch(stat.type) {
+                     case 2:
+                        var32 = ((IfStatement)stat).getHeadexprentList();
+                        break;
+                     case 6:
+                        var32 = ((SwitchStatement)stat).getHeadexprentList();
+                        break;
+                     case 10:
+                        var32 = ((SynchronizedStatement)stat).getHeadexprentList();
+                     }
+
+                     if(statementBreakIndex < var33) {
+                        statEntry.statementIndex = statementBreakIndex + 1;
+                        lstStackStatements.addFirst(statEntry);
+                        lstStackStatements.addFirst(new StatementStackEntry((Statement)stat.getStats().get(statementBreakIndex), stackFinally, statementBreakIndex == 0 && var32 != null && var32.get(0) != null ? var32 : null));
+                        continue;
+                     }
+
+                     node = (DirectNode)this.graph.nodes.getWithKey(((String[])this.mapDestinationNodes.get(stat.getFirst().id))[0]);
+                     this.mapDestinationNodes.put(stat.id, new String[]{node.id, null});
+                     if(stat.type == 2 && ((IfStatement)stat).iftype == 0) {
+                        ((List)lstSuccEdges).add((StatEdge)stat.getSuccessorEdges(1073741824).get(0));
+                        sourcenode = var32.get(0) == null ? node : (DirectNode)this.graph.nodes.getWithKey(node.id + "_tail");
+                     }
+                  }
+               case 3:
+               case 4:
+               case 9:
+               case 11:
+               case 14:
+               default:
+                  break;
+               case 5:
+                  if(statementBreakIndex == 0) {
+                     statEntry.statementIndex = 1;
+                     lstStackStatements.addFirst(statEntry);
+                     lstStackStatements.addFirst(new StatementStackEntry(stat.getFirst(), stackFinally, (List)null));
+                     continue;
+                  }
+
+                  DirectNode nd = (DirectNode)this.graph.nodes.getWithKey(((String[])this.mapDestinationNodes.get(stat.getFirst().id))[0]);
+                  DoStatement var26 = (DoStatement)stat;
+                  int var28 = var26.getLooptype();
+                  if(var28 == 0) {
+                     this.mapDestinationNodes.put(stat.id, new String[]{nd.id, nd.id});
+                  } else {
+                     ((List)lstSuccEdges).add((StatEdge)stat.getSuccessorEdges(1073741824).get(0));
+                     switch(var28) {
+                     case 1:
+                     case 2:
+                        node = new DirectNode(4, stat, stat.id + "_cond");
+                        node.exprents = var26.getConditionExprentList();
+                        this.graph.nodes.putWithKey(node, node.id);
+                        this.listEdges.add(new FlattenStatementsHelper.Edge(node.id, stat.getFirst().id, 1));
+                        if(var28 == 2) {
+                           this.mapDestinationNodes.put(stat.id, new String[]{node.id, node.id});
+                        } else {
+                           this.mapDestinationNodes.put(stat.id, new String[]{nd.id, node.id});
+                           boolean var30 = false;
+                           Iterator var31 = this.listEdges.iterator();
+
+                           while(var31.hasNext()) {
+                              FlattenStatementsHelper.Edge var34 = (FlattenStatementsHelper.Edge)var31.next();
+                              if(var34.statid.equals(stat.id) && var34.edgetype == 8) {
+                                 var30 = true;
+                                 break;
+                              }
+                           }
+
+                           if(!var30) {
+                              this.listEdges.add(new FlattenStatementsHelper.Edge(nd.id, stat.id, 8));
+                           }
+                        }
+
+                        sourcenode = node;
+                        break label217;
+                     case 3:
+                        var29 = new DirectNode(3, stat, stat.id + "_init");
+                        if(var26.getInitExprent() != null) {
+                           var29.exprents = var26.getInitExprentList();
+                        }
+
+                        this.graph.nodes.putWithKey(var29, var29.id);
+                        finallyLongRangeSource = new DirectNode(4, stat, stat.id + "_cond");
+                        finallyLongRangeSource.exprents = var26.getConditionExprentList();
+                        this.graph.nodes.putWithKey(finallyLongRangeSource, finallyLongRangeSource.id);
+                        DirectNode finallyShortRangeEntry = new DirectNode(5, stat, stat.id + "_inc");
+                        finallyShortRangeEntry.exprents = var26.getIncExprentList();
+                        this.graph.nodes.putWithKey(finallyShortRangeEntry, finallyShortRangeEntry.id);
+                        this.mapDestinationNodes.put(stat.id, new String[]{var29.id, finallyShortRangeEntry.id});
+                        this.mapDestinationNodes.put(Integer.valueOf(-stat.id.intValue()), new String[]{finallyLongRangeSource.id, null});
+                        this.listEdges.add(new FlattenStatementsHelper.Edge(finallyLongRangeSource.id, stat.getFirst().id, 1));
+                        this.listEdges.add(new FlattenStatementsHelper.Edge(var29.id, Integer.valueOf(-stat.id.intValue()), 1));
+                        this.listEdges.add(new FlattenStatementsHelper.Edge(finallyShortRangeEntry.id, Integer.valueOf(-stat.id.intValue()), 1));
+                        boolean finallyLongRangeEntry = false;
+                        Iterator isFinallyMonitorExceptionPath = this.listEdges.iterator();
+
+                        while(isFinallyMonitorExceptionPath.hasNext()) {
+                           FlattenStatementsHelper.Edge isFinallyExit = (FlattenStatementsHelper.Edge)isFinallyMonitorExceptionPath.next();
+                           if(isFinallyExit.statid.equals(stat.id) && isFinallyExit.edgetype == 8) {
+                              finallyLongRangeEntry = true;
+                              break;
+                           }
+                        }
+
+                        if(!finallyLongRangeEntry) {
+                           this.listEdges.add(new FlattenStatementsHelper.Edge(nd.id, stat.id, 8));
+                        }
+
+                        sourcenode = finallyLongRangeSource;
+                     }
+                  }
+                  break;
+               case 7:
+               case 12:
+                  edge = new DirectNode(6, stat, stat.id + "_try");
+                  this.mapDestinationNodes.put(stat.id, new String[]{edge.id, null});
+                  this.graph.nodes.putWithKey(edge, edge.id);
+                  stack = new LinkedList();
+
+                  LinkedList finallyShortRangeSource;
+                  for(Iterator edgetype = stat.getStats().iterator(); edgetype.hasNext(); stack.add(new StatementStackEntry(destination, finallyShortRangeSource, (List)null))) {
+                     destination = (Statement)edgetype.next();
+                     this.listEdges.add(new FlattenStatementsHelper.Edge(edge.id, destination.id, 1));
+                     finallyShortRangeSource = stackFinally;
+                     if(stat.type == 12 && ((CatchAllStatement)stat).isFinally()) {
+                        finallyShortRangeSource = new LinkedList(stackFinally);
+                        if(destination == stat.getFirst()) {
+                           finallyShortRangeSource.add(new FlattenStatementsHelper.StackEntry((CatchAllStatement)stat, Boolean.FALSE.booleanValue()));
+                        } else {
+                           finallyShortRangeSource.add(new FlattenStatementsHelper.StackEntry((CatchAllStatement)stat, Boolean.TRUE.booleanValue(), 4, this.root.getDummyExit(), destination, destination, edge, edge, true));
+                        }
+                     }
+                  }
+
+                  lstStackStatements.addAll(0, stack);
+                  break;
+               case 8:
+                  node = new DirectNode(1, stat, (BasicBlockStatement)stat);
+                  if(stat.getExprents() != null) {
+                     node.exprents = stat.getExprents();
+                  }
+
+                  this.graph.nodes.putWithKey(node, node.id);
+                  this.mapDestinationNodes.put(stat.id, new String[]{node.id, null});
+                  ((List)lstSuccEdges).addAll(stat.getSuccessorEdges(1073741824));
+                  sourcenode = node;
+                  List edgeindex = statEntry.tailExprents;
+                  if(edgeindex != null) {
+                     edge = new DirectNode(2, stat, stat.id + "_tail");
+                     edge.exprents = edgeindex;
+                     this.graph.nodes.putWithKey(edge, edge.id);
+                     this.mapDestinationNodes.put(Integer.valueOf(-stat.id.intValue()), new String[]{edge.id, null});
+                     this.listEdges.add(new FlattenStatementsHelper.Edge(node.id, Integer.valueOf(-stat.id.intValue()), 1));
+                     sourcenode = edge;
+                  }
+
+                  if(stat.getLastBasicType() == 0) {
+                     this.mapPosIfBranch.put(sourcenode.id, ((StatEdge)((List)lstSuccEdges).get(0)).getDestination().id);
+                  }
+               }
+            }
+
+            if(sourcenode != null) {
+               if(statEntry.succEdges != null) {
+                  lstSuccEdges = statEntry.succEdges;
+               }
+
+               for(int var24 = statEntry.edgeIndex; var24 < ((List)lstSuccEdges).size(); ++var24) {
+                  StatEdge var25 = (StatEdge)((List)lstSuccEdges).get(var24);
+                  stack = new LinkedList(stackFinally);
+                  int var27 = var25.getType();
+                  destination = var25.getDestination();
+                  var29 = sourcenode;
+                  finallyLongRangeSource = sourcenode;
+                  Statement var35 = null;
+                  Statement var36 = null;
+                  boolean var37 = false;
+                  boolean var38 = false;
+
+                  boolean created;
+                  do {
+                     FlattenStatementsHelper.StackEntry entry = null;
+                     if(!stack.isEmpty()) {
+                        entry = (FlattenStatementsHelper.StackEntry)stack.getLast();
+                     }
+
+                     created = true;
+                     if(entry == null) {
+                        this.saveEdge(sourcenode, destination, var27, var38 ? var29 : null, finallyLongRangeSource, var35, var36, var37);
+                     } else {
+                        CatchAllStatement catchall = entry.catchstatement;
+                        if(entry.state) {
+                           if(var27 == 32) {
+                              stack.removeLast();
+                              destination = entry.destination;
+                              var27 = entry.edgetype;
+                              var29 = entry.finallyShortRangeSource;
+                              finallyLongRangeSource = entry.finallyLongRangeSource;
+                              var35 = entry.finallyShortRangeEntry;
+                              var36 = entry.finallyLongRangeEntry;
+                              var38 = true;
+                              var37 = catchall.getMonitor() != null & entry.isFinallyExceptionPath;
+                              created = false;
+                           } else if(!catchall.containsStatementStrict(destination)) {
+                              stack.removeLast();
+                              created = false;
+                           } else {
+                              this.saveEdge(sourcenode, destination, var27, var38 ? var29 : null, finallyLongRangeSource, var35, var36, var37);
+                           }
+                        } else {
+                           if(!catchall.containsStatementStrict(destination)) {
+                              this.saveEdge(sourcenode, catchall.getHandler(), 1, var38 ? var29 : null, finallyLongRangeSource, var35, var36, var37);
+                              stack.removeLast();
+                              stack.add(new FlattenStatementsHelper.StackEntry(catchall, Boolean.TRUE.booleanValue(), var27, destination, catchall.getHandler(), var36 == null ? catchall.getHandler() : var36, sourcenode, finallyLongRangeSource, false));
+                              statEntry.edgeIndex = var24 + 1;
+                              statEntry.succEdges = (List)lstSuccEdges;
+                              lstStackStatements.addFirst(statEntry);
+                              lstStackStatements.addFirst(new StatementStackEntry(catchall.getHandler(), stack, (List)null));
+                              continue label223;
+                           }
+
+                           this.saveEdge(sourcenode, destination, var27, var38 ? var29 : null, finallyLongRangeSource, var35, var36, var37);
+                        }
+                     }
+                  } while(!created);
+               }
+            }
+         }
+
+         return;
+      }
+   }
+
+   private void saveEdge(DirectNode sourcenode, Statement destination, int edgetype, DirectNode finallyShortRangeSource, DirectNode finallyLongRangeSource, Statement finallyShortRangeEntry, Statement finallyLongRangeEntry, boolean isFinallyMonitorExceptionPath) {
+      if(edgetype != 32) {
+         this.listEdges.add(new FlattenStatementsHelper.Edge(sourcenode.id, destination.id, edgetype));
+      }
+
+      if(finallyShortRangeSource != null) {
+         boolean isContinueEdge = edgetype == 8;
+         Object lst = (List)this.mapShortRangeFinallyPathIds.get(sourcenode.id);
+         if(lst == null) {
+            this.mapShortRangeFinallyPathIds.put(sourcenode.id, lst = new ArrayList());
+         }
+
+         ((List)lst).add(new String[]{finallyShortRangeSource.id, destination.id.toString(), finallyShortRangeEntry.id.toString(), isFinallyMonitorExceptionPath ? "1" : null, isContinueEdge ? "1" : null});
+         lst = (List)this.mapLongRangeFinallyPathIds.get(sourcenode.id);
+         if(lst == null) {
+            this.mapLongRangeFinallyPathIds.put(sourcenode.id, lst = new ArrayList());
+         }
+
+         ((List)lst).add(new String[]{finallyLongRangeSource.id, destination.id.toString(), finallyLongRangeEntry.id.toString(), isContinueEdge ? "1" : null});
+      }
+
+   }
+
+   private void setEdges() {
+      Iterator i = this.listEdges.iterator();
+
+      while(i.hasNext()) {
+         FlattenStatementsHelper.Edge edge = (FlattenStatementsHelper.Edge)i.next();
+         String ent = edge.sourceid;
+         Integer newLst = edge.statid;
+         DirectNode lst = (DirectNode)this.graph.nodes.getWithKey(ent);
+         DirectNode dest = (DirectNode)this.graph.nodes.getWithKey(((String[])this.mapDestinationNodes.get(newLst))[edge.edgetype == 8 ? 1 : 0]);
+         if(!lst.succs.contains(dest)) {
+            lst.succs.add(dest);
+         }
+
+         if(!dest.preds.contains(lst)) {
+            dest.preds.add(lst);
+         }
+
+         if(this.mapPosIfBranch.containsKey(ent) && !newLst.equals(this.mapPosIfBranch.get(ent))) {
+            this.graph.mapNegIfBranch.put(ent, dest.id);
+         }
+      }
+
+      for(int var11 = 0; var11 < 2; ++var11) {
+         Iterator var12 = (var11 == 0 ? this.mapShortRangeFinallyPathIds : this.mapLongRangeFinallyPathIds).entrySet().iterator();
+
+         while(var12.hasNext()) {
+            Entry var13 = (Entry)var12.next();
+            ArrayList var14 = new ArrayList();
+            List var15 = (List)var13.getValue();
+            Iterator var16 = var15.iterator();
+
+            while(var16.hasNext()) {
+               String[] arr = (String[])var16.next();
+               boolean isContinueEdge = arr[var11 == 0 ? 4 : 3] != null;
+               DirectNode dest1 = (DirectNode)this.graph.nodes.getWithKey(((String[])this.mapDestinationNodes.get(Integer.valueOf(Integer.parseInt(arr[1]))))[isContinueEdge ? 1 : 0]);
+               DirectNode enter = (DirectNode)this.graph.nodes.getWithKey(((String[])this.mapDestinationNodes.get(Integer.valueOf(Integer.parseInt(arr[2]))))[0]);
+               var14.add(new FlattenStatementsHelper.FinallyPathWrapper(arr[0], dest1.id, enter.id, null));
+               if(var11 == 0 && arr[3] != null) {
+                  this.graph.mapFinallyMonitorExceptionPathExits.put((String)var13.getKey(), dest1.id);
+               }
+            }
+
+            if(!var14.isEmpty()) {
+               (var11 == 0 ? this.graph.mapShortRangeFinallyPaths : this.graph.mapLongRangeFinallyPaths).put((String)var13.getKey(), new ArrayList(new HashSet(var14)));
+            }
+         }
+      }
+
+   }
+
+   public Map getMapDestinationNodes() {
+      return this.mapDestinationNodes;
+   }
+
+   private static class Edge {
+      public String sourceid;
+      public Integer statid;
+      public int edgetype;
+
+      public Edge(String sourceid, Integer statid, int edgetype) {
+         this.sourceid = sourceid;
+         this.statid = statid;
+         this.edgetype = edgetype;
+      }
+   }
+
+   private static class StackEntry {
+      public CatchAllStatement catchstatement;
+      public boolean state;
+      public int edgetype;
+      public boolean isFinallyExceptionPath;
+      public Statement destination;
+      public Statement finallyShortRangeEntry;
+      public Statement finallyLongRangeEntry;
+      public DirectNode finallyShortRangeSource;
+      public DirectNode finallyLongRangeSource;
+
+      public StackEntry(CatchAllStatement catchstatement, boolean state, int edgetype, Statement destination, Statement finallyShortRangeEntry, Statement finallyLongRangeEntry, DirectNode finallyShortRangeSource, DirectNode finallyLongRangeSource, boolean isFinallyExceptionPath) {
+         this.catchstatement = catchstatement;
+         this.state = state;
+         this.edgetype = edgetype;
+         this.isFinallyExceptionPath = isFinallyExceptionPath;
+         this.destination = destination;
+         this.finallyShortRangeEntry = finallyShortRangeEntry;
+         this.finallyLongRangeEntry = finallyLongRangeEntry;
+         this.finallyShortRangeSource = finallyShortRangeSource;
+         this.finallyLongRangeSource = finallyLongRangeSource;
+      }
+
+      public StackEntry(CatchAllStatement catchstatement, boolean state) {
+         this(catchstatement, state, -1, (Statement)null, (Statement)null, (Statement)null, (DirectNode)null, (DirectNode)null, false);
+      }
+   }
+
+   public static class FinallyPathWrapper {
+      public String source;
+      public String destination;
+      public String entry;
+
+      private FinallyPathWrapper(String source, String destination, String entry) {
+         this.source = source;
+         this.destination = destination;
+         this.entry = entry;
+      }
+
+      public boolean equals(Object o) {
+         if(o == this) {
+            return true;
+         } else if(o != null && o instanceof FlattenStatementsHelper.FinallyPathWrapper) {
+            FlattenStatementsHelper.FinallyPathWrapper fpw = (FlattenStatementsHelper.FinallyPathWrapper)o;
+            return (this.source + ":" + this.destination + ":" + this.entry).equals(fpw.source + ":" + fpw.destination + ":" + fpw.entry);
+         } else {
+            return false;
+         }
+      }
+
+      public int hashCode() {
+         return (this.source + ":" + this.destination + ":" + this.entry).hashCode();
+      }
+
+      public String toString() {
+         return this.source + "->(" + this.entry + ")->" + this.destination;
+      }
+
+      // $FF: synthetic method
+      FinallyPathWrapper(String x0, String x1, String x2, Object x3) {
+         this(x0, x1, x2);
+      }
+   }
+}
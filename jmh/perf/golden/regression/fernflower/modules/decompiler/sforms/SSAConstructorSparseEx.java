@@ -0,0 +1,416 @@
+package regression.fernflower.modules.decompiler.sforms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.stats.CatchAllStatement;
+import regression.fernflower.modules.decompiler.stats.CatchStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.util.FastSparseSetFactory;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.SFormsFastMapDirect;
+
+public class SSAConstructorSparseEx {
+   private HashMap inVarVersions = new HashMap();
+   private HashMap outVarVersions = new HashMap();
+   private HashMap outNegVarVersions = new HashMap();
+   private HashMap extraVarVersions = new HashMap();
+   private HashMap phi = new HashMap();
+   private HashMap lastversion = new HashMap();
+   private List startVars = new ArrayList();
+   private FastSparseSetFactory factory;
+
+   public void splitVariables(RootStatement root, StructMethod mt) {
+      FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
+      DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+      HashSet setInit = new HashSet();
+
+      for(int firstmap = 0; firstmap < 64; ++firstmap) {
+         setInit.add(Integer.valueOf(firstmap));
+      }
+
+      this.factory = new FastSparseSetFactory(setInit);
+      SFormsFastMapDirect var8 = this.createFirstMap(mt);
+      this.extraVarVersions.put(dgraph.first.id, var8);
+      this.setCatchMaps(root, dgraph, flatthelper);
+      HashSet updated = new HashSet();
+
+      do {
+         this.ssaStatements(dgraph, updated);
+      } while(!updated.isEmpty());
+
+   }
+
+   private void ssaStatements(DirectGraph dgraph, HashSet updated) {
+      Iterator var3 = dgraph.nodes.iterator();
+
+      while(true) {
+         DirectNode node;
+         SFormsFastMapDirect[] varmaparr;
+         boolean this_updated1;
+         do {
+            if(!var3.hasNext()) {
+               return;
+            }
+
+            node = (DirectNode)var3.next();
+            updated.remove(node.id);
+            this.mergeInVarMaps(node, dgraph);
+            SFormsFastMapDirect varmap = (SFormsFastMapDirect)this.inVarVersions.get(node.id);
+            varmap = new SFormsFastMapDirect(varmap);
+            varmaparr = new SFormsFastMapDirect[]{varmap, null};
+            if(node.exprents != null) {
+               Iterator this_updated = node.exprents.iterator();
+
+               while(this_updated.hasNext()) {
+                  Exprent expr = (Exprent)this_updated.next();
+                  this.processExprent(expr, varmaparr);
+               }
+            }
+
+            if(varmaparr[1] == null) {
+               varmaparr[1] = varmaparr[0];
+            }
+
+            this_updated1 = !mapsEqual(varmaparr[0], (SFormsFastMapDirect)this.outVarVersions.get(node.id)) || this.outNegVarVersions.containsKey(node.id) && !mapsEqual(varmaparr[1], (SFormsFastMapDirect)this.outNegVarVersions.get(node.id));
+         } while(!this_updated1);
+
+         this.outVarVersions.put(node.id, varmaparr[0]);
+         if(dgraph.mapNegIfBranch.containsKey(node.id)) {
+            this.outNegVarVersions.put(node.id, varmaparr[1]);
+         }
+
+         Iterator expr1 = node.succs.iterator();
+
+         while(expr1.hasNext()) {
+            DirectNode nd = (DirectNode)expr1.next();
+            updated.add(nd.id);
+         }
+      }
+   }
+
+   private void processExprent(Exprent expr, SFormsFastMapDirect[] varmaparr) {
+      if(expr != null) {
+         VarExprent varassign = null;
+         boolean finished = false;
+         switch(expr.type) {
+         case 2:
+            AssignmentExprent lst = (AssignmentExprent)expr;
+            if(lst.getCondType() == -1) {
+               Exprent varmap1 = lst.getLeft();
+               if(varmap1.type == 12) {
+                  varassign = (VarExprent)varmap1;
+               }
+            }
+            break;
+         case 6:
+            FunctionExprent varmap = (FunctionExprent)expr;
+            switch(varmap.getFuncType()) {
+            case 36:
+               this.processExprent((Exprent)varmap.getLstOperands().get(0), varmaparr);
+               SFormsFastMapDirect vardest;
+               if(varmaparr[1] == null) {
+                  vardest = new SFormsFastMapDirect(varmaparr[0]);
+               } else {
+                  vardest = varmaparr[1];
+                  varmaparr[1] = null;
+               }
+
+               this.processExprent((Exprent)varmap.getLstOperands().get(1), varmaparr);
+               SFormsFastMapDirect[] varindex = new SFormsFastMapDirect[]{vardest, null};
+               this.processExprent((Exprent)varmap.getLstOperands().get(2), varindex);
+               mergeMaps(varmaparr[0], varindex[0]);
+               varmaparr[1] = null;
+               finished = true;
+               break;
+            case 48:
+               this.processExprent((Exprent)varmap.getLstOperands().get(0), varmaparr);
+               SFormsFastMapDirect[] vers = new SFormsFastMapDirect[]{new SFormsFastMapDirect(varmaparr[0]), null};
+               this.processExprent((Exprent)varmap.getLstOperands().get(1), vers);
+               varmaparr[1] = mergeMaps(varmaparr[varmaparr[1] == null ? 0 : 1], vers[vers[1] == null ? 0 : 1]);
+               varmaparr[0] = vers[0];
+               finished = true;
+               break;
+            case 49:
+               this.processExprent((Exprent)varmap.getLstOperands().get(0), varmaparr);
+               SFormsFastMapDirect[] cardinality = new SFormsFastMapDirect[]{new SFormsFastMapDirect(varmaparr[varmaparr[1] == null ? 0 : 1]), null};
+               this.processExprent((Exprent)varmap.getLstOperands().get(1), cardinality);
+               varmaparr[1] = cardinality[cardinality[1] == null ? 0 : 1];
+               varmaparr[0] = mergeMaps(varmaparr[0], cardinality[0]);
+               finished = true;
+            }
+         }
+
+         if(!finished) {
+            List lst1 = expr.getAllExprents();
+            lst1.remove(varassign);
+            Iterator varmap2 = lst1.iterator();
+
+            while(varmap2.hasNext()) {
+               Exprent vardest1 = (Exprent)varmap2.next();
+               this.processExprent(vardest1, varmaparr);
+            }
+
+            SFormsFastMapDirect varmap3 = varmaparr[0];
+            Integer varindex1;
+            if(varassign != null) {
+               Integer vardest2 = Integer.valueOf(varassign.getIndex());
+               if(varassign.getVersion() == 0) {
+                  varindex1 = this.getNextFreeVersion(vardest2);
+                  varassign.setVersion(varindex1.intValue());
+                  this.setCurrentVar(varmap3, vardest2, varindex1);
+               } else {
+                  this.setCurrentVar(varmap3, vardest2, Integer.valueOf(varassign.getVersion()));
+               }
+            } else if(expr.type == 12) {
+               VarExprent vardest3 = (VarExprent)expr;
+               varindex1 = Integer.valueOf(vardest3.getIndex());
+               FastSparseSetFactory.FastSparseSet vers1 = varmap3.get(varindex1.intValue());
+               int cardinality1 = vers1.getCardinality();
+               Integer current_vers;
+               if(cardinality1 == 1) {
+                  current_vers = (Integer)vers1.iterator().next();
+                  vardest3.setVersion(current_vers.intValue());
+               } else if(cardinality1 == 2) {
+                  current_vers = Integer.valueOf(vardest3.getVersion());
+                  VarVersionPair currpaar = new VarVersionPair(varindex1, current_vers);
+                  if(current_vers.intValue() != 0 && this.phi.containsKey(currpaar)) {
+                     this.setCurrentVar(varmap3, varindex1, current_vers);
+                     ((FastSparseSetFactory.FastSparseSet)this.phi.get(currpaar)).union(vers1);
+                  } else {
+                     Integer nextver = this.getNextFreeVersion(varindex1);
+                     vardest3.setVersion(nextver.intValue());
+                     this.setCurrentVar(varmap3, varindex1, nextver);
+                     this.phi.put(new VarVersionPair(varindex1, nextver), vers1);
+                  }
+               }
+            }
+
+         }
+      }
+   }
+
+   private Integer getNextFreeVersion(Integer var) {
+      Integer nextver = (Integer)this.lastversion.get(var);
+      if(nextver == null) {
+         nextver = new Integer(1);
+      } else {
+         nextver = new Integer(nextver.intValue() + 1);
+      }
+
+      this.lastversion.put(var, nextver);
+      return nextver;
+   }
+
+   private void mergeInVarMaps(DirectNode node, DirectGraph dgraph) {
+      SFormsFastMapDirect mapNew = new SFormsFastMapDirect();
+      Iterator mapExtra = node.preds.iterator();
+
+      while(mapExtra.hasNext()) {
+         DirectNode pred = (DirectNode)mapExtra.next();
+         SFormsFastMapDirect mapOut = this.getFilteredOutMap(node.id, pred.id, dgraph, node.id);
+         if(mapNew.isEmpty()) {
+            mapNew = mapOut.getCopy();
+         } else {
+            mergeMaps(mapNew, mapOut);
+         }
+      }
+
+      if(this.extraVarVersions.containsKey(node.id)) {
+         SFormsFastMapDirect mapExtra1 = (SFormsFastMapDirect)this.extraVarVersions.get(node.id);
+         if(mapNew.isEmpty()) {
+            mapNew = mapExtra1.getCopy();
+         } else {
+            mergeMaps(mapNew, mapExtra1);
+         }
+      }
+
+      this.inVarVersions.put(node.id, mapNew);
+   }
+
+   private SFormsFastMapDirect getFilteredOutMap(String nodeid, String predid, DirectGraph dgraph, String destid) {
+      SFormsFastMapDirect mapNew = new SFormsFastMapDirect();
+      if(nodeid.equals(dgraph.mapNegIfBranch.get(predid))) {
+         if(this.outNegVarVersions.containsKey(predid)) {
+            mapNew = ((SFormsFastMapDirect)this.outNegVarVersions.get(predid)).getCopy();
+         }
+      } else if(this.outVarVersions.containsKey(predid)) {
+         mapNew = ((SFormsFastMapDirect)this.outVarVersions.get(predid)).getCopy();
+      }
+
+      boolean isFinallyExit = dgraph.mapShortRangeFinallyPaths.containsKey(predid);
+      if(isFinallyExit && !mapNew.isEmpty()) {
+         SFormsFastMapDirect mapNewTemp = mapNew.getCopy();
+         SFormsFastMapDirect mapTrueSource = new SFormsFastMapDirect();
+         String exceptionDest = (String)dgraph.mapFinallyMonitorExceptionPathExits.get(predid);
+         boolean isExceptionMonitorExit = exceptionDest != null && !nodeid.equals(exceptionDest);
+         HashSet setLongPathWrapper = new HashSet();
+         Iterator oldInMap = ((List)dgraph.mapLongRangeFinallyPaths.get(predid)).iterator();
+
+         FlattenStatementsHelper.FinallyPathWrapper finwrap;
+         while(oldInMap.hasNext()) {
+            finwrap = (FlattenStatementsHelper.FinallyPathWrapper)oldInMap.next();
+            setLongPathWrapper.add(finwrap.destination + "##" + finwrap.source);
+         }
+
+         oldInMap = ((List)dgraph.mapShortRangeFinallyPaths.get(predid)).iterator();
+
+         while(oldInMap.hasNext()) {
+            finwrap = (FlattenStatementsHelper.FinallyPathWrapper)oldInMap.next();
+            boolean recFinally = dgraph.mapShortRangeFinallyPaths.containsKey(finwrap.source);
+            SFormsFastMapDirect map;
+            if(recFinally) {
+               map = this.getFilteredOutMap(finwrap.entry, finwrap.source, dgraph, destid);
+            } else if(finwrap.entry.equals(dgraph.mapNegIfBranch.get(finwrap.source))) {
+               map = (SFormsFastMapDirect)this.outNegVarVersions.get(finwrap.source);
+            } else {
+               map = (SFormsFastMapDirect)this.outVarVersions.get(finwrap.source);
+            }
+
+            boolean isFalsePath = true;
+            if(recFinally) {
+               isFalsePath = !finwrap.destination.equals(nodeid);
+            } else {
+               isFalsePath = !setLongPathWrapper.contains(destid + "##" + finwrap.source);
+            }
+
+            if(isFalsePath) {
+               mapNewTemp.complement(map);
+            } else if(mapTrueSource.isEmpty()) {
+               if(map != null) {
+                  mapTrueSource = map.getCopy();
+               }
+            } else {
+               mergeMaps(mapTrueSource, map);
+            }
+         }
+
+         if(isExceptionMonitorExit) {
+            mapNew = mapTrueSource;
+         } else {
+            mapNewTemp.union(mapTrueSource);
+            SFormsFastMapDirect oldInMap1 = (SFormsFastMapDirect)this.inVarVersions.get(nodeid);
+            if(oldInMap1 != null) {
+               mapNewTemp.union(oldInMap1);
+            }
+
+            mapNew.intersection(mapNewTemp);
+         }
+      }
+
+      return mapNew;
+   }
+
+   private static SFormsFastMapDirect mergeMaps(SFormsFastMapDirect mapTo, SFormsFastMapDirect map2) {
+      if(map2 != null && !map2.isEmpty()) {
+         mapTo.union(map2);
+      }
+
+      return mapTo;
+   }
+
+   private static boolean mapsEqual(SFormsFastMapDirect map1, SFormsFastMapDirect map2) {
+      if(map1 == null) {
+         return map2 == null;
+      } else if(map2 == null) {
+         return false;
+      } else if(map1.size() != map2.size()) {
+         return false;
+      } else {
+         Iterator var2 = map2.entryList().iterator();
+
+         Entry ent2;
+         do {
+            if(!var2.hasNext()) {
+               return true;
+            }
+
+            ent2 = (Entry)var2.next();
+         } while(InterpreterUtil.equalObjects(map1.get(((Integer)ent2.getKey()).intValue()), ent2.getValue()));
+
+         return false;
+      }
+   }
+
+   private void setCurrentVar(SFormsFastMapDirect varmap, Integer var, Integer vers) {
+      FastSparseSetFactory.FastSparseSet set = this.factory.spawnEmptySet();
+      set.add(vers);
+      varmap.put(var.intValue(), set);
+   }
+
+   private void setCatchMaps(Statement stat, DirectGraph dgraph, FlattenStatementsHelper flatthelper) {
+      switch(stat.type) {
+      case 7:
+      case 12:
+         List lstVars;
+         if(stat.type == 12) {
+            lstVars = ((CatchAllStatement)stat).getVars();
+         } else {
+            lstVars = ((CatchStatement)stat).getVars();
+         }
+
+         for(int st = 1; st < stat.getStats().size(); ++st) {
+            int varindex = ((VarExprent)lstVars.get(st - 1)).getIndex();
+            int version = this.getNextFreeVersion(Integer.valueOf(varindex)).intValue();
+            SFormsFastMapDirect map = new SFormsFastMapDirect();
+            this.setCurrentVar(map, Integer.valueOf(varindex), Integer.valueOf(version));
+            this.extraVarVersions.put(((DirectNode)dgraph.nodes.getWithKey(((String[])flatthelper.getMapDestinationNodes().get(((Statement)stat.getStats().get(st)).id))[0])).id, map);
+            this.startVars.add(new VarVersionPair(varindex, version));
+         }
+      default:
+         Iterator var9 = stat.getStats().iterator();
+
+         while(var9.hasNext()) {
+            Statement var10 = (Statement)var9.next();
+            this.setCatchMaps(var10, dgraph, flatthelper);
+         }
+
+      }
+   }
+
+   private SFormsFastMapDirect createFirstMap(StructMethod mt) {
+      boolean thisvar = !mt.hasModifier(8);
+      MethodDescriptor md = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+      int paramcount = md.params.length + (thisvar ? 1 : 0);
+      int varindex = 0;
+      SFormsFastMapDirect map = new SFormsFastMapDirect();
+
+      for(int i = 0; i < paramcount; ++i) {
+         int version = this.getNextFreeVersion(Integer.valueOf(varindex)).intValue();
+         FastSparseSetFactory.FastSparseSet set = this.factory.spawnEmptySet();
+         set.add(Integer.valueOf(version));
+         map.put(varindex, set);
+         this.startVars.add(new VarVersionPair(varindex, version));
+         if(thisvar) {
+            if(i == 0) {
+               ++varindex;
+            } else {
+               varindex += md.params[i - 1].stackSize;
+            }
+         } else {
+            varindex += md.params[i].stackSize;
+         }
+      }
+
+      return map;
+   }
+
+   public HashMap getPhi() {
+      return this.phi;
+   }
+
+   public List getStartVars() {
+      return this.startVars;
+   }
+}
@@ -0,0 +1,672 @@
+package regression.fernflower.modules.decompiler.sforms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.stats.CatchAllStatement;
+import regression.fernflower.modules.decompiler.stats.CatchStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.stats.SynchronizedStatement;
+import regression.fernflower.modules.decompiler.vars.VarVersionEdge;
+import regression.fernflower.modules.decompiler.vars.VarVersionNode;
+import regression.fernflower.modules.decompiler.vars.VarVersionPair;
+import regression.fernflower.modules.decompiler.vars.VarVersionsGraph;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.util.FastSparseSetFactory;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.SFormsFastMapDirect;
+import regression.fernflower.util.VBStyleCollection;
+
+public class SSAUConstructorSparseEx {
+   private HashMap inVarVersions = new HashMap();
+   private HashMap outVarVersions = new HashMap();
+   private HashMap outNegVarVersions = new HashMap();
+   private HashMap extraVarVersions = new HashMap();
+   private HashMap phi = new HashMap();
+   private HashMap lastversion = new HashMap();
+   private HashMap mapVersionFirstRange = new HashMap();
+   private HashMap phantomppnodes = new HashMap();
+   private HashMap phantomexitnodes = new HashMap();
+   private VarVersionsGraph ssuversions = new VarVersionsGraph();
+   private HashMap mapFieldVars = new HashMap();
+   private int fieldvarcounter = -1;
+   private FastSparseSetFactory factory;
+
+   public void splitVariables(RootStatement root, StructMethod mt) {
+      FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
+      DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+      HashSet setInit = new HashSet();
+
+      for(int updated = 0; updated < 64; ++updated) {
+         setInit.add(Integer.valueOf(updated));
+      }
+
+      this.factory = new FastSparseSetFactory(setInit);
+      this.extraVarVersions.put(dgraph.first.id, this.createFirstMap(mt, root));
+      this.setCatchMaps(root, dgraph, flatthelper);
+      HashSet var7 = new HashSet();
+
+      do {
+         this.ssaStatements(dgraph, var7, false);
+      } while(!var7.isEmpty());
+
+      this.ssaStatements(dgraph, var7, true);
+      this.ssuversions.initDominators();
+   }
+
+   private void ssaStatements(DirectGraph dgraph, HashSet updated, boolean calcLiveVars) {
+      Iterator var4 = dgraph.nodes.iterator();
+
+      while(true) {
+         DirectNode node;
+         SFormsFastMapDirect[] varmaparr;
+         boolean this_updated1;
+         do {
+            if(!var4.hasNext()) {
+               return;
+            }
+
+            node = (DirectNode)var4.next();
+            updated.remove(node.id);
+            this.mergeInVarMaps(node, dgraph);
+            SFormsFastMapDirect varmap = new SFormsFastMapDirect((SFormsFastMapDirect)this.inVarVersions.get(node.id));
+            varmaparr = new SFormsFastMapDirect[]{varmap, null};
+            if(node.exprents != null) {
+               Iterator allow_field_propagation = node.exprents.iterator();
+
+               while(allow_field_propagation.hasNext()) {
+                  Exprent this_updated = (Exprent)allow_field_propagation.next();
+                  this.processExprent(this_updated, varmaparr, node.statement, calcLiveVars);
+               }
+            }
+
+            if(varmaparr[1] == null) {
+               varmaparr[1] = varmaparr[0];
+            }
+
+            boolean allow_field_propagation1 = node.succs.isEmpty() || node.succs.size() == 1 && ((DirectNode)node.succs.get(0)).preds.size() == 1;
+            if(!allow_field_propagation1 && varmaparr[0] != null) {
+               varmaparr[0].removeAllFields();
+               varmaparr[1].removeAllFields();
+            }
+
+            this_updated1 = !mapsEqual(varmaparr[0], (SFormsFastMapDirect)this.outVarVersions.get(node.id)) || this.outNegVarVersions.containsKey(node.id) && !mapsEqual(varmaparr[1], (SFormsFastMapDirect)this.outNegVarVersions.get(node.id));
+         } while(!this_updated1);
+
+         this.outVarVersions.put(node.id, varmaparr[0]);
+         if(dgraph.mapNegIfBranch.containsKey(node.id)) {
+            this.outNegVarVersions.put(node.id, varmaparr[1]);
+         }
+
+         Iterator var10 = node.succs.iterator();
+
+         while(var10.hasNext()) {
+            DirectNode nd = (DirectNode)var10.next();
+            updated.add(nd.id);
+         }
+      }
+   }
+
+   private void processExprent(Exprent expr, SFormsFastMapDirect[] varmaparr, Statement stat, boolean calcLiveVars) {
+      if(expr != null) {
+         VarExprent varassign = null;
+         boolean finished = false;
+         FunctionExprent vardest;
+         switch(expr.type) {
+         case 2:
+            AssignmentExprent varmap = (AssignmentExprent)expr;
+            if(varmap.getCondType() == -1) {
+               Exprent vardest1 = varmap.getLeft();
+               if(vardest1.type == 12) {
+                  varassign = (VarExprent)vardest1;
+               }
+            }
+            break;
+         case 6:
+            vardest = (FunctionExprent)expr;
+            switch(vardest.getFuncType()) {
+            case 36:
+               this.processExprent((Exprent)vardest.getLstOperands().get(0), varmaparr, stat, calcLiveVars);
+               SFormsFastMapDirect varindex;
+               if(varmaparr[1] == null) {
+                  varindex = new SFormsFastMapDirect(varmaparr[0]);
+               } else {
+                  varindex = varmaparr[1];
+                  varmaparr[1] = null;
+               }
+
+               this.processExprent((Exprent)vardest.getLstOperands().get(1), varmaparr, stat, calcLiveVars);
+               SFormsFastMapDirect[] current_vers = new SFormsFastMapDirect[]{varindex, null};
+               this.processExprent((Exprent)vardest.getLstOperands().get(2), current_vers, stat, calcLiveVars);
+               mergeMaps(varmaparr[0], current_vers[0]);
+               varmaparr[1] = null;
+               finished = true;
+               break;
+            case 48:
+               this.processExprent((Exprent)vardest.getLstOperands().get(0), varmaparr, stat, calcLiveVars);
+               SFormsFastMapDirect[] vers = new SFormsFastMapDirect[]{new SFormsFastMapDirect(varmaparr[0]), null};
+               this.processExprent((Exprent)vardest.getLstOperands().get(1), vers, stat, calcLiveVars);
+               varmaparr[1] = mergeMaps(varmaparr[varmaparr[1] == null ? 0 : 1], vers[vers[1] == null ? 0 : 1]);
+               varmaparr[0] = vers[0];
+               finished = true;
+               break;
+            case 49:
+               this.processExprent((Exprent)vardest.getLstOperands().get(0), varmaparr, stat, calcLiveVars);
+               SFormsFastMapDirect[] cardinality = new SFormsFastMapDirect[]{new SFormsFastMapDirect(varmaparr[varmaparr[1] == null ? 0 : 1]), null};
+               this.processExprent((Exprent)vardest.getLstOperands().get(1), cardinality, stat, calcLiveVars);
+               varmaparr[1] = cardinality[cardinality[1] == null ? 0 : 1];
+               varmaparr[0] = mergeMaps(varmaparr[0], cardinality[0]);
+               finished = true;
+            }
+         }
+
+         if(!finished) {
+            List varmap1 = expr.getAllExprents();
+            varmap1.remove(varassign);
+            Iterator vardest2 = varmap1.iterator();
+
+            while(vardest2.hasNext()) {
+               Exprent varindex1 = (Exprent)vardest2.next();
+               this.processExprent(varindex1, varmaparr, stat, calcLiveVars);
+            }
+         }
+
+         SFormsFastMapDirect varmap2 = varmaparr[0];
+         if(expr.type == 5) {
+            int vardest3;
+            if(this.mapFieldVars.containsKey(Integer.valueOf(expr.id))) {
+               vardest3 = ((Integer)this.mapFieldVars.get(Integer.valueOf(expr.id))).intValue();
+            } else {
+               vardest3 = this.fieldvarcounter--;
+               this.mapFieldVars.put(Integer.valueOf(expr.id), Integer.valueOf(vardest3));
+               this.ssuversions.createNode(new VarVersionPair(vardest3, 1));
+            }
+
+            this.setCurrentVar(varmap2, Integer.valueOf(vardest3), Integer.valueOf(1));
+         } else if(expr.type == 8 || expr.type == 2 && ((AssignmentExprent)expr).getLeft().type == 5 || expr.type == 10 && ((NewExprent)expr).getNewType().type == 8 || expr.type == 6) {
+            boolean vardest4 = true;
+            if(expr.type == 6) {
+               vardest4 = false;
+               FunctionExprent varindex2 = (FunctionExprent)expr;
+               if(varindex2.getFuncType() >= 32 && varindex2.getFuncType() <= 35 && ((Exprent)varindex2.getLstOperands().get(0)).type == 5) {
+                  vardest4 = true;
+               }
+            }
+
+            if(vardest4) {
+               varmap2.removeAllFields();
+            }
+         }
+
+         Integer varindex3;
+         if(varassign != null) {
+            Integer vardest5 = Integer.valueOf(varassign.getIndex());
+            if(varassign.getVersion() == 0) {
+               varindex3 = this.getNextFreeVersion(vardest5, stat);
+               varassign.setVersion(varindex3.intValue());
+               this.ssuversions.createNode(new VarVersionPair(vardest5, varindex3));
+               this.setCurrentVar(varmap2, vardest5, varindex3);
+            } else {
+               if(calcLiveVars) {
+                  this.varMapToGraph(new VarVersionPair(vardest5.intValue(), varassign.getVersion()), varmap2);
+               }
+
+               this.setCurrentVar(varmap2, vardest5, Integer.valueOf(varassign.getVersion()));
+            }
+         } else {
+            Integer usever;
+            VarVersionEdge edge;
+            Integer current_vers1;
+            if(expr.type == 6) {
+               vardest = (FunctionExprent)expr;
+               switch(vardest.getFuncType()) {
+               case 32:
+               case 33:
+               case 34:
+               case 35:
+                  if(((Exprent)vardest.getLstOperands().get(0)).type == 12) {
+                     VarExprent varindex4 = (VarExprent)vardest.getLstOperands().get(0);
+                     current_vers1 = Integer.valueOf(varindex4.getIndex());
+                     VarVersionPair vers1 = new VarVersionPair(current_vers1.intValue(), varindex4.getVersion());
+                     VarVersionPair cardinality1 = (VarVersionPair)this.phantomppnodes.get(vers1);
+                     if(cardinality1 == null) {
+                        usever = this.getNextFreeVersion(current_vers1, (Statement)null);
+                        cardinality1 = new VarVersionPair(current_vers1, usever);
+                        this.ssuversions.createNode(cardinality1);
+                        VarVersionNode lastver = (VarVersionNode)this.ssuversions.nodes.getWithKey(vers1);
+                        FastSparseSetFactory.FastSparseSet prenode = this.factory.spawnEmptySet();
+                        if(lastver.preds.size() == 1) {
+                           prenode.add(Integer.valueOf(((VarVersionEdge)lastver.preds.iterator().next()).source.version));
+                        } else {
+                           Iterator usenode = lastver.preds.iterator();
+
+                           while(usenode.hasNext()) {
+                              edge = (VarVersionEdge)usenode.next();
+                              prenode.add(Integer.valueOf(((VarVersionEdge)edge.source.preds.iterator().next()).source.version));
+                           }
+                        }
+
+                        prenode.add(usever);
+                        this.createOrUpdatePhiNode(vers1, prenode, stat);
+                        this.phantomppnodes.put(vers1, cardinality1);
+                     }
+
+                     if(calcLiveVars) {
+                        this.varMapToGraph(vers1, varmap2);
+                     }
+
+                     this.setCurrentVar(varmap2, Integer.valueOf(current_vers1.intValue()), Integer.valueOf(varindex4.getVersion()));
+                  }
+               }
+            } else if(expr.type == 12) {
+               VarExprent vardest6 = (VarExprent)expr;
+               varindex3 = Integer.valueOf(vardest6.getIndex());
+               current_vers1 = Integer.valueOf(vardest6.getVersion());
+               FastSparseSetFactory.FastSparseSet vers2 = varmap2.get(varindex3.intValue());
+               int cardinality2 = vers2.getCardinality();
+               if(cardinality2 == 1) {
+                  if(current_vers1.intValue() != 0) {
+                     if(calcLiveVars) {
+                        this.varMapToGraph(new VarVersionPair(varindex3, current_vers1), varmap2);
+                     }
+
+                     this.setCurrentVar(varmap2, varindex3, current_vers1);
+                  } else {
+                     usever = this.getNextFreeVersion(varindex3, stat);
+                     vardest6.setVersion(usever.intValue());
+                     this.setCurrentVar(varmap2, varindex3, usever);
+                     Integer lastver1 = (Integer)vers2.iterator().next();
+                     VarVersionNode prenode1 = (VarVersionNode)this.ssuversions.nodes.getWithKey(new VarVersionPair(varindex3, lastver1));
+                     VarVersionNode usenode1 = this.ssuversions.createNode(new VarVersionPair(varindex3, usever));
+                     edge = new VarVersionEdge(0, prenode1, usenode1);
+                     prenode1.addSuccessor(edge);
+                     usenode1.addPredecessor(edge);
+                  }
+               } else if(cardinality2 == 2) {
+                  if(current_vers1.intValue() != 0) {
+                     if(calcLiveVars) {
+                        this.varMapToGraph(new VarVersionPair(varindex3, current_vers1), varmap2);
+                     }
+
+                     this.setCurrentVar(varmap2, varindex3, current_vers1);
+                  } else {
+                     usever = this.getNextFreeVersion(varindex3, stat);
+                     vardest6.setVersion(usever.intValue());
+                     this.ssuversions.createNode(new VarVersionPair(varindex3, usever));
+                     this.setCurrentVar(varmap2, varindex3, usever);
+                     current_vers1 = usever;
+                  }
+
+                  this.createOrUpdatePhiNode(new VarVersionPair(varindex3, current_vers1), vers2, stat);
+               }
+            }
+         }
+
+      }
+   }
+
+   private void createOrUpdatePhiNode(VarVersionPair phivar, FastSparseSetFactory.FastSparseSet vers, Statement stat) {
+      FastSparseSetFactory.FastSparseSet versCopy = vers.getCopy();
+      HashSet phiVers = new HashSet();
+      int ppvers = this.phantomppnodes.containsKey(phivar) ? ((VarVersionPair)this.phantomppnodes.get(phivar)).version : -1;
+      VarVersionNode phinode = (VarVersionNode)this.ssuversions.nodes.getWithKey(phivar);
+      ArrayList lstPreds = new ArrayList(phinode.preds);
+      if(lstPreds.size() == 1) {
+         VarVersionEdge colnodes = (VarVersionEdge)lstPreds.get(0);
+         colnodes.source.removeSuccessor(colnodes);
+         phinode.removePredecessor(colnodes);
+      } else {
+         Iterator colnodes1 = lstPreds.iterator();
+
+         label36:
+         while(true) {
+            while(true) {
+               if(!colnodes1.hasNext()) {
+                  break label36;
+               }
+
+               VarVersionEdge colpaars = (VarVersionEdge)colnodes1.next();
+               int verssrc = ((VarVersionEdge)colpaars.source.preds.iterator().next()).source.version;
+               if(!vers.contains((Object)Integer.valueOf(verssrc)) && verssrc != ppvers) {
+                  colpaars.source.removeSuccessor(colpaars);
+                  phinode.removePredecessor(colpaars);
+               } else {
+                  versCopy.remove(Integer.valueOf(verssrc));
+                  phiVers.add(Integer.valueOf(verssrc));
+               }
+            }
+         }
+      }
+
+      ArrayList colnodes2 = new ArrayList();
+      ArrayList colpaars1 = new ArrayList();
+      Iterator verssrc1 = versCopy.iterator();
+
+      while(verssrc1.hasNext()) {
+         Integer ver = (Integer)verssrc1.next();
+         VarVersionNode prenode = (VarVersionNode)this.ssuversions.nodes.getWithKey(new VarVersionPair(phivar.var, ver.intValue()));
+         Integer tempver = this.getNextFreeVersion(Integer.valueOf(phivar.var), stat);
+         VarVersionNode tempnode = new VarVersionNode(phivar.var, tempver.intValue());
+         colnodes2.add(tempnode);
+         colpaars1.add(new VarVersionPair(phivar.var, tempver.intValue()));
+         VarVersionEdge edge = new VarVersionEdge(0, prenode, tempnode);
+         prenode.addSuccessor(edge);
+         tempnode.addPredecessor(edge);
+         edge = new VarVersionEdge(0, tempnode, phinode);
+         tempnode.addSuccessor(edge);
+         phinode.addPredecessor(edge);
+         phiVers.add(tempver);
+      }
+
+      this.ssuversions.addNodes(colnodes2, colpaars1);
+      this.phi.put(phivar, phiVers);
+   }
+
+   private void varMapToGraph(VarVersionPair varpaar, SFormsFastMapDirect varmap) {
+      VBStyleCollection nodes = this.ssuversions.nodes;
+      VarVersionNode node = (VarVersionNode)nodes.getWithKey(varpaar);
+      node.live = new SFormsFastMapDirect(varmap);
+   }
+
+   private Integer getNextFreeVersion(Integer var, Statement stat) {
+      Integer nextver = (Integer)this.lastversion.get(var);
+      if(nextver == null) {
+         nextver = new Integer(1);
+      } else {
+         nextver = new Integer(nextver.intValue() + 1);
+      }
+
+      this.lastversion.put(var, nextver);
+      if(stat != null) {
+         Integer firstRangeId = getFirstProtectedRange(stat);
+         if(firstRangeId != null) {
+            this.mapVersionFirstRange.put(new VarVersionPair(var, nextver), firstRangeId);
+         }
+      }
+
+      return nextver;
+   }
+
+   private void mergeInVarMaps(DirectNode node, DirectGraph dgraph) {
+      SFormsFastMapDirect mapNew = new SFormsFastMapDirect();
+      Iterator mapExtra = node.preds.iterator();
+
+      while(mapExtra.hasNext()) {
+         DirectNode pred = (DirectNode)mapExtra.next();
+         SFormsFastMapDirect mapOut = this.getFilteredOutMap(node.id, pred.id, dgraph, node.id);
+         if(mapNew.isEmpty()) {
+            mapNew = mapOut.getCopy();
+         } else {
+            mergeMaps(mapNew, mapOut);
+         }
+      }
+
+      if(this.extraVarVersions.containsKey(node.id)) {
+         SFormsFastMapDirect mapExtra1 = (SFormsFastMapDirect)this.extraVarVersions.get(node.id);
+         if(mapNew.isEmpty()) {
+            mapNew = mapExtra1.getCopy();
+         } else {
+            mergeMaps(mapNew, mapExtra1);
+         }
+      }
+
+      this.inVarVersions.put(node.id, mapNew);
+   }
+
+   private SFormsFastMapDirect getFilteredOutMap(String nodeid, String predid, DirectGraph dgraph, String destid) {
+      SFormsFastMapDirect mapNew = new SFormsFastMapDirect();
+      boolean isFinallyExit = dgraph.mapShortRangeFinallyPaths.containsKey(predid);
+      if(nodeid.equals(dgraph.mapNegIfBranch.get(predid))) {
+         if(this.outNegVarVersions.containsKey(predid)) {
+            mapNew = ((SFormsFastMapDirect)this.outNegVarVersions.get(predid)).getCopy();
+         }
+      } else if(this.outVarVersions.containsKey(predid)) {
+         mapNew = ((SFormsFastMapDirect)this.outVarVersions.get(predid)).getCopy();
+      }
+
+      if(isFinallyExit) {
+         SFormsFastMapDirect mapNewTemp = mapNew.getCopy();
+         SFormsFastMapDirect mapTrueSource = new SFormsFastMapDirect();
+         String exceptionDest = (String)dgraph.mapFinallyMonitorExceptionPathExits.get(predid);
+         boolean isExceptionMonitorExit = exceptionDest != null && !nodeid.equals(exceptionDest);
+         HashSet setLongPathWrapper = new HashSet();
+         Iterator mapPhantom = dgraph.mapLongRangeFinallyPaths.values().iterator();
+
+         Iterator map;
+         while(mapPhantom.hasNext()) {
+            List mapExitVar = (List)mapPhantom.next();
+            map = mapExitVar.iterator();
+
+            while(map.hasNext()) {
+               FlattenStatementsHelper.FinallyPathWrapper ent = (FlattenStatementsHelper.FinallyPathWrapper)map.next();
+               setLongPathWrapper.add(ent.destination + "##" + ent.source);
+            }
+         }
+
+         mapPhantom = ((List)dgraph.mapShortRangeFinallyPaths.get(predid)).iterator();
+
+         while(mapPhantom.hasNext()) {
+            FlattenStatementsHelper.FinallyPathWrapper mapExitVar1 = (FlattenStatementsHelper.FinallyPathWrapper)mapPhantom.next();
+            boolean ent1 = dgraph.mapShortRangeFinallyPaths.containsKey(mapExitVar1.source);
+            SFormsFastMapDirect map1;
+            if(ent1) {
+               map1 = this.getFilteredOutMap(mapExitVar1.entry, mapExitVar1.source, dgraph, destid);
+            } else if(mapExitVar1.entry.equals(dgraph.mapNegIfBranch.get(mapExitVar1.source))) {
+               map1 = (SFormsFastMapDirect)this.outNegVarVersions.get(mapExitVar1.source);
+            } else {
+               map1 = (SFormsFastMapDirect)this.outVarVersions.get(mapExitVar1.source);
+            }
+
+            boolean isFalsePath = true;
+            if(ent1) {
+               isFalsePath = !mapExitVar1.destination.equals(nodeid);
+            } else {
+               isFalsePath = !setLongPathWrapper.contains(destid + "##" + mapExitVar1.source);
+            }
+
+            if(isFalsePath) {
+               mapNewTemp.complement(map1);
+            } else if(mapTrueSource.isEmpty()) {
+               if(map1 != null) {
+                  mapTrueSource = map1.getCopy();
+               }
+            } else {
+               mergeMaps(mapTrueSource, map1);
+            }
+         }
+
+         if(isExceptionMonitorExit) {
+            mapNew = mapTrueSource;
+         } else {
+            mapNewTemp.union(mapTrueSource);
+            mapNew.intersection(mapNewTemp);
+            if(!mapTrueSource.isEmpty() && !mapNew.isEmpty()) {
+               HashMap mapPhantom1 = (HashMap)this.phantomexitnodes.get(predid);
+               if(mapPhantom1 == null) {
+                  mapPhantom1 = new HashMap();
+               }
+
+               SFormsFastMapDirect mapExitVar2 = mapNew.getCopy();
+               mapExitVar2.complement(mapTrueSource);
+               map = mapExitVar2.entryList().iterator();
+
+               while(map.hasNext()) {
+                  Entry ent2 = (Entry)map.next();
+
+                  FastSparseSetFactory.FastSparseSet newSet;
+                  VarVersionPair phantomvar;
+                  for(Iterator isFalsePath1 = ((FastSparseSetFactory.FastSparseSet)ent2.getValue()).iterator(); isFalsePath1.hasNext(); newSet.add(Integer.valueOf(phantomvar.version))) {
+                     Integer version = (Integer)isFalsePath1.next();
+                     Integer varindex = (Integer)ent2.getKey();
+                     VarVersionPair exitvar = new VarVersionPair(varindex, version);
+                     newSet = mapNew.get(varindex.intValue());
+                     newSet.remove(version);
+                     phantomvar = (VarVersionPair)mapPhantom1.get(exitvar);
+                     if(phantomvar == null) {
+                        Integer newversion = this.getNextFreeVersion(Integer.valueOf(exitvar.var), (Statement)null);
+                        phantomvar = new VarVersionPair(exitvar.var, newversion.intValue());
+                        VarVersionNode exitnode = (VarVersionNode)this.ssuversions.nodes.getWithKey(exitvar);
+                        VarVersionNode phantomnode = this.ssuversions.createNode(phantomvar);
+                        phantomnode.flags |= 2;
+                        VarVersionEdge edge = new VarVersionEdge(1, exitnode, phantomnode);
+                        exitnode.addSuccessor(edge);
+                        phantomnode.addPredecessor(edge);
+                        mapPhantom1.put(exitvar, phantomvar);
+                     }
+                  }
+               }
+
+               if(!mapPhantom1.isEmpty()) {
+                  this.phantomexitnodes.put(predid, mapPhantom1);
+               }
+            }
+         }
+      }
+
+      return mapNew;
+   }
+
+   private static SFormsFastMapDirect mergeMaps(SFormsFastMapDirect mapTo, SFormsFastMapDirect map2) {
+      if(map2 != null && !map2.isEmpty()) {
+         mapTo.union(map2);
+      }
+
+      return mapTo;
+   }
+
+   private static boolean mapsEqual(SFormsFastMapDirect map1, SFormsFastMapDirect map2) {
+      if(map1 == null) {
+         return map2 == null;
+      } else if(map2 == null) {
+         return false;
+      } else if(map1.size() != map2.size()) {
+         return false;
+      } else {
+         Iterator var2 = map2.entryList().iterator();
+
+         Entry ent2;
+         do {
+            if(!var2.hasNext()) {
+               return true;
+            }
+
+            ent2 = (Entry)var2.next();
+         } while(InterpreterUtil.equalObjects(map1.get(((Integer)ent2.getKey()).intValue()), ent2.getValue()));
+
+         return false;
+      }
+   }
+
+   private void setCurrentVar(SFormsFastMapDirect varmap, Integer var, Integer vers) {
+      FastSparseSetFactory.FastSparseSet set = this.factory.spawnEmptySet();
+      set.add(vers);
+      varmap.put(var.intValue(), set);
+   }
+
+   private void setCatchMaps(Statement stat, DirectGraph dgraph, FlattenStatementsHelper flatthelper) {
+      switch(stat.type) {
+      case 7:
+      case 12:
+         List lstVars;
+         if(stat.type == 12) {
+            lstVars = ((CatchAllStatement)stat).getVars();
+         } else {
+            lstVars = ((CatchStatement)stat).getVars();
+         }
+
+         for(int st = 1; st < stat.getStats().size(); ++st) {
+            int varindex = ((VarExprent)lstVars.get(st - 1)).getIndex();
+            int version = this.getNextFreeVersion(Integer.valueOf(varindex), stat).intValue();
+            SFormsFastMapDirect map = new SFormsFastMapDirect();
+            this.setCurrentVar(map, Integer.valueOf(varindex), Integer.valueOf(version));
+            this.extraVarVersions.put(((DirectNode)dgraph.nodes.getWithKey(((String[])flatthelper.getMapDestinationNodes().get(((Statement)stat.getStats().get(st)).id))[0])).id, map);
+            this.ssuversions.createNode(new VarVersionPair(varindex, version));
+         }
+      default:
+         Iterator var9 = stat.getStats().iterator();
+
+         while(var9.hasNext()) {
+            Statement var10 = (Statement)var9.next();
+            this.setCatchMaps(var10, dgraph, flatthelper);
+         }
+
+      }
+   }
+
+   private SFormsFastMapDirect createFirstMap(StructMethod mt, RootStatement root) {
+      boolean thisvar = !mt.hasModifier(8);
+      MethodDescriptor md = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+      int paramcount = md.params.length + (thisvar ? 1 : 0);
+      int varindex = 0;
+      SFormsFastMapDirect map = new SFormsFastMapDirect();
+
+      for(int i = 0; i < paramcount; ++i) {
+         int version = this.getNextFreeVersion(Integer.valueOf(varindex), root).intValue();
+         FastSparseSetFactory.FastSparseSet set = this.factory.spawnEmptySet();
+         set.add(Integer.valueOf(version));
+         map.put(varindex, set);
+         this.ssuversions.createNode(new VarVersionPair(varindex, version));
+         if(thisvar) {
+            if(i == 0) {
+               ++varindex;
+            } else {
+               varindex += md.params[i - 1].stackSize;
+            }
+         } else {
+            varindex += md.params[i].stackSize;
+         }
+      }
+
+      return map;
+   }
+
+   private static Integer getFirstProtectedRange(Statement stat) {
+      while(true) {
+         Statement parent = stat.getParent();
+         if(parent == null) {
+            return null;
+         }
+
+         if(parent.type != 12 && parent.type != 7) {
+            if(parent.type == 10 && ((SynchronizedStatement)parent).getBody() == stat) {
+               return parent.id;
+            }
+         } else if(parent.getFirst() == stat) {
+            return parent.id;
+         }
+
+         stat = parent;
+      }
+   }
+
+   public HashMap getPhi() {
+      return this.phi;
+   }
+
+   public VarVersionsGraph getSsuversions() {
+      return this.ssuversions;
+   }
+
+   public SFormsFastMapDirect getLiveVarVersionsMap(VarVersionPair varpaar) {
+      VarVersionNode node = (VarVersionNode)this.ssuversions.nodes.getWithKey(varpaar);
+      return node != null ? node.live : null;
+   }
+
+   public HashMap getMapVersionFirstRange() {
+      return this.mapVersionFirstRange;
+   }
+
+   public HashMap getMapFieldVars() {
+      return this.mapFieldVars;
+   }
+}
@@ -0,0 +1,55 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import regression.fernflower.code.Instruction;
+import regression.fernflower.code.SimpleInstructionSequence;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.main.collectors.CounterContainer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+
+public class BasicBlockStatement extends Statement {
+   private BasicBlock block;
+
+   public BasicBlockStatement(BasicBlock block) {
+      this.type = 8;
+      this.block = block;
+      this.id = Integer.valueOf(block.id);
+      CounterContainer coun = DecompilerContext.getCounterContainer();
+      if(this.id.intValue() >= coun.getCounter(0)) {
+         coun.setCounter(0, this.id.intValue() + 1);
+      }
+
+      Instruction instr = block.getLastInstruction();
+      if(instr != null) {
+         if(instr.group == 2 && instr.opcode != 167) {
+            this.lastBasicType = 0;
+         } else if(instr.group == 3) {
+            this.lastBasicType = 1;
+         }
+      }
+
+      this.buildMonitorFlags();
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      return ExprProcessor.listToJava(this.varDefinitions, indent, tracer).append(ExprProcessor.listToJava(this.exprents, indent, tracer));
+   }
+
+   public Statement getSimpleCopy() {
+      BasicBlock newblock = new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0));
+      SimpleInstructionSequence seq = new SimpleInstructionSequence();
+
+      for(int i = 0; i < this.block.getSeq().length(); ++i) {
+         seq.addInstruction(this.block.getSeq().getInstr(i).clone(), -1);
+      }
+
+      newblock.setSeq(seq);
+      return new BasicBlockStatement(newblock);
+   }
+
+   public BasicBlock getBlock() {
+      return this.block;
+   }
+}
@@ -0,0 +1,182 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.DecHelper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.struct.gen.VarType;
+
+public class CatchAllStatement extends Statement {
+   private Statement handler;
+   private boolean isFinally;
+   private VarExprent monitor;
+   private List vars;
+
+   private CatchAllStatement() {
+      this.vars = new ArrayList();
+      this.type = 12;
+   }
+
+   private CatchAllStatement(Statement head, Statement handler) {
+      this();
+      this.first = head;
+      this.stats.addWithKey(head, head.id);
+      this.handler = handler;
+      this.stats.addWithKey(handler, handler.id);
+      List lstSuccs = head.getSuccessorEdges(1073741824);
+      if(!lstSuccs.isEmpty()) {
+         StatEdge edge = (StatEdge)lstSuccs.get(0);
+         if(edge.getType() == 1) {
+            this.post = edge.getDestination();
+         }
+      }
+
+      this.vars.add(new VarExprent(DecompilerContext.getCounterContainer().getCounterAndIncrement(2), new VarType(8, 0, "java/lang/Throwable"), (VarProcessor)DecompilerContext.getProperty("CURRENT_VAR_PROCESSOR")));
+   }
+
+   public static Statement isHead(Statement head) {
+      if(head.getLastBasicType() != 2) {
+         return null;
+      } else {
+         HashSet setHandlers = DecHelper.getUniquePredExceptions(head);
+         if(setHandlers.size() != 1) {
+            return null;
+         } else {
+            Iterator var2 = head.getSuccessorEdges(2).iterator();
+
+            Statement exc;
+            do {
+               List lstSuccs;
+               do {
+                  do {
+                     StatEdge edge;
+                     do {
+                        do {
+                           if(!var2.hasNext()) {
+                              return null;
+                           }
+
+                           edge = (StatEdge)var2.next();
+                           exc = edge.getDestination();
+                        } while(edge.getExceptions() != null);
+                     } while(!setHandlers.contains(exc));
+                  } while(exc.getLastBasicType() != 2);
+
+                  lstSuccs = exc.getSuccessorEdges(1073741824);
+               } while(!lstSuccs.isEmpty() && ((StatEdge)lstSuccs.get(0)).getType() == 1);
+
+               if(head.isMonitorEnter() || exc.isMonitorEnter()) {
+                  return null;
+               }
+            } while(!DecHelper.checkStatementExceptions(Arrays.asList(new Statement[]{head, exc})));
+
+            return new CatchAllStatement(head, exc);
+         }
+      }
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      String new_line_separator = DecompilerContext.getNewLineSeparator();
+      TextBuffer buf = new TextBuffer();
+      buf.append(ExprProcessor.listToJava(this.varDefinitions, indent, tracer));
+      boolean labeled = this.isLabeled();
+      if(labeled) {
+         buf.appendIndent(indent).append("label").append(this.id.toString()).append(":").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      List lstSuccs = this.first.getSuccessorEdges(1073741824);
+      if(this.first.type != 7 || !this.first.varDefinitions.isEmpty() || !this.isFinally || labeled || this.first.isLabeled() || !lstSuccs.isEmpty() && ((StatEdge)lstSuccs.get(0)).explicit) {
+         buf.appendIndent(indent).append("try {").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+         buf.append(ExprProcessor.jmpWrapper(this.first, indent + 1, false, tracer));
+         buf.appendIndent(indent).append("}");
+      } else {
+         TextBuffer content = ExprProcessor.jmpWrapper(this.first, indent, false, tracer);
+         content.setLength(content.length() - new_line_separator.length());
+         tracer.incrementCurrentSourceLine(-1);
+         buf.append(content);
+      }
+
+      buf.append(this.isFinally ? " finally" : " catch (" + ((VarExprent)this.vars.get(0)).toJava(indent, tracer) + ")").append(" {").appendLineSeparator();
+      tracer.incrementCurrentSourceLine();
+      if(this.monitor != null) {
+         buf.appendIndent(indent + 1).append("if(").append(this.monitor.toJava(indent, tracer)).append(") {").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      buf.append(ExprProcessor.jmpWrapper(this.handler, indent + 1 + (this.monitor != null ? 1 : 0), false, tracer));
+      if(this.monitor != null) {
+         buf.appendIndent(indent + 1).append("}").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      buf.appendIndent(indent).append("}").appendLineSeparator();
+      tracer.incrementCurrentSourceLine();
+      return buf;
+   }
+
+   public void replaceStatement(Statement oldstat, Statement newstat) {
+      if(this.handler == oldstat) {
+         this.handler = newstat;
+      }
+
+      super.replaceStatement(oldstat, newstat);
+   }
+
+   public Statement getSimpleCopy() {
+      CatchAllStatement cas = new CatchAllStatement();
+      cas.isFinally = this.isFinally;
+      if(this.monitor != null) {
+         cas.monitor = new VarExprent(DecompilerContext.getCounterContainer().getCounterAndIncrement(2), VarType.VARTYPE_INT, (VarProcessor)DecompilerContext.getProperty("CURRENT_VAR_PROCESSOR"));
+      }
+
+      if(!this.vars.isEmpty()) {
+         this.vars.add(new VarExprent(DecompilerContext.getCounterContainer().getCounterAndIncrement(2), new VarType(8, 0, "java/lang/Throwable"), (VarProcessor)DecompilerContext.getProperty("CURRENT_VAR_PROCESSOR")));
+      }
+
+      return cas;
+   }
+
+   public void initSimpleCopy() {
+      this.first = (Statement)this.stats.get(0);
+      this.handler = (Statement)this.stats.get(1);
+   }
+
+   public Statement getHandler() {
+      return this.handler;
+   }
+
+   public void setHandler(Statement handler) {
+      this.handler = handler;
+   }
+
+   public boolean isFinally() {
+      return this.isFinally;
+   }
+
+   public void setFinally(boolean isFinally) {
+      this.isFinally = isFinally;
+   }
+
+   public VarExprent getMonitor() {
+      return this.monitor;
+   }
+
+   public void setMonitor(VarExprent monitor) {
+      this.monitor = monitor;
+   }
+
+   public List getVars() {
+      return this.vars;
+   }
+}
@@ -0,0 +1,171 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.DecHelper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.vars.VarProcessor;
+import regression.fernflower.struct.gen.VarType;
+
+public class CatchStatement extends Statement {
+   private List exctstrings;
+   private List vars;
+
+   private CatchStatement() {
+      this.exctstrings = new ArrayList();
+      this.vars = new ArrayList();
+      this.type = 7;
+   }
+
+   private CatchStatement(Statement head, Statement next, HashSet setHandlers) {
+      this();
+      this.first = head;
+      this.stats.addWithKey(this.first, this.first.id);
+      Iterator var4 = head.getSuccessorEdges(2).iterator();
+
+      while(var4.hasNext()) {
+         StatEdge edge = (StatEdge)var4.next();
+         Statement stat = edge.getDestination();
+         if(setHandlers.contains(stat)) {
+            this.stats.addWithKey(stat, stat.id);
+            this.exctstrings.add(new ArrayList(edge.getExceptions()));
+            this.vars.add(new VarExprent(DecompilerContext.getCounterContainer().getCounterAndIncrement(2), new VarType(8, 0, (String)edge.getExceptions().get(0)), (VarProcessor)DecompilerContext.getProperty("CURRENT_VAR_PROCESSOR")));
+         }
+      }
+
+      if(next != null) {
+         this.post = next;
+      }
+
+   }
+
+   public static Statement isHead(Statement head) {
+      if(head.getLastBasicType() != 2) {
+         return null;
+      } else {
+         HashSet setHandlers = DecHelper.getUniquePredExceptions(head);
+         if(!setHandlers.isEmpty()) {
+            int hnextcount = 0;
+            Statement next = null;
+            List lstHeadSuccs = head.getSuccessorEdges(1073741824);
+            if(!lstHeadSuccs.isEmpty() && ((StatEdge)lstHeadSuccs.get(0)).getType() == 1) {
+               next = ((StatEdge)lstHeadSuccs.get(0)).getDestination();
+               hnextcount = 2;
+            }
+
+            Iterator lst = head.getSuccessorEdges(2).iterator();
+
+            Statement st;
+            while(lst.hasNext()) {
+               StatEdge edge = (StatEdge)lst.next();
+               st = edge.getDestination();
+               boolean handlerok = true;
+               if(edge.getExceptions() != null && setHandlers.contains(st)) {
+                  if(st.getLastBasicType() != 2) {
+                     handlerok = false;
+                  } else {
+                     List lstStatSuccs = st.getSuccessorEdges(1073741824);
+                     if(!lstStatSuccs.isEmpty() && ((StatEdge)lstStatSuccs.get(0)).getType() == 1) {
+                        Statement statn = ((StatEdge)lstStatSuccs.get(0)).getDestination();
+                        if(next == null) {
+                           next = statn;
+                        } else if(next != statn) {
+                           handlerok = false;
+                        }
+
+                        if(handlerok) {
+                           ++hnextcount;
+                        }
+                     }
+                  }
+               } else {
+                  handlerok = false;
+               }
+
+               if(!handlerok) {
+                  setHandlers.remove(st);
+               }
+            }
+
+            if(hnextcount != 1 && !setHandlers.isEmpty()) {
+               ArrayList var11 = new ArrayList();
+               var11.add(head);
+               var11.addAll(setHandlers);
+               Iterator var12 = var11.iterator();
+
+               while(var12.hasNext()) {
+                  st = (Statement)var12.next();
+                  if(st.isMonitorEnter()) {
+                     return null;
+                  }
+               }
+
+               if(DecHelper.checkStatementExceptions(var11)) {
+                  return new CatchStatement(head, next, setHandlers);
+               }
+            }
+         }
+
+         return null;
+      }
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buf = new TextBuffer();
+      buf.append(ExprProcessor.listToJava(this.varDefinitions, indent, tracer));
+      if(this.isLabeled()) {
+         buf.appendIndent(indent).append("label").append(this.id.toString()).append(":").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      buf.appendIndent(indent).append("try {").appendLineSeparator();
+      tracer.incrementCurrentSourceLine();
+      buf.append(ExprProcessor.jmpWrapper(this.first, indent + 1, false, tracer));
+      buf.appendIndent(indent).append("}");
+
+      for(int i = 1; i < this.stats.size(); ++i) {
+         List exception_types = (List)this.exctstrings.get(i - 1);
+         buf.append(" catch (");
+         if(exception_types.size() > 1) {
+            for(int exc_index = 1; exc_index < exception_types.size(); ++exc_index) {
+               VarType exc_type = new VarType(8, 0, (String)exception_types.get(exc_index));
+               String exc_type_name = ExprProcessor.getCastTypeName(exc_type);
+               buf.append(exc_type_name).append(" | ");
+            }
+         }
+
+         buf.append(((VarExprent)this.vars.get(i - 1)).toJava(indent, tracer));
+         buf.append(") {").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+         buf.append(ExprProcessor.jmpWrapper((Statement)this.stats.get(i), indent + 1, false, tracer)).appendIndent(indent).append("}");
+      }
+
+      buf.appendLineSeparator();
+      tracer.incrementCurrentSourceLine();
+      return buf;
+   }
+
+   public Statement getSimpleCopy() {
+      CatchStatement cs = new CatchStatement();
+      Iterator var2 = this.exctstrings.iterator();
+
+      while(var2.hasNext()) {
+         List exc = (List)var2.next();
+         cs.exctstrings.add(new ArrayList(exc));
+         cs.vars.add(new VarExprent(DecompilerContext.getCounterContainer().getCounterAndIncrement(2), new VarType(8, 0, (String)exc.get(0)), (VarProcessor)DecompilerContext.getProperty("CURRENT_VAR_PROCESSOR")));
+      }
+
+      return cs;
+   }
+
+   public List getVars() {
+      return this.vars;
+   }
+}
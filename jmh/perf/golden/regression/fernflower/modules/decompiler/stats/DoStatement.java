@@ -0,0 +1,189 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+
+public class DoStatement extends Statement {
+   public static final int LOOP_DO = 0;
+   public static final int LOOP_DOWHILE = 1;
+   public static final int LOOP_WHILE = 2;
+   public static final int LOOP_FOR = 3;
+   private int looptype;
+   private List initExprent;
+   private List conditionExprent;
+   private List incExprent;
+
+   private DoStatement() {
+      this.initExprent = new ArrayList();
+      this.conditionExprent = new ArrayList();
+      this.incExprent = new ArrayList();
+      this.type = 5;
+      this.looptype = 0;
+      this.initExprent.add((Object)null);
+      this.conditionExprent.add((Object)null);
+      this.incExprent.add((Object)null);
+   }
+
+   private DoStatement(Statement head) {
+      this();
+      this.first = head;
+      this.stats.addWithKey(this.first, this.first.id);
+   }
+
+   public static Statement isHead(Statement head) {
+      if(head.getLastBasicType() == 2 && !head.isMonitorEnter()) {
+         StatEdge edge = null;
+         List lstSuccs = head.getSuccessorEdges(1073741824);
+         if(!lstSuccs.isEmpty()) {
+            edge = (StatEdge)lstSuccs.get(0);
+         }
+
+         if(edge != null && edge.getType() == 1 && edge.getDestination() == head) {
+            return new DoStatement(head);
+         }
+
+         if(head.type != 5 && (edge == null || edge.getType() != 1) && head.getContinueSet().contains(head.getBasichead())) {
+            return new DoStatement(head);
+         }
+      }
+
+      return null;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buf = new TextBuffer();
+      buf.append(ExprProcessor.listToJava(this.varDefinitions, indent, tracer));
+      if(this.isLabeled()) {
+         buf.appendIndent(indent).append("label").append(this.id.toString()).append(":").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      switch(this.looptype) {
+      case 0:
+         buf.appendIndent(indent).append("while(true) {").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+         buf.append(ExprProcessor.jmpWrapper(this.first, indent + 1, false, tracer));
+         buf.appendIndent(indent).append("}").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+         break;
+      case 1:
+         buf.appendIndent(indent).append("do {").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+         buf.append(ExprProcessor.jmpWrapper(this.first, indent + 1, false, tracer));
+         buf.appendIndent(indent).append("} while(").append(((Exprent)this.conditionExprent.get(0)).toJava(indent, tracer)).append(");").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+         break;
+      case 2:
+         buf.appendIndent(indent).append("while(").append(((Exprent)this.conditionExprent.get(0)).toJava(indent, tracer)).append(") {").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+         buf.append(ExprProcessor.jmpWrapper(this.first, indent + 1, false, tracer));
+         buf.appendIndent(indent).append("}").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+         break;
+      case 3:
+         buf.appendIndent(indent).append("for(");
+         if(this.initExprent.get(0) != null) {
+            buf.append(((Exprent)this.initExprent.get(0)).toJava(indent, tracer));
+         }
+
+         buf.append("; ").append(((Exprent)this.conditionExprent.get(0)).toJava(indent, tracer)).append("; ").append(((Exprent)this.incExprent.get(0)).toJava(indent, tracer)).append(") {").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+         buf.append(ExprProcessor.jmpWrapper(this.first, indent + 1, false, tracer));
+         buf.appendIndent(indent).append("}").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      return buf;
+   }
+
+   public List getSequentialObjects() {
+      ArrayList lst = new ArrayList();
+      switch(this.looptype) {
+      case 3:
+         if(this.getInitExprent() != null) {
+            lst.add(this.getInitExprent());
+         }
+      case 2:
+         lst.add(this.getConditionExprent());
+      default:
+         lst.add(this.first);
+         switch(this.looptype) {
+         case 1:
+            lst.add(this.getConditionExprent());
+            break;
+         case 3:
+            lst.add(this.getIncExprent());
+         }
+
+         return lst;
+      }
+   }
+
+   public void replaceExprent(Exprent oldexpr, Exprent newexpr) {
+      if(this.initExprent.get(0) == oldexpr) {
+         this.initExprent.set(0, newexpr);
+      }
+
+      if(this.conditionExprent.get(0) == oldexpr) {
+         this.conditionExprent.set(0, newexpr);
+      }
+
+      if(this.incExprent.get(0) == oldexpr) {
+         this.incExprent.set(0, newexpr);
+      }
+
+   }
+
+   public Statement getSimpleCopy() {
+      return new DoStatement();
+   }
+
+   public List getInitExprentList() {
+      return this.initExprent;
+   }
+
+   public List getConditionExprentList() {
+      return this.conditionExprent;
+   }
+
+   public List getIncExprentList() {
+      return this.incExprent;
+   }
+
+   public Exprent getConditionExprent() {
+      return (Exprent)this.conditionExprent.get(0);
+   }
+
+   public void setConditionExprent(Exprent conditionExprent) {
+      this.conditionExprent.set(0, conditionExprent);
+   }
+
+   public Exprent getIncExprent() {
+      return (Exprent)this.incExprent.get(0);
+   }
+
+   public void setIncExprent(Exprent incExprent) {
+      this.incExprent.set(0, incExprent);
+   }
+
+   public Exprent getInitExprent() {
+      return (Exprent)this.initExprent.get(0);
+   }
+
+   public void setInitExprent(Exprent initExprent) {
+      this.initExprent.set(0, initExprent);
+   }
+
+   public int getLooptype() {
+      return this.looptype;
+   }
+
+   public void setLooptype(int looptype) {
+      this.looptype = looptype;
+   }
+}
@@ -0,0 +1,47 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+
+public class GeneralStatement extends Statement {
+   private GeneralStatement() {
+      this.type = 0;
+   }
+
+   public GeneralStatement(Statement head, Collection statements, Statement post) {
+      this();
+      this.first = head;
+      this.stats.addWithKey(head, head.id);
+      HashSet set = new HashSet(statements);
+      set.remove(head);
+      Iterator var5 = set.iterator();
+
+      while(var5.hasNext()) {
+         Statement st = (Statement)var5.next();
+         this.stats.addWithKey(st, st.id);
+      }
+
+      this.post = post;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buf = new TextBuffer();
+      if(this.isLabeled()) {
+         buf.appendIndent(indent).append("label").append(this.id.toString()).append(":").appendLineSeparator();
+      }
+
+      buf.appendIndent(indent).append("abstract statement {").appendLineSeparator();
+      Iterator var4 = this.stats.iterator();
+
+      while(var4.hasNext()) {
+         Statement stat = (Statement)var4.next();
+         buf.append(stat.toJava(indent + 1, tracer));
+      }
+
+      buf.appendIndent(indent).append("}");
+      return buf;
+   }
+}
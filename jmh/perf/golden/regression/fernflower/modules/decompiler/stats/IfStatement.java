@@ -0,0 +1,371 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.DecHelper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.IfExprent;
+import regression.fernflower.struct.match.IMatchable;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.struct.match.MatchNode;
+import regression.fernflower.util.InterpreterUtil;
+
+public class IfStatement extends Statement {
+   public static final int IFTYPE_IF = 0;
+   public static final int IFTYPE_IFELSE = 1;
+   public int iftype;
+   private Statement ifstat;
+   private Statement elsestat;
+   private StatEdge ifedge;
+   private StatEdge elseedge;
+   private boolean negated;
+   private boolean iffflag;
+   private List headexprent;
+
+   private IfStatement() {
+      this.negated = false;
+      this.headexprent = new ArrayList();
+      this.type = 2;
+      this.headexprent.add((Object)null);
+   }
+
+   private IfStatement(Statement head, int regedges, Statement postst) {
+      this();
+      this.first = head;
+      this.stats.addWithKey(head, head.id);
+      List lstHeadSuccs = head.getSuccessorEdges(1073741824);
+      StatEdge edge;
+      switch(regedges) {
+      case 0:
+         this.ifstat = null;
+         this.elsestat = null;
+         break;
+      case 1:
+         this.ifstat = null;
+         this.elsestat = null;
+         edge = (StatEdge)lstHeadSuccs.get(1);
+         if(edge.getType() != 1) {
+            this.post = ((StatEdge)lstHeadSuccs.get(0)).getDestination();
+         } else {
+            this.post = edge.getDestination();
+            this.negated = true;
+         }
+         break;
+      case 2:
+         this.elsestat = ((StatEdge)lstHeadSuccs.get(0)).getDestination();
+         this.ifstat = ((StatEdge)lstHeadSuccs.get(1)).getDestination();
+         List lstSucc = this.ifstat.getSuccessorEdges(1);
+         List lstSucc1 = this.elsestat.getSuccessorEdges(1);
+         if(this.ifstat.getPredecessorEdges(1).size() <= 1 && lstSucc.size() <= 1) {
+            if(this.elsestat.getPredecessorEdges(1).size() <= 1 && lstSucc1.size() <= 1) {
+               if(lstSucc.size() == 0) {
+                  this.post = this.elsestat;
+               } else if(lstSucc1.size() == 0) {
+                  this.post = this.ifstat;
+               }
+            } else {
+               this.post = this.elsestat;
+            }
+         } else {
+            this.post = this.ifstat;
+         }
+
+         if(this.ifstat == this.post) {
+            if(this.elsestat != this.post) {
+               this.ifstat = this.elsestat;
+               this.negated = true;
+            } else {
+               this.ifstat = null;
+            }
+
+            this.elsestat = null;
+         } else if(this.elsestat == this.post) {
+            this.elsestat = null;
+         } else {
+            this.post = postst;
+         }
+
+         if(this.elsestat == null) {
+            regedges = 1;
+         }
+      }
+
+      this.ifedge = (StatEdge)lstHeadSuccs.get(this.negated ? 0 : 1);
+      this.elseedge = regedges == 2 ? (StatEdge)lstHeadSuccs.get(this.negated ? 1 : 0) : null;
+      this.iftype = regedges == 2 ? 1 : 0;
+      if(this.iftype == 0) {
+         if(regedges == 0) {
+            edge = (StatEdge)lstHeadSuccs.get(0);
+            head.removeSuccessor(edge);
+            edge.setSource(this);
+            this.addSuccessor(edge);
+         } else if(regedges == 1) {
+            edge = (StatEdge)lstHeadSuccs.get(this.negated ? 1 : 0);
+            head.removeSuccessor(edge);
+         }
+      }
+
+      if(this.ifstat != null) {
+         this.stats.addWithKey(this.ifstat, this.ifstat.id);
+      }
+
+      if(this.elsestat != null) {
+         this.stats.addWithKey(this.elsestat, this.elsestat.id);
+      }
+
+      if(this.post == head) {
+         this.post = this;
+      }
+
+   }
+
+   public static Statement isHead(Statement head) {
+      if(head.type == 8 && head.getLastBasicType() == 0) {
+         int regsize = head.getSuccessorEdges(1).size();
+         Statement p = null;
+         boolean ok = regsize < 2;
+         if(!ok) {
+            ArrayList lst = new ArrayList();
+            if(DecHelper.isChoiceStatement(head, lst)) {
+               p = (Statement)lst.remove(0);
+               Iterator var5 = lst.iterator();
+
+               while(var5.hasNext()) {
+                  Statement st = (Statement)var5.next();
+                  if(st.isMonitorEnter()) {
+                     return null;
+                  }
+               }
+
+               ok = DecHelper.checkStatementExceptions(lst);
+            }
+         }
+
+         if(ok) {
+            return new IfStatement(head, regsize, p);
+         }
+      }
+
+      return null;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      String indstr = InterpreterUtil.getIndentString(indent);
+      TextBuffer buf = new TextBuffer();
+      buf.append(ExprProcessor.listToJava(this.varDefinitions, indent, tracer));
+      buf.append(this.first.toJava(indent, tracer));
+      if(this.isLabeled()) {
+         buf.appendIndent(indent).append("label").append(this.id.toString()).append(":").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      buf.appendIndent(indent).append(((Exprent)this.headexprent.get(0)).toJava(indent, tracer)).append(" {").appendLineSeparator();
+      tracer.incrementCurrentSourceLine();
+      if(this.ifstat == null) {
+         if(this.ifedge.explicit) {
+            buf.appendIndent(indent + 1);
+            if(this.ifedge.getType() == 4) {
+               buf.append("break");
+            } else {
+               buf.append("continue");
+            }
+
+            if(this.ifedge.labeled) {
+               buf.append(" label").append(this.ifedge.closure.id.toString());
+            }
+
+            buf.append(";").appendLineSeparator();
+            tracer.incrementCurrentSourceLine();
+         }
+      } else {
+         buf.append(ExprProcessor.jmpWrapper(this.ifstat, indent + 1, false, tracer));
+      }
+
+      boolean elseif = false;
+      if(this.elsestat != null) {
+         if(this.elsestat.type != 2 || !this.elsestat.varDefinitions.isEmpty() || !this.elsestat.getFirst().getExprents().isEmpty() || this.elsestat.isLabeled() || !this.elsestat.getSuccessorEdges(1073741824).isEmpty() && ((StatEdge)this.elsestat.getSuccessorEdges(1073741824).get(0)).explicit) {
+            BytecodeMappingTracer else_tracer1 = new BytecodeMappingTracer(tracer.getCurrentSourceLine() + 1);
+            TextBuffer content = ExprProcessor.jmpWrapper(this.elsestat, indent + 1, false, else_tracer1);
+            if(content.length() > 0) {
+               buf.appendIndent(indent).append("} else {").appendLineSeparator();
+               tracer.setCurrentSourceLine(else_tracer1.getCurrentSourceLine());
+               tracer.addTracer(else_tracer1);
+               buf.append(content);
+            }
+         } else {
+            TextBuffer else_tracer = ExprProcessor.jmpWrapper(this.elsestat, indent, false, tracer);
+            else_tracer.setStart(indstr.length());
+            buf.appendIndent(indent).append("} else ");
+            buf.append(else_tracer);
+            elseif = true;
+         }
+      }
+
+      if(!elseif) {
+         buf.appendIndent(indent).append("}").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      return buf;
+   }
+
+   public void initExprents() {
+      IfExprent ifexpr = (IfExprent)this.first.getExprents().remove(this.first.getExprents().size() - 1);
+      if(this.negated) {
+         ifexpr = (IfExprent)ifexpr.copy();
+         ifexpr.negateIf();
+      }
+
+      this.headexprent.set(0, ifexpr);
+   }
+
+   public List getSequentialObjects() {
+      ArrayList lst = new ArrayList(this.stats);
+      lst.add(1, this.headexprent.get(0));
+      return lst;
+   }
+
+   public void replaceExprent(Exprent oldexpr, Exprent newexpr) {
+      if(this.headexprent.get(0) == oldexpr) {
+         this.headexprent.set(0, newexpr);
+      }
+
+   }
+
+   public void replaceStatement(Statement oldstat, Statement newstat) {
+      super.replaceStatement(oldstat, newstat);
+      if(this.ifstat == oldstat) {
+         this.ifstat = newstat;
+      }
+
+      if(this.elsestat == oldstat) {
+         this.elsestat = newstat;
+      }
+
+      List lstSuccs = this.first.getSuccessorEdges(1073741824);
+      if(this.iftype == 0) {
+         this.ifedge = (StatEdge)lstSuccs.get(0);
+         this.elseedge = null;
+      } else {
+         StatEdge edge0 = (StatEdge)lstSuccs.get(0);
+         StatEdge edge1 = (StatEdge)lstSuccs.get(1);
+         if(edge0.getDestination() == this.ifstat) {
+            this.ifedge = edge0;
+            this.elseedge = edge1;
+         } else {
+            this.ifedge = edge1;
+            this.elseedge = edge0;
+         }
+      }
+
+   }
+
+   public Statement getSimpleCopy() {
+      IfStatement is = new IfStatement();
+      is.iftype = this.iftype;
+      is.negated = this.negated;
+      is.iffflag = this.iffflag;
+      return is;
+   }
+
+   public void initSimpleCopy() {
+      this.first = (Statement)this.stats.get(0);
+      List lstSuccs = this.first.getSuccessorEdges(1073741824);
+      this.ifedge = (StatEdge)lstSuccs.get(this.iftype != 0 && !this.negated ? 1 : 0);
+      if(this.stats.size() > 1) {
+         this.ifstat = (Statement)this.stats.get(1);
+      }
+
+      if(this.iftype == 1) {
+         this.elseedge = (StatEdge)lstSuccs.get(this.negated ? 1 : 0);
+         this.elsestat = (Statement)this.stats.get(2);
+      }
+
+   }
+
+   public Statement getElsestat() {
+      return this.elsestat;
+   }
+
+   public void setElsestat(Statement elsestat) {
+      this.elsestat = elsestat;
+   }
+
+   public Statement getIfstat() {
+      return this.ifstat;
+   }
+
+   public void setIfstat(Statement ifstat) {
+      this.ifstat = ifstat;
+   }
+
+   public boolean isNegated() {
+      return this.negated;
+   }
+
+   public void setNegated(boolean negated) {
+      this.negated = negated;
+   }
+
+   public List getHeadexprentList() {
+      return this.headexprent;
+   }
+
+   public IfExprent getHeadexprent() {
+      return (IfExprent)this.headexprent.get(0);
+   }
+
+   public boolean isIffflag() {
+      return this.iffflag;
+   }
+
+   public void setIffflag(boolean iffflag) {
+      this.iffflag = iffflag;
+   }
+
+   public void setElseEdge(StatEdge elseedge) {
+      this.elseedge = elseedge;
+   }
+
+   public void setIfEdge(StatEdge ifedge) {
+      this.ifedge = ifedge;
+   }
+
+   public StatEdge getIfEdge() {
+      return this.ifedge;
+   }
+
+   public StatEdge getElseEdge() {
+      return this.elseedge;
+   }
+
+   public IMatchable findObject(MatchNode matchNode, int index) {
+      IMatchable object = super.findObject(matchNode, index);
+      if(object != null) {
+         return object;
+      } else {
+         if(matchNode.getType() == 1) {
+            String position = (String)matchNode.getRuleValue(IMatchable.MatchProperties.EXPRENT_POSITION);
+            if("head".equals(position)) {
+               return this.getHeadexprent();
+            }
+         }
+
+         return null;
+      }
+   }
+
+   public boolean match(MatchNode matchNode, MatchEngine engine) {
+      if(!super.match(matchNode, engine)) {
+         return false;
+      } else {
+         Integer type = (Integer)matchNode.getRuleValue(IMatchable.MatchProperties.STATEMENT_IFTYPE);
+         return type == null || this.iftype == type.intValue();
+      }
+   }
+}
@@ -0,0 +1,29 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+
+public class RootStatement extends Statement {
+   private Statement dummyExit;
+
+   public RootStatement(Statement head, Statement dummyExit) {
+      this.type = 13;
+      this.first = head;
+      this.dummyExit = dummyExit;
+      this.stats.addWithKey(this.first, this.first.id);
+      this.first.setParent(this);
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      return ExprProcessor.listToJava(this.varDefinitions, indent, tracer).append(this.first.toJava(indent, tracer));
+   }
+
+   public Statement getDummyExit() {
+      return this.dummyExit;
+   }
+
+   public void setDummyExit(Statement dummyExit) {
+      this.dummyExit = dummyExit;
+   }
+}
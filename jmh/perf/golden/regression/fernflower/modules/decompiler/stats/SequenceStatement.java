@@ -0,0 +1,97 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.DecHelper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.StatEdge;
+
+public class SequenceStatement extends Statement {
+   private SequenceStatement() {
+      this.type = 15;
+   }
+
+   public SequenceStatement(List lst) {
+      this();
+      this.lastBasicType = ((Statement)lst.get(lst.size() - 1)).getLastBasicType();
+      Iterator var2 = lst.iterator();
+
+      while(var2.hasNext()) {
+         Statement st = (Statement)var2.next();
+         this.stats.addWithKey(st, st.id);
+      }
+
+      this.first = (Statement)this.stats.get(0);
+   }
+
+   private SequenceStatement(Statement head, Statement tail) {
+      this(Arrays.asList(new Statement[]{head, tail}));
+      List lstSuccs = tail.getSuccessorEdges(1073741824);
+      if(!lstSuccs.isEmpty()) {
+         StatEdge edge = (StatEdge)lstSuccs.get(0);
+         if(edge.getType() == 1 && edge.getDestination() != head) {
+            this.post = edge.getDestination();
+         }
+      }
+
+   }
+
+   public static Statement isHead2Block(Statement head) {
+      if(head.getLastBasicType() != 2) {
+         return null;
+      } else {
+         StatEdge edge = null;
+         List lstSuccs = head.getSuccessorEdges(1073741824);
+         if(!lstSuccs.isEmpty()) {
+            edge = (StatEdge)lstSuccs.get(0);
+         }
+
+         if(edge != null && edge.getType() == 1) {
+            Statement stat = edge.getDestination();
+            if(stat != head && stat.getPredecessorEdges(1).size() == 1 && !stat.isMonitorEnter() && stat.getLastBasicType() == 2 && DecHelper.checkStatementExceptions(Arrays.asList(new Statement[]{head, stat}))) {
+               return new SequenceStatement(head, stat);
+            }
+         }
+
+         return null;
+      }
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buf = new TextBuffer();
+      boolean islabeled = this.isLabeled();
+      buf.append(ExprProcessor.listToJava(this.varDefinitions, indent, tracer));
+      if(islabeled) {
+         buf.appendIndent(indent++).append("label").append(this.id.toString()).append(": {").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      boolean notempty = false;
+
+      for(int i = 0; i < this.stats.size(); ++i) {
+         Statement st = (Statement)this.stats.get(i);
+         if(i > 0 && notempty) {
+            buf.appendLineSeparator();
+            tracer.incrementCurrentSourceLine();
+         }
+
+         TextBuffer str = ExprProcessor.jmpWrapper(st, indent, false, tracer);
+         buf.append(str);
+         notempty = !str.containsOnlyWhitespaces();
+      }
+
+      if(islabeled) {
+         buf.appendIndent(indent - 1).append("}").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      return buf;
+   }
+
+   public Statement getSimpleCopy() {
+      return new SequenceStatement();
+   }
+}
@@ -0,0 +1,864 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.StrongConnectivityHelper;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.struct.match.IMatchable;
+import regression.fernflower.struct.match.MatchEngine;
+import regression.fernflower.struct.match.MatchNode;
+import regression.fernflower.util.VBStyleCollection;
+
+public class Statement implements IMatchable {
+   public static final int STATEDGE_ALL = Integer.MIN_VALUE;
+   public static final int STATEDGE_DIRECT_ALL = 1073741824;
+   public static final int DIRECTION_BACKWARD = 0;
+   public static final int DIRECTION_FORWARD = 1;
+   public static final int TYPE_GENERAL = 0;
+   public static final int TYPE_IF = 2;
+   public static final int TYPE_DO = 5;
+   public static final int TYPE_SWITCH = 6;
+   public static final int TYPE_TRYCATCH = 7;
+   public static final int TYPE_BASICBLOCK = 8;
+   public static final int TYPE_FINALLY = 9;
+   public static final int TYPE_SYNCRONIZED = 10;
+   public static final int TYPE_PLACEHOLDER = 11;
+   public static final int TYPE_CATCHALL = 12;
+   public static final int TYPE_ROOT = 13;
+   public static final int TYPE_DUMMYEXIT = 14;
+   public static final int TYPE_SEQUENCE = 15;
+   public static final int LASTBASICTYPE_IF = 0;
+   public static final int LASTBASICTYPE_SWITCH = 1;
+   public static final int LASTBASICTYPE_GENERAL = 2;
+   public int type;
+   public Integer id = Integer.valueOf(DecompilerContext.getCounterContainer().getCounterAndIncrement(0));
+   private Map mapSuccEdges = new HashMap();
+   private Map mapPredEdges = new HashMap();
+   private Map mapSuccStates = new HashMap();
+   private Map mapPredStates = new HashMap();
+   protected VBStyleCollection stats = new VBStyleCollection();
+   protected Statement parent;
+   protected Statement first;
+   protected List exprents;
+   protected HashSet labelEdges = new HashSet();
+   protected List varDefinitions = new ArrayList();
+   private boolean copied = false;
+   protected Statement post;
+   protected int lastBasicType = 2;
+   protected boolean isMonitorEnter;
+   protected boolean containsMonitorExit;
+   protected HashSet continueSet = new HashSet();
+
+   public void clearTempInformation() {
+      this.post = null;
+      this.continueSet = null;
+      this.copied = false;
+      this.isMonitorEnter = false;
+      this.containsMonitorExit = false;
+      processMap(this.mapSuccEdges);
+      processMap(this.mapPredEdges);
+      processMap(this.mapSuccStates);
+      processMap(this.mapPredStates);
+   }
+
+   private static void processMap(Map map) {
+      map.remove(Integer.valueOf(2));
+      List lst = (List)map.get(Integer.valueOf(1073741824));
+      if(lst != null) {
+         map.put(Integer.valueOf(Integer.MIN_VALUE), new ArrayList(lst));
+      } else {
+         map.remove(Integer.valueOf(Integer.MIN_VALUE));
+      }
+
+   }
+
+   public void collapseNodesToStatement(Statement stat) {
+      Statement head = stat.getFirst();
+      Statement post = stat.getPost();
+      VBStyleCollection setNodes = stat.getStats();
+      Iterator setHandlers;
+      StatEdge prededge;
+      if(post != null) {
+         setHandlers = post.getEdges(1073741824, 0).iterator();
+
+         while(setHandlers.hasNext()) {
+            prededge = (StatEdge)setHandlers.next();
+            if(stat.containsStatementStrict(prededge.getSource())) {
+               prededge.getSource().changeEdgeType(1, prededge, 4);
+               stat.addLabeledEdge(prededge);
+            }
+         }
+      }
+
+      setHandlers = head.getAllPredecessorEdges().iterator();
+
+      while(setHandlers.hasNext()) {
+         prededge = (StatEdge)setHandlers.next();
+         if(prededge.getType() != 2 && stat.containsStatementStrict(prededge.getSource())) {
+            prededge.getSource().changeEdgeType(1, prededge, 8);
+            stat.addLabeledEdge(prededge);
+         }
+
+         head.removePredecessor(prededge);
+         prededge.getSource().changeEdgeNode(1, prededge, stat);
+         stat.addPredecessor(prededge);
+      }
+
+      if(setNodes.containsKey(this.first.id)) {
+         this.first = stat;
+      }
+
+      HashSet setHandlers1 = new HashSet(head.getNeighbours(2, 1));
+      Iterator prededge1 = setNodes.iterator();
+
+      Statement st;
+      while(prededge1.hasNext()) {
+         st = (Statement)prededge1.next();
+         setHandlers1.retainAll(st.getNeighbours(2, 1));
+      }
+
+      if(!setHandlers1.isEmpty()) {
+         prededge1 = head.getEdges(2, 1).iterator();
+
+         while(prededge1.hasNext()) {
+            StatEdge st1 = (StatEdge)prededge1.next();
+            Statement handler = st1.getDestination();
+            if(setHandlers1.contains(handler) && !setNodes.containsKey(handler.id)) {
+               stat.addSuccessor(new StatEdge(stat, handler, st1.getExceptions()));
+            }
+         }
+
+         prededge1 = setNodes.iterator();
+
+         while(prededge1.hasNext()) {
+            st = (Statement)prededge1.next();
+            Iterator handler1 = st.getEdges(2, 1).iterator();
+
+            while(handler1.hasNext()) {
+               StatEdge edge = (StatEdge)handler1.next();
+               if(setHandlers1.contains(edge.getDestination())) {
+                  st.removeSuccessor(edge);
+               }
+            }
+         }
+      }
+
+      if(post != null && !stat.getNeighbours(2, 1).contains(post)) {
+         stat.addSuccessor(new StatEdge(1, stat, post));
+      }
+
+      prededge1 = setNodes.iterator();
+
+      while(prededge1.hasNext()) {
+         st = (Statement)prededge1.next();
+         this.stats.removeWithKey(st.id);
+      }
+
+      this.stats.addWithKey(stat, stat.id);
+      stat.setAllParent();
+      stat.setParent(this);
+      stat.buildContinueSet();
+      stat.buildMonitorFlags();
+      if(stat.type == 6) {
+         ((SwitchStatement)stat).sortEdgesAndNodes();
+      }
+
+   }
+
+   public void setAllParent() {
+      Iterator var1 = this.stats.iterator();
+
+      while(var1.hasNext()) {
+         Statement st = (Statement)var1.next();
+         st.setParent(this);
+      }
+
+   }
+
+   public void addLabeledEdge(StatEdge edge) {
+      if(edge.closure != null) {
+         edge.closure.getLabelEdges().remove(edge);
+      }
+
+      edge.closure = this;
+      this.getLabelEdges().add(edge);
+   }
+
+   private void addEdgeDirectInternal(int direction, StatEdge edge, int edgetype) {
+      Map mapEdges = direction == 0 ? this.mapPredEdges : this.mapSuccEdges;
+      Map mapStates = direction == 0 ? this.mapPredStates : this.mapSuccStates;
+      Object lst = (List)mapEdges.get(Integer.valueOf(edgetype));
+      if(lst == null) {
+         mapEdges.put(Integer.valueOf(edgetype), lst = new ArrayList());
+      }
+
+      ((List)lst).add(edge);
+      Object lstStates = (List)mapStates.get(Integer.valueOf(edgetype));
+      if(lstStates == null) {
+         mapStates.put(Integer.valueOf(edgetype), lstStates = new ArrayList());
+      }
+
+      ((List)lstStates).add(direction == 0 ? edge.getSource() : edge.getDestination());
+   }
+
+   private void addEdgeInternal(int direction, StatEdge edge) {
+      int type = edge.getType();
+      int[] arrtypes;
+      if(type == 2) {
+         arrtypes = new int[]{Integer.MIN_VALUE, 2};
+      } else {
+         arrtypes = new int[]{Integer.MIN_VALUE, 1073741824, type};
+      }
+
+      int[] var5 = arrtypes;
+      int var6 = arrtypes.length;
+
+      for(int var7 = 0; var7 < var6; ++var7) {
+         int edgetype = var5[var7];
+         this.addEdgeDirectInternal(direction, edge, edgetype);
+      }
+
+   }
+
+   private void removeEdgeDirectInternal(int direction, StatEdge edge, int edgetype) {
+      Map mapEdges = direction == 0 ? this.mapPredEdges : this.mapSuccEdges;
+      Map mapStates = direction == 0 ? this.mapPredStates : this.mapSuccStates;
+      List lst = (List)mapEdges.get(Integer.valueOf(edgetype));
+      if(lst != null) {
+         int index = lst.indexOf(edge);
+         if(index >= 0) {
+            lst.remove(index);
+            ((List)mapStates.get(Integer.valueOf(edgetype))).remove(index);
+         }
+      }
+
+   }
+
+   private void removeEdgeInternal(int direction, StatEdge edge) {
+      int type = edge.getType();
+      int[] arrtypes;
+      if(type == 2) {
+         arrtypes = new int[]{Integer.MIN_VALUE, 2};
+      } else {
+         arrtypes = new int[]{Integer.MIN_VALUE, 1073741824, type};
+      }
+
+      int[] var5 = arrtypes;
+      int var6 = arrtypes.length;
+
+      for(int var7 = 0; var7 < var6; ++var7) {
+         int edgetype = var5[var7];
+         this.removeEdgeDirectInternal(direction, edge, edgetype);
+      }
+
+   }
+
+   public void addPredecessor(StatEdge edge) {
+      this.addEdgeInternal(0, edge);
+   }
+
+   public void removePredecessor(StatEdge edge) {
+      if(edge != null) {
+         this.removeEdgeInternal(0, edge);
+      }
+   }
+
+   public void addSuccessor(StatEdge edge) {
+      this.addEdgeInternal(1, edge);
+      if(edge.closure != null) {
+         edge.closure.getLabelEdges().add(edge);
+      }
+
+      edge.getDestination().addPredecessor(edge);
+   }
+
+   public void removeSuccessor(StatEdge edge) {
+      if(edge != null) {
+         this.removeEdgeInternal(1, edge);
+         if(edge.closure != null) {
+            edge.closure.getLabelEdges().remove(edge);
+         }
+
+         if(edge.getDestination() != null) {
+            edge.getDestination().removePredecessor(edge);
+         }
+
+      }
+   }
+
+   public void removeAllSuccessors(Statement stat) {
+      if(stat != null) {
+         Iterator var2 = this.getAllSuccessorEdges().iterator();
+
+         while(var2.hasNext()) {
+            StatEdge edge = (StatEdge)var2.next();
+            if(edge.getDestination() == stat) {
+               this.removeSuccessor(edge);
+            }
+         }
+
+      }
+   }
+
+   public HashSet buildContinueSet() {
+      this.continueSet.clear();
+      Iterator var1 = this.stats.iterator();
+
+      while(var1.hasNext()) {
+         Statement edge = (Statement)var1.next();
+         this.continueSet.addAll(edge.buildContinueSet());
+         if(edge != this.first) {
+            this.continueSet.remove(edge.getBasichead());
+         }
+      }
+
+      var1 = this.getEdges(8, 1).iterator();
+
+      while(var1.hasNext()) {
+         StatEdge edge1 = (StatEdge)var1.next();
+         this.continueSet.add(edge1.getDestination().getBasichead());
+      }
+
+      if(this.type == 5) {
+         this.continueSet.remove(this.first.getBasichead());
+      }
+
+      return this.continueSet;
+   }
+
+   public void buildMonitorFlags() {
+      Iterator bblock = this.stats.iterator();
+
+      while(bblock.hasNext()) {
+         Statement seq = (Statement)bblock.next();
+         seq.buildMonitorFlags();
+      }
+
+      Statement st;
+      Iterator var7;
+      switch(this.type) {
+      case 0:
+      case 10:
+      case 13:
+         break;
+      case 1:
+      case 3:
+      case 4:
+      case 5:
+      case 6:
+      case 7:
+      case 9:
+      case 11:
+      case 12:
+      case 14:
+      default:
+         this.containsMonitorExit = false;
+
+         for(var7 = this.stats.iterator(); var7.hasNext(); this.containsMonitorExit |= st.isContainsMonitorExit()) {
+            st = (Statement)var7.next();
+         }
+
+         return;
+      case 2:
+      case 15:
+         this.containsMonitorExit = false;
+
+         for(var7 = this.stats.iterator(); var7.hasNext(); this.containsMonitorExit |= st.isContainsMonitorExit()) {
+            st = (Statement)var7.next();
+         }
+
+         return;
+      case 8:
+         BasicBlockStatement var5 = (BasicBlockStatement)this;
+         InstructionSequence var6 = var5.getBlock().getSeq();
+         if(var6 != null && var6.length() > 0) {
+            for(int i = 0; i < var6.length(); ++i) {
+               if(var6.getInstr(i).opcode == 195) {
+                  this.containsMonitorExit = true;
+                  break;
+               }
+            }
+
+            this.isMonitorEnter = var6.getLastInstr().opcode == 194;
+         }
+      }
+
+   }
+
+   public List getReversePostOrderList() {
+      return this.getReversePostOrderList(this.first);
+   }
+
+   public List getReversePostOrderList(Statement stat) {
+      ArrayList res = new ArrayList();
+      addToReversePostOrderListIterative(stat, res);
+      return res;
+   }
+
+   public List getPostReversePostOrderList() {
+      return this.getPostReversePostOrderList((List)null);
+   }
+
+   public List getPostReversePostOrderList(List lstexits) {
+      ArrayList res = new ArrayList();
+      if(lstexits == null) {
+         StrongConnectivityHelper setVisited = new StrongConnectivityHelper(this);
+         lstexits = StrongConnectivityHelper.getExitReps(setVisited.getComponents());
+      }
+
+      HashSet setVisited1 = new HashSet();
+      Iterator var4 = lstexits.iterator();
+
+      while(var4.hasNext()) {
+         Statement exit = (Statement)var4.next();
+         addToPostReversePostOrderList(exit, res, setVisited1);
+      }
+
+      if(res.size() != this.stats.size()) {
+         throw new RuntimeException("computing post reverse post order failed!");
+      } else {
+         return res;
+      }
+   }
+
+   public boolean containsStatement(Statement stat) {
+      return this == stat || this.containsStatementStrict(stat);
+   }
+
+   public boolean containsStatementStrict(Statement stat) {
+      if(this.stats.contains(stat)) {
+         return true;
+      } else {
+         for(int i = 0; i < this.stats.size(); ++i) {
+            if(((Statement)this.stats.get(i)).containsStatementStrict(stat)) {
+               return true;
+            }
+         }
+
+         return false;
+      }
+   }
+
+   public TextBuffer toJava() {
+      return this.toJava(0, new BytecodeMappingTracer());
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      throw new RuntimeException("not implemented");
+   }
+
+   public List getSequentialObjects() {
+      return new ArrayList(this.stats);
+   }
+
+   public void initExprents() {
+   }
+
+   public void replaceExprent(Exprent oldexpr, Exprent newexpr) {
+   }
+
+   public Statement getSimpleCopy() {
+      throw new RuntimeException("not implemented");
+   }
+
+   public void initSimpleCopy() {
+      if(!this.stats.isEmpty()) {
+         this.first = (Statement)this.stats.get(0);
+      }
+
+   }
+
+   public void replaceStatement(Statement oldstat, Statement newstat) {
+      Iterator statindex = oldstat.getAllPredecessorEdges().iterator();
+
+      StatEdge lst;
+      while(statindex.hasNext()) {
+         lst = (StatEdge)statindex.next();
+         oldstat.removePredecessor(lst);
+         lst.getSource().changeEdgeNode(1, lst, newstat);
+         newstat.addPredecessor(lst);
+      }
+
+      statindex = oldstat.getAllSuccessorEdges().iterator();
+
+      while(statindex.hasNext()) {
+         lst = (StatEdge)statindex.next();
+         oldstat.removeSuccessor(lst);
+         lst.setSource(newstat);
+         newstat.addSuccessor(lst);
+      }
+
+      int var7 = this.stats.getIndexByKey(oldstat.id);
+      this.stats.removeWithKey(oldstat.id);
+      this.stats.addWithKeyAndIndex(var7, newstat, newstat.id);
+      newstat.setParent(this);
+      newstat.post = oldstat.post;
+      if(this.first == oldstat) {
+         this.first = newstat;
+      }
+
+      ArrayList var8 = new ArrayList(oldstat.getLabelEdges());
+
+      for(int i = var8.size() - 1; i >= 0; --i) {
+         StatEdge edge = (StatEdge)var8.get(i);
+         if(edge.getSource() != newstat) {
+            newstat.addLabeledEdge(edge);
+         } else if(this != edge.getDestination() && !this.containsStatementStrict(edge.getDestination())) {
+            this.addLabeledEdge(edge);
+         } else {
+            edge.closure = null;
+         }
+      }
+
+      oldstat.getLabelEdges().clear();
+   }
+
+   private static void addToReversePostOrderListIterative(Statement root, List lst) {
+      LinkedList stackNode = new LinkedList();
+      LinkedList stackIndex = new LinkedList();
+      HashSet setVisited = new HashSet();
+      stackNode.add(root);
+      stackIndex.add(Integer.valueOf(0));
+
+      while(!stackNode.isEmpty()) {
+         Statement node = (Statement)stackNode.getLast();
+         int index = ((Integer)stackIndex.removeLast()).intValue();
+         setVisited.add(node);
+
+         List lstEdges;
+         for(lstEdges = node.getAllSuccessorEdges(); index < lstEdges.size(); ++index) {
+            StatEdge edge = (StatEdge)lstEdges.get(index);
+            Statement succ = edge.getDestination();
+            if(!setVisited.contains(succ) && (edge.getType() == 1 || edge.getType() == 2)) {
+               stackIndex.add(Integer.valueOf(index + 1));
+               stackNode.add(succ);
+               stackIndex.add(Integer.valueOf(0));
+               break;
+            }
+         }
+
+         if(index == lstEdges.size()) {
+            lst.add(0, node);
+            stackNode.removeLast();
+         }
+      }
+
+   }
+
+   private static void addToPostReversePostOrderList(Statement stat, List lst, HashSet setVisited) {
+      if(!setVisited.contains(stat)) {
+         setVisited.add(stat);
+         Iterator var3 = stat.getEdges(3, 0).iterator();
+
+         while(var3.hasNext()) {
+            StatEdge prededge = (StatEdge)var3.next();
+            Statement pred = prededge.getSource();
+            if(!setVisited.contains(pred)) {
+               addToPostReversePostOrderList(pred, lst, setVisited);
+            }
+         }
+
+         lst.add(0, stat);
+      }
+   }
+
+   public void changeEdgeNode(int direction, StatEdge edge, Statement value) {
+      Map mapEdges = direction == 0 ? this.mapPredEdges : this.mapSuccEdges;
+      Map mapStates = direction == 0 ? this.mapPredStates : this.mapSuccStates;
+      int type = edge.getType();
+      int[] arrtypes;
+      if(type == 2) {
+         arrtypes = new int[]{Integer.MIN_VALUE, 2};
+      } else {
+         arrtypes = new int[]{Integer.MIN_VALUE, 1073741824, type};
+      }
+
+      int[] var8 = arrtypes;
+      int var9 = arrtypes.length;
+
+      for(int var10 = 0; var10 < var9; ++var10) {
+         int edgetype = var8[var10];
+         List lst = (List)mapEdges.get(Integer.valueOf(edgetype));
+         if(lst != null) {
+            int index = lst.indexOf(edge);
+            if(index >= 0) {
+               ((List)mapStates.get(Integer.valueOf(edgetype))).set(index, value);
+            }
+         }
+      }
+
+      if(direction == 0) {
+         edge.setSource(value);
+      } else {
+         edge.setDestination(value);
+      }
+
+   }
+
+   public void changeEdgeType(int direction, StatEdge edge, int newtype) {
+      int oldtype = edge.getType();
+      if(oldtype != newtype) {
+         if(oldtype != 2 && newtype != 2) {
+            this.removeEdgeDirectInternal(direction, edge, oldtype);
+            this.addEdgeDirectInternal(direction, edge, newtype);
+            if(direction == 1) {
+               edge.getDestination().changeEdgeType(0, edge, newtype);
+            }
+
+            edge.setType(newtype);
+         } else {
+            throw new RuntimeException("Invalid edge type!");
+         }
+      }
+   }
+
+   private List getEdges(int type, int direction) {
+      Map map = direction == 0 ? this.mapPredEdges : this.mapSuccEdges;
+      ArrayList var10;
+      if((type & type - 1) == 0) {
+         List res = (List)map.get(Integer.valueOf(type));
+         var10 = res == null ? new ArrayList() : new ArrayList(res);
+      } else {
+         var10 = new ArrayList();
+         int[] var5 = StatEdge.TYPES;
+         int var6 = var5.length;
+
+         for(int var7 = 0; var7 < var6; ++var7) {
+            int edgetype = var5[var7];
+            if((type & edgetype) != 0) {
+               List lst = (List)map.get(Integer.valueOf(edgetype));
+               if(lst != null) {
+                  var10.addAll(lst);
+               }
+            }
+         }
+      }
+
+      return var10;
+   }
+
+   public List getNeighbours(int type, int direction) {
+      Map map = direction == 0 ? this.mapPredStates : this.mapSuccStates;
+      ArrayList var10;
+      if((type & type - 1) == 0) {
+         List res = (List)map.get(Integer.valueOf(type));
+         var10 = res == null ? new ArrayList() : new ArrayList(res);
+      } else {
+         var10 = new ArrayList();
+         int[] var5 = StatEdge.TYPES;
+         int var6 = var5.length;
+
+         for(int var7 = 0; var7 < var6; ++var7) {
+            int edgetype = var5[var7];
+            if((type & edgetype) != 0) {
+               List lst = (List)map.get(Integer.valueOf(edgetype));
+               if(lst != null) {
+                  var10.addAll(lst);
+               }
+            }
+         }
+      }
+
+      return var10;
+   }
+
+   public Set getNeighboursSet(int type, int direction) {
+      return new HashSet(this.getNeighbours(type, direction));
+   }
+
+   public List getSuccessorEdges(int type) {
+      return this.getEdges(type, 1);
+   }
+
+   public List getPredecessorEdges(int type) {
+      return this.getEdges(type, 0);
+   }
+
+   public List getAllSuccessorEdges() {
+      return this.getEdges(Integer.MIN_VALUE, 1);
+   }
+
+   public List getAllPredecessorEdges() {
+      return this.getEdges(Integer.MIN_VALUE, 0);
+   }
+
+   public Statement getFirst() {
+      return this.first;
+   }
+
+   public void setFirst(Statement first) {
+      this.first = first;
+   }
+
+   public Statement getPost() {
+      return this.post;
+   }
+
+   public void setPost(Statement post) {
+      this.post = post;
+   }
+
+   public VBStyleCollection getStats() {
+      return this.stats;
+   }
+
+   public int getLastBasicType() {
+      return this.lastBasicType;
+   }
+
+   public HashSet getContinueSet() {
+      return this.continueSet;
+   }
+
+   public boolean isContainsMonitorExit() {
+      return this.containsMonitorExit;
+   }
+
+   public boolean isMonitorEnter() {
+      return this.isMonitorEnter;
+   }
+
+   public BasicBlockStatement getBasichead() {
+      return this.type == 8 ? (BasicBlockStatement)this : this.first.getBasichead();
+   }
+
+   public boolean isLabeled() {
+      Iterator var1 = this.labelEdges.iterator();
+
+      StatEdge edge;
+      do {
+         if(!var1.hasNext()) {
+            return false;
+         }
+
+         edge = (StatEdge)var1.next();
+      } while(!edge.labeled || !edge.explicit);
+
+      return true;
+   }
+
+   public boolean hasBasicSuccEdge() {
+      return this.type == 8 || this.type == 2 && ((IfStatement)this).iftype == 0 || this.type == 5 && ((DoStatement)this).getLooptype() != 0;
+   }
+
+   public Statement getParent() {
+      return this.parent;
+   }
+
+   public void setParent(Statement parent) {
+      this.parent = parent;
+   }
+
+   public HashSet getLabelEdges() {
+      return this.labelEdges;
+   }
+
+   public List getVarDefinitions() {
+      return this.varDefinitions;
+   }
+
+   public List getExprents() {
+      return this.exprents;
+   }
+
+   public void setExprents(List exprents) {
+      this.exprents = exprents;
+   }
+
+   public boolean isCopied() {
+      return this.copied;
+   }
+
+   public void setCopied(boolean copied) {
+      this.copied = copied;
+   }
+
+   public String toString() {
+      return this.id.toString();
+   }
+
+   public IMatchable findObject(MatchNode matchNode, int index) {
+      int node_type = matchNode.getType();
+      String position;
+      if(node_type == 0 && !this.stats.isEmpty()) {
+         position = (String)matchNode.getRuleValue(IMatchable.MatchProperties.STATEMENT_POSITION);
+         if(position != null) {
+            if(position.matches("-?\\d+")) {
+               return (IMatchable)this.stats.get((this.stats.size() + Integer.parseInt(position)) % this.stats.size());
+            }
+         } else if(index < this.stats.size()) {
+            return (IMatchable)this.stats.get(index);
+         }
+      } else if(node_type == 1 && this.exprents != null && !this.exprents.isEmpty()) {
+         position = (String)matchNode.getRuleValue(IMatchable.MatchProperties.EXPRENT_POSITION);
+         if(position != null) {
+            if(position.matches("-?\\d+")) {
+               return (IMatchable)this.exprents.get((this.exprents.size() + Integer.parseInt(position)) % this.exprents.size());
+            }
+         } else if(index < this.exprents.size()) {
+            return (IMatchable)this.exprents.get(index);
+         }
+      }
+
+      return null;
+   }
+
+   public boolean match(MatchNode matchNode, MatchEngine engine) {
+      if(matchNode.getType() != 0) {
+         return false;
+      } else {
+         Iterator var3 = matchNode.getRules().entrySet().iterator();
+
+         int exprsize;
+         label48:
+         do {
+            label42:
+            do {
+               while(var3.hasNext()) {
+                  Entry rule = (Entry)var3.next();
+                  switch(null.$SwitchMap$regression$fernflower$struct$match$IMatchable$MatchProperties[((IMatchable.MatchProperties)rule.getKey()).ordinal()]) {
+                  case 1:
+                     if(this.type != ((Integer)((MatchNode.RuleValue)rule.getValue()).value).intValue()) {
+                        return false;
+                     }
+                     break;
+                  case 2:
+                     if(this.stats.size() != ((Integer)((MatchNode.RuleValue)rule.getValue()).value).intValue()) {
+                        return false;
+                     }
+                     break;
+                  case 3:
+                     exprsize = ((Integer)((MatchNode.RuleValue)rule.getValue()).value).intValue();
+                     if(exprsize != -1) {
+                        continue label48;
+                     }
+                     continue label42;
+                  case 4:
+                     if(!engine.checkAndSetVariableValue((String)((MatchNode.RuleValue)rule.getValue()).value, this)) {
+                        return false;
+                     }
+                  }
+               }
+
+               return true;
+            } while(this.exprents == null);
+
+            return false;
+         } while(this.exprents != null && this.exprents.size() == exprsize);
+
+         return false;
+      }
+   }
+}
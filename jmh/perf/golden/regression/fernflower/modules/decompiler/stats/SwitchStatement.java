@@ -0,0 +1,321 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.code.SwitchInstruction;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.DecHelper;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.SwitchExprent;
+import regression.fernflower.struct.gen.VarType;
+
+public class SwitchStatement extends Statement {
+   private List caseStatements;
+   private List caseEdges;
+   private List caseValues;
+   private StatEdge default_edge;
+   private List headexprent;
+
+   private SwitchStatement() {
+      this.caseStatements = new ArrayList();
+      this.caseEdges = new ArrayList();
+      this.caseValues = new ArrayList();
+      this.headexprent = new ArrayList();
+      this.type = 6;
+      this.headexprent.add((Object)null);
+   }
+
+   private SwitchStatement(Statement head, Statement poststat) {
+      this();
+      this.first = head;
+      this.stats.addWithKey(head, head.id);
+      HashSet lstNodes = new HashSet(head.getNeighbours(1, 1));
+      if(poststat != null) {
+         this.post = poststat;
+         lstNodes.remove(this.post);
+      }
+
+      this.default_edge = (StatEdge)head.getSuccessorEdges(1073741824).get(0);
+      Iterator var4 = lstNodes.iterator();
+
+      while(var4.hasNext()) {
+         Statement st = (Statement)var4.next();
+         this.stats.addWithKey(st, st.id);
+      }
+
+   }
+
+   public static Statement isHead(Statement head) {
+      if(head.type == 8 && head.getLastBasicType() == 1) {
+         ArrayList lst = new ArrayList();
+         if(DecHelper.isChoiceStatement(head, lst)) {
+            Statement post = (Statement)lst.remove(0);
+            Iterator var3 = lst.iterator();
+
+            while(var3.hasNext()) {
+               Statement st = (Statement)var3.next();
+               if(st.isMonitorEnter()) {
+                  return null;
+               }
+            }
+
+            if(DecHelper.checkStatementExceptions(lst)) {
+               return new SwitchStatement(head, post);
+            }
+         }
+      }
+
+      return null;
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buf = new TextBuffer();
+      buf.append(ExprProcessor.listToJava(this.varDefinitions, indent, tracer));
+      buf.append(this.first.toJava(indent, tracer));
+      if(this.isLabeled()) {
+         buf.appendIndent(indent).append("label").append(this.id.toString()).append(":").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      buf.appendIndent(indent).append(((Exprent)this.headexprent.get(0)).toJava(indent, tracer)).append(" {").appendLineSeparator();
+      tracer.incrementCurrentSourceLine();
+      VarType switch_type = ((Exprent)this.headexprent.get(0)).getExprType();
+
+      for(int i = 0; i < this.caseStatements.size(); ++i) {
+         Statement stat = (Statement)this.caseStatements.get(i);
+         List edges = (List)this.caseEdges.get(i);
+         List values = (List)this.caseValues.get(i);
+
+         for(int j = 0; j < edges.size(); ++j) {
+            if(edges.get(j) == this.default_edge) {
+               buf.appendIndent(indent).append("default:").appendLineSeparator();
+               tracer.incrementCurrentSourceLine();
+            } else {
+               ConstExprent value = (ConstExprent)((ConstExprent)values.get(j)).copy();
+               value.setConstType(switch_type);
+               buf.appendIndent(indent).append("case ").append(value.toJava(indent, tracer)).append(":").appendLineSeparator();
+               tracer.incrementCurrentSourceLine();
+            }
+         }
+
+         buf.append(ExprProcessor.jmpWrapper(stat, indent + 1, false, tracer));
+      }
+
+      buf.appendIndent(indent).append("}").appendLineSeparator();
+      tracer.incrementCurrentSourceLine();
+      return buf;
+   }
+
+   public void initExprents() {
+      SwitchExprent swexpr = (SwitchExprent)this.first.getExprents().remove(this.first.getExprents().size() - 1);
+      swexpr.setCaseValues(this.caseValues);
+      this.headexprent.set(0, swexpr);
+   }
+
+   public List getSequentialObjects() {
+      ArrayList lst = new ArrayList(this.stats);
+      lst.add(1, this.headexprent.get(0));
+      return lst;
+   }
+
+   public void replaceExprent(Exprent oldexpr, Exprent newexpr) {
+      if(this.headexprent.get(0) == oldexpr) {
+         this.headexprent.set(0, newexpr);
+      }
+
+   }
+
+   public void replaceStatement(Statement oldstat, Statement newstat) {
+      for(int i = 0; i < this.caseStatements.size(); ++i) {
+         if(this.caseStatements.get(i) == oldstat) {
+            this.caseStatements.set(i, newstat);
+         }
+      }
+
+      super.replaceStatement(oldstat, newstat);
+   }
+
+   public Statement getSimpleCopy() {
+      return new SwitchStatement();
+   }
+
+   public void initSimpleCopy() {
+      this.first = (Statement)this.stats.get(0);
+      this.default_edge = (StatEdge)this.first.getSuccessorEdges(1073741824).get(0);
+      this.sortEdgesAndNodes();
+   }
+
+   public void sortEdgesAndNodes() {
+      HashMap mapEdgeIndex = new HashMap();
+      List lstFirstSuccs = this.first.getSuccessorEdges(1073741824);
+
+      for(int bbstat = 0; bbstat < lstFirstSuccs.size(); ++bbstat) {
+         mapEdgeIndex.put((StatEdge)lstFirstSuccs.get(bbstat), Integer.valueOf(bbstat == 0 ? lstFirstSuccs.size() : bbstat));
+      }
+
+      BasicBlockStatement var18 = (BasicBlockStatement)this.first;
+      int[] values = ((SwitchInstruction)var18.getBlock().getLastInstruction()).getValues();
+      ArrayList nodes = new ArrayList();
+      ArrayList edges = new ArrayList();
+
+      ArrayList lstValues;
+      Iterator i;
+      StatEdge bstat;
+      for(int lstExitEdges = 1; lstExitEdges < this.stats.size(); ++lstExitEdges) {
+         Statement lstEdges = (Statement)this.stats.get(lstExitEdges);
+         lstValues = new ArrayList();
+         i = lstEdges.getPredecessorEdges(1).iterator();
+
+         while(i.hasNext()) {
+            bstat = (StatEdge)i.next();
+            if(bstat.getSource() == this.first) {
+               lstValues.add((Integer)mapEdgeIndex.get(bstat));
+            }
+         }
+
+         Collections.sort(lstValues);
+         nodes.add(lstEdges);
+         edges.add(lstValues);
+      }
+
+      List var19 = this.first.getSuccessorEdges(12);
+
+      int var23;
+      while(!var19.isEmpty()) {
+         StatEdge var20 = (StatEdge)var19.get(0);
+         lstValues = new ArrayList();
+
+         for(var23 = var19.size() - 1; var23 >= 0; --var23) {
+            bstat = (StatEdge)var19.get(var23);
+            if(bstat.getDestination() == var20.getDestination() && bstat.getType() == var20.getType()) {
+               lstValues.add((Integer)mapEdgeIndex.get(bstat));
+               var19.remove(var23);
+            }
+         }
+
+         Collections.sort(lstValues);
+         nodes.add((Object)null);
+         edges.add(lstValues);
+      }
+
+      int var21;
+      for(var21 = 0; var21 < edges.size() - 1; ++var21) {
+         for(int var22 = edges.size() - 1; var22 > var21; --var22) {
+            if(((Integer)((List)edges.get(var22 - 1)).get(0)).intValue() > ((Integer)((List)edges.get(var22)).get(0)).intValue()) {
+               edges.set(var22, (List)edges.set(var22 - 1, (List)edges.get(var22)));
+               nodes.set(var22, (Statement)nodes.set(var22 - 1, (Statement)nodes.get(var22)));
+            }
+         }
+      }
+
+      for(var21 = 0; var21 < nodes.size(); ++var21) {
+         Statement var24 = (Statement)nodes.get(var21);
+         if(var24 != null) {
+            HashSet var26 = new HashSet(var24.getNeighbours(1, 0));
+            var26.remove(this.first);
+            if(!var26.isEmpty()) {
+               Statement var27 = (Statement)var26.iterator().next();
+
+               for(int sample_edge = 0; sample_edge < nodes.size(); ++sample_edge) {
+                  if(sample_edge != var21 - 1 && nodes.get(sample_edge) == var27) {
+                     nodes.add(sample_edge + 1, var24);
+                     edges.add(sample_edge + 1, (List)edges.get(var21));
+                     if(sample_edge > var21) {
+                        nodes.remove(var21);
+                        edges.remove(var21);
+                        --var21;
+                     } else {
+                        nodes.remove(var21 + 1);
+                        edges.remove(var21 + 1);
+                     }
+                     break;
+                  }
+               }
+            }
+         }
+      }
+
+      ArrayList var25 = new ArrayList();
+      lstValues = new ArrayList();
+      i = edges.iterator();
+
+      while(i.hasNext()) {
+         List var28 = (List)i.next();
+         ArrayList var30 = new ArrayList();
+         ArrayList lstv = new ArrayList();
+         List edge = this.first.getSuccessorEdges(1073741824);
+         Iterator var15 = var28.iterator();
+
+         while(var15.hasNext()) {
+            Integer in = (Integer)var15.next();
+            int index = in.intValue() == edge.size() ? 0 : in.intValue();
+            var30.add((StatEdge)edge.get(index));
+            lstv.add(index == 0 ? null : new ConstExprent(values[index - 1], false, (Set)null));
+         }
+
+         var25.add(var30);
+         lstValues.add(lstv);
+      }
+
+      for(var23 = 0; var23 < nodes.size(); ++var23) {
+         if(nodes.get(var23) == null) {
+            BasicBlockStatement var29 = new BasicBlockStatement(new BasicBlock(DecompilerContext.getCounterContainer().getCounterAndIncrement(0)));
+            StatEdge var31 = (StatEdge)((List)var25.get(var23)).get(0);
+            var29.addSuccessor(new StatEdge(var31.getType(), var29, var31.getDestination(), var31.closure));
+            Iterator var32 = ((List)var25.get(var23)).iterator();
+
+            while(var32.hasNext()) {
+               StatEdge var33 = (StatEdge)var32.next();
+               var33.getSource().changeEdgeType(1, var33, 1);
+               var33.closure.getLabelEdges().remove(var33);
+               var33.getDestination().removePredecessor(var33);
+               var33.getSource().changeEdgeNode(1, var33, var29);
+               var29.addPredecessor(var33);
+            }
+
+            nodes.set(var23, var29);
+            this.stats.addWithKey(var29, var29.id);
+            var29.setParent(this);
+         }
+      }
+
+      this.caseStatements = nodes;
+      this.caseEdges = var25;
+      this.caseValues = lstValues;
+   }
+
+   public List getHeadexprentList() {
+      return this.headexprent;
+   }
+
+   public Exprent getHeadexprent() {
+      return (Exprent)this.headexprent.get(0);
+   }
+
+   public List getCaseEdges() {
+      return this.caseEdges;
+   }
+
+   public List getCaseStatements() {
+      return this.caseStatements;
+   }
+
+   public StatEdge getDefault_edge() {
+      return this.default_edge;
+   }
+
+   public List getCaseValues() {
+      return this.caseValues;
+   }
+}
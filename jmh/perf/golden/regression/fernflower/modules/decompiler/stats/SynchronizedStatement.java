@@ -0,0 +1,111 @@
+package regression.fernflower.modules.decompiler.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.SequenceHelper;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+
+public class SynchronizedStatement extends Statement {
+   private Statement body;
+   private List headexprent;
+
+   public SynchronizedStatement() {
+      this.headexprent = new ArrayList();
+      this.type = 10;
+      this.headexprent.add((Object)null);
+   }
+
+   public SynchronizedStatement(Statement head, Statement body, Statement exc) {
+      this();
+      this.first = head;
+      this.stats.addWithKey(head, head.id);
+      this.body = body;
+      this.stats.addWithKey(body, body.id);
+      this.stats.addWithKey(exc, exc.id);
+      List lstSuccs = body.getSuccessorEdges(1073741824);
+      if(!lstSuccs.isEmpty()) {
+         StatEdge edge = (StatEdge)lstSuccs.get(0);
+         if(edge.getType() == 1) {
+            this.post = edge.getDestination();
+         }
+      }
+
+   }
+
+   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+      TextBuffer buf = new TextBuffer();
+      buf.append(ExprProcessor.listToJava(this.varDefinitions, indent, tracer));
+      buf.append(this.first.toJava(indent, tracer));
+      if(this.isLabeled()) {
+         buf.appendIndent(indent).append("label").append(this.id.toString()).append(":").appendLineSeparator();
+         tracer.incrementCurrentSourceLine();
+      }
+
+      buf.appendIndent(indent).append(((Exprent)this.headexprent.get(0)).toJava(indent, tracer)).append(" {").appendLineSeparator();
+      tracer.incrementCurrentSourceLine();
+      buf.append(ExprProcessor.jmpWrapper(this.body, indent + 1, false, tracer));
+      buf.appendIndent(indent).append("}").appendLineSeparator();
+      tracer.incrementCurrentSourceLine();
+      return buf;
+   }
+
+   public void initExprents() {
+      this.headexprent.set(0, (Exprent)this.first.getExprents().remove(this.first.getExprents().size() - 1));
+   }
+
+   public List getSequentialObjects() {
+      ArrayList lst = new ArrayList(this.stats);
+      lst.add(1, this.headexprent.get(0));
+      return lst;
+   }
+
+   public void replaceExprent(Exprent oldexpr, Exprent newexpr) {
+      if(this.headexprent.get(0) == oldexpr) {
+         this.headexprent.set(0, newexpr);
+      }
+
+   }
+
+   public void replaceStatement(Statement oldstat, Statement newstat) {
+      if(this.body == oldstat) {
+         this.body = newstat;
+      }
+
+      super.replaceStatement(oldstat, newstat);
+   }
+
+   public void removeExc() {
+      Statement exc = (Statement)this.stats.get(2);
+      SequenceHelper.destroyStatementContent(exc, true);
+      this.stats.removeWithKey(exc.id);
+   }
+
+   public Statement getSimpleCopy() {
+      return new SynchronizedStatement();
+   }
+
+   public void initSimpleCopy() {
+      this.first = (Statement)this.stats.get(0);
+      this.body = (Statement)this.stats.get(1);
+   }
+
+   public Statement getBody() {
+      return this.body;
+   }
+
+   public void setBody(Statement body) {
+      this.body = body;
+   }
+
+   public List getHeadexprentList() {
+      return this.headexprent;
+   }
+
+   public Exprent getHeadexprent() {
+      return (Exprent)this.headexprent.get(0);
+   }
+}
@@ -0,0 +1,39 @@
+package regression.fernflower.modules.decompiler.vars;
+
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.struct.gen.VarType;
+
+public class CheckTypesResult {
+   private List lstMaxTypeExprents = new ArrayList();
+   private List lstMinTypeExprents = new ArrayList();
+
+   public void addMaxTypeExprent(Exprent exprent, VarType type) {
+      this.lstMaxTypeExprents.add(new CheckTypesResult.ExprentTypePair(exprent, type, (VarType)null));
+   }
+
+   public void addMinTypeExprent(Exprent exprent, VarType type) {
+      this.lstMinTypeExprents.add(new CheckTypesResult.ExprentTypePair(exprent, type, (VarType)null));
+   }
+
+   public List getLstMaxTypeExprents() {
+      return this.lstMaxTypeExprents;
+   }
+
+   public List getLstMinTypeExprents() {
+      return this.lstMinTypeExprents;
+   }
+
+   public static class ExprentTypePair {
+      public Exprent exprent;
+      public VarType type;
+      public VarType desttype;
+
+      public ExprentTypePair(Exprent exprent, VarType type, VarType desttype) {
+         this.exprent = exprent;
+         this.type = type;
+         this.desttype = desttype;
+      }
+   }
+}
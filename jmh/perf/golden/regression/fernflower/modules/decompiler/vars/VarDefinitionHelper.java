@@ -0,0 +1,334 @@
+package regression.fernflower.modules.decompiler.vars;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.collectors.VarNamesCollector;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.stats.CatchAllStatement;
+import regression.fernflower.modules.decompiler.stats.CatchStatement;
+import regression.fernflower.modules.decompiler.stats.DoStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.MethodDescriptor;
+
+public class VarDefinitionHelper {
+   private HashMap mapVarDefStatements = new HashMap();
+   private HashMap mapStatementVars = new HashMap();
+   private HashSet implDefVars = new HashSet();
+   private VarProcessor varproc;
+
+   public VarDefinitionHelper(Statement root, StructMethod mt, VarProcessor varproc) {
+      this.varproc = varproc;
+      VarNamesCollector vc = DecompilerContext.getVarNamesCollector();
+      boolean thisvar = !mt.hasModifier(8);
+      MethodDescriptor md = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+      byte paramcount = 0;
+      if(thisvar) {
+         paramcount = 1;
+      }
+
+      int var14 = paramcount + md.params.length;
+      int varindex = 0;
+
+      for(int stack = 0; stack < var14; ++stack) {
+         this.implDefVars.add(Integer.valueOf(varindex));
+         varproc.setVarName(new VarVersionPair(varindex, 0), vc.getFreeName(varindex));
+         if(thisvar) {
+            if(stack == 0) {
+               ++varindex;
+            } else {
+               varindex += md.params[stack - 1].stackSize;
+            }
+         } else {
+            varindex += md.params[stack].stackSize;
+         }
+      }
+
+      if(thisvar) {
+         StructClass var15 = (StructClass)DecompilerContext.getProperty("CURRENT_CLASS");
+         varproc.getThisVars().put(new VarVersionPair(0, 0), var15.qualifiedName);
+         varproc.setVarName(new VarVersionPair(0, 0), "this");
+         vc.addName("this");
+      }
+
+      LinkedList var16 = new LinkedList();
+      var16.add(root);
+
+      Statement st;
+      for(; !var16.isEmpty(); var16.addAll(st.getStats())) {
+         st = (Statement)var16.removeFirst();
+         List lstVars = null;
+         if(st.type == 12) {
+            lstVars = ((CatchAllStatement)st).getVars();
+         } else if(st.type == 7) {
+            lstVars = ((CatchStatement)st).getVars();
+         }
+
+         if(lstVars != null) {
+            Iterator var12 = lstVars.iterator();
+
+            while(var12.hasNext()) {
+               VarExprent var = (VarExprent)var12.next();
+               this.implDefVars.add(Integer.valueOf(var.getIndex()));
+               varproc.setVarName(new VarVersionPair(var), vc.getFreeName(var.getIndex()));
+               var.setDefinition(true);
+            }
+         }
+      }
+
+      this.initStatement(root);
+   }
+
+   public void setVarDefinitions() {
+      VarNamesCollector vc = DecompilerContext.getVarNamesCollector();
+      Iterator var2 = this.mapVarDefStatements.entrySet().iterator();
+
+      while(true) {
+         Statement stat;
+         Integer index;
+         List lst;
+         label63:
+         while(true) {
+            do {
+               if(!var2.hasNext()) {
+                  return;
+               }
+
+               Entry en = (Entry)var2.next();
+               stat = (Statement)en.getValue();
+               index = (Integer)en.getKey();
+            } while(this.implDefVars.contains(index));
+
+            this.varproc.setVarName(new VarVersionPair(index.intValue(), 0), vc.getFreeName(index.intValue()));
+            if(stat.type != 5) {
+               break;
+            }
+
+            DoStatement first = (DoStatement)stat;
+            if(first.getLooptype() != 3) {
+               break;
+            }
+
+            if(first.getInitExprent() == null || !setDefinition(first.getInitExprent(), index)) {
+               lst = Arrays.asList(new Exprent[]{first.getConditionExprent(), first.getIncExprent()});
+               Iterator defset = getAllVars(lst).iterator();
+
+               VarExprent addindex;
+               do {
+                  if(!defset.hasNext()) {
+                     break label63;
+                  }
+
+                  addindex = (VarExprent)defset.next();
+               } while(addindex.getIndex() != index.intValue());
+
+               stat = stat.getParent();
+               break;
+            }
+         }
+
+         Statement var15 = this.findFirstBlock(stat, index);
+         if(var15 == null) {
+            lst = stat.getVarDefinitions();
+         } else if(var15.getExprents() == null) {
+            lst = var15.getVarDefinitions();
+         } else {
+            lst = var15.getExprents();
+         }
+
+         boolean var16 = false;
+         int var17 = 0;
+
+         for(Iterator var = lst.iterator(); var.hasNext(); ++var17) {
+            Exprent expr = (Exprent)var.next();
+            if(setDefinition(expr, index)) {
+               var16 = true;
+               break;
+            }
+
+            boolean foundvar = false;
+            Iterator var13 = expr.getAllExprents(true).iterator();
+
+            while(var13.hasNext()) {
+               Exprent exp = (Exprent)var13.next();
+               if(exp.type == 12 && ((VarExprent)exp).getIndex() == index.intValue()) {
+                  foundvar = true;
+                  break;
+               }
+            }
+
+            if(foundvar) {
+               break;
+            }
+         }
+
+         if(!var16) {
+            VarExprent var18 = new VarExprent(index.intValue(), this.varproc.getVarType(new VarVersionPair(index.intValue(), 0)), this.varproc);
+            var18.setDefinition(true);
+            lst.add(var17, var18);
+         }
+      }
+   }
+
+   private Statement findFirstBlock(Statement stat, Integer varindex) {
+      LinkedList stack = new LinkedList();
+      stack.add(stat);
+
+      while(true) {
+         Statement st;
+         do {
+            if(stack.isEmpty()) {
+               return null;
+            }
+
+            st = (Statement)stack.remove(0);
+         } while(!stack.isEmpty() && !((HashSet)this.mapStatementVars.get(st.id)).contains(varindex));
+
+         if(st.isLabeled() && !stack.isEmpty()) {
+            return st;
+         }
+
+         if(st.getExprents() != null) {
+            return st;
+         }
+
+         stack.clear();
+         switch(st.type) {
+         case 2:
+         case 6:
+         case 10:
+         case 13:
+            stack.add(st.getFirst());
+            break;
+         case 3:
+         case 4:
+         case 5:
+         case 7:
+         case 8:
+         case 9:
+         case 11:
+         case 12:
+         case 14:
+         default:
+            return st;
+         case 15:
+            stack.addAll(0, st.getStats());
+         }
+      }
+   }
+
+   private Set initStatement(Statement stat) {
+      HashMap mapCount = new HashMap();
+      List condlst;
+      if(stat.getExprents() == null) {
+         ArrayList set = new ArrayList();
+         ArrayList var = new ArrayList();
+         Iterator en = stat.getSequentialObjects().iterator();
+
+         while(en.hasNext()) {
+            Object index = en.next();
+            if(index instanceof Statement) {
+               Statement count = (Statement)index;
+               set.addAll(this.initStatement(count));
+               if(count.type == 5) {
+                  DoStatement fin = (DoStatement)count;
+                  if(fin.getLooptype() != 3 && fin.getLooptype() != 0) {
+                     var.add(fin.getConditionExprent());
+                  }
+               } else if(count.type == 12) {
+                  CatchAllStatement fin1 = (CatchAllStatement)count;
+                  if(fin1.isFinally() && fin1.getMonitor() != null) {
+                     var.add(fin1.getMonitor());
+                  }
+               }
+            } else if(index instanceof Exprent) {
+               var.add((Exprent)index);
+            }
+         }
+
+         Integer index1;
+         Integer count1;
+         for(en = set.iterator(); en.hasNext(); mapCount.put(index1, new Integer(count1.intValue() + 1))) {
+            index1 = (Integer)en.next();
+            count1 = (Integer)mapCount.get(index1);
+            if(count1 == null) {
+               count1 = new Integer(0);
+            }
+         }
+
+         condlst = getAllVars(var);
+      } else {
+         condlst = getAllVars(stat.getExprents());
+      }
+
+      Iterator set1 = condlst.iterator();
+
+      while(set1.hasNext()) {
+         VarExprent var1 = (VarExprent)set1.next();
+         mapCount.put(new Integer(var1.getIndex()), new Integer(2));
+      }
+
+      HashSet set2 = new HashSet(mapCount.keySet());
+      Iterator var2 = mapCount.entrySet().iterator();
+
+      while(var2.hasNext()) {
+         Entry en1 = (Entry)var2.next();
+         if(((Integer)en1.getValue()).intValue() > 1) {
+            this.mapVarDefStatements.put((Integer)en1.getKey(), stat);
+         }
+      }
+
+      this.mapStatementVars.put(stat.id, set2);
+      return set2;
+   }
+
+   private static List getAllVars(List lst) {
+      ArrayList res = new ArrayList();
+      ArrayList listTemp = new ArrayList();
+      Iterator var3 = lst.iterator();
+
+      Exprent exprent;
+      while(var3.hasNext()) {
+         exprent = (Exprent)var3.next();
+         listTemp.addAll(exprent.getAllExprents(true));
+         listTemp.add(exprent);
+      }
+
+      var3 = listTemp.iterator();
+
+      while(var3.hasNext()) {
+         exprent = (Exprent)var3.next();
+         if(exprent.type == 12) {
+            res.add((VarExprent)exprent);
+         }
+      }
+
+      return res;
+   }
+
+   private static boolean setDefinition(Exprent expr, Integer index) {
+      if(expr.type == 2) {
+         Exprent left = ((AssignmentExprent)expr).getLeft();
+         if(left.type == 12) {
+            VarExprent var = (VarExprent)left;
+            if(var.getIndex() == index.intValue()) {
+               var.setDefinition(true);
+               return true;
+            }
+         }
+      }
+
+      return false;
+   }
+}
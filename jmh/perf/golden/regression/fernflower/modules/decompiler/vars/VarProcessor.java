@@ -0,0 +1,109 @@
+package regression.fernflower.modules.decompiler.vars;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.collectors.VarNamesCollector;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.VarType;
+
+public class VarProcessor {
+   private Map mapVarNames = new HashMap();
+   private VarVersionsProcessor varVersions;
+   private Map thisVars = new HashMap();
+   private Set externalVars = new HashSet();
+
+   public void setVarVersions(RootStatement root) {
+      this.varVersions = new VarVersionsProcessor();
+      this.varVersions.setVarVersions(root);
+   }
+
+   public void setVarDefinitions(Statement root) {
+      this.mapVarNames = new HashMap();
+      StructMethod mt = (StructMethod)DecompilerContext.getProperty("CURRENT_METHOD");
+      (new VarDefinitionHelper(root, mt, this)).setVarDefinitions();
+   }
+
+   public void setDebugVarNames(Map mapDebugVarNames) {
+      if(this.varVersions != null) {
+         Map mapOriginalVarIndices = this.varVersions.getMapOriginalVarIndices();
+         ArrayList listVars = new ArrayList(this.mapVarNames.keySet());
+         Collections.sort(listVars, new Comparator() {
+            public int compare(VarVersionPair o1, VarVersionPair o2) {
+               return o1.var - o2.var;
+            }
+         });
+         HashMap mapNames = new HashMap();
+
+         VarVersionPair pair;
+         String name;
+         for(Iterator var5 = listVars.iterator(); var5.hasNext(); this.mapVarNames.put(pair, name)) {
+            pair = (VarVersionPair)var5.next();
+            name = (String)this.mapVarNames.get(pair);
+            Integer index = (Integer)mapOriginalVarIndices.get(Integer.valueOf(pair.var));
+            if(index != null && mapDebugVarNames.containsKey(index)) {
+               name = (String)mapDebugVarNames.get(index);
+            }
+
+            Integer counter = (Integer)mapNames.get(name);
+            mapNames.put(name, counter == null ? (counter = new Integer(0)) : (counter = Integer.valueOf(counter.intValue() + 1)));
+            if(counter.intValue() > 0) {
+               name = name + String.valueOf(counter);
+            }
+         }
+
+      }
+   }
+
+   public void refreshVarNames(VarNamesCollector vc) {
+      HashMap tempVarNames = new HashMap(this.mapVarNames);
+      Iterator var3 = tempVarNames.entrySet().iterator();
+
+      while(var3.hasNext()) {
+         Entry ent = (Entry)var3.next();
+         this.mapVarNames.put((VarVersionPair)ent.getKey(), vc.getFreeName((String)ent.getValue()));
+      }
+
+   }
+
+   public VarType getVarType(VarVersionPair pair) {
+      return this.varVersions == null ? null : this.varVersions.getVarType(pair);
+   }
+
+   public void setVarType(VarVersionPair pair, VarType type) {
+      this.varVersions.setVarType(pair, type);
+   }
+
+   public String getVarName(VarVersionPair pair) {
+      return this.mapVarNames == null ? null : (String)this.mapVarNames.get(pair);
+   }
+
+   public void setVarName(VarVersionPair pair, String name) {
+      this.mapVarNames.put(pair, name);
+   }
+
+   public int getVarFinal(VarVersionPair pair) {
+      return this.varVersions == null ? 3 : this.varVersions.getVarFinal(pair);
+   }
+
+   public void setVarFinal(VarVersionPair pair, int finalType) {
+      this.varVersions.setVarFinal(pair, finalType);
+   }
+
+   public Map getThisVars() {
+      return this.thisVars;
+   }
+
+   public Set getExternalVars() {
+      return this.externalVars;
+   }
+}
@@ -0,0 +1,257 @@
+package regression.fernflower.modules.decompiler.vars;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.decompiler.exps.AssignmentExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FunctionExprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.stats.CatchAllStatement;
+import regression.fernflower.modules.decompiler.stats.CatchStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.VarType;
+
+public class VarTypeProcessor {
+   public static final int VAR_NON_FINAL = 1;
+   public static final int VAR_EXPLICIT_FINAL = 2;
+   public static final int VAR_FINAL = 3;
+   private Map mapExprentMinTypes = new HashMap();
+   private Map mapExprentMaxTypes = new HashMap();
+   private Map mapFinalVars = new HashMap();
+
+   private void setInitVars(RootStatement root) {
+      StructMethod mt = (StructMethod)DecompilerContext.getProperty("CURRENT_METHOD");
+      boolean thisVar = !mt.hasModifier(8);
+      MethodDescriptor md = (MethodDescriptor)DecompilerContext.getProperty("CURRENT_METHOD_DESCRIPTOR");
+      if(thisVar) {
+         StructClass varIndex = (StructClass)DecompilerContext.getProperty("CURRENT_CLASS");
+         VarType stack = new VarType(8, 0, varIndex.qualifiedName);
+         this.mapExprentMinTypes.put(new VarVersionPair(0, 1), stack);
+         this.mapExprentMaxTypes.put(new VarVersionPair(0, 1), stack);
+      }
+
+      int var11 = 0;
+
+      for(int var12 = 0; var12 < md.params.length; ++var12) {
+         this.mapExprentMinTypes.put(new VarVersionPair(var11 + (thisVar ? 1 : 0), 1), md.params[var12]);
+         this.mapExprentMaxTypes.put(new VarVersionPair(var11 + (thisVar ? 1 : 0), 1), md.params[var12]);
+         var11 += md.params[var12].stackSize;
+      }
+
+      LinkedList var13 = new LinkedList();
+      var13.add(root);
+
+      Statement stat;
+      for(; !var13.isEmpty(); var13.addAll(stat.getStats())) {
+         stat = (Statement)var13.removeFirst();
+         List lstVars = null;
+         if(stat.type == 12) {
+            lstVars = ((CatchAllStatement)stat).getVars();
+         } else if(stat.type == 7) {
+            lstVars = ((CatchStatement)stat).getVars();
+         }
+
+         if(lstVars != null) {
+            Iterator var9 = lstVars.iterator();
+
+            while(var9.hasNext()) {
+               VarExprent var = (VarExprent)var9.next();
+               this.mapExprentMinTypes.put(new VarVersionPair(var.getIndex(), 1), var.getVarType());
+               this.mapExprentMaxTypes.put(new VarVersionPair(var.getIndex(), 1), var.getVarType());
+            }
+         }
+      }
+
+   }
+
+   public void calculateVarTypes(RootStatement root, DirectGraph graph) {
+      this.setInitVars(root);
+      resetExprentTypes(graph);
+
+      while(!this.processVarTypes(graph)) {
+      }
+
+   }
+
+   private static void resetExprentTypes(DirectGraph graph) {
+      graph.iterateExprents(new DirectGraph.ExprentIterator() {
+         public int processExprent(Exprent exprent) {
+            List lst = exprent.getAllExprents(true);
+            lst.add(exprent);
+            Iterator var3 = lst.iterator();
+
+            while(var3.hasNext()) {
+               Exprent expr = (Exprent)var3.next();
+               if(expr.type == 12) {
+                  ((VarExprent)expr).setVarType(VarType.VARTYPE_UNKNOWN);
+               } else if(expr.type == 3) {
+                  ConstExprent constExpr = (ConstExprent)expr;
+                  if(constExpr.getConstType().typeFamily == 2) {
+                     constExpr.setConstType((new ConstExprent(constExpr.getIntValue(), constExpr.isBoolPermitted(), (Set)null)).getConstType());
+                  }
+               }
+            }
+
+            return 0;
+         }
+      });
+   }
+
+   private boolean processVarTypes(DirectGraph graph) {
+      return graph.iterateExprents(new DirectGraph.ExprentIterator() {
+         public int processExprent(Exprent exprent) {
+            return VarTypeProcessor.this.checkTypeExprent(exprent) ? 0 : 1;
+         }
+      });
+   }
+
+   private boolean checkTypeExprent(Exprent exprent) {
+      Iterator result = exprent.getAllExprents().iterator();
+
+      while(result.hasNext()) {
+         Exprent res = (Exprent)result.next();
+         if(!this.checkTypeExprent(res)) {
+            return false;
+         }
+      }
+
+      if(exprent.type == 3) {
+         ConstExprent result1 = (ConstExprent)exprent;
+         if(result1.getConstType().typeFamily <= 2) {
+            VarVersionPair res1 = new VarVersionPair(result1.id, -1);
+            if(!this.mapExprentMinTypes.containsKey(res1)) {
+               this.mapExprentMinTypes.put(res1, result1.getConstType());
+            }
+         }
+      }
+
+      CheckTypesResult result2 = exprent.checkExprTypeBounds();
+      Iterator res2 = result2.getLstMaxTypeExprents().iterator();
+
+      while(res2.hasNext()) {
+         CheckTypesResult.ExprentTypePair entry = (CheckTypesResult.ExprentTypePair)res2.next();
+         if(entry.type.typeFamily != 6) {
+            this.changeExprentType(entry.exprent, entry.type, 1);
+         }
+      }
+
+      boolean res3 = true;
+
+      CheckTypesResult.ExprentTypePair entry1;
+      for(Iterator entry2 = result2.getLstMinTypeExprents().iterator(); entry2.hasNext(); res3 &= this.changeExprentType(entry1.exprent, entry1.type, 0)) {
+         entry1 = (CheckTypesResult.ExprentTypePair)entry2.next();
+      }
+
+      return res3;
+   }
+
+   private boolean changeExprentType(Exprent exprent, VarType newType, int minMax) {
+      boolean res = true;
+      switch(exprent.type) {
+      case 2:
+         return this.changeExprentType(((AssignmentExprent)exprent).getRight(), newType, minMax);
+      case 3:
+         ConstExprent constExpr = (ConstExprent)exprent;
+         VarType constType = constExpr.getConstType();
+         if(newType.typeFamily > 2 || constType.typeFamily > 2) {
+            return true;
+         }
+
+         if(newType.typeFamily == 2) {
+            VarType pair = (new ConstExprent(((Integer)constExpr.getValue()).intValue(), false, (Set)null)).getConstType();
+            if(pair.isStrictSuperset(newType)) {
+               newType = pair;
+            }
+         }
+      case 12:
+         VarVersionPair pair1 = null;
+         if(exprent.type == 3) {
+            pair1 = new VarVersionPair(((ConstExprent)exprent).id, -1);
+         } else if(exprent.type == 12) {
+            pair1 = new VarVersionPair((VarExprent)exprent);
+         }
+
+         VarType newMaxType;
+         VarType func1;
+         if(minMax != 0) {
+            func1 = (VarType)this.mapExprentMaxTypes.get(pair1);
+            if(func1 != null && newType.typeFamily >= func1.typeFamily) {
+               if(newType.typeFamily > func1.typeFamily) {
+                  return true;
+               }
+
+               newMaxType = VarType.getCommonMinType(func1, newType);
+            } else {
+               newMaxType = newType;
+            }
+
+            this.mapExprentMaxTypes.put(pair1, newMaxType);
+         } else {
+            func1 = (VarType)this.mapExprentMinTypes.get(pair1);
+            if(func1 != null && newType.typeFamily <= func1.typeFamily) {
+               if(newType.typeFamily < func1.typeFamily) {
+                  return true;
+               }
+
+               newMaxType = VarType.getCommonSupertype(func1, newType);
+            } else {
+               newMaxType = newType;
+            }
+
+            this.mapExprentMinTypes.put(pair1, newMaxType);
+            if(exprent.type == 3) {
+               ((ConstExprent)exprent).setConstType(newMaxType);
+            }
+
+            if(func1 != null && (newMaxType.typeFamily > func1.typeFamily || newMaxType.isStrictSuperset(func1))) {
+               return false;
+            }
+         }
+         break;
+      case 6:
+         FunctionExprent func = (FunctionExprent)exprent;
+         switch(func.getFuncType()) {
+         case 4:
+         case 5:
+         case 6:
+            res = this.changeExprentType((Exprent)func.getLstOperands().get(0), newType, minMax) & this.changeExprentType((Exprent)func.getLstOperands().get(1), newType, minMax);
+            break;
+         case 36:
+            res = this.changeExprentType((Exprent)func.getLstOperands().get(1), newType, minMax) & this.changeExprentType((Exprent)func.getLstOperands().get(2), newType, minMax);
+         }
+      }
+
+      return res;
+   }
+
+   public Map getMapExprentMaxTypes() {
+      return this.mapExprentMaxTypes;
+   }
+
+   public Map getMapExprentMinTypes() {
+      return this.mapExprentMinTypes;
+   }
+
+   public Map getMapFinalVars() {
+      return this.mapFinalVars;
+   }
+
+   public void setVarType(VarVersionPair pair, VarType type) {
+      this.mapExprentMinTypes.put(pair, type);
+   }
+
+   public VarType getVarType(VarVersionPair pair) {
+      return (VarType)this.mapExprentMinTypes.get(pair);
+   }
+}
@@ -0,0 +1,36 @@
+package regression.fernflower.modules.decompiler.vars;
+
+public class VarVersionEdge {
+   public static final int EDGE_GENERAL = 0;
+   public static final int EDGE_PHANTOM = 1;
+   public int type;
+   public VarVersionNode source;
+   public VarVersionNode dest;
+   private int hashCode;
+
+   public VarVersionEdge(int type, VarVersionNode source, VarVersionNode dest) {
+      this.type = type;
+      this.source = source;
+      this.dest = dest;
+      this.hashCode = source.hashCode() ^ dest.hashCode() + type;
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof VarVersionEdge) {
+         VarVersionEdge edge = (VarVersionEdge)o;
+         return this.type == edge.type && this.source == edge.source && this.dest == edge.dest;
+      } else {
+         return false;
+      }
+   }
+
+   public int hashCode() {
+      return this.hashCode;
+   }
+
+   public String toString() {
+      return this.source.toString() + " ->" + this.type + "-> " + this.dest.toString();
+   }
+}
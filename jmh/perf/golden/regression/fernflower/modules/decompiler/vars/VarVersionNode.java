@@ -0,0 +1,60 @@
+package regression.fernflower.modules.decompiler.vars;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.modules.decompiler.decompose.IGraphNode;
+import regression.fernflower.util.SFormsFastMapDirect;
+
+public class VarVersionNode implements IGraphNode {
+   public static final int FLAG_PHANTOM_FINEXIT = 2;
+   public int var;
+   public int version;
+   public Set succs = new HashSet();
+   public Set preds = new HashSet();
+   public int flags;
+   public SFormsFastMapDirect live = new SFormsFastMapDirect();
+
+   public VarVersionNode(int var, int version) {
+      this.var = var;
+      this.version = version;
+   }
+
+   public VarVersionPair getVarPaar() {
+      return new VarVersionPair(this.var, this.version);
+   }
+
+   public List getPredecessors() {
+      ArrayList lst = new ArrayList(this.preds.size());
+      Iterator var2 = this.preds.iterator();
+
+      while(var2.hasNext()) {
+         VarVersionEdge edge = (VarVersionEdge)var2.next();
+         lst.add(edge.source);
+      }
+
+      return lst;
+   }
+
+   public void removeSuccessor(VarVersionEdge edge) {
+      this.succs.remove(edge);
+   }
+
+   public void removePredecessor(VarVersionEdge edge) {
+      this.preds.remove(edge);
+   }
+
+   public void addSuccessor(VarVersionEdge edge) {
+      this.succs.add(edge);
+   }
+
+   public void addPredecessor(VarVersionEdge edge) {
+      this.preds.add(edge);
+   }
+
+   public String toString() {
+      return "(" + this.var + "_" + this.version + ")";
+   }
+}
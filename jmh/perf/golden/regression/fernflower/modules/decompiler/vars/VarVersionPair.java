@@ -0,0 +1,47 @@
+package regression.fernflower.modules.decompiler.vars;
+
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+
+public class VarVersionPair {
+   public final int var;
+   public final int version;
+   private int hashCode = -1;
+
+   public VarVersionPair(int var, int version) {
+      this.var = var;
+      this.version = version;
+   }
+
+   public VarVersionPair(Integer var, Integer version) {
+      this.var = var.intValue();
+      this.version = version.intValue();
+   }
+
+   public VarVersionPair(VarExprent var) {
+      this.var = var.getIndex();
+      this.version = var.getVersion();
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof VarVersionPair) {
+         VarVersionPair paar = (VarVersionPair)o;
+         return this.var == paar.var && this.version == paar.version;
+      } else {
+         return false;
+      }
+   }
+
+   public int hashCode() {
+      if(this.hashCode == -1) {
+         this.hashCode = this.var * 3 + this.version;
+      }
+
+      return this.hashCode;
+   }
+
+   public String toString() {
+      return "(" + this.var + "," + this.version + ")";
+   }
+}
@@ -0,0 +1,144 @@
+package regression.fernflower.modules.decompiler.vars;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.modules.decompiler.decompose.GenericDominatorEngine;
+import regression.fernflower.modules.decompiler.decompose.IGraph;
+import regression.fernflower.modules.decompiler.decompose.IGraphNode;
+import regression.fernflower.util.VBStyleCollection;
+
+public class VarVersionsGraph {
+   public int counter = 0;
+   public VBStyleCollection nodes = new VBStyleCollection();
+   private GenericDominatorEngine engine;
+
+   public VarVersionNode createNode(VarVersionPair ver) {
+      VarVersionNode node;
+      this.nodes.addWithKey(node = new VarVersionNode(ver.var, ver.version), ver);
+      return node;
+   }
+
+   public void addNodes(Collection colnodes, Collection colpaars) {
+      this.nodes.addAllWithKey(colnodes, colpaars);
+   }
+
+   public boolean isDominatorSet(VarVersionNode node, HashSet domnodes) {
+      if(domnodes.size() == 1) {
+         return this.engine.isDominator(node, (IGraphNode)domnodes.iterator().next());
+      } else {
+         HashSet marked = new HashSet();
+         if(domnodes.contains(node)) {
+            return true;
+         } else {
+            LinkedList lstNodes = new LinkedList();
+            lstNodes.add(node);
+
+            while(true) {
+               VarVersionNode nd;
+               do {
+                  if(lstNodes.isEmpty()) {
+                     return true;
+                  }
+
+                  nd = (VarVersionNode)lstNodes.remove(0);
+               } while(marked.contains(nd));
+
+               marked.add(nd);
+               if(nd.preds.isEmpty()) {
+                  return false;
+               }
+
+               Iterator var6 = nd.preds.iterator();
+
+               while(var6.hasNext()) {
+                  VarVersionEdge edge = (VarVersionEdge)var6.next();
+                  VarVersionNode pred = edge.source;
+                  if(!marked.contains(pred) && !domnodes.contains(pred)) {
+                     lstNodes.add(pred);
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   public void initDominators() {
+      final HashSet roots = new HashSet();
+      Iterator var2 = this.nodes.iterator();
+
+      while(var2.hasNext()) {
+         VarVersionNode node = (VarVersionNode)var2.next();
+         if(node.preds.isEmpty()) {
+            roots.add(node);
+         }
+      }
+
+      this.engine = new GenericDominatorEngine(new IGraph() {
+         public List getReversePostOrderList() {
+            return VarVersionsGraph.getReversedPostOrder(roots);
+         }
+
+         public Set getRoots() {
+            return new HashSet(roots);
+         }
+      });
+      this.engine.initialize();
+   }
+
+   private static LinkedList getReversedPostOrder(Collection roots) {
+      LinkedList lst = new LinkedList();
+      HashSet setVisited = new HashSet();
+      Iterator var3 = roots.iterator();
+
+      while(var3.hasNext()) {
+         VarVersionNode root = (VarVersionNode)var3.next();
+         LinkedList lstTemp = new LinkedList();
+         addToReversePostOrderListIterative(root, lstTemp, setVisited);
+         lst.addAll(lstTemp);
+      }
+
+      return lst;
+   }
+
+   private static void addToReversePostOrderListIterative(VarVersionNode root, List lst, HashSet setVisited) {
+      HashMap mapNodeSuccs = new HashMap();
+      LinkedList stackNode = new LinkedList();
+      LinkedList stackIndex = new LinkedList();
+      stackNode.add(root);
+      stackIndex.add(Integer.valueOf(0));
+
+      while(!stackNode.isEmpty()) {
+         VarVersionNode node = (VarVersionNode)stackNode.getLast();
+         int index = ((Integer)stackIndex.removeLast()).intValue();
+         setVisited.add(node);
+         Object lstSuccs = (List)mapNodeSuccs.get(node);
+         if(lstSuccs == null) {
+            mapNodeSuccs.put(node, lstSuccs = new ArrayList(node.succs));
+         }
+
+         while(index < ((List)lstSuccs).size()) {
+            VarVersionNode succ = ((VarVersionEdge)((List)lstSuccs).get(index)).dest;
+            if(!setVisited.contains(succ)) {
+               stackIndex.add(Integer.valueOf(index + 1));
+               stackNode.add(succ);
+               stackIndex.add(Integer.valueOf(0));
+               break;
+            }
+
+            ++index;
+         }
+
+         if(index == ((List)lstSuccs).size()) {
+            lst.add(0, node);
+            stackNode.removeLast();
+         }
+      }
+
+   }
+}
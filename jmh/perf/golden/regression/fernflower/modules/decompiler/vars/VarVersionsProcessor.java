@@ -0,0 +1,303 @@
+package regression.fernflower.modules.decompiler.vars;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.collectors.CounterContainer;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.VarExprent;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.sforms.FlattenStatementsHelper;
+import regression.fernflower.modules.decompiler.sforms.SSAConstructorSparseEx;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.FastSparseSetFactory;
+
+public class VarVersionsProcessor {
+   private Map mapOriginalVarIndices = new HashMap();
+   private VarTypeProcessor typeProcessor;
+
+   public void setVarVersions(RootStatement root) {
+      StructMethod mt = (StructMethod)DecompilerContext.getProperty("CURRENT_METHOD");
+      SSAConstructorSparseEx ssa = new SSAConstructorSparseEx();
+      ssa.splitVariables(root, mt);
+      FlattenStatementsHelper flattenHelper = new FlattenStatementsHelper();
+      DirectGraph graph = flattenHelper.buildDirectGraph(root);
+      mergePhiVersions(ssa, graph);
+      this.typeProcessor = new VarTypeProcessor();
+      this.typeProcessor.calculateVarTypes(root, graph);
+      simpleMerge(this.typeProcessor, graph, mt);
+      eliminateNonJavaTypes(this.typeProcessor);
+      this.setNewVarIndices(this.typeProcessor, graph);
+   }
+
+   private static void mergePhiVersions(SSAConstructorSparseEx ssa, DirectGraph graph) {
+      ArrayList lst = new ArrayList();
+      Iterator phiVersions = ssa.getPhi().entrySet().iterator();
+
+      int var12;
+      while(phiVersions.hasNext()) {
+         Entry ent = (Entry)phiVersions.next();
+         HashSet set = new HashSet();
+         set.add((VarVersionPair)ent.getKey());
+         Iterator min = ((FastSparseSetFactory.FastSparseSet)ent.getValue()).iterator();
+
+         while(min.hasNext()) {
+            Integer tset = (Integer)min.next();
+            set.add(new VarVersionPair(((VarVersionPair)ent.getKey()).var, tset.intValue()));
+         }
+
+         for(var12 = lst.size() - 1; var12 >= 0; --var12) {
+            Set var13 = (Set)lst.get(var12);
+            HashSet paar = new HashSet(set);
+            paar.retainAll(var13);
+            if(!paar.isEmpty()) {
+               set.addAll(var13);
+               lst.remove(var12);
+            }
+         }
+
+         lst.add(set);
+      }
+
+      HashMap var9 = new HashMap();
+      Iterator var10 = lst.iterator();
+
+      while(var10.hasNext()) {
+         Set var11 = (Set)var10.next();
+         var12 = Integer.MAX_VALUE;
+         Iterator var14 = var11.iterator();
+
+         VarVersionPair var15;
+         while(var14.hasNext()) {
+            var15 = (VarVersionPair)var14.next();
+            if(var15.version < var12) {
+               var12 = var15.version;
+            }
+         }
+
+         var14 = var11.iterator();
+
+         while(var14.hasNext()) {
+            var15 = (VarVersionPair)var14.next();
+            var9.put(new VarVersionPair(var15.var, var15.version), Integer.valueOf(var12));
+         }
+      }
+
+      updateVersions(graph, var9);
+   }
+
+   private static void updateVersions(DirectGraph graph, final Map versions) {
+      graph.iterateExprents(new DirectGraph.ExprentIterator() {
+         public int processExprent(Exprent exprent) {
+            List lst = exprent.getAllExprents(true);
+            lst.add(exprent);
+            Iterator var3 = lst.iterator();
+
+            while(var3.hasNext()) {
+               Exprent expr = (Exprent)var3.next();
+               if(expr.type == 12) {
+                  VarExprent var = (VarExprent)expr;
+                  Integer version = (Integer)versions.get(new VarVersionPair(var));
+                  if(version != null) {
+                     var.setVersion(version.intValue());
+                  }
+               }
+            }
+
+            return 0;
+         }
+      });
+   }
+
+   private static void eliminateNonJavaTypes(VarTypeProcessor typeProcessor) {
+      Map mapExprentMaxTypes = typeProcessor.getMapExprentMaxTypes();
+      Map mapExprentMinTypes = typeProcessor.getMapExprentMinTypes();
+      HashSet set = new HashSet(mapExprentMinTypes.keySet());
+      Iterator var4 = set.iterator();
+
+      while(true) {
+         while(var4.hasNext()) {
+            VarVersionPair paar = (VarVersionPair)var4.next();
+            VarType type = (VarType)mapExprentMinTypes.get(paar);
+            VarType maxType = (VarType)mapExprentMaxTypes.get(paar);
+            if(type.type != 15 && type.type != 16) {
+               if(type.type == 13) {
+                  mapExprentMinTypes.put(paar, VarType.VARTYPE_OBJECT);
+               }
+            } else {
+               if(maxType != null && maxType.type == 1) {
+                  type = VarType.VARTYPE_CHAR;
+               } else {
+                  type = type.type == 15 ? VarType.VARTYPE_BYTE : VarType.VARTYPE_SHORT;
+               }
+
+               mapExprentMinTypes.put(paar, type);
+            }
+         }
+
+         return;
+      }
+   }
+
+   private static void simpleMerge(VarTypeProcessor typeProcessor, DirectGraph graph, StructMethod mt) {
+      Map mapExprentMaxTypes = typeProcessor.getMapExprentMaxTypes();
+      Map mapExprentMinTypes = typeProcessor.getMapExprentMinTypes();
+      HashMap mapVarVersions = new HashMap();
+      Iterator is_method_static = mapExprentMinTypes.keySet().iterator();
+
+      while(is_method_static.hasNext()) {
+         VarVersionPair mapMergedVersions = (VarVersionPair)is_method_static.next();
+         if(mapMergedVersions.version >= 0) {
+            Object set = (Set)mapVarVersions.get(Integer.valueOf(mapMergedVersions.var));
+            if(set == null) {
+               set = new HashSet();
+               mapVarVersions.put(Integer.valueOf(mapMergedVersions.var), set);
+            }
+
+            ((Set)set).add(Integer.valueOf(mapMergedVersions.version));
+         }
+      }
+
+      boolean var20 = mt.hasModifier(8);
+      HashMap var21 = new HashMap();
+      Iterator var22 = mapVarVersions.entrySet().iterator();
+
+      while(true) {
+         Entry ent;
+         do {
+            if(!var22.hasNext()) {
+               if(!var21.isEmpty()) {
+                  updateVersions(graph, var21);
+               }
+
+               return;
+            }
+
+            ent = (Entry)var22.next();
+         } while(((Set)ent.getValue()).size() <= 1);
+
+         ArrayList lstVersions = new ArrayList((Collection)ent.getValue());
+         Collections.sort(lstVersions);
+
+         for(int i = 0; i < lstVersions.size(); ++i) {
+            VarVersionPair firstPair = new VarVersionPair((Integer)ent.getKey(), (Integer)lstVersions.get(i));
+            VarType firstType = (VarType)mapExprentMinTypes.get(firstPair);
+            if(firstPair.var != 0 || firstPair.version != 1 || var20) {
+               for(int j = i + 1; j < lstVersions.size(); ++j) {
+                  VarVersionPair secondPair = new VarVersionPair((Integer)ent.getKey(), (Integer)lstVersions.get(j));
+                  VarType secondType = (VarType)mapExprentMinTypes.get(secondPair);
+                  if(firstType.equals(secondType) || firstType.equals(VarType.VARTYPE_NULL) && secondType.type == 8 || secondType.equals(VarType.VARTYPE_NULL) && firstType.type == 8) {
+                     VarType firstMaxType = (VarType)mapExprentMaxTypes.get(firstPair);
+                     VarType secondMaxType = (VarType)mapExprentMaxTypes.get(secondPair);
+                     VarType type = firstMaxType == null ? secondMaxType : (secondMaxType == null ? firstMaxType : VarType.getCommonMinType(firstMaxType, secondMaxType));
+                     mapExprentMaxTypes.put(firstPair, type);
+                     var21.put(secondPair, Integer.valueOf(firstPair.version));
+                     mapExprentMaxTypes.remove(secondPair);
+                     mapExprentMinTypes.remove(secondPair);
+                     if(firstType.equals(VarType.VARTYPE_NULL)) {
+                        mapExprentMinTypes.put(firstPair, secondType);
+                        firstType = secondType;
+                     }
+
+                     typeProcessor.getMapFinalVars().put(firstPair, Integer.valueOf(1));
+                     lstVersions.remove(j);
+                     --j;
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   private void setNewVarIndices(VarTypeProcessor typeProcessor, DirectGraph graph) {
+      final Map mapExprentMaxTypes = typeProcessor.getMapExprentMaxTypes();
+      Map mapExprentMinTypes = typeProcessor.getMapExprentMinTypes();
+      Map mapFinalVars = typeProcessor.getMapFinalVars();
+      CounterContainer counters = DecompilerContext.getCounterContainer();
+      final HashMap mapVarPaar = new HashMap();
+      HashMap mapOriginalVarIndices = new HashMap();
+      HashSet set = new HashSet(mapExprentMinTypes.keySet());
+      Iterator var10 = set.iterator();
+
+      while(var10.hasNext()) {
+         VarVersionPair pair = (VarVersionPair)var10.next();
+         if(pair.version >= 0) {
+            int newIndex = pair.version == 1 ? pair.var : counters.getCounterAndIncrement(2);
+            VarVersionPair newVar = new VarVersionPair(newIndex, 0);
+            mapExprentMinTypes.put(newVar, (VarType)mapExprentMinTypes.get(pair));
+            mapExprentMaxTypes.put(newVar, (VarType)mapExprentMaxTypes.get(pair));
+            if(mapFinalVars.containsKey(pair)) {
+               mapFinalVars.put(newVar, (Integer)mapFinalVars.remove(pair));
+            }
+
+            mapVarPaar.put(pair, Integer.valueOf(newIndex));
+            mapOriginalVarIndices.put(Integer.valueOf(newIndex), Integer.valueOf(pair.var));
+         }
+      }
+
+      graph.iterateExprents(new DirectGraph.ExprentIterator() {
+         public int processExprent(Exprent exprent) {
+            List lst = exprent.getAllExprents(true);
+            lst.add(exprent);
+            Iterator var3 = lst.iterator();
+
+            while(var3.hasNext()) {
+               Exprent expr = (Exprent)var3.next();
+               if(expr.type == 12) {
+                  VarExprent maxType = (VarExprent)expr;
+                  Integer newVarIndex = (Integer)mapVarPaar.get(new VarVersionPair(maxType));
+                  if(newVarIndex != null) {
+                     maxType.setIndex(newVarIndex.intValue());
+                     maxType.setVersion(0);
+                  }
+               } else if(expr.type == 3) {
+                  VarType maxType1 = (VarType)mapExprentMaxTypes.get(new VarVersionPair(expr.id, -1));
+                  if(maxType1 != null && maxType1.equals(VarType.VARTYPE_CHAR)) {
+                     ((ConstExprent)expr).setConstType(maxType1);
+                  }
+               }
+            }
+
+            return 0;
+         }
+      });
+      this.mapOriginalVarIndices = mapOriginalVarIndices;
+   }
+
+   public VarType getVarType(VarVersionPair pair) {
+      return this.typeProcessor == null ? null : this.typeProcessor.getVarType(pair);
+   }
+
+   public void setVarType(VarVersionPair pair, VarType type) {
+      this.typeProcessor.setVarType(pair, type);
+   }
+
+   public int getVarFinal(VarVersionPair pair) {
+      int ret = 3;
+      if(this.typeProcessor != null) {
+         Integer fin = (Integer)this.typeProcessor.getMapFinalVars().get(pair);
+         ret = fin == null ? 3 : fin.intValue();
+      }
+
+      return ret;
+   }
+
+   public void setVarFinal(VarVersionPair pair, int finalType) {
+      this.typeProcessor.getMapFinalVars().put(pair, Integer.valueOf(finalType));
+   }
+
+   public Map getMapOriginalVarIndices() {
+      return this.mapOriginalVarIndices;
+   }
+}
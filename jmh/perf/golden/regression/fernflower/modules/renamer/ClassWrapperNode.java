@@ -0,0 +1,36 @@
+package regression.fernflower.modules.renamer;
+
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.struct.StructClass;
+
+public class ClassWrapperNode {
+   private StructClass classStruct;
+   private ClassWrapperNode superclass;
+   private List subclasses = new ArrayList();
+
+   public ClassWrapperNode(StructClass cl) {
+      this.classStruct = cl;
+   }
+
+   public void addSubclass(ClassWrapperNode node) {
+      node.setSuperclass(this);
+      this.subclasses.add(node);
+   }
+
+   public StructClass getClassStruct() {
+      return this.classStruct;
+   }
+
+   public List getSubclasses() {
+      return this.subclasses;
+   }
+
+   public ClassWrapperNode getSuperclass() {
+      return this.superclass;
+   }
+
+   public void setSuperclass(ClassWrapperNode superclass) {
+      this.superclass = superclass;
+   }
+}
@@ -0,0 +1,57 @@
+package regression.fernflower.modules.renamer;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import regression.fernflower.main.extern.IIdentifierRenamer;
+
+public class ConverterHelper implements IIdentifierRenamer {
+   private static final Set KEYWORDS = new HashSet(Arrays.asList(new String[]{"abstract", "do", "if", "package", "synchronized", "boolean", "double", "implements", "private", "this", "break", "else", "import", "protected", "throw", "byte", "extends", "instanceof", "public", "throws", "case", "false", "int", "return", "transient", "catch", "final", "interface", "short", "true", "char", "finally", "long", "static", "try", "class", "float", "native", "strictfp", "void", "const", "for", "new", "super", "volatile", "continue", "goto", "null", "switch", "while", "default", "assert", "enum"}));
+   private int classCounter = 0;
+   private int fieldCounter = 0;
+   private int methodCounter = 0;
+   private Set setNonStandardClassNames = new HashSet();
+
+   public boolean toBeRenamed(IIdentifierRenamer.Type elementType, String className, String element, String descriptor) {
+      String value = elementType == IIdentifierRenamer.Type.ELEMENT_CLASS ? className : element;
+      return value == null || value.length() == 0 || value.length() <= 2 || KEYWORDS.contains(value) || Character.isDigit(value.charAt(0));
+   }
+
+   public String getNextClassName(String fullName, String shortName) {
+      if(shortName == null) {
+         return "class_" + this.classCounter++;
+      } else {
+         int index;
+         for(index = 0; Character.isDigit(shortName.charAt(index)); ++index) {
+         }
+
+         if(index != 0 && index != shortName.length()) {
+            String name = shortName.substring(index);
+            if(this.setNonStandardClassNames.contains(name)) {
+               return "Inner" + name + "_" + this.classCounter++;
+            } else {
+               this.setNonStandardClassNames.add(name);
+               return "Inner" + name;
+            }
+         } else {
+            return "class_" + this.classCounter++;
+         }
+      }
+   }
+
+   public String getNextFieldName(String className, String field, String descriptor) {
+      return "field_" + this.fieldCounter++;
+   }
+
+   public String getNextMethodName(String className, String method, String descriptor) {
+      return "method_" + this.methodCounter++;
+   }
+
+   public static String getSimpleClassName(String fullName) {
+      return fullName.substring(fullName.lastIndexOf(47) + 1);
+   }
+
+   public static String replaceSimpleClassName(String fullName, String newName) {
+      return fullName.substring(0, fullName.lastIndexOf(47) + 1) + newName;
+   }
+}
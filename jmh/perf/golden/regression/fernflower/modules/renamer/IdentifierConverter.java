@@ -0,0 +1,373 @@
+package regression.fernflower.modules.renamer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.extern.IIdentifierRenamer;
+import regression.fernflower.struct.StructClass;
+import regression.fernflower.struct.StructContext;
+import regression.fernflower.struct.StructField;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.gen.FieldDescriptor;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.NewClassNameBuilder;
+import regression.fernflower.util.VBStyleCollection;
+
+public class IdentifierConverter implements NewClassNameBuilder {
+   private StructContext context;
+   private IIdentifierRenamer helper;
+   private PoolInterceptor interceptor;
+   private List rootClasses = new ArrayList();
+   private List rootInterfaces = new ArrayList();
+   private Map interfaceNameMaps = new HashMap();
+
+   public void rename(StructContext context) {
+      try {
+         this.context = context;
+         String ex = (String)DecompilerContext.getProperty("urc");
+         if(ex != null) {
+            try {
+               this.helper = (IIdentifierRenamer)IdentifierConverter.class.getClassLoader().loadClass(ex).newInstance();
+            } catch (Exception var4) {
+            }
+         }
+
+         if(this.helper == null) {
+            this.helper = new ConverterHelper();
+         }
+
+         this.interceptor = new PoolInterceptor(this.helper);
+         this.buildInheritanceTree();
+         this.renameAllClasses();
+         this.renameInterfaces();
+         this.renameClasses();
+         DecompilerContext.setPoolInterceptor(this.interceptor);
+         context.reloadContext();
+      } catch (IOException var5) {
+         throw new RuntimeException("Renaming failed!");
+      }
+   }
+
+   private void renameClasses() {
+      List lstClasses = getReversePostOrderListIterative(this.rootClasses);
+      HashMap classNameMaps = new HashMap();
+      Iterator var3 = lstClasses.iterator();
+
+      while(var3.hasNext()) {
+         ClassWrapperNode node = (ClassWrapperNode)var3.next();
+         StructClass cl = node.getClassStruct();
+         HashMap names = new HashMap();
+         if(cl.superClass != null) {
+            Map mapClass = (Map)classNameMaps.get(cl.superClass.getString());
+            if(mapClass != null) {
+               names.putAll(mapClass);
+            }
+         }
+
+         String[] var13 = cl.getInterfaceNames();
+         int var8 = var13.length;
+
+         for(int var9 = 0; var9 < var8; ++var9) {
+            String ifName = var13[var9];
+            Map mapInt = (Map)this.interfaceNameMaps.get(ifName);
+            if(mapInt != null) {
+               names.putAll(mapInt);
+            } else {
+               StructClass clintr = this.context.getClass(ifName);
+               if(clintr != null) {
+                  names.putAll(this.processExternalInterface(clintr));
+               }
+            }
+         }
+
+         this.renameClassIdentifiers(cl, names);
+         if(!node.getSubclasses().isEmpty()) {
+            classNameMaps.put(cl.qualifiedName, names);
+         }
+      }
+
+   }
+
+   private Map processExternalInterface(StructClass cl) {
+      HashMap names = new HashMap();
+      String[] var3 = cl.getInterfaceNames();
+      int var4 = var3.length;
+
+      for(int var5 = 0; var5 < var4; ++var5) {
+         String ifName = var3[var5];
+         Map mapInt = (Map)this.interfaceNameMaps.get(ifName);
+         if(mapInt != null) {
+            names.putAll(mapInt);
+         } else {
+            StructClass clintr = this.context.getClass(ifName);
+            if(clintr != null) {
+               names.putAll(this.processExternalInterface(clintr));
+            }
+         }
+      }
+
+      this.renameClassIdentifiers(cl, names);
+      return names;
+   }
+
+   private void renameInterfaces() {
+      List lstInterfaces = getReversePostOrderListIterative(this.rootInterfaces);
+      HashMap interfaceNameMaps = new HashMap();
+      Iterator var3 = lstInterfaces.iterator();
+
+      while(var3.hasNext()) {
+         ClassWrapperNode node = (ClassWrapperNode)var3.next();
+         StructClass cl = node.getClassStruct();
+         HashMap names = new HashMap();
+         String[] var7 = cl.getInterfaceNames();
+         int var8 = var7.length;
+
+         for(int var9 = 0; var9 < var8; ++var9) {
+            String ifName = var7[var9];
+            Map mapInt = (Map)interfaceNameMaps.get(ifName);
+            if(mapInt != null) {
+               names.putAll(mapInt);
+            }
+         }
+
+         this.renameClassIdentifiers(cl, names);
+         interfaceNameMaps.put(cl.qualifiedName, names);
+      }
+
+      this.interfaceNameMaps = interfaceNameMaps;
+   }
+
+   private void renameAllClasses() {
+      ArrayList lstAllClasses = new ArrayList(getReversePostOrderListIterative(this.rootInterfaces));
+      lstAllClasses.addAll(getReversePostOrderListIterative(this.rootClasses));
+      Iterator var2 = lstAllClasses.iterator();
+
+      while(var2.hasNext()) {
+         ClassWrapperNode node = (ClassWrapperNode)var2.next();
+         this.renameClass(node.getClassStruct());
+      }
+
+   }
+
+   private void renameClass(StructClass cl) {
+      if(cl.isOwn()) {
+         String classOldFullName = cl.qualifiedName;
+         String clSimpleName = ConverterHelper.getSimpleClassName(classOldFullName);
+         if(this.helper.toBeRenamed(IIdentifierRenamer.Type.ELEMENT_CLASS, clSimpleName, (String)null, (String)null)) {
+            String classNewFullName;
+            do {
+               String classname = this.helper.getNextClassName(classOldFullName, ConverterHelper.getSimpleClassName(classOldFullName));
+               classNewFullName = ConverterHelper.replaceSimpleClassName(classOldFullName, classname);
+            } while(this.context.getClasses().containsKey(classNewFullName));
+
+            this.interceptor.addName(classOldFullName, classNewFullName);
+         }
+
+      }
+   }
+
+   private void renameClassIdentifiers(StructClass cl, Map names) {
+      String classOldFullName = cl.qualifiedName;
+      String classNewFullName = this.interceptor.getName(classOldFullName);
+      if(classNewFullName == null) {
+         classNewFullName = classOldFullName;
+      }
+
+      HashSet setMethodNames = new HashSet();
+      Iterator methods = cl.getMethods().iterator();
+
+      while(methods.hasNext()) {
+         StructMethod setFieldNames = (StructMethod)methods.next();
+         setMethodNames.add(setFieldNames.getName());
+      }
+
+      VBStyleCollection var12 = cl.getMethods();
+
+      for(int var13 = 0; var13 < var12.size(); ++var13) {
+         StructMethod mt = (StructMethod)var12.get(var13);
+         String fd = (String)var12.getKey(var13);
+         boolean newName = mt.hasModifier(2);
+         String name = mt.getName();
+         if(cl.isOwn() && !mt.hasModifier(256)) {
+            if(this.helper.toBeRenamed(IIdentifierRenamer.Type.ELEMENT_METHOD, classOldFullName, name, mt.getDescriptor())) {
+               if(!newName && names.containsKey(fd)) {
+                  name = (String)names.get(fd);
+               } else {
+                  do {
+                     name = this.helper.getNextMethodName(classOldFullName, name, mt.getDescriptor());
+                  } while(setMethodNames.contains(name));
+
+                  if(!newName) {
+                     names.put(fd, name);
+                  }
+               }
+
+               this.interceptor.addName(classOldFullName + " " + mt.getName() + " " + mt.getDescriptor(), classNewFullName + " " + name + " " + this.buildNewDescriptor(false, mt.getDescriptor()));
+            }
+         } else if(!newName) {
+            names.put(fd, name);
+         }
+      }
+
+      if(cl.isOwn()) {
+         HashSet var14 = new HashSet();
+         Iterator var15 = cl.getFields().iterator();
+
+         StructField var16;
+         while(var15.hasNext()) {
+            var16 = (StructField)var15.next();
+            var14.add(var16.getName());
+         }
+
+         var15 = cl.getFields().iterator();
+
+         while(true) {
+            do {
+               if(!var15.hasNext()) {
+                  return;
+               }
+
+               var16 = (StructField)var15.next();
+            } while(!this.helper.toBeRenamed(IIdentifierRenamer.Type.ELEMENT_FIELD, classOldFullName, var16.getName(), var16.getDescriptor()));
+
+            String var17;
+            do {
+               var17 = this.helper.getNextFieldName(classOldFullName, var16.getName(), var16.getDescriptor());
+            } while(var14.contains(var17));
+
+            this.interceptor.addName(classOldFullName + " " + var16.getName() + " " + var16.getDescriptor(), classNewFullName + " " + var17 + " " + this.buildNewDescriptor(true, var16.getDescriptor()));
+         }
+      }
+   }
+
+   public String buildNewClassname(String className) {
+      return this.interceptor.getName(className);
+   }
+
+   private String buildNewDescriptor(boolean isField, String descriptor) {
+      String newDescriptor;
+      if(isField) {
+         newDescriptor = FieldDescriptor.parseDescriptor(descriptor).buildNewDescriptor(this);
+      } else {
+         newDescriptor = MethodDescriptor.parseDescriptor(descriptor).buildNewDescriptor(this);
+      }
+
+      return newDescriptor != null ? newDescriptor : descriptor;
+   }
+
+   private static List getReversePostOrderListIterative(List roots) {
+      ArrayList res = new ArrayList();
+      LinkedList stackNode = new LinkedList();
+      LinkedList stackIndex = new LinkedList();
+      HashSet setVisited = new HashSet();
+      Iterator node = roots.iterator();
+
+      while(node.hasNext()) {
+         ClassWrapperNode index = (ClassWrapperNode)node.next();
+         stackNode.add(index);
+         stackIndex.add(Integer.valueOf(0));
+      }
+
+      while(!stackNode.isEmpty()) {
+         ClassWrapperNode var9 = (ClassWrapperNode)stackNode.getLast();
+         int var10 = ((Integer)stackIndex.removeLast()).intValue();
+         setVisited.add(var9);
+
+         List lstSubs;
+         for(lstSubs = var9.getSubclasses(); var10 < lstSubs.size(); ++var10) {
+            ClassWrapperNode sub = (ClassWrapperNode)lstSubs.get(var10);
+            if(!setVisited.contains(sub)) {
+               stackIndex.add(Integer.valueOf(var10 + 1));
+               stackNode.add(sub);
+               stackIndex.add(Integer.valueOf(0));
+               break;
+            }
+         }
+
+         if(var10 == lstSubs.size()) {
+            res.add(0, var9);
+            stackNode.removeLast();
+         }
+      }
+
+      return res;
+   }
+
+   private void buildInheritanceTree() {
+      HashMap nodes = new HashMap();
+      Map classes = this.context.getClasses();
+      ArrayList rootClasses = new ArrayList();
+      ArrayList rootInterfaces = new ArrayList();
+      Iterator var5 = classes.values().iterator();
+
+      while(true) {
+         StructClass cl;
+         do {
+            if(!var5.hasNext()) {
+               this.rootClasses = rootClasses;
+               this.rootInterfaces = rootInterfaces;
+               return;
+            }
+
+            cl = (StructClass)var5.next();
+         } while(!cl.isOwn());
+
+         LinkedList stack = new LinkedList();
+         LinkedList stackSubNodes = new LinkedList();
+         stack.add(cl);
+         stackSubNodes.add((Object)null);
+
+         while(!stack.isEmpty()) {
+            StructClass clStr = (StructClass)stack.removeFirst();
+            ClassWrapperNode child = (ClassWrapperNode)stackSubNodes.removeFirst();
+            ClassWrapperNode node = (ClassWrapperNode)nodes.get(clStr.qualifiedName);
+            boolean isNewNode = node == null;
+            if(isNewNode) {
+               nodes.put(clStr.qualifiedName, node = new ClassWrapperNode(clStr));
+            }
+
+            if(child != null) {
+               node.addSubclass(child);
+            }
+
+            if(!isNewNode) {
+               break;
+            }
+
+            boolean isInterface = clStr.hasModifier(512);
+            boolean found_parent = false;
+            if(isInterface) {
+               String[] var20 = clStr.getInterfaceNames();
+               int var16 = var20.length;
+
+               for(int var17 = 0; var17 < var16; ++var17) {
+                  String ifName = var20[var17];
+                  StructClass clParent1 = (StructClass)classes.get(ifName);
+                  if(clParent1 != null) {
+                     stack.add(clParent1);
+                     stackSubNodes.add(node);
+                     found_parent = true;
+                  }
+               }
+            } else if(clStr.superClass != null) {
+               StructClass clParent = (StructClass)classes.get(clStr.superClass.getString());
+               if(clParent != null) {
+                  stack.add(clParent);
+                  stackSubNodes.add(node);
+                  found_parent = true;
+               }
+            }
+
+            if(!found_parent) {
+               (isInterface ? rootInterfaces : rootClasses).add(node);
+            }
+         }
+      }
+   }
+}
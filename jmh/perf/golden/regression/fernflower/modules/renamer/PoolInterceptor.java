@@ -0,0 +1,31 @@
+package regression.fernflower.modules.renamer;
+
+import java.util.HashMap;
+import regression.fernflower.main.extern.IIdentifierRenamer;
+
+public class PoolInterceptor {
+   private IIdentifierRenamer helper;
+   private HashMap mapOldToNewNames = new HashMap();
+   private HashMap mapNewToOldNames = new HashMap();
+
+   public PoolInterceptor(IIdentifierRenamer helper) {
+      this.helper = helper;
+   }
+
+   public void addName(String oldName, String newName) {
+      this.mapOldToNewNames.put(oldName, newName);
+      this.mapNewToOldNames.put(newName, oldName);
+   }
+
+   public String getName(String oldName) {
+      return (String)this.mapOldToNewNames.get(oldName);
+   }
+
+   public String getOldName(String newName) {
+      return (String)this.mapNewToOldNames.get(newName);
+   }
+
+   public IIdentifierRenamer getHelper() {
+      return this.helper;
+   }
+}
@@ -0,0 +1,161 @@
+package regression.fernflower.struct;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.jar.Manifest;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.extern.IResultSaver;
+import regression.fernflower.struct.lazy.LazyLoader;
+import regression.fernflower.util.DataInputFullStream;
+
+public class ContextUnit {
+   public static final int TYPE_FOLDER = 0;
+   public static final int TYPE_JAR = 1;
+   public static final int TYPE_ZIP = 2;
+   private final int type;
+   private final boolean own;
+   private final String archivePath;
+   private final String filename;
+   private final IResultSaver resultSaver;
+   private final IDecompiledData decompiledData;
+   private final List classEntries = new ArrayList();
+   private final List dirEntries = new ArrayList();
+   private final List otherEntries = new ArrayList();
+   private List classes = new ArrayList();
+   private Manifest manifest;
+
+   public ContextUnit(int type, String archivePath, String filename, boolean own, IResultSaver resultSaver, IDecompiledData decompiledData) {
+      this.type = type;
+      this.own = own;
+      this.archivePath = archivePath;
+      this.filename = filename;
+      this.resultSaver = resultSaver;
+      this.decompiledData = decompiledData;
+   }
+
+   public void addClass(StructClass cl, String entryName) {
+      this.classes.add(cl);
+      this.classEntries.add(entryName);
+   }
+
+   public void addDirEntry(String entry) {
+      this.dirEntries.add(entry);
+   }
+
+   public void addOtherEntry(String fullPath, String entry) {
+      this.otherEntries.add(new String[]{fullPath, entry});
+   }
+
+   public void reload(LazyLoader loader) throws IOException {
+      ArrayList lstClasses = new ArrayList();
+      Iterator var3 = this.classes.iterator();
+
+      while(var3.hasNext()) {
+         StructClass cl = (StructClass)var3.next();
+         String oldName = cl.qualifiedName;
+         DataInputFullStream in = loader.getClassStream(oldName);
+
+         StructClass newCl;
+         try {
+            newCl = new StructClass(in, cl.isOwn(), loader);
+         } finally {
+            in.close();
+         }
+
+         lstClasses.add(newCl);
+         LazyLoader.Link lnk = loader.getClassLink(oldName);
+         loader.removeClassLink(oldName);
+         loader.addClassLink(newCl.qualifiedName, lnk);
+      }
+
+      this.classes = lstClasses;
+   }
+
+   public void save() {
+      DecompilerContext.getLogger().startSave(this.classes.size());
+      Iterator i;
+      String entryName;
+      String content;
+      int var6;
+      String[] var7;
+      StructClass var8;
+      switch(this.type) {
+      case 0:
+         this.resultSaver.saveFolder(this.filename);
+         i = this.otherEntries.iterator();
+
+         while(i.hasNext()) {
+            var7 = (String[])i.next();
+            this.resultSaver.copyFile(var7[0], this.filename, var7[1]);
+         }
+
+         for(var6 = 0; var6 < this.classes.size(); ++var6) {
+            DecompilerContext.getLogger().updateSave(var6);
+            var8 = (StructClass)this.classes.get(var6);
+            entryName = this.decompiledData.getClassEntryName(var8, (String)this.classEntries.get(var6));
+            if(entryName != null) {
+               content = this.decompiledData.getClassContent(var8);
+               if(content != null) {
+                  int[] mapping = null;
+                  if(DecompilerContext.getOption("bsm")) {
+                     mapping = DecompilerContext.getBytecodeSourceMapper().getOriginalLinesMapping();
+                  }
+
+                  this.resultSaver.saveClassFile(this.filename, var8.qualifiedName, entryName, content, mapping);
+               }
+            }
+         }
+
+         return;
+      case 1:
+      case 2:
+         this.resultSaver.saveFolder(this.archivePath);
+         this.resultSaver.createArchive(this.archivePath, this.filename, this.manifest);
+         i = this.dirEntries.iterator();
+
+         while(i.hasNext()) {
+            String cl = (String)i.next();
+            this.resultSaver.saveDirEntry(this.archivePath, this.filename, cl);
+         }
+
+         i = this.otherEntries.iterator();
+
+         while(true) {
+            do {
+               if(!i.hasNext()) {
+                  for(var6 = 0; var6 < this.classes.size(); ++var6) {
+                     DecompilerContext.getLogger().updateSave(var6);
+                     var8 = (StructClass)this.classes.get(var6);
+                     entryName = this.decompiledData.getClassEntryName(var8, (String)this.classEntries.get(var6));
+                     if(entryName != null) {
+                        content = this.decompiledData.getClassContent(var8);
+                        this.resultSaver.saveClassEntry(this.archivePath, this.filename, var8.qualifiedName, entryName, content);
+                     }
+                  }
+
+                  this.resultSaver.closeArchive(this.archivePath, this.filename);
+                  return;
+               }
+
+               var7 = (String[])i.next();
+            } while(this.type == 1 && "META-INF/MANIFEST.MF".equalsIgnoreCase(var7[1]));
+
+            this.resultSaver.copyEntry(var7[0], this.archivePath, this.filename, var7[1]);
+         }
+      }
+   }
+
+   public void setManifest(Manifest manifest) {
+      this.manifest = manifest;
+   }
+
+   public boolean isOwn() {
+      return this.own;
+   }
+
+   public List getClasses() {
+      return this.classes;
+   }
+}
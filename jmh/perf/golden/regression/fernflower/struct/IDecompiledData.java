@@ -0,0 +1,7 @@
+package regression.fernflower.struct;
+
+public interface IDecompiledData {
+   String getClassEntryName(StructClass var1, String var2);
+
+   String getClassContent(StructClass var1);
+}
@@ -0,0 +1,151 @@
+package regression.fernflower.struct;
+
+import java.io.IOException;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.struct.consts.PrimitiveConstant;
+import regression.fernflower.struct.lazy.LazyLoader;
+import regression.fernflower.util.DataInputFullStream;
+import regression.fernflower.util.InterpreterUtil;
+import regression.fernflower.util.VBStyleCollection;
+
+public class StructClass extends StructMember {
+   public final String qualifiedName;
+   public final PrimitiveConstant superClass;
+   private final boolean own;
+   private final LazyLoader loader;
+   private final int minorVersion;
+   private final int majorVersion;
+   private final int[] interfaces;
+   private final String[] interfaceNames;
+   private final VBStyleCollection fields;
+   private final VBStyleCollection methods;
+   private ConstantPool pool;
+
+   public StructClass(byte[] bytes, boolean own, LazyLoader loader) throws IOException {
+      this(new DataInputFullStream(bytes), own, loader);
+   }
+
+   public StructClass(DataInputFullStream in, boolean own, LazyLoader loader) throws IOException {
+      this.own = own;
+      this.loader = loader;
+      in.discard(4);
+      this.minorVersion = in.readUnsignedShort();
+      this.majorVersion = in.readUnsignedShort();
+      this.pool = new ConstantPool(in);
+      this.accessFlags = in.readUnsignedShort();
+      int thisClassIdx = in.readUnsignedShort();
+      int superClassIdx = in.readUnsignedShort();
+      this.qualifiedName = this.pool.getPrimitiveConstant(thisClassIdx).getString();
+      this.superClass = this.pool.getPrimitiveConstant(superClassIdx);
+      int length = in.readUnsignedShort();
+      this.interfaces = new int[length];
+      this.interfaceNames = new String[length];
+
+      int i;
+      for(i = 0; i < length; ++i) {
+         this.interfaces[i] = in.readUnsignedShort();
+         this.interfaceNames[i] = this.pool.getPrimitiveConstant(this.interfaces[i]).getString();
+      }
+
+      length = in.readUnsignedShort();
+      this.fields = new VBStyleCollection();
+
+      for(i = 0; i < length; ++i) {
+         StructField method = new StructField(in, this);
+         this.fields.addWithKey(method, InterpreterUtil.makeUniqueKey(method.getName(), method.getDescriptor()));
+      }
+
+      length = in.readUnsignedShort();
+      this.methods = new VBStyleCollection();
+
+      for(i = 0; i < length; ++i) {
+         StructMethod var9 = new StructMethod(in, this);
+         this.methods.addWithKey(var9, InterpreterUtil.makeUniqueKey(var9.getName(), var9.getDescriptor()));
+      }
+
+      this.attributes = this.readAttributes(in, this.pool);
+      this.releaseResources();
+   }
+
+   public boolean hasField(String name, String descriptor) {
+      return this.getField(name, descriptor) != null;
+   }
+
+   public StructField getField(String name, String descriptor) {
+      return (StructField)this.fields.getWithKey(InterpreterUtil.makeUniqueKey(name, descriptor));
+   }
+
+   public StructMethod getMethod(String key) {
+      return (StructMethod)this.methods.getWithKey(key);
+   }
+
+   public StructMethod getMethod(String name, String descriptor) {
+      return (StructMethod)this.methods.getWithKey(InterpreterUtil.makeUniqueKey(name, descriptor));
+   }
+
+   public String getInterface(int i) {
+      return this.interfaceNames[i];
+   }
+
+   public void releaseResources() {
+      if(this.loader != null) {
+         this.pool = null;
+      }
+
+   }
+
+   public ConstantPool getPool() {
+      if(this.pool == null && this.loader != null) {
+         this.pool = this.loader.loadPool(this.qualifiedName);
+      }
+
+      return this.pool;
+   }
+
+   public int[] getInterfaces() {
+      return this.interfaces;
+   }
+
+   public String[] getInterfaceNames() {
+      return this.interfaceNames;
+   }
+
+   public VBStyleCollection getMethods() {
+      return this.methods;
+   }
+
+   public VBStyleCollection getFields() {
+      return this.fields;
+   }
+
+   public boolean isOwn() {
+      return this.own;
+   }
+
+   public LazyLoader getLoader() {
+      return this.loader;
+   }
+
+   public boolean isVersionGE_1_5() {
+      return this.majorVersion > 48 || this.majorVersion == 48 && this.minorVersion > 0;
+   }
+
+   public boolean isVersionGE_1_7() {
+      return this.majorVersion >= 51;
+   }
+
+   public int getBytecodeVersion() {
+      switch(this.majorVersion) {
+      case 49:
+         return 2;
+      case 50:
+         return 3;
+      case 51:
+         return 4;
+      case 52:
+         return 5;
+      default:
+         return 1;
+      }
+   }
+}
@@ -0,0 +1,217 @@
+package regression.fernflower.struct;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.extern.IResultSaver;
+import regression.fernflower.struct.lazy.LazyLoader;
+import regression.fernflower.util.DataInputFullStream;
+
+public class StructContext {
+   private final IResultSaver saver;
+   private final IDecompiledData decompiledData;
+   private final LazyLoader loader;
+   private final Map units = new HashMap();
+   private final Map classes = new HashMap();
+
+   public StructContext(IResultSaver saver, IDecompiledData decompiledData, LazyLoader loader) {
+      this.saver = saver;
+      this.decompiledData = decompiledData;
+      this.loader = loader;
+      ContextUnit defaultUnit = new ContextUnit(0, (String)null, "", true, saver, decompiledData);
+      this.units.put("", defaultUnit);
+   }
+
+   public StructClass getClass(String name) {
+      return (StructClass)this.classes.get(name);
+   }
+
+   public void reloadContext() throws IOException {
+      Iterator var1 = this.units.values().iterator();
+
+      while(var1.hasNext()) {
+         ContextUnit unit = (ContextUnit)var1.next();
+         Iterator var3 = unit.getClasses().iterator();
+
+         StructClass cl;
+         while(var3.hasNext()) {
+            cl = (StructClass)var3.next();
+            this.classes.remove(cl.qualifiedName);
+         }
+
+         unit.reload(this.loader);
+         var3 = unit.getClasses().iterator();
+
+         while(var3.hasNext()) {
+            cl = (StructClass)var3.next();
+            this.classes.put(cl.qualifiedName, cl);
+         }
+      }
+
+   }
+
+   public void saveContext() {
+      Iterator var1 = this.units.values().iterator();
+
+      while(var1.hasNext()) {
+         ContextUnit unit = (ContextUnit)var1.next();
+         if(unit.isOwn()) {
+            unit.save();
+         }
+      }
+
+   }
+
+   public void addSpace(File file, boolean isOwn) {
+      this.addSpace("", file, isOwn, 0);
+   }
+
+   private void addSpace(String path, File file, boolean isOwn, int level) {
+      if(file.isDirectory()) {
+         if(level == 1) {
+            path = path + file.getName();
+         } else if(level > 1) {
+            path = path + "/" + file.getName();
+         }
+
+         File[] filename = file.listFiles();
+         if(filename != null) {
+            for(int isArchive = filename.length - 1; isArchive >= 0; --isArchive) {
+               this.addSpace(path, filename[isArchive], isOwn, level + 1);
+            }
+         }
+      } else {
+         String var17 = file.getName();
+         boolean var18 = false;
+
+         try {
+            if(var17.endsWith(".jar")) {
+               var18 = true;
+               this.addArchive(path, file, 1, isOwn);
+            } else if(var17.endsWith(".zip")) {
+               var18 = true;
+               this.addArchive(path, file, 2, isOwn);
+            }
+         } catch (IOException var16) {
+            String ex = "Corrupted archive file: " + file;
+            DecompilerContext.getLogger().writeMessage(ex, (Throwable)var16);
+         }
+
+         if(var18) {
+            return;
+         }
+
+         ContextUnit unit = (ContextUnit)this.units.get(path);
+         if(unit == null) {
+            unit = new ContextUnit(0, (String)null, path, isOwn, this.saver, this.decompiledData);
+            this.units.put(path, unit);
+         }
+
+         if(var17.endsWith(".class")) {
+            try {
+               DataInputFullStream var19 = this.loader.getClassStream(file.getAbsolutePath(), (String)null);
+
+               try {
+                  StructClass var20 = new StructClass(var19, isOwn, this.loader);
+                  this.classes.put(var20.qualifiedName, var20);
+                  unit.addClass(var20, var17);
+                  this.loader.addClassLink(var20.qualifiedName, new LazyLoader.Link(1, file.getAbsolutePath(), (String)null));
+               } finally {
+                  var19.close();
+               }
+            } catch (IOException var15) {
+               String message = "Corrupted class file: " + file;
+               DecompilerContext.getLogger().writeMessage(message, (Throwable)var15);
+            }
+         } else {
+            unit.addOtherEntry(file.getAbsolutePath(), var17);
+         }
+      }
+
+   }
+
+   private void addArchive(String externalPath, File file, int type, boolean isOwn) throws IOException {
+      ContextUnit unit = (ContextUnit)this.units.computeIfAbsent(externalPath + "/" + file, (k) -> {
+         return new ContextUnit(type, externalPath, file.getName(), isOwn, this.saver, this.decompiledData);
+      });
+      ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(file));
+
+      try {
+         HashSet dirs = new HashSet();
+
+         ZipEntry zipEntry;
+         while((zipEntry = zipInputStream.getNextEntry()) != null) {
+            String name = zipEntry.getName().replace("\\", "/");
+            if(zipEntry.isDirectory()) {
+               dirs.add(name);
+            } else if(name.endsWith(".class")) {
+               int dir = name.lastIndexOf("/");
+               if(dir != -1) {
+                  dirs.add(name.substring(0, dir));
+               }
+
+               try {
+                  byte[] ex = readStream(zipInputStream);
+                  StructClass message1 = new StructClass(ex, isOwn, this.loader);
+                  this.classes.put(message1.qualifiedName, message1);
+                  unit.addClass(message1, name);
+                  this.loader.addClassLink(message1.qualifiedName, new LazyLoader.Link(2, file.getAbsolutePath(), name));
+               } catch (Exception var14) {
+                  String message = "Corrupted class file: " + file;
+                  DecompilerContext.getLogger().writeMessage(message, (Throwable)var14);
+               }
+            } else {
+               if("META-INF/MANIFEST.MF".equals(name)) {
+                  unit.setManifest(new Manifest(zipInputStream));
+               }
+
+               unit.addOtherEntry(file.getAbsolutePath(), name);
+            }
+         }
+
+         Iterator name1 = dirs.iterator();
+
+         while(name1.hasNext()) {
+            String dir1 = (String)name1.next();
+            unit.addDirEntry(dir1);
+         }
+      } catch (Throwable var15) {
+         try {
+            zipInputStream.close();
+         } catch (Throwable var13) {
+            var15.addSuppressed(var13);
+         }
+
+         throw var15;
+      }
+
+      zipInputStream.close();
+   }
+
+   private static byte[] readStream(InputStream stream) throws IOException {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      byte[] data = new byte[16384];
+
+      int nRead;
+      while((nRead = stream.read(data, 0, data.length)) != -1) {
+         buffer.write(data, 0, nRead);
+      }
+
+      return buffer.toByteArray();
+   }
+
+   public Map getClasses() {
+      return this.classes;
+   }
+}
@@ -0,0 +1,64 @@
+package regression.fernflower.struct;
+
+import java.io.IOException;
+import regression.fernflower.struct.attr.StructGeneralAttribute;
+import regression.fernflower.struct.attr.StructLocalVariableTableAttribute;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+import regression.fernflower.util.VBStyleCollection;
+
+public class StructMember {
+   protected int accessFlags;
+   protected VBStyleCollection attributes;
+
+   public int getAccessFlags() {
+      return this.accessFlags;
+   }
+
+   public VBStyleCollection getAttributes() {
+      return this.attributes;
+   }
+
+   public boolean hasModifier(int modifier) {
+      return (this.accessFlags & modifier) == modifier;
+   }
+
+   public boolean isSynthetic() {
+      return this.hasModifier(4096) || this.attributes.containsKey("Synthetic");
+   }
+
+   protected VBStyleCollection readAttributes(DataInputFullStream in, ConstantPool pool) throws IOException {
+      VBStyleCollection attributes = new VBStyleCollection();
+      int length = in.readUnsignedShort();
+
+      for(int i = 0; i < length; ++i) {
+         int nameIndex = in.readUnsignedShort();
+         String name = pool.getPrimitiveConstant(nameIndex).getString();
+         StructGeneralAttribute attribute = this.readAttribute(in, pool, name);
+         if(attribute != null) {
+            if("LocalVariableTable".equals(name) && attributes.containsKey(name)) {
+               StructLocalVariableTableAttribute table = (StructLocalVariableTableAttribute)attributes.getWithKey(name);
+               table.addLocalVariableTable((StructLocalVariableTableAttribute)attribute);
+            } else {
+               attributes.addWithKey(attribute, attribute.getName());
+            }
+         }
+      }
+
+      return attributes;
+   }
+
+   protected StructGeneralAttribute readAttribute(DataInputFullStream in, ConstantPool pool, String name) throws IOException {
+      StructGeneralAttribute attribute = StructGeneralAttribute.createAttribute(name);
+      if(attribute == null) {
+         in.discard(in.readInt());
+      } else {
+         byte[] data = new byte[in.readInt()];
+         in.readFull(data);
+         attribute.setInfo(data);
+         attribute.initContent(pool);
+      }
+
+      return attribute;
+   }
+}
@@ -0,0 +1,473 @@
+package regression.fernflower.struct;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import regression.fernflower.code.ConstantsUtil;
+import regression.fernflower.code.ExceptionHandler;
+import regression.fernflower.code.ExceptionTable;
+import regression.fernflower.code.FullInstructionSequence;
+import regression.fernflower.code.Instruction;
+import regression.fernflower.code.InstructionSequence;
+import regression.fernflower.struct.attr.StructGeneralAttribute;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+import regression.fernflower.util.VBStyleCollection;
+
+public class StructMethod extends StructMember {
+   private static final int[] opr_iconst = new int[]{-1, 0, 1, 2, 3, 4, 5};
+   private static final int[] opr_loadstore = new int[]{0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3};
+   private static final int[] opcs_load = new int[]{21, 22, 23, 24, 25};
+   private static final int[] opcs_store = new int[]{54, 55, 56, 57, 58};
+   private final StructClass classStruct;
+   private final String name;
+   private final String descriptor;
+   private boolean containsCode = false;
+   private int localVariables = 0;
+   private int codeLength = 0;
+   private int codeFullLength = 0;
+   private InstructionSequence seq;
+   private boolean expanded = false;
+   private VBStyleCollection codeAttributes;
+
+   public StructMethod(DataInputFullStream in, StructClass clStruct) throws IOException {
+      this.classStruct = clStruct;
+      this.accessFlags = in.readUnsignedShort();
+      int nameIndex = in.readUnsignedShort();
+      int descriptorIndex = in.readUnsignedShort();
+      ConstantPool pool = clStruct.getPool();
+      String[] values = pool.getClassElement(2, clStruct.qualifiedName, nameIndex, descriptorIndex);
+      this.name = values[0];
+      this.descriptor = values[1];
+      this.attributes = this.readAttributes(in, pool);
+      if(this.codeAttributes != null) {
+         this.attributes.addAllWithKey(this.codeAttributes);
+         this.codeAttributes = null;
+      }
+
+   }
+
+   protected StructGeneralAttribute readAttribute(DataInputFullStream in, ConstantPool pool, String name) throws IOException {
+      if("Code".equals(name)) {
+         if(!this.classStruct.isOwn()) {
+            in.discard(8);
+            in.discard(in.readInt());
+            in.discard(8 * in.readUnsignedShort());
+         } else {
+            this.containsCode = true;
+            in.discard(6);
+            this.localVariables = in.readUnsignedShort();
+            this.codeLength = in.readInt();
+            in.discard(this.codeLength);
+            int excLength = in.readUnsignedShort();
+            in.discard(excLength * 8);
+            this.codeFullLength = this.codeLength + excLength * 8 + 2;
+         }
+
+         this.codeAttributes = this.readAttributes(in, pool);
+         return null;
+      } else {
+         return super.readAttribute(in, pool, name);
+      }
+   }
+
+   public void expandData() throws IOException {
+      if(this.containsCode && !this.expanded) {
+         byte[] code = this.classStruct.getLoader().loadBytecode(this, this.codeFullLength);
+         this.seq = this.parseBytecode(new DataInputFullStream(code), this.codeLength, this.classStruct.getPool());
+         this.expanded = true;
+      }
+
+   }
+
+   public void releaseResources() throws IOException {
+      if(this.containsCode && this.expanded) {
+         this.seq = null;
+         this.expanded = false;
+      }
+
+   }
+
+   private InstructionSequence parseBytecode(DataInputFullStream in, int length, ConstantPool pool) throws IOException {
+      VBStyleCollection instructions = new VBStyleCollection();
+      int bytecode_version = this.classStruct.getBytecodeVersion();
+
+      int seq;
+      for(int lstHandlers = 0; lstHandlers < length; ++lstHandlers) {
+         seq = in.readUnsignedByte();
+         byte i = 1;
+         boolean instr = seq == 196;
+         if(instr) {
+            ++lstHandlers;
+            seq = in.readUnsignedByte();
+         }
+
+         ArrayList operands = new ArrayList();
+         int instr1;
+         if(seq >= 2 && seq <= 8) {
+            operands.add(new Integer(opr_iconst[seq - 2]));
+            seq = 16;
+         } else if(seq >= 26 && seq <= 45) {
+            operands.add(new Integer(opr_loadstore[seq - 26]));
+            seq = opcs_load[(seq - 26) / 4];
+         } else if(seq >= 59 && seq <= 78) {
+            operands.add(new Integer(opr_loadstore[seq - 59]));
+            seq = opcs_store[(seq - 59) / 4];
+         } else {
+            int npairs;
+            switch(seq) {
+            case 16:
+               operands.add(new Integer(in.readByte()));
+               ++lstHandlers;
+               break;
+            case 17:
+            case 153:
+            case 154:
+            case 155:
+            case 156:
+            case 157:
+            case 158:
+            case 159:
+            case 160:
+            case 161:
+            case 162:
+            case 163:
+            case 164:
+            case 165:
+            case 166:
+            case 167:
+            case 168:
+            case 198:
+            case 199:
+               if(seq != 17) {
+                  i = 2;
+               }
+
+               operands.add(new Integer(in.readShort()));
+               lstHandlers += 2;
+               break;
+            case 18:
+            case 188:
+               operands.add(new Integer(in.readUnsignedByte()));
+               ++lstHandlers;
+               break;
+            case 19:
+            case 20:
+            case 178:
+            case 179:
+            case 180:
+            case 181:
+            case 182:
+            case 183:
+            case 184:
+            case 187:
+            case 189:
+            case 192:
+            case 193:
+               operands.add(new Integer(in.readUnsignedShort()));
+               lstHandlers += 2;
+               if(seq >= 178 && seq <= 181) {
+                  i = 5;
+               } else if(seq >= 182 && seq <= 184) {
+                  i = 4;
+               }
+               break;
+            case 21:
+            case 22:
+            case 23:
+            case 24:
+            case 25:
+            case 54:
+            case 55:
+            case 56:
+            case 57:
+            case 58:
+            case 169:
+               if(instr) {
+                  operands.add(new Integer(in.readUnsignedShort()));
+                  lstHandlers += 2;
+               } else {
+                  operands.add(new Integer(in.readUnsignedByte()));
+                  ++lstHandlers;
+               }
+
+               if(seq == 169) {
+                  i = 6;
+               }
+            case 26:
+            case 27:
+            case 28:
+            case 29:
+            case 30:
+            case 31:
+            case 32:
+            case 33:
+            case 34:
+            case 35:
+            case 36:
+            case 37:
+            case 38:
+            case 39:
+            case 40:
+            case 41:
+            case 42:
+            case 43:
+            case 44:
+            case 45:
+            case 46:
+            case 47:
+            case 48:
+            case 49:
+            case 50:
+            case 51:
+            case 52:
+            case 53:
+            case 59:
+            case 60:
+            case 61:
+            case 62:
+            case 63:
+            case 64:
+            case 65:
+            case 66:
+            case 67:
+            case 68:
+            case 69:
+            case 70:
+            case 71:
+            case 72:
+            case 73:
+            case 74:
+            case 75:
+            case 76:
+            case 77:
+            case 78:
+            case 79:
+            case 80:
+            case 81:
+            case 82:
+            case 83:
+            case 84:
+            case 85:
+            case 86:
+            case 87:
+            case 88:
+            case 89:
+            case 90:
+            case 91:
+            case 92:
+            case 93:
+            case 94:
+            case 95:
+            case 96:
+            case 97:
+            case 98:
+            case 99:
+            case 100:
+            case 101:
+            case 102:
+            case 103:
+            case 104:
+            case 105:
+            case 106:
+            case 107:
+            case 108:
+            case 109:
+            case 110:
+            case 111:
+            case 112:
+            case 113:
+            case 114:
+            case 115:
+            case 116:
+            case 117:
+            case 118:
+            case 119:
+            case 120:
+            case 121:
+            case 122:
+            case 123:
+            case 124:
+            case 125:
+            case 126:
+            case 127:
+            case 128:
+            case 129:
+            case 130:
+            case 131:
+            case 133:
+            case 134:
+            case 135:
+            case 136:
+            case 137:
+            case 138:
+            case 139:
+            case 140:
+            case 141:
+            case 142:
+            case 143:
+            case 144:
+            case 145:
+            case 146:
+            case 147:
+            case 148:
+            case 149:
+            case 150:
+            case 151:
+            case 152:
+            case 190:
+            case 194:
+            case 195:
+            case 196:
+            default:
+               break;
+            case 132:
+               if(instr) {
+                  operands.add(new Integer(in.readUnsignedShort()));
+                  operands.add(new Integer(in.readShort()));
+                  lstHandlers += 4;
+               } else {
+                  operands.add(new Integer(in.readUnsignedByte()));
+                  operands.add(new Integer(in.readByte()));
+                  lstHandlers += 2;
+               }
+               break;
+            case 170:
+               in.discard((4 - (lstHandlers + 1) % 4) % 4);
+               lstHandlers += (4 - (lstHandlers + 1) % 4) % 4;
+               operands.add(new Integer(in.readInt()));
+               lstHandlers += 4;
+               int ops = in.readInt();
+               operands.add(new Integer(ops));
+               lstHandlers += 4;
+               instr1 = in.readInt();
+               operands.add(new Integer(instr1));
+               lstHandlers += 4;
+
+               for(npairs = 0; npairs < instr1 - ops + 1; ++npairs) {
+                  operands.add(new Integer(in.readInt()));
+                  lstHandlers += 4;
+               }
+
+               i = 3;
+               break;
+            case 171:
+               in.discard((4 - (lstHandlers + 1) % 4) % 4);
+               lstHandlers += (4 - (lstHandlers + 1) % 4) % 4;
+               operands.add(new Integer(in.readInt()));
+               lstHandlers += 4;
+               npairs = in.readInt();
+               operands.add(new Integer(npairs));
+               lstHandlers += 4;
+
+               for(int j = 0; j < npairs; ++j) {
+                  operands.add(new Integer(in.readInt()));
+                  lstHandlers += 4;
+                  operands.add(new Integer(in.readInt()));
+                  lstHandlers += 4;
+               }
+
+               i = 3;
+               break;
+            case 172:
+            case 173:
+            case 174:
+            case 175:
+            case 176:
+            case 177:
+            case 191:
+               i = 6;
+               break;
+            case 185:
+               operands.add(new Integer(in.readUnsignedShort()));
+               operands.add(new Integer(in.readUnsignedByte()));
+               in.discard(1);
+               i = 4;
+               lstHandlers += 4;
+               break;
+            case 186:
+               if(this.classStruct.isVersionGE_1_7()) {
+                  operands.add(new Integer(in.readUnsignedShort()));
+                  in.discard(2);
+                  i = 4;
+                  lstHandlers += 4;
+               }
+               break;
+            case 197:
+               operands.add(new Integer(in.readUnsignedShort()));
+               operands.add(new Integer(in.readUnsignedByte()));
+               lstHandlers += 3;
+               break;
+            case 200:
+            case 201:
+               seq = seq == 201 ? 168 : 167;
+               operands.add(new Integer(in.readInt()));
+               i = 2;
+               lstHandlers += 4;
+            }
+         }
+
+         int[] var19 = new int[operands.size()];
+
+         for(instr1 = 0; instr1 < operands.size(); ++instr1) {
+            var19[instr1] = ((Integer)operands.get(instr1)).intValue();
+         }
+
+         Instruction var22 = ConstantsUtil.getInstructionInstance(seq, instr, i, bytecode_version, var19);
+         instructions.addWithKey(var22, new Integer(lstHandlers));
+      }
+
+      ArrayList var23 = new ArrayList();
+      int exception_count = in.readUnsignedShort();
+
+      for(seq = 0; seq < exception_count; ++seq) {
+         ExceptionHandler var20 = new ExceptionHandler();
+         var20.from = in.readUnsignedShort();
+         var20.to = in.readUnsignedShort();
+         var20.handler = in.readUnsignedShort();
+         int var16 = in.readUnsignedShort();
+         var20.class_index = var16;
+         if(var16 != 0) {
+            var20.exceptionClass = pool.getPrimitiveConstant(var16).getString();
+         }
+
+         var23.add(var20);
+      }
+
+      FullInstructionSequence var18 = new FullInstructionSequence(instructions, new ExceptionTable(var23));
+      int var21 = var18.length() - 1;
+      var18.setPointer(var21);
+
+      for(; var21 >= 0; var18.addToPointer(-1)) {
+         Instruction var17 = var18.getInstr(var21--);
+         if(var17.group != 1) {
+            var17.initInstruction(var18);
+         }
+      }
+
+      return var18;
+   }
+
+   public StructClass getClassStruct() {
+      return this.classStruct;
+   }
+
+   public String getName() {
+      return this.name;
+   }
+
+   public String getDescriptor() {
+      return this.descriptor;
+   }
+
+   public boolean containsCode() {
+      return this.containsCode;
+   }
+
+   public int getLocalVariables() {
+      return this.localVariables;
+   }
+
+   public InstructionSequence getInstructionSequence() {
+      return this.seq;
+   }
+}
@@ -0,0 +1,17 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.struct.consts.ConstantPool;
+
+public class StructAnnDefaultAttribute extends StructGeneralAttribute {
+   private Exprent defaultValue;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      this.defaultValue = StructAnnotationAttribute.parseAnnotationElement(this.stream(), pool);
+   }
+
+   public Exprent getDefaultValue() {
+      return this.defaultValue;
+   }
+}
@@ -0,0 +1,165 @@
+package regression.fernflower.struct.attr;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import regression.fernflower.modules.decompiler.exps.AnnotationExprent;
+import regression.fernflower.modules.decompiler.exps.ConstExprent;
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.modules.decompiler.exps.FieldExprent;
+import regression.fernflower.modules.decompiler.exps.NewExprent;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.struct.consts.PrimitiveConstant;
+import regression.fernflower.struct.gen.FieldDescriptor;
+import regression.fernflower.struct.gen.VarType;
+
+public class StructAnnotationAttribute extends StructGeneralAttribute {
+   private List annotations;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      this.annotations = parseAnnotations(pool, this.stream());
+   }
+
+   public static List parseAnnotations(ConstantPool pool, DataInputStream data) throws IOException {
+      int len = data.readUnsignedShort();
+      if(len <= 0) {
+         return Collections.emptyList();
+      } else {
+         ArrayList annotations = new ArrayList(len);
+
+         for(int i = 0; i < len; ++i) {
+            annotations.add(parseAnnotation(data, pool));
+         }
+
+         return annotations;
+      }
+   }
+
+   public static AnnotationExprent parseAnnotation(DataInputStream data, ConstantPool pool) throws IOException {
+      String className = pool.getPrimitiveConstant(data.readUnsignedShort()).getString();
+      int len = data.readUnsignedShort();
+      Object names;
+      Object values;
+      if(len > 0) {
+         names = new ArrayList(len);
+         values = new ArrayList(len);
+
+         for(int i = 0; i < len; ++i) {
+            ((List)names).add(pool.getPrimitiveConstant(data.readUnsignedShort()).getString());
+            ((List)values).add(parseAnnotationElement(data, pool));
+         }
+      } else {
+         names = Collections.emptyList();
+         values = Collections.emptyList();
+      }
+
+      return new AnnotationExprent((new VarType(className)).value, (List)names, (List)values);
+   }
+
+   public static Exprent parseAnnotationElement(DataInputStream data, ConstantPool pool) throws IOException {
+      int tag = data.readUnsignedByte();
+      switch(tag) {
+      case 64:
+         return parseAnnotation(data, pool);
+      case 91:
+         Object elements = Collections.emptyList();
+         int len = data.readUnsignedShort();
+         if(len > 0) {
+            elements = new ArrayList(len);
+
+            for(int newType = 0; newType < len; ++newType) {
+               ((List)elements).add(parseAnnotationElement(data, pool));
+            }
+         }
+
+         VarType var14;
+         if(((List)elements).isEmpty()) {
+            var14 = new VarType(8, 1, "java/lang/Object");
+         } else {
+            VarType newExpr = ((Exprent)((List)elements).get(0)).getExprType();
+            var14 = new VarType(newExpr.type, 1, newExpr.value);
+         }
+
+         NewExprent var15 = new NewExprent(var14, Collections.emptyList(), (Set)null);
+         var15.setDirectArrayInit(true);
+         var15.setLstArrayElements((List)elements);
+         return var15;
+      case 99:
+         String descriptor = pool.getPrimitiveConstant(data.readUnsignedShort()).getString();
+         VarType type = FieldDescriptor.parseDescriptor(descriptor).type;
+         String value;
+         switch(type.type) {
+         case 0:
+            value = Byte.TYPE.getName();
+            break;
+         case 1:
+            value = Character.TYPE.getName();
+            break;
+         case 2:
+            value = Double.TYPE.getName();
+            break;
+         case 3:
+            value = Float.TYPE.getName();
+            break;
+         case 4:
+            value = Integer.TYPE.getName();
+            break;
+         case 5:
+            value = Long.TYPE.getName();
+            break;
+         case 6:
+            value = Short.TYPE.getName();
+            break;
+         case 7:
+            value = Boolean.TYPE.getName();
+            break;
+         case 8:
+            value = type.value;
+            break;
+         case 9:
+         default:
+            throw new RuntimeException("invalid class type: " + type.type);
+         case 10:
+            value = Void.TYPE.getName();
+         }
+
+         return new ConstExprent(VarType.VARTYPE_CLASS, value, (Set)null);
+      case 101:
+         String className = pool.getPrimitiveConstant(data.readUnsignedShort()).getString();
+         String constName = pool.getPrimitiveConstant(data.readUnsignedShort()).getString();
+         FieldDescriptor descr = FieldDescriptor.parseDescriptor(className);
+         return new FieldExprent(constName, descr.type.value, true, (Exprent)null, descr, (Set)null);
+      default:
+         PrimitiveConstant cn = pool.getPrimitiveConstant(data.readUnsignedShort());
+         switch(tag) {
+         case 66:
+            return new ConstExprent(VarType.VARTYPE_BYTE, cn.value, (Set)null);
+         case 67:
+            return new ConstExprent(VarType.VARTYPE_CHAR, cn.value, (Set)null);
+         case 68:
+            return new ConstExprent(VarType.VARTYPE_DOUBLE, cn.value, (Set)null);
+         case 70:
+            return new ConstExprent(VarType.VARTYPE_FLOAT, cn.value, (Set)null);
+         case 73:
+            return new ConstExprent(VarType.VARTYPE_INT, cn.value, (Set)null);
+         case 74:
+            return new ConstExprent(VarType.VARTYPE_LONG, cn.value, (Set)null);
+         case 83:
+            return new ConstExprent(VarType.VARTYPE_SHORT, cn.value, (Set)null);
+         case 90:
+            return new ConstExprent(VarType.VARTYPE_BOOLEAN, cn.value, (Set)null);
+         case 115:
+            return new ConstExprent(VarType.VARTYPE_STRING, cn.value, (Set)null);
+         default:
+            throw new RuntimeException("invalid element type!");
+         }
+      }
+   }
+
+   public List getAnnotations() {
+      return this.annotations;
+   }
+}
@@ -0,0 +1,32 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+
+public class StructAnnotationParameterAttribute extends StructGeneralAttribute {
+   private List paramAnnotations;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      DataInputFullStream data = this.stream();
+      int len = data.readUnsignedByte();
+      if(len > 0) {
+         this.paramAnnotations = new ArrayList(len);
+
+         for(int i = 0; i < len; ++i) {
+            List annotations = StructAnnotationAttribute.parseAnnotations(pool, data);
+            this.paramAnnotations.add(annotations);
+         }
+      } else {
+         this.paramAnnotations = Collections.emptyList();
+      }
+
+   }
+
+   public List getParamAnnotations() {
+      return this.paramAnnotations;
+   }
+}
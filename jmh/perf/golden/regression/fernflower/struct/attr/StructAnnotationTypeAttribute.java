@@ -0,0 +1,234 @@
+package regression.fernflower.struct.attr;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+
+public class StructAnnotationTypeAttribute extends StructGeneralAttribute {
+   private static final int ANNOTATION_TARGET_TYPE_GENERIC_CLASS = 0;
+   private static final int ANNOTATION_TARGET_TYPE_GENERIC_METHOD = 1;
+   private static final int ANNOTATION_TARGET_TYPE_EXTENDS_IMPLEMENTS = 16;
+   private static final int ANNOTATION_TARGET_TYPE_GENERIC_CLASS_BOUND = 17;
+   private static final int ANNOTATION_TARGET_TYPE_GENERIC_METHOD_BOUND = 18;
+   private static final int ANNOTATION_TARGET_TYPE_FIELD = 19;
+   private static final int ANNOTATION_TARGET_TYPE_RETURN = 20;
+   private static final int ANNOTATION_TARGET_TYPE_RECEIVER = 21;
+   private static final int ANNOTATION_TARGET_TYPE_FORMAL = 22;
+   private static final int ANNOTATION_TARGET_TYPE_THROWS = 23;
+   private static final int ANNOTATION_TARGET_TYPE_LOCAL_VARIABLE = 64;
+   private static final int ANNOTATION_TARGET_TYPE_RESOURCE_VARIABLE = 65;
+   private static final int ANNOTATION_TARGET_TYPE_EXCEPTION = 66;
+   private static final int ANNOTATION_TARGET_TYPE_INSTANCEOF = 67;
+   private static final int ANNOTATION_TARGET_TYPE_NEW = 68;
+   private static final int ANNOTATION_TARGET_TYPE_DOUBLE_COLON_NEW = 69;
+   private static final int ANNOTATION_TARGET_TYPE_DOUBLE_COLON_ID = 70;
+   private static final int ANNOTATION_TARGET_TYPE_CAST = 71;
+   private static final int ANNOTATION_TARGET_TYPE_INVOCATION_CONSTRUCTOR = 72;
+   private static final int ANNOTATION_TARGET_TYPE_INVOCATION_METHOD = 73;
+   private static final int ANNOTATION_TARGET_TYPE_GENERIC_DOUBLE_COLON_NEW = 74;
+   private static final int ANNOTATION_TARGET_TYPE_GENERIC_DOUBLE_COLON_ID = 75;
+   private static final int ANNOTATION_TARGET_UNION_TYPE_PARAMETER = 1;
+   private static final int ANNOTATION_TARGET_UNION_SUPERTYPE = 2;
+   private static final int ANNOTATION_TARGET_UNION_TYPE_PARAMETER_BOUND = 3;
+   private static final int ANNOTATION_TARGET_UNION_EMPTY = 4;
+   private static final int ANNOTATION_TARGET_UNION_FORMAL_PARAMETER = 5;
+   private static final int ANNOTATION_TARGET_UNION_THROWS = 6;
+   private static final int ANNOTATION_TARGET_UNION_LOCAL_VAR = 7;
+   private static final int ANNOTATION_TARGET_UNION_CATCH = 8;
+   private static final int ANNOTATION_TARGET_UNION_OFFSET = 9;
+   private static final int ANNOTATION_TARGET_UNION_TYPE_ARGUMENT = 10;
+   private List locations;
+   private List annotations;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      DataInputFullStream data = this.stream();
+      int len = data.readUnsignedByte();
+      if(len > 0) {
+         this.locations = new ArrayList(len);
+         this.annotations = new ArrayList(len);
+
+         for(int i = 0; i < len; ++i) {
+            this.locations.add(parseAnnotationLocation(data));
+            this.annotations.add(StructAnnotationAttribute.parseAnnotation(data, pool));
+         }
+      } else {
+         this.locations = Collections.emptyList();
+         this.annotations = Collections.emptyList();
+      }
+
+   }
+
+   private static StructAnnotationTypeAttribute.AnnotationLocation parseAnnotationLocation(DataInputStream data) throws IOException {
+      StructAnnotationTypeAttribute.AnnotationLocation ann_location = new StructAnnotationTypeAttribute.AnnotationLocation(null);
+      ann_location.target_type = data.readUnsignedByte();
+      switch(ann_location.target_type) {
+      case 0:
+      case 1:
+         ann_location.target_union = 1;
+         break;
+      case 2:
+      case 3:
+      case 4:
+      case 5:
+      case 6:
+      case 7:
+      case 8:
+      case 9:
+      case 10:
+      case 11:
+      case 12:
+      case 13:
+      case 14:
+      case 15:
+      case 24:
+      case 25:
+      case 26:
+      case 27:
+      case 28:
+      case 29:
+      case 30:
+      case 31:
+      case 32:
+      case 33:
+      case 34:
+      case 35:
+      case 36:
+      case 37:
+      case 38:
+      case 39:
+      case 40:
+      case 41:
+      case 42:
+      case 43:
+      case 44:
+      case 45:
+      case 46:
+      case 47:
+      case 48:
+      case 49:
+      case 50:
+      case 51:
+      case 52:
+      case 53:
+      case 54:
+      case 55:
+      case 56:
+      case 57:
+      case 58:
+      case 59:
+      case 60:
+      case 61:
+      case 62:
+      case 63:
+      default:
+         throw new RuntimeException("Unknown target type in a type annotation!");
+      case 16:
+         ann_location.target_union = 2;
+         break;
+      case 17:
+      case 18:
+         ann_location.target_union = 3;
+         break;
+      case 19:
+      case 20:
+      case 21:
+         ann_location.target_union = 4;
+         break;
+      case 22:
+         ann_location.target_union = 5;
+         break;
+      case 23:
+         ann_location.target_union = 6;
+         break;
+      case 64:
+      case 65:
+         ann_location.target_union = 7;
+         break;
+      case 66:
+         ann_location.target_union = 8;
+         break;
+      case 67:
+      case 68:
+      case 69:
+      case 70:
+         ann_location.target_union = 9;
+         break;
+      case 71:
+      case 72:
+      case 73:
+      case 74:
+      case 75:
+         ann_location.target_union = 10;
+      }
+
+      int path_length;
+      int i;
+      label42:
+      switch(ann_location.target_union) {
+      case 1:
+      case 5:
+         ann_location.data = new int[]{data.readUnsignedByte()};
+         break;
+      case 2:
+      case 6:
+      case 8:
+      case 9:
+         ann_location.data = new int[]{data.readUnsignedShort()};
+         break;
+      case 3:
+         ann_location.data = new int[]{data.readUnsignedByte(), data.readUnsignedByte()};
+      case 4:
+      default:
+         break;
+      case 7:
+         path_length = data.readUnsignedShort();
+         ann_location.data = new int[path_length * 3 + 1];
+         ann_location.data[0] = path_length;
+         i = 0;
+
+         while(true) {
+            if(i >= path_length) {
+               break label42;
+            }
+
+            ann_location.data[3 * i + 1] = data.readUnsignedShort();
+            ann_location.data[3 * i + 2] = data.readUnsignedShort();
+            ann_location.data[3 * i + 3] = data.readUnsignedShort();
+            ++i;
+         }
+      case 10:
+         ann_location.data = new int[]{data.readUnsignedShort(), data.readUnsignedByte()};
+      }
+
+      path_length = data.readUnsignedByte();
+      ann_location.target_path_kind = new int[path_length];
+      ann_location.target_argument_index = new int[path_length];
+
+      for(i = 0; i < path_length; ++i) {
+         ann_location.target_path_kind[i] = data.readUnsignedByte();
+         ann_location.target_argument_index[i] = data.readUnsignedByte();
+      }
+
+      return ann_location;
+   }
+
+   private static class AnnotationLocation {
+      public int target_type;
+      public int target_union;
+      public int[] data;
+      public int[] target_path_kind;
+      public int[] target_argument_index;
+
+      private AnnotationLocation() {
+      }
+
+      // $FF: synthetic method
+      AnnotationLocation(Object x0) {
+         this();
+      }
+   }
+}
@@ -0,0 +1,45 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.struct.consts.LinkConstant;
+import regression.fernflower.util.DataInputFullStream;
+
+public class StructBootstrapMethodsAttribute extends StructGeneralAttribute {
+   private List methodRefs = new ArrayList();
+   private List methodArguments = new ArrayList();
+
+   public void initContent(ConstantPool pool) throws IOException {
+      DataInputFullStream data = this.stream();
+      int method_number = data.readUnsignedShort();
+
+      for(int i = 0; i < method_number; ++i) {
+         int bootstrap_method_ref = data.readUnsignedShort();
+         int num_bootstrap_arguments = data.readUnsignedShort();
+         ArrayList list_arguments = new ArrayList();
+
+         for(int j = 0; j < num_bootstrap_arguments; ++j) {
+            int bootstrap_argument_ref = data.readUnsignedShort();
+            list_arguments.add(pool.getConstant(bootstrap_argument_ref));
+         }
+
+         this.methodRefs.add(pool.getLinkConstant(bootstrap_method_ref));
+         this.methodArguments.add(list_arguments);
+      }
+
+   }
+
+   public int getMethodsNumber() {
+      return this.methodRefs.size();
+   }
+
+   public LinkConstant getMethodReference(int index) {
+      return (LinkConstant)this.methodRefs.get(index);
+   }
+
+   public List getMethodArguments(int index) {
+      return (List)this.methodArguments.get(index);
+   }
+}
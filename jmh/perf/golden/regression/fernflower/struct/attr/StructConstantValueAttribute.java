@@ -0,0 +1,16 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import regression.fernflower.struct.consts.ConstantPool;
+
+public class StructConstantValueAttribute extends StructGeneralAttribute {
+   private int index;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      this.index = this.stream().readUnsignedShort();
+   }
+
+   public int getIndex() {
+      return this.index;
+   }
+}
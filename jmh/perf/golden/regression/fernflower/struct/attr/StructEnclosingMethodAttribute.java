@@ -0,0 +1,37 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.struct.consts.LinkConstant;
+import regression.fernflower.util.DataInputFullStream;
+
+public class StructEnclosingMethodAttribute extends StructGeneralAttribute {
+   private String className;
+   private String methodName;
+   private String methodDescriptor;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      DataInputFullStream data = this.stream();
+      int classIndex = data.readUnsignedShort();
+      int methodIndex = data.readUnsignedShort();
+      this.className = pool.getPrimitiveConstant(classIndex).getString();
+      if(methodIndex != 0) {
+         LinkConstant lk = pool.getLinkConstant(methodIndex);
+         this.methodName = lk.elementname;
+         this.methodDescriptor = lk.descriptor;
+      }
+
+   }
+
+   public String getClassName() {
+      return this.className;
+   }
+
+   public String getMethodDescriptor() {
+      return this.methodDescriptor;
+   }
+
+   public String getMethodName() {
+      return this.methodName;
+   }
+}
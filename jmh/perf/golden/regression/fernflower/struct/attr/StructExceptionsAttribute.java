@@ -0,0 +1,35 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+
+public class StructExceptionsAttribute extends StructGeneralAttribute {
+   private List throwsExceptions;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      DataInputFullStream data = this.stream();
+      int len = data.readUnsignedShort();
+      if(len > 0) {
+         this.throwsExceptions = new ArrayList(len);
+
+         for(int i = 0; i < len; ++i) {
+            this.throwsExceptions.add(Integer.valueOf(data.readUnsignedShort()));
+         }
+      } else {
+         this.throwsExceptions = Collections.emptyList();
+      }
+
+   }
+
+   public String getExcClassname(int index, ConstantPool pool) {
+      return pool.getPrimitiveConstant(((Integer)this.throwsExceptions.get(index)).intValue()).getString();
+   }
+
+   public List getThrowsExceptions() {
+      return this.throwsExceptions;
+   }
+}
@@ -0,0 +1,92 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+
+public class StructGeneralAttribute {
+   public static final String ATTRIBUTE_CODE = "Code";
+   public static final String ATTRIBUTE_INNER_CLASSES = "InnerClasses";
+   public static final String ATTRIBUTE_SIGNATURE = "Signature";
+   public static final String ATTRIBUTE_ANNOTATION_DEFAULT = "AnnotationDefault";
+   public static final String ATTRIBUTE_EXCEPTIONS = "Exceptions";
+   public static final String ATTRIBUTE_ENCLOSING_METHOD = "EnclosingMethod";
+   public static final String ATTRIBUTE_RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+   public static final String ATTRIBUTE_RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+   public static final String ATTRIBUTE_RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+   public static final String ATTRIBUTE_RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS = "RuntimeInvisibleParameterAnnotations";
+   public static final String ATTRIBUTE_RUNTIME_VISIBLE_TYPE_ANNOTATIONS = "RuntimeVisibleTypeAnnotations";
+   public static final String ATTRIBUTE_RUNTIME_INVISIBLE_TYPE_ANNOTATIONS = "RuntimeInvisibleTypeAnnotations";
+   public static final String ATTRIBUTE_LOCAL_VARIABLE_TABLE = "LocalVariableTable";
+   public static final String ATTRIBUTE_CONSTANT_VALUE = "ConstantValue";
+   public static final String ATTRIBUTE_BOOTSTRAP_METHODS = "BootstrapMethods";
+   public static final String ATTRIBUTE_SYNTHETIC = "Synthetic";
+   public static final String ATTRIBUTE_DEPRECATED = "Deprecated";
+   public static final String ATTRIBUTE_LINE_NUMBER_TABLE = "LineNumberTable";
+   public static final String ATTRIBUTE_SOURCE_FILE = "SourceFile";
+   private String name;
+   private byte[] info;
+
+   public static StructGeneralAttribute createAttribute(String name) {
+      Object attr;
+      if("InnerClasses".equals(name)) {
+         attr = new StructInnerClassesAttribute();
+      } else if("ConstantValue".equals(name)) {
+         attr = new StructConstantValueAttribute();
+      } else if("Signature".equals(name)) {
+         attr = new StructGenericSignatureAttribute();
+      } else if("AnnotationDefault".equals(name)) {
+         attr = new StructAnnDefaultAttribute();
+      } else if("Exceptions".equals(name)) {
+         attr = new StructExceptionsAttribute();
+      } else if("EnclosingMethod".equals(name)) {
+         attr = new StructEnclosingMethodAttribute();
+      } else if(!"RuntimeVisibleAnnotations".equals(name) && !"RuntimeInvisibleAnnotations".equals(name)) {
+         if(!"RuntimeVisibleParameterAnnotations".equals(name) && !"RuntimeInvisibleParameterAnnotations".equals(name)) {
+            if(!"RuntimeVisibleTypeAnnotations".equals(name) && !"RuntimeInvisibleTypeAnnotations".equals(name)) {
+               if("LocalVariableTable".equals(name)) {
+                  attr = new StructLocalVariableTableAttribute();
+               } else if("BootstrapMethods".equals(name)) {
+                  attr = new StructBootstrapMethodsAttribute();
+               } else if(!"Synthetic".equals(name) && !"Deprecated".equals(name)) {
+                  if("LineNumberTable".equals(name)) {
+                     attr = new StructLineNumberTableAttribute();
+                  } else {
+                     if(!"SourceFile".equals(name)) {
+                        return null;
+                     }
+
+                     attr = new StructSourceFileAttribute();
+                  }
+               } else {
+                  attr = new StructGeneralAttribute();
+               }
+            } else {
+               attr = new StructAnnotationTypeAttribute();
+            }
+         } else {
+            attr = new StructAnnotationParameterAttribute();
+         }
+      } else {
+         attr = new StructAnnotationAttribute();
+      }
+
+      ((StructGeneralAttribute)attr).name = name;
+      return (StructGeneralAttribute)attr;
+   }
+
+   protected DataInputFullStream stream() {
+      return new DataInputFullStream(this.info);
+   }
+
+   public void initContent(ConstantPool pool) throws IOException {
+   }
+
+   public void setInfo(byte[] info) {
+      this.info = info;
+   }
+
+   public String getName() {
+      return this.name;
+   }
+}
@@ -0,0 +1,17 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import regression.fernflower.struct.consts.ConstantPool;
+
+public class StructGenericSignatureAttribute extends StructGeneralAttribute {
+   private String signature;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      int index = this.stream().readUnsignedShort();
+      this.signature = pool.getPrimitiveConstant(index).getString();
+   }
+
+   public String getSignature() {
+      return this.signature;
+   }
+}
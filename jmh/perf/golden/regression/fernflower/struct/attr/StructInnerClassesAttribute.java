@@ -0,0 +1,54 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+
+public class StructInnerClassesAttribute extends StructGeneralAttribute {
+   private List classEntries;
+   private List stringEntries;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      DataInputFullStream data = this.stream();
+      int len = data.readUnsignedShort();
+      if(len > 0) {
+         this.classEntries = new ArrayList(len);
+         this.stringEntries = new ArrayList(len);
+
+         for(int i = 0; i < len; ++i) {
+            int[] classEntry = new int[4];
+
+            for(int stringEntry = 0; stringEntry < 4; ++stringEntry) {
+               classEntry[stringEntry] = data.readUnsignedShort();
+            }
+
+            this.classEntries.add(classEntry);
+            String[] var7 = new String[]{pool.getPrimitiveConstant(classEntry[0]).getString(), null, null};
+            if(classEntry[1] != 0) {
+               var7[1] = pool.getPrimitiveConstant(classEntry[1]).getString();
+            }
+
+            if(classEntry[2] != 0) {
+               var7[2] = pool.getPrimitiveConstant(classEntry[2]).getString();
+            }
+
+            this.stringEntries.add(var7);
+         }
+      } else {
+         this.classEntries = Collections.emptyList();
+         this.stringEntries = Collections.emptyList();
+      }
+
+   }
+
+   public List getClassEntries() {
+      return this.classEntries;
+   }
+
+   public List getStringEntries() {
+      return this.stringEntries;
+   }
+}
@@ -0,0 +1,46 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+import regression.fernflower.util.InterpreterUtil;
+
+public class StructLineNumberTableAttribute extends StructGeneralAttribute {
+   private int[] myLineInfo = InterpreterUtil.EMPTY_INT_ARRAY;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      DataInputFullStream data = this.stream();
+      int len = data.readUnsignedShort() * 2;
+      if(len > 0) {
+         this.myLineInfo = new int[len];
+
+         for(int i = 0; i < len; i += 2) {
+            this.myLineInfo[i] = data.readUnsignedShort();
+            this.myLineInfo[i + 1] = data.readUnsignedShort();
+         }
+      } else if(this.myLineInfo.length > 0) {
+         this.myLineInfo = InterpreterUtil.EMPTY_INT_ARRAY;
+      }
+
+   }
+
+   public int getFirstLine() {
+      return this.myLineInfo.length > 0 ? this.myLineInfo[1] : -1;
+   }
+
+   public int findLineNumber(int pc) {
+      if(this.myLineInfo.length >= 2) {
+         for(int i = this.myLineInfo.length - 2; i >= 0; i -= 2) {
+            if(pc >= this.myLineInfo[i]) {
+               return this.myLineInfo[i + 1];
+            }
+         }
+      }
+
+      return -1;
+   }
+
+   public int[] getRawData() {
+      return this.myLineInfo;
+   }
+}
@@ -0,0 +1,39 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+
+public class StructLocalVariableTableAttribute extends StructGeneralAttribute {
+   private Map mapVarNames = Collections.emptyMap();
+
+   public void initContent(ConstantPool pool) throws IOException {
+      DataInputFullStream data = this.stream();
+      int len = data.readUnsignedShort();
+      if(len > 0) {
+         this.mapVarNames = new HashMap(len);
+
+         for(int i = 0; i < len; ++i) {
+            data.discard(4);
+            int nameIndex = data.readUnsignedShort();
+            data.discard(2);
+            int varIndex = data.readUnsignedShort();
+            this.mapVarNames.put(Integer.valueOf(varIndex), pool.getPrimitiveConstant(nameIndex).getString());
+         }
+      } else {
+         this.mapVarNames = Collections.emptyMap();
+      }
+
+   }
+
+   public void addLocalVariableTable(StructLocalVariableTableAttribute attr) {
+      this.mapVarNames.putAll(attr.getMapVarNames());
+   }
+
+   public Map getMapVarNames() {
+      return this.mapVarNames;
+   }
+}
@@ -0,0 +1,17 @@
+package regression.fernflower.struct.attr;
+
+import java.io.IOException;
+import regression.fernflower.struct.consts.ConstantPool;
+
+public class StructSourceFileAttribute extends StructGeneralAttribute {
+   private String fileName;
+
+   public void initContent(ConstantPool pool) throws IOException {
+      int index = this.stream().readUnsignedShort();
+      this.fileName = pool.getPrimitiveConstant(index).getString();
+   }
+
+   public String getFileName() {
+      return this.fileName;
+   }
+}
@@ -0,0 +1,207 @@
+package regression.fernflower.struct.consts;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.modules.renamer.PoolInterceptor;
+import regression.fernflower.struct.gen.FieldDescriptor;
+import regression.fernflower.struct.gen.MethodDescriptor;
+import regression.fernflower.struct.gen.NewClassNameBuilder;
+import regression.fernflower.struct.gen.VarType;
+import regression.fernflower.util.DataInputFullStream;
+
+public class ConstantPool implements NewClassNameBuilder {
+   public static final int FIELD = 1;
+   public static final int METHOD = 2;
+   private List pool = new ArrayList();
+   private PoolInterceptor interceptor;
+
+   public ConstantPool(DataInputStream in) throws IOException {
+      int size = in.readUnsignedShort();
+      int[] pass = new int[size];
+      this.pool.add((Object)null);
+
+      int passIndex;
+      for(passIndex = 1; passIndex < size; ++passIndex) {
+         byte i = (byte)in.readUnsignedByte();
+         switch(i) {
+         case 1:
+            this.pool.add(new PrimitiveConstant(1, in.readUTF()));
+         case 2:
+         case 13:
+         case 14:
+         case 17:
+         default:
+            break;
+         case 3:
+            this.pool.add(new PrimitiveConstant(3, new Integer(in.readInt())));
+            break;
+         case 4:
+            this.pool.add(new PrimitiveConstant(4, new Float(in.readFloat())));
+            break;
+         case 5:
+            this.pool.add(new PrimitiveConstant(5, new Long(in.readLong())));
+            this.pool.add((Object)null);
+            ++passIndex;
+            break;
+         case 6:
+            this.pool.add(new PrimitiveConstant(6, new Double(in.readDouble())));
+            this.pool.add((Object)null);
+            ++passIndex;
+            break;
+         case 7:
+         case 8:
+         case 16:
+            this.pool.add(new PrimitiveConstant(i, in.readUnsignedShort()));
+            pass[passIndex] = 1;
+            break;
+         case 9:
+         case 10:
+         case 11:
+         case 12:
+         case 18:
+            this.pool.add(new LinkConstant(i, in.readUnsignedShort(), in.readUnsignedShort()));
+            if(i == 12) {
+               pass[passIndex] = 1;
+            } else {
+               pass[passIndex] = 2;
+            }
+            break;
+         case 15:
+            this.pool.add(new LinkConstant(i, in.readUnsignedByte(), in.readUnsignedShort()));
+            pass[passIndex] = 3;
+         }
+      }
+
+      for(passIndex = 1; passIndex <= 3; ++passIndex) {
+         for(int var6 = 1; var6 < size; ++var6) {
+            if(pass[var6] == passIndex) {
+               ((PooledConstant)this.pool.get(var6)).resolveConstant(this);
+            }
+         }
+      }
+
+      this.interceptor = DecompilerContext.getPoolInterceptor();
+   }
+
+   public static void skipPool(DataInputFullStream in) throws IOException {
+      int size = in.readUnsignedShort();
+
+      for(int i = 1; i < size; ++i) {
+         switch(in.readUnsignedByte()) {
+         case 1:
+            in.readUTF();
+         case 2:
+         case 13:
+         case 14:
+         case 17:
+         default:
+            break;
+         case 3:
+         case 4:
+         case 9:
+         case 10:
+         case 11:
+         case 12:
+         case 18:
+            in.discard(4);
+            break;
+         case 5:
+         case 6:
+            in.discard(8);
+            ++i;
+            break;
+         case 7:
+         case 8:
+         case 16:
+            in.discard(2);
+            break;
+         case 15:
+            in.discard(3);
+         }
+      }
+
+   }
+
+   public int size() {
+      return this.pool.size();
+   }
+
+   public String[] getClassElement(int elementType, String className, int nameIndex, int descriptorIndex) {
+      String elementName = ((PrimitiveConstant)this.getConstant(nameIndex)).getString();
+      String descriptor = ((PrimitiveConstant)this.getConstant(descriptorIndex)).getString();
+      if(this.interceptor != null) {
+         String newElement = this.interceptor.getName(className + " " + elementName + " " + descriptor);
+         if(newElement != null) {
+            elementName = newElement.split(" ")[1];
+         }
+
+         String newDescriptor = this.buildNewDescriptor(elementType == 1, descriptor);
+         if(newDescriptor != null) {
+            descriptor = newDescriptor;
+         }
+      }
+
+      return new String[]{elementName, descriptor};
+   }
+
+   public PooledConstant getConstant(int index) {
+      return (PooledConstant)this.pool.get(index);
+   }
+
+   public PrimitiveConstant getPrimitiveConstant(int index) {
+      PrimitiveConstant cn = (PrimitiveConstant)this.getConstant(index);
+      if(cn != null && this.interceptor != null && cn.type == 7) {
+         String newName = this.buildNewClassname(cn.getString());
+         if(newName != null) {
+            cn = new PrimitiveConstant(7, newName);
+         }
+      }
+
+      return cn;
+   }
+
+   public LinkConstant getLinkConstant(int index) {
+      LinkConstant ln = (LinkConstant)this.getConstant(index);
+      if(ln != null && this.interceptor != null && (ln.type == 9 || ln.type == 10 || ln.type == 11)) {
+         String newClassName = this.buildNewClassname(ln.classname);
+         String newElement = this.interceptor.getName(ln.classname + " " + ln.elementname + " " + ln.descriptor);
+         String newDescriptor = this.buildNewDescriptor(ln.type == 9, ln.descriptor);
+         if(newClassName != null || newElement != null || newDescriptor != null) {
+            String className = newClassName == null ? ln.classname : newClassName;
+            String elementName = newElement == null ? ln.elementname : newElement.split(" ")[1];
+            String descriptor = newDescriptor == null ? ln.descriptor : newDescriptor;
+            ln = new LinkConstant(ln.type, className, elementName, descriptor);
+         }
+      }
+
+      return ln;
+   }
+
+   public String buildNewClassname(String className) {
+      VarType vt = new VarType(className, true);
+      String newName = this.interceptor.getName(vt.value);
+      if(newName == null) {
+         return null;
+      } else {
+         StringBuilder buffer = new StringBuilder();
+         if(vt.arrayDim > 0) {
+            for(int i = 0; i < vt.arrayDim; ++i) {
+               buffer.append("[");
+            }
+
+            buffer.append("L").append(newName).append(";");
+         } else {
+            buffer.append(newName);
+         }
+
+         return buffer.toString();
+      }
+   }
+
+   private String buildNewDescriptor(boolean isField, String descriptor) {
+      return isField ? FieldDescriptor.parseDescriptor(descriptor).buildNewDescriptor(this) : MethodDescriptor.parseDescriptor(descriptor).buildNewDescriptor(this);
+   }
+}
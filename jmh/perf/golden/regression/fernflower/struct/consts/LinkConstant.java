@@ -0,0 +1,115 @@
+package regression.fernflower.struct.consts;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class LinkConstant extends PooledConstant {
+   public int index1;
+   public int index2;
+   public String classname;
+   public String elementname;
+   public String descriptor;
+   public int paramCount = 0;
+   public boolean isVoid = false;
+   public boolean returnCategory2 = false;
+
+   public LinkConstant(int type, String classname, String elementname, String descriptor) {
+      this.type = type;
+      this.classname = classname;
+      this.elementname = elementname;
+      this.descriptor = descriptor;
+      this.initConstant();
+   }
+
+   public LinkConstant(int type, int index1, int index2) {
+      this.type = type;
+      this.index1 = index1;
+      this.index2 = index2;
+   }
+
+   public void resolveConstant(ConstantPool pool) {
+      if(this.type == 12) {
+         this.elementname = pool.getPrimitiveConstant(this.index1).getString();
+         this.descriptor = pool.getPrimitiveConstant(this.index2).getString();
+      } else {
+         LinkConstant nametype;
+         if(this.type == 15) {
+            nametype = pool.getLinkConstant(this.index2);
+            this.classname = nametype.classname;
+            this.elementname = nametype.elementname;
+            this.descriptor = nametype.descriptor;
+         } else {
+            if(this.type != 18) {
+               this.classname = pool.getPrimitiveConstant(this.index1).getString();
+            }
+
+            nametype = pool.getLinkConstant(this.index2);
+            this.elementname = nametype.elementname;
+            this.descriptor = nametype.descriptor;
+         }
+      }
+
+      this.initConstant();
+   }
+
+   public void writeToStream(DataOutputStream out) throws IOException {
+      out.writeByte(this.type);
+      if(this.type == 15) {
+         out.writeByte(this.index1);
+      } else {
+         out.writeShort(this.index1);
+      }
+
+      out.writeShort(this.index2);
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof LinkConstant) {
+         LinkConstant cn = (LinkConstant)o;
+         return this.type == cn.type && this.elementname.equals(cn.elementname) && this.descriptor.equals(cn.descriptor) && (this.type != 12 || this.classname.equals(cn.classname));
+      } else {
+         return false;
+      }
+   }
+
+   private void initConstant() {
+      if(this.type != 10 && this.type != 11 && this.type != 18 && this.type != 15) {
+         if(this.type == 9) {
+            this.returnCategory2 = "D".equals(this.descriptor) || "J".equals(this.descriptor);
+         }
+      } else {
+         this.resolveDescriptor(this.descriptor);
+      }
+
+   }
+
+   private void resolveDescriptor(String descr) {
+      String[] arr = descr.split("[()]");
+      String par = arr[1];
+      int index = 0;
+      int counter = 0;
+      int len = par.length();
+
+      while(true) {
+         while(index < len) {
+            char c = par.charAt(index);
+            if(c == 76) {
+               index = par.indexOf(";", index);
+            } else if(c == 91) {
+               ++index;
+               continue;
+            }
+
+            ++counter;
+            ++index;
+         }
+
+         this.paramCount = counter;
+         this.isVoid = "V".equals(arr[2]);
+         this.returnCategory2 = "D".equals(arr[2]) || "J".equals(arr[2]);
+         return;
+      }
+   }
+}
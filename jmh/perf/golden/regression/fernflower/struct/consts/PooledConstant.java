@@ -0,0 +1,64 @@
+package regression.fernflower.struct.consts;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import regression.fernflower.code.CodeConstants;
+
+public class PooledConstant implements CodeConstants, VariableTypeEnum {
+   public int type;
+   public boolean own = false;
+   public int returnType;
+   private Object[] values;
+
+   public PooledConstant() {
+   }
+
+   public PooledConstant(int type, Object[] values) {
+      this.type = type;
+      this.values = values;
+      this.returnType = this.poolTypeToIntern(type);
+   }
+
+   public PooledConstant(int type, boolean own, Object[] values) {
+      this.type = type;
+      this.own = own;
+      this.values = values;
+      this.returnType = this.poolTypeToIntern(type);
+   }
+
+   public void resolveConstant(ConstantPool pool) {
+   }
+
+   public void writeToStream(DataOutputStream out) throws IOException {
+   }
+
+   public int poolTypeToIntern(int type) {
+      switch(type) {
+      case 3:
+         return 5;
+      case 4:
+         return 6;
+      case 5:
+         return 7;
+      case 6:
+         return 8;
+      case 7:
+      case 8:
+         return 10;
+      default:
+         throw new RuntimeException("Huh?? What are you trying to load?");
+      }
+   }
+
+   public Object getValue(int index) {
+      return this.values[index];
+   }
+
+   public Object[] getValues() {
+      return this.values;
+   }
+
+   public void setValues(Object[] values) {
+      this.values = values;
+   }
+}
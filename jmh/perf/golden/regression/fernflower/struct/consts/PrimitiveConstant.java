@@ -0,0 +1,93 @@
+package regression.fernflower.struct.consts;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class PrimitiveConstant extends PooledConstant {
+   public int index;
+   public Object value;
+   public boolean isArray;
+
+   public PrimitiveConstant(int type, Object value) {
+      this.type = type;
+      this.value = value;
+      this.initConstant();
+   }
+
+   public PrimitiveConstant(int type, int index) {
+      this.type = type;
+      this.index = index;
+   }
+
+   public int getInt() {
+      return ((Integer)this.value).intValue();
+   }
+
+   public long getLong() {
+      return ((Long)this.value).longValue();
+   }
+
+   public float getFloat() {
+      return ((Float)this.value).floatValue();
+   }
+
+   public double getDouble() {
+      return ((Double)this.value).doubleValue();
+   }
+
+   public String getString() {
+      return (String)this.value;
+   }
+
+   public void resolveConstant(ConstantPool pool) {
+      if(this.type == 7 || this.type == 8 || this.type == 16) {
+         this.value = pool.getPrimitiveConstant(this.index).getString();
+         this.initConstant();
+      }
+
+   }
+
+   public void writeToStream(DataOutputStream out) throws IOException {
+      out.writeByte(this.type);
+      switch(this.type) {
+      case 1:
+         out.writeUTF(this.getString());
+         break;
+      case 2:
+      default:
+         out.writeShort(this.index);
+         break;
+      case 3:
+         out.writeInt(this.getInt());
+         break;
+      case 4:
+         out.writeFloat(this.getFloat());
+         break;
+      case 5:
+         out.writeLong(this.getLong());
+         break;
+      case 6:
+         out.writeDouble(this.getDouble());
+      }
+
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof PrimitiveConstant) {
+         PrimitiveConstant cn = (PrimitiveConstant)o;
+         return this.type == cn.type && this.isArray == cn.isArray && this.value.equals(cn.value);
+      } else {
+         return false;
+      }
+   }
+
+   private void initConstant() {
+      if(this.type == 7) {
+         String className = this.getString();
+         this.isArray = className.length() > 0 && className.charAt(0) == 91;
+      }
+
+   }
+}
@@ -0,0 +1,30 @@
+package regression.fernflower.struct.consts;
+
+public interface VariableTypeEnum {
+   int BOOLEAN = 1;
+   int BYTE = 2;
+   int CHAR = 3;
+   int SHORT = 4;
+   int INT = 5;
+   int FLOAT = 6;
+   int LONG = 7;
+   int DOUBLE = 8;
+   int RETURN_ADDRESS = 9;
+   int REFERENCE = 10;
+   int INSTANCE_UNINITIALIZED = 11;
+   int VALUE_UNKNOWN = 12;
+   int VOID = 13;
+   Integer BOOLEAN_OBJ = new Integer(1);
+   Integer BYTE_OBJ = new Integer(2);
+   Integer CHAR_OBJ = new Integer(3);
+   Integer SHORT_OBJ = new Integer(4);
+   Integer INT_OBJ = new Integer(5);
+   Integer FLOAT_OBJ = new Integer(6);
+   Integer LONG_OBJ = new Integer(7);
+   Integer DOUBLE_OBJ = new Integer(8);
+   Integer RETURN_ADDRESS_OBJ = new Integer(9);
+   Integer REFERENCE_OBJ = new Integer(10);
+   Integer INSTANCE_UNINITIALIZED_OBJ = new Integer(11);
+   Integer VALUE_UNKNOWN_OBJ = new Integer(12);
+   Integer VOID_OBJ = new Integer(13);
+}
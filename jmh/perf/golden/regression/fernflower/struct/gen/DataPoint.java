@@ -0,0 +1,73 @@
+package regression.fernflower.struct.gen;
+
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.util.ListStack;
+
+public class DataPoint {
+   private List localVariables = new ArrayList();
+   private ListStack stack = new ListStack();
+
+   public void setVariable(int index, VarType value) {
+      if(index >= this.localVariables.size()) {
+         for(int i = this.localVariables.size(); i <= index; ++i) {
+            this.localVariables.add(new VarType(14));
+         }
+      }
+
+      this.localVariables.set(index, value);
+   }
+
+   public VarType getVariable(int index) {
+      if(index < this.localVariables.size()) {
+         return (VarType)this.localVariables.get(index);
+      } else if(index < 0) {
+         throw new IndexOutOfBoundsException();
+      } else {
+         return new VarType(14);
+      }
+   }
+
+   public DataPoint copy() {
+      DataPoint point = new DataPoint();
+      point.setLocalVariables(new ArrayList(this.localVariables));
+      point.setStack(this.stack.clone());
+      return point;
+   }
+
+   public static DataPoint getInitialDataPoint(StructMethod mt) {
+      DataPoint point = new DataPoint();
+      MethodDescriptor md = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+      int k = 0;
+      if(!mt.hasModifier(8)) {
+         point.setVariable(k++, new VarType(8, 0, (String)null));
+      }
+
+      for(int i = 0; i < md.params.length; ++i) {
+         VarType var = md.params[i];
+         point.setVariable(k++, var);
+         if(var.stackSize == 2) {
+            point.setVariable(k++, new VarType(12));
+         }
+      }
+
+      return point;
+   }
+
+   public List getLocalVariables() {
+      return this.localVariables;
+   }
+
+   public void setLocalVariables(List localVariables) {
+      this.localVariables = localVariables;
+   }
+
+   public ListStack getStack() {
+      return this.stack;
+   }
+
+   public void setStack(ListStack stack) {
+      this.stack = stack;
+   }
+}
@@ -0,0 +1,45 @@
+package regression.fernflower.struct.gen;
+
+public class FieldDescriptor {
+   public static final FieldDescriptor INTEGER_DESCRIPTOR = parseDescriptor("Ljava/lang/Integer;");
+   public static final FieldDescriptor LONG_DESCRIPTOR = parseDescriptor("Ljava/lang/Long;");
+   public static final FieldDescriptor FLOAT_DESCRIPTOR = parseDescriptor("Ljava/lang/Float;");
+   public static final FieldDescriptor DOUBLE_DESCRIPTOR = parseDescriptor("Ljava/lang/Double;");
+   public final VarType type;
+   public final String descriptorString;
+
+   private FieldDescriptor(String descriptor) {
+      this.type = new VarType(descriptor);
+      this.descriptorString = descriptor;
+   }
+
+   public static FieldDescriptor parseDescriptor(String descriptor) {
+      return new FieldDescriptor(descriptor);
+   }
+
+   public String buildNewDescriptor(NewClassNameBuilder builder) {
+      if(this.type.type == 8) {
+         String newClassName = builder.buildNewClassname(this.type.value);
+         if(newClassName != null) {
+            return (new VarType(this.type.type, this.type.arrayDim, newClassName)).toString();
+         }
+      }
+
+      return null;
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof FieldDescriptor) {
+         FieldDescriptor fd = (FieldDescriptor)o;
+         return this.type.equals(fd.type);
+      } else {
+         return false;
+      }
+   }
+
+   public int hashCode() {
+      return this.type.hashCode();
+   }
+}
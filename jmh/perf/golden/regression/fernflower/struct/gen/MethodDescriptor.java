@@ -0,0 +1,130 @@
+package regression.fernflower.struct.gen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MethodDescriptor {
+   public final VarType[] params;
+   public final VarType ret;
+
+   private MethodDescriptor(VarType[] params, VarType ret) {
+      this.params = params;
+      this.ret = ret;
+   }
+
+   public static MethodDescriptor parseDescriptor(String descriptor) {
+      int parenth = descriptor.lastIndexOf(41);
+      if(descriptor.length() >= 2 && parenth >= 0 && descriptor.charAt(0) == 40) {
+         VarType[] params;
+         if(parenth > 1) {
+            String ret = descriptor.substring(1, parenth);
+            ArrayList lst = new ArrayList();
+            int indexFrom = -1;
+            int len = ret.length();
+
+            for(int index = 0; index < len; ++index) {
+               switch(ret.charAt(index)) {
+               case 'L':
+                  int ind = ret.indexOf(";", index);
+                  lst.add(ret.substring(indexFrom < 0 ? index : indexFrom, ind + 1));
+                  index = ind;
+                  indexFrom = -1;
+                  break;
+               case '[':
+                  if(indexFrom < 0) {
+                     indexFrom = index;
+                  }
+                  break;
+               default:
+                  lst.add(ret.substring(indexFrom < 0 ? index : indexFrom, index + 1));
+                  indexFrom = -1;
+               }
+            }
+
+            params = new VarType[lst.size()];
+
+            for(int i = 0; i < lst.size(); ++i) {
+               params[i] = new VarType((String)lst.get(i));
+            }
+         } else {
+            params = VarType.EMPTY_ARRAY;
+         }
+
+         VarType var10 = new VarType(descriptor.substring(parenth + 1));
+         return new MethodDescriptor(params, var10);
+      } else {
+         throw new IllegalArgumentException("Invalid descriptor: " + descriptor);
+      }
+   }
+
+   public String buildNewDescriptor(NewClassNameBuilder builder) {
+      boolean updated = false;
+      VarType[] newParams;
+      VarType substitute;
+      if(this.params.length > 0) {
+         newParams = new VarType[this.params.length];
+         System.arraycopy(this.params, 0, newParams, 0, this.params.length);
+
+         for(int newRet = 0; newRet < this.params.length; ++newRet) {
+            substitute = buildNewType(this.params[newRet], builder);
+            if(substitute != null) {
+               newParams[newRet] = substitute;
+               updated = true;
+            }
+         }
+      } else {
+         newParams = VarType.EMPTY_ARRAY;
+      }
+
+      VarType var11 = this.ret;
+      substitute = buildNewType(this.ret, builder);
+      if(substitute != null) {
+         var11 = substitute;
+         updated = true;
+      }
+
+      if(!updated) {
+         return null;
+      } else {
+         StringBuilder res = new StringBuilder("(");
+         VarType[] var7 = newParams;
+         int var8 = newParams.length;
+
+         for(int var9 = 0; var9 < var8; ++var9) {
+            VarType param = var7[var9];
+            res.append(param);
+         }
+
+         res.append(")").append(var11.toString());
+         return res.toString();
+      }
+   }
+
+   private static VarType buildNewType(VarType type, NewClassNameBuilder builder) {
+      if(type.type == 8) {
+         String newClassName = builder.buildNewClassname(type.value);
+         if(newClassName != null) {
+            return new VarType(type.type, type.arrayDim, newClassName);
+         }
+      }
+
+      return null;
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof MethodDescriptor) {
+         MethodDescriptor md = (MethodDescriptor)o;
+         return this.ret.equals(md.ret) && Arrays.equals(this.params, md.params);
+      } else {
+         return false;
+      }
+   }
+
+   public int hashCode() {
+      int result = this.ret.hashCode();
+      result = 31 * result + this.params.length;
+      return result;
+   }
+}
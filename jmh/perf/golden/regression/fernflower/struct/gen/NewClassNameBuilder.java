@@ -0,0 +1,5 @@
+package regression.fernflower.struct.gen;
+
+public interface NewClassNameBuilder {
+   String buildNewClassname(String var1);
+}
@@ -0,0 +1,414 @@
+package regression.fernflower.struct.gen;
+
+import regression.fernflower.util.InterpreterUtil;
+
+public class VarType {
+   public static final VarType[] EMPTY_ARRAY = new VarType[0];
+   public static final VarType VARTYPE_UNKNOWN = new VarType(17);
+   public static final VarType VARTYPE_INT = new VarType(4);
+   public static final VarType VARTYPE_FLOAT = new VarType(3);
+   public static final VarType VARTYPE_LONG = new VarType(5);
+   public static final VarType VARTYPE_DOUBLE = new VarType(2);
+   public static final VarType VARTYPE_BYTE = new VarType(0);
+   public static final VarType VARTYPE_CHAR = new VarType(1);
+   public static final VarType VARTYPE_SHORT = new VarType(6);
+   public static final VarType VARTYPE_BOOLEAN = new VarType(7);
+   public static final VarType VARTYPE_BYTECHAR = new VarType(15);
+   public static final VarType VARTYPE_SHORTCHAR = new VarType(16);
+   public static final VarType VARTYPE_NULL = new VarType(13, 0, (String)null);
+   public static final VarType VARTYPE_STRING = new VarType(8, 0, "java/lang/String");
+   public static final VarType VARTYPE_CLASS = new VarType(8, 0, "java/lang/Class");
+   public static final VarType VARTYPE_OBJECT = new VarType(8, 0, "java/lang/Object");
+   public static final VarType VARTYPE_VOID = new VarType(10);
+   public final int type;
+   public final int arrayDim;
+   public final String value;
+   public final int typeFamily;
+   public final int stackSize;
+   public final boolean falseBoolean;
+
+   public VarType(int type) {
+      this(type, 0);
+   }
+
+   public VarType(int type, int arrayDim) {
+      this(type, arrayDim, getChar(type));
+   }
+
+   public VarType(int type, int arrayDim, String value) {
+      this(type, arrayDim, value, getFamily(type, arrayDim), getStackSize(type, arrayDim), false);
+   }
+
+   private VarType(int type, int arrayDim, String value, int typeFamily, int stackSize, boolean falseBoolean) {
+      this.type = type;
+      this.arrayDim = arrayDim;
+      this.value = value;
+      this.typeFamily = typeFamily;
+      this.stackSize = stackSize;
+      this.falseBoolean = falseBoolean;
+   }
+
+   public VarType(String signature) {
+      this(signature, false);
+   }
+
+   public VarType(String signature, boolean clType) {
+      int type = 0;
+      int arrayDim = 0;
+      String value = null;
+      int i = 0;
+
+      label29:
+      while(i < signature.length()) {
+         switch(signature.charAt(i)) {
+         case 'L':
+            if(signature.charAt(signature.length() - 1) == 59) {
+               type = 8;
+               value = signature.substring(i + 1, signature.length() - 1);
+               break label29;
+            }
+         default:
+            value = signature.substring(i, signature.length());
+            if((!clType || i != 0) && value.length() <= 1) {
+               type = getType(value.charAt(0));
+            } else {
+               type = 8;
+            }
+            break label29;
+         case '[':
+            ++arrayDim;
+            ++i;
+         }
+      }
+
+      this.type = type;
+      this.arrayDim = arrayDim;
+      this.value = value;
+      this.typeFamily = getFamily(type, arrayDim);
+      this.stackSize = getStackSize(type, arrayDim);
+      this.falseBoolean = false;
+   }
+
+   private static String getChar(int type) {
+      switch(type) {
+      case 0:
+         return "B";
+      case 1:
+         return "C";
+      case 2:
+         return "D";
+      case 3:
+         return "F";
+      case 4:
+         return "I";
+      case 5:
+         return "J";
+      case 6:
+         return "S";
+      case 7:
+         return "Z";
+      case 8:
+      case 13:
+         return null;
+      case 9:
+         return "A";
+      case 10:
+         return "V";
+      case 11:
+      default:
+         throw new RuntimeException("Invalid type");
+      case 12:
+         return "G";
+      case 14:
+         return "N";
+      case 15:
+         return "X";
+      case 16:
+         return "Y";
+      case 17:
+         return "U";
+      }
+   }
+
+   private static int getStackSize(int type, int arrayDim) {
+      if(arrayDim > 0) {
+         return 1;
+      } else {
+         switch(type) {
+         case 2:
+         case 5:
+            return 2;
+         case 10:
+         case 12:
+            return 0;
+         default:
+            return 1;
+         }
+      }
+   }
+
+   private static int getFamily(int type, int arrayDim) {
+      if(arrayDim > 0) {
+         return 6;
+      } else {
+         switch(type) {
+         case 0:
+         case 1:
+         case 4:
+         case 6:
+         case 15:
+         case 16:
+            return 2;
+         case 2:
+            return 5;
+         case 3:
+            return 3;
+         case 5:
+            return 4;
+         case 7:
+            return 1;
+         case 8:
+         case 13:
+            return 6;
+         case 9:
+         case 10:
+         case 11:
+         case 12:
+         case 14:
+         default:
+            return 0;
+         }
+      }
+   }
+
+   public VarType decreaseArrayDim() {
+      return this.arrayDim > 0 ? new VarType(this.type, this.arrayDim - 1, this.value) : this;
+   }
+
+   public VarType resizeArrayDim(int newArrayDim) {
+      return new VarType(this.type, newArrayDim, this.value, this.typeFamily, this.stackSize, this.falseBoolean);
+   }
+
+   public VarType copy() {
+      return this.copy(false);
+   }
+
+   public VarType copy(boolean forceFalseBoolean) {
+      return new VarType(this.type, this.arrayDim, this.value, this.typeFamily, this.stackSize, this.falseBoolean || forceFalseBoolean);
+   }
+
+   public boolean isFalseBoolean() {
+      return this.falseBoolean;
+   }
+
+   public boolean isSuperset(VarType val) {
+      return this.equals(val) || this.isStrictSuperset(val);
+   }
+
+   public boolean isStrictSuperset(VarType val) {
+      int valType = val.type;
+      if(valType == 17 && this.type != 17) {
+         return true;
+      } else if(val.arrayDim > 0) {
+         return this.equals(VARTYPE_OBJECT);
+      } else if(this.arrayDim > 0) {
+         return valType == 13;
+      } else {
+         boolean res;
+         label99: {
+            label100: {
+               res = false;
+               switch(this.type) {
+               case 0:
+               case 16:
+                  break label100;
+               case 1:
+                  break;
+               case 2:
+               case 3:
+               case 5:
+               case 7:
+               case 9:
+               case 10:
+               case 11:
+               case 12:
+               case 13:
+               case 14:
+               default:
+                  return res;
+               case 4:
+                  res = valType == 6 || valType == 1;
+               case 6:
+                  res |= valType == 0;
+                  break;
+               case 8:
+                  if(valType == 13) {
+                     return true;
+                  }
+
+                  if(this.equals(VARTYPE_OBJECT)) {
+                     return valType == 8 && !val.equals(VARTYPE_OBJECT);
+                  }
+
+                  return res;
+               case 15:
+                  break label99;
+               }
+
+               res |= valType == 16;
+            }
+
+            res |= valType == 15;
+         }
+
+         res |= valType == 7;
+         return res;
+      }
+   }
+
+   public boolean equals(Object o) {
+      if(o == this) {
+         return true;
+      } else if(o != null && o instanceof VarType) {
+         VarType vt = (VarType)o;
+         return this.type == vt.type && this.arrayDim == vt.arrayDim && InterpreterUtil.equalObjects(this.value, vt.value);
+      } else {
+         return false;
+      }
+   }
+
+   public String toString() {
+      StringBuilder res = new StringBuilder();
+
+      for(int i = 0; i < this.arrayDim; ++i) {
+         res.append('[');
+      }
+
+      if(this.type == 8) {
+         res.append('L').append(this.value).append(';');
+      } else {
+         res.append(this.value);
+      }
+
+      return res.toString();
+   }
+
+   public static VarType getCommonMinType(VarType type1, VarType type2) {
+      if(type1.type == 7 && type2.type == 7) {
+         return type1.isFalseBoolean() ? type2 : type1;
+      } else if(type1.isSuperset(type2)) {
+         return type2;
+      } else if(type2.isSuperset(type1)) {
+         return type1;
+      } else {
+         if(type1.typeFamily == type2.typeFamily) {
+            switch(type1.typeFamily) {
+            case 2:
+               if((type1.type != 1 || type2.type != 6) && (type1.type != 6 || type2.type != 1)) {
+                  return VARTYPE_BYTECHAR;
+               }
+
+               return VARTYPE_SHORTCHAR;
+            case 6:
+               return VARTYPE_NULL;
+            }
+         }
+
+         return null;
+      }
+   }
+
+   public static VarType getCommonSupertype(VarType type1, VarType type2) {
+      if(type1.type == 7 && type2.type == 7) {
+         return type1.isFalseBoolean() ? type1 : type2;
+      } else if(type1.isSuperset(type2)) {
+         return type1;
+      } else if(type2.isSuperset(type1)) {
+         return type2;
+      } else {
+         if(type1.typeFamily == type2.typeFamily) {
+            switch(type1.typeFamily) {
+            case 2:
+               if((type1.type != 16 || type2.type != 0) && (type1.type != 0 || type2.type != 16)) {
+                  return VARTYPE_INT;
+               }
+
+               return VARTYPE_SHORT;
+            case 6:
+               return VARTYPE_OBJECT;
+            }
+         }
+
+         return null;
+      }
+   }
+
+   public static VarType getMinTypeInFamily(int family) {
+      switch(family) {
+      case 0:
+         return VARTYPE_UNKNOWN;
+      case 1:
+         return VARTYPE_BOOLEAN;
+      case 2:
+         return VARTYPE_BYTECHAR;
+      case 3:
+         return VARTYPE_FLOAT;
+      case 4:
+         return VARTYPE_LONG;
+      case 5:
+         return VARTYPE_DOUBLE;
+      case 6:
+         return VARTYPE_NULL;
+      default:
+         throw new IllegalArgumentException("Invalid type family: " + family);
+      }
+   }
+
+   public static int getType(char c) {
+      switch(c) {
+      case 'A':
+         return 9;
+      case 'B':
+         return 0;
+      case 'C':
+         return 1;
+      case 'D':
+         return 2;
+      case 'E':
+      case 'H':
+      case 'K':
+      case 'L':
+      case 'M':
+      case 'O':
+      case 'P':
+      case 'Q':
+      case 'R':
+      case 'T':
+      case 'W':
+      default:
+         throw new IllegalArgumentException("Invalid type: " + c);
+      case 'F':
+         return 3;
+      case 'G':
+         return 12;
+      case 'I':
+         return 4;
+      case 'J':
+         return 5;
+      case 'N':
+         return 14;
+      case 'S':
+         return 6;
+      case 'U':
+         return 17;
+      case 'V':
+         return 10;
+      case 'X':
+         return 15;
+      case 'Y':
+         return 16;
+      case 'Z':
+         return 7;
+      }
+   }
+}
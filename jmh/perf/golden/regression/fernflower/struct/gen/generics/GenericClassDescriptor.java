@@ -0,0 +1,11 @@
+package regression.fernflower.struct.gen.generics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GenericClassDescriptor {
+   public GenericType superclass;
+   public List superinterfaces = new ArrayList();
+   public List fparameters = new ArrayList();
+   public List fbounds = new ArrayList();
+}
@@ -0,0 +1,5 @@
+package regression.fernflower.struct.gen.generics;
+
+public class GenericFieldDescriptor {
+   public GenericType type;
+}
@@ -0,0 +1,201 @@
+package regression.fernflower.struct.gen.generics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.extern.IFernflowerLogger;
+import regression.fernflower.struct.StructClass;
+
+public class GenericMain {
+   private static final String[] typeNames = new String[]{"byte", "char", "double", "float", "int", "long", "short", "boolean"};
+
+   public static GenericClassDescriptor parseClassSignature(String signature) {
+      try {
+         GenericClassDescriptor e = new GenericClassDescriptor();
+         signature = parseFormalParameters(signature, e.fparameters, e.fbounds);
+         String superCl = GenericType.getNextType(signature);
+         e.superclass = new GenericType(superCl);
+
+         String superIf;
+         for(signature = signature.substring(superCl.length()); signature.length() > 0; signature = signature.substring(superIf.length())) {
+            superIf = GenericType.getNextType(signature);
+            e.superinterfaces.add(new GenericType(superIf));
+         }
+
+         return e;
+      } catch (RuntimeException var5) {
+         DecompilerContext.getLogger().writeMessage("Invalid signature: " + signature, IFernflowerLogger.Severity.WARN);
+         return null;
+      }
+   }
+
+   public static GenericFieldDescriptor parseFieldSignature(String signature) {
+      try {
+         GenericFieldDescriptor e = new GenericFieldDescriptor();
+         e.type = new GenericType(signature);
+         return e;
+      } catch (RuntimeException var2) {
+         DecompilerContext.getLogger().writeMessage("Invalid signature: " + signature, IFernflowerLogger.Severity.WARN);
+         return null;
+      }
+   }
+
+   public static GenericMethodDescriptor parseMethodSignature(String signature) {
+      try {
+         GenericMethodDescriptor e = new GenericMethodDescriptor();
+         signature = parseFormalParameters(signature, e.fparameters, e.fbounds);
+         int to = signature.indexOf(")");
+         String pars = signature.substring(1, to);
+
+         String par;
+         for(signature = signature.substring(to + 1); pars.length() > 0; pars = pars.substring(par.length())) {
+            par = GenericType.getNextType(pars);
+            e.params.add(new GenericType(par));
+         }
+
+         par = GenericType.getNextType(signature);
+         e.ret = new GenericType(par);
+         signature = signature.substring(par.length());
+         if(signature.length() > 0) {
+            String[] exceptions = signature.split("\\^");
+
+            for(int i = 1; i < exceptions.length; ++i) {
+               e.exceptions.add(new GenericType(exceptions[i]));
+            }
+         }
+
+         return e;
+      } catch (RuntimeException var8) {
+         DecompilerContext.getLogger().writeMessage("Invalid signature: " + signature, IFernflowerLogger.Severity.WARN);
+         return null;
+      }
+   }
+
+   private static String parseFormalParameters(String signature, List parameters, List bounds) {
+      if(signature.charAt(0) != 60) {
+         return signature;
+      } else {
+         int counter = 1;
+
+         int index;
+         label48:
+         for(index = 1; index < signature.length(); ++index) {
+            switch(signature.charAt(index)) {
+            case '<':
+               ++counter;
+               break;
+            case '>':
+               --counter;
+               if(counter == 0) {
+                  break label48;
+               }
+            }
+         }
+
+         String value = signature.substring(1, index);
+         signature = signature.substring(index + 1);
+
+         while(value.length() > 0) {
+            int to = value.indexOf(":");
+            String param = value.substring(0, to);
+            value = value.substring(to + 1);
+            ArrayList lstBounds = new ArrayList();
+
+            while(true) {
+               if(value.charAt(0) == 58) {
+                  value = value.substring(1);
+               }
+
+               String bound = GenericType.getNextType(value);
+               lstBounds.add(new GenericType(bound));
+               value = value.substring(bound.length());
+               if(value.length() == 0 || value.charAt(0) != 58) {
+                  parameters.add(param);
+                  bounds.add(lstBounds);
+                  break;
+               }
+
+               value = value.substring(1);
+            }
+         }
+
+         return signature;
+      }
+   }
+
+   public static String getGenericCastTypeName(GenericType type) {
+      String s = getTypeName(type);
+
+      for(int dim = type.arrayDim; dim-- > 0; s = s + "[]") {
+      }
+
+      return s;
+   }
+
+   private static String getTypeName(GenericType type) {
+      int tp = type.type;
+      if(tp <= 7) {
+         return typeNames[tp];
+      } else if(tp == 10) {
+         return "void";
+      } else if(tp == 18) {
+         return type.value;
+      } else if(tp != 8) {
+         throw new RuntimeException("Invalid type: " + type);
+      } else {
+         StringBuilder buffer = new StringBuilder();
+         buffer.append(DecompilerContext.getImportCollector().getShortName(buildJavaClassName(type)));
+         if(!type.getArguments().isEmpty()) {
+            buffer.append("<");
+
+            for(int i = 0; i < type.getArguments().size(); ++i) {
+               if(i > 0) {
+                  buffer.append(", ");
+               }
+
+               int wildcard = ((Integer)type.getWildcards().get(i)).intValue();
+               if(wildcard != 4) {
+                  buffer.append("?");
+                  switch(wildcard) {
+                  case 1:
+                     buffer.append(" extends ");
+                     break;
+                  case 2:
+                     buffer.append(" super ");
+                  }
+               }
+
+               GenericType genPar = (GenericType)type.getArguments().get(i);
+               if(genPar != null) {
+                  buffer.append(getGenericCastTypeName(genPar));
+               }
+            }
+
+            buffer.append(">");
+         }
+
+         return buffer.toString();
+      }
+   }
+
+   private static String buildJavaClassName(GenericType type) {
+      String name = "";
+
+      GenericType cl;
+      for(Iterator res = type.getEnclosingClasses().iterator(); res.hasNext(); name = name + cl.value + "$") {
+         cl = (GenericType)res.next();
+      }
+
+      name = name + type.value;
+      String res1 = name.replace('/', '.');
+      if(res1.contains("$")) {
+         StructClass cl1 = DecompilerContext.getStructContext().getClass(name);
+         if(cl1 == null || !cl1.isOwn()) {
+            res1 = res1.replace('$', '.');
+         }
+      }
+
+      return res1;
+   }
+}
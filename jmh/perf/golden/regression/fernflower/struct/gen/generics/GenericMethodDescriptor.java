@@ -0,0 +1,12 @@
+package regression.fernflower.struct.gen.generics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GenericMethodDescriptor {
+   public List fparameters = new ArrayList();
+   public List fbounds = new ArrayList();
+   public List params = new ArrayList();
+   public GenericType ret;
+   public List exceptions = new ArrayList();
+}
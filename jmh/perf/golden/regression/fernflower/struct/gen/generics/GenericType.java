@@ -0,0 +1,187 @@
+package regression.fernflower.struct.gen.generics;
+
+import java.util.ArrayList;
+import java.util.List;
+import regression.fernflower.struct.gen.VarType;
+
+public class GenericType {
+   public static final int WILDCARD_EXTENDS = 1;
+   public static final int WILDCARD_SUPER = 2;
+   public static final int WILDCARD_UNBOUND = 3;
+   public static final int WILDCARD_NO = 4;
+   public final int type;
+   public final int arrayDim;
+   public final String value;
+   private final List enclosingClasses = new ArrayList();
+   private final List arguments = new ArrayList();
+   private final List wildcards = new ArrayList();
+
+   public GenericType(int type, int arrayDim, String value) {
+      this.type = type;
+      this.arrayDim = arrayDim;
+      this.value = value;
+   }
+
+   public GenericType(String signature) {
+      int type = 0;
+      int arrayDim = 0;
+      String value = null;
+
+      label32:
+      for(int index = 0; index < signature.length(); ++index) {
+         switch(signature.charAt(index)) {
+         case 'L':
+            type = 8;
+            signature = signature.substring(index + 1, signature.length() - 1);
+
+            while(true) {
+               String cl = getNextClassSignature(signature);
+               String name = cl;
+               String args = null;
+               int argStart = cl.indexOf("<");
+               if(argStart >= 0) {
+                  name = cl.substring(0, argStart);
+                  args = cl.substring(argStart + 1, cl.length() - 1);
+               }
+
+               if(cl.length() >= signature.length()) {
+                  value = name;
+                  parseArgumentsList(args, this);
+                  break label32;
+               }
+
+               signature = signature.substring(cl.length() + 1);
+               GenericType type11 = new GenericType(8, 0, name);
+               parseArgumentsList(args, type11);
+               this.enclosingClasses.add(type11);
+            }
+         case 'T':
+            type = 18;
+            value = signature.substring(index + 1, signature.length() - 1);
+            break label32;
+         case '[':
+            ++arrayDim;
+            break;
+         default:
+            value = signature.substring(index, index + 1);
+            type = VarType.getType(value.charAt(0));
+         }
+      }
+
+      this.type = type;
+      this.arrayDim = arrayDim;
+      this.value = value;
+   }
+
+   private static String getNextClassSignature(String value) {
+      int counter = 0;
+
+      int index;
+      for(index = 0; index < value.length(); ++index) {
+         switch(value.charAt(index)) {
+         case '.':
+            if(counter == 0) {
+               return value.substring(0, index);
+            }
+            break;
+         case '<':
+            ++counter;
+            break;
+         case '>':
+            --counter;
+         }
+      }
+
+      return value.substring(0, index);
+   }
+
+   private static void parseArgumentsList(String value, GenericType type) {
+      if(value != null) {
+         while(value.length() > 0) {
+            String typeStr = getNextType(value);
+            int len = typeStr.length();
+            byte wildcard = 4;
+            switch(typeStr.charAt(0)) {
+            case '*':
+               wildcard = 3;
+               break;
+            case '+':
+               wildcard = 1;
+            case ',':
+            default:
+               break;
+            case '-':
+               wildcard = 2;
+            }
+
+            type.getWildcards().add(Integer.valueOf(wildcard));
+            if(wildcard != 4) {
+               typeStr = typeStr.substring(1);
+            }
+
+            type.getArguments().add(typeStr.length() == 0 ? null : new GenericType(typeStr));
+            value = value.substring(len);
+         }
+
+      }
+   }
+
+   public static String getNextType(String value) {
+      int counter = 0;
+      int index = 0;
+
+      for(boolean contMode = false; index < value.length(); ++index) {
+         switch(value.charAt(index)) {
+         case '*':
+            if(!contMode) {
+               return value.substring(0, index + 1);
+            }
+         case '+':
+         case '-':
+         case '[':
+            break;
+         case ';':
+            if(counter == 0) {
+               return value.substring(0, index + 1);
+            }
+            break;
+         case '<':
+            ++counter;
+            break;
+         case '>':
+            --counter;
+            break;
+         case 'L':
+         case 'T':
+            if(!contMode) {
+               contMode = true;
+            }
+            break;
+         default:
+            if(!contMode) {
+               return value.substring(0, index + 1);
+            }
+         }
+      }
+
+      return value.substring(0, index + 1);
+   }
+
+   public GenericType decreaseArrayDim() {
+      assert this.arrayDim > 0 : this;
+
+      return new GenericType(this.type, this.arrayDim - 1, this.value);
+   }
+
+   public List getArguments() {
+      return this.arguments;
+   }
+
+   public List getEnclosingClasses() {
+      return this.enclosingClasses;
+   }
+
+   public List getWildcards() {
+      return this.wildcards;
+   }
+}
@@ -0,0 +1,152 @@
+package regression.fernflower.struct.lazy;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import regression.fernflower.main.extern.IBytecodeProvider;
+import regression.fernflower.struct.StructMethod;
+import regression.fernflower.struct.consts.ConstantPool;
+import regression.fernflower.util.DataInputFullStream;
+
+public class LazyLoader {
+   private final Map mapClassLinks = new HashMap();
+   private final IBytecodeProvider provider;
+
+   public LazyLoader(IBytecodeProvider provider) {
+      this.provider = provider;
+   }
+
+   public void addClassLink(String classname, LazyLoader.Link link) {
+      this.mapClassLinks.put(classname, link);
+   }
+
+   public void removeClassLink(String classname) {
+      this.mapClassLinks.remove(classname);
+   }
+
+   public LazyLoader.Link getClassLink(String classname) {
+      return (LazyLoader.Link)this.mapClassLinks.get(classname);
+   }
+
+   public ConstantPool loadPool(String classname) {
+      try {
+         DataInputFullStream ex = this.getClassStream(classname);
+         if(ex == null) {
+            return null;
+         } else {
+            ConstantPool var3;
+            try {
+               ex.discard(8);
+               var3 = new ConstantPool(ex);
+            } finally {
+               ex.close();
+            }
+
+            return var3;
+         }
+      } catch (IOException var8) {
+         throw new RuntimeException(var8);
+      }
+   }
+
+   public byte[] loadBytecode(StructMethod mt, int codeFullLength) {
+      String className = mt.getClassStruct().qualifiedName;
+
+      try {
+         DataInputFullStream ex = this.getClassStream(className);
+         if(ex == null) {
+            return null;
+         } else {
+            try {
+               ex.discard(8);
+               ConstantPool pool = mt.getClassStruct().getPool();
+               if(pool == null) {
+                  pool = new ConstantPool(ex);
+               } else {
+                  ConstantPool.skipPool(ex);
+               }
+
+               ex.discard(6);
+               ex.discard(ex.readUnsignedShort() * 2);
+               int size = ex.readUnsignedShort();
+
+               int i;
+               for(i = 0; i < size; ++i) {
+                  ex.discard(6);
+                  skipAttributes(ex);
+               }
+
+               size = ex.readUnsignedShort();
+
+               for(i = 0; i < size; ++i) {
+                  ex.discard(2);
+                  int nameIndex = ex.readUnsignedShort();
+                  int descriptorIndex = ex.readUnsignedShort();
+                  String[] values = pool.getClassElement(2, className, nameIndex, descriptorIndex);
+                  if(mt.getName().equals(values[0]) && mt.getDescriptor().equals(values[1])) {
+                     int attrSize = ex.readUnsignedShort();
+
+                     for(int j = 0; j < attrSize; ++j) {
+                        int attrNameIndex = ex.readUnsignedShort();
+                        String attrName = pool.getPrimitiveConstant(attrNameIndex).getString();
+                        if("Code".equals(attrName)) {
+                           ex.discard(12);
+                           byte[] code = new byte[codeFullLength];
+                           ex.readFull(code);
+                           byte[] var16 = code;
+                           return var16;
+                        }
+
+                        ex.discard(ex.readInt());
+                     }
+
+                     return null;
+                  }
+
+                  skipAttributes(ex);
+               }
+
+               return null;
+            } finally {
+               ex.close();
+            }
+         }
+      } catch (IOException var21) {
+         throw new RuntimeException(var21);
+      }
+   }
+
+   public DataInputFullStream getClassStream(String externalPath, String internalPath) throws IOException {
+      byte[] bytes = this.provider.getBytecode(externalPath, internalPath);
+      return new DataInputFullStream(bytes);
+   }
+
+   public DataInputFullStream getClassStream(String qualifiedClassName) throws IOException {
+      LazyLoader.Link link = (LazyLoader.Link)this.mapClassLinks.get(qualifiedClassName);
+      return link == null ? null : this.getClassStream(link.externalPath, link.internalPath);
+   }
+
+   public static void skipAttributes(DataInputFullStream in) throws IOException {
+      int length = in.readUnsignedShort();
+
+      for(int i = 0; i < length; ++i) {
+         in.discard(2);
+         in.discard(in.readInt());
+      }
+
+   }
+
+   public static class Link {
+      public static final int CLASS = 1;
+      public static final int ENTRY = 2;
+      public int type;
+      public String externalPath;
+      public String internalPath;
+
+      public Link(int type, String externalPath, String internalPath) {
+         this.type = type;
+         this.externalPath = externalPath;
+         this.internalPath = internalPath;
+      }
+   }
+}
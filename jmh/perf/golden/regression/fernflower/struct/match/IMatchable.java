@@ -0,0 +1,33 @@
+package regression.fernflower.struct.match;
+
+public interface IMatchable {
+   IMatchable findObject(MatchNode var1, int var2);
+
+   boolean match(MatchNode var1, MatchEngine var2);
+
+   public static enum MatchProperties {
+      STATEMENT_TYPE,
+      STATEMENT_RET,
+      STATEMENT_STATSIZE,
+      STATEMENT_EXPRSIZE,
+      STATEMENT_POSITION,
+      STATEMENT_IFTYPE,
+      EXPRENT_TYPE,
+      EXPRENT_RET,
+      EXPRENT_POSITION,
+      EXPRENT_FUNCTYPE,
+      EXPRENT_EXITTYPE,
+      EXPRENT_CONSTTYPE,
+      EXPRENT_CONSTVALUE,
+      EXPRENT_INVOCATION_CLASS,
+      EXPRENT_INVOCATION_SIGNATURE,
+      EXPRENT_INVOCATION_PARAMETER,
+      EXPRENT_VAR_INDEX,
+      EXPRENT_FIELD_NAME;
+
+      // $FF: synthetic method
+      private static IMatchable.MatchProperties[] $values() {
+         return new IMatchable.MatchProperties[]{STATEMENT_TYPE, STATEMENT_RET, STATEMENT_STATSIZE, STATEMENT_EXPRSIZE, STATEMENT_POSITION, STATEMENT_IFTYPE, EXPRENT_TYPE, EXPRENT_RET, EXPRENT_POSITION, EXPRENT_FUNCTYPE, EXPRENT_EXITTYPE, EXPRENT_CONSTTYPE, EXPRENT_CONSTVALUE, EXPRENT_INVOCATION_CLASS, EXPRENT_INVOCATION_SIGNATURE, EXPRENT_INVOCATION_PARAMETER, EXPRENT_VAR_INDEX, EXPRENT_FIELD_NAME};
+      }
+   }
+}
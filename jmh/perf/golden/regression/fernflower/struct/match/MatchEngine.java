@@ -0,0 +1,210 @@
+package regression.fernflower.struct.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import regression.fernflower.struct.gen.VarType;
+
+public class MatchEngine {
+   private MatchNode rootNode = null;
+   private Map variables = new HashMap();
+   private static Map stat_properties = new HashMap();
+   private static Map expr_properties = new HashMap();
+   private static Map stat_type = new HashMap();
+   private static Map expr_type = new HashMap();
+   private static Map expr_func_type = new HashMap();
+   private static Map expr_exit_type = new HashMap();
+   private static Map stat_if_type = new HashMap();
+   private static Map expr_const_type = new HashMap();
+
+   public void parse(String description) {
+      String[] lines = description.split("\n");
+      int depth = 0;
+      LinkedList stack = new LinkedList();
+      String[] var5 = lines;
+      int var6 = lines.length;
+
+      for(int var7 = 0; var7 < var6; ++var7) {
+         String line = var5[var7];
+         ArrayList properties = new ArrayList(Arrays.asList(line.split("\\s+")));
+         if(((String)properties.get(0)).isEmpty()) {
+            properties.remove(0);
+         }
+
+         int node_type = "statement".equals(properties.get(0)) ? 0 : 1;
+         MatchNode matchNode = new MatchNode(node_type);
+
+         int new_depth;
+         for(new_depth = 1; new_depth < properties.size(); ++new_depth) {
+            String[] i = ((String)properties.get(new_depth)).split(":");
+            IMatchable.MatchProperties property = (IMatchable.MatchProperties)(node_type == 0 ? stat_properties : expr_properties).get(i[0]);
+            if(property == null) {
+               throw new RuntimeException("Unknown matching property");
+            }
+
+            Object value = null;
+            int parameter = 0;
+            String strValue = i[1];
+            if(i.length == 3) {
+               parameter = Integer.parseInt(i[1]);
+               strValue = i[2];
+            }
+
+            switch(null.$SwitchMap$regression$fernflower$struct$match$IMatchable$MatchProperties[property.ordinal()]) {
+            case 1:
+               value = stat_type.get(strValue);
+               break;
+            case 2:
+            case 3:
+               value = Integer.valueOf(strValue);
+               break;
+            case 4:
+            case 5:
+            case 6:
+            case 7:
+            case 8:
+            case 9:
+            case 10:
+            case 11:
+            case 12:
+            case 13:
+               value = strValue;
+               break;
+            case 14:
+               value = stat_if_type.get(strValue);
+               break;
+            case 15:
+               value = expr_func_type.get(strValue);
+               break;
+            case 16:
+               value = expr_exit_type.get(strValue);
+               break;
+            case 17:
+               value = expr_const_type.get(strValue);
+               break;
+            case 18:
+               value = expr_type.get(strValue);
+               break;
+            default:
+               throw new RuntimeException("Unhandled matching property");
+            }
+
+            matchNode.addRule(property, new MatchNode.RuleValue(parameter, value));
+         }
+
+         if(stack.isEmpty()) {
+            stack.push(matchNode);
+         } else {
+            new_depth = line.lastIndexOf(32, depth) + 1;
+
+            for(int var18 = new_depth; var18 <= depth; ++var18) {
+               stack.pop();
+            }
+
+            ((MatchNode)stack.getFirst()).addChild(matchNode);
+            stack.push(matchNode);
+            depth = new_depth;
+         }
+      }
+
+      this.rootNode = (MatchNode)stack.getLast();
+   }
+
+   public boolean match(IMatchable object) {
+      this.variables.clear();
+      return this.match(this.rootNode, object);
+   }
+
+   private boolean match(MatchNode matchNode, IMatchable object) {
+      if(!object.match(matchNode, this)) {
+         return false;
+      } else {
+         int expr_index = 0;
+         int stat_index = 0;
+         Iterator var5 = matchNode.getChildren().iterator();
+
+         while(var5.hasNext()) {
+            MatchNode childNode = (MatchNode)var5.next();
+            boolean isStatement = childNode.getType() == 0;
+            IMatchable childObject = object.findObject(childNode, isStatement ? stat_index : expr_index);
+            if(childObject == null || !this.match(childNode, childObject)) {
+               return false;
+            }
+
+            if(isStatement) {
+               ++stat_index;
+            } else {
+               ++expr_index;
+            }
+         }
+
+         return true;
+      }
+   }
+
+   public boolean checkAndSetVariableValue(String name, Object value) {
+      Object old_value = this.variables.get(name);
+      if(old_value == null) {
+         this.variables.put(name, value);
+      } else if(!old_value.equals(value)) {
+         return false;
+      }
+
+      return true;
+   }
+
+   public Object getVariableValue(String name) {
+      return this.variables.get(name);
+   }
+
+   static {
+      stat_properties.put("type", IMatchable.MatchProperties.STATEMENT_TYPE);
+      stat_properties.put("ret", IMatchable.MatchProperties.STATEMENT_RET);
+      stat_properties.put("position", IMatchable.MatchProperties.STATEMENT_POSITION);
+      stat_properties.put("statsize", IMatchable.MatchProperties.STATEMENT_STATSIZE);
+      stat_properties.put("exprsize", IMatchable.MatchProperties.STATEMENT_EXPRSIZE);
+      stat_properties.put("iftype", IMatchable.MatchProperties.STATEMENT_IFTYPE);
+      expr_properties.put("type", IMatchable.MatchProperties.EXPRENT_TYPE);
+      expr_properties.put("ret", IMatchable.MatchProperties.EXPRENT_RET);
+      expr_properties.put("position", IMatchable.MatchProperties.EXPRENT_POSITION);
+      expr_properties.put("functype", IMatchable.MatchProperties.EXPRENT_FUNCTYPE);
+      expr_properties.put("exittype", IMatchable.MatchProperties.EXPRENT_EXITTYPE);
+      expr_properties.put("consttype", IMatchable.MatchProperties.EXPRENT_CONSTTYPE);
+      expr_properties.put("constvalue", IMatchable.MatchProperties.EXPRENT_CONSTVALUE);
+      expr_properties.put("invclass", IMatchable.MatchProperties.EXPRENT_INVOCATION_CLASS);
+      expr_properties.put("signature", IMatchable.MatchProperties.EXPRENT_INVOCATION_SIGNATURE);
+      expr_properties.put("parameter", IMatchable.MatchProperties.EXPRENT_INVOCATION_PARAMETER);
+      expr_properties.put("index", IMatchable.MatchProperties.EXPRENT_VAR_INDEX);
+      expr_properties.put("name", IMatchable.MatchProperties.EXPRENT_FIELD_NAME);
+      stat_type.put("if", Integer.valueOf(2));
+      stat_type.put("do", Integer.valueOf(5));
+      stat_type.put("switch", Integer.valueOf(6));
+      stat_type.put("trycatch", Integer.valueOf(7));
+      stat_type.put("basicblock", Integer.valueOf(8));
+      stat_type.put("sequence", Integer.valueOf(15));
+      expr_type.put("array", Integer.valueOf(1));
+      expr_type.put("assignment", Integer.valueOf(2));
+      expr_type.put("constant", Integer.valueOf(3));
+      expr_type.put("exit", Integer.valueOf(4));
+      expr_type.put("field", Integer.valueOf(5));
+      expr_type.put("function", Integer.valueOf(6));
+      expr_type.put("if", Integer.valueOf(7));
+      expr_type.put("invocation", Integer.valueOf(8));
+      expr_type.put("monitor", Integer.valueOf(9));
+      expr_type.put("new", Integer.valueOf(10));
+      expr_type.put("switch", Integer.valueOf(11));
+      expr_type.put("var", Integer.valueOf(12));
+      expr_type.put("annotation", Integer.valueOf(13));
+      expr_type.put("assert", Integer.valueOf(14));
+      expr_func_type.put("eq", Integer.valueOf(42));
+      expr_exit_type.put("return", Integer.valueOf(0));
+      expr_exit_type.put("throw", Integer.valueOf(1));
+      stat_if_type.put("if", Integer.valueOf(0));
+      stat_if_type.put("ifelse", Integer.valueOf(1));
+      expr_const_type.put("null", VarType.VARTYPE_NULL);
+      expr_const_type.put("string", VarType.VARTYPE_STRING);
+   }
+}
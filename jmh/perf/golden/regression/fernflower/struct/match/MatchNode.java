@@ -0,0 +1,62 @@
+package regression.fernflower.struct.match;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MatchNode {
+   public static final int MATCHNODE_STATEMENT = 0;
+   public static final int MATCHNODE_EXPRENT = 1;
+   private int type;
+   private Map rules = new HashMap();
+   private List children = new ArrayList();
+
+   public MatchNode(int type) {
+      this.type = type;
+   }
+
+   public void addChild(MatchNode child) {
+      this.children.add(child);
+   }
+
+   public void addRule(IMatchable.MatchProperties property, MatchNode.RuleValue value) {
+      this.rules.put(property, value);
+   }
+
+   public int getType() {
+      return this.type;
+   }
+
+   public List getChildren() {
+      return this.children;
+   }
+
+   public Map getRules() {
+      return this.rules;
+   }
+
+   public Object getRuleValue(IMatchable.MatchProperties property) {
+      MatchNode.RuleValue rule = (MatchNode.RuleValue)this.rules.get(property);
+      return rule == null ? null : rule.value;
+   }
+
+   public static class RuleValue {
+      public int parameter;
+      public Object value;
+
+      public RuleValue(int parameter, Object value) {
+         this.parameter = parameter;
+         this.value = value;
+      }
+
+      public boolean isVariable() {
+         String strValue = this.value.toString();
+         return strValue.charAt(0) == 36 && strValue.charAt(strValue.length() - 1) == 36;
+      }
+
+      public String toString() {
+         return this.value.toString();
+      }
+   }
+}
@@ -0,0 +1,35 @@
+package regression.fernflower.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+public class DataInputFullStream extends DataInputStream {
+   public DataInputFullStream(byte[] bytes) {
+      super(new ByteArrayInputStream(bytes));
+   }
+
+   public int readFull(byte[] b) throws IOException {
+      int length = b.length;
+      byte[] temp = new byte[length];
+      int pos = 0;
+
+      do {
+         int bytes_read = this.read(temp, 0, length - pos);
+         if(bytes_read == -1) {
+            return -1;
+         }
+
+         System.arraycopy(temp, 0, b, pos, bytes_read);
+         pos += bytes_read;
+      } while(pos != length);
+
+      return length;
+   }
+
+   public void discard(int n) throws IOException {
+      if(super.skip((long)n) != (long)n) {
+         throw new IOException("Skip failed");
+      }
+   }
+}
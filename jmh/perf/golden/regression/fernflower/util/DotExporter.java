@@ -0,0 +1,606 @@
+package regression.fernflower.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import regression.fernflower.code.cfg.BasicBlock;
+import regression.fernflower.code.cfg.ControlFlowGraph;
+import regression.fernflower.code.cfg.ExceptionRangeCFG;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+import regression.fernflower.modules.decompiler.StatEdge;
+import regression.fernflower.modules.decompiler.sforms.DirectGraph;
+import regression.fernflower.modules.decompiler.sforms.DirectNode;
+import regression.fernflower.modules.decompiler.stats.BasicBlockStatement;
+import regression.fernflower.modules.decompiler.stats.IfStatement;
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+import regression.fernflower.modules.decompiler.vars.VarVersionEdge;
+import regression.fernflower.modules.decompiler.vars.VarVersionNode;
+import regression.fernflower.modules.decompiler.vars.VarVersionsGraph;
+import regression.fernflower.struct.StructMethod;
+
+public class DotExporter {
+   private static final String DOTS_FOLDER = System.getProperty("DOT_EXPORT_DIR", (String)null);
+   private static final String DOTS_ERROR_FOLDER = System.getProperty("DOT_ERROR_EXPORT_DIR", (String)null);
+   public static final boolean DUMP_DOTS = DOTS_FOLDER != null && !DOTS_FOLDER.trim().isEmpty();
+   public static final boolean DUMP_ERROR_DOTS = DOTS_ERROR_FOLDER != null && !DOTS_ERROR_FOLDER.trim().isEmpty();
+
+   private static String statToDot(Statement stat, String name) {
+      StringBuffer buffer = new StringBuffer();
+      ArrayList subgraph = new ArrayList();
+      HashSet visitedNodes = new HashSet();
+      HashSet exits = new HashSet();
+      HashSet referenced = new HashSet();
+      buffer.append("digraph " + name + " {\r\n");
+      ArrayList stats = new ArrayList();
+      stats.add(stat);
+      findAllStats(stats, stat);
+      Statement exit = null;
+      if(stat.type == 13) {
+         exit = ((RootStatement)stat).getDummyExit();
+      }
+
+      HashMap extraData = new HashMap();
+      Iterator var10 = stats.iterator();
+
+      Statement s;
+      while(var10.hasNext()) {
+         s = (Statement)var10.next();
+         if(s.type == 2) {
+            IfStatement sourceId = (IfStatement)s;
+            if(sourceId.getIfEdge() != null) {
+               extraData.put(sourceId.getIfEdge(), "If Edge");
+            }
+
+            if(sourceId.getElseEdge() != null) {
+               extraData.put(sourceId.getElseEdge(), "Else Edge");
+            }
+         }
+      }
+
+      var10 = stats.iterator();
+
+      while(true) {
+         while(var10.hasNext()) {
+            s = (Statement)var10.next();
+            String sourceId1 = s.id + (s.getSuccessorEdges(2).isEmpty() ? "" : "000000");
+            boolean edges = false;
+
+            Iterator foundFirst;
+            StatEdge isIf;
+            String foundIf;
+            String foundElse;
+            Iterator node;
+            String node1;
+            for(foundFirst = s.getSuccessorEdges(Integer.MIN_VALUE).iterator(); foundFirst.hasNext(); edges = true) {
+               isIf = (StatEdge)foundFirst.next();
+               foundIf = isIf.getDestination().id + (isIf.getDestination().getSuccessorEdges(2).isEmpty() ? "" : "000000");
+               foundElse = getEdgeType(isIf);
+               node = extraData.entrySet().iterator();
+
+               while(node.hasNext()) {
+                  Entry s1 = (Entry)node.next();
+                  if(isIf.getSource().id.equals(((StatEdge)s1.getKey()).getSource().id) && isIf.getDestination().id.equals(((StatEdge)s1.getKey()).getDestination().id)) {
+                     foundElse = foundElse == null ? (String)s1.getValue() : foundElse + " (" + (String)s1.getValue() + ")";
+                  }
+               }
+
+               buffer.append(sourceId1 + "->" + foundIf + (foundElse != null ? "[label=\"" + foundElse + "\"]" : "") + ";\r\n");
+               if(isIf.closure != null) {
+                  node1 = isIf.closure.id + (isIf.getDestination().getSuccessorEdges(2).isEmpty() ? "" : "000000");
+                  buffer.append(sourceId1 + "->" + node1 + " [arrowhead=diamond,label=\"Closure\"];\r\n");
+               }
+
+               if(isIf.getType() == 32 || isIf.getType() == 4) {
+                  exits.add(isIf.getDestination().id);
+               }
+
+               referenced.add(isIf.getDestination().id);
+            }
+
+            for(foundFirst = s.getLabelEdges().iterator(); foundFirst.hasNext(); buffer.append(foundIf + "->" + foundElse + " [color=orange,label=\"Label Edge (" + node1 + ") (Contained by " + s.id + ")\"];\r\n")) {
+               isIf = (StatEdge)foundFirst.next();
+               foundIf = isIf.getSource().id + (isIf.getSource().getSuccessorEdges(2).isEmpty() ? "" : "000000");
+               foundElse = isIf.getDestination().id + (isIf.getDestination().getSuccessorEdges(2).isEmpty() ? "" : "000000");
+               node1 = "";
+               if(isIf.labeled) {
+                  node1 = node1 + "Labeled";
+               }
+
+               if(isIf.labeled && isIf.explicit) {
+                  node1 = node1 + ", ";
+               }
+
+               if(isIf.explicit) {
+                  node1 = node1 + "Explicit";
+               }
+            }
+
+            foundFirst = s.getNeighbours(Integer.MIN_VALUE, 1).iterator();
+
+            while(foundFirst.hasNext()) {
+               Statement isIf1 = (Statement)foundFirst.next();
+               foundIf = isIf1.id + (isIf1.getSuccessorEdges(2).isEmpty() ? "" : "000000");
+               buffer.append(sourceId1 + "->" + foundIf + " [arrowhead=tee,color=purple];\r\n");
+            }
+
+            for(foundFirst = s.getPredecessorEdges(Integer.MIN_VALUE).iterator(); foundFirst.hasNext(); edges = true) {
+               isIf = (StatEdge)foundFirst.next();
+               foundIf = isIf.getSource().id + (isIf.getSource().getSuccessorEdges(2).isEmpty() ? "" : "000000");
+               foundElse = getEdgeType(isIf);
+               buffer.append(sourceId1 + "->" + foundIf + "[color=blue" + (foundElse != null ? ",fontcolor=blue,label=\"" + foundElse + "\"" : "") + "];\r\n");
+               referenced.add(isIf.getSource().id);
+            }
+
+            for(foundFirst = s.getSuccessorEdges(2).iterator(); foundFirst.hasNext(); edges = true) {
+               isIf = (StatEdge)foundFirst.next();
+               foundIf = isIf.getDestination().id + (isIf.getDestination().getSuccessorEdges(2).isEmpty() ? "" : "000000");
+               buffer.append(sourceId1 + " -> " + foundIf + " [style=dotted];\r\n");
+               referenced.add(isIf.getDestination().id);
+            }
+
+            boolean foundFirst1 = false;
+            boolean isIf2 = s.type == 2;
+            boolean foundIf1 = false;
+            boolean foundElse1 = false;
+            node = s.getStats().iterator();
+
+            while(node.hasNext()) {
+               Statement s4 = (Statement)node.next();
+               String destId = s4.id + (s4.getSuccessorEdges(2).isEmpty() ? "" : "000000");
+               String label = "";
+               if(s4 == s.getFirst()) {
+                  label = "First";
+                  foundFirst1 = true;
+               }
+
+               if(s.type == 2) {
+                  IfStatement ifs = (IfStatement)s;
+                  if(s4 == ifs.getIfstat()) {
+                     label = "If stat";
+                     foundIf1 = true;
+                  }
+
+                  if(s4 == ifs.getElsestat()) {
+                     label = "Else stat";
+                     foundElse1 = true;
+                  }
+               }
+
+               buffer.append(sourceId1 + " -> " + destId + " [arrowhead=vee,color=red" + (!label.equals("") ? ",fontcolor=red,label=\"" + label + "\"" : "") + "];\r\n");
+               referenced.add(s4.id);
+            }
+
+            if(!foundFirst1 && s.getFirst() != null) {
+               node1 = s.getFirst().id + (s.getFirst().getSuccessorEdges(2).isEmpty() ? "" : "000000");
+               buffer.append(sourceId1 + "->" + node1 + " [arrowhead=vee,color=red,fontcolor=red,label=\"Dangling First statement!\"];\r\n");
+            }
+
+            if(isIf2) {
+               if(!foundIf1 && ((IfStatement)s).getIfstat() != null) {
+                  node1 = ((IfStatement)s).getIfstat().id + (s.getFirst().getSuccessorEdges(2).isEmpty() ? "" : "000000");
+                  buffer.append(sourceId1 + "->" + node1 + " [arrowhead=vee,color=red,fontcolor=red,label=\"Dangling If statement!\"];\r\n");
+               }
+
+               if(!foundElse1 && ((IfStatement)s).getElsestat() != null) {
+                  node1 = ((IfStatement)s).getElsestat().id + (((IfStatement)s).getElsestat().getSuccessorEdges(2).isEmpty() ? "" : "000000");
+                  buffer.append(sourceId1 + "->" + node1 + " [arrowhead=vee,color=red,fontcolor=red,label=\"Dangling Else statement!\"];\r\n");
+               }
+            }
+
+            visitedNodes.add(s.id);
+            node1 = sourceId1 + " [shape=box,label=\"" + s.id + " (" + getStatType(s) + ")\r\n" + toJava(s) + "\"" + (s == stat ? ",color=red" : "") + "];\r\n";
+            if(!edges && s != stat) {
+               subgraph.add(node1);
+            } else {
+               buffer.append(node1);
+            }
+         }
+
+         if(exit != null) {
+            buffer.append(exit.id + " [color=green,label=\"" + exit.id + " (Canonical Return)\"];\r\n");
+            referenced.remove(exit.id);
+         }
+
+         referenced.removeAll(visitedNodes);
+         var10 = referenced.iterator();
+
+         while(var10.hasNext()) {
+            Integer s2 = (Integer)var10.next();
+            buffer.append(s2 + " [color=red,label=\"" + s2 + " (Unknown statement!)\"];\r\n");
+         }
+
+         if(subgraph.size() > 0) {
+            buffer.append("subgraph cluster_non_parented {\r\n\tlabel=\"Isolated statements\";\r\n");
+            var10 = subgraph.iterator();
+
+            while(var10.hasNext()) {
+               String s3 = (String)var10.next();
+               buffer.append("\t" + s3);
+            }
+
+            buffer.append("\t}\r\n");
+         }
+
+         buffer.append("}");
+         return buffer.toString();
+      }
+   }
+
+   private static String statementHierarchy(Statement stat) {
+      StringBuffer buffer = new StringBuffer();
+      buffer.append("digraph G {\r\n");
+      buffer.append("subgraph cluster_root {\r\n");
+      buffer.append(stat.id + " [shape=box,label=\"" + stat.id + " (" + getStatType(stat) + ")\r\n" + toJava(stat) + "\"];\r\n");
+      recursivelyGraphStatement(buffer, stat);
+      buffer.append("}\r\n");
+      buffer.append("}");
+      return buffer.toString();
+   }
+
+   private static void recursivelyGraphStatement(StringBuffer buffer, Statement statement) {
+      buffer.append("subgraph cluster_" + statement.id + " {\r\n");
+      buffer.append("label=\"" + statement.id + " (" + getStatType(statement) + ")\r\n" + toJava(statement) + "\";\r\n");
+      Iterator var2 = statement.getStats().iterator();
+
+      while(var2.hasNext()) {
+         Statement stat = (Statement)var2.next();
+         buffer.append(stat.id + " [shape=box,label=\"" + stat.id + " (" + getStatType(stat) + ")\r\n" + toJava(stat) + "\"];\r\n");
+         recursivelyGraphStatement(buffer, stat);
+      }
+
+      buffer.append("}\r\n");
+   }
+
+   private static String toJava(Statement statement) {
+      try {
+         String e = statement.toJava().toString().replace("\"", "\\\"");
+         if(statement instanceof BasicBlockStatement && (statement.getExprents() == null || statement.getExprents().isEmpty())) {
+            e = "<" + (statement.getExprents() == null ? "null" : "empty") + " basic block>\n" + e;
+         }
+
+         return e;
+      } catch (Exception var2) {
+         return "Could not get content";
+      }
+   }
+
+   private static String getEdgeType(StatEdge edge) {
+      switch(edge.getType()) {
+      case 1:
+         return null;
+      case 2:
+         return "Exception";
+      case 4:
+         return "Break";
+      case 8:
+         return "Continue";
+      case 32:
+         return "Finally Exit";
+      default:
+         return "Unknown Edge (composite?)";
+      }
+   }
+
+   private static String getStatType(Statement st) {
+      switch(st.type) {
+      case 0:
+         return "General";
+      case 1:
+      case 3:
+      case 4:
+      case 9:
+      default:
+         return "Unknown";
+      case 2:
+         return "If";
+      case 5:
+         return "Do";
+      case 6:
+         return "Switch";
+      case 7:
+         return "Try Catch";
+      case 8:
+         return "Basic Block #" + ((BasicBlockStatement)st).getBlock().id;
+      case 10:
+         return "Synchronized";
+      case 11:
+         return "Placeholder";
+      case 12:
+         return "Catch All";
+      case 13:
+         return "Root";
+      case 14:
+         return "Dummy Exit";
+      case 15:
+         return "Sequence";
+      }
+   }
+
+   private static void findAllStats(List list, Statement root) {
+      Statement stat;
+      for(Iterator var2 = root.getStats().iterator(); var2.hasNext(); findAllStats(list, stat)) {
+         stat = (Statement)var2.next();
+         if(!list.contains(stat)) {
+            list.add(stat);
+         }
+
+         if(stat.type == 2) {
+            IfStatement ifs = (IfStatement)stat;
+            if(ifs.getIfstat() != null && !list.contains(ifs.getIfstat())) {
+               list.add(ifs.getIfstat());
+            }
+
+            if(ifs.getElsestat() != null && !list.contains(ifs.getElsestat())) {
+               list.add(ifs.getElsestat());
+            }
+         }
+      }
+
+   }
+
+   private static String cfgToDot(String name, ControlFlowGraph graph, boolean showMultipleEdges) {
+      StringBuffer buffer = new StringBuffer();
+      buffer.append("digraph " + name + " {\r\n");
+      VBStyleCollection blocks = graph.getBlocks();
+      Iterator i = blocks.iterator();
+
+      while(i.hasNext()) {
+         BasicBlock ex = (BasicBlock)i.next();
+         buffer.append(ex.id + " [shape=box,label=\"Block " + ex.id + "\n" + ex.getSeq() + "\"];\r\n");
+         List suc = ex.getSuccs();
+         List bb = ex.getPreds();
+         Iterator j = suc.iterator();
+
+         while(j.hasNext()) {
+            BasicBlock basicBlock = (BasicBlock)j.next();
+            buffer.append(ex.id + " -> " + basicBlock.id + ";\r\n");
+         }
+
+         suc = ex.getSuccExceptions();
+         bb = ex.getPredExceptions();
+
+         for(int var15 = 0; var15 < suc.size(); ++var15) {
+            buffer.append(ex.id + " -> " + ((BasicBlock)suc.get(var15)).id + " [style=dotted];\r\n");
+         }
+      }
+
+      for(int var11 = 0; var11 < graph.getExceptions().size(); ++var11) {
+         ExceptionRangeCFG var12 = (ExceptionRangeCFG)graph.getExceptions().get(var11);
+         buffer.append("subgraph cluster_ex_" + var11 + " {\r\n\tlabel=\"Exception range for Block " + var12.getHandler().id + " \";\r\n");
+         Iterator var13 = var12.getProtectedRange().iterator();
+
+         while(var13.hasNext()) {
+            BasicBlock var14 = (BasicBlock)var13.next();
+            buffer.append("\t" + var14.id + ";\r\n");
+         }
+
+         buffer.append("\t}\r\n");
+      }
+
+      buffer.append("}");
+      return buffer.toString();
+   }
+
+   private static String varsToDot(VarVersionsGraph graph) {
+      StringBuffer buffer = new StringBuffer();
+      buffer.append("digraph G {\r\n");
+      VBStyleCollection blocks = graph.nodes;
+
+      for(int i = 0; i < blocks.size(); ++i) {
+         VarVersionNode block = (VarVersionNode)blocks.get(i);
+         buffer.append(block.var * 1000 + block.version + " [shape=box,label=\"" + block.var + "_" + block.version + "\"];\r\n");
+         Iterator var5 = block.succs.iterator();
+
+         while(var5.hasNext()) {
+            VarVersionEdge edge = (VarVersionEdge)var5.next();
+            VarVersionNode dest = edge.dest;
+            buffer.append(block.var * 1000 + block.version + "->" + (dest.var * 1000 + dest.version) + (edge.type == 1 ? " [style=dotted]" : "") + ";\r\n");
+         }
+      }
+
+      buffer.append("}");
+      return buffer.toString();
+   }
+
+   private static String digraphToDot(DirectGraph graph, Map vars) {
+      StringBuffer buffer = new StringBuffer();
+      buffer.append("digraph G {\r\n");
+      VBStyleCollection blocks = graph.nodes;
+
+      for(int i = 0; i < blocks.size(); ++i) {
+         DirectNode block = (DirectNode)blocks.get(i);
+         StringBuilder label = new StringBuilder(block.id + " in statement " + block.statement.id + " " + getStatType(block.statement));
+         label.append("\\n");
+         label.append(block.block != null ? toJava(block.block) : "null block");
+         if(block.block == null) {
+            TextBuffer map = ExprProcessor.listToJava(block.exprents, 0, new BytecodeMappingTracer());
+            label.append("\\n");
+            label.append(map.toString());
+         }
+
+         if(vars != null && vars.containsKey(block.id)) {
+            SFormsFastMapDirect var12 = (SFormsFastMapDirect)vars.get(block.id);
+            List dest = var12.entryList();
+            if(dest != null) {
+               Iterator var9 = dest.iterator();
+
+               while(var9.hasNext()) {
+                  Entry entry = (Entry)var9.next();
+                  label.append("\\n").append(entry.getKey());
+                  Set set = ((FastSparseSetFactory.FastSparseSet)entry.getValue()).toPlainSet();
+                  label.append("=").append(set.toString());
+               }
+            }
+         }
+
+         buffer.append(block.id + " [shape=box,label=\"" + label + "\"];\r\n");
+         Iterator var13 = block.succs.iterator();
+
+         while(var13.hasNext()) {
+            DirectNode var14 = (DirectNode)var13.next();
+            buffer.append(block.id + "->" + var14.id + ";\r\n");
+         }
+      }
+
+      buffer.append("}");
+      return buffer.toString();
+   }
+
+   private static File getFile(String folder, StructMethod mt, String suffix) {
+      return getFile(folder, mt, "", suffix);
+   }
+
+   private static File getFile(String folder, StructMethod mt, String subdirectory, String suffix) {
+      File root = new File(folder + mt.getClassStruct().qualifiedName + (subdirectory.isEmpty() ? "" : "/" + subdirectory));
+      if(!root.isDirectory()) {
+         root.mkdirs();
+      }
+
+      return new File(root, mt.getName().replace('<', '.').replace('>', '_') + mt.getDescriptor().replace('/', '.') + '_' + suffix + ".dot");
+   }
+
+   private static File getFile(String folder, String name) {
+      File root = new File(folder);
+      if(!root.isDirectory()) {
+         root.mkdirs();
+      }
+
+      return new File(root, name + ".dot");
+   }
+
+   public static void toDotFile(DirectGraph dgraph, StructMethod mt, String suffix) {
+      toDotFile((DirectGraph)dgraph, mt, suffix, (Map)null);
+   }
+
+   public static void toDotFile(DirectGraph dgraph, StructMethod mt, String suffix, Map vars) {
+      if(DUMP_DOTS) {
+         try {
+            BufferedOutputStream e = new BufferedOutputStream(new FileOutputStream(getFile(DOTS_FOLDER, mt, suffix)));
+            e.write(digraphToDot(dgraph, vars).getBytes());
+            e.close();
+         } catch (Exception var5) {
+            var5.printStackTrace();
+         }
+
+      }
+   }
+
+   public static void toDotFile(Statement stat, StructMethod mt, String suffix) {
+      toDotFile(stat, mt, "", suffix);
+   }
+
+   public static void toDotFile(Statement stat, StructMethod mt, String subdirectory, String suffix) {
+      if(DUMP_DOTS) {
+         try {
+            BufferedOutputStream e = new BufferedOutputStream(new FileOutputStream(getFile(DOTS_FOLDER, mt, subdirectory, suffix)));
+            e.write(statToDot(stat, suffix).getBytes());
+            e.close();
+         } catch (Exception var5) {
+            var5.printStackTrace();
+         }
+
+      }
+   }
+
+   public static void statementHierarchyToDot(Statement stat, StructMethod mt, String suffix) {
+      if(DUMP_DOTS) {
+         try {
+            BufferedOutputStream e = new BufferedOutputStream(new FileOutputStream(getFile(DOTS_FOLDER, mt, suffix)));
+            e.write(statementHierarchy(stat).getBytes());
+            e.close();
+         } catch (Exception var4) {
+            var4.printStackTrace();
+         }
+
+      }
+   }
+
+   public static void toDotFile(Statement stat, String name) {
+      if(DUMP_DOTS) {
+         try {
+            BufferedOutputStream e = new BufferedOutputStream(new FileOutputStream(getFile(DOTS_FOLDER, name)));
+            e.write(statToDot(stat, name).getBytes());
+            e.close();
+         } catch (Exception var3) {
+            var3.printStackTrace();
+         }
+
+      }
+   }
+
+   public static void errorToDotFile(Statement stat, StructMethod mt, String suffix) {
+      if(DUMP_ERROR_DOTS) {
+         try {
+            BufferedOutputStream e = new BufferedOutputStream(new FileOutputStream(getFile(DOTS_ERROR_FOLDER, mt, suffix)));
+            e.write(statToDot(stat, suffix).getBytes());
+            e.close();
+         } catch (Exception var4) {
+            var4.printStackTrace();
+         }
+
+      }
+   }
+
+   public static void errorToDotFile(Statement stat, String name) {
+      if(DUMP_ERROR_DOTS) {
+         try {
+            BufferedOutputStream e = new BufferedOutputStream(new FileOutputStream(getFile(DOTS_ERROR_FOLDER, name)));
+            e.write(statToDot(stat, name).getBytes());
+            e.close();
+         } catch (Exception var3) {
+            var3.printStackTrace();
+         }
+
+      }
+   }
+
+   public static void toDotFile(VarVersionsGraph graph, StructMethod mt, String suffix) {
+      if(DUMP_DOTS) {
+         try {
+            BufferedOutputStream e = new BufferedOutputStream(new FileOutputStream(getFile(DOTS_FOLDER, mt, suffix)));
+            e.write(varsToDot(graph).getBytes());
+            e.close();
+         } catch (Exception var4) {
+            var4.printStackTrace();
+         }
+
+      }
+   }
+
+   public static void toDotFile(ControlFlowGraph graph, StructMethod mt, String suffix, boolean showMultipleEdges) {
+      if(DUMP_DOTS) {
+         try {
+            BufferedOutputStream e = new BufferedOutputStream(new FileOutputStream(getFile(DOTS_FOLDER, mt, suffix)));
+            e.write(cfgToDot(suffix, graph, showMultipleEdges).getBytes());
+            e.close();
+         } catch (Exception var5) {
+            var5.printStackTrace();
+         }
+
+      }
+   }
+
+   public static void errorToDotFile(ControlFlowGraph graph, StructMethod mt, String suffix) {
+      if(DUMP_ERROR_DOTS) {
+         try {
+            BufferedOutputStream e = new BufferedOutputStream(new FileOutputStream(getFile(DOTS_ERROR_FOLDER, mt, suffix)));
+            e.write(cfgToDot(suffix, graph, true).getBytes());
+            e.close();
+         } catch (Exception var4) {
+            var4.printStackTrace();
+         }
+
+      }
+   }
+}
@@ -0,0 +1,352 @@
+package regression.fernflower.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+public class FastFixedSetFactory {
+   private VBStyleCollection colValuesInternal = new VBStyleCollection();
+   private int dataLength;
+
+   public FastFixedSetFactory(Collection set) {
+      this.dataLength = set.size() / 32 + 1;
+      int index = 0;
+      int mask = 1;
+
+      for(Iterator var4 = set.iterator(); var4.hasNext(); mask <<= 1) {
+         Object element = var4.next();
+         int block = index / 32;
+         if(index % 32 == 0) {
+            mask = 1;
+         }
+
+         this.colValuesInternal.putWithKey(new int[]{block, mask}, element);
+         ++index;
+      }
+
+   }
+
+   public FastFixedSetFactory.FastFixedSet spawnEmptySet() {
+      return new FastFixedSetFactory.FastFixedSet(this, null);
+   }
+
+   private int getDataLength() {
+      return this.dataLength;
+   }
+
+   private VBStyleCollection getInternalValuesCollection() {
+      return this.colValuesInternal;
+   }
+
+   public FastFixedSetFactory.FastFixedSet createEmptySet() {
+      return new FastFixedSetFactory.FastFixedSet(this, null);
+   }
+
+   public static class FastFixedSet implements Iterable {
+      private FastFixedSetFactory factory;
+      private VBStyleCollection colValuesInternal;
+      private int[] data;
+
+      private FastFixedSet(FastFixedSetFactory factory) {
+         this.factory = factory;
+         this.colValuesInternal = factory.getInternalValuesCollection();
+         this.data = new int[factory.getDataLength()];
+      }
+
+      public FastFixedSetFactory.FastFixedSet getCopy() {
+         FastFixedSetFactory.FastFixedSet copy = new FastFixedSetFactory.FastFixedSet(this.factory);
+         int arrlength = this.data.length;
+         int[] cpdata = new int[arrlength];
+         System.arraycopy(this.data, 0, cpdata, 0, arrlength);
+         copy.setData(cpdata);
+         return copy;
+      }
+
+      public void setAllElements() {
+         int[] lastindex = (int[])this.colValuesInternal.get(this.colValuesInternal.size() - 1);
+
+         for(int i = lastindex[0] - 1; i >= 0; --i) {
+            this.data[i] = -1;
+         }
+
+         this.data[lastindex[0]] = lastindex[1] | lastindex[1] - 1;
+      }
+
+      public void add(Object element) {
+         int[] index = (int[])this.colValuesInternal.getWithKey(element);
+         this.data[index[0]] |= index[1];
+      }
+
+      public void addAll(Collection set) {
+         Iterator var2 = set.iterator();
+
+         while(var2.hasNext()) {
+            Object element = var2.next();
+            this.add(element);
+         }
+
+      }
+
+      public void remove(Object element) {
+         int[] index = (int[])this.colValuesInternal.getWithKey(element);
+         this.data[index[0]] &= ~index[1];
+      }
+
+      public void removeAll(Collection set) {
+         Iterator var2 = set.iterator();
+
+         while(var2.hasNext()) {
+            Object element = var2.next();
+            this.remove(element);
+         }
+
+      }
+
+      public boolean contains(Object element) {
+         int[] index = (int[])this.colValuesInternal.getWithKey(element);
+         return (this.data[index[0]] & index[1]) != 0;
+      }
+
+      public boolean contains(FastFixedSetFactory.FastFixedSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            if((extdata[i] & ~intdata[i]) != 0) {
+               return false;
+            }
+         }
+
+         return true;
+      }
+
+      public void union(FastFixedSetFactory.FastFixedSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            intdata[i] |= extdata[i];
+         }
+
+      }
+
+      public void intersection(FastFixedSetFactory.FastFixedSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            intdata[i] &= extdata[i];
+         }
+
+      }
+
+      public void symdiff(FastFixedSetFactory.FastFixedSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            intdata[i] ^= extdata[i];
+         }
+
+      }
+
+      public void complement(FastFixedSetFactory.FastFixedSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            intdata[i] &= ~extdata[i];
+         }
+
+      }
+
+      public boolean equals(Object o) {
+         if(o == this) {
+            return true;
+         } else if(o != null && o instanceof FastFixedSetFactory.FastFixedSet) {
+            int[] extdata = ((FastFixedSetFactory.FastFixedSet)o).getData();
+            int[] intdata = this.data;
+
+            for(int i = intdata.length - 1; i >= 0; --i) {
+               if(intdata[i] != extdata[i]) {
+                  return false;
+               }
+            }
+
+            return true;
+         } else {
+            return false;
+         }
+      }
+
+      public boolean isEmpty() {
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            if(intdata[i] != 0) {
+               return false;
+            }
+         }
+
+         return true;
+      }
+
+      public Iterator iterator() {
+         return new FastFixedSetFactory.FastFixedSetIterator(this, null);
+      }
+
+      public Set toPlainSet() {
+         return (Set)this.toPlainCollection(new HashSet());
+      }
+
+      public List toPlainList() {
+         return (List)this.toPlainCollection(new ArrayList());
+      }
+
+      private Collection toPlainCollection(Collection cl) {
+         int[] intdata = this.data;
+
+         for(int bindex = 0; bindex < intdata.length; ++bindex) {
+            int block = intdata[bindex];
+            if(block != 0) {
+               int index = bindex << 5;
+
+               for(int i = 31; i >= 0; --i) {
+                  if((block & 1) != 0) {
+                     cl.add(this.colValuesInternal.getKey(index));
+                  }
+
+                  ++index;
+                  block >>>= 1;
+               }
+            }
+         }
+
+         return cl;
+      }
+
+      public String toBinary() {
+         StringBuilder buffer = new StringBuilder();
+         int[] intdata = this.data;
+
+         for(int i = 0; i < intdata.length; ++i) {
+            buffer.append(" ").append(Integer.toBinaryString(intdata[i]));
+         }
+
+         return buffer.toString();
+      }
+
+      public String toString() {
+         StringBuilder buffer = new StringBuilder("{");
+         int[] intdata = this.data;
+         boolean first = true;
+
+         for(int i = this.colValuesInternal.size() - 1; i >= 0; --i) {
+            int[] index = (int[])this.colValuesInternal.get(i);
+            if((intdata[index[0]] & index[1]) != 0) {
+               if(first) {
+                  first = false;
+               } else {
+                  buffer.append(",");
+               }
+
+               buffer.append(this.colValuesInternal.getKey(i));
+            }
+         }
+
+         buffer.append("}");
+         return buffer.toString();
+      }
+
+      private int[] getData() {
+         return this.data;
+      }
+
+      private void setData(int[] data) {
+         this.data = data;
+      }
+
+      public FastFixedSetFactory getFactory() {
+         return this.factory;
+      }
+
+      // $FF: synthetic method
+      FastFixedSet(FastFixedSetFactory x0, Object x1) {
+         this(x0);
+      }
+   }
+
+   public static class FastFixedSetIterator implements Iterator {
+      private VBStyleCollection colValuesInternal;
+      private int[] data;
+      private int size;
+      private int pointer;
+      private int next_pointer;
+
+      private FastFixedSetIterator(FastFixedSetFactory.FastFixedSet set) {
+         this.pointer = -1;
+         this.next_pointer = -1;
+         this.colValuesInternal = set.getFactory().getInternalValuesCollection();
+         this.data = set.getData();
+         this.size = this.colValuesInternal.size();
+      }
+
+      private int getNextIndex(int index) {
+         ++index;
+         int ret = index;
+         int bindex = index / 32;
+
+         for(int dindex = index % 32; bindex < this.data.length; ++bindex) {
+            int block = this.data[bindex];
+            if(block != 0) {
+               for(block >>>= dindex; dindex < 32; ++ret) {
+                  if((block & 1) != 0) {
+                     return ret;
+                  }
+
+                  block >>>= 1;
+                  ++dindex;
+               }
+            } else {
+               ret += 32 - dindex;
+            }
+
+            dindex = 0;
+         }
+
+         return -1;
+      }
+
+      public boolean hasNext() {
+         this.next_pointer = this.getNextIndex(this.pointer);
+         return this.next_pointer >= 0;
+      }
+
+      public Object next() {
+         if(this.next_pointer >= 0) {
+            this.pointer = this.next_pointer;
+         } else {
+            this.pointer = this.getNextIndex(this.pointer);
+            if(this.pointer == -1) {
+               this.pointer = this.size;
+            }
+         }
+
+         this.next_pointer = -1;
+         return this.pointer < this.size ? this.colValuesInternal.getKey(this.pointer) : null;
+      }
+
+      public void remove() {
+         int[] index = (int[])this.colValuesInternal.get(this.pointer);
+         this.data[index[0]] &= ~index[1];
+      }
+
+      // $FF: synthetic method
+      FastFixedSetIterator(FastFixedSetFactory.FastFixedSet x0, Object x1) {
+         this(x0);
+      }
+   }
+}
@@ -0,0 +1,462 @@
+package regression.fernflower.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+public class FastSetFactory {
+   private VBStyleCollection colValuesInternal = new VBStyleCollection();
+   private int lastBlock;
+   private int lastMask;
+
+   public FastSetFactory(Collection set) {
+      int block = -1;
+      int mask = -1;
+      int index = 0;
+
+      for(Iterator var5 = set.iterator(); var5.hasNext(); ++index) {
+         Object element = var5.next();
+         block = index / 32;
+         if(index % 32 == 0) {
+            mask = 1;
+         } else {
+            mask <<= 1;
+         }
+
+         this.colValuesInternal.putWithKey(new int[]{block, mask}, element);
+      }
+
+      this.lastBlock = block;
+      this.lastMask = mask;
+   }
+
+   private int[] addElement(Object element) {
+      if(this.lastMask != -1 && this.lastMask != Integer.MIN_VALUE) {
+         this.lastMask <<= 1;
+      } else {
+         this.lastMask = 1;
+         ++this.lastBlock;
+      }
+
+      int[] pointer = new int[]{this.lastBlock, this.lastMask};
+      this.colValuesInternal.putWithKey(pointer, element);
+      return pointer;
+   }
+
+   public FastSetFactory.FastSet spawnEmptySet() {
+      return new FastSetFactory.FastSet(this, null);
+   }
+
+   public int getLastBlock() {
+      return this.lastBlock;
+   }
+
+   public int getLastMask() {
+      return this.lastMask;
+   }
+
+   private VBStyleCollection getInternalValuesCollection() {
+      return this.colValuesInternal;
+   }
+
+   public static class FastSet implements Iterable {
+      private FastSetFactory factory;
+      private VBStyleCollection colValuesInternal;
+      private int[] data;
+
+      private FastSet(FastSetFactory factory) {
+         this.factory = factory;
+         this.colValuesInternal = factory.getInternalValuesCollection();
+         this.data = new int[factory.getLastBlock() + 1];
+      }
+
+      public FastSetFactory.FastSet getCopy() {
+         FastSetFactory.FastSet copy = new FastSetFactory.FastSet(this.factory);
+         int arrlength = this.data.length;
+         int[] cpdata = new int[arrlength];
+         System.arraycopy(this.data, 0, cpdata, 0, arrlength);
+         copy.setData(cpdata);
+         return copy;
+      }
+
+      private int[] ensureCapacity(int index) {
+         int newlength = this.data.length;
+         if(newlength == 0) {
+            newlength = 1;
+         }
+
+         while(newlength <= index) {
+            newlength *= 2;
+         }
+
+         int[] newdata = new int[newlength];
+         System.arraycopy(this.data, 0, newdata, 0, this.data.length);
+         return this.data = newdata;
+      }
+
+      public void add(Object element) {
+         int[] index = (int[])this.colValuesInternal.getWithKey(element);
+         if(index == null) {
+            index = this.factory.addElement(element);
+         }
+
+         if(index[0] >= this.data.length) {
+            this.ensureCapacity(index[0]);
+         }
+
+         this.data[index[0]] |= index[1];
+      }
+
+      public void setAllElements() {
+         int lastblock = this.factory.getLastBlock();
+         int lastmask = this.factory.getLastMask();
+         if(lastblock >= this.data.length) {
+            this.ensureCapacity(lastblock);
+         }
+
+         for(int i = lastblock - 1; i >= 0; --i) {
+            this.data[i] = -1;
+         }
+
+         this.data[lastblock] = lastmask | lastmask - 1;
+      }
+
+      public void addAll(Set set) {
+         Iterator var2 = set.iterator();
+
+         while(var2.hasNext()) {
+            Object element = var2.next();
+            this.add(element);
+         }
+
+      }
+
+      public void remove(Object element) {
+         int[] index = (int[])this.colValuesInternal.getWithKey(element);
+         if(index == null) {
+            index = this.factory.addElement(element);
+         }
+
+         if(index[0] < this.data.length) {
+            this.data[index[0]] &= ~index[1];
+         }
+
+      }
+
+      public void removeAll(Set set) {
+         Iterator var2 = set.iterator();
+
+         while(var2.hasNext()) {
+            Object element = var2.next();
+            this.remove(element);
+         }
+
+      }
+
+      public boolean contains(Object element) {
+         int[] index = (int[])this.colValuesInternal.getWithKey(element);
+         if(index == null) {
+            index = this.factory.addElement(element);
+         }
+
+         return index[0] >= this.data.length ? false : (this.data[index[0]] & index[1]) != 0;
+      }
+
+      public boolean contains(FastSetFactory.FastSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+         int minlength = Math.min(extdata.length, intdata.length);
+
+         int i;
+         for(i = minlength - 1; i >= 0; --i) {
+            if((extdata[i] & ~intdata[i]) != 0) {
+               return false;
+            }
+         }
+
+         for(i = extdata.length - 1; i >= minlength; --i) {
+            if(extdata[i] != 0) {
+               return false;
+            }
+         }
+
+         return true;
+      }
+
+      public void union(FastSetFactory.FastSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+         int minlength = Math.min(extdata.length, intdata.length);
+
+         for(int expanded = minlength - 1; expanded >= 0; --expanded) {
+            intdata[expanded] |= extdata[expanded];
+         }
+
+         boolean var7 = false;
+
+         for(int i = extdata.length - 1; i >= minlength; --i) {
+            if(extdata[i] != 0) {
+               if(!var7) {
+                  intdata = this.ensureCapacity(extdata.length - 1);
+               }
+
+               intdata[i] = extdata[i];
+            }
+         }
+
+      }
+
+      public void intersection(FastSetFactory.FastSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+         int minlength = Math.min(extdata.length, intdata.length);
+
+         int i;
+         for(i = minlength - 1; i >= 0; --i) {
+            intdata[i] &= extdata[i];
+         }
+
+         for(i = intdata.length - 1; i >= minlength; --i) {
+            intdata[i] = 0;
+         }
+
+      }
+
+      public void symdiff(FastSetFactory.FastSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+         int minlength = Math.min(extdata.length, intdata.length);
+
+         for(int expanded = minlength - 1; expanded >= 0; --expanded) {
+            intdata[expanded] ^= extdata[expanded];
+         }
+
+         boolean var7 = false;
+
+         for(int i = extdata.length - 1; i >= minlength; --i) {
+            if(extdata[i] != 0) {
+               if(!var7) {
+                  intdata = this.ensureCapacity(extdata.length - 1);
+               }
+
+               intdata[i] = extdata[i];
+            }
+         }
+
+      }
+
+      public void complement(FastSetFactory.FastSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+         int minlength = Math.min(extdata.length, intdata.length);
+
+         for(int i = minlength - 1; i >= 0; --i) {
+            intdata[i] &= ~extdata[i];
+         }
+
+      }
+
+      public boolean equals(Object o) {
+         if(o == this) {
+            return true;
+         } else if(o != null && o instanceof FastSetFactory.FastSet) {
+            int[] longdata = ((FastSetFactory.FastSet)o).getData();
+            int[] shortdata = this.data;
+            if(this.data.length > longdata.length) {
+               shortdata = longdata;
+               longdata = this.data;
+            }
+
+            int i;
+            for(i = shortdata.length - 1; i >= 0; --i) {
+               if(shortdata[i] != longdata[i]) {
+                  return false;
+               }
+            }
+
+            for(i = longdata.length - 1; i >= shortdata.length; --i) {
+               if(longdata[i] != 0) {
+                  return false;
+               }
+            }
+
+            return true;
+         } else {
+            return false;
+         }
+      }
+
+      public int getCardinality() {
+         boolean found = false;
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            int block = intdata[i];
+            if(block != 0) {
+               if(found) {
+                  return 2;
+               }
+
+               if((block & block - 1) != 0) {
+                  return 2;
+               }
+
+               found = true;
+            }
+         }
+
+         return found ? 1 : 0;
+      }
+
+      public int size() {
+         int size = 0;
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            size += Integer.bitCount(intdata[i]);
+         }
+
+         return size;
+      }
+
+      public boolean isEmpty() {
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            if(intdata[i] != 0) {
+               return false;
+            }
+         }
+
+         return true;
+      }
+
+      public Iterator iterator() {
+         return new FastSetFactory.FastSetIterator(this, null);
+      }
+
+      public Set toPlainSet() {
+         HashSet set = new HashSet();
+         int[] intdata = this.data;
+         int size = this.data.length * 32;
+         if(size > this.colValuesInternal.size()) {
+            size = this.colValuesInternal.size();
+         }
+
+         for(int i = size - 1; i >= 0; --i) {
+            int[] index = (int[])this.colValuesInternal.get(i);
+            if((intdata[index[0]] & index[1]) != 0) {
+               set.add(this.colValuesInternal.getKey(i));
+            }
+         }
+
+         return set;
+      }
+
+      public String toBinary() {
+         StringBuilder buffer = new StringBuilder();
+         int[] intdata = this.data;
+
+         for(int i = 0; i < intdata.length; ++i) {
+            buffer.append(" ").append(Integer.toBinaryString(intdata[i]));
+         }
+
+         return buffer.toString();
+      }
+
+      private int[] getData() {
+         return this.data;
+      }
+
+      private void setData(int[] data) {
+         this.data = data;
+      }
+
+      public int[] getLoad() {
+         int[] intdata = this.data;
+         int notempty = 0;
+
+         for(int i = 0; i < intdata.length; ++i) {
+            if(intdata[i] != 0) {
+               ++notempty;
+            }
+         }
+
+         return new int[]{intdata.length, notempty};
+      }
+
+      public FastSetFactory getFactory() {
+         return this.factory;
+      }
+
+      // $FF: synthetic method
+      FastSet(FastSetFactory x0, Object x1) {
+         this(x0);
+      }
+   }
+
+   public static class FastSetIterator implements Iterator {
+      private VBStyleCollection colValuesInternal;
+      private int[] data;
+      private int size;
+      private int pointer;
+      private int next_pointer;
+
+      private FastSetIterator(FastSetFactory.FastSet set) {
+         this.pointer = -1;
+         this.next_pointer = -1;
+         this.colValuesInternal = set.getFactory().getInternalValuesCollection();
+         this.data = set.getData();
+         this.size = this.colValuesInternal.size();
+         int datasize = this.data.length * 32;
+         if(datasize < this.size) {
+            this.size = datasize;
+         }
+
+      }
+
+      public boolean hasNext() {
+         this.next_pointer = this.pointer;
+
+         int[] index;
+         do {
+            if(++this.next_pointer >= this.size) {
+               this.next_pointer = -1;
+               return false;
+            }
+
+            index = (int[])this.colValuesInternal.get(this.next_pointer);
+         } while((this.data[index[0]] & index[1]) == 0);
+
+         return true;
+      }
+
+      public Object next() {
+         if(this.next_pointer >= 0) {
+            this.pointer = this.next_pointer;
+         } else {
+            while(++this.pointer < this.size) {
+               int[] index = (int[])this.colValuesInternal.get(this.pointer);
+               if((this.data[index[0]] & index[1]) != 0) {
+                  break;
+               }
+            }
+         }
+
+         this.next_pointer = -1;
+         return this.pointer < this.size ? this.colValuesInternal.getKey(this.pointer) : null;
+      }
+
+      public void remove() {
+         int[] index = (int[])this.colValuesInternal.get(this.pointer);
+         this.data[index[0]] &= ~index[1];
+         --this.pointer;
+      }
+
+      // $FF: synthetic method
+      FastSetIterator(FastSetFactory.FastSet x0, Object x1) {
+         this(x0);
+      }
+   }
+}
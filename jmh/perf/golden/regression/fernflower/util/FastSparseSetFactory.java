@@ -0,0 +1,510 @@
+package regression.fernflower.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+public class FastSparseSetFactory {
+   private VBStyleCollection colValuesInternal = new VBStyleCollection();
+   private int lastBlock;
+   private int lastMask;
+
+   public FastSparseSetFactory(Collection set) {
+      int block = -1;
+      int mask = -1;
+      int index = 0;
+
+      for(Iterator var5 = set.iterator(); var5.hasNext(); ++index) {
+         Object element = var5.next();
+         block = index / 32;
+         if(index % 32 == 0) {
+            mask = 1;
+         } else {
+            mask <<= 1;
+         }
+
+         this.colValuesInternal.putWithKey(new int[]{block, mask}, element);
+      }
+
+      this.lastBlock = block;
+      this.lastMask = mask;
+   }
+
+   private int[] addElement(Object element) {
+      if(this.lastMask != -1 && this.lastMask != Integer.MIN_VALUE) {
+         this.lastMask <<= 1;
+      } else {
+         this.lastMask = 1;
+         ++this.lastBlock;
+      }
+
+      int[] pointer = new int[]{this.lastBlock, this.lastMask};
+      this.colValuesInternal.putWithKey(pointer, element);
+      return pointer;
+   }
+
+   public FastSparseSetFactory.FastSparseSet spawnEmptySet() {
+      return new FastSparseSetFactory.FastSparseSet(this, null);
+   }
+
+   public int getLastBlock() {
+      return this.lastBlock;
+   }
+
+   public int getLastMask() {
+      return this.lastMask;
+   }
+
+   private VBStyleCollection getInternalValuesCollection() {
+      return this.colValuesInternal;
+   }
+
+   public static class FastSparseSet implements Iterable {
+      public static final FastSparseSetFactory.FastSparseSet[] EMPTY_ARRAY = new FastSparseSetFactory.FastSparseSet[0];
+      private FastSparseSetFactory factory;
+      private VBStyleCollection colValuesInternal;
+      private int[] data;
+      private int[] next;
+
+      private FastSparseSet(FastSparseSetFactory factory) {
+         this.factory = factory;
+         this.colValuesInternal = factory.getInternalValuesCollection();
+         int length = factory.getLastBlock() + 1;
+         this.data = new int[length];
+         this.next = new int[length];
+      }
+
+      private FastSparseSet(FastSparseSetFactory factory, int[] data, int[] next) {
+         this.factory = factory;
+         this.colValuesInternal = factory.getInternalValuesCollection();
+         this.data = data;
+         this.next = next;
+      }
+
+      public FastSparseSetFactory.FastSparseSet getCopy() {
+         int arrlength = this.data.length;
+         int[] cpdata = new int[arrlength];
+         int[] cpnext = new int[arrlength];
+         System.arraycopy(this.data, 0, cpdata, 0, arrlength);
+         System.arraycopy(this.next, 0, cpnext, 0, arrlength);
+         return new FastSparseSetFactory.FastSparseSet(this.factory, cpdata, cpnext);
+      }
+
+      private int[] ensureCapacity(int index) {
+         int newlength = this.data.length;
+         if(newlength == 0) {
+            newlength = 1;
+         }
+
+         while(newlength <= index) {
+            newlength *= 2;
+         }
+
+         int[] newdata = new int[newlength];
+         System.arraycopy(this.data, 0, newdata, 0, this.data.length);
+         this.data = newdata;
+         int[] newnext = new int[newlength];
+         System.arraycopy(this.next, 0, newnext, 0, this.next.length);
+         this.next = newnext;
+         return newdata;
+      }
+
+      public void add(Object element) {
+         int[] index = (int[])this.colValuesInternal.getWithKey(element);
+         if(index == null) {
+            index = this.factory.addElement(element);
+         }
+
+         int block = index[0];
+         if(block >= this.data.length) {
+            this.ensureCapacity(block);
+         }
+
+         this.data[block] |= index[1];
+         changeNext(this.next, block, this.next[block], block);
+      }
+
+      public void setAllElements() {
+         int lastblock = this.factory.getLastBlock();
+         int lastmask = this.factory.getLastMask();
+         if(lastblock >= this.data.length) {
+            this.ensureCapacity(lastblock);
+         }
+
+         for(int i = lastblock - 1; i >= 0; --i) {
+            this.data[i] = -1;
+            this.next[i] = i + 1;
+         }
+
+         this.data[lastblock] = lastmask | lastmask - 1;
+         this.next[lastblock] = 0;
+      }
+
+      public void addAll(Set set) {
+         Iterator var2 = set.iterator();
+
+         while(var2.hasNext()) {
+            Object element = var2.next();
+            this.add(element);
+         }
+
+      }
+
+      public void remove(Object element) {
+         int[] index = (int[])this.colValuesInternal.getWithKey(element);
+         if(index == null) {
+            index = this.factory.addElement(element);
+         }
+
+         int block = index[0];
+         if(block < this.data.length) {
+            this.data[block] &= ~index[1];
+            if(this.data[block] == 0) {
+               changeNext(this.next, block, block, this.next[block]);
+            }
+         }
+
+      }
+
+      public void removeAll(Set set) {
+         Iterator var2 = set.iterator();
+
+         while(var2.hasNext()) {
+            Object element = var2.next();
+            this.remove(element);
+         }
+
+      }
+
+      public boolean contains(Object element) {
+         int[] index = (int[])this.colValuesInternal.getWithKey(element);
+         if(index == null) {
+            index = this.factory.addElement(element);
+         }
+
+         return index[0] >= this.data.length ? false : (this.data[index[0]] & index[1]) != 0;
+      }
+
+      public boolean contains(FastSparseSetFactory.FastSparseSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+         int minlength = Math.min(extdata.length, intdata.length);
+
+         int i;
+         for(i = minlength - 1; i >= 0; --i) {
+            if((extdata[i] & ~intdata[i]) != 0) {
+               return false;
+            }
+         }
+
+         for(i = extdata.length - 1; i >= minlength; --i) {
+            if(extdata[i] != 0) {
+               return false;
+            }
+         }
+
+         return true;
+      }
+
+      private void setNext() {
+         int link = 0;
+
+         for(int i = this.data.length - 1; i >= 0; --i) {
+            this.next[i] = link;
+            if(this.data[i] != 0) {
+               link = i;
+            }
+         }
+
+      }
+
+      private static void changeNext(int[] arrnext, int key, int oldnext, int newnext) {
+         for(int i = key - 1; i >= 0 && arrnext[i] == oldnext; --i) {
+            arrnext[i] = newnext;
+         }
+
+      }
+
+      public void union(FastSparseSetFactory.FastSparseSet set) {
+         int[] extdata = set.getData();
+         int[] extnext = set.getNext();
+         int[] intdata = this.data;
+         int intlength = intdata.length;
+         int pointer = 0;
+
+         do {
+            if(pointer >= intlength) {
+               intdata = this.ensureCapacity(extdata.length - 1);
+            }
+
+            boolean nextrec = intdata[pointer] == 0;
+            intdata[pointer] |= extdata[pointer];
+            if(nextrec) {
+               changeNext(this.next, pointer, this.next[pointer], pointer);
+            }
+
+            pointer = extnext[pointer];
+         } while(pointer != 0);
+
+      }
+
+      public void intersection(FastSparseSetFactory.FastSparseSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+         int minlength = Math.min(extdata.length, intdata.length);
+
+         int i;
+         for(i = minlength - 1; i >= 0; --i) {
+            intdata[i] &= extdata[i];
+         }
+
+         for(i = intdata.length - 1; i >= minlength; --i) {
+            intdata[i] = 0;
+         }
+
+         this.setNext();
+      }
+
+      public void symdiff(FastSparseSetFactory.FastSparseSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+         int minlength = Math.min(extdata.length, intdata.length);
+
+         for(int expanded = minlength - 1; expanded >= 0; --expanded) {
+            intdata[expanded] ^= extdata[expanded];
+         }
+
+         boolean var7 = false;
+
+         for(int i = extdata.length - 1; i >= minlength; --i) {
+            if(extdata[i] != 0) {
+               if(!var7) {
+                  intdata = this.ensureCapacity(extdata.length - 1);
+               }
+
+               intdata[i] = extdata[i];
+            }
+         }
+
+         this.setNext();
+      }
+
+      public void complement(FastSparseSetFactory.FastSparseSet set) {
+         int[] extdata = set.getData();
+         int[] intdata = this.data;
+         int extlength = extdata.length;
+         int pointer = 0;
+
+         while(pointer < extlength) {
+            intdata[pointer] &= ~extdata[pointer];
+            if(intdata[pointer] == 0) {
+               changeNext(this.next, pointer, pointer, this.next[pointer]);
+            }
+
+            pointer = this.next[pointer];
+            if(pointer == 0) {
+               break;
+            }
+         }
+
+      }
+
+      public boolean equals(Object o) {
+         if(o == this) {
+            return true;
+         } else if(o != null && o instanceof FastSparseSetFactory.FastSparseSet) {
+            int[] longdata = ((FastSparseSetFactory.FastSparseSet)o).getData();
+            int[] shortdata = this.data;
+            if(this.data.length > longdata.length) {
+               shortdata = longdata;
+               longdata = this.data;
+            }
+
+            int i;
+            for(i = shortdata.length - 1; i >= 0; --i) {
+               if(shortdata[i] != longdata[i]) {
+                  return false;
+               }
+            }
+
+            for(i = longdata.length - 1; i >= shortdata.length; --i) {
+               if(longdata[i] != 0) {
+                  return false;
+               }
+            }
+
+            return true;
+         } else {
+            return false;
+         }
+      }
+
+      public int getCardinality() {
+         boolean found = false;
+         int[] intdata = this.data;
+
+         for(int i = intdata.length - 1; i >= 0; --i) {
+            int block = intdata[i];
+            if(block != 0) {
+               if(found) {
+                  return 2;
+               }
+
+               if((block & block - 1) != 0) {
+                  return 2;
+               }
+
+               found = true;
+            }
+         }
+
+         return found ? 1 : 0;
+      }
+
+      public boolean isEmpty() {
+         return this.data.length == 0 || this.next[0] == 0 && this.data[0] == 0;
+      }
+
+      public Iterator iterator() {
+         return new FastSparseSetFactory.FastSparseSetIterator(this, null);
+      }
+
+      public Set toPlainSet() {
+         HashSet set = new HashSet();
+         int[] intdata = this.data;
+         int size = this.data.length * 32;
+         if(size > this.colValuesInternal.size()) {
+            size = this.colValuesInternal.size();
+         }
+
+         for(int i = size - 1; i >= 0; --i) {
+            int[] index = (int[])this.colValuesInternal.get(i);
+            if((intdata[index[0]] & index[1]) != 0) {
+               set.add(this.colValuesInternal.getKey(i));
+            }
+         }
+
+         return set;
+      }
+
+      public String toString() {
+         return this.toPlainSet().toString();
+      }
+
+      public String toBinary() {
+         StringBuilder buffer = new StringBuilder();
+         int[] intdata = this.data;
+
+         for(int i = 0; i < intdata.length; ++i) {
+            buffer.append(" ").append(Integer.toBinaryString(intdata[i]));
+         }
+
+         return buffer.toString();
+      }
+
+      private int[] getData() {
+         return this.data;
+      }
+
+      private int[] getNext() {
+         return this.next;
+      }
+
+      public int[] getLoad() {
+         int[] intdata = this.data;
+         int notempty = 0;
+
+         for(int i = 0; i < intdata.length; ++i) {
+            if(intdata[i] != 0) {
+               ++notempty;
+            }
+         }
+
+         return new int[]{intdata.length, notempty};
+      }
+
+      public FastSparseSetFactory getFactory() {
+         return this.factory;
+      }
+
+      // $FF: synthetic method
+      FastSparseSet(FastSparseSetFactory x0, Object x1) {
+         this(x0);
+      }
+   }
+
+   public static class FastSparseSetIterator implements Iterator {
+      private VBStyleCollection colValuesInternal;
+      private int[] data;
+      private int[] next;
+      private int size;
+      private int pointer;
+      private int next_pointer;
+
+      private FastSparseSetIterator(FastSparseSetFactory.FastSparseSet set) {
+         this.pointer = -1;
+         this.next_pointer = -1;
+         this.colValuesInternal = set.getFactory().getInternalValuesCollection();
+         this.data = set.getData();
+         this.next = set.getNext();
+         this.size = this.colValuesInternal.size();
+      }
+
+      private int getNextIndex(int index) {
+         ++index;
+         int bindex = index >>> 5;
+         int dindex = index & 31;
+
+         while(bindex < this.data.length) {
+            int block = this.data[bindex];
+            if(block != 0) {
+               for(block >>>= dindex; dindex < 32; ++dindex) {
+                  if((block & 1) != 0) {
+                     return (bindex << 5) + dindex;
+                  }
+
+                  block >>>= 1;
+               }
+            }
+
+            dindex = 0;
+            bindex = this.next[bindex];
+            if(bindex == 0) {
+               break;
+            }
+         }
+
+         return -1;
+      }
+
+      public boolean hasNext() {
+         this.next_pointer = this.getNextIndex(this.pointer);
+         return this.next_pointer >= 0;
+      }
+
+      public Object next() {
+         if(this.next_pointer >= 0) {
+            this.pointer = this.next_pointer;
+         } else {
+            this.pointer = this.getNextIndex(this.pointer);
+            if(this.pointer == -1) {
+               this.pointer = this.size;
+            }
+         }
+
+         this.next_pointer = -1;
+         return this.pointer < this.size ? this.colValuesInternal.getKey(this.pointer) : null;
+      }
+
+      public void remove() {
+         int[] index = (int[])this.colValuesInternal.get(this.pointer);
+         this.data[index[0]] &= ~index[1];
+      }
+
+      // $FF: synthetic method
+      FastSparseSetIterator(FastSparseSetFactory.FastSparseSet x0, Object x1) {
+         this(x0);
+      }
+   }
+}
@@ -0,0 +1,79 @@
+package regression.fernflower.util;
+
+import java.util.ArrayList;
+
+public class ListStack extends ArrayList {
+   protected int pointer = 0;
+
+   public ListStack() {
+   }
+
+   public ListStack(ArrayList list) {
+      super(list);
+   }
+
+   public ListStack clone() {
+      ListStack newstack = new ListStack(this);
+      newstack.pointer = this.pointer;
+      return newstack;
+   }
+
+   public Object push(Object item) {
+      this.add(item);
+      ++this.pointer;
+      return item;
+   }
+
+   public Object pop() {
+      --this.pointer;
+      Object o = this.get(this.pointer);
+      this.remove(this.pointer);
+      return o;
+   }
+
+   public Object pop(int count) {
+      Object o = null;
+
+      for(int i = count; i > 0; --i) {
+         o = this.pop();
+      }
+
+      return o;
+   }
+
+   public void remove() {
+      --this.pointer;
+      this.remove(this.pointer);
+   }
+
+   public void removeMultiple(int count) {
+      while(count > 0) {
+         --this.pointer;
+         this.remove(this.pointer);
+         --count;
+      }
+
+   }
+
+   public boolean empty() {
+      return this.pointer == 0;
+   }
+
+   public int getPointer() {
+      return this.pointer;
+   }
+
+   public Object getByOffset(int offset) {
+      return this.get(this.pointer + offset);
+   }
+
+   public void insertByOffset(int offset, Object item) {
+      this.add(this.pointer + offset, item);
+      ++this.pointer;
+   }
+
+   public void clear() {
+      super.clear();
+      this.pointer = 0;
+   }
+}
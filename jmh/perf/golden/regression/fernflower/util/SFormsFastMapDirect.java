@@ -0,0 +1,356 @@
+package regression.fernflower.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Map.Entry;
+
+public class SFormsFastMapDirect {
+   private int size;
+   private FastSparseSetFactory.FastSparseSet[][] elements;
+   private int[][] next;
+
+   public SFormsFastMapDirect() {
+      this(true);
+   }
+
+   private SFormsFastMapDirect(boolean initialize) {
+      this.elements = new FastSparseSetFactory.FastSparseSet[3][];
+      this.next = new int[3][];
+      if(initialize) {
+         for(int i = 2; i >= 0; --i) {
+            FastSparseSetFactory.FastSparseSet[] empty = FastSparseSetFactory.FastSparseSet.EMPTY_ARRAY;
+            this.elements[i] = empty;
+            this.next[i] = InterpreterUtil.EMPTY_INT_ARRAY;
+         }
+      }
+
+   }
+
+   public SFormsFastMapDirect(SFormsFastMapDirect map) {
+      this.elements = new FastSparseSetFactory.FastSparseSet[3][];
+      this.next = new int[3][];
+
+      for(int i = 2; i >= 0; --i) {
+         FastSparseSetFactory.FastSparseSet[] arr = map.elements[i];
+         int[] arrnext = map.next[i];
+         int length = arr.length;
+         FastSparseSetFactory.FastSparseSet[] arrnew = new FastSparseSetFactory.FastSparseSet[length];
+         int[] arrnextnew = new int[length];
+         System.arraycopy(arr, 0, arrnew, 0, length);
+         System.arraycopy(arrnext, 0, arrnextnew, 0, length);
+         this.elements[i] = arrnew;
+         this.next[i] = arrnextnew;
+         this.size = map.size;
+      }
+
+   }
+
+   public SFormsFastMapDirect getCopy() {
+      SFormsFastMapDirect map = new SFormsFastMapDirect(false);
+      map.size = this.size;
+      FastSparseSetFactory.FastSparseSet[][] mapelements = map.elements;
+      int[][] mapnext = map.next;
+
+      for(int i = 2; i >= 0; --i) {
+         FastSparseSetFactory.FastSparseSet[] arr = this.elements[i];
+         int length = arr.length;
+         if(length > 0) {
+            int[] arrnext = this.next[i];
+            FastSparseSetFactory.FastSparseSet[] arrnew = new FastSparseSetFactory.FastSparseSet[length];
+            int[] arrnextnew = new int[length];
+            System.arraycopy(arrnext, 0, arrnextnew, 0, length);
+            mapelements[i] = arrnew;
+            mapnext[i] = arrnextnew;
+            int pointer = 0;
+
+            do {
+               FastSparseSetFactory.FastSparseSet set = arr[pointer];
+               if(set != null) {
+                  arrnew[pointer] = set.getCopy();
+               }
+
+               pointer = arrnext[pointer];
+            } while(pointer != 0);
+         } else {
+            mapelements[i] = FastSparseSetFactory.FastSparseSet.EMPTY_ARRAY;
+            mapnext[i] = InterpreterUtil.EMPTY_INT_ARRAY;
+         }
+      }
+
+      return map;
+   }
+
+   public int size() {
+      return this.size;
+   }
+
+   public boolean isEmpty() {
+      return this.size == 0;
+   }
+
+   public void put(int key, FastSparseSetFactory.FastSparseSet value) {
+      this.putInternal(key, value, false);
+   }
+
+   public void remove(int key) {
+      this.putInternal(key, (FastSparseSetFactory.FastSparseSet)null, true);
+   }
+
+   public void removeAllFields() {
+      FastSparseSetFactory.FastSparseSet[] arr = this.elements[2];
+      int[] arrnext = this.next[2];
+
+      for(int i = arr.length - 1; i >= 0; --i) {
+         FastSparseSetFactory.FastSparseSet val = arr[i];
+         if(val != null) {
+            arr[i] = null;
+            --this.size;
+         }
+
+         arrnext[i] = 0;
+      }
+
+   }
+
+   public void putInternal(int key, FastSparseSetFactory.FastSparseSet value, boolean remove) {
+      byte index = 0;
+      int ikey = key;
+      if(key < 0) {
+         index = 2;
+         ikey = -key;
+      } else if(key >= 10000) {
+         index = 1;
+         ikey = key - 10000;
+      }
+
+      FastSparseSetFactory.FastSparseSet[] arr = this.elements[index];
+      if(ikey >= arr.length) {
+         if(remove) {
+            return;
+         }
+
+         arr = this.ensureCapacity(index, ikey + 1, false);
+      }
+
+      FastSparseSetFactory.FastSparseSet oldval = arr[ikey];
+      arr[ikey] = value;
+      int[] arrnext = this.next[index];
+      if(oldval == null && value != null) {
+         ++this.size;
+         changeNext(arrnext, ikey, arrnext[ikey], ikey);
+      } else if(oldval != null && value == null) {
+         --this.size;
+         changeNext(arrnext, ikey, ikey, arrnext[ikey]);
+      }
+
+   }
+
+   private static void changeNext(int[] arrnext, int key, int oldnext, int newnext) {
+      for(int i = key - 1; i >= 0 && arrnext[i] == oldnext; --i) {
+         arrnext[i] = newnext;
+      }
+
+   }
+
+   public boolean containsKey(int key) {
+      return this.get(key) != null;
+   }
+
+   public FastSparseSetFactory.FastSparseSet get(int key) {
+      byte index = 0;
+      if(key < 0) {
+         index = 2;
+         key = -key;
+      } else if(key >= 10000) {
+         index = 1;
+         key -= 10000;
+      }
+
+      FastSparseSetFactory.FastSparseSet[] arr = this.elements[index];
+      return key < arr.length ? arr[key] : null;
+   }
+
+   public void complement(SFormsFastMapDirect map) {
+      for(int i = 2; i >= 0; --i) {
+         FastSparseSetFactory.FastSparseSet[] lstOwn = this.elements[i];
+         if(lstOwn.length != 0) {
+            FastSparseSetFactory.FastSparseSet[] lstExtern = map.elements[i];
+            int[] arrnext = this.next[i];
+            int pointer = 0;
+
+            do {
+               FastSparseSetFactory.FastSparseSet first = lstOwn[pointer];
+               if(first != null) {
+                  if(pointer >= lstExtern.length) {
+                     break;
+                  }
+
+                  FastSparseSetFactory.FastSparseSet second = lstExtern[pointer];
+                  if(second != null) {
+                     first.complement(second);
+                     if(first.isEmpty()) {
+                        lstOwn[pointer] = null;
+                        --this.size;
+                        changeNext(arrnext, pointer, pointer, arrnext[pointer]);
+                     }
+                  }
+               }
+
+               pointer = arrnext[pointer];
+            } while(pointer != 0);
+         }
+      }
+
+   }
+
+   public void intersection(SFormsFastMapDirect map) {
+      for(int i = 2; i >= 0; --i) {
+         FastSparseSetFactory.FastSparseSet[] lstOwn = this.elements[i];
+         if(lstOwn.length != 0) {
+            FastSparseSetFactory.FastSparseSet[] lstExtern = map.elements[i];
+            int[] arrnext = this.next[i];
+            int pointer = 0;
+
+            do {
+               FastSparseSetFactory.FastSparseSet first = lstOwn[pointer];
+               if(first != null) {
+                  FastSparseSetFactory.FastSparseSet second = null;
+                  if(pointer < lstExtern.length) {
+                     second = lstExtern[pointer];
+                  }
+
+                  if(second != null) {
+                     first.intersection(second);
+                  }
+
+                  if(second == null || first.isEmpty()) {
+                     lstOwn[pointer] = null;
+                     --this.size;
+                     changeNext(arrnext, pointer, pointer, arrnext[pointer]);
+                  }
+               }
+
+               pointer = arrnext[pointer];
+            } while(pointer != 0);
+         }
+      }
+
+   }
+
+   public void union(SFormsFastMapDirect map) {
+      for(int i = 2; i >= 0; --i) {
+         FastSparseSetFactory.FastSparseSet[] lstExtern = map.elements[i];
+         if(lstExtern.length != 0) {
+            FastSparseSetFactory.FastSparseSet[] lstOwn = this.elements[i];
+            int[] arrnext = this.next[i];
+            int[] arrnextExtern = map.next[i];
+            int pointer = 0;
+
+            do {
+               if(pointer >= lstOwn.length) {
+                  lstOwn = this.ensureCapacity(i, lstExtern.length, true);
+                  arrnext = this.next[i];
+               }
+
+               FastSparseSetFactory.FastSparseSet second = lstExtern[pointer];
+               if(second != null) {
+                  FastSparseSetFactory.FastSparseSet first = lstOwn[pointer];
+                  if(first == null) {
+                     lstOwn[pointer] = second.getCopy();
+                     ++this.size;
+                     changeNext(arrnext, pointer, arrnext[pointer], pointer);
+                  } else {
+                     first.union(second);
+                  }
+               }
+
+               pointer = arrnextExtern[pointer];
+            } while(pointer != 0);
+         }
+      }
+
+   }
+
+   public String toString() {
+      StringBuilder buffer = new StringBuilder("{");
+      List lst = this.entryList();
+      if(lst != null) {
+         boolean first = true;
+         Iterator var4 = lst.iterator();
+
+         while(var4.hasNext()) {
+            Entry entry = (Entry)var4.next();
+            if(!first) {
+               buffer.append(", ");
+            } else {
+               first = false;
+            }
+
+            Set set = ((FastSparseSetFactory.FastSparseSet)entry.getValue()).toPlainSet();
+            buffer.append(entry.getKey()).append("={").append(set.toString()).append("}");
+         }
+      }
+
+      buffer.append("}");
+      return buffer.toString();
+   }
+
+   public List entryList() {
+      ArrayList list = new ArrayList();
+
+      for(int i = 2; i >= 0; --i) {
+         int ikey = 0;
+         FastSparseSetFactory.FastSparseSet[] var4 = this.elements[i];
+         int var5 = var4.length;
+
+         for(int var6 = 0; var6 < var5; ++var6) {
+            final FastSparseSetFactory.FastSparseSet ent = var4[var6];
+            if(ent != null) {
+               final int key = i == 0 ? ikey : (i == 1 ? ikey + 10000 : -ikey);
+               list.add(new Entry() {
+                  private Integer var = Integer.valueOf(key);
+                  private FastSparseSetFactory.FastSparseSet val = ent;
+
+                  public Integer getKey() {
+                     return this.var;
+                  }
+
+                  public FastSparseSetFactory.FastSparseSet getValue() {
+                     return this.val;
+                  }
+
+                  public FastSparseSetFactory.FastSparseSet setValue(FastSparseSetFactory.FastSparseSet newvalue) {
+                     return null;
+                  }
+               });
+            }
+
+            ++ikey;
+         }
+      }
+
+      return list;
+   }
+
+   private FastSparseSetFactory.FastSparseSet[] ensureCapacity(int index, int size, boolean exact) {
+      FastSparseSetFactory.FastSparseSet[] arr = this.elements[index];
+      int[] arrnext = this.next[index];
+      int minsize = size;
+      if(!exact) {
+         minsize = 2 * arr.length / 3 + 1;
+         if(size > minsize) {
+            minsize = size;
+         }
+      }
+
+      FastSparseSetFactory.FastSparseSet[] arrnew = new FastSparseSetFactory.FastSparseSet[minsize];
+      System.arraycopy(arr, 0, arrnew, 0, arr.length);
+      int[] arrnextnew = new int[minsize];
+      System.arraycopy(arrnext, 0, arrnextnew, 0, arrnext.length);
+      this.elements[index] = arrnew;
+      this.next[index] = arrnextnew;
+      return arrnew;
+   }
+}
@@ -0,0 +1,17 @@
+package regression.fernflower.util;
+
+import regression.fernflower.main.ClassesProcessor;
+import regression.fernflower.main.DecompilerContext;
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+
+public class TextUtil {
+   public static void writeQualifiedSuper(TextBuffer buf, String qualifier) {
+      ClassesProcessor.ClassNode classNode = (ClassesProcessor.ClassNode)DecompilerContext.getProperty("CURRENT_CLASS_NODE");
+      if(!qualifier.equals(classNode.classStruct.qualifiedName)) {
+         buf.append(DecompilerContext.getImportCollector().getShortName(ExprProcessor.buildJavaClassName(qualifier))).append('.');
+      }
+
+      buf.append("super");
+   }
+}
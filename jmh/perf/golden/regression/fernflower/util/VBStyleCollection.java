@@ -0,0 +1,187 @@
+package regression.fernflower.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+
+public class VBStyleCollection extends ArrayList {
+   private HashMap map = new HashMap();
+   private ArrayList lstKeys = new ArrayList();
+
+   public VBStyleCollection() {
+   }
+
+   public VBStyleCollection(int initialCapacity) {
+      super(initialCapacity);
+      this.lstKeys = new ArrayList(initialCapacity);
+      this.map = new HashMap(initialCapacity);
+   }
+
+   public VBStyleCollection(Collection c) {
+      super(c);
+   }
+
+   public boolean add(Object element) {
+      this.lstKeys.add((Object)null);
+      super.add(element);
+      return true;
+   }
+
+   public boolean remove(Object element) {
+      throw new RuntimeException("not implemented!");
+   }
+
+   public boolean addAll(Collection c) {
+      for(int i = c.size() - 1; i >= 0; --i) {
+         this.lstKeys.add((Object)null);
+      }
+
+      return super.addAll(c);
+   }
+
+   public void addAllWithKey(VBStyleCollection c) {
+      for(int i = 0; i < c.size(); ++i) {
+         this.addWithKey(c.get(i), c.getKey(i));
+      }
+
+   }
+
+   public void addAllWithKey(Collection elements, Collection keys) {
+      int index = super.size();
+      Iterator var4 = keys.iterator();
+
+      while(var4.hasNext()) {
+         Object key = var4.next();
+         this.map.put(key, Integer.valueOf(index++));
+      }
+
+      super.addAll(elements);
+      this.lstKeys.addAll(keys);
+   }
+
+   public void addWithKey(Object element, Object key) {
+      this.map.put(key, Integer.valueOf(super.size()));
+      super.add(element);
+      this.lstKeys.add(key);
+   }
+
+   public Object putWithKey(Object element, Object key) {
+      Integer index = (Integer)this.map.get(key);
+      if(index == null) {
+         this.addWithKey(element, key);
+         return null;
+      } else {
+         return super.set(index.intValue(), element);
+      }
+   }
+
+   public void add(int index, Object element) {
+      this.addToListIndex(index, 1);
+      this.lstKeys.add(index, (Object)null);
+      super.add(index, element);
+   }
+
+   public void addWithKeyAndIndex(int index, Object element, Object key) {
+      this.addToListIndex(index, 1);
+      this.map.put(key, new Integer(index));
+      super.add(index, element);
+      this.lstKeys.add(index, key);
+   }
+
+   public void removeWithKey(Object key) {
+      int index = ((Integer)this.map.get(key)).intValue();
+      this.addToListIndex(index + 1, -1);
+      super.remove(index);
+      this.lstKeys.remove(index);
+      this.map.remove(key);
+   }
+
+   public Object remove(int index) {
+      this.addToListIndex(index + 1, -1);
+      Object obj = this.lstKeys.get(index);
+      if(obj != null) {
+         this.map.remove(obj);
+      }
+
+      this.lstKeys.remove(index);
+      return super.remove(index);
+   }
+
+   public Object getWithKey(Object key) {
+      Integer index = (Integer)this.map.get(key);
+      return index == null ? null : super.get(index.intValue());
+   }
+
+   public int getIndexByKey(Object key) {
+      return ((Integer)this.map.get(key)).intValue();
+   }
+
+   public Object getLast() {
+      return super.get(super.size() - 1);
+   }
+
+   public boolean containsKey(Object key) {
+      return this.map.containsKey(key);
+   }
+
+   public void clear() {
+      this.map.clear();
+      this.lstKeys.clear();
+      super.clear();
+   }
+
+   public VBStyleCollection clone() {
+      VBStyleCollection c = new VBStyleCollection();
+      c.addAll(new ArrayList(this));
+      c.setMap(new HashMap(this.map));
+      c.setLstKeys(new ArrayList(this.lstKeys));
+      return c;
+   }
+
+   public void swap(int index1, int index2) {
+      Collections.swap(this, index1, index2);
+      Collections.swap(this.lstKeys, index1, index2);
+      Object key = this.lstKeys.get(index1);
+      if(key != null) {
+         this.map.put(key, new Integer(index1));
+      }
+
+      key = this.lstKeys.get(index2);
+      if(key != null) {
+         this.map.put(key, new Integer(index2));
+      }
+
+   }
+
+   public HashMap getMap() {
+      return this.map;
+   }
+
+   public void setMap(HashMap map) {
+      this.map = map;
+   }
+
+   public Object getKey(int index) {
+      return this.lstKeys.get(index);
+   }
+
+   public ArrayList getLstKeys() {
+      return this.lstKeys;
+   }
+
+   public void setLstKeys(ArrayList lstKeys) {
+      this.lstKeys = lstKeys;
+   }
+
+   private void addToListIndex(int index, int diff) {
+      for(int i = this.lstKeys.size() - 1; i >= index; --i) {
+         Object obj = this.lstKeys.get(i);
+         if(obj != null) {
+            this.map.put(obj, new Integer(i + diff));
+         }
+      }
+
+   }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package regression.fernflower.code;
+
+import regression.fernflower.util.VBStyleCollection;
+
+public class SimpleInstructionSequence extends InstructionSequence {
+
+  public SimpleInstructionSequence() {
+  }
+
+  public SimpleInstructionSequence(VBStyleCollection<Instruction, Integer> collinstr) {
+    this.collinstr = collinstr;
+  }
+
+  public SimpleInstructionSequence clone() {
+    SimpleInstructionSequence newseq = new SimpleInstructionSequence(collinstr.clone());
+    newseq.setPointer(this.getPointer());
+
+    return newseq;
+  }
+
+  public void removeInstruction(int index) {
+    collinstr.remove(index);
+  }
+}
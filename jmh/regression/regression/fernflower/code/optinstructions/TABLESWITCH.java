@@ -0,0 +1,42 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package regression.fernflower.code.optinstructions;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import regression.fernflower.code.SwitchInstruction;
+
+public class TABLESWITCH extends SwitchInstruction {
+
+  public void writeToStream(DataOutputStream out, int offset) throws IOException {
+
+    out.writeByte(opc_tableswitch);
+
+    int padding = 3 - (offset % 4);
+    for (int i = 0; i < padding; i++) {
+      out.writeByte(0);
+    }
+
+    for (int i = 0; i < operandsCount(); i++) {
+      out.writeInt(getOperand(i));
+    }
+  }
+
+  public int length() {
+    return 1 + operandsCount() * 4;
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package regression.fernflower.main.extern;
+
+public interface IIdentifierRenamer {
+
+  enum Type {ELEMENT_CLASS, ELEMENT_FIELD, ELEMENT_METHOD};
+
+  boolean toBeRenamed(Type elementType, String className, String element, String descriptor);
+
+  String getNextClassName(String fullName, String shortName);
+
+  String getNextFieldName(String className, String field, String descriptor);
+
+  String getNextMethodName(String className, String method, String descriptor);
+}
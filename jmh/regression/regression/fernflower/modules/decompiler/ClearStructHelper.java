@@ -0,0 +1,40 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package regression.fernflower.modules.decompiler;
+
+import java.util.LinkedList;
+
+import regression.fernflower.modules.decompiler.stats.RootStatement;
+import regression.fernflower.modules.decompiler.stats.Statement;
+
+
+public class ClearStructHelper {
+
+  public static void clearStatements(RootStatement root) {
+
+    LinkedList<Statement> stack = new LinkedList<Statement>();
+    stack.add(root);
+
+    while (!stack.isEmpty()) {
+
+      Statement stat = stack.removeFirst();
+
+      stat.clearTempInformation();
+
+      stack.addAll(stat.getStats());
+    }
+  }
+}
@@ -0,0 +1,5 @@
+package regression.fernflower.modules.decompiler;
+
+public class SwitchHelper {
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package regression.fernflower.modules.decompiler.stats;
+
+import regression.fernflower.main.TextBuffer;
+import regression.fernflower.main.collectors.BytecodeMappingTracer;
+import regression.fernflower.modules.decompiler.ExprProcessor;
+
+
+public class RootStatement extends Statement {
+
+  private Statement dummyExit;
+
+  public RootStatement(Statement head, Statement dummyExit) {
+
+    type = Statement.TYPE_ROOT;
+
+    first = head;
+    this.dummyExit = dummyExit;
+
+    stats.addWithKey(first, first.id);
+    first.setParent(this);
+  }
+
+  public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
+    return ExprProcessor.listToJava(varDefinitions, indent, tracer).append(first.toJava(indent, tracer));
+  }
+
+  public Statement getDummyExit() {
+    return dummyExit;
+  }
+
+  public void setDummyExit(Statement dummyExit) {
+    this.dummyExit = dummyExit;
+  }
+}
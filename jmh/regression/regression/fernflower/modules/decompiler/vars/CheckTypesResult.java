@@ -0,0 +1,57 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package regression.fernflower.modules.decompiler.vars;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import regression.fernflower.modules.decompiler.exps.Exprent;
+import regression.fernflower.struct.gen.VarType;
+
+public class CheckTypesResult {
+
+  private List<ExprentTypePair> lstMaxTypeExprents = new ArrayList<ExprentTypePair>();
+
+  private List<ExprentTypePair> lstMinTypeExprents = new ArrayList<ExprentTypePair>();
+
+  public void addMaxTypeExprent(Exprent exprent, VarType type) {
+    lstMaxTypeExprents.add(new ExprentTypePair(exprent, type, null));
+  }
+
+  public void addMinTypeExprent(Exprent exprent, VarType type) {
+    lstMinTypeExprents.add(new ExprentTypePair(exprent, type, null));
+  }
+
+  public List<ExprentTypePair> getLstMaxTypeExprents() {
+    return lstMaxTypeExprents;
+  }
+
+  public List<ExprentTypePair> getLstMinTypeExprents() {
+    return lstMinTypeExprents;
+  }
+
+  public static class ExprentTypePair {
+    public Exprent exprent;
+    public VarType type;
+    public VarType desttype;
+
+    public ExprentTypePair(Exprent exprent, VarType type, VarType desttype) {
+      this.exprent = exprent;
+      this.type = type;
+      this.desttype = desttype;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package regression.fernflower.struct.gen.generics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GenericClassDescriptor {
+
+  public GenericType superclass;
+
+  public List<GenericType> superinterfaces = new ArrayList<GenericType>();
+
+  public List<String> fparameters = new ArrayList<String>();
+
+  public List<List<GenericType>> fbounds = new ArrayList<List<GenericType>>();
+}
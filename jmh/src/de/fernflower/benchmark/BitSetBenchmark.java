@@ -0,0 +1,435 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.benchmark;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.fernflower.util.FastFixedSetFactory;
+import de.fernflower.util.FastFixedSetFactory.FastFixedSet;
+import de.fernflower.util.FastSetFactory;
+import de.fernflower.util.FastSetFactory.FastSet;
+import de.fernflower.util.FastSparseSetFactory;
+import de.fernflower.util.FastSparseSetFactory.FastSparseSet;
+import de.fernflower.util.IntSparseSetFactory;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSetIterator;
+
+/**
+ * Set operations of the bit set families in de.fernflower.util next to java.util.BitSet and a plain long[].
+ * The universe is the number of elements known to the factory (variable versions for the sparse sets used by SSA,
+ * statements for the fixed sets used by the dominator code), the cardinality is the number of elements per set.
+ * SSA mostly copies a set before merging into it, so union, intersection and complement work on a copy;
+ * subtract the copy score for the bare operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BitSetBenchmark {
+
+  @Param({"64", "1024", "8192"})
+  public int universe;
+
+  @Param({"4", "64"})
+  public int cardinality;
+
+  private FastSparseSet<Integer> sparseA, sparseB;
+  private IntSparseSet intSparseA, intSparseB;
+  private FastFixedSet<Integer> fixedA, fixedB;
+  private FastSet<Integer> fastA, fastB;
+  private BitSet bitsA, bitsB;
+  private long[] longsA, longsB;
+
+  private Integer[] probes;
+  private int[] intProbes;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+    int count = Math.min(cardinality, universe);
+
+    // half of b is shared with a, so the operations neither short-cut nor degenerate
+    List<Integer> elementsA = pick(random, count);
+    List<Integer> elementsB = new ArrayList<>(elementsA.subList(0, count / 2));
+    elementsB.addAll(pick(random, count - count / 2));
+
+    List<Integer> all = new ArrayList<>(universe);
+    for (int i = 0; i < universe; i++) {
+      all.add(i);
+    }
+
+    // grown from 64 elements like the factory in SSAConstructorSparseEx, registering the universe in order
+    FastSparseSetFactory<Integer> sparseFactory = new FastSparseSetFactory<>(all.subList(0, Math.min(64, universe)));
+    FastSetFactory<Integer> fastFactory = new FastSetFactory<>(all.subList(0, Math.min(64, universe)));
+    IntSparseSetFactory intSparseFactory = new IntSparseSetFactory(Math.min(64, universe));
+    FastSparseSet<Integer> sparseAll = sparseFactory.spawnEmptySet();
+    IntSparseSet intSparseAll = intSparseFactory.spawnEmptySet();
+    FastSet<Integer> fastAll = fastFactory.spawnEmptySet();
+    for (Integer element : all) {
+      sparseAll.add(element);
+      intSparseAll.add(element);
+      fastAll.add(element);
+    }
+    FastFixedSetFactory<Integer> fixedFactory = new FastFixedSetFactory<>(all);
+
+    sparseA = sparseFactory.spawnEmptySet();
+    sparseB = sparseFactory.spawnEmptySet();
+    intSparseA = intSparseFactory.spawnEmptySet();
+    intSparseB = intSparseFactory.spawnEmptySet();
+    fixedA = fixedFactory.spawnEmptySet();
+    fixedB = fixedFactory.spawnEmptySet();
+    fastA = fastFactory.spawnEmptySet();
+    fastB = fastFactory.spawnEmptySet();
+    bitsA = new BitSet(universe);
+    bitsB = new BitSet(universe);
+    longsA = new long[(universe + 63) >>> 6];
+    longsB = new long[(universe + 63) >>> 6];
+
+    for (Integer element : elementsA) {
+      sparseA.add(element);
+      intSparseA.add(element);
+      fixedA.add(element);
+      fastA.add(element);
+      bitsA.set(element);
+      longsA[element >>> 6] |= 1L << element;
+    }
+    for (Integer element : elementsB) {
+      sparseB.add(element);
+      intSparseB.add(element);
+      fixedB.add(element);
+      fastB.add(element);
+      bitsB.set(element);
+      longsB[element >>> 6] |= 1L << element;
+    }
+
+    // contains probes hit and miss in equal parts
+    probes = new Integer[64];
+    intProbes = new int[probes.length];
+    for (int i = 0; i < probes.length; i++) {
+      int value = i % 2 == 0 ? elementsA.get(random.nextInt(count)) : random.nextInt(universe);
+      probes[i] = value;
+      intProbes[i] = value;
+    }
+  }
+
+  private List<Integer> pick(Random random, int count) {
+    List<Integer> elements = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      elements.add(random.nextInt(universe));
+    }
+    return elements;
+  }
+
+  // copy
+
+  @Benchmark
+  public Object copySparse() {
+    return sparseA.getCopy();
+  }
+
+  @Benchmark
+  public Object copyIntSparse() {
+    return intSparseA.getCopy();
+  }
+
+  @Benchmark
+  public Object copyFixed() {
+    return fixedA.getCopy();
+  }
+
+  @Benchmark
+  public Object copyFast() {
+    return fastA.getCopy();
+  }
+
+  @Benchmark
+  public Object copyBitSet() {
+    return bitsA.clone();
+  }
+
+  @Benchmark
+  public Object copyLongs() {
+    return longsA.clone();
+  }
+
+  // union
+
+  @Benchmark
+  public Object unionSparse() {
+    FastSparseSet<Integer> set = sparseA.getCopy();
+    set.union(sparseB);
+    return set;
+  }
+
+  @Benchmark
+  public Object unionIntSparse() {
+    IntSparseSet set = intSparseA.getCopy();
+    set.union(intSparseB);
+    return set;
+  }
+
+  @Benchmark
+  public Object unionFixed() {
+    FastFixedSet<Integer> set = fixedA.getCopy();
+    set.union(fixedB);
+    return set;
+  }
+
+  @Benchmark
+  public Object unionFast() {
+    FastSet<Integer> set = fastA.getCopy();
+    set.union(fastB);
+    return set;
+  }
+
+  @Benchmark
+  public Object unionBitSet() {
+    BitSet set = (BitSet)bitsA.clone();
+    set.or(bitsB);
+    return set;
+  }
+
+  @Benchmark
+  public Object unionLongs() {
+    long[] set = longsA.clone();
+    for (int i = 0; i < set.length; i++) {
+      set[i] |= longsB[i];
+    }
+    return set;
+  }
+
+  // intersection
+
+  @Benchmark
+  public Object intersectionSparse() {
+    FastSparseSet<Integer> set = sparseA.getCopy();
+    set.intersection(sparseB);
+    return set;
+  }
+
+  @Benchmark
+  public Object intersectionIntSparse() {
+    IntSparseSet set = intSparseA.getCopy();
+    set.intersection(intSparseB);
+    return set;
+  }
+
+  @Benchmark
+  public Object intersectionFixed() {
+    FastFixedSet<Integer> set = fixedA.getCopy();
+    set.intersection(fixedB);
+    return set;
+  }
+
+  @Benchmark
+  public Object intersectionFast() {
+    FastSet<Integer> set = fastA.getCopy();
+    set.intersection(fastB);
+    return set;
+  }
+
+  @Benchmark
+  public Object intersectionBitSet() {
+    BitSet set = (BitSet)bitsA.clone();
+    set.and(bitsB);
+    return set;
+  }
+
+  @Benchmark
+  public Object intersectionLongs() {
+    long[] set = longsA.clone();
+    for (int i = 0; i < set.length; i++) {
+      set[i] &= longsB[i];
+    }
+    return set;
+  }
+
+  // complement
+
+  @Benchmark
+  public Object complementSparse() {
+    FastSparseSet<Integer> set = sparseA.getCopy();
+    set.complement(sparseB);
+    return set;
+  }
+
+  @Benchmark
+  public Object complementIntSparse() {
+    IntSparseSet set = intSparseA.getCopy();
+    set.complement(intSparseB);
+    return set;
+  }
+
+  @Benchmark
+  public Object complementFixed() {
+    FastFixedSet<Integer> set = fixedA.getCopy();
+    set.complement(fixedB);
+    return set;
+  }
+
+  @Benchmark
+  public Object complementFast() {
+    FastSet<Integer> set = fastA.getCopy();
+    set.complement(fastB);
+    return set;
+  }
+
+  @Benchmark
+  public Object complementBitSet() {
+    BitSet set = (BitSet)bitsA.clone();
+    set.andNot(bitsB);
+    return set;
+  }
+
+  @Benchmark
+  public Object complementLongs() {
+    long[] set = longsA.clone();
+    for (int i = 0; i < set.length; i++) {
+      set[i] &= ~longsB[i];
+    }
+    return set;
+  }
+
+  // iteration
+
+  @Benchmark
+  public int iterateSparse() {
+    int sum = 0;
+    for (Integer element : sparseA) {
+      sum += element;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int iterateIntSparse() {
+    int sum = 0;
+    for (IntSparseSetIterator it = intSparseA.iterator(); it.hasNext(); ) {
+      sum += it.next();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int iterateFixed() {
+    int sum = 0;
+    for (Integer element : fixedA) {
+      sum += element;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int iterateFast() {
+    int sum = 0;
+    for (Integer element : fastA) {
+      sum += element;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int iterateBitSet() {
+    int sum = 0;
+    for (int i = bitsA.nextSetBit(0); i >= 0; i = bitsA.nextSetBit(i + 1)) {
+      sum += i;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int iterateLongs() {
+    int sum = 0;
+    for (int i = 0; i < longsA.length; i++) {
+      long word = longsA[i];
+      while (word != 0) {
+        sum += (i << 6) + Long.numberOfTrailingZeros(word);
+        word &= word - 1;
+      }
+    }
+    return sum;
+  }
+
+  // contains, per probe batch
+
+  @Benchmark
+  @OperationsPerInvocation(64)
+  public int containsSparse() {
+    int hits = 0;
+    for (Integer probe : probes) {
+      if (sparseA.contains(probe)) hits++;
+    }
+    return hits;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(64)
+  public int containsIntSparse() {
+    int hits = 0;
+    for (int probe : intProbes) {
+      if (intSparseA.contains(probe)) hits++;
+    }
+    return hits;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(64)
+  public int containsFixed() {
+    int hits = 0;
+    for (Integer probe : probes) {
+      if (fixedA.contains(probe)) hits++;
+    }
+    return hits;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(64)
+  public int containsFast() {
+    int hits = 0;
+    for (Integer probe : probes) {
+      if (fastA.contains(probe)) hits++;
+    }
+    return hits;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(64)
+  public int containsBitSet() {
+    int hits = 0;
+    for (int probe : intProbes) {
+      if (bitsA.get(probe)) hits++;
+    }
+    return hits;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(64)
+  public int containsLongs() {
+    int hits = 0;
+    for (int probe : intProbes) {
+      if ((longsA[probe >>> 6] & (1L << probe)) != 0) hits++;
+    }
+    return hits;
+  }
+}
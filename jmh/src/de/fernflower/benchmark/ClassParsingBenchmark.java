@@ -0,0 +1,174 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.fernflower.main.DecompilerContext;
+import de.fernflower.main.collectors.CounterContainer;
+import de.fernflower.struct.StructClass;
+import de.fernflower.struct.StructMember;
+import de.fernflower.struct.StructMethod;
+import de.fernflower.struct.attr.StructGenericSignatureAttribute;
+import de.fernflower.struct.consts.ConstantPool;
+import de.fernflower.struct.gen.generics.GenericMain;
+import de.fernflower.struct.lazy.LazyLoader;
+import de.fernflower.util.DataInputFullStream;
+
+/**
+ * The ingestion path: class file parsing, constant pool construction and skipping, bytecode parsing into
+ * instruction sequences and generic signature parsing. Every invocation processes the whole class set;
+ * "corpus" is the checked-in corpus, "runtime" a range of small to large classes of the running JDK, so the
+ * latter depends on the JDK the benchmark runs on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClassParsingBenchmark {
+
+  private static final String[] RUNTIME_CLASSES = {
+    "java/util/AbstractList",
+    "java/util/ArrayList",
+    "java/util/HashMap",
+    "java/util/TreeMap",
+    "java/util/Collections",
+    "java/util/concurrent/ConcurrentHashMap",
+    "java/util/stream/Collectors"
+  };
+
+  @Param({"corpus", "runtime"})
+  public String classSet;
+
+  private List<byte[]> classBytes;
+  private LazyLoader loader;
+  private List<StructClass> classes;
+  private List<String> classSignatures;
+  private List<String> methodSignatures;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Corpus corpus = "runtime".equals(classSet) ? Corpus.loadClasses(RUNTIME_CLASSES) : Corpus.load(Corpus.DEFAULT_CORPUS);
+
+    // state is thread-scoped, so setup and benchmark share the thread and the context
+    DecompilerContext.initContext(Corpus.defaultOptions());
+    DecompilerContext.setLogger(new Corpus.SilentLogger());
+    DecompilerContext.setCounterContainer(new CounterContainer());
+
+    loader = new LazyLoader(corpus);
+    classBytes = new ArrayList<byte[]>();
+    classes = new ArrayList<StructClass>();
+    classSignatures = new ArrayList<String>();
+    methodSignatures = new ArrayList<String>();
+
+    for (Map.Entry<String, byte[]> entry : corpus.getClasses().entrySet()) {
+      StructClass cl = new StructClass(entry.getValue(), true, loader);
+      loader.addClassLink(cl.qualifiedName, new LazyLoader.Link(LazyLoader.Link.CLASS, entry.getKey(), null));
+
+      classBytes.add(entry.getValue());
+      classes.add(cl);
+
+      addSignature(cl, classSignatures);
+      for (StructMethod mt : cl.getMethods()) {
+        addSignature(mt, methodSignatures);
+      }
+    }
+  }
+
+  private static void addSignature(StructMember member, List<String> signatures) {
+    StructGenericSignatureAttribute attr = (StructGenericSignatureAttribute)member.getAttributes().getWithKey("Signature");
+    if (attr != null) {
+      signatures.add(attr.getSignature());
+    }
+  }
+
+  @Benchmark
+  public int structClass() throws IOException {
+    int methods = 0;
+    for (byte[] bytes : classBytes) {
+      methods += new StructClass(bytes, true, loader).getMethods().size();
+    }
+    return methods;
+  }
+
+  @Benchmark
+  public int constantPool() throws IOException {
+    int constants = 0;
+    for (byte[] bytes : classBytes) {
+      DataInputFullStream in = new DataInputFullStream(bytes);
+      in.discard(8);
+      constants += new ConstantPool(in).size();
+    }
+    return constants;
+  }
+
+  @Benchmark
+  public int skipPool() throws IOException {
+    int remaining = 0;
+    for (byte[] bytes : classBytes) {
+      DataInputFullStream in = new DataInputFullStream(bytes);
+      in.discard(8);
+      ConstantPool.skipPool(in);
+      remaining += in.available();
+    }
+    return remaining;
+  }
+
+  /**
+   * Includes locating the code in the class file and reloading the pool, as during decompilation.
+   */
+  @Benchmark
+  public int expandData() throws IOException {
+    int instructions = 0;
+    for (StructClass cl : classes) {
+      for (StructMethod mt : cl.getMethods()) {
+        mt.expandData();
+        if (mt.containsCode()) {
+          instructions += mt.getInstructionSequence().length();
+        }
+        mt.releaseResources();
+      }
+      cl.releaseResources();
+    }
+    return instructions;
+  }
+
+  @Benchmark
+  public int parseClassSignature() {
+    int parameters = 0;
+    for (String signature : classSignatures) {
+      parameters += GenericMain.parseClassSignature(signature).fparameters.size();
+    }
+    return parameters;
+  }
+
+  @Benchmark
+  public int parseMethodSignature() {
+    int parameters = 0;
+    for (String signature : methodSignatures) {
+      parameters += GenericMain.parseMethodSignature(signature).params.size();
+    }
+    return parameters;
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.benchmark;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Manifest;
+
+import de.fernflower.main.decompiler.BaseDecompiler;
+import de.fernflower.main.extern.IBytecodeProvider;
+import de.fernflower.main.extern.IFernflowerLogger;
+import de.fernflower.main.extern.IFernflowerPreferences;
+import de.fernflower.main.extern.IResultSaver;
+import de.fernflower.util.InterpreterUtil;
+
+/**
+ * Class files kept in memory and decompiled without touching the file system. The files are registered
+ * under paths below a directory that does not exist, the bytecode provider serves them from memory.
+ */
+public class Corpus implements IBytecodeProvider {
+
+  public static final String DEFAULT_CORPUS = "corpus";
+  public static final String REGRESSION_CORPUS = "regression";
+
+  private static final File ROOT = new File("/fernflower-corpus");
+
+  private final Map<String, byte[]> classes = new LinkedHashMap<String, byte[]>();
+
+  public static Corpus load(String resourceDir) throws IOException {
+    Corpus corpus = new Corpus();
+    for (String name : readIndex(resourceDir)) {
+      corpus.add(name, readResource(resourceDir + "/" + name));
+    }
+    return corpus;
+  }
+
+  /**
+   * Loads classes visible to the class loader, e.g. runtime classes, given by their internal names.
+   */
+  public static Corpus loadClasses(String... classNames) throws IOException {
+    Corpus corpus = new Corpus();
+    for (String name : classNames) {
+      corpus.add(name + ".class", readResource(name + ".class"));
+    }
+    return corpus;
+  }
+
+  public void add(String name, byte[] bytes) {
+    classes.put(new File(ROOT, name).getAbsolutePath(), bytes);
+  }
+
+  public int size() {
+    return classes.size();
+  }
+
+  public long totalBytes() {
+    long total = 0;
+    for (byte[] bytes : classes.values()) {
+      total += bytes.length;
+    }
+    return total;
+  }
+
+  public Map<String, byte[]> getClasses() {
+    return classes;
+  }
+
+  @Override
+  public byte[] getBytecode(String externalPath, String internalPath) throws IOException {
+    byte[] bytes = classes.get(externalPath);
+    if (bytes == null) {
+      throw new IOException("Not in corpus: " + externalPath);
+    }
+    return bytes;
+  }
+
+  /**
+   * Decompiles the whole corpus with a fresh decompiler and returns what has been saved.
+   */
+  public ResultCollector decompile(Map<String, Object> options) {
+    ResultCollector saver = new ResultCollector();
+    BaseDecompiler decompiler = new BaseDecompiler(this, saver, options, new SilentLogger());
+    for (String path : classes.keySet()) {
+      try {
+        decompiler.addSpace(new File(path), true);
+      }
+      catch (IOException ex) {
+        throw new RuntimeException(ex);
+      }
+    }
+    decompiler.decompileContext();
+    return saver;
+  }
+
+  public static Map<String, Object> defaultOptions() {
+    Map<String, Object> options = new HashMap<String, Object>();
+    options.put(IFernflowerPreferences.LOG_LEVEL, IFernflowerLogger.Severity.ERROR.name());
+    return options;
+  }
+
+  private static List<String> readIndex(String resourceDir) throws IOException {
+    InputStream in = openResource(resourceDir + "/index.txt");
+    List<String> names = new ArrayList<String>();
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.trim().isEmpty()) {
+          names.add(line.trim());
+        }
+      }
+    }
+    finally {
+      reader.close();
+    }
+    return names;
+  }
+
+  private static byte[] readResource(String name) throws IOException {
+    InputStream in = openResource(name);
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      InterpreterUtil.copyStream(in, out);
+      return out.toByteArray();
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  private static InputStream openResource(String name) throws IOException {
+    InputStream in = Corpus.class.getClassLoader().getResourceAsStream(name);
+    if (in == null) {
+      throw new IOException("Missing resource " + name);
+    }
+    return in;
+  }
+
+  public static class ResultCollector implements IResultSaver {
+    private final Map<String, String> contents = new LinkedHashMap<String, String>();
+    private long bytes;
+
+    public int getClassCount() {
+      return contents.size();
+    }
+
+    public long getBytes() {
+      return bytes;
+    }
+
+    public Map<String, String> getContents() {
+      return contents;
+    }
+
+    @Override
+    public void saveClassFile(String path, String qualifiedName, String entryName, String content, int[] mapping) {
+      contents.put(qualifiedName, content);
+      bytes += content.length();
+    }
+
+    @Override
+    public void saveFolder(String path) { }
+
+    @Override
+    public void copyFile(String source, String path, String entryName) { }
+
+    @Override
+    public void createArchive(String path, String archiveName, Manifest manifest) { }
+
+    @Override
+    public void saveDirEntry(String path, String archiveName, String entryName) { }
+
+    @Override
+    public void copyEntry(String source, String path, String archiveName, String entry) { }
+
+    @Override
+    public void saveClassEntry(String path, String archiveName, String qualifiedName, String entryName, String content) { }
+
+    @Override
+    public void closeArchive(String path, String archiveName) { }
+  }
+
+  public static class SilentLogger extends IFernflowerLogger {
+    @Override
+    public void writeMessage(String message, Severity severity) { }
+
+    @Override
+    public void writeMessage(String message, Throwable t) { }
+  }
+}
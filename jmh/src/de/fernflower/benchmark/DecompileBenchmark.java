@@ -0,0 +1,78 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.benchmark;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * End-to-end decompilation of the checked-in corpus. The "classes" counter gives decompiled classes per second,
+ * run with -prof gc for the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecompileBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class CorpusState {
+    public Corpus corpus;
+    public Map<String, Object> options;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+      corpus = Corpus.load(Corpus.DEFAULT_CORPUS);
+      options = Corpus.defaultOptions();
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Counters {
+    public long classes;
+    public long outputBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      classes = 0;
+      outputBytes = 0;
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Corpus.ResultCollector singleThreaded(CorpusState state, Counters counters) {
+    return decompile(state, counters);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Corpus.ResultCollector multiThreaded(CorpusState state, Counters counters) {
+    return decompile(state, counters);
+  }
+
+  private static Corpus.ResultCollector decompile(CorpusState state, Counters counters) {
+    Corpus.ResultCollector result = state.corpus.decompile(state.options);
+    counters.classes += result.getClassCount();
+    counters.outputBytes += result.getBytes();
+    return result;
+  }
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Synthetic classes of the shapes that are known to be expensive to decompile, scaled by a size parameter.
+ * Java shapes are compiled in memory with the compiler of the running JDK, irreducible control flow cannot be
+ * written in Java and is assembled by hand.
+ */
+public class PathologicalClasses {
+
+  private static final long COMPILER_STACK_SIZE = 512L << 20;
+
+  public enum Shape {
+    /** one method of n if-else statements, for the SSA constructors and the variable processing */
+    HUGE_METHOD("pathological/HugeMethod", 100, 200, 400, 800),
+    /** try-finally nested n deep, for FinallyProcessor */
+    NESTED_FINALLY("pathological/NestedFinally", 4, 8, 16, 32),
+    /** a tableswitch with n cases, partly falling through, for DomHelper and the switch processing */
+    TABLESWITCH("pathological/TableSwitch", 200, 400, 800, 1600),
+    /** n irreducible loops in sequence, for IrreducibleCFGDeobfuscator and DomHelper */
+    IRREDUCIBLE_LOOPS("pathological/IrreducibleLoops", 25, 50, 100, 200),
+    /** n string concatenation statements, for the StringBuilder chain folding */
+    STRING_CONCAT("pathological/StringConcat", 200, 400, 800, 1600),
+    /** n catch-all regions in sequence, two of every three not being finally blocks, for the FinallyProcessor loop */
+    FINALLY_REGIONS("pathological/FinallyRegions", 25, 50, 100, 200),
+    /** an else-if chain n deep, for the statement tree walks and printing; the domination passes are cubic in n */
+    ELSE_IF_CHAIN("pathological/ElseIfChain", 125, 250, 500, 1000),
+    /** one string concatenation of 2n operands, for the exprent tree walks and printing */
+    CONCAT_CHAIN("pathological/ConcatChain", 250, 500, 1000, 2000);
+
+    public final String className;
+    private final int[] sizes;
+
+    Shape(String className, int... sizes) {
+      this.className = className;
+      this.sizes = sizes;
+    }
+
+    /**
+     * Doubling sizes, the largest taking seconds to decompile. Every shape fits the 64k code limit up to
+     * about n = 2000.
+     */
+    public int[] getDefaultSizes() {
+      return sizes.clone();
+    }
+  }
+
+  public static byte[] generate(Shape shape, int n) {
+    switch (shape) {
+      case HUGE_METHOD:
+        return compile(shape.className, hugeMethod(n));
+      case NESTED_FINALLY:
+        return compile(shape.className, nestedFinally(n));
+      case TABLESWITCH:
+        return compile(shape.className, tableSwitch(n));
+      case IRREDUCIBLE_LOOPS:
+        return irreducibleLoops(shape.className, n);
+      case STRING_CONCAT:
+        return compile(shape.className, stringConcat(n));
+      case FINALLY_REGIONS:
+        return finallyRegions(shape.className, n);
+      case ELSE_IF_CHAIN:
+        return compile(shape.className, elseIfChain(n));
+      case CONCAT_CHAIN:
+        return compile(shape.className, concatChain(n));
+    }
+    throw new IllegalArgumentException(shape.name());
+  }
+
+  public static Corpus generateCorpus(Shape shape, int n) {
+    Corpus corpus = new Corpus();
+    corpus.add(shape.className + ".class", generate(shape, n));
+    return corpus;
+  }
+
+  private static String hugeMethod(int n) {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < n; i++) {
+      body.append("    if (x > ").append(i).append(") { y += x * ").append(i).append("; } else { y ^= ")
+        .append(i).append(" - x; }\n");
+    }
+    return classSource("HugeMethod", "  public static int run(int x) {\n    int y = 0;\n" + body + "    return y;\n  }\n");
+  }
+
+  private static String nestedFinally(int n) {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < n; i++) {
+      body.append("try {\n");
+    }
+    body.append("y = f(y * 31 + x);\n");
+    for (int i = n - 1; i >= 0; i--) {
+      body.append("} finally { y += f(").append(i).append("); }\n");
+    }
+    return classSource("NestedFinally",
+                       "  static int f(int v) {\n    return v ^ (v >>> 7);\n  }\n\n" +
+                       "  public static int run(int x) {\n    int y = 0;\n" + body + "    return y;\n  }\n");
+  }
+
+  private static String tableSwitch(int n) {
+    StringBuilder body = new StringBuilder("    switch (x) {\n");
+    for (int i = 0; i < n; i++) {
+      body.append("      case ").append(i).append(": y = y * 3 + ").append(i).append(";");
+      body.append(i % 4 == 3 ? "\n" : " break;\n");  // every fourth case falls through
+    }
+    body.append("      default: y = -1;\n    }\n");
+    return classSource("TableSwitch", "  public static int run(int x) {\n    int y = 0;\n" + body + "    return y;\n  }\n");
+  }
+
+  private static String stringConcat(int n) {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < n; i++) {
+      body.append("    s = s + \"k").append(i).append("=\" + x + ',';\n");
+    }
+    return classSource("StringConcat", "  public static String run(int x) {\n    String s = \"\";\n" + body + "    return s;\n  }\n");
+  }
+
+  private static String elseIfChain(int n) {
+    StringBuilder body = new StringBuilder("    ");
+    for (int i = 0; i < n; i++) {
+      body.append("if (x == ").append(i).append(") { y = x ^ ").append(i * 31).append("; }\n    else ");
+    }
+    body.append("{ y = -1; }\n");
+    return classSource("ElseIfChain", "  public static int run(int x) {\n    int y;\n" + body + "    return y;\n  }\n");
+  }
+
+  private static String concatChain(int n) {
+    StringBuilder body = new StringBuilder("    return \"\"");
+    for (int i = 0; i < n; i++) {
+      body.append(i % 8 == 0 ? "\n      + " : " + ").append("\"k").append(i).append("=\" + x");
+    }
+    body.append(";\n");
+    return classSource("ConcatChain", "  public static String run(int x) {\n" + body + "  }\n");
+  }
+
+  private static String classSource(String simpleName, String members) {
+    return "package pathological;\n\npublic class " + simpleName + " {\n" + members + "}\n";
+  }
+
+  /**
+   * Compiles a single class in memory for Java 8.
+   */
+  public static byte[] compile(String className, final String source) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("No system Java compiler, a JDK is required");
+    }
+
+    final Map<String, ByteArrayOutputStream> outputs = new HashMap<String, ByteArrayOutputStream>();
+    StandardJavaFileManager standardManager = compiler.getStandardFileManager(null, null, null);
+    JavaFileManager manager = new ForwardingJavaFileManager<StandardJavaFileManager>(standardManager) {
+      @Override
+      public JavaFileObject getJavaFileForOutput(Location location, final String name, JavaFileObject.Kind kind, FileObject sibling) {
+        return new SimpleJavaFileObject(URI.create("mem:///" + name.replace('.', '/') + kind.extension), kind) {
+          @Override
+          public OutputStream openOutputStream() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            outputs.put(name.replace('.', '/'), out);
+            return out;
+          }
+        };
+      }
+    };
+
+    JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className + ".java"), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+
+    List<String> options = new ArrayList<String>();
+    if (compiler.isSupportedOption("--release") >= 0) {
+      options.addAll(Arrays.asList("--release", "8"));
+    }
+    else {
+      options.addAll(Arrays.asList("-source", "8", "-target", "8"));
+    }
+
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    final JavaCompiler.CompilationTask task = compiler.getTask(null, manager, diagnostics, options, null, Collections.singletonList(file));
+
+    // javac recurses on deep shapes like long else-if chains, so it runs on a thread with a large stack
+    final boolean[] success = new boolean[1];
+    Thread thread = new Thread(null, new Runnable() {
+      @Override
+      public void run() {
+        success[0] = task.call();
+      }
+    }, "javac", COMPILER_STACK_SIZE);
+    thread.start();
+    try {
+      thread.join();
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    }
+
+    ByteArrayOutputStream output = outputs.get(className);
+    if (!success[0] || output == null) {
+      StringBuilder message = new StringBuilder("Compilation of " + className + " failed");
+      for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+        message.append('\n').append(diagnostic.getMessage(null));
+      }
+      throw new IllegalStateException(message.toString());
+    }
+    return output.toByteArray();
+  }
+
+  /**
+   * A class with a static method run(int) holding n loops that can be entered at two blocks each:
+   * <pre>
+   *   if (x == 0) goto B;
+   * A: y += 1;
+   * B: y += 2;
+   *   if (y < 100) goto A;
+   *   y = 0;
+   * </pre>
+   * The class file version predates stack maps, the decompiler does not verify.
+   */
+  private static byte[] irreducibleLoops(String className, int n) {
+    try {
+      ByteArrayOutputStream code = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(code);
+
+      out.writeByte(0x03);  // iconst_0
+      out.writeByte(0x3c);  // istore_1
+      for (int i = 0; i < n; i++) {
+        out.writeByte(0x1a);  // iload_0
+        out.writeByte(0x99);  // ifeq B
+        out.writeShort(6);
+        out.writeByte(0x84);  // A: iinc 1, 1
+        out.writeByte(1);
+        out.writeByte(1);
+        out.writeByte(0x84);  // B: iinc 1, 2
+        out.writeByte(1);
+        out.writeByte(2);
+        out.writeByte(0x1b);  // iload_1
+        out.writeByte(0x10);  // bipush 100
+        out.writeByte(100);
+        out.writeByte(0xa1);  // if_icmplt A
+        out.writeShort(-9);
+        out.writeByte(0x03);  // iconst_0
+        out.writeByte(0x3c);  // istore_1
+      }
+      out.writeByte(0x1b);  // iload_1
+      out.writeByte(0xac);  // ireturn
+
+      byte[] bytecode = code.toByteArray();
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      out = new DataOutputStream(bytes);
+
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(49);
+
+      // constant pool
+      out.writeShort(8);
+      writeUtf8(out, className);          // 1
+      writeClass(out, 1);                 // 2
+      writeUtf8(out, "java/lang/Object"); // 3
+      writeClass(out, 3);                 // 4
+      writeUtf8(out, "run");              // 5
+      writeUtf8(out, "(I)I");             // 6
+      writeUtf8(out, "Code");             // 7
+
+      out.writeShort(0x0021);  // public super
+      out.writeShort(2);
+      out.writeShort(4);
+      out.writeShort(0);  // interfaces
+      out.writeShort(0);  // fields
+
+      out.writeShort(1);  // methods
+      out.writeShort(0x0009);  // public static
+      out.writeShort(5);
+      out.writeShort(6);
+      out.writeShort(1);
+      out.writeShort(7);
+      out.writeInt(12 + bytecode.length);
+      out.writeShort(2);  // max stack
+      out.writeShort(2);  // max locals
+      out.writeInt(bytecode.length);
+      out.write(bytecode);
+      out.writeShort(0);  // exception table
+      out.writeShort(0);  // code attributes
+
+      out.writeShort(0);  // class attributes
+
+      return bytes.toByteArray();
+    }
+    catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * A class with a static method run(int) holding n catch-all regions in sequence, each guarding x = f(x):
+   * <pre>
+   *   try { x = f(x); } catch-all (e) { Throwable c = e; x += 2; }   // regions 0, 1 of every three, no rethrow
+   *   try { x = f(x); } finally { x += 3; }                          // region 2 of every three
+   * </pre>
+   * The first kind is a catch-all handler that FinallyProcessor examines and rejects as inconsistent, which
+   * javac does not produce. corpus/FinallyRegions.class of the benchmark corpus is this class for n = 6.
+   */
+  public static byte[] finallyRegions(String className, int n) {
+    try {
+      ByteArrayOutputStream code = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(code);
+      ByteArrayOutputStream handlers = new ByteArrayOutputStream();
+      DataOutputStream table = new DataOutputStream(handlers);
+
+      for (int i = 0; i < n; i++) {
+        int start = code.size();
+        out.writeByte(0x1a);  // iload_0
+        out.writeByte(0xb8);  // invokestatic f
+        out.writeShort(10);
+        out.writeByte(0x3b);  // istore_0
+        int end = code.size();
+
+        int handler;
+        if (i % 3 < 2) {
+          out.writeByte(0xa7);  // goto after
+          out.writeShort(9);
+          handler = code.size();
+          out.writeByte(0x4c);  // astore_1
+          out.writeByte(0x2b);  // aload_1
+          out.writeByte(0x4d);  // astore_2
+          out.writeByte(0x84);  // iinc 0, 2
+          out.writeByte(0);
+          out.writeByte(2);
+        }
+        else {
+          out.writeByte(0x84);  // iinc 0, 3
+          out.writeByte(0);
+          out.writeByte(3);
+          out.writeByte(0xa7);  // goto after
+          out.writeShort(9);
+          handler = code.size();
+          out.writeByte(0x4c);  // astore_1
+          out.writeByte(0x84);  // iinc 0, 3
+          out.writeByte(0);
+          out.writeByte(3);
+          out.writeByte(0x2b);  // aload_1
+          out.writeByte(0xbf);  // athrow
+        }
+
+        table.writeShort(start);
+        table.writeShort(end);
+        table.writeShort(handler);
+        table.writeShort(0);  // any
+      }
+      out.writeByte(0x1a);  // iload_0
+      out.writeByte(0xac);  // ireturn
+
+      byte[] bytecode = code.toByteArray();
+      byte[] exceptions = handlers.toByteArray();
+      byte[] helper = {0x1a, 0x1a, 0x10, 7, 0x7c, (byte)0x82, (byte)0xac};  // return x ^ (x >>> 7)
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      out = new DataOutputStream(bytes);
+
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(49);
+
+      // constant pool
+      out.writeShort(11);
+      writeUtf8(out, className);          // 1
+      writeClass(out, 1);                 // 2
+      writeUtf8(out, "java/lang/Object"); // 3
+      writeClass(out, 3);                 // 4
+      writeUtf8(out, "run");              // 5
+      writeUtf8(out, "(I)I");             // 6
+      writeUtf8(out, "Code");             // 7
+      writeUtf8(out, "f");                // 8
+      out.writeByte(12);                  // 9, name and type f (I)I
+      out.writeShort(8);
+      out.writeShort(6);
+      out.writeByte(10);                  // 10, method ref f
+      out.writeShort(2);
+      out.writeShort(9);
+
+      out.writeShort(0x0021);  // public super
+      out.writeShort(2);
+      out.writeShort(4);
+      out.writeShort(0);  // interfaces
+      out.writeShort(0);  // fields
+
+      out.writeShort(2);  // methods
+      out.writeShort(0x0008);  // static
+      out.writeShort(8);
+      out.writeShort(6);
+      out.writeShort(1);
+      out.writeShort(7);
+      out.writeInt(12 + helper.length);
+      out.writeShort(3);  // max stack
+      out.writeShort(1);  // max locals
+      out.writeInt(helper.length);
+      out.write(helper);
+      out.writeShort(0);  // exception table
+      out.writeShort(0);  // code attributes
+
+      out.writeShort(0x0009);  // public static
+      out.writeShort(5);
+      out.writeShort(6);
+      out.writeShort(1);
+      out.writeShort(7);
+      out.writeInt(12 + bytecode.length + exceptions.length);
+      out.writeShort(1);  // max stack
+      out.writeShort(3);  // max locals
+      out.writeInt(bytecode.length);
+      out.write(bytecode);
+      out.writeShort(n);  // exception table
+      out.write(exceptions);
+      out.writeShort(0);  // code attributes
+
+      out.writeShort(0);  // class attributes
+
+      return bytes.toByteArray();
+    }
+    catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  private static void writeUtf8(DataOutputStream out, String value) throws IOException {
+    out.writeByte(1);
+    out.writeUTF(value);
+  }
+
+  private static void writeClass(DataOutputStream out, int nameIndex) throws IOException {
+    out.writeByte(7);
+    out.writeShort(nameIndex);
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import de.fernflower.util.InterpreterUtil;
+
+/**
+ * Decompiles the benchmark corpus, compares time, memory and allocation figures with a recorded baseline and
+ * the decompiled sources with golden files. The larger regression corpus is decompiled once, untimed, and only
+ * its sources are compared.
+ * <pre>
+ * java PerfRegression -baseline=file -golden=dir -report=dir [-runs=10] [-update]
+ * </pre>
+ * A figure regresses when it exceeds the baseline by more than its tolerance, given as a fraction of the
+ * baseline next to the value. -update records the measured figures, keeping the tolerances, and rewrites the
+ * golden files. Methods are decompiled on the calling thread, so its CPU time and allocations cover the run.
+ */
+public class PerfRegression {
+
+  private static final String[] METRICS = {"wallMillis", "cpuMillis", "allocatedMB", "peakHeapMB"};
+  private static final double[] DEFAULT_TOLERANCES = {0.3, 0.3, 0.1, 0.3};
+
+  private static final int WARMUP_RUNS = 20;
+
+  public static void main(String[] args) throws IOException {
+    File baselineFile = null;
+    File goldenDir = null;
+    File reportDir = new File("perf-report");
+    int runs = 10;
+    boolean update = false;
+
+    for (String arg : args) {
+      if ("-update".equals(arg)) {
+        update = true;
+        continue;
+      }
+      int eq = arg.indexOf('=');
+      String key = eq < 0 ? arg : arg.substring(0, eq);
+      String value = eq < 0 ? null : arg.substring(eq + 1);
+      if ("-baseline".equals(key) && value != null) {
+        baselineFile = new File(value);
+      }
+      else if ("-golden".equals(key) && value != null) {
+        goldenDir = new File(value);
+      }
+      else if ("-report".equals(key) && value != null) {
+        reportDir = new File(value);
+      }
+      else if ("-runs".equals(key) && value != null) {
+        runs = Integer.parseInt(value);
+      }
+      else {
+        System.out.println("Unknown argument: " + arg);
+        System.exit(2);
+      }
+    }
+    if (baselineFile == null || goldenDir == null) {
+      System.out.println("Usage: java PerfRegression -baseline=file -golden=dir [-report=dir] [-runs=n] [-update]");
+      System.exit(2);
+    }
+
+    Corpus corpus = Corpus.load(Corpus.DEFAULT_CORPUS);
+    Map<String, Object> options = Corpus.defaultOptions();
+
+    Corpus.ResultCollector result = null;
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      result = corpus.decompile(options);
+    }
+
+    double[][] samples = new double[METRICS.length][runs];
+    for (int i = 0; i < runs; i++) {
+      result = measure(corpus, options, samples, i);
+    }
+
+    double[] measured = new double[METRICS.length];
+    for (int m = 0; m < METRICS.length; m++) {
+      Arrays.sort(samples[m]);
+      measured[m] = samples[m][runs / 2];
+    }
+
+    Map<String, String> contents = new TreeMap<String, String>(result.getContents());
+    contents.putAll(Corpus.load(Corpus.REGRESSION_CORPUS).decompile(options).getContents());
+
+    if (update) {
+      writeBaseline(baselineFile, readBaseline(baselineFile), measured);
+      writeGolden(goldenDir, contents);
+      System.out.println("Baseline and golden files updated");
+      System.exit(0);
+    }
+
+    StringBuilder report = new StringBuilder();
+    boolean failed = compareMetrics(readBaseline(baselineFile), measured, report);
+    failed |= compareGolden(goldenDir, contents, new File(reportDir, "actual"), report);
+    report.append(failed ? "FAILED\n" : "PASSED\n");
+
+    if (!reportDir.isDirectory() && !reportDir.mkdirs()) {
+      throw new IOException("Cannot create " + reportDir);
+    }
+    writeFile(new File(reportDir, "report.txt"), report.toString());
+
+    System.out.print(report);
+    System.exit(failed ? 1 : 0);
+  }
+
+  private static Corpus.ResultCollector measure(Corpus corpus, Map<String, Object> options, double[][] samples, int run) {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    System.gc();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+
+    long allocated = getAllocatedBytes(threads, threadId);
+    long cpu = threads.getCurrentThreadCpuTime();
+    long start = System.nanoTime();
+
+    Corpus.ResultCollector result = corpus.decompile(options);
+
+    samples[0][run] = (System.nanoTime() - start) / 1e6;
+    samples[1][run] = (threads.getCurrentThreadCpuTime() - cpu) / 1e6;
+    samples[2][run] = (getAllocatedBytes(threads, threadId) - allocated) / 1048576.0;
+
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    samples[3][run] = peak / 1048576.0;
+
+    return result;
+  }
+
+  private static long getAllocatedBytes(ThreadMXBean threads, long threadId) {
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(threadId);
+    }
+    return 0;
+  }
+
+  private static boolean compareMetrics(Properties baseline, double[] measured, StringBuilder report) {
+    boolean failed = false;
+
+    report.append(String.format(Locale.US, "%-12s %12s %12s %9s %9s  %s%n", "metric", "baseline", "measured", "change", "band", "status"));
+    for (int m = 0; m < METRICS.length; m++) {
+      String value = baseline.getProperty(METRICS[m]);
+      if (value == null) {
+        report.append(String.format(Locale.US, "%-12s %12s %12.2f %9s %9s  %s%n", METRICS[m], "-", measured[m], "-", "-", "NO BASELINE"));
+        failed = true;
+        continue;
+      }
+
+      double expected = Double.parseDouble(value);
+      double tolerance = getTolerance(baseline, m);
+      double change = expected == 0 ? 0 : (measured[m] - expected) / expected;
+
+      String status = "ok";
+      if (change > tolerance) {
+        status = "REGRESSED";
+        failed = true;
+      }
+      else if (change < -tolerance) {
+        status = "improved, consider updating the baseline";
+      }
+
+      report.append(String.format(Locale.US, "%-12s %12.2f %12.2f %+8.1f%% %8.0f%%  %s%n", METRICS[m], expected, measured[m],
+                                  change * 100, tolerance * 100, status));
+    }
+    report.append('\n');
+
+    return failed;
+  }
+
+  private static boolean compareGolden(File goldenDir, Map<String, String> contents, File actualDir, StringBuilder report)
+    throws IOException {
+    TreeSet<String> names = new TreeSet<String>(contents.keySet());
+    TreeSet<String> goldenNames = new TreeSet<String>();
+    collectGoldenNames(goldenDir, "", goldenNames);
+    names.addAll(goldenNames);
+
+    int mismatches = 0;
+    for (String name : names) {
+      String content = contents.get(name);
+      if (content == null) {
+        report.append("missing output: ").append(name).append('\n');
+        mismatches++;
+        continue;
+      }
+
+      File golden = new File(goldenDir, name + ".java");
+      if (!golden.isFile()) {
+        report.append("no golden file: ").append(name).append('\n');
+      }
+      else {
+        byte[] expected = InterpreterUtil.getBytes(golden);
+        byte[] actual = content.getBytes(StandardCharsets.UTF_8);
+        if (Arrays.equals(expected, actual)) {
+          continue;
+        }
+        report.append("output differs: ").append(name).append('\n');
+        appendFirstDifference(new String(expected, StandardCharsets.UTF_8), content, report);
+      }
+
+      File actual = new File(actualDir, name + ".java");
+      if (!actual.getParentFile().isDirectory() && !actual.getParentFile().mkdirs()) {
+        throw new IOException("Cannot create " + actual.getParentFile());
+      }
+      writeFile(actual, content);
+      mismatches++;
+    }
+
+    report.append(String.format("golden files: %d classes, %d mismatches%n%n", names.size(), mismatches));
+    return mismatches > 0;
+  }
+
+  private static void appendFirstDifference(String expected, String actual, StringBuilder report) {
+    String[] expectedLines = expected.split("\n", -1);
+    String[] actualLines = actual.split("\n", -1);
+    int line = 0;
+    while (line < expectedLines.length && line < actualLines.length && expectedLines[line].equals(actualLines[line])) {
+      line++;
+    }
+    report.append("  line ").append(line + 1).append('\n');
+    report.append("  - ").append(line < expectedLines.length ? expectedLines[line] : "<end of file>").append('\n');
+    report.append("  + ").append(line < actualLines.length ? actualLines[line] : "<end of file>").append('\n');
+  }
+
+  private static void collectGoldenNames(File dir, String prefix, TreeSet<String> names) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isDirectory()) {
+          collectGoldenNames(file, prefix + file.getName() + "/", names);
+        }
+        else if (file.getName().endsWith(".java")) {
+          names.add(prefix + file.getName().substring(0, file.getName().length() - 5));
+        }
+      }
+    }
+  }
+
+  private static void writeGolden(File goldenDir, Map<String, String> contents) throws IOException {
+    TreeSet<String> stale = new TreeSet<String>();
+    collectGoldenNames(goldenDir, "", stale);
+    stale.removeAll(contents.keySet());
+    for (String name : stale) {
+      if (!new File(goldenDir, name + ".java").delete()) {
+        throw new IOException("Cannot delete golden file " + name);
+      }
+    }
+
+    for (Map.Entry<String, String> entry : contents.entrySet()) {
+      File file = new File(goldenDir, entry.getKey() + ".java");
+      if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+        throw new IOException("Cannot create " + file.getParentFile());
+      }
+      writeFile(file, entry.getValue());
+    }
+  }
+
+  private static void writeFile(File file, String content) throws IOException {
+    OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  private static double getTolerance(Properties baseline, int metric) {
+    String value = baseline.getProperty(METRICS[metric] + ".tolerance");
+    return value == null ? DEFAULT_TOLERANCES[metric] : Double.parseDouble(value);
+  }
+
+  private static Properties readBaseline(File file) throws IOException {
+    Properties properties = new Properties();
+    if (file.isFile()) {
+      InputStream in = new FileInputStream(file);
+      try {
+        properties.load(in);
+      }
+      finally {
+        in.close();
+      }
+    }
+    return properties;
+  }
+
+  private static void writeBaseline(File file, Properties previous, double[] measured) throws IOException {
+    StringBuilder buffer = new StringBuilder();
+    buffer.append("# Median figures of decompiling the benchmark corpus, recorded by PerfRegression -update.\n");
+    buffer.append("# Times depend on the machine, record them where the check runs.\n");
+    buffer.append("# <metric>.tolerance is the allowed increase as a fraction of the baseline.\n");
+    for (int m = 0; m < METRICS.length; m++) {
+      buffer.append(METRICS[m]).append('=').append(String.format(Locale.US, "%.2f", measured[m])).append('\n');
+      buffer.append(METRICS[m]).append(".tolerance=").append(getTolerance(previous, m)).append('\n');
+    }
+
+    File parent = file.getAbsoluteFile().getParentFile();
+    if (!parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Cannot create " + parent);
+    }
+    writeFile(file, buffer.toString());
+  }
+}
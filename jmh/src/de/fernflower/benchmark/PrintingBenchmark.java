@@ -0,0 +1,117 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.fernflower.main.ClassesProcessor;
+import de.fernflower.main.ClassesProcessor.ClassNode;
+import de.fernflower.main.DecompilerContext;
+import de.fernflower.main.Fernflower;
+import de.fernflower.main.TextBuffer;
+import de.fernflower.main.collectors.BytecodeSourceMapper;
+import de.fernflower.main.collectors.CounterContainer;
+import de.fernflower.main.collectors.ImportCollector;
+import de.fernflower.main.extern.IFernflowerPreferences;
+import de.fernflower.struct.StructContext;
+
+/**
+ * Output generation alone: ClassesProcessor.printClass over class trees that have been decompiled in the setup,
+ * with and without bytecode to source line mapping. Every invocation prints the whole corpus. The setup prints
+ * once as well, so the last minute processing in ClassWriter has already been applied and only finds nothing
+ * left to do; the import collectors already know all names.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrintingBenchmark {
+
+  @Param({"false", "true"})
+  public boolean lineMapping;
+
+  private Fernflower fernflower;
+  private ClassesProcessor processor;
+  private final List<ClassNode> roots = new ArrayList<ClassNode>();
+  private final List<ImportCollector> importCollectors = new ArrayList<ImportCollector>();
+  private final List<CounterContainer> counterContainers = new ArrayList<CounterContainer>();
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Corpus corpus = Corpus.load(Corpus.DEFAULT_CORPUS);
+    Map<String, Object> options = Corpus.defaultOptions();
+    options.put(IFernflowerPreferences.BYTECODE_SOURCE_MAPPING, lineMapping ? "1" : "0");
+
+    // state is thread-scoped, so setup and benchmark share the thread and the context
+    fernflower = new Fernflower(corpus, new Corpus.ResultCollector(), options, new Corpus.SilentLogger());
+    StructContext structContext = fernflower.getStructContext();
+    for (String path : corpus.getClasses().keySet()) {
+      structContext.addSpace(new File(path), true);
+    }
+
+    processor = new ClassesProcessor(structContext);
+    DecompilerContext.setClassProcessor(processor);
+    DecompilerContext.setStructContext(structContext);
+
+    // processing registers lambda nodes in the root map, iterate over a copy
+    for (ClassNode root : new ArrayList<ClassNode>(processor.getMapRootClasses().values())) {
+      if (root.type == ClassNode.CLASS_ROOT && root.classStruct.isOwn()) {
+        processor.processClass(root);
+        processor.printClass(root, new TextBuffer(ClassesProcessor.AVERAGE_CLASS_SIZE));
+
+        roots.add(root);
+        importCollectors.add(DecompilerContext.getImportCollector());
+        counterContainers.add(DecompilerContext.getCounterContainer());
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    for (ClassNode root : roots) {
+      ClassesProcessor.destroyWrappers(root);
+    }
+    fernflower.clearContext();
+  }
+
+  @Benchmark
+  public int printClasses() {
+    int length = 0;
+    for (int i = 0; i < roots.size(); i++) {
+      DecompilerContext.setImportCollector(importCollectors.get(i));
+      DecompilerContext.setCounterContainer(counterContainers.get(i));
+      DecompilerContext.setBytecodeSourceMapper(new BytecodeSourceMapper());
+
+      TextBuffer buffer = new TextBuffer(ClassesProcessor.AVERAGE_CLASS_SIZE);
+      processor.printClass(roots.get(i), buffer);
+      length += buffer.toString().length();
+
+      if (lineMapping) {
+        length += DecompilerContext.getBytecodeSourceMapper().getOriginalLinesMapping().length;
+      }
+    }
+    return length;
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.benchmark;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.fernflower.modules.decompiler.exps.VarExprent;
+import de.fernflower.util.IntSparseSetFactory;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSet;
+import de.fernflower.util.SFormsFastMapDirect;
+
+/**
+ * Variable to version set maps as merged by SSAConstructorSparseEx at every graph node. The maps hold locals and
+ * stack variables (keys from VarExprent.STACK_BASE) with one or two versions each, like the maps of real methods.
+ * The alternatives index BitSet and long[] version sets by a dense variable slot. As in the SSA code, union,
+ * intersection and complement work on a copy of the map; subtract the copy score for the bare operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SFormsMapBenchmark {
+
+  private static final int VERSIONS_PER_VARIABLE = 4;
+
+  @Param({"8", "64", "512"})
+  public int variables;
+
+  private SFormsFastMapDirect mapA, mapB;
+  private BitSet[] bitsA, bitsB;
+  private long[][] longsA, longsB;
+
+  private int[] keys;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+
+    IntSparseSetFactory factory = new IntSparseSetFactory(64);
+
+    // three quarters locals, the rest stack variables
+    keys = new int[variables];
+    for (int i = 0; i < variables; i++) {
+      int locals = variables - variables / 4;
+      keys[i] = i < locals ? i : VarExprent.STACK_BASE + i - locals;
+    }
+
+    mapA = new SFormsFastMapDirect();
+    mapB = new SFormsFastMapDirect();
+    bitsA = new BitSet[variables];
+    bitsB = new BitSet[variables];
+    longsA = new long[variables][];
+    longsB = new long[variables][];
+
+    int universe = variables * VERSIONS_PER_VARIABLE;
+    for (int slot = 0; slot < variables; slot++) {
+      // most variables are live in both maps, some only in one of them
+      int shape = random.nextInt(8);
+      if (shape != 0) {
+        fill(random, factory, universe, slot, mapA, bitsA, longsA);
+      }
+      if (shape != 1) {
+        fill(random, factory, universe, slot, mapB, bitsB, longsB);
+      }
+    }
+  }
+
+  private void fill(Random random, IntSparseSetFactory factory, int universe, int slot,
+                    SFormsFastMapDirect map, BitSet[] bits, long[][] longs) {
+    IntSparseSet set = factory.spawnEmptySet();
+    BitSet bitSet = new BitSet();
+    long[] longSet = new long[(universe + 63) >>> 6];
+
+    int count = 1 + random.nextInt(2);
+    for (int i = 0; i < count; i++) {
+      int version = slot * VERSIONS_PER_VARIABLE + random.nextInt(VERSIONS_PER_VARIABLE);
+      set.add(version);
+      bitSet.set(version);
+      longSet[version >>> 6] |= 1L << version;
+    }
+
+    map.put(keys[slot], set);
+    bits[slot] = bitSet;
+    longs[slot] = longSet;
+  }
+
+  // copy
+
+  @Benchmark
+  public Object copyMap() {
+    return mapA.getCopy();
+  }
+
+  @Benchmark
+  public Object copyBitSets() {
+    return copy(bitsA);
+  }
+
+  @Benchmark
+  public Object copyLongs() {
+    return copy(longsA);
+  }
+
+  // union
+
+  @Benchmark
+  public Object unionMap() {
+    SFormsFastMapDirect map = mapA.getCopy();
+    map.union(mapB);
+    return map;
+  }
+
+  @Benchmark
+  public Object unionBitSets() {
+    BitSet[] map = copy(bitsA);
+    for (int i = 0; i < map.length; i++) {
+      if (bitsB[i] != null) {
+        if (map[i] == null) {
+          map[i] = (BitSet)bitsB[i].clone();
+        }
+        else {
+          map[i].or(bitsB[i]);
+        }
+      }
+    }
+    return map;
+  }
+
+  @Benchmark
+  public Object unionLongs() {
+    long[][] map = copy(longsA);
+    for (int i = 0; i < map.length; i++) {
+      long[] second = longsB[i];
+      if (second != null) {
+        long[] first = map[i];
+        if (first == null) {
+          map[i] = second.clone();
+        }
+        else {
+          for (int j = 0; j < first.length; j++) {
+            first[j] |= second[j];
+          }
+        }
+      }
+    }
+    return map;
+  }
+
+  // intersection
+
+  @Benchmark
+  public Object intersectionMap() {
+    SFormsFastMapDirect map = mapA.getCopy();
+    map.intersection(mapB);
+    return map;
+  }
+
+  @Benchmark
+  public Object intersectionBitSets() {
+    BitSet[] map = copy(bitsA);
+    for (int i = 0; i < map.length; i++) {
+      if (map[i] != null) {
+        if (bitsB[i] != null) {
+          map[i].and(bitsB[i]);
+        }
+        if (bitsB[i] == null || map[i].isEmpty()) {
+          map[i] = null;
+        }
+      }
+    }
+    return map;
+  }
+
+  @Benchmark
+  public Object intersectionLongs() {
+    long[][] map = copy(longsA);
+    for (int i = 0; i < map.length; i++) {
+      long[] first = map[i];
+      if (first != null) {
+        long[] second = longsB[i];
+        long any = 0;
+        if (second != null) {
+          for (int j = 0; j < first.length; j++) {
+            any |= first[j] &= second[j];
+          }
+        }
+        if (any == 0) {
+          map[i] = null;
+        }
+      }
+    }
+    return map;
+  }
+
+  // complement
+
+  @Benchmark
+  public Object complementMap() {
+    SFormsFastMapDirect map = mapA.getCopy();
+    map.complement(mapB);
+    return map;
+  }
+
+  @Benchmark
+  public Object complementBitSets() {
+    BitSet[] map = copy(bitsA);
+    for (int i = 0; i < map.length; i++) {
+      if (map[i] != null && bitsB[i] != null) {
+        map[i].andNot(bitsB[i]);
+        if (map[i].isEmpty()) {
+          map[i] = null;
+        }
+      }
+    }
+    return map;
+  }
+
+  @Benchmark
+  public Object complementLongs() {
+    long[][] map = copy(longsA);
+    for (int i = 0; i < map.length; i++) {
+      long[] first = map[i];
+      long[] second = longsB[i];
+      if (first != null && second != null) {
+        long any = 0;
+        for (int j = 0; j < first.length; j++) {
+          any |= first[j] &= ~second[j];
+        }
+        if (any == 0) {
+          map[i] = null;
+        }
+      }
+    }
+    return map;
+  }
+
+  // lookup of every variable
+
+  @Benchmark
+  public int getMap() {
+    int found = 0;
+    for (int key : keys) {
+      if (mapA.get(key) != null) found++;
+    }
+    return found;
+  }
+
+  @Benchmark
+  public int getBitSets() {
+    int found = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (bitsA[i] != null) found++;
+    }
+    return found;
+  }
+
+  private static BitSet[] copy(BitSet[] map) {
+    BitSet[] copy = new BitSet[map.length];
+    for (int i = 0; i < map.length; i++) {
+      if (map[i] != null) {
+        copy[i] = (BitSet)map[i].clone();
+      }
+    }
+    return copy;
+  }
+
+  private static long[][] copy(long[][] map) {
+    long[][] copy = new long[map.length][];
+    for (int i = 0; i < map.length; i++) {
+      if (map[i] != null) {
+        copy[i] = map[i].clone();
+      }
+    }
+    return copy;
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import de.fernflower.benchmark.PathologicalClasses.Shape;
+
+/**
+ * Decompiles the pathological shapes at growing sizes and reports how the time grows with the size.
+ * The growth exponent between two sizes is log(t2 / t1) / log(n2 / n1): about 1 for linear, 2 for quadratic.
+ * <pre>
+ * java ScalingHarness [-shapes=HUGE_METHOD,...] [-sizes=100,200,...] [-runs=5] [-csv=file] [-limit=1.5] [-xxx=value ...]
+ * </pre>
+ * Remaining -xxx=value arguments are decompiler options. With -limit the harness exits with status 1 when
+ * any exponent exceeds it; -csv appends the measurements for tracking across versions. A method that could not be
+ * decompiled, e.g. because a pass ran out of thread stack on a deep shape, is reported and also fails the run.
+ */
+public class ScalingHarness {
+
+  private static final int WARMUP_RUNS = 2;
+
+  // written by ClassWriter in place of a method body
+  private static final String FAILED_METHOD_MARKER = "$FF: Couldn't be decompiled";
+
+  public static void main(String[] args) throws IOException {
+    List<Shape> shapes = new ArrayList<Shape>(Arrays.asList(Shape.values()));
+    int[] sizes = null;
+    int runs = 5;
+    String csv = null;
+    double limit = 0;
+    Map<String, Object> options = Corpus.defaultOptions();
+
+    for (String arg : args) {
+      int eq = arg.indexOf('=');
+      if (!arg.startsWith("-") || eq < 0) {
+        System.out.println("Unknown argument: " + arg);
+        System.exit(2);
+      }
+      String key = arg.substring(1, eq);
+      String value = arg.substring(eq + 1);
+
+      if ("shapes".equals(key)) {
+        shapes.clear();
+        for (String name : value.split(",")) {
+          shapes.add(Shape.valueOf(name.trim().toUpperCase(Locale.US)));
+        }
+      }
+      else if ("sizes".equals(key)) {
+        String[] parts = value.split(",");
+        sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+          sizes[i] = Integer.parseInt(parts[i].trim());
+        }
+      }
+      else if ("runs".equals(key)) {
+        runs = Integer.parseInt(value);
+      }
+      else if ("csv".equals(key)) {
+        csv = value;
+      }
+      else if ("limit".equals(key)) {
+        limit = Double.parseDouble(value);
+      }
+      else {
+        options.put(key, value);
+      }
+    }
+
+    PrintWriter csvWriter = null;
+    if (csv != null) {
+      boolean header = !new File(csv).exists();
+      csvWriter = new PrintWriter(new OutputStreamWriter(new FileOutputStream(csv, true), "UTF-8"));
+      if (header) {
+        csvWriter.println("time,shape,n,classBytes,millis,outputBytes,exponent");
+      }
+    }
+
+    boolean exceeded = false;
+    long timestamp = System.currentTimeMillis();
+    try {
+      System.out.println(String.format(Locale.US, "%-18s %6s %9s %11s %9s", "shape", "n", "bytes", "millis", "exponent"));
+      for (Shape shape : shapes) {
+        int previousSize = 0;
+        double previousMillis = 0;
+
+        for (int n : sizes != null ? sizes : shape.getDefaultSizes()) {
+          Corpus corpus = PathologicalClasses.generateCorpus(shape, n);
+
+          long[] times = new long[runs];
+          long outputBytes = 0;
+          boolean failed = false;
+          for (int run = -WARMUP_RUNS; run < runs; run++) {
+            long start = System.nanoTime();
+            Corpus.ResultCollector result = corpus.decompile(options);
+            long elapsed = System.nanoTime() - start;
+            if (run >= 0) {
+              times[run] = elapsed;
+            }
+            outputBytes = result.getBytes();
+            failed |= hasFailedMethods(result);
+          }
+          Arrays.sort(times);
+          double millis = times[runs / 2] / 1e6;
+
+          double exponent = Double.NaN;
+          if (previousSize > 0 && previousMillis > 0 && millis > 0) {
+            exponent = Math.log(millis / previousMillis) / Math.log((double)n / previousSize);
+          }
+          boolean over = limit > 0 && exponent > limit;
+          exceeded |= over || failed;
+
+          String remark = over ? "  over limit" : (outputBytes == 0 ? "  no output" : "");
+          if (failed) {
+            remark += "  not decompiled";
+          }
+          System.out.println(String.format(Locale.US, "%-18s %6d %9d %11.2f %9s%s", shape.name(), n, corpus.totalBytes(), millis,
+                                           Double.isNaN(exponent) ? "-" : String.format(Locale.US, "%.2f", exponent), remark));
+          if (csvWriter != null) {
+            csvWriter.println(String.format(Locale.US, "%d,%s,%d,%d,%.3f,%d,%s", timestamp, shape.name(), n, corpus.totalBytes(),
+                                            millis, outputBytes, Double.isNaN(exponent) ? "" : String.format(Locale.US, "%.3f", exponent)));
+          }
+
+          previousSize = n;
+          previousMillis = millis;
+        }
+      }
+    }
+    finally {
+      if (csvWriter != null) {
+        csvWriter.close();
+      }
+    }
+
+    // the decompiler may leave method threads behind after a timeout
+    System.exit(exceeded ? 1 : 0);
+  }
+
+  private static boolean hasFailedMethods(Corpus.ResultCollector result) {
+    for (String content : result.getContents().values()) {
+      if (content.contains(FAILED_METHOD_MARKER)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.main.collectors;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event definitions, must only be touched through {@link FlightRecorderEvents}, which loads this class by reflection.
+ * Kept out of the main source tree because it needs jdk.jfr to compile.
+ */
+class FlightRecorderEventTypes implements FlightRecorderEvents.EventTypes {
+
+  @Override
+  public boolean isAvailable() {
+    return FlightRecorder.isAvailable();
+  }
+
+  @Name("de.fernflower.ClassDecompile")
+  @Label("Class Decompile")
+  @Category("Fernflower")
+  static class ClassDecompile extends Event {
+    @Label("Class")
+    String className;
+
+    @Label("Output Size")
+    @DataAmount(DataAmount.BYTES)
+    int outputSize;
+  }
+
+  @Name("de.fernflower.MethodDecompile")
+  @Label("Method Decompile")
+  @Category("Fernflower")
+  static class MethodDecompile extends Event {
+    @Label("Class")
+    String className;
+
+    @Label("Method")
+    String methodName;
+
+    @Label("Descriptor")
+    String descriptor;
+
+    @Label("Code Length")
+    @DataAmount(DataAmount.BYTES)
+    int codeLength;
+
+    @Label("Timeout")
+    boolean timeout;
+
+    @Label("Iterations")
+    int iterations;
+
+    @Label("Iteration Limit Hits")
+    int iterationLimitHits;
+  }
+
+  @Name("de.fernflower.PassExecution")
+  @Label("Pass Execution")
+  @Category("Fernflower")
+  static class PassExecution extends Event {
+    @Label("Class")
+    String className;
+
+    @Label("Method")
+    String methodName;
+
+    @Label("Pass")
+    String pass;
+  }
+
+  @Name("de.fernflower.BytecodeLoad")
+  @Label("Bytecode Load")
+  @Category("Fernflower")
+  static class BytecodeLoad extends Event {
+    @Label("External Path")
+    String externalPath;
+
+    @Label("Internal Path")
+    String internalPath;
+
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    int size;
+  }
+
+  @Name("de.fernflower.ResultSave")
+  @Label("Result Save")
+  @Category("Fernflower")
+  static class ResultSave extends Event {
+    @Label("Class")
+    String className;
+
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    int size;
+  }
+
+  @Override
+  public Object beginClass(String className) {
+    ClassDecompile event = new ClassDecompile();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.className = className;
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endClass(Object event, int outputSize) {
+    ClassDecompile classEvent = (ClassDecompile)event;
+    classEvent.outputSize = outputSize;
+    classEvent.commit();
+  }
+
+  @Override
+  public Object beginMethod(String className, String methodName, String descriptor, int codeLength) {
+    MethodDecompile event = new MethodDecompile();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.className = className;
+    event.methodName = methodName;
+    event.descriptor = descriptor;
+    event.codeLength = codeLength;
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endMethod(Object event, boolean timeout, int iterations, int iterationLimitHits) {
+    MethodDecompile methodEvent = (MethodDecompile)event;
+    methodEvent.timeout = timeout;
+    methodEvent.iterations = iterations;
+    methodEvent.iterationLimitHits = iterationLimitHits;
+    methodEvent.commit();
+  }
+
+  @Override
+  public Object beginPass(String className, String methodName, String pass) {
+    PassExecution event = new PassExecution();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.className = className;
+    event.methodName = methodName;
+    event.pass = pass;
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endPass(Object event) {
+    ((PassExecution)event).commit();
+  }
+
+  @Override
+  public Object beginBytecodeLoad(String externalPath, String internalPath) {
+    BytecodeLoad event = new BytecodeLoad();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.externalPath = externalPath;
+    event.internalPath = internalPath;
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endBytecodeLoad(Object event, int size) {
+    BytecodeLoad loadEvent = (BytecodeLoad)event;
+    loadEvent.size = size;
+    loadEvent.commit();
+  }
+
+  @Override
+  public Object beginResultSave(String className) {
+    ResultSave event = new ResultSave();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.className = className;
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void endResultSave(Object event, int size) {
+    ResultSave saveEvent = (ResultSave)event;
+    saveEvent.size = size;
+    saveEvent.commit();
+  }
+}
@@ -15,24 +15,218 @@
  */
 package de.fernflower.code;
 
-import de.fernflower.util.VBStyleCollection;
+import java.util.Arrays;
 
+import de.fernflower.util.VBStyleCollection;
 
+/**
+ * The instructions of a method as read from the class file, kept in parallel arrays indexed by instruction.
+ * Instruction objects are created on first access and cached, callers that only need opcodes and operands
+ * do without them. The first change to the sequence turns it into a collection of instruction objects keyed
+ * by offset, which is used from then on.
+ */
 public class FullInstructionSequence extends InstructionSequence {
 
+  private static final int GROUP_MASK = 0xFF;
+  private static final int WIDE = 0x100;
+
+  private final int bytecodeVersion;
+
+  private int count;
+
+  private int[] opcodes;
+
+  // group, WIDE
+  private int[] flags;
+
+  private int[] offsets;
+
+  // the operands of instruction i are operands[operandStart[i]] to operands[operandStart[i + 1] - 1]
+  private int[] operandStart;
+
+  private int[] operands;
+
+  private Instruction[] instructions;
+
+  // all instructions once the sequence has been changed, the arrays are not used any more
+  private VBStyleCollection<Instruction, Integer> collinstr;
+
   // *****************************************************************************
   // constructors
   // *****************************************************************************
 
-  public FullInstructionSequence(VBStyleCollection<Instruction, Integer> collinstr, ExceptionTable extable) {
-    this.collinstr = collinstr;
-    this.exceptionTable = extable;
+  /**
+   * @param capacity expected number of instructions, the code length is an upper bound for instructions
+   *                 as well as operands
+   */
+  public FullInstructionSequence(int bytecodeVersion, int capacity) {
+    this.bytecodeVersion = bytecodeVersion;
+    capacity = Math.max(capacity, 1);
+    opcodes = new int[capacity];
+    flags = new int[capacity];
+    offsets = new int[capacity];
+    operandStart = new int[capacity + 1];
+    operands = new int[capacity];
+  }
+
+  // *****************************************************************************
+  // public methods
+  // *****************************************************************************
+
+  /**
+   * Appends an instruction, offsets must be ascending.
+   */
+  public void addInstruction(int opcode, int group, boolean wide, int offset, int[] ops, int opsCount) {
+    if (collinstr != null) {
+      Instruction instr = ConstantsUtil.getInstructionInstance(opcode, wide, group, bytecodeVersion, Arrays.copyOf(ops, opsCount));
+      collinstr.addWithKey(instr, offset);
+      initInstruction(instr, collinstr.size() - 1);
+      return;
+    }
+
+    if (count == opcodes.length) {
+      int capacity = count * 2;
+      opcodes = Arrays.copyOf(opcodes, capacity);
+      flags = Arrays.copyOf(flags, capacity);
+      offsets = Arrays.copyOf(offsets, capacity);
+      operandStart = Arrays.copyOf(operandStart, capacity + 1);
+    }
+
+    int start = operandStart[count];
+    if (start + opsCount > operands.length) {
+      operands = Arrays.copyOf(operands, Math.max(operands.length * 2, start + opsCount));
+    }
+    System.arraycopy(ops, 0, operands, start, opsCount);
+
+    opcodes[count] = opcode;
+    flags[count] = wide ? group | WIDE : group;
+    offsets[count] = offset;
+    operandStart[++count] = start + opsCount;
+  }
+
+  public void setExceptionTable(ExceptionTable exceptionTable) {
+    super.setExceptionTable(exceptionTable);
 
     // translate raw exception handlers to instr
-    for (ExceptionHandler handler : extable.getHandlers()) {
+    for (ExceptionHandler handler : exceptionTable.getHandlers()) {
       handler.from_instr = this.getPointerByAbsOffset(handler.from);
       handler.to_instr = this.getPointerByAbsOffset(handler.to);
       handler.handler_instr = this.getPointerByAbsOffset(handler.handler);
     }
   }
+
+  public Instruction getInstr(int index) {
+    if (collinstr != null) {
+      return collinstr.get(index);
+    }
+    if (index >= count) {
+      throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+    if (instructions == null) {
+      instructions = new Instruction[count];
+    }
+
+    Instruction instr = instructions[index];
+    if (instr == null) {
+      int group = flags[index] & GROUP_MASK;
+      int[] ops = Arrays.copyOfRange(operands, operandStart[index], operandStart[index + 1]);
+
+      instr = ConstantsUtil.getInstructionInstance(opcodes[index], (flags[index] & WIDE) != 0, group, bytecodeVersion, ops);
+      instructions[index] = instr;
+      initInstruction(instr, index);
+    }
+    return instr;
+  }
+
+  public int getOpcode(int index) {
+    if (collinstr != null) {
+      return collinstr.get(index).opcode;
+    }
+    if (index >= count) {
+      throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+    return opcodes[index];
+  }
+
+  public int getOperand(int index, int operand) {
+    if (collinstr != null) {
+      return collinstr.get(index).getOperand(operand);
+    }
+    if (index >= count || operand >= operandStart[index + 1] - operandStart[index]) {
+      throw new IndexOutOfBoundsException(String.valueOf(operand));
+    }
+    return operands[operandStart[index] + operand];
+  }
+
+  public int getOffset(int index) {
+    if (collinstr != null) {
+      return collinstr.getKey(index).intValue();
+    }
+    if (index >= count) {
+      throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+    return offsets[index];
+  }
+
+  public int getPointerByAbsOffset(int offset) {
+    if (collinstr != null) {
+      return collinstr.containsKey(offset) ? collinstr.getIndexByKey(offset) : -1;
+    }
+    int index = Arrays.binarySearch(offsets, 0, count, offset);
+    return index < 0 ? -1 : index;
+  }
+
+  public int length() {
+    return collinstr != null ? collinstr.size() : count;
+  }
+
+  public void addInstruction(Instruction inst, int offset) {
+    getInstructions().addWithKey(inst, offset);
+  }
+
+  public void addInstruction(int index, Instruction inst, int offset) {
+    getInstructions().addWithKeyAndIndex(index, inst, offset);
+  }
+
+  public void removeInstruction(int index) {
+    getInstructions().remove(index);
+  }
+
+  public void clear() {
+    collinstr = null;
+    count = 0;
+    operandStart[0] = 0;
+    instructions = null;
+    super.clear();
+  }
+
+  // *****************************************************************************
+  // private methods
+  // *****************************************************************************
+
+  private void initInstruction(Instruction instr, int index) {
+    if (instr.group != CodeConstants.GROUP_GENERAL) {
+      // targets are resolved relative to the pointer
+      int oldPointer = pointer;
+      pointer = index;
+      instr.initInstruction(this);
+      pointer = oldPointer;
+    }
+  }
+
+  /**
+   * Creates all instruction objects while the indices are still those of the class file, targets are
+   * resolved against them.
+   */
+  private VBStyleCollection<Instruction, Integer> getInstructions() {
+    if (collinstr == null) {
+      VBStyleCollection<Instruction, Integer> collection = new VBStyleCollection<Instruction, Integer>();
+      for (int i = 0; i < count; i++) {
+        collection.addWithKey(getInstr(i), offsets[i]);
+      }
+      collinstr = collection;
+      instructions = null;
+    }
+    return collinstr;
+  }
 }
@@ -25,7 +25,6 @@ import de.fernflower.code.interpreter.Util;
 import de.fernflower.main.DecompilerContext;
 import de.fernflower.struct.StructContext;
 import de.fernflower.util.InterpreterUtil;
-import de.fernflower.util.VBStyleCollection;
 
 
 public abstract class InstructionSequence {
@@ -34,8 +33,6 @@ public abstract class InstructionSequence {
   // private fields
   // *****************************************************************************
 
-  protected VBStyleCollection<Instruction, Integer> collinstr = new VBStyleCollection<Instruction, Integer>();
-
   protected int pointer = 0;
 
   protected ExceptionTable exceptionTable = new ExceptionTable();
@@ -50,18 +47,13 @@ public abstract class InstructionSequence {
   }
 
   public void clear() {
-    collinstr.clear();
     pointer = 0;
     exceptionTable = new ExceptionTable();
   }
 
-  public void addInstruction(Instruction inst, int offset) {
-    collinstr.addWithKey(inst, offset);
-  }
+  public abstract void addInstruction(Instruction inst, int offset);
 
-  public void addInstruction(int index, Instruction inst, int offset) {
-    collinstr.addWithKeyAndIndex(index, inst, offset);
-  }
+  public abstract void addInstruction(int index, Instruction inst, int offset);
 
   public void addSequence(InstructionSequence seq) {
     for (int i = 0; i < seq.length(); i++) {
@@ -69,63 +61,52 @@ public abstract class InstructionSequence {
     }
   }
 
-  public void removeInstruction(int index) {
-    collinstr.remove(index);
-  }
+  public abstract void removeInstruction(int index);
 
   public Instruction getCurrentInstr() {
-    return collinstr.get(pointer);
+    return getInstr(pointer);
   }
 
-  public Instruction getInstr(int index) {
-  return collinstr.get(index);
-  }
+  public abstract Instruction getInstr(int index);
 
   public Instruction getLastInstr() {
-  return collinstr.getLast();
+    return getInstr(length() - 1);
   }
 
-  public int getCurrentOffset() {
-    return collinstr.getKey(pointer).intValue();
+  /**
+   * Opcode of the instruction at index, does not require an instruction object.
+   */
+  public int getOpcode(int index) {
+    return getInstr(index).opcode;
   }
 
-public int getOffset(int index) {
-    return collinstr.getKey(index).intValue();
+  public int getOperand(int index, int operand) {
+    return getInstr(index).getOperand(operand);
   }
 
-  public int getPointerByAbsOffset(int offset) {
-    Integer absoffset = new Integer(offset);
-    if (collinstr.containsKey(absoffset)) {
-      return collinstr.getIndexByKey(absoffset);
-    }
-    else {
-      return -1;
-    }
+  public int getCurrentOffset() {
+    return getOffset(pointer);
   }
 
+  public abstract int getOffset(int index);
+
+  public abstract int getPointerByAbsOffset(int offset);
+
   public int getPointerByRelOffset(int offset) {
-    Integer absoffset = new Integer(collinstr.getKey(pointer).intValue() + offset);
-    if (collinstr.containsKey(absoffset)) {
-      return collinstr.getIndexByKey(absoffset);
-    }
-    else {
-      return -1;
-    }
+    return getPointerByAbsOffset(getOffset(pointer) + offset);
   }
 
   public void setPointerByAbsOffset(int offset) {
-    Integer absoffset = new Integer(collinstr.getKey(pointer).intValue() + offset);
-    if (collinstr.containsKey(absoffset)) {
-      pointer = collinstr.getIndexByKey(absoffset);
+    int index = getPointerByAbsOffset(getOffset(pointer) + offset);
+    if (index >= 0) {
+      pointer = index;
     }
   }
 
-  public int length() {
-    return collinstr.size();
-  }
+  public abstract int length();
 
   public boolean isEmpty() {
-    return collinstr.isEmpty();
+    return length() == 0;
   }
 
   public void addToPointer(int diff) {
@@ -142,11 +123,11 @@ public int getOffset(int index) {
 
     StringBuilder buf = new StringBuilder();
 
-    for (int i = 0; i < collinstr.size(); i++) {
-    buf.append(InterpreterUtil.getIndentString(indent));
-      buf.append(collinstr.getKey(i).intValue());
+    for (int i = 0; i < length(); i++) {
+      buf.append(InterpreterUtil.getIndentString(indent));
+      buf.append(getOffset(i));
       buf.append(": ");
-      buf.append(collinstr.get(i).toString());
+      buf.append(getInstr(i).toString());
       buf.append(new_line_separator);
     }
 
@@ -155,8 +136,8 @@ public int getOffset(int index) {
 
   public void writeCodeToStream(DataOutputStream out) throws IOException {
 
-    for (int i = 0; i < collinstr.size(); i++) {
-      collinstr.get(i).writeToStream(out, collinstr.getKey(i).intValue());
+    for (int i = 0; i < length(); i++) {
+      getInstr(i).writeToStream(out, getOffset(i));
     }
   }
 
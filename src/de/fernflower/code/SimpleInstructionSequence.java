@@ -19,6 +19,8 @@ import de.fernflower.util.VBStyleCollection;
 
 public class SimpleInstructionSequence extends InstructionSequence {
 
+  private VBStyleCollection<Instruction, Integer> collinstr = new VBStyleCollection<Instruction, Integer>();
+
   public SimpleInstructionSequence() {
   }
 
@@ -33,7 +35,45 @@ public class SimpleInstructionSequence extends InstructionSequence {
     return newseq;
   }
 
+  public void clear() {
+    collinstr.clear();
+    super.clear();
+  }
+
+  public void addInstruction(Instruction inst, int offset) {
+    collinstr.addWithKey(inst, offset);
+  }
+
+  public void addInstruction(int index, Instruction inst, int offset) {
+    collinstr.addWithKeyAndIndex(index, inst, offset);
+  }
+
   public void removeInstruction(int index) {
     collinstr.remove(index);
   }
+
+  public Instruction getInstr(int index) {
+    return collinstr.get(index);
+  }
+
+  public Instruction getLastInstr() {
+    return collinstr.getLast();
+  }
+
+  public int getOffset(int index) {
+    return collinstr.getKey(index).intValue();
+  }
+
+  public int getPointerByAbsOffset(int offset) {
+    if (collinstr.containsKey(offset)) {
+      return collinstr.getIndexByKey(offset);
+    }
+    else {
+      return -1;
+    }
+  }
+
+  public int length() {
+    return collinstr.size();
+  }
 }
@@ -47,7 +47,7 @@ public class ControlFlowGraph implements CodeConstants {
 
   private Map<BasicBlock, BasicBlock> subroutines;
 
-  private Set<BasicBlock> finallyExits = new HashSet<BasicBlock>();
+  private Set<BasicBlock> finallyExits = new LinkedHashSet<BasicBlock>();
 
   // *****************************************************************************
   // constructors
@@ -407,7 +407,7 @@ public class ControlFlowGraph implements CodeConstants {
 
   private void setSubroutineEdges() {
 
-    final Map<BasicBlock, BasicBlock> subroutines = new HashMap<BasicBlock, BasicBlock>();
+    final Map<BasicBlock, BasicBlock> subroutines = new LinkedHashMap<BasicBlock, BasicBlock>();
 
     for (BasicBlock block : blocks) {
 
@@ -416,7 +416,7 @@ public class ControlFlowGraph implements CodeConstants {
         LinkedList<BasicBlock> stack = new LinkedList<BasicBlock>();
         LinkedList<LinkedList<BasicBlock>> stackJsrStacks = new LinkedList<LinkedList<BasicBlock>>();
 
-        Set<BasicBlock> setVisited = new HashSet<BasicBlock>();
+        Set<BasicBlock> setVisited = new LinkedHashSet<BasicBlock>();
 
         stack.add(block);
         stackJsrStacks.add(new LinkedList<BasicBlock>());
@@ -517,7 +517,7 @@ public class ControlFlowGraph implements CodeConstants {
         Set<BasicBlock> set1 = arr1.range;
 
         if (!set.contains(arr1.jsr) && !set1.contains(arr.jsr)) { // rang 0 doesn't contain entry 1 and vice versa
-          Set<BasicBlock> setc = new HashSet<BasicBlock>(set);
+          Set<BasicBlock> setc = new LinkedHashSet<BasicBlock>(set);
           setc.retainAll(set1);
 
           if (!setc.isEmpty()) {
@@ -533,7 +533,7 @@ public class ControlFlowGraph implements CodeConstants {
 
   private Set<BasicBlock> getJsrRange(BasicBlock jsr, BasicBlock ret) {
 
-    Set<BasicBlock> blocks = new HashSet<BasicBlock>();
+    Set<BasicBlock> blocks = new LinkedHashSet<BasicBlock>();
 
     List<BasicBlock> lstNodes = new LinkedList<BasicBlock>();
     lstNodes.add(jsr);
@@ -683,7 +683,7 @@ public class ControlFlowGraph implements CodeConstants {
       ExceptionRangeCFG range = exceptions.get(i);
       List<BasicBlock> lstRange = range.getProtectedRange();
 
-      HashSet<BasicBlock> setBoth = new HashSet<BasicBlock>(common_blocks);
+      HashSet<BasicBlock> setBoth = new LinkedHashSet<BasicBlock>(common_blocks);
       setBoth.retainAll(lstRange);
 
       if (setBoth.size() > 0) {
@@ -790,7 +790,7 @@ public class ControlFlowGraph implements CodeConstants {
     LinkedList<BasicBlock> stackNode = new LinkedList<BasicBlock>();
     LinkedList<Integer> stackIndex = new LinkedList<Integer>();
 
-    Set<BasicBlock> setVisited = new HashSet<BasicBlock>();
+    Set<BasicBlock> setVisited = new LinkedHashSet<BasicBlock>();
 
     stackNode.add(root);
     stackIndex.add(0);
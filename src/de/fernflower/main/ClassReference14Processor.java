@@ -101,14 +101,14 @@ public class ClassReference14Processor {
     }
 
     // find the synthetic method Class class$(String) if present
-    HashMap<ClassWrapper, MethodWrapper> mapClassMeths = new HashMap<ClassWrapper, MethodWrapper>();
+    HashMap<ClassWrapper, MethodWrapper> mapClassMeths = new LinkedHashMap<ClassWrapper, MethodWrapper>();
     mapClassMethods(node, mapClassMeths);
 
     if (mapClassMeths.isEmpty()) {
       return;
     }
 
-    HashSet<ClassWrapper> setFound = new HashSet<ClassWrapper>();
+    HashSet<ClassWrapper> setFound = new LinkedHashSet<ClassWrapper>();
     processClassRec(node, mapClassMeths, setFound);
 
     if (!setFound.isEmpty()) {
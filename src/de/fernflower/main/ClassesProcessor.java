@@ -238,65 +238,81 @@ public class ClassesProcessor {
 
     DecompilerContext.getLogger().startReadingClass(cl.qualifiedName);
     try {
-      ImportCollector importCollector = new ImportCollector(root);
-      DecompilerContext.setImportCollector(importCollector);
-      DecompilerContext.setCounterContainer(new CounterContainer());
-      DecompilerContext.setBytecodeSourceMapper(new BytecodeSourceMapper());
+      processClass(root);
+      printClass(root, buffer);
+    }
+    finally {
+      destroyWrappers(root);
+      DecompilerContext.getLogger().endReadingClass();
+    }
+  }
 
-      new LambdaProcessor().processClass(root);
+  /**
+   * Decompiles a root class with its nested classes. The wrappers stay in place until {@link #destroyWrappers}.
+   */
+  public void processClass(ClassNode root) throws IOException {
+    ImportCollector importCollector = new ImportCollector(root);
+    DecompilerContext.setImportCollector(importCollector);
+    DecompilerContext.setCounterContainer(new CounterContainer());
+    DecompilerContext.setBytecodeSourceMapper(new BytecodeSourceMapper());
 
-      // add simple class names to implicit import
-      addClassnameToImport(root, importCollector);
+    new LambdaProcessor().processClass(root);
 
-      // build wrappers for all nested classes (that's where actual processing takes place)
-      initWrappers(root);
+    // add simple class names to implicit import
+    addClassnameToImport(root, importCollector);
 
-      new NestedClassProcessor().processClass(root, root);
+    // build wrappers for all nested classes (that's where actual processing takes place)
+    initWrappers(root);
 
-      new NestedMemberAccess().propagateMemberAccess(root);
+    new NestedClassProcessor().processClass(root, root);
 
-      TextBuffer classBuffer = new TextBuffer(AVERAGE_CLASS_SIZE);
-      new ClassWriter().classToJava(root, classBuffer, 0, null);
+    new NestedMemberAccess().propagateMemberAccess(root);
+  }
 
-      int total_offset_lines = 0;
+  /**
+   * Writes a processed root class with package and imports.
+   */
+  public void printClass(ClassNode root, TextBuffer buffer) {
+    StructClass cl = root.classStruct;
+    ImportCollector importCollector = DecompilerContext.getImportCollector();
 
-      int index = cl.qualifiedName.lastIndexOf("/");
-      if (index >= 0) {
-        total_offset_lines+=2;
-        String packageName = cl.qualifiedName.substring(0, index).replace('/', '.');
+    TextBuffer classBuffer = new TextBuffer(AVERAGE_CLASS_SIZE);
+    new ClassWriter().classToJava(root, classBuffer, 0, null);
 
-        buffer.append("package ");
-        buffer.append(packageName);
-        buffer.append(";");
-        buffer.appendLineSeparator();
-        buffer.appendLineSeparator();
-      }
+    int total_offset_lines = 0;
 
-      int import_lines_written = importCollector.writeImports(buffer);
-      if (import_lines_written > 0) {
-        buffer.appendLineSeparator();
-        total_offset_lines += import_lines_written + 1;
-      }
-      //buffer.append(lineSeparator);
+    int index = cl.qualifiedName.lastIndexOf("/");
+    if (index >= 0) {
+      total_offset_lines+=2;
+      String packageName = cl.qualifiedName.substring(0, index).replace('/', '.');
 
-      total_offset_lines = buffer.countLines();
-      buffer.append(classBuffer);
+      buffer.append("package ");
+      buffer.append(packageName);
+      buffer.append(";");
+      buffer.appendLineSeparator();
+      buffer.appendLineSeparator();
+    }
 
-      if (DecompilerContext.getOption(IFernflowerPreferences.BYTECODE_SOURCE_MAPPING)) {
-        BytecodeSourceMapper mapper = DecompilerContext.getBytecodeSourceMapper();
-        mapper.addTotalOffset(total_offset_lines);
-        if (DecompilerContext.getOption(IFernflowerPreferences.DUMP_ORIGINAL_LINES)) {
-          buffer.dumpOriginalLineNumbers(mapper.getOriginalLinesMapping());
-        }
-        if (DecompilerContext.getOption(IFernflowerPreferences.UNIT_TEST_MODE)) {
-          buffer.appendLineSeparator();
-          mapper.dumpMapping(buffer, true);
-        }
-      }
+    int import_lines_written = importCollector.writeImports(buffer);
+    if (import_lines_written > 0) {
+      buffer.appendLineSeparator();
+      total_offset_lines += import_lines_written + 1;
     }
-    finally {
-      destroyWrappers(root);
-      DecompilerContext.getLogger().endReadingClass();
+    //buffer.append(lineSeparator);
+
+    total_offset_lines = buffer.countLines();
+    buffer.append(classBuffer);
+
+    if (DecompilerContext.getOption(IFernflowerPreferences.BYTECODE_SOURCE_MAPPING)) {
+      BytecodeSourceMapper mapper = DecompilerContext.getBytecodeSourceMapper();
+      mapper.addTotalOffset(total_offset_lines);
+      if (DecompilerContext.getOption(IFernflowerPreferences.DUMP_ORIGINAL_LINES)) {
+        buffer.dumpOriginalLineNumbers(mapper.getOriginalLinesMapping());
+      }
+      if (DecompilerContext.getOption(IFernflowerPreferences.UNIT_TEST_MODE)) {
+        buffer.appendLineSeparator();
+        mapper.dumpMapping(buffer, true);
+      }
     }
   }
 
@@ -327,7 +343,7 @@ public class ClassesProcessor {
     }
   }
 
-  private static void destroyWrappers(ClassNode node) {
+  public static void destroyWrappers(ClassNode node) {
 
     node.wrapper = null;
     node.classStruct.releaseResources();
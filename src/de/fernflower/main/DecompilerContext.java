@@ -22,6 +22,7 @@ import java.util.Map;
 import de.fernflower.main.collectors.BytecodeSourceMapper;
 import de.fernflower.main.collectors.CounterContainer;
 import de.fernflower.main.collectors.ImportCollector;
+import de.fernflower.main.collectors.MethodProfile;
 import de.fernflower.main.collectors.VarNamesCollector;
 import de.fernflower.main.extern.IFernflowerLogger;
 import de.fernflower.main.extern.IFernflowerPreferences;
@@ -47,6 +48,7 @@ public class DecompilerContext {
   private PoolInterceptor poolInterceptor;
   private IFernflowerLogger logger;
   private BytecodeSourceMapper bytecodeSourceMapper;
+  private MethodProfile methodProfile;
 
   private DecompilerContext(Map<String, Object> properties) {
     this.properties = properties;
@@ -112,6 +114,14 @@ public class DecompilerContext {
     getCurrentContext().counterContainer = counterContainer;
   }
 
+  public static MethodProfile getMethodProfile() {
+    return getCurrentContext().methodProfile;
+  }
+
+  public static void setMethodProfile(MethodProfile methodProfile) {
+    getCurrentContext().methodProfile = methodProfile;
+  }
+
   public static ClassesProcessor getClassProcessor() {
     return getCurrentContext().classProcessor;
   }
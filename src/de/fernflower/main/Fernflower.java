@@ -15,10 +15,17 @@
  */
 package de.fernflower.main;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Map;
 
 import de.fernflower.main.ClassesProcessor.ClassNode;
 import de.fernflower.main.collectors.CounterContainer;
+import de.fernflower.main.collectors.DecompilerMetrics;
+import de.fernflower.main.collectors.FlightRecorderEvents;
+import de.fernflower.main.collectors.MetricsLogger;
 import de.fernflower.main.extern.IBytecodeProvider;
 import de.fernflower.main.extern.IFernflowerLogger;
 import de.fernflower.main.extern.IFernflowerPreferences;
@@ -33,25 +40,67 @@ public class Fernflower implements IDecompiledData {
 
   private StructContext structContext;
   private ClassesProcessor classesProcessor;
+  private DecompilerMetrics metrics;
 
   public Fernflower(IBytecodeProvider provider, IResultSaver saver, Map<String, Object> options, IFernflowerLogger logger) {
     structContext = new StructContext(saver, this, new LazyLoader(provider));
     DecompilerContext.initContext(options);
     DecompilerContext.setCounterContainer(new CounterContainer());
+
+    boolean jmx = DecompilerContext.getOption(IFernflowerPreferences.METRICS_JMX);
+    String report = DecompilerContext.getProperty(IFernflowerPreferences.METRICS_REPORT).toString();
+    if (logger != null && (jmx || !report.isEmpty())) {
+      metrics = DecompilerMetrics.newRunMetrics();
+      logger = new MetricsLogger(logger, metrics);
+      if (jmx) {
+        DecompilerMetrics.registerGlobalMetrics();
+      }
+    }
+
     DecompilerContext.setLogger(logger);
   }
 
   public void decompileContext() {
-    if (DecompilerContext.getOption(IFernflowerPreferences.RENAME_ENTITIES)) {
-      new IdentifierConverter().rename(structContext);
+    if (metrics != null) {
+      metrics.startRun();
     }
 
-    classesProcessor = new ClassesProcessor(structContext);
+    try {
+      if (DecompilerContext.getOption(IFernflowerPreferences.RENAME_ENTITIES)) {
+        new IdentifierConverter().rename(structContext);
+      }
+
+      classesProcessor = new ClassesProcessor(structContext);
 
-    DecompilerContext.setClassProcessor(classesProcessor);
-    DecompilerContext.setStructContext(structContext);
+      DecompilerContext.setClassProcessor(classesProcessor);
+      DecompilerContext.setStructContext(structContext);
 
-    structContext.saveContext();
+      structContext.saveContext();
+    }
+    finally {
+      if (metrics != null) {
+        metrics.endRun();
+        saveMetricsReport();
+      }
+    }
+  }
+
+  private void saveMetricsReport() {
+    String path = DecompilerContext.getProperty(IFernflowerPreferences.METRICS_REPORT).toString();
+    if (!path.isEmpty()) {
+      try {
+        Writer out = new OutputStreamWriter(new FileOutputStream(path), "UTF8");
+        try {
+          out.write(metrics.getReport());
+        }
+        finally {
+          out.close();
+        }
+      }
+      catch (IOException ex) {
+        DecompilerContext.getLogger().writeMessage("Cannot write metrics report " + path, ex);
+      }
+    }
   }
 
   public void clearContext() {
@@ -62,6 +111,10 @@ public class Fernflower implements IDecompiledData {
     return structContext;
   }
 
+  public DecompilerMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public String getClassEntryName(StructClass cl, String entryName) {
     ClassNode node = classesProcessor.getMapRootClasses().get(cl.qualifiedName);
@@ -81,15 +134,18 @@ public class Fernflower implements IDecompiledData {
 
   @Override
   public String getClassContent(StructClass cl) {
+    Object event = FlightRecorderEvents.beginClass(cl.qualifiedName);
+    String content = null;
     try {
       TextBuffer buffer = new TextBuffer(ClassesProcessor.AVERAGE_CLASS_SIZE);
       buffer.append(DecompilerContext.getProperty(IFernflowerPreferences.BANNER).toString());
       classesProcessor.writeClass(cl, buffer);
-      return buffer.toString();
+      content = buffer.toString();
     }
     catch (Throwable ex) {
       DecompilerContext.getLogger().writeMessage("Class " + cl.qualifiedName + " couldn't be fully decompiled.", ex);
-      return null;
     }
+    FlightRecorderEvents.endClass(event, content == null ? 0 : content.length());
+    return content;
   }
 }
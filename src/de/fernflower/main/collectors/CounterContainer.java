@@ -21,7 +21,15 @@ public class CounterContainer {
   public static final int EXPRENT_COUNTER = 1;
   public static final int VAR_COUNTER = 2;
 
-  private int[] values = new int[]{1, 1, 1};
+  // fixed-point iteration counters of the method processing loops
+  public static final int FINALLY_ITERATIONS = 3;
+  public static final int STACK_VARS_ITERATIONS = 4;
+  public static final int STRUCTURE_ITERATIONS = 5;
+  public static final int LOOP_MERGE_ITERATIONS = 6;
+  public static final int LOOP_MERGE_ROUND_ITERATIONS = 7;  // loop merging in the current restructuring round
+  public static final int ITERATION_LIMIT_HITS = 8;
+
+  private int[] values = new int[]{1, 1, 1, 0, 0, 0, 0, 0, 0};
 
   public void setCounter(int counter, int value) {
     values[counter] = value;
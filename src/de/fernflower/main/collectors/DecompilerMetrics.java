@@ -0,0 +1,376 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.main.collectors;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and timings of decompilation runs. Every run gets its own instance, which also feeds
+ * the process-wide instance that can be exposed through JMX.
+ */
+public class DecompilerMetrics implements DecompilerMetricsMBean {
+  public static final String OBJECT_NAME = "de.fernflower:type=DecompilerMetrics";
+
+  private static final DecompilerMetrics GLOBAL = new DecompilerMetrics(null);
+  private static boolean globalRegistered = false;
+
+  private final DecompilerMetrics parent;
+  private final List<UnitTiming> units;
+
+  private volatile long startNanos;
+  private volatile long endNanos;
+  private final AtomicLong elapsedNanos = new AtomicLong();  // finished runs only
+
+  private final AtomicLong bytesRead = new AtomicLong();
+  private final AtomicLong bytesWritten = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong timeouts = new AtomicLong();
+
+  private final AtomicLong finallyIterations = new AtomicLong();
+  private final AtomicLong stackVarsIterations = new AtomicLong();
+  private final AtomicLong structureIterations = new AtomicLong();
+  private final AtomicLong loopMergeIterations = new AtomicLong();
+  private final AtomicLong iterationLimitHits = new AtomicLong();
+
+  private final Timing classTiming = new Timing();
+  private final Timing methodTiming = new Timing();
+  private final Timing writeTiming = new Timing();
+
+  private DecompilerMetrics(DecompilerMetrics parent) {
+    this.parent = parent;
+    this.units = parent == null ? null : Collections.synchronizedList(new ArrayList<UnitTiming>());
+  }
+
+  public static DecompilerMetrics newRunMetrics() {
+    return new DecompilerMetrics(GLOBAL);
+  }
+
+  public static DecompilerMetrics getGlobalMetrics() {
+    return GLOBAL;
+  }
+
+  public static synchronized void registerGlobalMetrics() {
+    if (!globalRegistered) {
+      try {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+          server.registerMBean(GLOBAL, name);
+        }
+        globalRegistered = true;
+      }
+      catch (JMException ex) {
+        throw new RuntimeException(ex);
+      }
+    }
+  }
+
+  public void startRun() {
+    startNanos = System.nanoTime();
+    endNanos = 0;
+  }
+
+  public void endRun() {
+    endNanos = System.nanoTime();
+    long elapsed = endNanos - startNanos;
+    elapsedNanos.addAndGet(elapsed);
+    if (parent != null) {
+      parent.elapsedNanos.addAndGet(elapsed);
+    }
+  }
+
+  public void addBytesRead(long count) {
+    bytesRead.addAndGet(count);
+    if (parent != null) parent.addBytesRead(count);
+  }
+
+  public void addBytesWritten(long count) {
+    bytesWritten.addAndGet(count);
+    if (parent != null) parent.addBytesWritten(count);
+  }
+
+  public void addFailure() {
+    failures.incrementAndGet();
+    if (parent != null) parent.addFailure();
+  }
+
+  public void addTimeout() {
+    timeouts.incrementAndGet();
+    if (parent != null) parent.addTimeout();
+  }
+
+  public void addIterations(int finallyCount, int stackVarsCount, int structureCount, int loopMergeCount, int limitHits) {
+    finallyIterations.addAndGet(finallyCount);
+    stackVarsIterations.addAndGet(stackVarsCount);
+    structureIterations.addAndGet(structureCount);
+    loopMergeIterations.addAndGet(loopMergeCount);
+    iterationLimitHits.addAndGet(limitHits);
+    if (parent != null) parent.addIterations(finallyCount, stackVarsCount, structureCount, loopMergeCount, limitHits);
+  }
+
+  public void addClass(String className, long nanos) {
+    classTiming.add(nanos);
+    if (units != null) {
+      units.add(new UnitTiming(className, nanos));
+    }
+    if (parent != null) parent.addClass(className, nanos);
+  }
+
+  public void addMethod(long nanos) {
+    methodTiming.add(nanos);
+    if (parent != null) parent.addMethod(nanos);
+  }
+
+  public void addWrite(long nanos) {
+    writeTiming.add(nanos);
+    if (parent != null) parent.addWrite(nanos);
+  }
+
+  @Override
+  public long getElapsedMillis() {
+    return getElapsedNanos() / 1000000;
+  }
+
+  private long getElapsedNanos() {
+    if (parent == null) {
+      return elapsedNanos.get();
+    }
+    long start = startNanos;
+    if (start == 0) {
+      return 0;
+    }
+    long end = endNanos;
+    return (end == 0 ? System.nanoTime() : end) - start;
+  }
+
+  @Override
+  public long getClassCount() {
+    return classTiming.count.get();
+  }
+
+  @Override
+  public long getMethodCount() {
+    return methodTiming.count.get();
+  }
+
+  @Override
+  public double getClassesPerSecond() {
+    return perSecond(getClassCount());
+  }
+
+  @Override
+  public double getMethodsPerSecond() {
+    return perSecond(getMethodCount());
+  }
+
+  private double perSecond(long count) {
+    long elapsed = getElapsedNanos();
+    return elapsed == 0 ? 0 : count * 1e9 / elapsed;
+  }
+
+  @Override
+  public long getBytesRead() {
+    return bytesRead.get();
+  }
+
+  @Override
+  public long getBytesWritten() {
+    return bytesWritten.get();
+  }
+
+  @Override
+  public long getFailureCount() {
+    return failures.get();
+  }
+
+  @Override
+  public long getTimeoutCount() {
+    return timeouts.get();
+  }
+
+  @Override
+  public long getFinallyIterations() {
+    return finallyIterations.get();
+  }
+
+  @Override
+  public long getStackVarsIterations() {
+    return stackVarsIterations.get();
+  }
+
+  @Override
+  public long getStructureIterations() {
+    return structureIterations.get();
+  }
+
+  @Override
+  public long getLoopMergeIterations() {
+    return loopMergeIterations.get();
+  }
+
+  @Override
+  public long getIterationLimitHits() {
+    return iterationLimitHits.get();
+  }
+
+  @Override
+  public double getAverageClassMillis() {
+    return classTiming.getAverageMillis();
+  }
+
+  @Override
+  public double getMaxClassMillis() {
+    return classTiming.getMaxMillis();
+  }
+
+  @Override
+  public double getAverageMethodMillis() {
+    return methodTiming.getAverageMillis();
+  }
+
+  @Override
+  public double getMaxMethodMillis() {
+    return methodTiming.getMaxMillis();
+  }
+
+  @Override
+  public double getAverageWriteMillis() {
+    return writeTiming.getAverageMillis();
+  }
+
+  @Override
+  public double getMaxWriteMillis() {
+    return writeTiming.getMaxMillis();
+  }
+
+  @Override
+  public String getReport() {
+    StringBuilder buffer = new StringBuilder();
+    buffer.append("{\n");
+    appendValue(buffer, "elapsedMillis", getElapsedMillis());
+    appendValue(buffer, "classes", getClassCount());
+    appendValue(buffer, "methods", getMethodCount());
+    appendValue(buffer, "classesPerSecond", format(getClassesPerSecond()));
+    appendValue(buffer, "methodsPerSecond", format(getMethodsPerSecond()));
+    appendValue(buffer, "bytesRead", getBytesRead());
+    appendValue(buffer, "bytesWritten", getBytesWritten());
+    appendValue(buffer, "failures", getFailureCount());
+    appendValue(buffer, "timeouts", getTimeoutCount());
+    appendValue(buffer, "finallyIterations", getFinallyIterations());
+    appendValue(buffer, "stackVarsIterations", getStackVarsIterations());
+    appendValue(buffer, "structureIterations", getStructureIterations());
+    appendValue(buffer, "loopMergeIterations", getLoopMergeIterations());
+    appendValue(buffer, "iterationLimitHits", getIterationLimitHits());
+    appendTiming(buffer, "classTiming", classTiming);
+    appendTiming(buffer, "methodTiming", methodTiming);
+    appendTiming(buffer, "writeTiming", writeTiming);
+
+    buffer.append("  \"units\": [");
+    if (units != null) {
+      synchronized (units) {
+        for (int i = 0; i < units.size(); i++) {
+          UnitTiming unit = units.get(i);
+          buffer.append(i == 0 ? "\n" : ",\n");
+          buffer.append("    {\"class\": ").append(quote(unit.className));
+          buffer.append(", \"millis\": ").append(format(unit.nanos / 1e6)).append('}');
+        }
+        if (!units.isEmpty()) {
+          buffer.append("\n  ");
+        }
+      }
+    }
+    buffer.append("]\n");
+    buffer.append("}\n");
+    return buffer.toString();
+  }
+
+  private static void appendValue(StringBuilder buffer, String name, Object value) {
+    buffer.append("  ").append(quote(name)).append(": ").append(value).append(",\n");
+  }
+
+  private static void appendTiming(StringBuilder buffer, String name, Timing timing) {
+    buffer.append("  ").append(quote(name)).append(": {");
+    buffer.append("\"count\": ").append(timing.count.get());
+    buffer.append(", \"totalMillis\": ").append(format(timing.total.get() / 1e6));
+    buffer.append(", \"averageMillis\": ").append(format(timing.getAverageMillis()));
+    buffer.append(", \"maxMillis\": ").append(format(timing.getMaxMillis()));
+    buffer.append("},\n");
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.US, "%.3f", value);
+  }
+
+  private static String quote(String value) {
+    StringBuilder buffer = new StringBuilder(value.length() + 2);
+    buffer.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        buffer.append('\\').append(c);
+      }
+      else if (c < 0x20) {
+        buffer.append(String.format("\\u%04x", (int)c));
+      }
+      else {
+        buffer.append(c);
+      }
+    }
+    return buffer.append('"').toString();
+  }
+
+  private static class Timing {
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    private void add(long nanos) {
+      count.incrementAndGet();
+      total.addAndGet(nanos);
+
+      long current;
+      while ((current = max.get()) < nanos && !max.compareAndSet(current, nanos)) ;
+    }
+
+    private double getAverageMillis() {
+      long n = count.get();
+      return n == 0 ? 0 : total.get() / 1e6 / n;
+    }
+
+    private double getMaxMillis() {
+      return max.get() / 1e6;
+    }
+  }
+
+  private static class UnitTiming {
+    private final String className;
+    private final long nanos;
+
+    private UnitTiming(String className, long nanos) {
+      this.className = className;
+      this.nanos = nanos;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.main.collectors;
+
+public interface DecompilerMetricsMBean {
+  long getElapsedMillis();
+
+  long getClassCount();
+
+  long getMethodCount();
+
+  double getClassesPerSecond();
+
+  double getMethodsPerSecond();
+
+  long getBytesRead();
+
+  long getBytesWritten();
+
+  long getFailureCount();
+
+  long getTimeoutCount();
+
+  long getFinallyIterations();
+
+  long getStackVarsIterations();
+
+  long getStructureIterations();
+
+  long getLoopMergeIterations();
+
+  long getIterationLimitHits();
+
+  double getAverageClassMillis();
+
+  double getMaxClassMillis();
+
+  double getAverageMethodMillis();
+
+  double getMaxMethodMillis();
+
+  double getAverageWriteMillis();
+
+  double getMaxWriteMillis();
+
+  String getReport();
+}
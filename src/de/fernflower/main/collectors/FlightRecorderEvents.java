@@ -0,0 +1,114 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.main.collectors;
+
+/**
+ * Java Flight Recorder events of the decompiler. The event classes are built from a separate source tree and loaded
+ * by reflection, so that the decompiler itself compiles and runs without jdk.jfr. When they cannot be loaded or the
+ * running JVM has no flight recorder, all methods are no-ops. Events are passed around as plain objects for the same
+ * reason.
+ */
+public class FlightRecorderEvents {
+
+  interface EventTypes {
+    boolean isAvailable();
+
+    Object beginClass(String className);
+
+    void endClass(Object event, int outputSize);
+
+    Object beginMethod(String className, String methodName, String descriptor, int codeLength);
+
+    void endMethod(Object event, boolean timeout, int iterations, int iterationLimitHits);
+
+    Object beginPass(String className, String methodName, String pass);
+
+    void endPass(Object event);
+
+    Object beginBytecodeLoad(String externalPath, String internalPath);
+
+    void endBytecodeLoad(Object event, int size);
+
+    Object beginResultSave(String className);
+
+    void endResultSave(Object event, int size);
+  }
+
+  private static final EventTypes TYPES = loadTypes();
+
+  private static EventTypes loadTypes() {
+    try {
+      Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+      Class<?> typesClass = Class.forName("de.fernflower.main.collectors.FlightRecorderEventTypes", true,
+                                          FlightRecorderEvents.class.getClassLoader());
+      EventTypes types = (EventTypes)typesClass.getDeclaredConstructor().newInstance();
+      return types.isAvailable() ? types : null;
+    }
+    catch (Throwable t) {
+      return null;
+    }
+  }
+
+  public static Object beginClass(String className) {
+    return TYPES != null ? TYPES.beginClass(className) : null;
+  }
+
+  public static void endClass(Object event, int outputSize) {
+    if (event != null) {
+      TYPES.endClass(event, outputSize);
+    }
+  }
+
+  public static Object beginMethod(String className, String methodName, String descriptor, int codeLength) {
+    return TYPES != null ? TYPES.beginMethod(className, methodName, descriptor, codeLength) : null;
+  }
+
+  public static void endMethod(Object event, boolean timeout, int iterations, int iterationLimitHits) {
+    if (event != null) {
+      TYPES.endMethod(event, timeout, iterations, iterationLimitHits);
+    }
+  }
+
+  public static Object beginPass(String className, String methodName, String pass) {
+    return TYPES != null ? TYPES.beginPass(className, methodName, pass) : null;
+  }
+
+  public static void endPass(Object event) {
+    if (event != null) {
+      TYPES.endPass(event);
+    }
+  }
+
+  public static Object beginBytecodeLoad(String externalPath, String internalPath) {
+    return TYPES != null ? TYPES.beginBytecodeLoad(externalPath, internalPath) : null;
+  }
+
+  public static void endBytecodeLoad(Object event, int size) {
+    if (event != null) {
+      TYPES.endBytecodeLoad(event, size);
+    }
+  }
+
+  public static Object beginResultSave(String className) {
+    return TYPES != null ? TYPES.beginResultSave(className) : null;
+  }
+
+  public static void endResultSave(Object event, int size) {
+    if (event != null) {
+      TYPES.endResultSave(event, size);
+    }
+  }
+}
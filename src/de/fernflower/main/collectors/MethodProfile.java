@@ -0,0 +1,147 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.main.collectors;
+
+import java.util.Locale;
+
+import de.fernflower.modules.decompiler.stats.Statement;
+
+/**
+ * Size figures and pass timings of a single method, collected while the method is processed.
+ * Written by the processing thread and read by the class thread, possibly after the former has been killed.
+ */
+public class MethodProfile {
+
+  public static final int PASS_CFG = 0;
+  public static final int PASS_CFG_CLEANUP = 1;
+  public static final int PASS_PARSE_GRAPH = 2;
+  public static final int PASS_FINALLY = 3;
+  public static final int PASS_EXPRESSIONS = 4;
+  public static final int PASS_STACK_VARS = 5;
+  public static final int PASS_RESTRUCTURING = 6;
+  public static final int PASS_VAR_DEFINITIONS = 7;
+
+  public static final String[] PASS_NAMES = {
+    "cfg", "cfgCleanup", "parseGraph", "finally", "expressions", "stackVars", "restructuring", "varDefinitions"};
+
+  private final String className;
+  private final String methodName;
+  private final long[] passNanos = new long[PASS_NAMES.length];
+
+  private int currentPass = -1;
+  private long passStart;
+
+  private int codeLength = -1;
+  private int basicBlocks = -1;
+  private int exceptionRanges = -1;
+  private int statements = -1;
+  private int ssaVariables = -1;
+  private int[] iterations = {-1, -1, -1, -1};
+  private int iterationLimitHits = -1;
+
+  public MethodProfile(String className, String methodName) {
+    this.className = className;
+    this.methodName = methodName;
+  }
+
+  /**
+   * Ends the running pass, if any, and starts timing the given one.
+   */
+  public synchronized void startPass(int pass) {
+    endPass();
+    currentPass = pass;
+    passStart = System.nanoTime();
+  }
+
+  public synchronized void endPass() {
+    if (currentPass >= 0) {
+      passNanos[currentPass] += System.nanoTime() - passStart;
+      currentPass = -1;
+    }
+  }
+
+  public synchronized void setCodeLength(int codeLength) {
+    this.codeLength = codeLength;
+  }
+
+  public synchronized void setGraphSize(int basicBlocks, int exceptionRanges) {
+    this.basicBlocks = basicBlocks;
+    this.exceptionRanges = exceptionRanges;
+  }
+
+  public synchronized void setStatements(int statements) {
+    this.statements = statements;
+  }
+
+  public synchronized void setSsaVariables(int ssaVariables) {
+    this.ssaVariables = ssaVariables;
+  }
+
+  public synchronized void setIterations(int finallyIterations, int stackVarsIterations, int structureIterations,
+                                         int loopMergeIterations, int limitHits) {
+    this.iterations = new int[]{finallyIterations, stackVarsIterations, structureIterations, loopMergeIterations};
+    this.iterationLimitHits = limitHits;
+  }
+
+  /**
+   * Returns the figures as a JSON object, -1 marks figures the processing did not get to.
+   */
+  public synchronized String toJson(String descriptor, long elapsedMillis, boolean timeout) {
+    long[] nanos = passNanos.clone();
+    if (currentPass >= 0) {
+      nanos[currentPass] += System.nanoTime() - passStart;
+    }
+
+    StringBuilder buffer = new StringBuilder();
+    buffer.append("{\"class\": ").append(quote(className));
+    buffer.append(", \"method\": ").append(quote(methodName));
+    buffer.append(", \"descriptor\": ").append(quote(descriptor));
+    buffer.append(", \"millis\": ").append(elapsedMillis);
+    buffer.append(", \"timeout\": ").append(timeout);
+    buffer.append(", \"codeLength\": ").append(codeLength);
+    buffer.append(", \"basicBlocks\": ").append(basicBlocks);
+    buffer.append(", \"exceptionRanges\": ").append(exceptionRanges);
+    buffer.append(", \"statements\": ").append(statements);
+    buffer.append(", \"ssaVariables\": ").append(ssaVariables);
+    buffer.append(", \"iterations\": {\"finally\": ").append(iterations[0]);
+    buffer.append(", \"stackVars\": ").append(iterations[1]);
+    buffer.append(", \"restructuring\": ").append(iterations[2]);
+    buffer.append(", \"loopMerging\": ").append(iterations[3]).append('}');
+    buffer.append(", \"iterationLimitHits\": ").append(iterationLimitHits);
+    buffer.append(", \"currentPass\": ").append(currentPass >= 0 ? quote(PASS_NAMES[currentPass]) : "null");
+    buffer.append(", \"passMillis\": {");
+    for (int i = 0; i < PASS_NAMES.length; i++) {
+      if (i > 0) {
+        buffer.append(", ");
+      }
+      buffer.append(quote(PASS_NAMES[i])).append(": ").append(String.format(Locale.US, "%.3f", nanos[i] / 1e6));
+    }
+    buffer.append("}}");
+    return buffer.toString();
+  }
+
+  public static int countStatements(Statement stat) {
+    int count = 1;
+    for (Statement st : stat.getStats()) {
+      count += countStatements(st);
+    }
+    return count;
+  }
+
+  private static String quote(String value) {
+    return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.main.collectors;
+
+import de.fernflower.main.extern.IFernflowerLogger;
+
+/**
+ * Logger decorator feeding {@link DecompilerMetrics} from the logger hooks.
+ */
+public class MetricsLogger extends IFernflowerLogger {
+
+  private final IFernflowerLogger logger;
+  private final DecompilerMetrics metrics;
+
+  private String currentClass;
+  private long classStart;
+  private long methodStart;
+  private long[] writeStarts = new long[8];
+  private int writeDepth;
+
+  public MetricsLogger(IFernflowerLogger logger, DecompilerMetrics metrics) {
+    this.logger = logger;
+    this.metrics = metrics;
+  }
+
+  public DecompilerMetrics getMetrics() {
+    return metrics;
+  }
+
+  @Override
+  public boolean accepts(Severity severity) {
+    return logger.accepts(severity);
+  }
+
+  @Override
+  public void setSeverity(Severity severity) {
+    logger.setSeverity(severity);
+  }
+
+  @Override
+  public void writeMessage(String message, Severity severity) {
+    logger.writeMessage(message, severity);
+  }
+
+  @Override
+  public void writeMessage(String message, Throwable t) {
+    metrics.addFailure();
+    logger.writeMessage(message, t);
+  }
+
+  @Override
+  public void startReadingClass(String className) {
+    currentClass = className;
+    classStart = System.nanoTime();
+    logger.startReadingClass(className);
+  }
+
+  @Override
+  public void endReadingClass() {
+    metrics.addClass(currentClass, System.nanoTime() - classStart);
+    currentClass = null;
+    logger.endReadingClass();
+  }
+
+  @Override
+  public void startClass(String className) {
+    logger.startClass(className);
+  }
+
+  @Override
+  public void endClass() {
+    logger.endClass();
+  }
+
+  @Override
+  public void startMethod(String methodName) {
+    methodStart = System.nanoTime();
+    logger.startMethod(methodName);
+  }
+
+  @Override
+  public void endMethod() {
+    metrics.addMethod(System.nanoTime() - methodStart);
+    logger.endMethod();
+  }
+
+  @Override
+  public void methodTimeout(String methodName) {
+    metrics.addTimeout();
+    logger.methodTimeout(methodName);
+  }
+
+  @Override
+  public void methodIterations(String methodName, int finallyIterations, int stackVarsIterations, int structureIterations,
+                               int loopMergeIterations, int limitHits) {
+    metrics.addIterations(finallyIterations, stackVarsIterations, structureIterations, loopMergeIterations, limitHits);
+    logger.methodIterations(methodName, finallyIterations, stackVarsIterations, structureIterations, loopMergeIterations, limitHits);
+  }
+
+  @Override
+  public void startWriteClass(String className) {
+    if (writeDepth == writeStarts.length) {
+      long[] starts = new long[writeDepth * 2];
+      System.arraycopy(writeStarts, 0, starts, 0, writeDepth);
+      writeStarts = starts;
+    }
+    writeStarts[writeDepth++] = System.nanoTime();
+    logger.startWriteClass(className);
+  }
+
+  @Override
+  public void endWriteClass() {
+    if (writeDepth > 0) {
+      long elapsed = System.nanoTime() - writeStarts[--writeDepth];
+      if (writeDepth == 0) {
+        metrics.addWrite(elapsed);  // nested classes are part of the enclosing one
+      }
+    }
+    logger.endWriteClass();
+  }
+
+  @Override
+  public void startSave(int total) {
+    logger.startSave(total);
+  }
+
+  @Override
+  public void updateSave(int current) {
+    logger.updateSave(current);
+  }
+
+  @Override
+  public void bytecodeLoaded(String externalPath, String internalPath, int size) {
+    metrics.addBytesRead(size);
+    logger.bytecodeLoaded(externalPath, internalPath, size);
+  }
+
+  @Override
+  public void classSaved(String qualifiedName, String content) {
+    if (content != null) {
+      metrics.addBytesWritten(utf8Length(content));
+    }
+    logger.classSaved(qualifiedName, content);
+  }
+
+  /**
+   * Returns the length of the string in UTF-8 without encoding it.
+   */
+  private static long utf8Length(String content) {
+    long length = 0;
+    for (int i = 0, len = content.length(); i < len; i++) {
+      char c = content.charAt(i);
+      if (c < 0x80) {
+        length++;
+      }
+      else if (c < 0x800) {
+        length += 2;
+      }
+      else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(content.charAt(i + 1))) {
+          length += 4;
+          i++;
+        }
+        else {
+          length++;  // unpaired surrogates are encoded as '?'
+        }
+      }
+      else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+}
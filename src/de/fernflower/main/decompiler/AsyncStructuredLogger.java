@@ -0,0 +1,372 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.main.decompiler;
+
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import de.fernflower.main.DecompilerContext;
+import de.fernflower.main.extern.IFernflowerLogger;
+import de.fernflower.struct.StructClass;
+
+/**
+ * Logger recording events into a preallocated ring buffer. Formatting and output happen on a background thread,
+ * one line of key=value pairs per event. Every event carries the producing thread, the decompiler context (task)
+ * and the class being processed, so output of concurrent decompilation runs stays attributable.
+ */
+public class AsyncStructuredLogger extends IFernflowerLogger {
+
+  private enum EventType {
+    MESSAGE("message", null),
+    START_READING_CLASS("start_reading_class", "Decompiling class "),
+    END_READING_CLASS("end_reading_class", "... done"),
+    START_CLASS("start_class", "Processing class "),
+    END_CLASS("end_class", "... proceeded"),
+    START_METHOD("start_method", "Processing method "),
+    END_METHOD("end_method", "... proceeded"),
+    START_WRITE_CLASS("start_write_class", "Writing class "),
+    END_WRITE_CLASS("end_write_class", "... written");
+
+    private final String name;
+    private final String text;
+
+    EventType(String name, String text) {
+      this.name = name;
+      this.text = text;
+    }
+  }
+
+  private static class Event {
+    private long time;
+    private EventType type;
+    private Severity severity;
+    private String text;
+    private Throwable error;
+    private long threadId;
+    private String threadName;
+    private Object task;
+    private String className;
+    private int depth;
+
+    private void clear() {
+      text = null;
+      error = null;
+      threadName = null;
+      task = null;
+      className = null;
+    }
+  }
+
+  public static final int DEFAULT_CAPACITY = 8192;
+
+  // per decompiling thread, shared with the method processing threads it starts
+  private final ThreadLocal<int[]> depth = new InheritableThreadLocal<int[]>() {
+    @Override
+    protected int[] initialValue() {
+      return new int[1];
+    }
+  };
+
+  private final PrintStream stream;
+  private final Event[] ring;
+  private final int mask;
+  private final Object lock = new Object();
+  private final Thread writer;
+
+  private long head = 0;  // next event to be written out, guarded by lock
+  private long tail = 0;  // next free slot, guarded by lock
+  private boolean closed = false;
+
+  public AsyncStructuredLogger(PrintStream printStream) {
+    this(printStream, DEFAULT_CAPACITY);
+  }
+
+  public AsyncStructuredLogger(PrintStream printStream, int capacity) {
+    int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+
+    stream = printStream;
+    ring = new Event[size];
+    mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      ring[i] = new Event();
+    }
+
+    writer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        drain();
+      }
+    }, "fernflower-logger");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @Override
+  public void writeMessage(String message, Severity severity) {
+    if (accepts(severity)) {
+      publish(EventType.MESSAGE, severity, message, null, depth.get()[0]);
+    }
+  }
+
+  @Override
+  public void writeMessage(String message, Throwable t) {
+    if (accepts(Severity.ERROR)) {
+      publish(EventType.MESSAGE, Severity.ERROR, message, t, depth.get()[0]);
+    }
+  }
+
+  @Override
+  public void startReadingClass(String className) {
+    start(EventType.START_READING_CLASS, Severity.INFO, className);
+  }
+
+  @Override
+  public void endReadingClass() {
+    end(EventType.END_READING_CLASS, Severity.INFO);
+  }
+
+  @Override
+  public void startClass(String className) {
+    start(EventType.START_CLASS, Severity.TRACE, className);
+  }
+
+  @Override
+  public void endClass() {
+    end(EventType.END_CLASS, Severity.TRACE);
+  }
+
+  @Override
+  public void startMethod(String methodName) {
+    start(EventType.START_METHOD, Severity.TRACE, methodName);
+  }
+
+  @Override
+  public void endMethod() {
+    end(EventType.END_METHOD, Severity.TRACE);
+  }
+
+  @Override
+  public void startWriteClass(String className) {
+    start(EventType.START_WRITE_CLASS, Severity.TRACE, className);
+  }
+
+  @Override
+  public void endWriteClass() {
+    end(EventType.END_WRITE_CLASS, Severity.TRACE);
+  }
+
+  /**
+   * Blocks until all events recorded so far have been written out.
+   */
+  public void flush() {
+    synchronized (lock) {
+      long target = tail;
+      while (head < target && writer.isAlive()) {
+        waitLock();
+      }
+    }
+  }
+
+  /**
+   * Writes out the pending events and stops the background thread. Events recorded afterwards are dropped.
+   */
+  public void close() {
+    synchronized (lock) {
+      closed = true;
+      lock.notifyAll();
+    }
+    try {
+      writer.join();
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void start(EventType type, Severity severity, String text) {
+    int[] level = depth.get();
+    if (accepts(severity)) {
+      publish(type, severity, text, null, level[0]);
+    }
+    level[0]++;
+  }
+
+  private void end(EventType type, Severity severity) {
+    int[] level = depth.get();
+    if (level[0] > 0) {
+      level[0]--;
+    }
+    if (accepts(severity)) {
+      publish(type, severity, null, null, level[0]);
+    }
+  }
+
+  private void publish(EventType type, Severity severity, String text, Throwable error, int level) {
+    Thread thread = Thread.currentThread();
+
+    Object task = null;
+    String className = null;
+    DecompilerContext context = DecompilerContext.getCurrentContext();
+    if (context != null) {
+      task = context;
+      Object cl = DecompilerContext.getProperty(DecompilerContext.CURRENT_CLASS);
+      if (type == EventType.START_READING_CLASS) {
+        className = text;
+      }
+      else if (cl instanceof StructClass) {
+        className = ((StructClass)cl).qualifiedName;
+      }
+    }
+
+    synchronized (lock) {
+      while (tail - head == ring.length && !closed) {
+        waitLock();
+      }
+      if (closed) {
+        return;
+      }
+
+      Event event = ring[(int)(tail & mask)];
+      event.time = System.currentTimeMillis();
+      event.type = type;
+      event.severity = severity;
+      event.text = text;
+      event.error = error;
+      event.threadId = thread.getId();
+      event.threadName = thread.getName();
+      event.task = task;
+      event.className = className;
+      event.depth = level;
+
+      if (tail++ == head) {
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private void drain() {
+    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+    StringBuilder line = new StringBuilder(256);
+    Date date = new Date();
+
+    while (true) {
+      long from, to;
+      synchronized (lock) {
+        while (head == tail && !closed) {
+          waitLock();
+        }
+        if (head == tail) {
+          return;
+        }
+        from = head;
+        to = tail;
+      }
+
+      // slots between head and tail are never touched by producers
+      for (long i = from; i < to; i++) {
+        Event event = ring[(int)(i & mask)];
+        date.setTime(event.time);
+        format(event, dateFormat.format(date), line);
+        stream.println(line);
+        if (event.error != null) {
+          event.error.printStackTrace(stream);
+        }
+        event.clear();
+      }
+      stream.flush();
+
+      synchronized (lock) {
+        head = to;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private static void format(Event event, String time, StringBuilder line) {
+    line.setLength(0);
+    line.append("time=").append(time);
+    line.append(" level=").append(event.severity.name());
+    line.append(" thread=");
+    appendValue(line, event.threadName);
+    line.append(" thread_id=").append(event.threadId);
+    if (event.task != null) {
+      line.append(" task=").append(Integer.toHexString(System.identityHashCode(event.task)));
+    }
+    if (event.className != null) {
+      line.append(" class=");
+      appendValue(line, event.className);
+    }
+    line.append(" event=").append(event.type.name);
+    line.append(" depth=").append(event.depth);
+    line.append(" msg=");
+    if (event.type.text == null) {
+      appendValue(line, event.text);
+    }
+    else if (event.text == null) {
+      appendValue(line, event.type.text);
+    }
+    else {
+      appendValue(line, event.type.text + event.text);
+    }
+  }
+
+  private static void appendValue(StringBuilder line, String value) {
+    if (value == null) {
+      line.append("\"\"");
+      return;
+    }
+
+    boolean quote = value.isEmpty();
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c <= ' ' || c == '"' || c == '=';
+    }
+
+    if (!quote) {
+      line.append(value);
+      return;
+    }
+
+    line.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        line.append('\\').append(c);
+      }
+      else if (c == '\n') {
+        line.append("\\n");
+      }
+      else if (c == '\r') {
+        line.append("\\r");
+      }
+      else {
+        line.append(c);
+      }
+    }
+    line.append('"');
+  }
+
+  private void waitLock() {
+    try {
+      lock.wait();
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ex);
+    }
+  }
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.Map;
 
 import de.fernflower.main.Fernflower;
+import de.fernflower.main.collectors.DecompilerMetrics;
 import de.fernflower.main.extern.IBytecodeProvider;
 import de.fernflower.main.extern.IFernflowerLogger;
 import de.fernflower.main.extern.IResultSaver;
@@ -36,6 +37,10 @@ public class BaseDecompiler {
     fernflower.getStructContext().addSpace(file, isOwn);
   }
 
+  public DecompilerMetrics getMetrics() {
+    return fernflower.getMetrics();
+  }
+
   public void decompileContext() {
     try {
       fernflower.decompileContext();
@@ -27,6 +27,7 @@ import de.fernflower.main.DecompilerContext;
 import de.fernflower.main.Fernflower;
 import de.fernflower.main.extern.IBytecodeProvider;
 import de.fernflower.main.extern.IFernflowerLogger;
+import de.fernflower.main.extern.IFernflowerPreferences;
 import de.fernflower.main.extern.IResultSaver;
 import de.fernflower.util.InterpreterUtil;
 
@@ -50,11 +51,11 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
 
       if (isOption && arg.startsWith("-") &&
           arg.length() > 5 && arg.charAt(4) == '=') {
-        String value = arg.substring(5).toUpperCase(Locale.US);
-        if ("TRUE".equals(value)) {
+        String value = arg.substring(5);
+        if ("TRUE".equalsIgnoreCase(value)) {
           value = "1";
         }
-        else if ("FALSE".equals(value)) {
+        else if ("FALSE".equalsIgnoreCase(value)) {
           value = "0";
         }
 
@@ -83,7 +84,16 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
       return;
     }
 
-    PrintStreamLogger logger = new PrintStreamLogger(System.out);
+    // the structured logger writes on a background thread and has to be closed to get all events out
+    AsyncStructuredLogger structuredLogger = null;
+    IFernflowerLogger logger;
+    if ("1".equals(mapOptions.get(IFernflowerPreferences.STRUCTURED_LOG))) {
+      logger = structuredLogger = new AsyncStructuredLogger(System.out);
+    }
+    else {
+      logger = new PrintStreamLogger(System.out);
+    }
+
     ConsoleDecompiler decompiler = new ConsoleDecompiler(destination, mapOptions, logger);
 
     for (File source : lstSources) {
@@ -93,7 +103,14 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
       decompiler.addSpace(library, false);
     }
 
-    decompiler.decompileContext();
+    try {
+      decompiler.decompileContext();
+    }
+    finally {
+      if (structuredLogger != null) {
+        structuredLogger.close();
+      }
+    }
   }
 
   @SuppressWarnings("UseOfSystemOutOrSystemErr")
@@ -23,17 +23,23 @@ import de.fernflower.util.InterpreterUtil;
 public class PrintStreamLogger extends IFernflowerLogger {
 
   private final PrintStream stream;
-  private int indent;
+
+  // per decompiling thread, shared with the method processing threads it starts
+  private final ThreadLocal<int[]> indent = new InheritableThreadLocal<int[]>() {
+    @Override
+    protected int[] initialValue() {
+      return new int[1];
+    }
+  };
 
   public PrintStreamLogger(PrintStream printStream) {
     stream = printStream;
-    indent = 0;
   }
 
   @Override
   public void writeMessage(String message, Severity severity) {
     if (accepts(severity)) {
-      stream.println(severity.prefix + InterpreterUtil.getIndentString(indent) + message);
+      stream.println(severity.prefix + InterpreterUtil.getIndentString(indent.get()[0]) + message);
     }
   }
 
@@ -49,14 +55,14 @@ public class PrintStreamLogger extends IFernflowerLogger {
   public void startReadingClass(String className) {
     if (accepts(Severity.INFO)) {
       writeMessage("Decompiling class " + className, Severity.INFO);
-      ++indent;
+      ++indent.get()[0];
     }
   }
 
   @Override
   public void endReadingClass() {
     if (accepts(Severity.INFO)) {
-      --indent;
+      --indent.get()[0];
       writeMessage("... done", Severity.INFO);
     }
   }
@@ -65,14 +71,14 @@ public class PrintStreamLogger extends IFernflowerLogger {
   public void startClass(String className) {
     if (accepts(Severity.INFO)) {
       writeMessage("Processing class " + className, Severity.TRACE);
-      ++indent;
+      ++indent.get()[0];
     }
   }
 
   @Override
   public void endClass() {
     if (accepts(Severity.INFO)) {
-      --indent;
+      --indent.get()[0];
       writeMessage("... proceeded", Severity.TRACE);
     }
   }
@@ -81,13 +87,13 @@ public class PrintStreamLogger extends IFernflowerLogger {
   public void startMethod(String methodName) {
     if (accepts(Severity.INFO)) {
       writeMessage("Processing method " + methodName, Severity.TRACE);
-      ++indent;
+      ++indent.get()[0];
     }
   }
 
   public void endMethod() {
     if (accepts(Severity.INFO)) {
-      --indent;
+      --indent.get()[0];
       writeMessage("... proceeded", Severity.TRACE);
     }
   }
@@ -96,14 +102,14 @@ public class PrintStreamLogger extends IFernflowerLogger {
   public void startWriteClass(String className) {
     if (accepts(Severity.INFO)) {
       writeMessage("Writing class " + className, Severity.TRACE);
-      ++indent;
+      ++indent.get()[0];
     }
   }
 
   @Override
   public void endWriteClass() {
     if (accepts(Severity.INFO)) {
-      --indent;
+      --indent.get()[0];
       writeMessage("... written", Severity.TRACE);
     }
   }
@@ -53,6 +53,11 @@ public abstract class IFernflowerLogger {
 
   public void endMethod() { }
 
+  public void methodTimeout(String methodName) { }
+
+  public void methodIterations(String methodName, int finallyIterations, int stackVarsIterations, int structureIterations,
+                               int loopMergeIterations, int limitHits) { }
+
   public void startWriteClass(String className) { }
 
   public void endWriteClass() { }
@@ -60,4 +65,8 @@ public abstract class IFernflowerLogger {
   public void startSave(int total) { }
 
   public void updateSave(int current) { }
+
+  public void bytecodeLoaded(String externalPath, String internalPath, int size) { }
+
+  public void classSaved(String qualifiedName, String content) { }
 }
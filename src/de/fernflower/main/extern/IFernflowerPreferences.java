@@ -50,11 +50,18 @@ public interface IFernflowerPreferences {
 
   String LOG_LEVEL = "log";
   String MAX_PROCESSING_METHOD = "mpm";
+  String MAX_PROCESSING_ITERATIONS = "mpi";
+  String SLOW_METHOD_THRESHOLD = "smt";
+  String SLOW_METHOD_REPORT = "smr";
+  String SLOW_METHOD_DUMP = "smd";
   String RENAME_ENTITIES = "ren";
   String USER_RENAMER_CLASS = "urc";
   String NEW_LINE_SEPARATOR = "nls";
   String INDENT_STRING = "ind";
   String BANNER = "ban";
+  String METRICS_JMX = "jmx";
+  String METRICS_REPORT = "mrp";
+  String STRUCTURED_LOG = "slg";
 
   String DUMP_ORIGINAL_LINES = "__dump_original_lines__";
   String UNIT_TEST_MODE = "__unit_test_mode__";
@@ -91,10 +98,17 @@ public interface IFernflowerPreferences {
 
     put(LOG_LEVEL, IFernflowerLogger.Severity.INFO.name());
     put(MAX_PROCESSING_METHOD, "0");
+    put(MAX_PROCESSING_ITERATIONS, "0");
+    put(SLOW_METHOD_THRESHOLD, "0");
+    put(SLOW_METHOD_REPORT, "");
+    put(SLOW_METHOD_DUMP, "");
     put(RENAME_ENTITIES, "0");
     put(NEW_LINE_SEPARATOR, (InterpreterUtil.IS_WINDOWS ? "0" : "1"));
     put(INDENT_STRING, "   ");
     put(BANNER, "");
+    put(METRICS_JMX, "0");
+    put(METRICS_REPORT, "");
+    put(STRUCTURED_LOG, "0");
     put(UNIT_TEST_MODE, "0");
     put(DUMP_ORIGINAL_LINES, "0");
   }});
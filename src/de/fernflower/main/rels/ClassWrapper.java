@@ -15,13 +15,20 @@
  */
 package de.fernflower.main.rels;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.HashSet;
 import java.util.Set;
 
 import de.fernflower.code.CodeConstants;
 import de.fernflower.main.DecompilerContext;
 import de.fernflower.main.collectors.CounterContainer;
+import de.fernflower.main.collectors.FlightRecorderEvents;
+import de.fernflower.main.collectors.MethodProfile;
 import de.fernflower.main.collectors.VarNamesCollector;
 import de.fernflower.main.extern.IFernflowerLogger;
 import de.fernflower.main.extern.IFernflowerPreferences;
@@ -61,6 +68,7 @@ public class ClassWrapper {
     }
 
     int maxSec = Integer.parseInt(DecompilerContext.getProperty(IFernflowerPreferences.MAX_PROCESSING_METHOD).toString());
+    int slowMillis = Integer.parseInt(DecompilerContext.getProperty(IFernflowerPreferences.SLOW_METHOD_THRESHOLD).toString());
     boolean testMode = DecompilerContext.getOption(IFernflowerPreferences.UNIT_TEST_MODE);
 
     for (StructMethod mt : classStruct.getMethods()) {
@@ -72,6 +80,11 @@ public class ClassWrapper {
       CounterContainer counter = new CounterContainer();
       DecompilerContext.setCounterContainer(counter);
 
+      // pass timing and size figures are only collected when slow methods are to be reported,
+      // JFR pass events do not depend on it
+      MethodProfile profile = slowMillis > 0 ? new MethodProfile(classStruct.qualifiedName, mt.getName()) : null;
+      DecompilerContext.setMethodProfile(profile);
+
       DecompilerContext.setProperty(DecompilerContext.CURRENT_METHOD, mt);
       DecompilerContext.setProperty(DecompilerContext.CURRENT_METHOD_DESCRIPTOR, MethodDescriptor.parseDescriptor(mt.getDescriptor()));
 
@@ -81,6 +94,9 @@ public class ClassWrapper {
       RootStatement root = null;
 
       boolean isError = false;
+      boolean isTimeout = false;
+      long startTime = System.currentTimeMillis();
+      Object methodEvent = FlightRecorderEvents.beginMethod(classStruct.qualifiedName, mt.getName(), mt.getDescriptor(), mt.getCodeLength());
 
       try {
         if (mt.containsCode()) {
@@ -109,8 +125,10 @@ public class ClassWrapper {
               if (System.currentTimeMillis() >= stopAt) {
                 String message = "Processing time limit exceeded for method " + mt.getName() + ", execution interrupted.";
                 DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.ERROR);
+                DecompilerContext.getLogger().methodTimeout(mt.getName() + " " + mt.getDescriptor());
                 killThread(mtThread);
                 isError = true;
+                isTimeout = true;
                 break;
               }
             }
@@ -154,6 +172,29 @@ public class ClassWrapper {
         isError = true;
       }
 
+      int finallyIterations = counter.getCounter(CounterContainer.FINALLY_ITERATIONS);
+      int stackVarsIterations = counter.getCounter(CounterContainer.STACK_VARS_ITERATIONS);
+      int structureIterations = counter.getCounter(CounterContainer.STRUCTURE_ITERATIONS);
+      int loopMergeIterations = counter.getCounter(CounterContainer.LOOP_MERGE_ITERATIONS);
+      int limitHits = counter.getCounter(CounterContainer.ITERATION_LIMIT_HITS);
+
+      FlightRecorderEvents.endMethod(methodEvent, isTimeout,
+                                     finallyIterations + stackVarsIterations + structureIterations + loopMergeIterations, limitHits);
+
+      if (profile != null) {
+        profile.setIterations(finallyIterations, stackVarsIterations, structureIterations, loopMergeIterations, limitHits);
+      }
+
+      if (mt.containsCode()) {
+        DecompilerContext.getLogger().methodIterations(mt.getName() + " " + mt.getDescriptor(), finallyIterations,
+                                                       stackVarsIterations, structureIterations, loopMergeIterations, limitHits);
+      }
+
+      long elapsed = System.currentTimeMillis() - startTime;
+      if (mt.containsCode() && profile != null && (isTimeout || elapsed >= slowMillis)) {
+        reportSlowMethod(mt, profile, elapsed, isTimeout);
+      }
+
       MethodWrapper methodWrapper = new MethodWrapper(root, varProc, mt, counter);
       methodWrapper.decompiledWithErrors = isError;
 
@@ -178,6 +219,56 @@ public class ClassWrapper {
     DecompilerContext.getLogger().endClass();
   }
 
+  private static void reportSlowMethod(StructMethod mt, MethodProfile profile, long elapsed, boolean timeout) {
+    String className = mt.getClassStruct().qualifiedName;
+    String report = profile.toJson(mt.getDescriptor(), elapsed, timeout);
+
+    String reportPath = DecompilerContext.getProperty(IFernflowerPreferences.SLOW_METHOD_REPORT).toString();
+    if (reportPath.isEmpty()) {
+      DecompilerContext.getLogger().writeMessage("Slow method: " + report, IFernflowerLogger.Severity.WARN);
+    }
+    else {
+      synchronized (ClassWrapper.class) {
+        try {
+          Writer out = new OutputStreamWriter(new FileOutputStream(reportPath, true), "UTF8");
+          try {
+            out.write(report);
+            out.write('\n');
+          }
+          finally {
+            out.close();
+          }
+        }
+        catch (IOException ex) {
+          DecompilerContext.getLogger().writeMessage("Cannot write slow method report " + reportPath, ex);
+        }
+      }
+    }
+
+    String dumpPath = DecompilerContext.getProperty(IFernflowerPreferences.SLOW_METHOD_DUMP).toString();
+    if (!dumpPath.isEmpty()) {
+      File file = new File(dumpPath, className + ".class");
+      if (!file.exists()) {
+        try {
+          byte[] bytes = mt.getClassStruct().getLoader().getClassBytes(className);
+          if (bytes != null) {
+            file.getParentFile().mkdirs();
+            OutputStream out = new FileOutputStream(file);
+            try {
+              out.write(bytes);
+            }
+            finally {
+              out.close();
+            }
+          }
+        }
+        catch (IOException ex) {
+          DecompilerContext.getLogger().writeMessage("Cannot dump class file " + file, ex);
+        }
+      }
+    }
+  }
+
   @SuppressWarnings("deprecation")
   private static void killThread(Thread thread) {
     thread.stop();
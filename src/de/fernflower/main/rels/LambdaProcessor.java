@@ -19,7 +19,6 @@ import java.io.IOException;
 import java.util.*;
 
 import de.fernflower.code.CodeConstants;
-import de.fernflower.code.Instruction;
 import de.fernflower.code.InstructionSequence;
 import de.fernflower.main.ClassesProcessor;
 import de.fernflower.main.DecompilerContext;
@@ -89,10 +88,8 @@ public class LambdaProcessor {
         int len = seq.length();
 
         for (int i = 0; i < len; ++i) {
-          Instruction instr = seq.getInstr(i);
-
-          if (instr.opcode == CodeConstants.opc_invokedynamic) {
-            LinkConstant invoke_dynamic = cl.getPool().getLinkConstant(instr.getOperand(0));
+          if (seq.getOpcode(i) == CodeConstants.opc_invokedynamic) {
+            LinkConstant invoke_dynamic = cl.getPool().getLinkConstant(seq.getOperand(i, 0));
 
             if (lambda_methods.get(invoke_dynamic.index1)) { // lambda invocation found
 
@@ -23,6 +23,8 @@ import de.fernflower.code.InstructionSequence;
 import de.fernflower.code.cfg.ControlFlowGraph;
 import de.fernflower.main.DecompilerContext;
 import de.fernflower.main.collectors.CounterContainer;
+import de.fernflower.main.collectors.FlightRecorderEvents;
+import de.fernflower.main.collectors.MethodProfile;
 import de.fernflower.main.extern.IFernflowerLogger;
 import de.fernflower.main.extern.IFernflowerPreferences;
 import de.fernflower.modules.code.DeadCodeHelper;
@@ -82,9 +84,21 @@ public class MethodProcessorRunnable implements Runnable {
 
     boolean isInitializer = CodeConstants.CLINIT_NAME.equals(mt.getName()); // for now static initializer only
 
+    MethodProfile profile = DecompilerContext.getMethodProfile();
+    if (profile != null) {
+      profile.setCodeLength(mt.getCodeLength());
+    }
+
+    Object passEvent = startPass(mt, profile, null, MethodProfile.PASS_CFG);
+
     mt.expandData();
     InstructionSequence seq = mt.getInstructionSequence();
     ControlFlowGraph graph = new ControlFlowGraph(seq);
+    if (profile != null) {
+      profile.setGraphSize(graph.getBlocks().size(), graph.getExceptions().size());
+    }
+
+    passEvent = startPass(mt, profile, passEvent, MethodProfile.PASS_CFG_CLEANUP);
 
     DeadCodeHelper.removeDeadBlocks(graph);
     graph.inlineJsr(mt);
@@ -118,10 +132,24 @@ public class MethodProcessorRunnable implements Runnable {
       DecompilerContext.getLogger().writeMessage("Heavily obfuscated exception ranges found!", IFernflowerLogger.Severity.WARN);
     }
 
+    CounterContainer counter = DecompilerContext.getCounterContainer();
+    int maxIterations = Integer.parseInt(DecompilerContext.getProperty(IFernflowerPreferences.MAX_PROCESSING_ITERATIONS).toString());
+
+    passEvent = startPass(mt, profile, passEvent, MethodProfile.PASS_PARSE_GRAPH);
+
     RootStatement root = DomHelper.parseGraph(graph);
+    if (profile != null) {
+      profile.setStatements(MethodProfile.countStatements(root));
+    }
+
+    passEvent = startPass(mt, profile, passEvent, MethodProfile.PASS_FINALLY);
 
     FinallyProcessor fProc = new FinallyProcessor(varProc);
-    while (fProc.iterateGraph(mt, root, graph)) {
+    while (!isIterationLimitReached(mt, counter, CounterContainer.FINALLY_ITERATIONS, maxIterations, "finally processing")) {
+      if (!fProc.iterateGraph(mt, root, graph)) {
+        break;
+      }
+
       root = DomHelper.parseGraph(graph);
     }
 
@@ -129,6 +157,8 @@ public class MethodProcessorRunnable implements Runnable {
     // not until now because of comparison between synchronized statements in the finally cycle
     DomHelper.removeSynchronizedHandler(root);
 
+    passEvent = startPass(mt, profile, passEvent, MethodProfile.PASS_EXPRESSIONS);
+
 //    LabelHelper.lowContinueLabels(root, new HashSet<StatEdge>());
 
     SequenceHelper.condenseSequences(root);
@@ -139,22 +169,49 @@ public class MethodProcessorRunnable implements Runnable {
     proc.processStatement(root, cl);
 
     SequenceHelper.condenseSequences(root);
-    
+
+    passEvent = startPass(mt, profile, passEvent, MethodProfile.PASS_STACK_VARS);
+
     while (true) {
+      if (isIterationLimitReached(mt, counter, CounterContainer.STACK_VARS_ITERATIONS, maxIterations, "stack variable simplification")) {
+        // the last round rewrote ++/-- expressions, versions have to match the tree again
+        varProc.setVarVersions(root);
+        if (profile != null) {
+          profile.setSsaVariables(counter.getCounter(CounterContainer.VAR_COUNTER));
+        }
+        break;
+      }
+
       StackVarsProcessor stackProc = new StackVarsProcessor();
       stackProc.simplifyStackVars(root, mt, cl);
 
       varProc.setVarVersions(root);
+      if (profile != null) {
+        profile.setSsaVariables(counter.getCounter(CounterContainer.VAR_COUNTER));
+      }
 
       if (!new PPandMMHelper().findPPandMM(root)) {
         break;
       }
     }
 
+    passEvent = startPass(mt, profile, passEvent, MethodProfile.PASS_RESTRUCTURING);
+
     while (true) {
       LabelHelper.cleanUpEdges(root);
 
-      while (true) {
+      if (isIterationLimitReached(mt, counter, CounterContainer.STRUCTURE_ITERATIONS, maxIterations, "statement restructuring")) {
+        // keep the current structure, labels still have to be consistent with it
+        LabelHelper.identifyLabels(root);
+        break;
+      }
+
+      // the limit applies to each restructuring round on its own
+      counter.setCounter(CounterContainer.LOOP_MERGE_ROUND_ITERATIONS, 0);
+
+      while (!isIterationLimitReached(mt, counter, CounterContainer.LOOP_MERGE_ROUND_ITERATIONS, maxIterations, "loop and if merging")) {
+        counter.getCounterAndIncrement(CounterContainer.LOOP_MERGE_ITERATIONS);
+
         MergeHelper.enhanceLoops(root);
 
         if (LoopExtractHelper.extractLoops(root)) {
@@ -193,6 +250,8 @@ public class MethodProcessorRunnable implements Runnable {
 //      }
     }
 
+    passEvent = startPass(mt, profile, passEvent, MethodProfile.PASS_VAR_DEFINITIONS);
+
     ExitHelper.removeRedundantReturns(root);
 
     SecondaryFunctionsHelper.identifySecondaryFunctions(root);
@@ -203,11 +262,54 @@ public class MethodProcessorRunnable implements Runnable {
     // FIXME: new edge type needed
     LabelHelper.replaceContinueWithBreak(root);
 
+    FlightRecorderEvents.endPass(passEvent);
+    if (profile != null) {
+      profile.endPass();
+    }
+
     mt.releaseResources();
 
+    IFernflowerLogger logger = DecompilerContext.getLogger();
+    if (logger.accepts(IFernflowerLogger.Severity.TRACE)) {
+      logger.writeMessage("Iterations: finally " + counter.getCounter(CounterContainer.FINALLY_ITERATIONS) +
+                          ", stack vars " + counter.getCounter(CounterContainer.STACK_VARS_ITERATIONS) +
+                          ", restructuring " + counter.getCounter(CounterContainer.STRUCTURE_ITERATIONS) +
+                          ", loop merging " + counter.getCounter(CounterContainer.LOOP_MERGE_ITERATIONS),
+                          IFernflowerLogger.Severity.TRACE);
+    }
+
     return root;
   }
 
+  /**
+   * Ends the running pass and starts the given one. JFR pass events are sent whenever the recording asks for them,
+   * the profile only exists when slow methods are reported.
+   */
+  private static Object startPass(StructMethod mt, MethodProfile profile, Object passEvent, int pass) {
+    FlightRecorderEvents.endPass(passEvent);
+    if (profile != null) {
+      profile.startPass(pass);
+    }
+    return FlightRecorderEvents.beginPass(mt.getClassStruct().qualifiedName, mt.getName(), MethodProfile.PASS_NAMES[pass]);
+  }
+
+  /**
+   * Checked before every round of a processing loop, counts the round if the limit still allows it.
+   */
+  private static boolean isIterationLimitReached(StructMethod mt, CounterContainer counter, int counterType, int maxIterations, String pass) {
+    if (maxIterations > 0 && counter.getCounter(counterType) >= maxIterations) {
+      counter.getCounterAndIncrement(CounterContainer.ITERATION_LIMIT_HITS);
+
+      String message = "Iteration limit exceeded in " + pass + " for method " + mt.getName() + " " + mt.getDescriptor() +
+                       ", keeping current structure.";
+      DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.WARN);
+      return true;
+    }
+
+    counter.getCounterAndIncrement(counterType);
+    return false;
+  }
+
   public RootStatement getResult() throws Throwable {
     Throwable t = error;
     if (t != null) throw t;
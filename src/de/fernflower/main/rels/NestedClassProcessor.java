@@ -824,7 +824,7 @@ public class NestedClassProcessor {
 
     RootStatement root = meth.root;
 
-    HashSet<Statement> setStats = new HashSet<Statement>();
+    HashSet<Statement> setStats = new LinkedHashSet<Statement>();
     VarType classtype = new VarType(node.classStruct.qualifiedName, true);
 
     Statement stdef = getDefStatement(root, classtype, setStats);
@@ -15,8 +15,9 @@
  */
 package de.fernflower.main.rels;
 
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.Map;
 
@@ -42,7 +43,7 @@ public class NestedMemberAccess {
   private static final int METHOD_ACCESS_METHOD = 4;
 
   private boolean noSynthFlag;
-  private Map<MethodWrapper, Integer> mapMethodType = new HashMap<MethodWrapper, Integer>();
+  private Map<MethodWrapper, Integer> mapMethodType = new LinkedHashMap<MethodWrapper, Integer>();
 
 
   public void propagateMemberAccess(ClassNode root) {
@@ -228,7 +229,7 @@ public class NestedMemberAccess {
 
         DirectGraph graph = meth.getOrBuildGraph();
 
-        HashSet<DirectNode> setVisited = new HashSet<DirectNode>();
+        HashSet<DirectNode> setVisited = new LinkedHashSet<DirectNode>();
         LinkedList<DirectNode> stack = new LinkedList<DirectNode>();
         stack.add(graph.first);
 
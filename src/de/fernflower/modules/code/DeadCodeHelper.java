@@ -31,7 +31,7 @@ public class DeadCodeHelper {
   public static void removeDeadBlocks(ControlFlowGraph graph) {
 
     LinkedList<BasicBlock> stack = new LinkedList<BasicBlock>();
-    HashSet<BasicBlock> setStacked = new HashSet<BasicBlock>();
+    HashSet<BasicBlock> setStacked = new LinkedHashSet<BasicBlock>();
 
     stack.add(graph.getFirst());
     setStacked.add(graph.getFirst());
@@ -50,7 +50,7 @@ public class DeadCodeHelper {
       }
     }
 
-    HashSet<BasicBlock> setAllBlocks = new HashSet<BasicBlock>(graph.getBlocks());
+    HashSet<BasicBlock> setAllBlocks = new LinkedHashSet<BasicBlock>(graph.getBlocks());
     setAllBlocks.removeAll(setStacked);
 
     for (BasicBlock block : setAllBlocks) {
@@ -94,7 +94,7 @@ public class DeadCodeHelper {
         }
       }
 
-      HashSet<BasicBlock> setExits = new HashSet<BasicBlock>(graph.getLast().getPreds());
+      HashSet<BasicBlock> setExits = new LinkedHashSet<BasicBlock>(graph.getLast().getPreds());
 
       if (block.getPredExceptions().isEmpty() &&
           (!setExits.contains(block) || block.getPreds().size() == 1)) {
@@ -109,15 +109,15 @@ public class DeadCodeHelper {
           }
         }
 
-        HashSet<BasicBlock> setPreds = new HashSet<BasicBlock>(block.getPreds());
-        HashSet<BasicBlock> setSuccs = new HashSet<BasicBlock>(block.getSuccs());
+        HashSet<BasicBlock> setPreds = new LinkedHashSet<BasicBlock>(block.getPreds());
+        HashSet<BasicBlock> setSuccs = new LinkedHashSet<BasicBlock>(block.getSuccs());
 
         // collect common exception ranges of predecessors and successors
         HashSet<BasicBlock> setCommonExceptionHandlers = null;
         for (int i = 0; i < 2; ++i) {
           for (BasicBlock pred : i == 0 ? setPreds : setSuccs) {
             if (setCommonExceptionHandlers == null) {
-              setCommonExceptionHandlers = new HashSet<BasicBlock>(pred.getSuccExceptions());
+              setCommonExceptionHandlers = new LinkedHashSet<BasicBlock>(pred.getSuccExceptions());
             }
             else {
               setCommonExceptionHandlers.retainAll(pred.getSuccExceptions());
@@ -205,7 +205,7 @@ public class DeadCodeHelper {
 
   public static boolean isDominator(ControlFlowGraph graph, BasicBlock block, BasicBlock dom) {
 
-    HashSet<BasicBlock> marked = new HashSet<BasicBlock>();
+    HashSet<BasicBlock> marked = new LinkedHashSet<BasicBlock>();
 
     if (block == dom) {
       return true;
@@ -262,7 +262,7 @@ public class DeadCodeHelper {
   public static void connectDummyExitBlock(ControlFlowGraph graph) {
 
     BasicBlock exit = graph.getLast();
-    for (BasicBlock block : new HashSet<BasicBlock>(exit.getPreds())) {
+    for (BasicBlock block : new LinkedHashSet<BasicBlock>(exit.getPreds())) {
       exit.removePredecessor(block);
       block.addSuccessor(exit);
     }
@@ -311,8 +311,8 @@ public class DeadCodeHelper {
 
           if (!block.getPreds().isEmpty()) {
 
-            HashSet<BasicBlock> setPredHandlersUnion = new HashSet<BasicBlock>();
-            HashSet<BasicBlock> setPredHandlersIntersection = new HashSet<BasicBlock>();
+            HashSet<BasicBlock> setPredHandlersUnion = new LinkedHashSet<BasicBlock>();
+            HashSet<BasicBlock> setPredHandlersIntersection = new LinkedHashSet<BasicBlock>();
 
             boolean firstpred = true;
             for (BasicBlock pred : block.getPreds()) {
@@ -339,7 +339,7 @@ public class DeadCodeHelper {
             }
 
             // remove redundant ranges
-            HashSet<BasicBlock> setRangesToBeRemoved = new HashSet<BasicBlock>(block.getSuccExceptions());
+            HashSet<BasicBlock> setRangesToBeRemoved = new LinkedHashSet<BasicBlock>(block.getSuccExceptions());
             setRangesToBeRemoved.removeAll(setPredHandlersUnion);
 
             for (BasicBlock handler : setRangesToBeRemoved) {
@@ -369,7 +369,7 @@ public class DeadCodeHelper {
               }
 
               // remove superfluous ranges from successors
-              for (BasicBlock succ : new HashSet<BasicBlock>(block.getSuccExceptions())) {
+              for (BasicBlock succ : new LinkedHashSet<BasicBlock>(block.getSuccExceptions())) {
                 if (!bpred.getSuccExceptions().contains(succ)) {
                   ExceptionRangeCFG range = graph.getExceptionRange(succ, block);
 
@@ -25,9 +25,9 @@ public class DecHelper {
 
   public static boolean checkStatementExceptions(List<Statement> lst) {
 
-    Set<Statement> all = new HashSet<Statement>(lst);
+    Set<Statement> all = new LinkedHashSet<Statement>(lst);
 
-    Set<Statement> handlers = new HashSet<Statement>();
+    Set<Statement> handlers = new LinkedHashSet<Statement>();
     Set<Statement> intersection = null;
 
     for (Statement stat : lst) {
@@ -37,7 +37,7 @@ public class DecHelper {
         intersection = setNew;
       }
       else {
-        HashSet<Statement> interclone = new HashSet<Statement>(intersection);
+        HashSet<Statement> interclone = new LinkedHashSet<Statement>(intersection);
         interclone.removeAll(setNew);
 
         intersection.retainAll(setNew);
@@ -58,7 +58,7 @@ public class DecHelper {
     // check for other handlers (excluding head)
     for (int i = 1; i < lst.size(); i++) {
       Statement stat = lst.get(i);
-      if (!stat.getPredecessorEdges(StatEdge.TYPE_EXCEPTION).isEmpty() && !handlers.contains(stat)) {
+      if (!stat.getPredecessorEdgeView(StatEdge.TYPE_EXCEPTION).isEmpty() && !handlers.contains(stat)) {
         return false;
       }
     }
@@ -197,11 +197,11 @@ public class DecHelper {
 
   public static HashSet<Statement> getUniquePredExceptions(Statement head) {
 
-    HashSet<Statement> setHandlers = new HashSet<Statement>(head.getNeighbours(StatEdge.TYPE_EXCEPTION, Statement.DIRECTION_FORWARD));
+    HashSet<Statement> setHandlers = new LinkedHashSet<Statement>(head.getNeighbours(StatEdge.TYPE_EXCEPTION, Statement.DIRECTION_FORWARD));
 
     Iterator<Statement> it = setHandlers.iterator();
     while (it.hasNext()) {
-      if (it.next().getPredecessorEdges(StatEdge.TYPE_EXCEPTION).size() > 1) {
+      if (it.next().getPredecessorEdgeView(StatEdge.TYPE_EXCEPTION).size() > 1) {
         it.remove();
       }
     }
@@ -20,6 +20,8 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -121,7 +123,7 @@ public class DomHelper {
 
   public static VBStyleCollection<List<Integer>, Integer> calcPostDominators(Statement container) {
 
-    HashMap<Statement, FastFixedSet<Statement>> lists = new HashMap<Statement, FastFixedSet<Statement>>();
+    HashMap<Statement, FastFixedSet<Statement>> lists = new LinkedHashMap<Statement, FastFixedSet<Statement>>();
 
     StrongConnectivityHelper schelper = new StrongConnectivityHelper(container);
     List<List<Statement>> components = schelper.getComponents();
@@ -239,7 +241,7 @@ public class DomHelper {
       throw new RuntimeException("parsing failure!");
     }
 
-    LabelHelper.lowContinueLabels(root, new HashSet<StatEdge>());
+    LabelHelper.lowContinueLabels(root, new LinkedHashSet<StatEdge>());
 
     SequenceHelper.condenseSequences(root);
     root.buildMonitorFlags();
@@ -250,23 +252,30 @@ public class DomHelper {
     return root;
   }
 
-  public static void removeSynchronizedHandler(Statement stat) {
+  public static void removeSynchronizedHandler(Statement root) {
 
-    for (Statement st : stat.getStats()) {
-      removeSynchronizedHandler(st);
-    }
-
-    if (stat.type == Statement.TYPE_SYNCRONIZED) {
-      ((SynchronizedStatement)stat).removeExc();
-    }
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public void leave(Statement stat) {
+        if (stat.type == Statement.TYPE_SYNCRONIZED) {
+          ((SynchronizedStatement)stat).removeExc();
+        }
+      }
+    });
   }
 
 
-  private static void buildSynchronized(Statement stat) {
+  private static void buildSynchronized(Statement root) {
 
-    for (Statement st : stat.getStats()) {
-      buildSynchronized(st);
-    }
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public void leave(Statement stat) {
+        buildSynchronizedSequence(stat);
+      }
+    });
+  }
+
+  private static void buildSynchronizedSequence(Statement stat) {
 
     if (stat.type == Statement.TYPE_SEQUENCE) {
 
@@ -294,7 +303,7 @@ public class DomHelper {
               if (ca.getFirst().isContainsMonitorExit() && ca.getHandler().isContainsMonitorExit()) {
 
                 // remove the head block from sequence
-                current.removeSuccessor(current.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0));
+                current.removeSuccessor(current.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0));
 
                 for (StatEdge edge : current.getPredecessorEdges(Statement.STATEDGE_DIRECT_ALL)) {
                   current.removePredecessor(edge);
@@ -309,7 +318,7 @@ public class DomHelper {
                 SynchronizedStatement sync = new SynchronizedStatement(current, ca.getFirst(), ca.getHandler());
                 sync.setAllParent();
 
-                for (StatEdge edge : new HashSet<StatEdge>(ca.getLabelEdges())) {
+                for (StatEdge edge : new LinkedHashSet<StatEdge>(ca.getLabelEdges())) {
                   sync.addLabeledEdge(edge);
                 }
 
@@ -501,11 +510,11 @@ public class DomHelper {
 
         boolean same = (post == head);
 
-        HashSet<Statement> setNodes = new HashSet<Statement>();
-        HashSet<Statement> setPreds = new HashSet<Statement>();
+        HashSet<Statement> setNodes = new LinkedHashSet<Statement>();
+        HashSet<Statement> setPreds = new LinkedHashSet<Statement>();
 
         // collect statement nodes
-        HashSet<Statement> setHandlers = new HashSet<Statement>();
+        HashSet<Statement> setHandlers = new LinkedHashSet<Statement>();
         setHandlers.add(head);
         while (true) {
 
@@ -87,9 +87,9 @@ public class EliminateLoopsHelper {
 
     Statement loopcontent = loop.getFirst();
 
-    boolean firstok = loopcontent.getAllSuccessorEdges().isEmpty();
+    boolean firstok = !loopcontent.hasAnySuccessor();
     if (!firstok) {
-      StatEdge edge = loopcontent.getAllSuccessorEdges().get(0);
+      StatEdge edge = loopcontent.getFirstSuccessor();
       firstok = (edge.closure == loop && edge.getType() == StatEdge.TYPE_BREAK);
       if (firstok) {
         lstBreakEdges.remove(edge);
@@ -205,8 +205,8 @@ public class EliminateLoopsHelper {
 
     // remove the last break edge, if exists
     Statement loopcontent = loop.getFirst();
-    if (!loopcontent.getAllSuccessorEdges().isEmpty()) {
-      loopcontent.removeSuccessor(loopcontent.getAllSuccessorEdges().get(0));
+    if (loopcontent.hasAnySuccessor()) {
+      loopcontent.removeSuccessor(loopcontent.getFirstSuccessor());
     }
 
     // replace loop with its content
@@ -48,66 +48,110 @@ public class ExitHelper {
 
   private static void cleanUpUnreachableBlocks(Statement stat) {
 
-    boolean found;
-    do {
+    // statements are processed on an explicit stack, deeply nested statements would overflow the thread stack
+    List<ExitFrame> stack = new ArrayList<ExitFrame>();
+    stack.add(new ExitFrame(stat));
 
-      found = false;
+    boolean returned = false;
 
-      for (int i = 0; i < stat.getStats().size(); i++) {
+    while (true) {
+      ExitFrame frame = stack.get(stack.size() - 1);
 
-        Statement st = stat.getStats().get(i);
+      if (returned) {
+        returned = false;
 
-        cleanUpUnreachableBlocks(st);
+        if (cleanUpUnreachableBlock(frame.current)) {
+          // start over with the first child
+          frame.index = 0;
+        }
+        else {
+          frame.index++;
+        }
+      }
+
+      if (frame.index < frame.stat.getStats().size()) {
+        frame.current = frame.stat.getStats().get(frame.index);
+        stack.add(new ExitFrame(frame.current));
+      }
+      else {
+        stack.remove(stack.size() - 1);
+        if (stack.isEmpty()) {
+          return;
+        }
+        returned = true;
+      }
+    }
+  }
 
-        if (st.type == Statement.TYPE_SEQUENCE && st.getStats().size() > 1) {
+  private static boolean cleanUpUnreachableBlock(Statement st) {
 
-          Statement last = st.getStats().getLast();
-          Statement secondlast = st.getStats().get(st.getStats().size() - 2);
+    if (st.type == Statement.TYPE_SEQUENCE && st.getStats().size() > 1) {
 
-          if (last.getExprents() == null || !last.getExprents().isEmpty()) {
-            if (!secondlast.hasBasicSuccEdge()) {
+      Statement last = st.getStats().getLast();
+      Statement secondlast = st.getStats().get(st.getStats().size() - 2);
 
-              Set<Statement> set = last.getNeighboursSet(Statement.STATEDGE_DIRECT_ALL, Statement.DIRECTION_BACKWARD);
-              set.remove(secondlast);
+      if (last.getExprents() == null || !last.getExprents().isEmpty()) {
+        if (!secondlast.hasBasicSuccEdge()) {
 
-              if (set.isEmpty()) {
-                last.setExprents(new ArrayList<Exprent>());
-                found = true;
-                break;
-              }
-            }
+          Set<Statement> set = last.getNeighboursSet(Statement.STATEDGE_DIRECT_ALL, Statement.DIRECTION_BACKWARD);
+          set.remove(secondlast);
+
+          if (set.isEmpty()) {
+            last.setExprents(new ArrayList<Exprent>());
+            return true;
           }
         }
       }
     }
-    while (found);
+
+    return false;
   }
 
 
   private static int integrateExits(Statement stat) {
 
-    int ret = 0;
-    Statement dest = null;
+    // statements are processed on an explicit stack, deeply nested statements would overflow the thread stack
+    List<ExitFrame> stack = new ArrayList<ExitFrame>();
+    stack.add(new ExitFrame(stat));
 
-    if (stat.getExprents() == null) {
+    boolean returned = false;
+    int changed = 0;
 
-      while (true) {
+    while (true) {
+      ExitFrame frame = stack.get(stack.size() - 1);
 
-        int changed = 0;
+      if (returned) {
+        returned = false;
 
-        for (Statement st : stat.getStats()) {
-          changed = integrateExits(st);
-          if (changed > 0) {
-            ret = 1;
-            break;
-          }
+        if (changed > 0) {
+          // start over with the first child
+          frame.ret = 1;
+          frame.index = 0;
+        }
+        else {
+          frame.index++;
         }
+      }
 
-        if (changed == 0) {
-          break;
+      if (frame.stat.getExprents() == null && frame.index < frame.stat.getStats().size()) {
+        stack.add(new ExitFrame(frame.stat.getStats().get(frame.index)));
+      }
+      else {
+        stack.remove(stack.size() - 1);
+        changed = integrateExit(frame.stat, frame.ret);
+        if (stack.isEmpty()) {
+          return changed;
         }
+        returned = true;
       }
+    }
+  }
 
+  private static int integrateExit(Statement stat, int ret) {
+
+    Statement dest = null;
+
+    if (stat.getExprents() == null) {
 
       switch (stat.type) {
         case Statement.TYPE_IF:
@@ -128,7 +172,7 @@ public class ExitHelper {
               ifst.getStats().addWithKey(bstat, bstat.id);
               bstat.setParent(ifst);
 
-              StatEdge oldexitedge = dest.getAllSuccessorEdges().get(0);
+              StatEdge oldexitedge = dest.getFirstSuccessor();
               StatEdge newexitedge = new StatEdge(StatEdge.TYPE_BREAK, bstat, oldexitedge.getDestination());
               bstat.addSuccessor(newexitedge);
               oldexitedge.closure.addLabeledEdge(newexitedge);
@@ -139,14 +183,14 @@ public class ExitHelper {
     }
 
 
-    if (stat.getAllSuccessorEdges().size() == 1 &&
-        stat.getAllSuccessorEdges().get(0).getType() == StatEdge.TYPE_BREAK &&
+    if (stat.getSuccessorEdgeView(Statement.STATEDGE_ALL).size() == 1 &&
+        stat.getFirstSuccessor().getType() == StatEdge.TYPE_BREAK &&
         stat.getLabelEdges().isEmpty()) {
       Statement parent = stat.getParent();
       if (stat != parent.getFirst() || (parent.type != Statement.TYPE_IF &&
                                         parent.type != Statement.TYPE_SWITCH)) {
 
-        StatEdge destedge = stat.getAllSuccessorEdges().get(0);
+        StatEdge destedge = stat.getFirstSuccessor();
         dest = isExitEdge(destedge);
         if (dest != null) {
           stat.removeSuccessor(destedge);
@@ -155,7 +199,7 @@ public class ExitHelper {
             DecompilerContext.getCounterContainer().getCounterAndIncrement(CounterContainer.STATEMENT_COUNTER)));
           bstat.setExprents(DecHelper.copyExprentList(dest.getExprents()));
 
-          StatEdge oldexitedge = dest.getAllSuccessorEdges().get(0);
+          StatEdge oldexitedge = dest.getFirstSuccessor();
           StatEdge newexitedge = new StatEdge(StatEdge.TYPE_BREAK, bstat, oldexitedge.getDestination());
           bstat.addSuccessor(newexitedge);
           oldexitedge.closure.addLabeledEdge(newexitedge);
@@ -342,4 +386,15 @@ public class ExitHelper {
 
     return bstat;
   }
+
+  private static class ExitFrame {
+    private final Statement stat;
+    private Statement current;
+    private int index;
+    private int ret;
+
+    private ExitFrame(Statement stat) {
+      this.stat = stat;
+    }
+  }
 }
@@ -172,7 +172,7 @@ public class ExprProcessor implements CodeConstants {
     Map<String, VarExprent> mapCatch = new HashMap<String, VarExprent>();
     collectCatchVars(root, flatthelper, mapCatch);
 
-    Map<DirectNode, Map<String, PrimitiveExprsList>> mapData = new HashMap<DirectNode, Map<String, PrimitiveExprsList>>();
+    Map<DirectNode, Map<String, PrimitiveExprsList>> mapData = new LinkedHashMap<DirectNode, Map<String, PrimitiveExprsList>>();
 
     LinkedList<DirectNode> stack = new LinkedList<DirectNode>();
     LinkedList<LinkedList<String>> stackEntryPoint = new LinkedList<LinkedList<String>>();
@@ -286,7 +286,18 @@ public class ExprProcessor implements CodeConstants {
     }
   }
 
-  private static void collectCatchVars(Statement stat, FlattenStatementsHelper flatthelper, Map<String, VarExprent> map) {
+  private static void collectCatchVars(Statement root, final FlattenStatementsHelper flatthelper, final Map<String, VarExprent> map) {
+
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
+        collectCatchVar(stat, flatthelper, map);
+        return true;
+      }
+    });
+  }
+
+  private static void collectCatchVar(Statement stat, FlattenStatementsHelper flatthelper, Map<String, VarExprent> map) {
 
     List<VarExprent> lst = null;
 
@@ -305,18 +316,16 @@ public class ExprProcessor implements CodeConstants {
         map.put(flatthelper.getMapDestinationNodes().get(stat.getStats().get(i).id)[0], lst.get(i - 1));
       }
     }
-
-    for (Statement st : stat.getStats()) {
-      collectCatchVars(st, flatthelper, map);
-    }
   }
 
-  private static void initStatementExprents(Statement stat) {
-    stat.initExprents();
-
-    for (Statement st : stat.getStats()) {
-      initStatementExprents(st);
-    }
+  private static void initStatementExprents(Statement root) {
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
+        stat.initExprents();
+        return true;
+      }
+    });
   }
 
   public void processBlock(BasicBlockStatement stat, PrimitiveExprsList data, StructClass cl) {
@@ -786,7 +795,7 @@ public class ExprProcessor implements CodeConstants {
         }
 
         if (edge.labeled) {
-          buf.append(" label").append(edge.closure.id.toString());
+          buf.append(" label").append(edge.closure.id);
         }
         buf.append(";").appendLineSeparator();
         tracer.incrementCurrentSourceLine();
@@ -32,7 +32,6 @@ import de.fernflower.modules.decompiler.exps.Exprent;
 import de.fernflower.modules.decompiler.exps.VarExprent;
 import de.fernflower.modules.decompiler.sforms.DirectGraph;
 import de.fernflower.modules.decompiler.sforms.DirectNode;
-import de.fernflower.modules.decompiler.sforms.FlattenStatementsHelper;
 import de.fernflower.modules.decompiler.sforms.SSAConstructorSparseEx;
 import de.fernflower.modules.decompiler.stats.BasicBlockStatement;
 import de.fernflower.modules.decompiler.stats.CatchAllStatement;
@@ -64,6 +63,10 @@ public class FinallyProcessor {
 
     int bytecode_version = mt.getClassStruct().getBytecodeVersion();
 
+    // only inconsistent regions are handled in one pass: they leave the graph unchanged, so the search goes on and
+    // the tree is parsed again once. Every rewritten region still ends the pass and costs a full re-parse.
+    boolean reparse = false;
+
     LinkedList<Statement> stack = new LinkedList<Statement>();
     stack.add(root);
 
@@ -95,6 +98,7 @@ public class FinallyProcessor {
 
           if (inf == null) { // inconsistent finally
             catchallBlockIDs.put(handler.id, null);
+            reparse = true;
           }
           else {
 
@@ -112,16 +116,17 @@ public class FinallyProcessor {
             DeadCodeHelper.removeDeadBlocks(graph); // e.g. multiple return blocks after a nested finally
             DeadCodeHelper.removeEmptyBlocks(graph);
             DeadCodeHelper.mergeBasicBlocks(graph);
-          }
 
-          return true;
+            // blocks may have been merged across the method, the statements of other regions are stale
+            return true;
+          }
         }
       }
 
       stack.addAll(stat.getStats());
     }
 
-    return false;
+    return reparse;
   }
 
 
@@ -193,7 +198,7 @@ public class FinallyProcessor {
 
   private static Record getFinallyInformation(StructMethod mt, RootStatement root, CatchAllStatement fstat) {
 
-    Map<BasicBlock, Boolean> mapLast = new HashMap<BasicBlock, Boolean>();
+    Map<BasicBlock, Boolean> mapLast = new LinkedHashMap<BasicBlock, Boolean>();
 
     BasicBlockStatement firstBlockStatement = fstat.getHandler().getBasichead();
     BasicBlock firstBasicBlock = firstBlockStatement.getBlock();
@@ -219,13 +224,13 @@ public class FinallyProcessor {
 
     VarVersionPair varpaar = new VarVersionPair((VarExprent)((AssignmentExprent)lstExprents.get(firstcode == 2 ? 1 : 0)).getLeft());
 
-    FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
-    DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+    // the statements are unchanged since the SSA pass flattened them
+    DirectGraph dgraph = ssa.getDirectGraph();
 
     LinkedList<DirectNode> stack = new LinkedList<DirectNode>();
     stack.add(dgraph.first);
 
-    Set<DirectNode> setVisited = new HashSet<DirectNode>();
+    Set<DirectNode> setVisited = new LinkedHashSet<DirectNode>();
 
     while (!stack.isEmpty()) {
 
@@ -376,7 +381,7 @@ public class FinallyProcessor {
                                       Record information,
                                       int bytecode_version) {
 
-    Set<BasicBlock> setCopy = new HashSet<BasicBlock>(setTry);
+    Set<BasicBlock> setCopy = new LinkedHashSet<BasicBlock>(setTry);
 
     int finallytype = information.firstCode;
     Map<BasicBlock, Boolean> mapLast = information.mapLast;
@@ -466,7 +471,7 @@ public class FinallyProcessor {
     setCopy.add(newhead);
     setCopy.add(newheadinit);
 
-    for (BasicBlock hd : new HashSet<BasicBlock>(newheadinit.getSuccExceptions())) {
+    for (BasicBlock hd : new LinkedHashSet<BasicBlock>(newheadinit.getSuccExceptions())) {
       ExceptionRangeCFG range = graph.getExceptionRange(hd, newheadinit);
 
       if (setCopy.containsAll(range.getProtectedRange())) {
@@ -529,7 +534,7 @@ public class FinallyProcessor {
     }
     while (index < lst.size());
 
-    HashSet<BasicBlock> res = new HashSet<BasicBlock>();
+    HashSet<BasicBlock> res = new LinkedHashSet<BasicBlock>();
 
     for (Statement st : lst) {
       res.add(((BasicBlockStatement)st).getBlock());
@@ -571,7 +576,7 @@ public class FinallyProcessor {
     }
 
     // identify start blocks
-    HashSet<BasicBlock> startBlocks = new HashSet<BasicBlock>();
+    HashSet<BasicBlock> startBlocks = new LinkedHashSet<BasicBlock>();
     for (BasicBlock block : tryBlocks) {
       startBlocks.addAll(block.getSuccs());
     }
@@ -656,7 +661,7 @@ public class FinallyProcessor {
 
     List<BlockStackEntry> stack = new LinkedList<BlockStackEntry>();
 
-    Set<BasicBlock> setSample = new HashSet<BasicBlock>();
+    Set<BasicBlock> setSample = new LinkedHashSet<BasicBlock>();
 
     Map<String, BasicBlock[]> mapNext = new HashMap<String, BasicBlock[]>();
 
@@ -740,7 +745,7 @@ public class FinallyProcessor {
       }
 
       if (isLastBlock) {
-        Set<BasicBlock> setSuccs = new HashSet<BasicBlock>(blockSample.getSuccs());
+        Set<BasicBlock> setSuccs = new LinkedHashSet<BasicBlock>(blockSample.getSuccs());
         setSuccs.removeAll(setSample);
 
         for (BlockStackEntry stackent : stack) {
@@ -975,14 +980,14 @@ public class FinallyProcessor {
     }
 
     // collect common exception ranges of predecessors and successors
-    Set<BasicBlock> setCommonExceptionHandlers = new HashSet<BasicBlock>(next.getSuccExceptions());
+    Set<BasicBlock> setCommonExceptionHandlers = new LinkedHashSet<BasicBlock>(next.getSuccExceptions());
     for (BasicBlock pred : start.getPreds()) {
       setCommonExceptionHandlers.retainAll(pred.getSuccExceptions());
     }
 
     boolean is_outside_range = false;
 
-    Set<BasicBlock> setPredecessors = new HashSet<BasicBlock>(start.getPreds());
+    Set<BasicBlock> setPredecessors = new LinkedHashSet<BasicBlock>(start.getPreds());
 
     // replace start with next
     for (BasicBlock pred : setPredecessors) {
@@ -1004,7 +1009,7 @@ public class FinallyProcessor {
           is_outside_range = true;
         }
 
-        Set<ExceptionRangeCFG> setRemovedExceptionRanges = new HashSet<ExceptionRangeCFG>();
+        Set<ExceptionRangeCFG> setRemovedExceptionRanges = new LinkedHashSet<ExceptionRangeCFG>();
         for (BasicBlock handler : block.getSuccExceptions()) {
           setRemovedExceptionRanges.add(graph.getExceptionRange(handler, block));
         }
@@ -161,8 +161,8 @@ public class IdeaNotNullHelper {
       ifstat.getStats().removeWithKey(ifbranch.id);
       ifstat.getStats().removeWithKey(elsebranch.id);
 
-      if (!ifbranch.getAllSuccessorEdges().isEmpty()) {
-        ifbranch.removeSuccessor(ifbranch.getAllSuccessorEdges().get(0));
+      if (ifbranch.hasAnySuccessor()) {
+        ifbranch.removeSuccessor(ifbranch.getFirstSuccessor());
       }
 
       ifstat.getParent().replaceStatement(ifstat, elsebranch);
@@ -241,8 +241,8 @@ public class IdeaNotNullHelper {
                   ifparent.getStats().removeWithKey(ifbranch.id);
                   ifparent.getStats().removeWithKey(elsebranch.id);
 
-                  if (!ifbranch.getAllSuccessorEdges().isEmpty()) {
-                    ifbranch.removeSuccessor(ifbranch.getAllSuccessorEdges().get(0));
+                  if (ifbranch.hasAnySuccessor()) {
+                    ifbranch.removeSuccessor(ifbranch.getFirstSuccessor());
                   }
 
                   if (!ifparent.getFirst().getExprents().isEmpty()) {
@@ -298,7 +298,7 @@ public class IdeaNotNullHelper {
                       // TODO: special check for IllegalStateException
                       ifbranch.getExprents().get(0).type == Exprent.EXPRENT_EXIT) {
 
-                    ifstat.removeSuccessor(ifstat.getAllSuccessorEdges().get(0)); // remove 'else' edge
+                    ifstat.removeSuccessor(ifstat.getFirstSuccessor()); // remove 'else' edge
 
                     if (!ifstat.getFirst().getExprents().isEmpty()) {
                       stat.getExprents().addAll(0, ifstat.getFirst().getExprents());
@@ -34,7 +34,7 @@ public class IfHelper {
 
   public static boolean mergeAllIfs(RootStatement root) {
 
-    boolean res = mergeAllIfsRec(root, new HashSet<Integer>());
+    boolean res = mergeAllIfsInTree(root, new HashSet<Integer>());
 
     if (res) {
       SequenceHelper.condenseSequences(root);
@@ -44,31 +44,50 @@ public class IfHelper {
   }
 
 
-  private static boolean mergeAllIfsRec(Statement stat, HashSet<Integer> setReorderedIfs) {
+  private static boolean mergeAllIfsInTree(Statement root, HashSet<Integer> setReorderedIfs) {
 
     boolean res = false;
 
-    if (stat.getExprents() == null) {
-
-      while (true) {
+    // statements being processed and the index of their current child, complemented while the subtree of
+    // the child is still on the stack
+    Statement[] stack = new Statement[16];
+    int[] indices = new int[16];
+    stack[0] = root;
+    int depth = 1;
 
-        boolean changed = false;
+    while (depth > 0) {
 
-        for (Statement st : stat.getStats()) {
+      Statement stat = stack[depth - 1];
+      int index = indices[depth - 1];
 
-          res |= mergeAllIfsRec(st, setReorderedIfs);
+      if (stat.getExprents() != null) {
+        depth--;
+      }
+      else if (index < 0) {
+        index = ~index;
 
-          // collapse composed if's
-          if (changed = mergeIfs(st, setReorderedIfs)) {
-            break;
-          }
+        // collapse composed if's, start over with the first child on success
+        if (mergeIfs(stat.getStats().get(index), setReorderedIfs)) {
+          res = true;
+          indices[depth - 1] = 0;
         }
+        else {
+          indices[depth - 1] = index + 1;
+        }
+      }
+      else if (index < stat.getStats().size()) {
+        indices[depth - 1] = ~index;
 
-        res |= changed;
-
-        if (!changed) {
-          break;
+        if (depth == stack.length) {
+          stack = Arrays.copyOf(stack, depth * 2);
+          indices = Arrays.copyOf(indices, depth * 2);
         }
+        stack[depth] = stat.getStats().get(index);
+        indices[depth] = 0;
+        depth++;
+      }
+      else {
+        depth--;
       }
     }
 
@@ -155,7 +174,7 @@ public class IfHelper {
           if (ifchild.getFirst().getExprents().isEmpty()) {
 
             ifparent.getFirst().removeSuccessor(ifparent.getIfEdge());
-            ifchild.removeSuccessor(ifchild.getAllSuccessorEdges().get(0));
+            ifchild.removeSuccessor(ifchild.getFirstSuccessor());
             ifparent.getStats().removeWithKey(ifchild.id);
 
             if (ifbranch.edgetypes.get(0).intValue() == 1) { // target null
@@ -185,8 +204,8 @@ public class IfHelper {
               ifparent.getStats().addWithKey(ifinner, ifinner.id);
               ifinner.setParent(ifparent);
 
-              if (!ifinner.getAllSuccessorEdges().isEmpty()) {
-                StatEdge edge = ifinner.getAllSuccessorEdges().get(0);
+              if (ifinner.hasAnySuccessor()) {
+                StatEdge edge = ifinner.getFirstSuccessor();
                 if (edge.closure == ifchild) {
                   edge.closure = null;
                 }
@@ -235,7 +254,7 @@ public class IfHelper {
 
               ifparent.setIfstat(null);
 
-              StatEdge ifedge = ifchild.getAllSuccessorEdges().get(0);
+              StatEdge ifedge = ifchild.getFirstSuccessor();
 
               ifchild.removeSuccessor(ifedge);
               ifedge.setSource(ifparent.getFirst());
@@ -399,13 +418,13 @@ public class IfHelper {
         }
       }
 
-      if (!ifchild.getAllSuccessorEdges().isEmpty()) {
-        ifnode.addChild(new IfNode(ifchild.getAllSuccessorEdges().get(0).getDestination()), 1);
+      if (ifchild.hasAnySuccessor()) {
+        ifnode.addChild(new IfNode(ifchild.getFirstSuccessor().getDestination()), 1);
       }
     }
 
     // else branch
-    StatEdge edge = stat.getAllSuccessorEdges().get(0);
+    StatEdge edge = stat.getFirstSuccessor();
     Statement elsechild = edge.getDestination();
     IfNode elsenode = new IfNode(elsechild);
 
@@ -425,8 +444,8 @@ public class IfHelper {
         }
       }
 
-      if (!elsechild.getAllSuccessorEdges().isEmpty()) {
-        elsenode.addChild(new IfNode(elsechild.getAllSuccessorEdges().get(0).getDestination()), 1);
+      if (elsechild.hasAnySuccessor()) {
+        elsenode.addChild(new IfNode(elsechild.getFirstSuccessor().getDestination()), 1);
       }
     }
 
@@ -473,14 +492,14 @@ public class IfHelper {
     Statement last = parent.type == Statement.TYPE_SEQUENCE ? parent.getStats().getLast() : ifstat;
     noelsestat = (last == ifstat);
 
-    if (!last.getAllSuccessorEdges().isEmpty() && last.getAllSuccessorEdges().get(0).getType() == StatEdge.TYPE_FINALLYEXIT) {
+    if (last.hasAnySuccessor() && last.getFirstSuccessor().getType() == StatEdge.TYPE_FINALLYEXIT) {
       elsedirect = true;
     }
     else {
       elsedirect = hasDirectEndEdge(last, from);
     }
 
-    if (!noelsestat && existsPath(ifstat, ifstat.getAllSuccessorEdges().get(0).getDestination())) {
+    if (!noelsestat && existsPath(ifstat, ifstat.getFirstSuccessor().getDestination())) {
       return false;
     }
 
@@ -529,7 +548,7 @@ public class IfHelper {
         stelse.setAllParent();
       }
 
-      ifstat.removeSuccessor(ifstat.getAllSuccessorEdges().get(0));
+      ifstat.removeSuccessor(ifstat.getFirstSuccessor());
       for (Statement st : lst) {
         sequence.getStats().removeWithKey(st.id);
       }
@@ -558,7 +577,7 @@ public class IfHelper {
 
       if (noelsestat) {
         StatEdge ifedge = ifstat.getIfEdge();
-        StatEdge elseedge = ifstat.getAllSuccessorEdges().get(0);
+        StatEdge elseedge = ifstat.getFirstSuccessor();
 
         if (noifstat) {
           ifstat.getFirst().removeSuccessor(ifedge);
@@ -617,7 +636,7 @@ public class IfHelper {
           stelse.setAllParent();
         }
 
-        ifstat.removeSuccessor(ifstat.getAllSuccessorEdges().get(0));
+        ifstat.removeSuccessor(ifstat.getFirstSuccessor());
         for (Statement st : lst) {
           sequence.getStats().removeWithKey(st.id);
         }
@@ -24,6 +24,11 @@ import de.fernflower.modules.decompiler.stats.*;
 
 public class LabelHelper {
 
+  // what the explicit edges of a child contribute to the ones of its parent
+  private static final int EDGES_IGNORE = 0;
+  private static final int EDGES_RESULT = 1;
+  private static final int EDGES_MERGE = 2;
+
 
   public static void cleanUpEdges(RootStatement root) {
 
@@ -33,7 +38,7 @@ public class LabelHelper {
 
     liftClosures(root);
 
-    lowContinueLabels(root, new HashSet<StatEdge>());
+    lowContinueLabels(root, new LinkedHashSet<StatEdge>());
 
     lowClosures(root);
   }
@@ -49,57 +54,82 @@ public class LabelHelper {
     setRetEdgesUnlabeled(root);
   }
 
-  private static void liftClosures(Statement stat) {
+  private static void liftClosures(Statement root) {
 
-    for (StatEdge edge : stat.getAllSuccessorEdges()) {
-      switch (edge.getType()) {
-        case StatEdge.TYPE_CONTINUE:
-          if (edge.getDestination() != edge.closure) {
-            edge.getDestination().addLabeledEdge(edge);
-          }
-          break;
-        case StatEdge.TYPE_BREAK:
-          Statement dest = edge.getDestination();
-          if (dest.type != Statement.TYPE_DUMMYEXIT) {
-            Statement parent = dest.getParent();
-
-            List<Statement> lst = new ArrayList<Statement>();
-            if (parent.type == Statement.TYPE_SEQUENCE) {
-              lst.addAll(parent.getStats());
-            }
-            else if (parent.type == Statement.TYPE_SWITCH) {
-              lst.addAll(((SwitchStatement)parent).getCaseStatements());
-            }
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
 
-            for (int i = 0; i < lst.size(); i++) {
-              if (lst.get(i) == dest) {
-                lst.get(i - 1).addLabeledEdge(edge);
-                break;
+        for (StatEdge edge : stat.getAllSuccessorEdges()) {
+          switch (edge.getType()) {
+            case StatEdge.TYPE_CONTINUE:
+              if (edge.getDestination() != edge.closure) {
+                edge.getDestination().addLabeledEdge(edge);
+              }
+              break;
+            case StatEdge.TYPE_BREAK:
+              Statement dest = edge.getDestination();
+              if (dest.type != Statement.TYPE_DUMMYEXIT) {
+                Statement parent = dest.getParent();
+
+                List<Statement> lst = new ArrayList<Statement>();
+                if (parent.type == Statement.TYPE_SEQUENCE) {
+                  lst.addAll(parent.getStats());
+                }
+                else if (parent.type == Statement.TYPE_SWITCH) {
+                  lst.addAll(((SwitchStatement)parent).getCaseStatements());
+                }
+
+                for (int i = 0; i < lst.size(); i++) {
+                  if (lst.get(i) == dest) {
+                    lst.get(i - 1).addLabeledEdge(edge);
+                    break;
+                  }
+                }
               }
-            }
           }
+        }
+
+        return true;
       }
-    }
+    });
+  }
 
-    for (Statement st : stat.getStats()) {
-      liftClosures(st);
-    }
+  private static void removeNonImmediateEdges(Statement root) {
+
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public void leave(Statement stat) {
+        if (!stat.hasBasicSuccEdge()) {
+          for (StatEdge edge : stat.getSuccessorEdges(StatEdge.TYPE_CONTINUE | StatEdge.TYPE_BREAK)) {
+            stat.removeSuccessor(edge);
+          }
+        }
+      }
+    });
   }
 
-  private static void removeNonImmediateEdges(Statement stat) {
+  public static void lowContinueLabels(Statement root, HashSet<StatEdge> edges) {
 
-    for (Statement st : stat.getStats()) {
-      removeNonImmediateEdges(st);
-    }
+    // continue edges collected so far, passed on to the first child only
+    final Map<Statement, HashSet<StatEdge>> mapEdges = new HashMap<Statement, HashSet<StatEdge>>();
+    mapEdges.put(root, edges);
+
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
+        HashSet<StatEdge> edges = mapEdges.remove(stat);
+        lowContinueLabel(stat, edges);
 
-    if (!stat.hasBasicSuccEdge()) {
-      for (StatEdge edge : stat.getSuccessorEdges(StatEdge.TYPE_CONTINUE | StatEdge.TYPE_BREAK)) {
-        stat.removeSuccessor(edge);
+        for (Statement st : stat.getStats()) {
+          mapEdges.put(st, st == stat.getFirst() ? edges : new LinkedHashSet<StatEdge>());
+        }
+        return true;
       }
-    }
+    });
   }
 
-  public static void lowContinueLabels(Statement stat, HashSet<StatEdge> edges) {
+  private static void lowContinueLabel(Statement stat, HashSet<StatEdge> edges) {
 
     boolean ok = (stat.type != Statement.TYPE_DO);
     if (!ok) {
@@ -125,47 +155,43 @@ public class LabelHelper {
         }
       }
     }
-
-    for (Statement st : stat.getStats()) {
-      if (st == stat.getFirst()) {
-        lowContinueLabels(st, edges);
-      }
-      else {
-        lowContinueLabels(st, new HashSet<StatEdge>());
-      }
-    }
   }
 
-  public static void lowClosures(Statement stat) {
+  public static void lowClosures(Statement root) {
 
-    for (StatEdge edge : new ArrayList<StatEdge>(stat.getLabelEdges())) {
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
 
-      if (edge.getType() == StatEdge.TYPE_BREAK) {  // FIXME: ?
-        for (Statement st : stat.getStats()) {
-          if (st.containsStatementStrict(edge.getSource())) {
-            if (MergeHelper.isDirectPath(st, edge.getDestination())) {
-              st.addLabeledEdge(edge);
+        for (StatEdge edge : new ArrayList<StatEdge>(stat.getLabelEdges())) {
+
+          if (edge.getType() == StatEdge.TYPE_BREAK) {  // FIXME: ?
+            for (Statement st : stat.getStats()) {
+              if (st.containsStatementStrict(edge.getSource())) {
+                if (MergeHelper.isDirectPath(st, edge.getDestination())) {
+                  st.addLabeledEdge(edge);
+                }
+              }
             }
           }
         }
-      }
-    }
 
-    for (Statement st : stat.getStats()) {
-      lowClosures(st);
-    }
+        return true;
+      }
+    });
   }
 
-  private static void resetAllEdges(Statement stat) {
+  private static void resetAllEdges(Statement root) {
 
-    for (Statement st : stat.getStats()) {
-      resetAllEdges(st);
-    }
-
-    for (StatEdge edge : stat.getAllSuccessorEdges()) {
-      edge.explicit = true;
-      edge.labeled = true;
-    }
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public void leave(Statement stat) {
+        for (StatEdge edge : stat.getAllSuccessorEdges()) {
+          edge.explicit = true;
+          edge.labeled = true;
+        }
+      }
+    });
   }
 
   private static void setRetEdgesUnlabeled(RootStatement root) {
@@ -179,12 +205,52 @@ public class LabelHelper {
     }
   }
 
-  private static HashMap<Statement, List<StatEdge>> setExplicitEdges(Statement stat) {
+  private static HashMap<Statement, List<StatEdge>> setExplicitEdges(Statement root) {
+
+    // statements are processed on an explicit stack, deeply nested statements would overflow the thread stack
+    List<ExplicitEdgesFrame> stack = new ArrayList<ExplicitEdgesFrame>();
+    stack.add(enterExplicitEdges(root));
+
+    HashMap<Statement, List<StatEdge>> childEdges = null;
+
+    while (true) {
+      ExplicitEdgesFrame frame = stack.get(stack.size() - 1);
+
+      if (childEdges != null) {
+        Statement child = frame.children.get(frame.index);
+        processEdgesWithNext(child, childEdges, frame.nexts.get(frame.index));
+
+        switch (frame.modes.get(frame.index)) {
+          case EDGES_RESULT:
+            frame.mapEdges = childEdges;
+            break;
+          case EDGES_MERGE:
+            mergeEdges(frame.mapEdges, childEdges);
+        }
+
+        frame.index++;
+        childEdges = null;
+      }
+
+      if (frame.index < frame.children.size()) {
+        stack.add(enterExplicitEdges(frame.children.get(frame.index)));
+      }
+      else {
+        stack.remove(stack.size() - 1);
+        if (stack.isEmpty()) {
+          return frame.mapEdges;
+        }
+        childEdges = frame.mapEdges;
+      }
+    }
+  }
+
+  private static ExplicitEdgesFrame enterExplicitEdges(Statement stat) {
 
-    HashMap<Statement, List<StatEdge>> mapEdges = new HashMap<Statement, List<StatEdge>>();
+    ExplicitEdgesFrame frame = new ExplicitEdgesFrame();
 
     if (stat.getExprents() != null) {
-      return mapEdges;
+      return frame;
     }
 
 
@@ -193,73 +259,39 @@ public class LabelHelper {
       case Statement.TYPE_CATCHALL:
 
         for (Statement st : stat.getStats()) {
-          HashMap<Statement, List<StatEdge>> mapEdges1 = setExplicitEdges(st);
-          processEdgesWithNext(st, mapEdges1, null);
-
-          if (stat.type == Statement.TYPE_TRYCATCH || st == stat.getFirst()) { // edges leaving a finally catch block are always explicit
-            // merge the maps
-            if (mapEdges1 != null) {
-              for (Entry<Statement, List<StatEdge>> entr : mapEdges1.entrySet()) {
-                if (mapEdges.containsKey(entr.getKey())) {
-                  mapEdges.get(entr.getKey()).addAll(entr.getValue());
-                }
-                else {
-                  mapEdges.put(entr.getKey(), entr.getValue());
-                }
-              }
-            }
-          }
+          // edges leaving a finally catch block are always explicit
+          frame.add(st, null, stat.type == Statement.TYPE_TRYCATCH || st == stat.getFirst() ? EDGES_MERGE : EDGES_IGNORE);
         }
 
         break;
       case Statement.TYPE_DO:
-        mapEdges = setExplicitEdges(stat.getFirst());
-        processEdgesWithNext(stat.getFirst(), mapEdges, stat);
+        frame.add(stat.getFirst(), stat, EDGES_RESULT);
         break;
       case Statement.TYPE_IF:
         IfStatement ifstat = (IfStatement)stat;
         // head statement is a basic block
         if (ifstat.getIfstat() == null) { // empty if
-          processEdgesWithNext(ifstat.getFirst(), mapEdges, null);
+          processEdgesWithNext(ifstat.getFirst(), frame.mapEdges, null);
         }
         else {
-          mapEdges = setExplicitEdges(ifstat.getIfstat());
-          processEdgesWithNext(ifstat.getIfstat(), mapEdges, null);
+          frame.add(ifstat.getIfstat(), null, EDGES_RESULT);
 
-          HashMap<Statement, List<StatEdge>> mapEdges1 = null;
           if (ifstat.getElsestat() != null) {
-            mapEdges1 = setExplicitEdges(ifstat.getElsestat());
-            processEdgesWithNext(ifstat.getElsestat(), mapEdges1, null);
-          }
-
-          // merge the maps
-          if (mapEdges1 != null) {
-            for (Entry<Statement, List<StatEdge>> entr : mapEdges1.entrySet()) {
-              if (mapEdges.containsKey(entr.getKey())) {
-                mapEdges.get(entr.getKey()).addAll(entr.getValue());
-              }
-              else {
-                mapEdges.put(entr.getKey(), entr.getValue());
-              }
-            }
+            frame.add(ifstat.getElsestat(), null, EDGES_MERGE);
           }
         }
         break;
       case Statement.TYPE_ROOT:
-        mapEdges = setExplicitEdges(stat.getFirst());
-        processEdgesWithNext(stat.getFirst(), mapEdges, ((RootStatement)stat).getDummyExit());
+        frame.add(stat.getFirst(), ((RootStatement)stat).getDummyExit(), EDGES_RESULT);
         break;
       case Statement.TYPE_SEQUENCE:
         int index = 0;
         while (index < stat.getStats().size() - 1) {
-          Statement st = stat.getStats().get(index);
-          processEdgesWithNext(st, setExplicitEdges(st), stat.getStats().get(index + 1));
+          frame.add(stat.getStats().get(index), stat.getStats().get(index + 1), EDGES_IGNORE);
           index++;
         }
 
-        Statement st = stat.getStats().get(index);
-        mapEdges = setExplicitEdges(st);
-        processEdgesWithNext(st, mapEdges, null);
+        frame.add(stat.getStats().get(index), null, EDGES_RESULT);
         break;
       case Statement.TYPE_SWITCH:
         SwitchStatement swst = (SwitchStatement)stat;
@@ -269,21 +301,20 @@ public class LabelHelper {
           Statement stnext = swst.getCaseStatements().get(i + 1);
 
           if (stnext.getExprents() != null && stnext.getExprents().isEmpty()) {
-            stnext = stnext.getAllSuccessorEdges().get(0).getDestination();
+            stnext = stnext.getFirstSuccessor().getDestination();
           }
-          processEdgesWithNext(stt, setExplicitEdges(stt), stnext);
+          frame.add(stt, stnext, EDGES_IGNORE);
         }
 
         int last = swst.getCaseStatements().size() - 1;
         if (last >= 0) { // empty switch possible
           Statement stlast = swst.getCaseStatements().get(last);
           if (stlast.getExprents() != null && stlast.getExprents().isEmpty()) {
-            StatEdge edge = stlast.getAllSuccessorEdges().get(0);
-            mapEdges.put(edge.getDestination(), new ArrayList<StatEdge>(Arrays.asList(new StatEdge[]{edge})));
+            StatEdge edge = stlast.getFirstSuccessor();
+            frame.mapEdges.put(edge.getDestination(), new ArrayList<StatEdge>(Arrays.asList(new StatEdge[]{edge})));
           }
           else {
-            mapEdges = setExplicitEdges(stlast);
-            processEdgesWithNext(stlast, mapEdges, null);
+            frame.add(stlast, null, EDGES_RESULT);
           }
         }
 
@@ -291,13 +322,22 @@ public class LabelHelper {
       case Statement.TYPE_SYNCRONIZED:
         SynchronizedStatement synstat = (SynchronizedStatement)stat;
 
-        processEdgesWithNext(synstat.getFirst(), setExplicitEdges(stat.getFirst()), synstat.getBody()); // FIXME: basic block?
-        mapEdges = setExplicitEdges(synstat.getBody());
-        processEdgesWithNext(synstat.getBody(), mapEdges, null);
+        frame.add(synstat.getFirst(), synstat.getBody(), EDGES_IGNORE); // FIXME: basic block?
+        frame.add(synstat.getBody(), null, EDGES_RESULT);
     }
 
+    return frame;
+  }
 
-    return mapEdges;
+  private static void mergeEdges(HashMap<Statement, List<StatEdge>> mapEdges, HashMap<Statement, List<StatEdge>> mapEdges1) {
+    for (Entry<Statement, List<StatEdge>> entr : mapEdges1.entrySet()) {
+      if (mapEdges.containsKey(entr.getKey())) {
+        mapEdges.get(entr.getKey()).addAll(entr.getValue());
+      }
+      else {
+        mapEdges.put(entr.getKey(), entr.getValue());
+      }
+    }
   }
 
   private static void processEdgesWithNext(Statement stat, HashMap<Statement, List<StatEdge>> mapEdges, Statement next) {
@@ -369,7 +409,7 @@ public class LabelHelper {
         }
       }
 
-      if (stat.getAllSuccessorEdges().isEmpty() && !implfound) {
+      if (!stat.hasAnySuccessor() && !implfound) {
         List<StatEdge> lstEdges = null;
         for (Entry<Statement, List<StatEdge>> entr : mapEdges.entrySet()) {
           if (entr.getKey().type != Statement.TYPE_DUMMYEXIT &&
@@ -403,47 +443,68 @@ public class LabelHelper {
     }
   }
 
-  private static void hideDefaultSwitchEdges(Statement stat) {
+  private static void hideDefaultSwitchEdges(Statement root) {
+
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
 
-    if (stat.type == Statement.TYPE_SWITCH) {
-      SwitchStatement swst = (SwitchStatement)stat;
+        if (stat.type == Statement.TYPE_SWITCH) {
+          SwitchStatement swst = (SwitchStatement)stat;
 
-      int last = swst.getCaseStatements().size() - 1;
-      if (last >= 0) { // empty switch possible
-        Statement stlast = swst.getCaseStatements().get(last);
+          int last = swst.getCaseStatements().size() - 1;
+          if (last >= 0) { // empty switch possible
+            Statement stlast = swst.getCaseStatements().get(last);
 
-        if (stlast.getExprents() != null && stlast.getExprents().isEmpty()) {
-          if (!stlast.getAllSuccessorEdges().get(0).explicit) {
-            List<StatEdge> lstEdges = swst.getCaseEdges().get(last);
-            lstEdges.remove(swst.getDefault_edge());
+            if (stlast.getExprents() != null && stlast.getExprents().isEmpty()) {
+              if (!stlast.getFirstSuccessor().explicit) {
+                List<StatEdge> lstEdges = swst.getCaseEdges().get(last);
+                lstEdges.remove(swst.getDefault_edge());
 
-            if (lstEdges.isEmpty()) {
-              swst.getCaseStatements().remove(last);
-              swst.getCaseEdges().remove(last);
+                if (lstEdges.isEmpty()) {
+                  swst.getCaseStatements().remove(last);
+                  swst.getCaseEdges().remove(last);
+                }
+              }
             }
           }
         }
-      }
-    }
 
-    for (Statement st : stat.getStats()) {
-      hideDefaultSwitchEdges(st);
-    }
+        return true;
+      }
+    });
   }
 
-  private static HashSet<Statement>[] processStatementLabel(Statement stat) {
+  private static void processStatementLabel(Statement root) {
 
-    HashSet<Statement> setBreak = new HashSet<Statement>();
-    HashSet<Statement> setContinue = new HashSet<Statement>();
+    // the break and continue sources of each statement on the walk path, merged into the parent's sets on leaving
+    final List<HashSet<Statement>[]> stack = new ArrayList<HashSet<Statement>[]>();
 
-    if (stat.getExprents() == null) {
-      for (Statement st : stat.getStats()) {
-        HashSet<Statement>[] arr = processStatementLabel(st);
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public boolean enter(Statement stat) {
+        stack.add(new HashSet[] { new LinkedHashSet<Statement>(), new LinkedHashSet<Statement>() });
+        return stat.getExprents() == null;
+      }
+
+      @Override
+      public void leave(Statement stat) {
+        HashSet<Statement>[] arr = stack.remove(stack.size() - 1);
+        processStatementLabel(stat, arr[0], arr[1]);
 
-        setBreak.addAll(arr[0]);
-        setContinue.addAll(arr[1]);
+        if (!stack.isEmpty()) {
+          HashSet<Statement>[] parent = stack.get(stack.size() - 1);
+          parent[0].addAll(arr[0]);
+          parent[1].addAll(arr[1]);
+        }
       }
+    });
+  }
+
+  private static void processStatementLabel(Statement stat, HashSet<Statement> setBreak, HashSet<Statement> setContinue) {
 
+    if (stat.getExprents() == null) {
       boolean shieldType = (stat.type == Statement.TYPE_DO || stat.type == Statement.TYPE_SWITCH);
       if (shieldType) {
         for (StatEdge edge : stat.getLabelEdges()) {
@@ -464,34 +525,38 @@ public class LabelHelper {
 
     setBreak.add(stat);
     setContinue.add(stat);
-
-    return new HashSet[] { setBreak, setContinue };
   }
 
-  public static void replaceContinueWithBreak(Statement stat) {
+  public static void replaceContinueWithBreak(Statement root) {
 
-    if (stat.type == Statement.TYPE_DO) {
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
+        if (stat.type == Statement.TYPE_DO) {
+          replaceContinueWithBreakInLoop(stat);
+        }
+        return true;
+      }
+    });
+  }
 
-      List<StatEdge> lst = stat.getPredecessorEdges(StatEdge.TYPE_CONTINUE);
+  private static void replaceContinueWithBreakInLoop(Statement stat) {
 
-      for (StatEdge edge : lst) {
+    List<StatEdge> lst = stat.getPredecessorEdges(StatEdge.TYPE_CONTINUE);
 
-        if (edge.explicit) {
-          Statement minclosure = getMinContinueClosure(edge);
+    for (StatEdge edge : lst) {
 
-          if (minclosure != edge.closure &&
-              !InlineSingleBlockHelper.isBreakEdgeLabeled(edge.getSource(), minclosure)) {
-            edge.getSource().changeEdgeType(Statement.DIRECTION_FORWARD, edge, StatEdge.TYPE_BREAK);
-            edge.labeled = false;
-            minclosure.addLabeledEdge(edge);
-          }
+      if (edge.explicit) {
+        Statement minclosure = getMinContinueClosure(edge);
+
+        if (minclosure != edge.closure &&
+            !InlineSingleBlockHelper.isBreakEdgeLabeled(edge.getSource(), minclosure)) {
+          edge.getSource().changeEdgeType(Statement.DIRECTION_FORWARD, edge, StatEdge.TYPE_BREAK);
+          edge.labeled = false;
+          minclosure.addLabeledEdge(edge);
         }
       }
     }
-
-    for (Statement st : stat.getStats()) {
-      replaceContinueWithBreak(st);
-    }
   }
 
   private static Statement getMinContinueClosure(StatEdge edge) {
@@ -518,4 +583,18 @@ public class LabelHelper {
 
     return closure;
   }
+
+  private static class ExplicitEdgesFrame {
+    private final List<Statement> children = new ArrayList<Statement>();
+    private final List<Statement> nexts = new ArrayList<Statement>();
+    private final List<Integer> modes = new ArrayList<Integer>();
+    private HashMap<Statement, List<StatEdge>> mapEdges = new LinkedHashMap<Statement, List<StatEdge>>();
+    private int index;
+
+    private void add(Statement child, Statement next, int mode) {
+      children.add(child);
+      nexts.add(next);
+      modes.add(mode);
+    }
+  }
 }
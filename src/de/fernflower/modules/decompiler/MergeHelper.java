@@ -89,7 +89,7 @@ public class MergeHelper {
       IfStatement lastif = (IfStatement)last;
       if (lastif.iftype == IfStatement.IFTYPE_IF && lastif.getIfstat() == null) {
         StatEdge ifedge = lastif.getIfEdge();
-        StatEdge elseedge = lastif.getAllSuccessorEdges().get(0);
+        StatEdge elseedge = lastif.getFirstSuccessor();
 
         if ((ifedge.getType() == StatEdge.TYPE_BREAK && elseedge.getType() == StatEdge.TYPE_CONTINUE && elseedge.closure == stat
              && isDirectPath(stat, ifedge.getDestination())) ||
@@ -126,7 +126,7 @@ public class MergeHelper {
             stat.addLabeledEdge(newedge);
           }
 
-          if (stat.getAllSuccessorEdges().isEmpty()) {
+          if (!stat.hasAnySuccessor()) {
             StatEdge edge = elseedge.getType() == StatEdge.TYPE_CONTINUE ? ifedge : elseedge;
 
             edge.setSource(stat);
@@ -171,9 +171,9 @@ public class MergeHelper {
 
               // remove edges
               firstif.getFirst().removeSuccessor(ifedge);
-              firstif.removeSuccessor(firstif.getAllSuccessorEdges().get(0));
+              firstif.removeSuccessor(firstif.getFirstSuccessor());
 
-              if (stat.getAllSuccessorEdges().isEmpty()) {
+              if (!stat.hasAnySuccessor()) {
                 ifedge.setSource(stat);
                 if (ifedge.closure == stat) {
                   ifedge.closure = stat.getParent();
@@ -199,7 +199,7 @@ public class MergeHelper {
             }
           }
           else {
-            StatEdge elseedge = firstif.getAllSuccessorEdges().get(0);
+            StatEdge elseedge = firstif.getFirstSuccessor();
             if (isDirectPath(stat, elseedge.getDestination())) {
               // exit condition identified
               stat.setLooptype(DoStatement.LOOP_WHILE);
@@ -212,7 +212,7 @@ public class MergeHelper {
               firstif.getFirst().removeSuccessor(ifedge);
               firstif.removeSuccessor(elseedge);
 
-              if (stat.getAllSuccessorEdges().isEmpty()) {
+              if (!stat.hasAnySuccessor()) {
 
                 elseedge.setSource(stat);
                 if (elseedge.closure == stat) {
@@ -276,7 +276,7 @@ public class MergeHelper {
                 Statement stnext = swst.getCaseStatements().get(i + 1);
 
                 if (stnext.getExprents() != null && stnext.getExprents().isEmpty()) {
-                  stnext = stnext.getAllSuccessorEdges().get(0).getDestination();
+                  stnext = stnext.getFirstSuccessor().getDestination();
                 }
                 return (endstat == stnext);
               }
@@ -307,7 +307,7 @@ public class MergeHelper {
 
     boolean issingle = false;
     if (lstExpr.size() == 1) {  // single exprent
-      if (lastData.getAllPredecessorEdges().size() > 1) { // break edges
+      if (lastData.getPredecessorEdgeView(Statement.STATEDGE_ALL).size() > 1) { // break edges
         issingle = true;
       }
     }
@@ -16,6 +16,7 @@
 package de.fernflower.modules.decompiler;
 
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -41,7 +42,7 @@ public class PPandMMHelper {
     LinkedList<DirectNode> stack = new LinkedList<DirectNode>();
     stack.add(dgraph.first);
 
-    HashSet<DirectNode> setVisited = new HashSet<DirectNode>();
+    HashSet<DirectNode> setVisited = new LinkedHashSet<DirectNode>();
 
     boolean res = false;
 
@@ -85,21 +86,16 @@ public class PPandMMHelper {
   }
 
   private Exprent processExprentRecursive(Exprent exprent) {
-
-    boolean replaced = true;
-    while (replaced) {
-      replaced = false;
-
-      for (Exprent expr : exprent.getAllExprents()) {
-        Exprent retexpr = processExprentRecursive(expr);
-        if (retexpr != null) {
-          exprent.replaceExprent(expr, retexpr);
-          replaced = true;
-          exprentReplaced = true;
-          break;
-        }
+    // a replaced operand starts the operands of its parent over
+    return TreeWalker.rewrite(exprent, new TreeWalker.ExprentRewriter() {
+      @Override
+      public Exprent leave(Exprent exprent) {
+        return processExprent(exprent);
       }
-    }
+    }, true);
+  }
+
+  private Exprent processExprent(Exprent exprent) {
 
     if (exprent.type == Exprent.EXPRENT_ASSIGNMENT) {
       AssignmentExprent as = (AssignmentExprent)exprent;
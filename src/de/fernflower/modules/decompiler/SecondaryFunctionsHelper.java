@@ -59,6 +59,65 @@ public class SecondaryFunctionsHelper {
 
   public static boolean identifySecondaryFunctions(Statement stat) {
 
+    if (swapEmptyIf(stat)) {
+      return true;
+    }
+
+    // statements are processed on an explicit stack, deeply nested statements would overflow the thread stack
+    List<ObjectsFrame> stack = new ArrayList<ObjectsFrame>();
+    stack.add(new ObjectsFrame(stat));
+
+    while (!stack.isEmpty()) {
+      ObjectsFrame frame = stack.get(stack.size() - 1);
+
+      if (frame.index == frame.objects.size()) {
+        stack.remove(stack.size() - 1);
+        if (!stack.isEmpty()) {
+          stack.get(stack.size() - 1).index++;
+        }
+        continue;
+      }
+
+      Object obj = frame.objects.get(frame.index);
+      boolean replaced = false;
+
+      if (obj instanceof Statement) {
+        if (swapEmptyIf((Statement)obj)) {
+          replaced = true;
+        }
+        else {
+          stack.add(new ObjectsFrame((Statement)obj));
+          continue;
+        }
+      }
+      else if (obj instanceof Exprent) {
+        Exprent retexpr = identifySecondaryFunctions((Exprent)obj, true);
+        if (retexpr != null) {
+          if (frame.stat.getExprents() == null) {
+            // only head expressions can be replaced!
+            frame.stat.replaceExprent((Exprent)obj, retexpr);
+          }
+          else {
+            frame.stat.getExprents().set(frame.index, retexpr);
+          }
+          replaced = true;
+        }
+      }
+
+      if (replaced) {
+        // start over with the first object
+        frame.reset();
+      }
+      else {
+        frame.index++;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean swapEmptyIf(Statement stat) {
+
     if (stat.getExprents() == null) {
       // if(){;}else{...} -> if(!){...}
       if (stat.type == Statement.TYPE_IF) {
@@ -66,7 +125,7 @@ public class SecondaryFunctionsHelper {
         Statement ifstat = ifelsestat.getIfstat();
 
         if (ifelsestat.iftype == IfStatement.IFTYPE_IFELSE && ifstat.getExprents() != null &&
-            ifstat.getExprents().isEmpty() && (ifstat.getAllSuccessorEdges().isEmpty() || !ifstat.getAllSuccessorEdges().get(0).explicit)) {
+            ifstat.getExprents().isEmpty() && (!ifstat.hasAnySuccessor() || !ifstat.getFirstSuccessor().explicit)) {
 
           // move else to the if position
           ifelsestat.getStats().removeWithKey(ifstat.id);
@@ -75,8 +134,8 @@ public class SecondaryFunctionsHelper {
           ifelsestat.setIfstat(ifelsestat.getElsestat());
           ifelsestat.setElsestat(null);
 
-          if (ifelsestat.getAllSuccessorEdges().isEmpty() && !ifstat.getAllSuccessorEdges().isEmpty()) {
-            StatEdge endedge = ifstat.getAllSuccessorEdges().get(0);
+          if (!ifelsestat.hasAnySuccessor() && ifstat.hasAnySuccessor()) {
+            StatEdge endedge = ifstat.getFirstSuccessor();
 
             ifstat.removeSuccessor(endedge);
             endedge.setSource(ifelsestat);
@@ -100,44 +159,26 @@ public class SecondaryFunctionsHelper {
       }
     }
 
+    return false;
+  }
 
-    boolean replaced = true;
-    while (replaced) {
-      replaced = false;
-
-      List<Object> lstObjects = new ArrayList<Object>(stat.getExprents() == null ? stat.getSequentialObjects() : stat.getExprents());
-
-      for (int i = 0; i < lstObjects.size(); i++) {
-        Object obj = lstObjects.get(i);
 
-        if (obj instanceof Statement) {
-          if (identifySecondaryFunctions((Statement)obj)) {
-            replaced = true;
-            break;
-          }
-        }
-        else if (obj instanceof Exprent) {
-          Exprent retexpr = identifySecondaryFunctions((Exprent)obj, true);
-          if (retexpr != null) {
-            if (stat.getExprents() == null) {
-              // only head expressions can be replaced!
-              stat.replaceExprent((Exprent)obj, retexpr);
-            }
-            else {
-              stat.getExprents().set(i, retexpr);
-            }
-            replaced = true;
-            break;
-          }
-        }
+  private static Exprent identifySecondaryFunctions(final Exprent exprent, final boolean statement_level) {
+    // a replaced operand starts the operands of its parent over
+    return TreeWalker.rewrite(exprent, new TreeWalker.ExprentRewriter() {
+      @Override
+      public Exprent enter(Exprent expr) {
+        return replaceComparison(expr);
       }
-    }
 
-    return false;
+      @Override
+      public Exprent leave(Exprent expr) {
+        return replaceSecondaryFunction(expr, statement_level && expr == exprent);
+      }
+    }, true);
   }
 
-
-  private static Exprent identifySecondaryFunctions(Exprent exprent, boolean statement_level) {
+  private static Exprent replaceComparison(Exprent exprent) {
 
     if (exprent.type == Exprent.EXPRENT_FUNCTION) {
       FunctionExprent fexpr = (FunctionExprent)exprent;
@@ -196,20 +237,10 @@ public class SecondaryFunctionsHelper {
       }
     }
 
+    return null;
+  }
 
-    boolean replaced = true;
-    while (replaced) {
-      replaced = false;
-
-      for (Exprent expr : exprent.getAllExprents()) {
-        Exprent retexpr = identifySecondaryFunctions(expr, false);
-        if (retexpr != null) {
-          exprent.replaceExprent(expr, retexpr);
-          replaced = true;
-          break;
-        }
-      }
-    }
+  private static Exprent replaceSecondaryFunction(Exprent exprent, boolean statement_level) {
 
     switch (exprent.type) {
       case Exprent.EXPRENT_FUNCTION:
@@ -427,4 +458,20 @@ public class SecondaryFunctionsHelper {
 
     return null;
   }
+
+  private static class ObjectsFrame {
+    private final Statement stat;
+    private List<Object> objects;
+    private int index;
+
+    private ObjectsFrame(Statement stat) {
+      this.stat = stat;
+      reset();
+    }
+
+    private void reset() {
+      objects = new ArrayList<Object>(stat.getExprents() == null ? stat.getSequentialObjects() : stat.getExprents());
+      index = 0;
+    }
+  }
 }
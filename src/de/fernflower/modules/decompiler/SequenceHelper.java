@@ -16,7 +16,7 @@
 package de.fernflower.modules.decompiler;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import de.fernflower.code.cfg.BasicBlock;
@@ -32,10 +32,17 @@ public class SequenceHelper {
 
 
   public static void condenseSequences(Statement root) {
-    condenseSequencesRec(root);
+    // replacements of the visited statement in its parent are picked up by the walker
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
+        condenseSequence(stat);
+        return true;
+      }
+    });
   }
 
-  private static void condenseSequencesRec(Statement stat) {
+  private static void condenseSequence(Statement stat) {
 
     if (stat.type == Statement.TYPE_SEQUENCE) {
 
@@ -62,7 +69,7 @@ public class SequenceHelper {
 
             // move successors
             Statement last = st.getStats().getLast();
-            if (last.getAllSuccessorEdges().isEmpty() && i < lst.size() - 1) {
+            if (!last.hasAnySuccessor() && i < lst.size() - 1) {
               last.addSuccessor(new StatEdge(StatEdge.TYPE_REGULAR, last, lst.get(i + 1)));
             }
             else {
@@ -84,7 +91,7 @@ public class SequenceHelper {
               st.removeSuccessor(edge);
             }
 
-            for (StatEdge edge : new HashSet<StatEdge>(st.getLabelEdges())) {
+            for (StatEdge edge : new LinkedHashSet<StatEdge>(st.getLabelEdges())) {
               if (edge.getSource() != last) {
                 last.addLabeledEdge(edge);
               }
@@ -118,13 +125,13 @@ public class SequenceHelper {
 
         Statement st = stat.getFirst();
 
-        boolean ok = st.getAllSuccessorEdges().isEmpty();
+        boolean ok = !st.hasAnySuccessor();
         if (!ok) {
-          StatEdge edge = st.getAllSuccessorEdges().get(0);
+          StatEdge edge = st.getFirstSuccessor();
 
-          ok = stat.getAllSuccessorEdges().isEmpty();
+          ok = !stat.hasAnySuccessor();
           if (!ok) {
-            StatEdge statedge = stat.getAllSuccessorEdges().get(0);
+            StatEdge statedge = stat.getFirstSuccessor();
             ok = (edge.getDestination() == statedge.getDestination());
 
             if (ok) {
@@ -151,11 +158,6 @@ public class SequenceHelper {
       }
       break;
     }
-
-    // recursion
-    for (int i = 0; i < stat.getStats().size(); i++) {
-      condenseSequencesRec(stat.getStats().get(i));
-    }
   }
 
   private static boolean isSequenceDisbandable(Statement block, Statement next) {
@@ -193,7 +195,7 @@ public class SequenceHelper {
 
         if (st.getExprents() != null && st.getExprents().isEmpty()) {
 
-          if (st.getAllSuccessorEdges().isEmpty()) {
+          if (!st.hasAnySuccessor()) {
             List<StatEdge> lstBreaks = st.getPredecessorEdges(StatEdge.TYPE_BREAK);
 
             if (lstBreaks.isEmpty()) {
@@ -204,7 +206,7 @@ public class SequenceHelper {
             }
           }
           else {
-            StatEdge sucedge = st.getAllSuccessorEdges().get(0);
+            StatEdge sucedge = st.getFirstSuccessor();
             if (sucedge.getType() != StatEdge.TYPE_FINALLYEXIT) {
               st.removeSuccessor(sucedge);
 
@@ -43,7 +43,7 @@ import de.fernflower.modules.decompiler.vars.VarVersionPair;
 import de.fernflower.struct.StructClass;
 import de.fernflower.struct.gen.VarType;
 import de.fernflower.struct.match.MatchEngine;
-import de.fernflower.util.FastSparseSetFactory.FastSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSet;
 
 import java.util.Set;
 
@@ -59,47 +59,71 @@ public class SimplifyExprentsHelper {
 
   public boolean simplifyStackVarsStatement(Statement stat, HashSet<Integer> setReorderedIfs, SSAConstructorSparseEx ssa, StructClass cl) {
 
-    boolean res = false;
+    if (stat.getExprents() != null) {
+      return simplifyStackVarsExprents(stat.getExprents(), cl);
+    }
 
-    if (stat.getExprents() == null) {
+    boolean processClass14 = DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_CLASS_1_4);
 
-      boolean processClass14 = DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_CLASS_1_4);
+    // statements are processed on an explicit stack, deeply nested statements would overflow the thread stack
+    List<SimplifyFrame> stack = new ArrayList<SimplifyFrame>();
+    stack.add(new SimplifyFrame(stat));
 
-      while (true) {
+    boolean returned = false;
+    boolean childRes = false;
 
-        boolean changed = false;
+    while (true) {
+      SimplifyFrame frame = stack.get(stack.size() - 1);
 
-        for (Statement st : stat.getStats()) {
-          res |= simplifyStackVarsStatement(st, setReorderedIfs, ssa, cl);
+      if (returned) {
+        returned = false;
 
-          // collapse composed if's
-          if (changed = IfHelper.mergeIfs(st, setReorderedIfs)) {
-            break;
-          }
+        Statement st = frame.current;
+        frame.res |= childRes;
+
+        boolean changed;
 
+        // collapse composed if's
+        if (!(changed = IfHelper.mergeIfs(st, setReorderedIfs))) {
           // collapse iff ?: statement
-          if (changed = buildIff(st, ssa)) {
-            break;
+          if (!(changed = buildIff(st, ssa))) {
+            // collapse inlined .class property in version 1.4 and before
+            changed = processClass14 && collapseInlinedClass14(st);
           }
+        }
 
-          // collapse inlined .class property in version 1.4 and before
-          if (processClass14 && (changed = collapseInlinedClass14(st))) {
-            break;
-          }
+        if (changed) {
+          // start over with the first child
+          frame.res = true;
+          frame.index = 0;
+        }
+        else {
+          frame.index++;
         }
+      }
 
-        res |= changed;
+      if (frame.index < frame.stat.getStats().size()) {
+        Statement st = frame.stat.getStats().get(frame.index);
+        frame.current = st;
 
-        if (!changed) {
-          break;
+        if (st.getExprents() != null) {
+          childRes = simplifyStackVarsExprents(st.getExprents(), cl);
+          returned = true;
+        }
+        else {
+          stack.add(new SimplifyFrame(st));
         }
       }
-    }
-    else {
-      res |= simplifyStackVarsExprents(stat.getExprents(), cl);
-    }
+      else {
+        stack.remove(stack.size() - 1);
+        if (stack.isEmpty()) {
+          return frame.res;
+        }
 
-    return res;
+        childRes = frame.res;
+        returned = true;
+      }
+    }
   }
 
   private boolean simplifyStackVarsExprents(List<Exprent> list, StructClass cl) {
@@ -710,15 +734,16 @@ public class SimplifyExprentsHelper {
     return false;
   }
 
-  private static Exprent isLambda(Exprent exprent, StructClass cl) {
-
-    List<Exprent> lst = exprent.getAllExprents();
-    for (Exprent expr : lst) {
-      Exprent ret = isLambda(expr, cl);
-      if (ret != null) {
-        exprent.replaceExprent(expr, ret);
+  private static Exprent isLambda(Exprent exprent, final StructClass cl) {
+    return TreeWalker.rewrite(exprent, new TreeWalker.ExprentRewriter() {
+      @Override
+      public Exprent leave(Exprent exprent) {
+        return getLambdaInstance(exprent, cl);
       }
-    }
+    }, false);
+  }
+
+  private static Exprent getLambdaInstance(Exprent exprent, StructClass cl) {
 
     if (exprent.type == Exprent.EXPRENT_INVOCATION) {
       InvocationExprent in = (InvocationExprent)exprent;
@@ -746,14 +771,15 @@ public class SimplifyExprentsHelper {
 
 
   private static Exprent isSimpleConstructorInvocation(Exprent exprent) {
-
-    List<Exprent> lst = exprent.getAllExprents();
-    for (Exprent expr : lst) {
-      Exprent ret = isSimpleConstructorInvocation(expr);
-      if (ret != null) {
-        exprent.replaceExprent(expr, ret);
+    return TreeWalker.rewrite(exprent, new TreeWalker.ExprentRewriter() {
+      @Override
+      public Exprent leave(Exprent exprent) {
+        return getConstructedInstance(exprent);
       }
-    }
+    }, false);
+  }
+
+  private static Exprent getConstructedInstance(Exprent exprent) {
 
     if (exprent.type == Exprent.EXPRENT_INVOCATION) {
       InvocationExprent in = (InvocationExprent)exprent;
@@ -783,8 +809,8 @@ public class SimplifyExprentsHelper {
 
         if (ifstat.getExprents() != null && ifstat.getExprents().size() == 1
             && elsestat.getExprents() != null && elsestat.getExprents().size() == 1
-            && ifstat.getAllSuccessorEdges().size() == 1 && elsestat.getAllSuccessorEdges().size() == 1
-            && ifstat.getAllSuccessorEdges().get(0).getDestination() == elsestat.getAllSuccessorEdges().get(0).getDestination()) {
+            && ifstat.getSuccessorEdgeView(Statement.STATEDGE_ALL).size() == 1 && elsestat.getSuccessorEdgeView(Statement.STATEDGE_ALL).size() == 1
+            && ifstat.getFirstSuccessor().getDestination() == elsestat.getFirstSuccessor().getDestination()) {
 
           Exprent ifexpr = ifstat.getExprents().get(0);
           Exprent elseexpr = elsestat.getExprents().get(0);
@@ -801,7 +827,7 @@ public class SimplifyExprentsHelper {
 
                 boolean found = false;
 
-                for (Entry<VarVersionPair, FastSparseSet<Integer>> ent : ssa.getPhi().entrySet()) {
+                for (Entry<VarVersionPair, IntSparseSet> ent : ssa.getPhi().entrySet()) {
                   if (ent.getKey().var == ifvar.getIndex()) {
                     if (ent.getValue().contains(ifvar.getVersion()) && ent.getValue().contains(elsevar.getVersion())) {
                       found = true;
@@ -821,8 +847,8 @@ public class SimplifyExprentsHelper {
                                                                               elseas.getRight()), ifheadexpr_bytecode), ifheadexpr_bytecode));
                   stif.setExprents(data);
 
-                  if (stif.getAllSuccessorEdges().isEmpty()) {
-                    StatEdge ifedge = ifstat.getAllSuccessorEdges().get(0);
+                  if (!stif.hasAnySuccessor()) {
+                    StatEdge ifedge = ifstat.getFirstSuccessor();
                     StatEdge edge = new StatEdge(ifedge.getType(), stif, ifedge.getDestination());
 
                     stif.addSuccessor(edge);
@@ -862,7 +888,7 @@ public class SimplifyExprentsHelper {
                                                                                  elseex.getValue()), ifheadexpr_bytecode), ifex.getRetType(), ifheadexpr_bytecode));
               stif.setExprents(data);
 
-              StatEdge retedge = ifstat.getAllSuccessorEdges().get(0);
+              StatEdge retedge = ifstat.getFirstSuccessor();
               stif.addSuccessor(new StatEdge(StatEdge.TYPE_BREAK, stif, retedge.getDestination(),
                                              retedge.closure == stif ? stif.getParent() : retedge.closure));
 
@@ -926,4 +952,15 @@ public class SimplifyExprentsHelper {
     return ret;
   }
   
+
+  private static class SimplifyFrame {
+    private final Statement stat;
+    private Statement current;
+    private int index;
+    private boolean res;
+
+    private SimplifyFrame(Statement stat) {
+      this.stat = stat;
+    }
+  }
 }
@@ -30,13 +30,16 @@ import de.fernflower.modules.decompiler.vars.VarVersionPair;
 import de.fernflower.modules.decompiler.vars.VarVersionsGraph;
 import de.fernflower.struct.StructClass;
 import de.fernflower.struct.StructMethod;
-import de.fernflower.util.InterpreterUtil;
 import de.fernflower.util.SFormsFastMapDirect;
-import de.fernflower.util.FastSparseSetFactory.FastSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSetIterator;
 
 
 public class StackVarsProcessor {
 
+  // set by iterateStatements when it padded an empty loop exprent list, which changes the flattened graph
+  private boolean loopListsPadded;
+
   public void simplifyStackVars(RootStatement root, StructMethod mt, StructClass cl) {
 
     HashSet<Integer> setReorderedIfs = new HashSet<Integer>();
@@ -80,7 +83,7 @@ public class StackVarsProcessor {
       //			System.out.println("++++++++++++++++ \r\n"+root.toJava());
 
 
-      if (iterateStatements(root, ssau)) {
+      if (iterateStatements(ssau)) {
         found = true;
       }
 
@@ -93,6 +96,11 @@ public class StackVarsProcessor {
       }
     }
 
+    // the last round left the statements untouched, a new SSU form would be the same and find nothing to remove
+    if (!loopListsPadded) {
+      return;
+    }
+
     // remove unused assignments
     ssau = new SSAUConstructorSparseEx();
     ssau.splitVariables(root, mt);
@@ -103,7 +111,7 @@ public class StackVarsProcessor {
     //			ex.printStackTrace();
     //		}
 
-    iterateStatements(root, ssau);
+    iterateStatements(ssau);
 
     //		System.out.println("~~~~~~~~~~~~~~~~~~~~~~ \r\n"+root.toJava());
 
@@ -142,14 +150,15 @@ public class StackVarsProcessor {
   }
 
 
-  private boolean iterateStatements(RootStatement root, SSAUConstructorSparseEx ssa) {
+  private boolean iterateStatements(SSAUConstructorSparseEx ssa) {
 
-    FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
-    DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+    // the SSU form was just built on these statements, so its graph is still accurate
+    DirectGraph dgraph = ssa.getDirectGraph();
 
     boolean res = false;
+    loopListsPadded = false;
 
-    HashSet<DirectNode> setVisited = new HashSet<DirectNode>();
+    HashSet<DirectNode> setVisited = new LinkedHashSet<DirectNode>();
     LinkedList<DirectNode> stack = new LinkedList<DirectNode>();
     LinkedList<HashMap<VarVersionPair, Exprent>> stackMaps = new LinkedList<HashMap<VarVersionPair, Exprent>>();
 
@@ -219,6 +228,7 @@ public class StackVarsProcessor {
       if (nd.exprents.isEmpty() &&
           (nd.type == DirectNode.NODE_INIT || nd.type == DirectNode.NODE_CONDITION || nd.type == DirectNode.NODE_INCREMENT)) {
         nd.exprents.add(null);
+        loopListsPadded = true;
 
         if (nd.statement.type == Statement.TYPE_DO) {
           DoStatement loop = (DoStatement)nd.statement;
@@ -259,21 +269,11 @@ public class StackVarsProcessor {
     for (VarVersionPair varpaar : setVars) {
       VarVersionNode node = ssau.getSsuversions().nodes.getWithKey(varpaar);
 
-      for (Iterator<Entry<Integer, FastSparseSet<Integer>>> itent = node.live.entryList().iterator(); itent.hasNext(); ) {
-        Entry<Integer, FastSparseSet<Integer>> ent = itent.next();
-
+      for (Entry<Integer, IntSparseSet> ent : node.live.entryList()) {
         Integer key = ent.getKey();
 
-        if (!livemap.containsKey(key)) {
-          itent.remove();
-        }
-        else {
-          FastSparseSet<Integer> set = ent.getValue();
-
-          set.complement(livemap.get(key));
-          if (set.isEmpty()) {
-            itent.remove();
-          }
+        if (livemap.containsKey(key)) {
+          node.live.complement(key, livemap.get(key));
         }
       }
     }
@@ -414,6 +414,11 @@ public class StackVarsProcessor {
     if (isSelfReference && vernotreplaced) {
       return new int[]{-1, changed};
     }
+    else if (!notdom && !vernotreplaced && setTempUsedVers.size() == 1) {
+      // the assignment is removed below, so its only value is moved instead of copied. Copying made chains of stack
+      // variables, like the ones of a string concatenation, quadratic in time and memory.
+      mapVarValues.put(setTempUsedVers.iterator().next(), right);
+    }
     else {
       for (VarVersionPair usedver : setTempUsedVers) {
         Exprent copy = right.copy();
@@ -461,31 +466,62 @@ public class StackVarsProcessor {
                                               HashMap<VarVersionPair, Exprent> mapVarValues,
                                               SSAUConstructorSparseEx ssau) {
 
-    boolean changed = false;
+    // operands are iterated on an explicit stack, long operator chains would overflow the thread stack
+    List<ChildFrame> stack = new ArrayList<ChildFrame>();
+    stack.add(new ChildFrame(exprent));
 
-    for (Exprent expr : exprent.getAllExprents()) {
-      while (true) {
-        Object[] arr = iterateChildExprent(expr, parent, next, mapVarValues, ssau);
+    Object[] arr = null;
+
+    while (true) {
+      ChildFrame frame = stack.get(stack.size() - 1);
+
+      if (arr != null) {
         Exprent retexpr = (Exprent)arr[0];
-        changed |= (Boolean)arr[1];
+        frame.changed |= (Boolean)arr[1];
 
         boolean isReplaceable = (Boolean)arr[2];
         if (retexpr != null) {
           if (isReplaceable) {
-            replaceSingleVar(exprent, (VarExprent)expr, retexpr, ssau);
-            expr = retexpr;
+            replaceSingleVar(frame.exprent, (VarExprent)frame.current, retexpr, ssau);
+            frame.current = retexpr;
           }
           else {
-            exprent.replaceExprent(expr, retexpr);
+            frame.exprent.replaceExprent(frame.current, retexpr);
           }
-          changed = true;
+          frame.changed = true;
         }
 
-        if (!isReplaceable) {
-          break;
+        arr = null;
+
+        if (isReplaceable) {
+          stack.add(new ChildFrame(frame.current));
+          continue;
+        }
+
+        frame.index++;
+      }
+
+      if (frame.index < frame.operands.size()) {
+        frame.current = frame.operands.get(frame.index);
+        stack.add(new ChildFrame(frame.current));
+      }
+      else {
+        stack.remove(stack.size() - 1);
+        arr = leaveChildExprent(frame.exprent, frame.changed, parent, next, mapVarValues, ssau);
+
+        if (stack.isEmpty()) {
+          return arr;
         }
       }
     }
+  }
+
+  private static Object[] leaveChildExprent(Exprent exprent,
+                                            boolean changed,
+                                            Exprent parent,
+                                            Exprent next,
+                                            HashMap<VarVersionPair, Exprent> mapVarValues,
+                                            SSAUConstructorSparseEx ssau) {
 
     Exprent dest = isReplaceableVar(exprent, mapVarValues, ssau);
     if (dest != null) {
@@ -594,9 +630,9 @@ public class StackVarsProcessor {
     VarVersionsGraph ssuversions = ssa.getSsuversions();
     VarVersionNode varnode = ssuversions.nodes.getWithKey(var);
 
-    HashSet<VarVersionNode> setVisited = new HashSet<VarVersionNode>();
+    HashSet<VarVersionNode> setVisited = new LinkedHashSet<VarVersionNode>();
 
-    HashSet<VarVersionNode> setNotDoms = new HashSet<VarVersionNode>();
+    HashSet<VarVersionNode> setNotDoms = new LinkedHashSet<VarVersionNode>();
 
     LinkedList<VarVersionNode> stack = new LinkedList<VarVersionNode>();
     stack.add(varnode);
@@ -652,26 +688,25 @@ public class StackVarsProcessor {
     }
 
     // compare protected ranges
-    if (!InterpreterUtil.equalObjects(ssau.getMapVersionFirstRange().get(leftpaar),
-                                      ssau.getMapVersionFirstRange().get(usedvar))) {
+    if (ssau.getVersionFirstRange(leftpaar) != ssau.getVersionFirstRange(usedvar)) {
       return false;
     }
 
     for (Entry<Integer, HashSet<VarVersionPair>> ent : mapVars.entrySet()) {
-      FastSparseSet<Integer> liveverset = mapLiveVars.get(ent.getKey());
+      IntSparseSet liveverset = mapLiveVars.get(ent.getKey());
       if (liveverset == null) {
         return false;
       }
 
-      HashSet<VarVersionNode> domset = new HashSet<VarVersionNode>();
+      HashSet<VarVersionNode> domset = new LinkedHashSet<VarVersionNode>();
       for (VarVersionPair verpaar : ent.getValue()) {
         domset.add(ssuversions.nodes.getWithKey(verpaar));
       }
 
       boolean isdom = false;
 
-      for (Integer livever : liveverset) {
-        VarVersionNode node = ssuversions.nodes.getWithKey(new VarVersionPair(ent.getKey().intValue(), livever.intValue()));
+      for (IntSparseSetIterator it = liveverset.iterator(); it.hasNext(); ) {
+        VarVersionNode node = ssuversions.nodes.getWithKey(new VarVersionPair(ent.getKey().intValue(), it.next()));
 
         if (ssuversions.isDominatorSet(node, domset)) {
           isdom = true;
@@ -703,8 +738,8 @@ public class StackVarsProcessor {
         if (leftvar.var != varindex) {
           if (mapLiveVars.containsKey(varindex)) {
             HashSet<VarVersionPair> verset = new HashSet<VarVersionPair>();
-            for (Integer vers : mapLiveVars.get(varindex)) {
-              verset.add(new VarVersionPair(varindex, vers.intValue()));
+            for (IntSparseSetIterator it = mapLiveVars.get(varindex).iterator(); it.hasNext(); ) {
+              verset.add(new VarVersionPair(varindex, it.next()));
             }
             map.put(varindex, verset);
           }
@@ -721,8 +756,8 @@ public class StackVarsProcessor {
           int varindex = ssau.getMapFieldVars().get(expr.id);
           if (mapLiveVars.containsKey(varindex)) {
             HashSet<VarVersionPair> verset = new HashSet<VarVersionPair>();
-            for (Integer vers : mapLiveVars.get(varindex)) {
-              verset.add(new VarVersionPair(varindex, vers.intValue()));
+            for (IntSparseSetIterator it = mapLiveVars.get(varindex).iterator(); it.hasNext(); ) {
+              verset.add(new VarVersionPair(varindex, it.next()));
             }
             map.put(varindex, verset);
           }
@@ -732,4 +767,17 @@ public class StackVarsProcessor {
 
     return map;
   }
+
+  private static class ChildFrame {
+    private final Exprent exprent;
+    private final List<Exprent> operands;
+    private Exprent current;
+    private int index;
+    private boolean changed;
+
+    private ChildFrame(Exprent exprent) {
+      this.exprent = exprent;
+      this.operands = exprent.getAllExprents();
+    }
+  }
 }
@@ -18,6 +18,8 @@ package de.fernflower.modules.decompiler;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import de.fernflower.modules.decompiler.stats.Statement;
@@ -93,12 +95,12 @@ public class StrongConnectivityHelper {
   public List<List<Statement>> findComponents(Statement stat) {
 
     components = new ArrayList<List<Statement>>();
-    setProcessed = new HashSet<Statement>();
+    setProcessed = new LinkedHashSet<Statement>();
 
     visitTree(stat.getFirst());
 
     for (Statement st : stat.getStats()) {
-      if (!setProcessed.contains(st) && st.getPredecessorEdges(Statement.STATEDGE_DIRECT_ALL).isEmpty()) {
+      if (!setProcessed.contains(st) && st.getPredecessorEdgeView(Statement.STATEDGE_DIRECT_ALL).isEmpty()) {
         visitTree(st);
       }
     }
@@ -115,7 +117,7 @@ public class StrongConnectivityHelper {
 
   public static boolean isExitComponent(List<Statement> lst) {
 
-    HashSet<Statement> set = new HashSet<Statement>();
+    HashSet<Statement> set = new LinkedHashSet<Statement>();
     for (Statement stat : lst) {
       set.addAll(stat.getNeighbours(StatEdge.TYPE_REGULAR, Statement.DIRECTION_FORWARD));
     }
@@ -144,9 +146,9 @@ public class StrongConnectivityHelper {
   private void visitTree(Statement stat) {
     lstack = new ListStack<Statement>();
     ncounter = 0;
-    tset = new HashSet<Statement>();
-    dfsnummap = new HashMap<Statement, Integer>();
-    lowmap = new HashMap<Statement, Integer>();
+    tset = new LinkedHashSet<Statement>();
+    dfsnummap = new LinkedHashMap<Statement, Integer>();
+    lowmap = new LinkedHashMap<Statement, Integer>();
 
     visit(stat);
 
@@ -156,6 +158,40 @@ public class StrongConnectivityHelper {
 
   private void visit(Statement stat) {
 
+    // the depth-first search keeps its own stack, long chains of statements would overflow the thread stack
+    List<VisitFrame> stack = new ArrayList<VisitFrame>();
+    stack.add(enter(stat));
+
+    while (!stack.isEmpty()) {
+      VisitFrame frame = stack.get(stack.size() - 1);
+
+      if (frame.index < frame.succs.size()) {
+        Statement succ = frame.succs.get(frame.index);
+
+        if (tset.contains(succ)) {
+          lowmap.put(frame.stat, Math.min(lowmap.get(frame.stat), dfsnummap.get(succ)));
+          frame.index++;
+        }
+        else {
+          tset.add(succ);
+          stack.add(enter(succ));
+        }
+      }
+      else {
+        stack.remove(stack.size() - 1);
+        leave(frame.stat);
+
+        if (!stack.isEmpty()) {
+          VisitFrame parent = stack.get(stack.size() - 1);
+          lowmap.put(parent.stat, Math.min(lowmap.get(parent.stat), lowmap.get(frame.stat)));
+          parent.index++;
+        }
+      }
+    }
+  }
+
+  private VisitFrame enter(Statement stat) {
+
     lstack.push(stat);
     dfsnummap.put(stat, ncounter);
     lowmap.put(stat, ncounter);
@@ -164,21 +200,10 @@ public class StrongConnectivityHelper {
     List<Statement> lstSuccs = stat.getNeighbours(StatEdge.TYPE_REGULAR, Statement.DIRECTION_FORWARD); // TODO: set?
     lstSuccs.removeAll(setProcessed);
 
-    for (int i = 0; i < lstSuccs.size(); i++) {
-      Statement succ = lstSuccs.get(i);
-      int secvalue;
-
-      if (tset.contains(succ)) {
-        secvalue = dfsnummap.get(succ);
-      }
-      else {
-        tset.add(succ);
-        visit(succ);
-        secvalue = lowmap.get(succ);
-      }
-      lowmap.put(stat, Math.min(lowmap.get(stat), secvalue));
-    }
+    return new VisitFrame(stat, lstSuccs);
+  }
 
+  private void leave(Statement stat) {
 
     if (lowmap.get(stat).intValue() == dfsnummap.get(stat).intValue()) {
       List<Statement> lst = new ArrayList<Statement>();
@@ -192,7 +217,6 @@ public class StrongConnectivityHelper {
     }
   }
 
-
   // *****************************************************************************
   // getter and setter methods
   // *****************************************************************************
@@ -204,4 +228,15 @@ public class StrongConnectivityHelper {
   public void setComponents(List<List<Statement>> components) {
     this.components = components;
   }
+
+  private static class VisitFrame {
+    private final Statement stat;
+    private final List<Statement> succs;
+    private int index;
+
+    private VisitFrame(Statement stat, List<Statement> succs) {
+      this.stat = stat;
+      this.succs = succs;
+    }
+  }
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.modules.decompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.fernflower.modules.decompiler.exps.Exprent;
+import de.fernflower.modules.decompiler.stats.Statement;
+
+/**
+ * Depth-first walks over statement and exprent trees. The walks keep their own stack instead of recursing, so the
+ * depth of the tree is not limited by the thread stack, and children are read in place without copying them.
+ */
+public class TreeWalker {
+
+  public static abstract class StatementVisitor {
+
+    private boolean stopped;
+
+    /**
+     * Called before the children of the statement.
+     *
+     * @return false to skip the children
+     */
+    public boolean enter(Statement stat) {
+      return true;
+    }
+
+    /**
+     * Called after the children of the statement.
+     */
+    public void leave(Statement stat) { }
+
+    /**
+     * Ends the walk once the current call returns.
+     */
+    public void stop() {
+      stopped = true;
+    }
+  }
+
+  public static abstract class ExprentVisitor {
+
+    private boolean stopped;
+
+    /**
+     * Called before the operands of the exprent.
+     *
+     * @return false to skip the operands
+     */
+    public boolean enter(Exprent exprent) {
+      return true;
+    }
+
+    /**
+     * Called after the operands of the exprent.
+     */
+    public void leave(Exprent exprent) { }
+
+    /**
+     * Ends the walk once the current call returns.
+     */
+    public void stop() {
+      stopped = true;
+    }
+  }
+
+  public static abstract class ExprentRewriter {
+
+    /**
+     * Called before the operands of the exprent.
+     *
+     * @return the exprent replacing this one in its parent, whose operands are then skipped, or null to go on
+     */
+    public Exprent enter(Exprent exprent) {
+      return null;
+    }
+
+    /**
+     * Called after the operands of the exprent, which are rewritten already.
+     *
+     * @return the exprent replacing this one in its parent, or null to keep it
+     */
+    public abstract Exprent leave(Exprent exprent);
+  }
+
+  /**
+   * Walks the statement and all statements nested in it, children in the order of {@link Statement#getStats()}.
+   * A child is taken from its parent's list only when the walk reaches it, and again after {@code enter} returned,
+   * so a visitor may replace the visited statement in its parent and the walk continues below the replacement.
+   */
+  public static void walk(Statement root, StatementVisitor visitor) {
+
+    visitor.stopped = false;
+
+    if (!visitor.enter(root) || visitor.stopped) {
+      if (!visitor.stopped) {
+        visitor.leave(root);
+      }
+      return;
+    }
+
+    Statement[] stack = new Statement[16];
+    int[] next = new int[16];
+    int depth = 0;
+
+    stack[depth++] = root;
+
+    while (depth > 0) {
+      Statement stat = stack[depth - 1];
+      int index = next[depth - 1];
+
+      if (index < stat.getStats().size()) {
+        next[depth - 1] = index + 1;
+
+        Statement child = stat.getStats().get(index);
+        boolean descend = visitor.enter(child);
+        if (visitor.stopped) {
+          return;
+        }
+
+        if (index < stat.getStats().size()) {
+          child = stat.getStats().get(index);
+        }
+
+        if (descend) {
+          if (depth == stack.length) {
+            stack = grow(stack);
+            next = grow(next);
+          }
+          stack[depth] = child;
+          next[depth] = 0;
+          depth++;
+        }
+        else {
+          visitor.leave(child);
+          if (visitor.stopped) {
+            return;
+          }
+        }
+      }
+      else {
+        stack[--depth] = null;
+        visitor.leave(stat);
+        if (visitor.stopped) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Walks the exprent and all its operands, operands in the order of {@link Exprent#getAllExprents()}.
+   */
+  public static void walk(Exprent root, ExprentVisitor visitor) {
+
+    visitor.stopped = false;
+
+    if (!visitor.enter(root) || visitor.stopped) {
+      if (!visitor.stopped) {
+        visitor.leave(root);
+      }
+      return;
+    }
+
+    // operands of all exprents on the stack, the ones of the top exprent at the end
+    List<Exprent> operands = new ArrayList<Exprent>();
+
+    Exprent[] stack = new Exprent[16];
+    int[] start = new int[16];
+    int[] next = new int[16];
+    int depth = 0;
+
+    stack[depth] = root;
+    start[depth] = next[depth] = 0;
+    depth++;
+    root.addAllExprents(operands);
+
+    while (depth > 0) {
+      int index = next[depth - 1];
+
+      if (index < operands.size()) {
+        next[depth - 1] = index + 1;
+
+        Exprent exprent = operands.get(index);
+        boolean descend = visitor.enter(exprent);
+        if (visitor.stopped) {
+          return;
+        }
+
+        if (descend) {
+          if (depth == stack.length) {
+            stack = grow(stack);
+            start = grow(start);
+            next = grow(next);
+          }
+          stack[depth] = exprent;
+          start[depth] = next[depth] = operands.size();
+          depth++;
+          exprent.addAllExprents(operands);
+        }
+        else {
+          visitor.leave(exprent);
+          if (visitor.stopped) {
+            return;
+          }
+        }
+      }
+      else {
+        depth--;
+        for (int i = operands.size() - 1; i >= start[depth]; i--) {
+          operands.remove(i);
+        }
+
+        Exprent exprent = stack[depth];
+        stack[depth] = null;
+        visitor.leave(exprent);
+        if (visitor.stopped) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Rewrites the exprent and all its operands, operands in the order of {@link Exprent#getAllExprents()}. The operands
+   * of an exprent are read before the first of them is rewritten. A replacement is put into the parent with
+   * {@link Exprent#replaceExprent} and is not rewritten again. If {@code restart} is set, a replacement starts over
+   * with the first operand of the parent, so the operands before it are rewritten once more.
+   *
+   * @return the replacement of the root, or null
+   */
+  public static Exprent rewrite(Exprent root, ExprentRewriter rewriter, boolean restart) {
+
+    Exprent ret = rewriter.enter(root);
+    if (ret != null) {
+      return ret;
+    }
+
+    // operands of all exprents on the stack, the ones of the top exprent at the end
+    List<Exprent> operands = new ArrayList<Exprent>();
+
+    Exprent[] stack = new Exprent[16];
+    int[] start = new int[16];
+    int[] next = new int[16];
+    int depth = 0;
+
+    stack[depth] = root;
+    start[depth] = next[depth] = 0;
+    depth++;
+    root.addAllExprents(operands);
+
+    while (true) {
+      int index = next[depth - 1];
+
+      if (index < operands.size()) {
+        Exprent exprent = operands.get(index);
+
+        ret = rewriter.enter(exprent);
+        if (ret == null) {
+          if (depth == stack.length) {
+            stack = grow(stack);
+            start = grow(start);
+            next = grow(next);
+          }
+          stack[depth] = exprent;
+          start[depth] = next[depth] = operands.size();
+          depth++;
+          exprent.addAllExprents(operands);
+          continue;
+        }
+      }
+      else {
+        depth--;
+        for (int i = operands.size() - 1; i >= start[depth]; i--) {
+          operands.remove(i);
+        }
+
+        Exprent exprent = stack[depth];
+        stack[depth] = null;
+
+        ret = rewriter.leave(exprent);
+        if (depth == 0) {
+          return ret;
+        }
+        index = next[depth - 1];
+      }
+
+      // the operand at index of the top exprent is done
+      Exprent parent = stack[depth - 1];
+      if (ret != null) {
+        parent.replaceExprent(operands.get(index), ret);
+
+        if (restart) {
+          for (int i = operands.size() - 1; i >= start[depth - 1]; i--) {
+            operands.remove(i);
+          }
+          parent.addAllExprents(operands);
+          next[depth - 1] = start[depth - 1];
+          continue;
+        }
+      }
+      next[depth - 1] = index + 1;
+    }
+  }
+
+  private static <T> T[] grow(T[] array) {
+    return Arrays.copyOf(array, array.length * 2);
+  }
+
+  private static int[] grow(int[] array) {
+    return Arrays.copyOf(array, array.length * 2);
+  }
+}
@@ -15,6 +15,8 @@
  */
 package de.fernflower.modules.decompiler.decompose;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 
 import de.fernflower.modules.decompiler.StatEdge;
@@ -36,72 +38,34 @@ public class DominatorEngine {
     calcIDoms();
   }
 
-  private void orderStatements() {
-
-    for (Statement stat : statement.getReversePostOrderList()) {
-      colOrderedIDoms.addWithKey(null, stat.id);
-    }
-  }
+  private void calcIDoms() {
 
-  private static Integer getCommonIDom(Integer key1, Integer key2, VBStyleCollection<Integer, Integer> orderedIDoms) {
+    List<Statement> lstStats = statement.getReversePostOrderList();
 
-    if (key1 == null) {
-      return key2;
-    }
-    else if (key2 == null) {
-      return key1;
+    HashMap<Integer, Integer> mapIndices = new HashMap<Integer, Integer>();
+    for (int i = 0; i < lstStats.size(); i++) {
+      mapIndices.put(lstStats.get(i).id, i);
     }
 
-    int index1 = orderedIDoms.getIndexByKey(key1);
-    int index2 = orderedIDoms.getIndexByKey(key2);
+    int[][] preds = new int[lstStats.size()][];
+    for (int i = 0; i < lstStats.size(); i++) {
+      List<StatEdge> lstEdges = lstStats.get(i).getAllPredecessorEdges();
 
-    while (index1 != index2) {
-      if (index1 > index2) {
-        key1 = orderedIDoms.getWithKey(key1);
-        index1 = orderedIDoms.getIndexByKey(key1);
-      }
-      else {
-        key2 = orderedIDoms.getWithKey(key2);
-        index2 = orderedIDoms.getIndexByKey(key2);
+      int[] lst = new int[lstEdges.size()];
+      int size = 0;
+      for (StatEdge edge : lstEdges) {
+        Integer index = mapIndices.get(edge.getSource().id);
+        if (index != null) {
+          lst[size++] = index;
+        }
       }
+      preds[i] = size == lst.length ? lst : Arrays.copyOf(lst, size);
     }
 
-    return key1;
-  }
-
-  private void calcIDoms() {
-
-    orderStatements();
+    int[] idoms = FastDominatorHelper.calcIDoms(preds, new int[]{mapIndices.get(statement.getFirst().id)});
 
-    colOrderedIDoms.putWithKey(statement.getFirst().id, statement.getFirst().id);
-
-    // exclude first statement
-    List<Integer> lstIds = colOrderedIDoms.getLstKeys().subList(1, colOrderedIDoms.getLstKeys().size());
-
-    while (true) {
-
-      boolean changed = false;
-
-      for (Integer id : lstIds) {
-
-        Statement stat = statement.getStats().getWithKey(id);
-        Integer idom = null;
-
-        for (StatEdge edge : stat.getAllPredecessorEdges()) {
-          if (colOrderedIDoms.getWithKey(edge.getSource().id) != null) {
-            idom = getCommonIDom(idom, edge.getSource().id, colOrderedIDoms);
-          }
-        }
-
-        Integer oldidom = colOrderedIDoms.putWithKey(idom, id);
-        if (!idom.equals(oldidom)) {
-          changed = true;
-        }
-      }
-
-      if (!changed) {
-        break;
-      }
+    for (int i = 0; i < lstStats.size(); i++) {
+      colOrderedIDoms.addWithKey(lstStats.get(idoms[i]).id, lstStats.get(i).id);
     }
   }
 
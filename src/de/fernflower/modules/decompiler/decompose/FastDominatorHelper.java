@@ -0,0 +1,197 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.modules.decompiler.decompose;
+
+/**
+ * Immediate dominators over densely numbered nodes, computed with the semi-NCA algorithm: semidominators as in
+ * Lengauer-Tarjan, then the immediate dominator as the nearest common ancestor of parent and semidominator in the
+ * depth-first tree. All state is kept in int arrays indexed by preorder number.
+ */
+public class FastDominatorHelper {
+
+  /**
+   * @param preds predecessors of every node as node indices
+   * @param roots entry nodes
+   * @return the immediate dominator of every node. Roots, nodes reachable from more than one root and nodes
+   * without predecessors are their own immediate dominators.
+   */
+  public static int[] calcIDoms(int[][] preds, int[] roots) {
+
+    int count = preds.length;
+
+    int[][] succs = getSuccessors(preds);
+
+    // preorder number of a node, 0 for the virtual root in front of all entry nodes
+    int[] num = new int[count];
+    int[] vertex = new int[count + 1];
+    int[] parent = new int[count + 1];
+    boolean[] entry = new boolean[count + 1];
+
+    int[] stack = new int[count];
+    int[] stackIndex = new int[count];
+
+    int last = 0;
+    for (int root : roots) {
+      last = visit(root, last, succs, num, vertex, parent, entry, stack, stackIndex);
+    }
+    for (int i = 0; i < count; i++) {
+      if (preds[i].length == 0) {
+        last = visit(i, last, succs, num, vertex, parent, entry, stack, stackIndex);
+      }
+    }
+    for (int i = 0; i < count; i++) {
+      last = visit(i, last, succs, num, vertex, parent, entry, stack, stackIndex);
+    }
+    for (int root : roots) {
+      entry[num[root]] = true;
+    }
+
+    // semidominators, linking the nodes into the forest in reverse preorder
+    int[] semi = new int[count + 1];
+    int[] label = new int[count + 1];
+    int[] ancestor = new int[count + 1];
+    int[] path = new int[count + 1];
+
+    for (int i = 0; i <= count; i++) {
+      semi[i] = i;
+      label[i] = i;
+      ancestor[i] = -1;
+    }
+
+    for (int w = count; w > 0; w--) {
+      if (entry[w]) {
+        semi[w] = 0;
+      }
+      else {
+        for (int pred : preds[vertex[w]]) {
+          int u = eval(num[pred], ancestor, label, semi, path);
+          if (semi[u] < semi[w]) {
+            semi[w] = semi[u];
+          }
+        }
+      }
+      ancestor[w] = parent[w];
+    }
+
+    // immediate dominators, parents are final before their children
+    int[] idom = new int[count + 1];
+    for (int w = 1; w <= count; w++) {
+      int dom = parent[w];
+      while (dom > semi[w]) {
+        dom = idom[dom];
+      }
+      idom[w] = dom;
+    }
+
+    int[] res = new int[count];
+    for (int w = 1; w <= count; w++) {
+      res[vertex[w]] = vertex[idom[w] == 0 ? w : idom[w]];
+    }
+
+    return res;
+  }
+
+  private static int[][] getSuccessors(int[][] preds) {
+
+    int count = preds.length;
+
+    int[] sizes = new int[count];
+    for (int[] lst : preds) {
+      for (int pred : lst) {
+        sizes[pred]++;
+      }
+    }
+
+    int[][] succs = new int[count][];
+    for (int i = 0; i < count; i++) {
+      succs[i] = new int[sizes[i]];
+      sizes[i] = 0;
+    }
+
+    for (int i = 0; i < count; i++) {
+      for (int pred : preds[i]) {
+        succs[pred][sizes[pred]++] = i;
+      }
+    }
+
+    return succs;
+  }
+
+  private static int visit(int start, int last, int[][] succs, int[] num, int[] vertex, int[] parent, boolean[] entry,
+                           int[] stack, int[] stackIndex) {
+
+    if (num[start] != 0) {
+      return last;
+    }
+
+    num[start] = ++last;
+    vertex[last] = start;
+    parent[last] = 0;
+    entry[last] = true;
+
+    int size = 0;
+    stack[size] = start;
+    stackIndex[size++] = 0;
+
+    while (size > 0) {
+      int node = stack[size - 1];
+      int index = stackIndex[size - 1];
+
+      if (index < succs[node].length) {
+        stackIndex[size - 1]++;
+
+        int succ = succs[node][index];
+        if (num[succ] == 0) {
+          num[succ] = ++last;
+          vertex[last] = succ;
+          parent[last] = num[node];
+
+          stack[size] = succ;
+          stackIndex[size++] = 0;
+        }
+      }
+      else {
+        size--;
+      }
+    }
+
+    return last;
+  }
+
+  private static int eval(int v, int[] ancestor, int[] label, int[] semi, int[] path) {
+
+    if (ancestor[v] < 0) {
+      return v;
+    }
+
+    // path compression, from the top of the forest downwards
+    int length = 0;
+    for (int node = v; ancestor[ancestor[node]] >= 0; node = ancestor[node]) {
+      path[length++] = node;
+    }
+
+    while (length > 0) {
+      int node = path[--length];
+      int anc = ancestor[node];
+      if (semi[label[anc]] < semi[label[node]]) {
+        label[node] = label[anc];
+      }
+      ancestor[node] = ancestor[anc];
+    }
+
+    return label[v];
+  }
+}
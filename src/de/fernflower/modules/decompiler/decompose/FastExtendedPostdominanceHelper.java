@@ -2,46 +2,53 @@
 package de.fernflower.modules.decompiler.decompose;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import de.fernflower.modules.decompiler.StatEdge;
 import de.fernflower.modules.decompiler.stats.Statement;
-import de.fernflower.util.FastFixedSetFactory;
-import de.fernflower.util.FastFixedSetFactory.FastFixedSet;
-import de.fernflower.util.InterpreterUtil;
+import de.fernflower.util.VBStyleCollection;
 
 public class FastExtendedPostdominanceHelper {
 
-  private List<Statement> lstReversePostOrderList;
+  private Statement statement;
 
-  private HashMap<Integer, FastFixedSet<Integer>> mapSupportPoints = new LinkedHashMap<>();
+  // sub-statements, a statement is represented by its position in this list
+  private List<Statement> lstStats;
 
-  private final HashMap<Integer, FastFixedSet<Integer>> mapExtPostdominators = new LinkedHashMap<>();
+  private HashMap<Integer, Integer> mapIndices;
 
-  private Statement statement;
+  private int[] reversePostOrder;
+
+  // neighbours by position (-1 outside the statement) and the types of the connecting edges, in edge order
+  private int[][] predecessors;
+  private int[][] predecessorTypes;
+  private int[][] successors;
+  private int[][] successorTypes;
+
+  private BitSet[] supportPoints;
 
-  private FastFixedSetFactory<Integer> factory;
+  private BitSet[] extPostdominators;
+
+  // reachability sets of the current sweep; null before a node is processed and after all its successors are
+  private BitSet[] reachabilitySets;
+  private boolean[] processed;
+
+  // scratch sets of removeErroneousNodes
+  private BitSet reachabilityCopy;
+  private BitSet intersection;
 
   public HashMap<Integer, Set<Integer>> getExtendedPostdominators(Statement statement) {
 
     this.statement = statement;
 
-    HashSet<Integer> set = new LinkedHashSet<>();
-    for (Statement st : statement.getStats()) {
-      set.add(st.id);
-    }
-    this.factory = new FastFixedSetFactory<>(set);
-
-    lstReversePostOrderList = statement.getReversePostOrderList();
+    indexStatements();
 
     //		try {
     //			DotExporter.toDotFile(statement, new File("c:\\Temp\\stat1.dot"));
@@ -60,162 +67,266 @@ public class FastExtendedPostdominanceHelper {
 
     filterOnDominance(filter);
 
-    Set<Entry<Integer, FastFixedSet<Integer>>> entries = mapExtPostdominators.entrySet();
-    HashMap<Integer, Set<Integer>> res = new HashMap<>(entries.size());
-    for (Entry<Integer, FastFixedSet<Integer>> entry : entries) {
-      List<Integer> lst = new ArrayList<>(entry.getValue().toPlainSet());
-      Collections.sort(lst); // Order Matters!
-      res.put(entry.getKey(), new LinkedHashSet<>(lst));
+    int count = 0;
+    for (BitSet set : extPostdominators) {
+      if (set != null) {
+        count++;
+      }
+    }
+
+    HashMap<Integer, Set<Integer>> res = new HashMap<>(count);
+    for (int head = 0; head < extPostdominators.length; head++) {
+      BitSet set = extPostdominators[head];
+      if (set != null) {
+        List<Integer> lst = new ArrayList<>(set.cardinality());
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+          lst.add(lstStats.get(i).id);
+        }
+        Collections.sort(lst); // Order Matters!
+        res.put(lstStats.get(head).id, new LinkedHashSet<>(lst));
+      }
     }
 
     return res;
   }
 
+  private void indexStatements() {
+
+    lstStats = new ArrayList<>(statement.getStats());
+
+    mapIndices = new HashMap<>(lstStats.size() * 2);
+    for (int i = 0; i < lstStats.size(); i++) {
+      mapIndices.put(lstStats.get(i).id, i);
+    }
+
+    int count = lstStats.size();
+    predecessors = new int[count][];
+    predecessorTypes = new int[count][];
+    successors = new int[count][];
+    successorTypes = new int[count][];
+
+    for (int i = 0; i < count; i++) {
+      Statement stat = lstStats.get(i);
+
+      List<StatEdge> lstPreds = stat.getAllPredecessorEdges();
+      predecessors[i] = new int[lstPreds.size()];
+      predecessorTypes[i] = new int[lstPreds.size()];
+      for (int j = 0; j < lstPreds.size(); j++) {
+        StatEdge edge = lstPreds.get(j);
+        Integer index = mapIndices.get(edge.getSource().id);
+        predecessors[i][j] = index == null ? -1 : index;
+        predecessorTypes[i][j] = edge.getType();
+      }
+
+      List<StatEdge> lstSuccs = stat.getAllSuccessorEdges();
+      successors[i] = new int[lstSuccs.size()];
+      successorTypes[i] = new int[lstSuccs.size()];
+      for (int j = 0; j < lstSuccs.size(); j++) {
+        StatEdge edge = lstSuccs.get(j);
+        Integer index = mapIndices.get(edge.getDestination().id);
+        successors[i][j] = index == null ? -1 : index;
+        successorTypes[i][j] = edge.getType();
+      }
+    }
+
+    List<Statement> lstReversePostOrder = statement.getReversePostOrderList();
+    reversePostOrder = new int[lstReversePostOrder.size()];
+    for (int i = 0; i < reversePostOrder.length; i++) {
+      reversePostOrder[i] = mapIndices.get(lstReversePostOrder.get(i).id);
+    }
+
+    supportPoints = new BitSet[count];
+    reachabilitySets = new BitSet[count];
+    processed = new boolean[count];
+    reachabilityCopy = new BitSet(count);
+    intersection = new BitSet(count);
+  }
 
   private void filterOnDominance(DominatorTreeExceptionFilter filter) {
 
-    DominatorEngine engine = filter.getDomEngine();
-    LinkedList<Statement> stack = new LinkedList<>();
-    LinkedList<FastFixedSet<Integer>> stackPath = new LinkedList<>();
-    Set<Statement> setVisited = new HashSet<>();
+    int[] idoms = getIDoms(filter.getDomEngine());
 
-    for (int head : new HashSet<>(mapExtPostdominators.keySet())) {
+    LinkedList<Integer> stack = new LinkedList<>();
+    LinkedList<BitSet> stackPath = new LinkedList<>();
+    boolean[] visited = new boolean[lstStats.size()];
+    BitSet missing = new BitSet(lstStats.size());
 
-      FastFixedSet<Integer> setPostdoms = mapExtPostdominators.get(head);
+    for (int head = 0; head < extPostdominators.length; head++) {
+
+      BitSet setPostdoms = extPostdominators[head];
+      if (setPostdoms == null) {
+        continue;
+      }
 
       stack.clear();
       stackPath.clear();
 
-      stack.add(statement.getStats().getWithKey(head));
-      stackPath.add(factory.createEmptySet());
+      stack.add(head);
+      stackPath.add(new BitSet(lstStats.size()));
 
-      setVisited.clear();
+      Arrays.fill(visited, false);
 
-      setVisited.add(stack.getFirst());
+      visited[head] = true;
 
       while (!stack.isEmpty()) {
 
-        Statement stat = stack.removeFirst();
-        FastFixedSet<Integer> path = stackPath.removeFirst();
+        int stat = stack.removeFirst();
+        BitSet path = stackPath.removeFirst();
 
-        if (setPostdoms.contains(stat.id)) {
-          path.add(stat.id);
+        if (setPostdoms.get(stat)) {
+          path.set(stat);
         }
 
-        if (path.contains(setPostdoms)) {
+        missing.clear();
+        missing.or(setPostdoms);
+        missing.andNot(path);
+        if (missing.isEmpty()) {
           continue;
         }
 
-        if(!engine.isDominator(stat.id, head)) {
-          setPostdoms.complement(path);
+        if (!isDominator(idoms, stat, head)) {
+          setPostdoms.andNot(path);
           continue;
         }
 
-        for (StatEdge edge : stat.getSuccessorEdges(StatEdge.TYPE_REGULAR)) {
+        int[] succs = successors[stat];
+        for (int i = 0; i < succs.length; i++) {
+          if (successorTypes[stat][i] == StatEdge.TYPE_REGULAR) {
 
-          Statement edge_destination = edge.getDestination();
+            int edge_destination = succs[i];
 
-          if(!setVisited.contains(edge_destination)) {
+            if (!visited[edge_destination]) {
 
-            stack.add(edge_destination);
-            stackPath.add(path.getCopy());
+              stack.add(edge_destination);
+              stackPath.add((BitSet)path.clone());
 
-            setVisited.add(edge_destination);
+              visited[edge_destination] = true;
+            }
           }
         }
       }
 
       if (setPostdoms.isEmpty()) {
-        mapExtPostdominators.remove(head);
+        extPostdominators[head] = null;
       }
     }
   }
 
+  private int[] getIDoms(DominatorEngine engine) {
+
+    int[] idoms = new int[lstStats.size()];
+    Arrays.fill(idoms, -1);
+
+    VBStyleCollection<Integer, Integer> orderedIDoms = engine.getOrderedIDoms();
+    for (int i = 0; i < orderedIDoms.size(); i++) {
+      idoms[mapIndices.get(orderedIDoms.getKey(i))] = mapIndices.get(orderedIDoms.get(i));
+    }
+
+    return idoms;
+  }
+
+  private static boolean isDominator(int[] idoms, int node, int dom) {
+
+    while (node != dom) {
+
+      int idom = idoms[node];
+
+      if (idom == node) {
+        return false; // root node
+      }
+      else {
+        node = idom;
+      }
+    }
+
+    return true;
+  }
+
   private void filterOnExceptionRanges(DominatorTreeExceptionFilter filter) {
-    for (int head : new HashSet<>(mapExtPostdominators.keySet())) {
-      FastFixedSet<Integer> set = mapExtPostdominators.get(head);
-      for (Iterator<Integer> it = set.iterator(); it.hasNext(); ) {
-        if (!filter.acceptStatementPair(head, it.next())) {
-          it.remove();
+    for (int head = 0; head < extPostdominators.length; head++) {
+      BitSet set = extPostdominators[head];
+      if (set == null) {
+        continue;
+      }
+
+      Integer headid = lstStats.get(head).id;
+      for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+        if (!filter.acceptStatementPair(headid, lstStats.get(i).id)) {
+          set.clear(i);
         }
       }
       if (set.isEmpty()) {
-        mapExtPostdominators.remove(head);
+        extPostdominators[head] = null;
       }
     }
   }
 
   private void removeErroneousNodes() {
-    mapSupportPoints = new HashMap<>();
+    supportPoints = new BitSet[lstStats.size()];
 
     calcReachabilitySuppPoints(StatEdge.TYPE_REGULAR);
 
-    iterateReachability((node, mapSets) -> {
-      Integer nodeid = node.id;
-
-      FastFixedSet<Integer> setReachability = mapSets.get(nodeid);
-      List<FastFixedSet<Integer>> lstPredSets = new ArrayList<>();
+    iterateReachability(node -> {
+      BitSet setReachability = reachabilitySets[node];
+      List<BitSet> lstPredSets = new ArrayList<>();
 
-      for (StatEdge prededge : node.getPredecessorEdges(StatEdge.TYPE_REGULAR)) {
-        FastFixedSet<Integer> setPred = mapSets.get(prededge.getSource().id);
-        if (setPred == null) {
-          setPred = mapSupportPoints.get(prededge.getSource().id);
+      int[] preds = predecessors[node];
+      for (int i = 0; i < preds.length; i++) {
+        if (predecessorTypes[node][i] == StatEdge.TYPE_REGULAR) {
+          // setPred cannot be empty as it is a reachability set
+          lstPredSets.add(getReachabilitySet(preds[i]));
         }
-
-        // setPred cannot be empty as it is a reachability set
-        lstPredSets.add(setPred);
       }
 
-      for (int id : setReachability) {
+      for (int id = setReachability.nextSetBit(0); id >= 0; id = setReachability.nextSetBit(id + 1)) {
 
-        FastFixedSet<Integer> setReachabilityCopy = setReachability.getCopy();
+        reachabilityCopy.clear();
+        reachabilityCopy.or(setReachability);
 
-        FastFixedSet<Integer> setIntersection = factory.createEmptySet();
+        intersection.clear();
         boolean isIntersectionInitialized = false;
 
-        for (FastFixedSet<Integer> predset : lstPredSets) {
-          if (predset.contains(id)) {
+        for (BitSet predset : lstPredSets) {
+          if (predset.get(id)) {
             if (!isIntersectionInitialized) {
-              setIntersection.union(predset);
+              intersection.or(predset);
               isIntersectionInitialized = true;
             }
             else {
-              setIntersection.intersection(predset);
+              intersection.and(predset);
             }
           }
         }
 
-        if (nodeid != id) {
-          setIntersection.add(nodeid);
+        if (node != id) {
+          intersection.set(node);
         }
         else {
-          setIntersection.remove(nodeid);
+          intersection.clear(node);
         }
 
-        setReachabilityCopy.complement(setIntersection);
+        reachabilityCopy.andNot(intersection);
 
-        mapExtPostdominators.get(id).complement(setReachabilityCopy);
+        extPostdominators[id].andNot(reachabilityCopy);
       }
 
       return false;
     }, StatEdge.TYPE_REGULAR);
 
     // exception handlers cannot be postdominator nodes
-    // TODO: replace with a standard set?
-    FastFixedSet<Integer> setHandlers = factory.createEmptySet();
-    boolean handlerfound = false;
-
-    for (Statement stat : statement.getStats()) {
-      if (stat.getPredecessorEdges(Statement.STATEDGE_DIRECT_ALL).isEmpty() &&
-          !stat.getPredecessorEdges(StatEdge.TYPE_EXCEPTION).isEmpty()) { // exception handler
-        setHandlers.add(stat.id);
-        handlerfound = true;
+    BitSet setHandlers = new BitSet(lstStats.size());
+
+    for (int i = 0; i < lstStats.size(); i++) {
+      Statement stat = lstStats.get(i);
+      if (stat.getPredecessorEdgeView(Statement.STATEDGE_DIRECT_ALL).isEmpty() &&
+          !stat.getPredecessorEdgeView(StatEdge.TYPE_EXCEPTION).isEmpty()) { // exception handler
+        setHandlers.set(i);
       }
     }
 
-    if (handlerfound) {
-      for (FastFixedSet<Integer> set : mapExtPostdominators.values()) {
-        set.complement(setHandlers);
+    if (!setHandlers.isEmpty()) {
+      for (BitSet set : extPostdominators) {
+        set.andNot(setHandlers);
       }
     }
   }
@@ -225,16 +336,16 @@ public class FastExtendedPostdominanceHelper {
 
     calcReachabilitySuppPoints(edgetype);
 
-    for (Statement stat : statement.getStats()) {
-      mapExtPostdominators.put(stat.id, factory.createEmptySet());
+    extPostdominators = new BitSet[lstStats.size()];
+    for (int i = 0; i < extPostdominators.length; i++) {
+      extPostdominators[i] = new BitSet(lstStats.size());
     }
 
-    iterateReachability((node, mapSets) -> {
-      Integer nodeid = node.id;
-      FastFixedSet<Integer> setReachability = mapSets.get(nodeid);
+    iterateReachability(node -> {
+      BitSet setReachability = reachabilitySets[node];
 
-      for (int id : setReachability) {
-        mapExtPostdominators.get(id).add(nodeid);
+      for (int id = setReachability.nextSetBit(0); id >= 0; id = setReachability.nextSetBit(id + 1)) {
+        extPostdominators[id].set(node);
       }
 
       return false;
@@ -242,15 +353,16 @@ public class FastExtendedPostdominanceHelper {
   }
 
   private void calcReachabilitySuppPoints(final int edgetype) {
-    iterateReachability((node, mapSets) -> {
+    iterateReachability(node -> {
       // consider to be a support point
-      for (StatEdge sucedge : node.getAllSuccessorEdges()) {
-        if ((sucedge.getType() & edgetype) != 0) {
-          if (mapSets.containsKey(sucedge.getDestination().id)) {
-            FastFixedSet<Integer> setReachability = mapSets.get(node.id);
-
-            if (!InterpreterUtil.equalObjects(setReachability, mapSupportPoints.get(node.id))) {
-              mapSupportPoints.put(node.id, setReachability);
+      int[] succs = successors[node];
+      for (int i = 0; i < succs.length; i++) {
+        if ((successorTypes[node][i] & edgetype) != 0) {
+          if (succs[i] >= 0 && processed[succs[i]]) {
+            BitSet setReachability = reachabilitySets[node];
+
+            if (!setReachability.equals(supportPoints[node])) {
+              supportPoints[node] = setReachability;
               return true;
             }
           }
@@ -261,50 +373,54 @@ public class FastExtendedPostdominanceHelper {
     }, edgetype);
   }
 
-  private void iterateReachability(IReachabilityAction action, int edgetype) {
-    HashMap<Integer, FastFixedSet<Integer>> mapSets = new HashMap<>();
+  private BitSet getReachabilitySet(int node) {
+    if (node < 0) {
+      return null;
+    }
+    BitSet set = reachabilitySets[node];
+    return set == null ? supportPoints[node] : set;
+  }
 
+  private void iterateReachability(IReachabilityAction action, int edgetype) {
     while (true) {
       boolean iterate = false;
 
-      mapSets.clear();
+      Arrays.fill(reachabilitySets, null);
+      Arrays.fill(processed, false);
 
-      for (Statement stat : lstReversePostOrderList) {
+      for (int stat : reversePostOrder) {
 
-        FastFixedSet<Integer> set = factory.createEmptySet();
-        set.add(stat.id);
-
-        for (StatEdge prededge : stat.getAllPredecessorEdges()) {
-          if ((prededge.getType() & edgetype) != 0) {
-            Statement pred = prededge.getSource();
-
-            FastFixedSet<Integer> setPred = mapSets.get(pred.id);
-            if (setPred == null) {
-              setPred = mapSupportPoints.get(pred.id);
-            }
+        BitSet set = new BitSet(lstStats.size());
+        set.set(stat);
 
+        int[] preds = predecessors[stat];
+        for (int i = 0; i < preds.length; i++) {
+          if ((predecessorTypes[stat][i] & edgetype) != 0) {
+            BitSet setPred = getReachabilitySet(preds[i]);
             if (setPred != null) {
-              set.union(setPred);
+              set.or(setPred);
             }
           }
         }
 
-        mapSets.put(stat.id, set);
+        reachabilitySets[stat] = set;
+        processed[stat] = true;
 
         if (action != null) {
-          iterate |= action.action(stat, mapSets);
+          iterate |= action.action(stat);
         }
 
         // remove reachability information of fully processed nodes (saves memory)
-        for (StatEdge prededge : stat.getAllPredecessorEdges()) {
-          if ((prededge.getType() & edgetype) != 0) {
-            Statement pred = prededge.getSource();
+        for (int i = 0; i < preds.length; i++) {
+          if ((predecessorTypes[stat][i] & edgetype) != 0) {
+            int pred = preds[i];
 
-            if (mapSets.containsKey(pred.id)) {
+            if (pred >= 0 && processed[pred]) {
               boolean remstat = true;
-              for (StatEdge sucedge : pred.getAllSuccessorEdges()) {
-                if ((sucedge.getType() & edgetype) != 0) {
-                  if (!mapSets.containsKey(sucedge.getDestination().id)) {
+              int[] succs = successors[pred];
+              for (int j = 0; j < succs.length; j++) {
+                if ((successorTypes[pred][j] & edgetype) != 0) {
+                  if (succs[j] < 0 || !processed[succs[j]]) {
                     remstat = false;
                     break;
                   }
@@ -312,7 +428,7 @@ public class FastExtendedPostdominanceHelper {
               }
 
               if (remstat) {
-                mapSets.put(pred.id, null);
+                reachabilitySets[pred] = null;
               }
             }
           }
@@ -327,6 +443,6 @@ public class FastExtendedPostdominanceHelper {
 
 
   private interface IReachabilityAction {
-    boolean action(Statement node, HashMap<Integer, FastFixedSet<Integer>> mapSets);
+    boolean action(int node);
   }
 }
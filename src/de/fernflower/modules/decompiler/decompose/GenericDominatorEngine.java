@@ -15,6 +15,9 @@
  */
 package de.fernflower.modules.decompiler.decompose;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
 
@@ -26,8 +29,6 @@ public class GenericDominatorEngine {
 
   private VBStyleCollection<IGraphNode, IGraphNode> colOrderedIDoms = new VBStyleCollection<IGraphNode, IGraphNode>();
 
-  private Set<? extends IGraphNode> setRoots;
-
   public GenericDominatorEngine(IGraph graph) {
     this.graph = graph;
   }
@@ -36,93 +37,44 @@ public class GenericDominatorEngine {
     calcIDoms();
   }
 
-  private void orderNodes() {
-
-    setRoots = graph.getRoots();
-
-    for (IGraphNode node : graph.getReversePostOrderList()) {
-      colOrderedIDoms.addWithKey(null, node);
-    }
-  }
-
-  private static IGraphNode getCommonIDom(IGraphNode node1, IGraphNode node2, VBStyleCollection<IGraphNode, IGraphNode> orderedIDoms) {
+  private void calcIDoms() {
 
-    IGraphNode nodeOld;
+    List<IGraphNode> lstNodes = new ArrayList<IGraphNode>(graph.getReversePostOrderList());
 
-    if (node1 == null) {
-      return node2;
-    }
-    else if (node2 == null) {
-      return node1;
+    HashMap<IGraphNode, Integer> mapIndices = new HashMap<IGraphNode, Integer>();
+    for (int i = 0; i < lstNodes.size(); i++) {
+      mapIndices.put(lstNodes.get(i), i);
     }
 
-    int index1 = orderedIDoms.getIndexByKey(node1);
-    int index2 = orderedIDoms.getIndexByKey(node2);
+    int[][] preds = new int[lstNodes.size()][];
+    for (int i = 0; i < lstNodes.size(); i++) {
+      List<? extends IGraphNode> lstPreds = lstNodes.get(i).getPredecessors();
 
-    while (index1 != index2) {
-      if (index1 > index2) {
-        nodeOld = node1;
-        node1 = orderedIDoms.getWithKey(node1);
-
-        if (nodeOld == node1) { // no idom - root or merging point
-          return null;
+      int[] lst = new int[lstPreds.size()];
+      int size = 0;
+      for (IGraphNode pred : lstPreds) {
+        Integer index = mapIndices.get(pred);
+        if (index != null) {
+          lst[size++] = index;
         }
-
-        index1 = orderedIDoms.getIndexByKey(node1);
       }
-      else {
-        nodeOld = node2;
-        node2 = orderedIDoms.getWithKey(node2);
-
-        if (nodeOld == node2) { // no idom - root or merging point
-          return null;
-        }
+      preds[i] = size == lst.length ? lst : Arrays.copyOf(lst, size);
+    }
 
-        index2 = orderedIDoms.getIndexByKey(node2);
+    Set<? extends IGraphNode> setRoots = graph.getRoots();
+    int[] roots = new int[setRoots.size()];
+    int size = 0;
+    for (IGraphNode root : setRoots) {
+      Integer index = mapIndices.get(root);
+      if (index != null) {
+        roots[size++] = index;
       }
     }
 
-    return node1;
-  }
+    int[] idoms = FastDominatorHelper.calcIDoms(preds, Arrays.copyOf(roots, size));
 
-  private void calcIDoms() {
-
-    orderNodes();
-
-    List<IGraphNode> lstNodes = colOrderedIDoms.getLstKeys();
-
-    while (true) {
-
-      boolean changed = false;
-
-      for (IGraphNode node : lstNodes) {
-
-        IGraphNode idom = null;
-
-        if (!setRoots.contains(node)) {
-          for (IGraphNode pred : node.getPredecessors()) {
-            if (colOrderedIDoms.getWithKey(pred) != null) {
-              idom = getCommonIDom(idom, pred, colOrderedIDoms);
-              if (idom == null) {
-                break; // no idom found: merging point of two trees
-              }
-            }
-          }
-        }
-
-        if (idom == null) {
-          idom = node;
-        }
-
-        IGraphNode oldidom = colOrderedIDoms.putWithKey(idom, node);
-        if (!idom.equals(oldidom)) { // oldidom is null iff the node is touched for the first time
-          changed = true;
-        }
-      }
-
-      if (!changed) {
-        break;
-      }
+    for (int i = 0; i < lstNodes.size(); i++) {
+      colOrderedIDoms.addWithKey(lstNodes.get(idoms[i]), lstNodes.get(i));
     }
   }
 
@@ -63,7 +63,7 @@ public class ExceptionDeobfuscator {
 
       if (!found) {
         // doesn't matter, which range chosen
-        lstRanges.add(new Range(range.getHandler(), range.getUniqueExceptionsString(), new HashSet<BasicBlock>(range.getProtectedRange()), range));
+        lstRanges.add(new Range(range.getHandler(), range.getUniqueExceptionsString(), new LinkedHashSet<BasicBlock>(range.getProtectedRange()), range));
       }
     }
 
@@ -81,13 +81,13 @@ public class ExceptionDeobfuscator {
 
           if (firstinstr.opcode == CodeConstants.opc_pop ||
               firstinstr.opcode == CodeConstants.opc_astore) {
-            Set<BasicBlock> setrange = new HashSet<BasicBlock>(range.protectedRange);
+            Set<BasicBlock> setrange = new LinkedHashSet<BasicBlock>(range.protectedRange);
 
             for (Range range_super : lstRanges) { // finally or strict superset
 
               if (range != range_super) {
 
-                Set<BasicBlock> setrange_super = new HashSet<BasicBlock>(range_super.protectedRange);
+                Set<BasicBlock> setrange_super = new LinkedHashSet<BasicBlock>(range_super.protectedRange);
 
                 if (!setrange.contains(range_super.handler) && !setrange_super.contains(handler)
                     && (range_super.uniqueStr == null || setrange_super.containsAll(setrange))) {
@@ -159,7 +159,7 @@ public class ExceptionDeobfuscator {
 
   public static void insertEmptyExceptionHandlerBlocks(ControlFlowGraph graph) {
 
-    Set<BasicBlock> setVisited = new HashSet<BasicBlock>();
+    Set<BasicBlock> setVisited = new LinkedHashSet<BasicBlock>();
 
     for (ExceptionRangeCFG range : graph.getExceptions()) {
       BasicBlock handler = range.getHandler();
@@ -231,7 +231,7 @@ public class ExceptionDeobfuscator {
       }
 
       public Set<? extends IGraphNode> getRoots() {
-        return new HashSet<IGraphNode>(Arrays.asList(new IGraphNode[]{graph.getFirst()}));
+        return new LinkedHashSet<IGraphNode>(Arrays.asList(new IGraphNode[]{graph.getFirst()}));
       }
     });
 
@@ -267,7 +267,7 @@ public class ExceptionDeobfuscator {
     List<BasicBlock> lstRes = new ArrayList<BasicBlock>();
 
     LinkedList<BasicBlock> stack = new LinkedList<BasicBlock>();
-    Set<BasicBlock> setVisited = new HashSet<BasicBlock>();
+    Set<BasicBlock> setVisited = new LinkedHashSet<BasicBlock>();
 
     BasicBlock handler = range.getHandler();
     stack.addFirst(handler);
@@ -297,20 +297,20 @@ public class ExceptionDeobfuscator {
 
   public static boolean hasObfuscatedExceptions(ControlFlowGraph graph) {
 
-    Map<BasicBlock, Set<BasicBlock>> mapRanges = new HashMap<BasicBlock, Set<BasicBlock>>();
+    Map<BasicBlock, Set<BasicBlock>> mapRanges = new LinkedHashMap<BasicBlock, Set<BasicBlock>>();
     for (ExceptionRangeCFG range : graph.getExceptions()) {
       Set<BasicBlock> set = mapRanges.get(range.getHandler());
       if (set == null) {
-        mapRanges.put(range.getHandler(), set = new HashSet<BasicBlock>());
+        mapRanges.put(range.getHandler(), set = new LinkedHashSet<BasicBlock>());
       }
       set.addAll(range.getProtectedRange());
     }
 
     for (Entry<BasicBlock, Set<BasicBlock>> ent : mapRanges.entrySet()) {
-      Set<BasicBlock> setEntries = new HashSet<BasicBlock>();
+      Set<BasicBlock> setEntries = new LinkedHashSet<BasicBlock>();
 
       for (BasicBlock block : ent.getValue()) {
-        Set<BasicBlock> setTemp = new HashSet<BasicBlock>(block.getPreds());
+        Set<BasicBlock> setTemp = new LinkedHashSet<BasicBlock>(block.getPreds());
         setTemp.removeAll(ent.getValue());
 
         if (!setTemp.isEmpty()) {
@@ -16,7 +16,8 @@
 package de.fernflower.modules.decompiler.deobfuscator;
 
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import de.fernflower.modules.decompiler.StatEdge;
@@ -31,8 +32,8 @@ public class IrreducibleCFGDeobfuscator {
 
     class Node {
       public Integer id;
-      public Set<Node> preds = new HashSet<Node>();
-      public Set<Node> succs = new HashSet<Node>();
+      public Set<Node> preds = new LinkedHashSet<Node>();
+      public Set<Node> succs = new LinkedHashSet<Node>();
 
       public Node(Integer id) {
         this.id = id;
@@ -43,7 +44,7 @@ public class IrreducibleCFGDeobfuscator {
 
     // checking exceptions and creating nodes
     for (Statement stat : statement.getStats()) {
-      if (!stat.getSuccessorEdges(StatEdge.TYPE_EXCEPTION).isEmpty()) {
+      if (!stat.getSuccessorEdgeView(StatEdge.TYPE_EXCEPTION).isEmpty()) {
         return false;
       }
 
@@ -142,10 +143,10 @@ public class IrreducibleCFGDeobfuscator {
       return false;
     }
 
-    StatEdge enteredge = splitnode.getPredecessorEdges(StatEdge.TYPE_REGULAR).iterator().next();
+    StatEdge enteredge = splitnode.getPredecessorEdgeView(StatEdge.TYPE_REGULAR).iterator().next();
 
     // copy the smallest statement
-    Statement splitcopy = copyStatement(splitnode, null, new HashMap<Statement, Statement>());
+    Statement splitcopy = copyStatement(splitnode, null, new LinkedHashMap<Statement, Statement>());
     initCopiedStatement(splitcopy);
 
     // insert the copy
@@ -15,7 +15,6 @@
  */
 package de.fernflower.modules.decompiler.exps;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -68,11 +67,9 @@ public class ArrayExprent extends Exprent {
     return result;
   }
 
-  public List<Exprent> getAllExprents() {
-    List<Exprent> lst = new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
     lst.add(array);
     lst.add(index);
-    return lst;
   }
 
   @Override
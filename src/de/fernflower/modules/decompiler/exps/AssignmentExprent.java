@@ -15,7 +15,6 @@
  */
 package de.fernflower.modules.decompiler.exps;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -86,11 +85,9 @@ public class AssignmentExprent extends Exprent {
   }
 
   @Override
-  public List<Exprent> getAllExprents() {
-    List<Exprent> lst = new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
     lst.add(left);
     lst.add(right);
-    return lst;
   }
 
   @Override
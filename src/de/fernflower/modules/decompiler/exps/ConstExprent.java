@@ -107,8 +107,7 @@ public class ConstExprent extends Exprent {
     return Exprent.MULTIPLE_USES | Exprent.SIDE_EFFECTS_FREE;
   }
 
-  public List<Exprent> getAllExprents() {
-    return new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
   }
 
   @Override
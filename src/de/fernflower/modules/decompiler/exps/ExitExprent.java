@@ -15,7 +15,6 @@
  */
 package de.fernflower.modules.decompiler.exps;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.Map.Entry;
@@ -71,12 +70,10 @@ public class ExitExprent extends Exprent {
   }
 
   @Override
-  public List<Exprent> getAllExprents() {
-    List<Exprent> lst = new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
     if (value != null) {
       lst.add(value);
     }
-    return lst;
   }
 
   @Override
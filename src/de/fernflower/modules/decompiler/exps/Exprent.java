@@ -25,6 +25,7 @@ import de.fernflower.main.DecompilerContext;
 import de.fernflower.main.TextBuffer;
 import de.fernflower.main.collectors.BytecodeMappingTracer;
 import de.fernflower.main.collectors.CounterContainer;
+import de.fernflower.modules.decompiler.TreeWalker;
 import de.fernflower.modules.decompiler.vars.CheckTypesResult;
 import de.fernflower.modules.decompiler.vars.VarVersionPair;
 import de.fernflower.struct.gen.VarType;
@@ -81,24 +82,34 @@ public class Exprent implements IMatchable {
     return new CheckTypesResult();
   }
 
-  public boolean containsExprent(Exprent exprent) {
-    List<Exprent> listTemp = new ArrayList<Exprent>(getAllExprents(true));
-    listTemp.add(this);
+  public boolean containsExprent(final Exprent exprent) {
+    final boolean[] found = new boolean[1];
 
-    for (Exprent lstExpr : listTemp) {
-      if (lstExpr.equals(exprent)) {
+    TreeWalker.walk(this, new TreeWalker.ExprentVisitor() {
+      @Override
+      public boolean enter(Exprent expr) {
+        if (expr.equals(exprent)) {
+          found[0] = true;
+          stop();
+        }
         return true;
       }
-    }
+    });
 
-    return false;
+    return found[0];
   }
 
   public List<Exprent> getAllExprents(boolean recursive) {
     List<Exprent> lst = getAllExprents();
     if (recursive) {
-      for (int i = lst.size() - 1; i >= 0; i--) {
-        lst.addAll(lst.get(i).getAllExprents(true));
+      // operands first, then the nested operands of each of them starting with the last one
+      List<Exprent> stack = new ArrayList<Exprent>(lst);
+      while (!stack.isEmpty()) {
+        int from = lst.size();
+        stack.remove(stack.size() - 1).addAllExprents(lst);
+        for (int i = from; i < lst.size(); i++) {
+          stack.add(lst.get(i));
+        }
       }
     }
     return lst;
@@ -118,6 +129,15 @@ public class Exprent implements IMatchable {
   }
 
   public List<Exprent> getAllExprents() {
+    List<Exprent> lst = new ArrayList<Exprent>();
+    addAllExprents(lst);
+    return lst;
+  }
+
+  /**
+   * Appends the direct operands of this exprent to the list.
+   */
+  public void addAllExprents(List<Exprent> lst) {
     throw new RuntimeException("not implemented");
   }
 
@@ -15,7 +15,6 @@
  */
 package de.fernflower.modules.decompiler.exps;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -71,12 +70,10 @@ public class FieldExprent extends Exprent {
   }
 
   @Override
-  public List<Exprent> getAllExprents() {
-    List<Exprent> lst = new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
     if (instance != null) {
       lst.add(instance);
     }
-    return lst;
   }
 
   @Override
@@ -415,10 +415,8 @@ public class FunctionExprent extends Exprent {
   }
 
   @Override
-  public List<Exprent> getAllExprents() {
-    List<Exprent> lst = new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
     lst.addAll(lstOperands);
-    return lst;
   }
 
   @Override
@@ -456,16 +454,8 @@ public class FunctionExprent extends Exprent {
   public TextBuffer toJava(int indent, BytecodeMappingTracer tracer) {
     tracer.addMapping(bytecode);
 
-    if (funcType <= FUNCTION_USHR) {
-      return wrapOperandString(lstOperands.get(0), false, indent, tracer)
-        .append(OPERATORS[funcType])
-        .append(wrapOperandString(lstOperands.get(1), true, indent, tracer));
-    }
-
-    if (funcType >= FUNCTION_EQ) {
-      return wrapOperandString(lstOperands.get(0), false, indent, tracer)
-        .append(OPERATORS[funcType - FUNCTION_EQ + 11])
-        .append(wrapOperandString(lstOperands.get(1), true, indent, tracer));
+    if (isBinaryOperation()) {
+      return binaryToJava(indent, tracer);
     }
 
     switch (funcType) {
@@ -551,6 +541,50 @@ public class FunctionExprent extends Exprent {
     return TYPES[funcType - FUNCTION_I2L];
   }
 
+  private boolean isBinaryOperation() {
+    return funcType <= FUNCTION_USHR || funcType >= FUNCTION_EQ;
+  }
+
+  private String getOperator() {
+    return funcType <= FUNCTION_USHR ? OPERATORS[funcType] : OPERATORS[funcType - FUNCTION_EQ + 11];
+  }
+
+  /**
+   * Prints left nested binary operations, like the chains built for string concatenation, in one loop
+   * instead of recursing into every left operand.
+   */
+  private TextBuffer binaryToJava(int indent, BytecodeMappingTracer tracer) {
+    List<FunctionExprent> chain = null;
+
+    FunctionExprent func = this;
+    while (true) {
+      Exprent left = func.lstOperands.get(0);
+      if (left.type != EXPRENT_FUNCTION || left.getPrecedence() > func.getPrecedence() ||
+          !((FunctionExprent)left).isBinaryOperation()) {
+        break;
+      }
+
+      if (chain == null) {
+        chain = new ArrayList<FunctionExprent>();
+        chain.add(this);
+      }
+      func = (FunctionExprent)left;
+      tracer.addMapping(func.bytecode);
+      chain.add(func);
+    }
+
+    TextBuffer buf = func.wrapOperandString(func.lstOperands.get(0), false, indent, tracer);
+    if (chain == null) {
+      return buf.append(getOperator()).append(wrapOperandString(lstOperands.get(1), true, indent, tracer));
+    }
+
+    for (int i = chain.size() - 1; i >= 0; i--) {
+      FunctionExprent operation = chain.get(i);
+      buf.append(operation.getOperator()).append(operation.wrapOperandString(operation.lstOperands.get(1), true, indent, tracer));
+    }
+    return buf;
+  }
+
   private TextBuffer wrapOperandString(Exprent expr, boolean eq, int indent, BytecodeMappingTracer tracer) {
     int myprec = getPrecedence();
     int exprprec = expr.getPrecedence();
@@ -179,13 +179,11 @@ public class InvocationExprent extends Exprent {
   }
 
   @Override
-  public List<Exprent> getAllExprents() {
-    List<Exprent> lst = new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
     if (instance != null) {
       lst.add(instance);
     }
     lst.addAll(lstParameters);
-    return lst;
   }
 
 
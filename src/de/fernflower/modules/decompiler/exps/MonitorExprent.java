@@ -15,7 +15,6 @@
  */
 package de.fernflower.modules.decompiler.exps;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -45,10 +44,8 @@ public class MonitorExprent extends Exprent {
   }
 
   @Override
-  public List<Exprent> getAllExprents() {
-    List<Exprent> lst = new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
     lst.add(value);
-    return lst;
   }
 
   @Override
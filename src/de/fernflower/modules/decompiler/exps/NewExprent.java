@@ -116,8 +116,7 @@ public class NewExprent extends Exprent {
   }
 
   @Override
-  public List<Exprent> getAllExprents() {
-    List<Exprent> lst = new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
     if (newType.arrayDim == 0) {
       if (constructor != null) {
         Exprent constructor_instance = constructor.getInstance();
@@ -133,8 +132,6 @@ public class NewExprent extends Exprent {
       lst.addAll(lstDims);
       lst.addAll(lstArrayElements);
     }
-
-    return lst;
   }
 
   @Override
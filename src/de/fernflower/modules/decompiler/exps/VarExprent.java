@@ -15,7 +15,6 @@
  */
 package de.fernflower.modules.decompiler.exps;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import de.fernflower.code.CodeConstants;
@@ -66,8 +65,7 @@ public class VarExprent extends Exprent {
   }
 
   @Override
-  public List<Exprent> getAllExprents() {
-    return new ArrayList<Exprent>();
+  public void addAllExprents(List<Exprent> lst) {
   }
 
   @Override
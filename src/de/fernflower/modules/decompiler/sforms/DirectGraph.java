@@ -15,10 +15,13 @@
  */
 package de.fernflower.modules.decompiler.sforms;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map.Entry;
 
 import de.fernflower.modules.decompiler.exps.Exprent;
 import de.fernflower.modules.decompiler.sforms.FlattenStatementsHelper.FinallyPathWrapper;
@@ -43,22 +46,116 @@ public class DirectGraph {
   // nodes, that are exception exits of a finally block with monitor variable
   public HashMap<String, String> mapFinallyMonitorExceptionPathExits = new HashMap<String, String>();
 
+  // the maps above resolved by node index, filled in sortReversePostOrder()
+  private List<FinallyPathWrapper>[] shortRangeFinallyPaths;
+  private List<FinallyPathWrapper>[] longRangeFinallyPaths;
+  private DirectNode[] negIfBranches;
+  private DirectNode[] finallyMonitorExceptionPathExits;
+
+  // successors of finally exits
+  private BitSet finallyExitSuccessors;
+
+  private int nodeCount;
+
   public void sortReversePostOrder() {
     LinkedList<DirectNode> res = new LinkedList<DirectNode>();
     addToReversePostOrderListIterative(first, res);
 
-    nodes.clear();
+    for (DirectNode node : nodes) {
+      node.index = -1;
+    }
+
+    int index = 0;
+    for (DirectNode node : res) {
+      node.index = index++;
+    }
+
+    // unreachable nodes are dropped from the list, but can still be predecessors or finally path sources
+    VBStyleCollection<DirectNode, String> allNodes = nodes;
+    for (DirectNode node : allNodes) {
+      if (node.index < 0) {
+        node.index = index++;
+      }
+    }
+    nodeCount = index;
+
+    indexNodeMaps(allNodes, res.size());
+
+    nodes = new VBStyleCollection<DirectNode, String>();
     for (DirectNode node : res) {
       nodes.addWithKey(node, node.id);
     }
   }
 
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void indexNodeMaps(VBStyleCollection<DirectNode, String> allNodes, int reachableCount) {
+    shortRangeFinallyPaths = new List[nodeCount];
+    finallyExitSuccessors = new BitSet(nodeCount);
+    for (Entry<String, List<FinallyPathWrapper>> ent : mapShortRangeFinallyPaths.entrySet()) {
+      DirectNode exit = allNodes.getWithKey(ent.getKey());
+      shortRangeFinallyPaths[exit.index] = ent.getValue();
+      for (DirectNode succ : exit.succs) {
+        // only reachable nodes are visited, the others are not in the node list
+        if (succ.index < reachableCount) {
+          finallyExitSuccessors.set(succ.index);
+        }
+      }
+    }
+
+    longRangeFinallyPaths = new List[nodeCount];
+    for (Entry<String, List<FinallyPathWrapper>> ent : mapLongRangeFinallyPaths.entrySet()) {
+      longRangeFinallyPaths[allNodes.getWithKey(ent.getKey()).index] = ent.getValue();
+    }
+
+    negIfBranches = new DirectNode[nodeCount];
+    for (Entry<String, String> ent : mapNegIfBranch.entrySet()) {
+      negIfBranches[allNodes.getWithKey(ent.getKey()).index] = allNodes.getWithKey(ent.getValue());
+    }
+
+    finallyMonitorExceptionPathExits = new DirectNode[nodeCount];
+    for (Entry<String, String> ent : mapFinallyMonitorExceptionPathExits.entrySet()) {
+      finallyMonitorExceptionPathExits[allNodes.getWithKey(ent.getKey()).index] = allNodes.getWithKey(ent.getValue());
+    }
+  }
+
+  /**
+   * Number of indexed nodes, including the ones not reachable from the first node. Node indices lie in
+   * [0, getNodeCount()) and follow the reverse post-order of the reachable nodes.
+   */
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  public List<FinallyPathWrapper> getShortRangeFinallyPaths(DirectNode node) {
+    return shortRangeFinallyPaths[node.index];
+  }
+
+  public List<FinallyPathWrapper> getLongRangeFinallyPaths(DirectNode node) {
+    return longRangeFinallyPaths[node.index];
+  }
+
+  public DirectNode getNegIfBranch(DirectNode node) {
+    return negIfBranches[node.index];
+  }
+
+  public DirectNode getFinallyMonitorExceptionPathExit(DirectNode node) {
+    return finallyMonitorExceptionPathExits[node.index];
+  }
+
+  /**
+   * Indices of the reachable nodes entered from a finally exit. What flows into them depends on the nodes along the
+   * finally paths and on their own previous state, not only on their direct predecessors.
+   */
+  public BitSet getFinallyExitSuccessors() {
+    return finallyExitSuccessors;
+  }
+
   private static void addToReversePostOrderListIterative(DirectNode root, List<DirectNode> lst) {
 
     LinkedList<DirectNode> stackNode = new LinkedList<DirectNode>();
     LinkedList<Integer> stackIndex = new LinkedList<Integer>();
 
-    HashSet<DirectNode> setVisited = new HashSet<DirectNode>();
+    HashSet<DirectNode> setVisited = new LinkedHashSet<DirectNode>();
 
     stackNode.add(root);
     stackIndex.add(0);
@@ -97,7 +194,7 @@ public class DirectGraph {
     LinkedList<DirectNode> stack = new LinkedList<DirectNode>();
     stack.add(first);
 
-    HashSet<DirectNode> setVisited = new HashSet<DirectNode>();
+    HashSet<DirectNode> setVisited = new LinkedHashSet<DirectNode>();
 
     while (!stack.isEmpty()) {
 
@@ -36,6 +36,9 @@ public class DirectNode {
 
   public String id;
 
+  // position in the reverse post-order of the graph, assigned by DirectGraph.sortReversePostOrder()
+  public int index = -1;
+
   public BasicBlockStatement block;
 
   public Statement statement;
@@ -56,7 +59,7 @@ public class DirectNode {
     this.type = type;
     this.statement = statement;
 
-    this.id = block.id.toString();
+    this.id = String.valueOf(block.id);
     this.block = block;
   }
 
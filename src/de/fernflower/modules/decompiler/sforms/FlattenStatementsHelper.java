@@ -54,7 +54,7 @@ public class FlattenStatementsHelper {
 
     // dummy exit node
     Statement dummyexit = root.getDummyExit();
-    DirectNode node = new DirectNode(DirectNode.NODE_DIRECT, dummyexit, dummyexit.id.toString());
+    DirectNode node = new DirectNode(DirectNode.NODE_DIRECT, dummyexit, String.valueOf(dummyexit.id));
     node.exprents = new ArrayList<Exprent>();
     graph.nodes.addWithKey(node, node.id);
     mapDestinationNodes.put(dummyexit.id, new String[]{node.id, null});
@@ -184,7 +184,7 @@ public class FlattenStatementsHelper {
               break;
             }
 
-            lstSuccEdges.add(stat.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0));  // exactly one edge
+            lstSuccEdges.add(stat.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0));  // exactly one edge
 
             switch (looptype) {
               case DoStatement.LOOP_WHILE:
@@ -288,7 +288,7 @@ public class FlattenStatementsHelper {
               mapDestinationNodes.put(stat.id, new String[]{node.id, null});
 
               if (stat.type == Statement.TYPE_IF && ((IfStatement)stat).iftype == IfStatement.IFTYPE_IF) {
-                lstSuccEdges.add(stat.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0));  // exactly one edge
+                lstSuccEdges.add(stat.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0));  // exactly one edge
                 sourcenode = tailexprlst.get(0) == null ? node : graph.nodes.getWithKey(node.id + "_tail");
               }
             }
@@ -419,14 +419,14 @@ public class FlattenStatementsHelper {
       if (lst == null) {
         mapShortRangeFinallyPathIds.put(sourcenode.id, lst = new ArrayList<String[]>());
       }
-      lst.add(new String[]{finallyShortRangeSource.id, destination.id.toString(), finallyShortRangeEntry.id.toString(),
+      lst.add(new String[]{finallyShortRangeSource.id, String.valueOf(destination.id), String.valueOf(finallyShortRangeEntry.id),
         isFinallyMonitorExceptionPath ? "1" : null, isContinueEdge ? "1" : null});
 
       lst = mapLongRangeFinallyPathIds.get(sourcenode.id);
       if (lst == null) {
         mapLongRangeFinallyPathIds.put(sourcenode.id, lst = new ArrayList<String[]>());
       }
-      lst.add(new String[]{finallyLongRangeSource.id, destination.id.toString(), finallyLongRangeEntry.id.toString(),
+      lst.add(new String[]{finallyLongRangeSource.id, String.valueOf(destination.id), String.valueOf(finallyLongRangeEntry.id),
         isContinueEdge ? "1" : null});
     }
   }
@@ -468,7 +468,7 @@ public class FlattenStatementsHelper {
           DirectNode dest = graph.nodes.getWithKey(mapDestinationNodes.get(Integer.parseInt(arr[1]))[isContinueEdge ? 1 : 0]);
           DirectNode enter = graph.nodes.getWithKey(mapDestinationNodes.get(Integer.parseInt(arr[2]))[0]);
 
-          newLst.add(new FinallyPathWrapper(arr[0], dest.id, enter.id));
+          newLst.add(new FinallyPathWrapper(graph.nodes.getWithKey(arr[0]), dest, enter));
 
           if (i == 0 && arr[3] != null) {
             graph.mapFinallyMonitorExceptionPathExits.put(ent.getKey(), dest.id);
@@ -493,10 +493,18 @@ public class FlattenStatementsHelper {
     public String destination;
     public String entry;
 
-    private FinallyPathWrapper(String source, String destination, String entry) {
-      this.source = source;
-      this.destination = destination;
-      this.entry = entry;
+    public DirectNode sourceNode;
+    public DirectNode destinationNode;
+    public DirectNode entryNode;
+
+    private FinallyPathWrapper(DirectNode source, DirectNode destination, DirectNode entry) {
+      this.source = source.id;
+      this.destination = destination.id;
+      this.entry = entry.id;
+
+      this.sourceNode = source;
+      this.destinationNode = destination;
+      this.entryNode = entry;
     }
 
     @Override
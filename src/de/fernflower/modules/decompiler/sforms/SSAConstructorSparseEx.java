@@ -16,12 +16,14 @@
 package de.fernflower.modules.decompiler.sforms;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 
 import de.fernflower.code.CodeConstants;
+import de.fernflower.modules.decompiler.TreeWalker;
 import de.fernflower.modules.decompiler.exps.AssignmentExprent;
 import de.fernflower.modules.decompiler.exps.Exprent;
 import de.fernflower.modules.decompiler.exps.FunctionExprent;
@@ -34,72 +36,84 @@ import de.fernflower.modules.decompiler.stats.Statement;
 import de.fernflower.modules.decompiler.vars.VarVersionPair;
 import de.fernflower.struct.StructMethod;
 import de.fernflower.struct.gen.MethodDescriptor;
-import de.fernflower.util.FastSparseSetFactory;
+import de.fernflower.util.IntSparseSetFactory;
 import de.fernflower.util.InterpreterUtil;
+import de.fernflower.util.LongIntHashMap;
 import de.fernflower.util.SFormsFastMapDirect;
-import de.fernflower.util.FastSparseSetFactory.FastSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSet;
 
 public class SSAConstructorSparseEx {
 
-  // node id, var, version
-  private HashMap<String, SFormsFastMapDirect> inVarVersions = new HashMap<String, SFormsFastMapDirect>();
+  // node index, var, version
+  private SFormsFastMapDirect[] inVarVersions;
 
-  // node id, var, version (direct branch)
-  private HashMap<String, SFormsFastMapDirect> outVarVersions = new HashMap<String, SFormsFastMapDirect>();
+  // node index, var, version (direct branch)
+  private SFormsFastMapDirect[] outVarVersions;
 
-  // node id, var, version (negative branch)
-  private HashMap<String, SFormsFastMapDirect> outNegVarVersions = new HashMap<String, SFormsFastMapDirect>();
+  // node index, var, version (negative branch)
+  private SFormsFastMapDirect[] outNegVarVersions;
 
-  // node id, var, version
-  private HashMap<String, SFormsFastMapDirect> extraVarVersions = new HashMap<String, SFormsFastMapDirect>();
+  // node index, var, version
+  private SFormsFastMapDirect[] extraVarVersions;
 
   // (var, version), version
-  private HashMap<VarVersionPair, FastSparseSet<Integer>> phi = new HashMap<VarVersionPair, FastSparseSet<Integer>>();
+  private HashMap<VarVersionPair, IntSparseSet> phi = new HashMap<VarVersionPair, IntSparseSet>();
 
   // var, version
-  private HashMap<Integer, Integer> lastversion = new HashMap<Integer, Integer>();
+  private LongIntHashMap lastversion = new LongIntHashMap();
 
   private List<VarVersionPair> startVars = new ArrayList<VarVersionPair>();
 
   // set factory
-  private FastSparseSetFactory<Integer> factory;
+  private IntSparseSetFactory factory;
+
+  // flattened statements the versions were computed on
+  private DirectGraph directGraph;
 
   public void splitVariables(RootStatement root, StructMethod mt) {
 
     FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
     DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+    directGraph = dgraph;
 
     // try {
     // DotExporter.toDotFile(dgraph, new File("c:\\Temp\\gr12_my.dot"));
     // } catch(Exception ex) {ex.printStackTrace();}
 
-    HashSet<Integer> setInit = new HashSet<Integer>();
-    for (int i = 0; i < 64; i++) {
-      setInit.add(i);
-    }
-    factory = new FastSparseSetFactory<Integer>(setInit);
+    factory = new IntSparseSetFactory(64);
+
+    int nodeCount = dgraph.getNodeCount();
+    inVarVersions = new SFormsFastMapDirect[nodeCount];
+    outVarVersions = new SFormsFastMapDirect[nodeCount];
+    outNegVarVersions = new SFormsFastMapDirect[nodeCount];
+    extraVarVersions = new SFormsFastMapDirect[nodeCount];
 
     SFormsFastMapDirect firstmap = createFirstMap(mt);
-    extraVarVersions.put(dgraph.first.id, firstmap);
+    extraVarVersions[dgraph.first.index] = firstmap;
 
     setCatchMaps(root, dgraph, flatthelper);
 
-    HashSet<String> updated = new HashSet<String>();
+    // the first sweep visits every node, later ones only the nodes whose input may have changed
+    BitSet updated = new BitSet(nodeCount);
+    updated.set(0, dgraph.nodes.size());
+    BitSet revisited = dgraph.getFinallyExitSuccessors();
     do {
       // System.out.println("~~~~~~~~~~~~~ \r\n"+root.toJava());
-      ssaStatements(dgraph, updated);
+      ssaStatements(dgraph, updated, revisited);
       // System.out.println("~~~~~~~~~~~~~ \r\n"+root.toJava());
     }
     while (!updated.isEmpty());
   }
 
-  private void ssaStatements(DirectGraph dgraph, HashSet<String> updated) {
+  private void ssaStatements(DirectGraph dgraph, BitSet updated, BitSet revisited) {
 
     // try {
     // DotExporter.toDotFile(dgraph, new File("c:\\Temp\\gr1_my.dot"));
     // } catch(Exception ex) {ex.printStackTrace();}
 
-    for (DirectNode node : dgraph.nodes) {
+    for (int i = nextNode(updated, revisited, 0); i >= 0; i = nextNode(updated, revisited, i + 1)) {
+
+      DirectNode node = dgraph.nodes.get(i);
 
       //			if (node.id.endsWith("_inc")) {
       //				System.out.println();
@@ -111,10 +125,10 @@ public class SSAConstructorSparseEx {
       //				}
       //			}
 
-      updated.remove(node.id);
+      updated.clear(node.index);
       mergeInVarMaps(node, dgraph);
 
-      SFormsFastMapDirect varmap = inVarVersions.get(node.id);
+      SFormsFastMapDirect varmap = inVarVersions[node.index];
       varmap = new SFormsFastMapDirect(varmap);
 
       SFormsFastMapDirect[] varmaparr = new SFormsFastMapDirect[]{varmap, null};
@@ -129,28 +143,56 @@ public class SSAConstructorSparseEx {
         varmaparr[1] = varmaparr[0];
       }
 
-      boolean this_updated = !mapsEqual(varmaparr[0], outVarVersions.get(node.id))
-                             || (outNegVarVersions.containsKey(node.id) && !mapsEqual(varmaparr[1], outNegVarVersions.get(node.id)));
+      boolean this_updated = !mapsEqual(varmaparr[0], outVarVersions[node.index])
+                             || (outNegVarVersions[node.index] != null && !mapsEqual(varmaparr[1], outNegVarVersions[node.index]));
 
       if (this_updated) {
-        outVarVersions.put(node.id, varmaparr[0]);
-        if (dgraph.mapNegIfBranch.containsKey(node.id)) {
-          outNegVarVersions.put(node.id, varmaparr[1]);
+        outVarVersions[node.index] = varmaparr[0];
+        if (dgraph.getNegIfBranch(node) != null) {
+          outNegVarVersions[node.index] = varmaparr[1];
         }
 
         for (DirectNode nd : node.succs) {
-          updated.add(nd.id);
+          updated.set(nd.index);
         }
       }
     }
   }
 
+  private static int nextNode(BitSet updated, BitSet revisited, int fromIndex) {
+    int next = updated.nextSetBit(fromIndex);
+    int nextRevisited = revisited.nextSetBit(fromIndex);
+    return next < 0 || (nextRevisited >= 0 && nextRevisited < next) ? nextRevisited : next;
+  }
+
   private void processExprent(Exprent expr, SFormsFastMapDirect[] varmaparr) {
 
     if (expr == null) {
       return;
     }
 
+    // operands are processed on an explicit stack, long operator chains would overflow the thread stack
+    List<ExprentFrame> stack = new ArrayList<ExprentFrame>();
+    stack.add(enterExprent(expr, varmaparr));
+
+    while (!stack.isEmpty()) {
+      ExprentFrame frame = stack.get(stack.size() - 1);
+
+      if (frame.next < frame.operands.size()) {
+        Exprent operand = frame.operands.get(frame.next++);
+        if (operand != null) {
+          stack.add(enterExprent(operand, varmaparr));
+        }
+      }
+      else {
+        stack.remove(stack.size() - 1);
+        leaveExprent(frame.exprent, frame.varassign, varmaparr[0]);
+      }
+    }
+  }
+
+  private ExprentFrame enterExprent(Exprent expr, SFormsFastMapDirect[] varmaparr) {
+
     VarExprent varassign = null;
     boolean finished = false;
 
@@ -221,17 +263,16 @@ public class SSAConstructorSparseEx {
     }
 
     if (finished) {
-      return;
+      return new ExprentFrame(expr, null, Collections.<Exprent>emptyList());
     }
 
     List<Exprent> lst = expr.getAllExprents();
     lst.remove(varassign);
 
-    for (Exprent ex : lst) {
-      processExprent(ex, varmaparr);
-    }
+    return new ExprentFrame(expr, varassign, lst);
+  }
 
-    SFormsFastMapDirect varmap = varmaparr[0];
+  private void leaveExprent(Exprent expr, VarExprent varassign, SFormsFastMapDirect varmap) {
 
     if (varassign != null) {
 
@@ -254,13 +295,12 @@ public class SSAConstructorSparseEx {
 
       VarExprent vardest = (VarExprent)expr;
       Integer varindex = vardest.getIndex();
-      FastSparseSet<Integer> vers = varmap.get(varindex);
+      IntSparseSet vers = varmap.get(varindex);
 
       int cardinality = vers.getCardinality();
       if (cardinality == 1) { // == 1
         // set version
-        Integer it = vers.iterator().next();
-        vardest.setVersion(it.intValue());
+        vardest.setVersion(vers.iterator().next());
       }
       else if (cardinality == 2) { // size > 1
         Integer current_vers = vardest.getVersion();
@@ -278,21 +318,15 @@ public class SSAConstructorSparseEx {
           vardest.setVersion(nextver);
 
           setCurrentVar(varmap, varindex, nextver);
-          // create new phi node
-          phi.put(new VarVersionPair(varindex, nextver), vers);
+          // create new phi node, the phi set is changed in place later on
+          phi.put(new VarVersionPair(varindex, nextver), vers.isShared() ? vers.getCopy() : vers);
         }
       } // 0 means uninitialized variable, which is impossible
     }
   }
 
-  private Integer getNextFreeVersion(Integer var) {
-    Integer nextver = lastversion.get(var);
-    if (nextver == null) {
-      nextver = new Integer(1);
-    }
-    else {
-      nextver = new Integer(nextver.intValue() + 1);
-    }
+  private int getNextFreeVersion(int var) {
+    int nextver = lastversion.get(var, 0) + 1;
     lastversion.put(var, nextver);
     return nextver;
   }
@@ -302,7 +336,7 @@ public class SSAConstructorSparseEx {
     SFormsFastMapDirect mapNew = new SFormsFastMapDirect();
 
     for (DirectNode pred : node.preds) {
-      SFormsFastMapDirect mapOut = getFilteredOutMap(node.id, pred.id, dgraph, node.id);
+      SFormsFastMapDirect mapOut = getFilteredOutMap(node, pred, dgraph, node);
       if (mapNew.isEmpty()) {
         mapNew = mapOut.getCopy();
       }
@@ -311,8 +345,8 @@ public class SSAConstructorSparseEx {
       }
     }
 
-    if (extraVarVersions.containsKey(node.id)) {
-      SFormsFastMapDirect mapExtra = extraVarVersions.get(node.id);
+    SFormsFastMapDirect mapExtra = extraVarVersions[node.index];
+    if (mapExtra != null) {
       if (mapNew.isEmpty()) {
         mapNew = mapExtra.getCopy();
       }
@@ -321,23 +355,24 @@ public class SSAConstructorSparseEx {
       }
     }
 
-    inVarVersions.put(node.id, mapNew);
+    inVarVersions[node.index] = mapNew;
   }
 
-  private SFormsFastMapDirect getFilteredOutMap(String nodeid, String predid, DirectGraph dgraph, String destid) {
+  private SFormsFastMapDirect getFilteredOutMap(DirectNode node, DirectNode pred, DirectGraph dgraph, DirectNode dest) {
 
     SFormsFastMapDirect mapNew = new SFormsFastMapDirect();
 
-    if (nodeid.equals(dgraph.mapNegIfBranch.get(predid))) {
-      if (outNegVarVersions.containsKey(predid)) {
-        mapNew = outNegVarVersions.get(predid).getCopy();
+    if (node == dgraph.getNegIfBranch(pred)) {
+      if (outNegVarVersions[pred.index] != null) {
+        mapNew = outNegVarVersions[pred.index].getCopy();
       }
     }
-    else if (outVarVersions.containsKey(predid)) {
-      mapNew = outVarVersions.get(predid).getCopy();
+    else if (outVarVersions[pred.index] != null) {
+      mapNew = outVarVersions[pred.index].getCopy();
     }
 
-    boolean isFinallyExit = dgraph.mapShortRangeFinallyPaths.containsKey(predid);
+    List<FinallyPathWrapper> lstShortRangePaths = dgraph.getShortRangeFinallyPaths(pred);
+    boolean isFinallyExit = (lstShortRangePaths != null);
 
     if (isFinallyExit && !mapNew.isEmpty()) {
 
@@ -345,29 +380,27 @@ public class SSAConstructorSparseEx {
 
       SFormsFastMapDirect mapTrueSource = new SFormsFastMapDirect();
 
-      String exceptionDest = dgraph.mapFinallyMonitorExceptionPathExits.get(predid);
-      boolean isExceptionMonitorExit = (exceptionDest != null && !nodeid.equals(exceptionDest));
+      DirectNode exceptionDest = dgraph.getFinallyMonitorExceptionPathExit(pred);
+      boolean isExceptionMonitorExit = (exceptionDest != null && node != exceptionDest);
 
-      HashSet<String> setLongPathWrapper = new HashSet<String>();
-      for (FinallyPathWrapper finwraplong : dgraph.mapLongRangeFinallyPaths.get(predid)) {
-        setLongPathWrapper.add(finwraplong.destination + "##" + finwraplong.source);
-      }
+      List<FinallyPathWrapper> lstLongRangePaths = dgraph.getLongRangeFinallyPaths(pred);
 
-      for (FinallyPathWrapper finwrap : dgraph.mapShortRangeFinallyPaths.get(predid)) {
+      for (FinallyPathWrapper finwrap : lstShortRangePaths) {
         SFormsFastMapDirect map;
 
-        boolean recFinally = dgraph.mapShortRangeFinallyPaths.containsKey(finwrap.source);
+        DirectNode source = finwrap.sourceNode;
+        boolean recFinally = (dgraph.getShortRangeFinallyPaths(source) != null);
 
         if (recFinally) {
           // recursion
-          map = getFilteredOutMap(finwrap.entry, finwrap.source, dgraph, destid);
+          map = getFilteredOutMap(finwrap.entryNode, source, dgraph, dest);
         }
         else {
-          if (finwrap.entry.equals(dgraph.mapNegIfBranch.get(finwrap.source))) {
-            map = outNegVarVersions.get(finwrap.source);
+          if (finwrap.entryNode == dgraph.getNegIfBranch(source)) {
+            map = outNegVarVersions[source.index];
           }
           else {
-            map = outVarVersions.get(finwrap.source);
+            map = outVarVersions[source.index];
           }
         }
 
@@ -375,10 +408,10 @@ public class SSAConstructorSparseEx {
         boolean isFalsePath = true;
 
         if (recFinally) {
-          isFalsePath = !finwrap.destination.equals(nodeid);
+          isFalsePath = (finwrap.destinationNode != node);
         }
         else {
-          isFalsePath = !setLongPathWrapper.contains(destid + "##" + finwrap.source);
+          isFalsePath = !containsPath(lstLongRangePaths, source, dest);
         }
 
         if (isFalsePath) {
@@ -404,7 +437,7 @@ public class SSAConstructorSparseEx {
 
         mapNewTemp.union(mapTrueSource);
 
-        SFormsFastMapDirect oldInMap = inVarVersions.get(nodeid);
+        SFormsFastMapDirect oldInMap = inVarVersions[node.index];
         if (oldInMap != null) {
           mapNewTemp.union(oldInMap);
         }
@@ -416,6 +449,15 @@ public class SSAConstructorSparseEx {
     return mapNew;
   }
 
+  private static boolean containsPath(List<FinallyPathWrapper> lstPaths, DirectNode source, DirectNode destination) {
+    for (FinallyPathWrapper finwrap : lstPaths) {
+      if (finwrap.sourceNode == source && finwrap.destinationNode == destination) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private static SFormsFastMapDirect mergeMaps(SFormsFastMapDirect mapTo, SFormsFastMapDirect map2) {
 
     if (map2 != null && !map2.isEmpty()) {
@@ -438,7 +480,7 @@ public class SSAConstructorSparseEx {
       return false;
     }
 
-    for (Entry<Integer, FastSparseSet<Integer>> ent2 : map2.entryList()) {
+    for (Entry<Integer, IntSparseSet> ent2 : map2.entryList()) {
       if (!InterpreterUtil.equalObjects(map1.get(ent2.getKey()), ent2.getValue())) {
         return false;
       }
@@ -448,12 +490,22 @@ public class SSAConstructorSparseEx {
   }
 
   private void setCurrentVar(SFormsFastMapDirect varmap, Integer var, Integer vers) {
-    FastSparseSet<Integer> set = factory.spawnEmptySet();
+    IntSparseSet set = factory.spawnEmptySet();
     set.add(vers);
     varmap.put(var, set);
   }
 
-  private void setCatchMaps(Statement stat, DirectGraph dgraph, FlattenStatementsHelper flatthelper) {
+  private void setCatchMaps(Statement root, final DirectGraph dgraph, final FlattenStatementsHelper flatthelper) {
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
+        setCatchMap(stat, dgraph, flatthelper);
+        return true;
+      }
+    });
+  }
+
+  private void setCatchMap(Statement stat, DirectGraph dgraph, FlattenStatementsHelper flatthelper) {
 
     SFormsFastMapDirect map;
 
@@ -476,14 +528,10 @@ public class SSAConstructorSparseEx {
           map = new SFormsFastMapDirect();
           setCurrentVar(map, varindex, version);
 
-          extraVarVersions.put(dgraph.nodes.getWithKey(flatthelper.getMapDestinationNodes().get(stat.getStats().get(i).id)[0]).id, map);
+          extraVarVersions[dgraph.nodes.getWithKey(flatthelper.getMapDestinationNodes().get(stat.getStats().get(i).id)[0]).index] = map;
           startVars.add(new VarVersionPair(varindex, version));
         }
     }
-
-    for (Statement st : stat.getStats()) {
-      setCatchMaps(st, dgraph, flatthelper);
-    }
   }
 
   private SFormsFastMapDirect createFirstMap(StructMethod mt) {
@@ -498,7 +546,7 @@ public class SSAConstructorSparseEx {
     for (int i = 0; i < paramcount; i++) {
       int version = getNextFreeVersion(varindex); // == 1
 
-      FastSparseSet<Integer> set = factory.spawnEmptySet();
+      IntSparseSet set = factory.spawnEmptySet();
       set.add(version);
       map.put(varindex, set);
       startVars.add(new VarVersionPair(varindex, version));
@@ -519,11 +567,32 @@ public class SSAConstructorSparseEx {
     return map;
   }
 
-  public HashMap<VarVersionPair, FastSparseSet<Integer>> getPhi() {
+  /**
+   * Returns the graph built by {@link #splitVariables}. Its nodes share the exprent lists of the statements, so it
+   * stays valid as long as only exprents are replaced or removed.
+   */
+  public DirectGraph getDirectGraph() {
+    return directGraph;
+  }
+
+  public HashMap<VarVersionPair, IntSparseSet> getPhi() {
     return phi;
   }
 
   public List<VarVersionPair> getStartVars() {
     return startVars;
   }
+
+  private static class ExprentFrame {
+    private final Exprent exprent;
+    private final VarExprent varassign;
+    private final List<Exprent> operands;
+    private int next;
+
+    private ExprentFrame(Exprent exprent, VarExprent varassign, List<Exprent> operands) {
+      this.exprent = exprent;
+      this.varassign = varassign;
+      this.operands = operands;
+    }
+  }
 }
@@ -16,12 +16,15 @@
 package de.fernflower.modules.decompiler.sforms;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 
 import de.fernflower.code.CodeConstants;
+import de.fernflower.modules.decompiler.TreeWalker;
 import de.fernflower.modules.decompiler.exps.*;
 import de.fernflower.modules.decompiler.sforms.FlattenStatementsHelper.FinallyPathWrapper;
 import de.fernflower.modules.decompiler.stats.*;
@@ -31,45 +34,43 @@ import de.fernflower.modules.decompiler.vars.VarVersionPair;
 import de.fernflower.modules.decompiler.vars.VarVersionsGraph;
 import de.fernflower.struct.StructMethod;
 import de.fernflower.struct.gen.MethodDescriptor;
-import de.fernflower.util.FastSparseSetFactory;
+import de.fernflower.util.IntSparseSetFactory;
 import de.fernflower.util.InterpreterUtil;
+import de.fernflower.util.LongIntHashMap;
+import de.fernflower.util.LongObjectHashMap;
 import de.fernflower.util.SFormsFastMapDirect;
 import de.fernflower.util.VBStyleCollection;
-import de.fernflower.util.FastSparseSetFactory.FastSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSetIterator;
 
 public class SSAUConstructorSparseEx {
 
-  // node id, var, version
-  private HashMap<String, SFormsFastMapDirect> inVarVersions = new HashMap<String, SFormsFastMapDirect>();
-  //private HashMap<String, HashMap<Integer, FastSet<Integer>>> inVarVersions = new HashMap<String, HashMap<Integer, FastSet<Integer>>>();
+  // node index, var, version
+  private SFormsFastMapDirect[] inVarVersions;
 
-  // node id, var, version (direct branch)
-  private HashMap<String, SFormsFastMapDirect> outVarVersions = new HashMap<String, SFormsFastMapDirect>();
-  //private HashMap<String, HashMap<Integer, FastSet<Integer>>> outVarVersions = new HashMap<String, HashMap<Integer, FastSet<Integer>>>();
+  // node index, var, version (direct branch)
+  private SFormsFastMapDirect[] outVarVersions;
 
-  // node id, var, version (negative branch)
-  private HashMap<String, SFormsFastMapDirect> outNegVarVersions = new HashMap<String, SFormsFastMapDirect>();
-  //private HashMap<String, HashMap<Integer, FastSet<Integer>>> outNegVarVersions = new HashMap<String, HashMap<Integer, FastSet<Integer>>>();
+  // node index, var, version (negative branch)
+  private SFormsFastMapDirect[] outNegVarVersions;
 
-  // node id, var, version
-  private HashMap<String, SFormsFastMapDirect> extraVarVersions = new HashMap<String, SFormsFastMapDirect>();
-  //private HashMap<String, HashMap<Integer, FastSet<Integer>>> extraVarVersions = new HashMap<String, HashMap<Integer, FastSet<Integer>>>();
+  // node index, var, version
+  private SFormsFastMapDirect[] extraVarVersions;
 
   // (var, version), version
-  private HashMap<VarVersionPair, HashSet<Integer>> phi = new HashMap<VarVersionPair, HashSet<Integer>>();
+  private LongObjectHashMap<HashSet<Integer>> phi = new LongObjectHashMap<HashSet<Integer>>();
 
   // var, version
-  private HashMap<Integer, Integer> lastversion = new HashMap<Integer, Integer>();
+  private LongIntHashMap lastversion = new LongIntHashMap();
 
-  // version, protected ranges (catch, finally)
-  private HashMap<VarVersionPair, Integer> mapVersionFirstRange = new HashMap<VarVersionPair, Integer>();
+  // (var, version), protected ranges (catch, finally)
+  private LongIntHashMap mapVersionFirstRange = new LongIntHashMap();
 
   // version, version
   private HashMap<VarVersionPair, VarVersionPair> phantomppnodes = new HashMap<VarVersionPair, VarVersionPair>(); // ++ and --
 
-  // node.id, version, version
-  private HashMap<String, HashMap<VarVersionPair, VarVersionPair>> phantomexitnodes =
-    new HashMap<String, HashMap<VarVersionPair, VarVersionPair>>(); // finally exits
+  // node index, version, version
+  private HashMap<VarVersionPair, VarVersionPair>[] phantomexitnodes; // finally exits
 
   // versions memory dependencies
   private VarVersionsGraph ssuversions = new VarVersionsGraph();
@@ -81,20 +82,28 @@ public class SSAUConstructorSparseEx {
   private int fieldvarcounter = -1;
 
   // set factory
-  private FastSparseSetFactory<Integer> factory;
+  private IntSparseSetFactory factory;
 
+  // flattened statements the versions were computed on
+  private DirectGraph directGraph;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
   public void splitVariables(RootStatement root, StructMethod mt) {
 
     FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
     DirectGraph dgraph = flatthelper.buildDirectGraph(root);
+    directGraph = dgraph;
 
-    HashSet<Integer> setInit = new HashSet<Integer>();
-    for (int i = 0; i < 64; i++) {
-      setInit.add(i);
-    }
-    factory = new FastSparseSetFactory<Integer>(setInit);
+    factory = new IntSparseSetFactory(64);
+
+    int nodeCount = dgraph.getNodeCount();
+    inVarVersions = new SFormsFastMapDirect[nodeCount];
+    outVarVersions = new SFormsFastMapDirect[nodeCount];
+    outNegVarVersions = new SFormsFastMapDirect[nodeCount];
+    extraVarVersions = new SFormsFastMapDirect[nodeCount];
+    phantomexitnodes = new HashMap[nodeCount];
 
-    extraVarVersions.put(dgraph.first.id, createFirstMap(mt, root));
+    extraVarVersions[dgraph.first.index] = createFirstMap(mt, root);
 
     setCatchMaps(root, dgraph, flatthelper);
 
@@ -102,28 +111,34 @@ public class SSAUConstructorSparseEx {
     //			DotExporter.toDotFile(dgraph, new File("c:\\Temp\\gr12_my.dot"));
     //		} catch(Exception ex) {ex.printStackTrace();}
 
-    HashSet<String> updated = new HashSet<String>();
+    // the first sweep visits every node, later ones only the nodes whose input may have changed
+    BitSet updated = new BitSet(nodeCount);
+    updated.set(0, dgraph.nodes.size());
+    BitSet revisited = dgraph.getFinallyExitSuccessors();
     do {
       //			System.out.println("~~~~~~~~~~~~~ \r\n"+root.toJava());
-      ssaStatements(dgraph, updated, false);
+      ssaStatements(dgraph, updated, revisited, false);
       //			System.out.println("~~~~~~~~~~~~~ \r\n"+root.toJava());
     }
     while (!updated.isEmpty());
 
-
-    ssaStatements(dgraph, updated, true);
+    // live variables are collected in one more full sweep
+    updated.set(0, dgraph.nodes.size());
+    ssaStatements(dgraph, updated, revisited, true);
 
     ssuversions.initDominators();
   }
 
-  private void ssaStatements(DirectGraph dgraph, HashSet<String> updated, boolean calcLiveVars) {
+  private void ssaStatements(DirectGraph dgraph, BitSet updated, BitSet revisited, boolean calcLiveVars) {
+
+    for (int i = nextNode(updated, revisited, 0); i >= 0; i = nextNode(updated, revisited, i + 1)) {
 
-    for (DirectNode node : dgraph.nodes) {
+      DirectNode node = dgraph.nodes.get(i);
 
-      updated.remove(node.id);
+      updated.clear(node.index);
       mergeInVarMaps(node, dgraph);
 
-      SFormsFastMapDirect varmap = new SFormsFastMapDirect(inVarVersions.get(node.id));
+      SFormsFastMapDirect varmap = new SFormsFastMapDirect(inVarVersions[node.index]);
 
       SFormsFastMapDirect[] varmaparr = new SFormsFastMapDirect[]{varmap, null};
 
@@ -146,30 +161,57 @@ public class SSAUConstructorSparseEx {
         varmaparr[1].removeAllFields();
       }
 
-      boolean this_updated = !mapsEqual(varmaparr[0], outVarVersions.get(node.id))
-                             || (outNegVarVersions.containsKey(node.id) && !mapsEqual(varmaparr[1], outNegVarVersions.get(node.id)));
+      boolean this_updated = !mapsEqual(varmaparr[0], outVarVersions[node.index])
+                             || (outNegVarVersions[node.index] != null && !mapsEqual(varmaparr[1], outNegVarVersions[node.index]));
 
       if (this_updated) {
 
-        outVarVersions.put(node.id, varmaparr[0]);
-        if (dgraph.mapNegIfBranch.containsKey(node.id)) {
-          outNegVarVersions.put(node.id, varmaparr[1]);
+        outVarVersions[node.index] = varmaparr[0];
+        if (dgraph.getNegIfBranch(node) != null) {
+          outNegVarVersions[node.index] = varmaparr[1];
         }
 
         for (DirectNode nd : node.succs) {
-          updated.add(nd.id);
+          updated.set(nd.index);
         }
       }
     }
   }
 
 
+  private static int nextNode(BitSet updated, BitSet revisited, int fromIndex) {
+    int next = updated.nextSetBit(fromIndex);
+    int nextRevisited = revisited.nextSetBit(fromIndex);
+    return next < 0 || (nextRevisited >= 0 && nextRevisited < next) ? nextRevisited : next;
+  }
+
   private void processExprent(Exprent expr, SFormsFastMapDirect[] varmaparr, Statement stat, boolean calcLiveVars) {
 
     if (expr == null) {
       return;
     }
 
+    // operands are processed on an explicit stack, long operator chains would overflow the thread stack
+    List<ExprentFrame> stack = new ArrayList<ExprentFrame>();
+    stack.add(enterExprent(expr, varmaparr, stat, calcLiveVars));
+
+    while (!stack.isEmpty()) {
+      ExprentFrame frame = stack.get(stack.size() - 1);
+
+      if (frame.next < frame.operands.size()) {
+        Exprent operand = frame.operands.get(frame.next++);
+        if (operand != null) {
+          stack.add(enterExprent(operand, varmaparr, stat, calcLiveVars));
+        }
+      }
+      else {
+        stack.remove(stack.size() - 1);
+        leaveExprent(frame.exprent, frame.varassign, varmaparr[0], stat, calcLiveVars);
+      }
+    }
+  }
+
+  private ExprentFrame enterExprent(Exprent expr, SFormsFastMapDirect[] varmaparr, Statement stat, boolean calcLiveVars) {
 
     VarExprent varassign = null;
     boolean finished = false;
@@ -240,17 +282,18 @@ public class SSAUConstructorSparseEx {
         }
     }
 
-    if (!finished) {
-      List<Exprent> lst = expr.getAllExprents();
-      lst.remove(varassign);
-
-      for (Exprent ex : lst) {
-        processExprent(ex, varmaparr, stat, calcLiveVars);
-      }
+    if (finished) {
+      return new ExprentFrame(expr, varassign, Collections.<Exprent>emptyList());
     }
 
+    List<Exprent> lst = expr.getAllExprents();
+    lst.remove(varassign);
+
+    return new ExprentFrame(expr, varassign, lst);
+  }
 
-    SFormsFastMapDirect varmap = varmaparr[0];
+  private void leaveExprent(Exprent expr, VarExprent varassign, SFormsFastMapDirect varmap, Statement stat,
+                            boolean calcLiveVars) {
 
     // field access
     if (expr.type == Exprent.EXPRENT_FIELD) {
@@ -342,7 +385,7 @@ public class SSAUConstructorSparseEx {
 
               VarVersionNode vernode = ssuversions.nodes.getWithKey(varpaar);
 
-              FastSparseSet<Integer> vers = factory.spawnEmptySet();
+              IntSparseSet vers = factory.spawnEmptySet();
               if (vernode.preds.size() == 1) {
                 vers.add(vernode.preds.iterator().next().source.version);
               }
@@ -369,7 +412,7 @@ public class SSAUConstructorSparseEx {
       Integer varindex = vardest.getIndex();
       Integer current_vers = vardest.getVersion();
 
-      FastSparseSet<Integer> vers = varmap.get(varindex);
+      IntSparseSet vers = varmap.get(varindex);
 
       int cardinality = vers.getCardinality();
       if (cardinality == 1) { // size == 1
@@ -423,9 +466,9 @@ public class SSAUConstructorSparseEx {
     }
   }
 
-  private void createOrUpdatePhiNode(VarVersionPair phivar, FastSparseSet<Integer> vers, Statement stat) {
+  private void createOrUpdatePhiNode(VarVersionPair phivar, IntSparseSet vers, Statement stat) {
 
-    FastSparseSet<Integer> versCopy = vers.getCopy();
+    IntSparseSet versCopy = vers.getCopy();
     HashSet<Integer> phiVers = new HashSet<Integer>();
 
     // take into account the corresponding mm/pp node if existing
@@ -457,16 +500,16 @@ public class SSAUConstructorSparseEx {
     List<VarVersionNode> colnodes = new ArrayList<VarVersionNode>();
     List<VarVersionPair> colpaars = new ArrayList<VarVersionPair>();
 
-    for (Integer ver : versCopy) {
+    for (IntSparseSetIterator it = versCopy.iterator(); it.hasNext(); ) {
 
-      VarVersionNode prenode = ssuversions.nodes.getWithKey(new VarVersionPair(phivar.var, ver.intValue()));
+      VarVersionNode prenode = ssuversions.nodes.getWithKey(new VarVersionPair(phivar.var, it.next()));
 
-      Integer tempver = getNextFreeVersion(phivar.var, stat);
+      int tempver = getNextFreeVersion(phivar.var, stat);
 
-      VarVersionNode tempnode = new VarVersionNode(phivar.var, tempver.intValue());
+      VarVersionNode tempnode = new VarVersionNode(phivar.var, tempver);
 
       colnodes.add(tempnode);
-      colpaars.add(new VarVersionPair(phivar.var, tempver.intValue()));
+      colpaars.add(new VarVersionPair(phivar.var, tempver));
 
       VarVersionEdge edge = new VarVersionEdge(VarVersionEdge.EDGE_GENERAL, prenode, tempnode);
 
@@ -484,7 +527,7 @@ public class SSAUConstructorSparseEx {
     ssuversions.addNodes(colnodes, colpaars);
 
     // update phi node
-    phi.put(phivar, phiVers);
+    phi.put(phivar.toLong(), phiVers);
   }
 
   private void varMapToGraph(VarVersionPair varpaar, SFormsFastMapDirect varmap) {
@@ -496,23 +539,16 @@ public class SSAUConstructorSparseEx {
     node.live = new SFormsFastMapDirect(varmap);
   }
 
-  private Integer getNextFreeVersion(Integer var, Statement stat) {
+  private int getNextFreeVersion(int var, Statement stat) {
 
-    Integer nextver = lastversion.get(var);
-
-    if (nextver == null) {
-      nextver = new Integer(1);
-    }
-    else {
-      nextver = new Integer(nextver.intValue() + 1);
-    }
+    int nextver = lastversion.get(var, 0) + 1;
     lastversion.put(var, nextver);
 
     // save the first protected range, containing current statement
     if (stat != null) { // null iff phantom version
       Integer firstRangeId = getFirstProtectedRange(stat);
       if (firstRangeId != null) {
-        mapVersionFirstRange.put(new VarVersionPair(var, nextver), firstRangeId);
+        mapVersionFirstRange.put(VarVersionPair.pack(var, nextver), firstRangeId.intValue());
       }
     }
 
@@ -525,7 +561,7 @@ public class SSAUConstructorSparseEx {
     SFormsFastMapDirect mapNew = new SFormsFastMapDirect();
 
     for (DirectNode pred : node.preds) {
-      SFormsFastMapDirect mapOut = getFilteredOutMap(node.id, pred.id, dgraph, node.id);
+      SFormsFastMapDirect mapOut = getFilteredOutMap(node, pred, dgraph, node);
       if (mapNew.isEmpty()) {
         mapNew = mapOut.getCopy();
       }
@@ -534,8 +570,8 @@ public class SSAUConstructorSparseEx {
       }
     }
 
-    if (extraVarVersions.containsKey(node.id)) {
-      SFormsFastMapDirect mapExtra = extraVarVersions.get(node.id);
+    SFormsFastMapDirect mapExtra = extraVarVersions[node.index];
+    if (mapExtra != null) {
       if (mapNew.isEmpty()) {
         mapNew = mapExtra.getCopy();
       }
@@ -544,22 +580,23 @@ public class SSAUConstructorSparseEx {
       }
     }
 
-    inVarVersions.put(node.id, mapNew);
+    inVarVersions[node.index] = mapNew;
   }
 
-  private SFormsFastMapDirect getFilteredOutMap(String nodeid, String predid, DirectGraph dgraph, String destid) {
+  private SFormsFastMapDirect getFilteredOutMap(DirectNode node, DirectNode pred, DirectGraph dgraph, DirectNode dest) {
 
     SFormsFastMapDirect mapNew = new SFormsFastMapDirect();
 
-    boolean isFinallyExit = dgraph.mapShortRangeFinallyPaths.containsKey(predid);
+    List<FinallyPathWrapper> lstShortRangePaths = dgraph.getShortRangeFinallyPaths(pred);
+    boolean isFinallyExit = (lstShortRangePaths != null);
 
-    if (nodeid.equals(dgraph.mapNegIfBranch.get(predid))) {
-      if (outNegVarVersions.containsKey(predid)) {
-        mapNew = outNegVarVersions.get(predid).getCopy();
+    if (node == dgraph.getNegIfBranch(pred)) {
+      if (outNegVarVersions[pred.index] != null) {
+        mapNew = outNegVarVersions[pred.index].getCopy();
       }
     }
-    else if (outVarVersions.containsKey(predid)) {
-      mapNew = outVarVersions.get(predid).getCopy();
+    else if (outVarVersions[pred.index] != null) {
+      mapNew = outVarVersions[pred.index].getCopy();
     }
 
     if (isFinallyExit) {
@@ -568,31 +605,25 @@ public class SSAUConstructorSparseEx {
 
       SFormsFastMapDirect mapTrueSource = new SFormsFastMapDirect();
 
-      String exceptionDest = dgraph.mapFinallyMonitorExceptionPathExits.get(predid);
-      boolean isExceptionMonitorExit = (exceptionDest != null && !nodeid.equals(exceptionDest));
-
-      HashSet<String> setLongPathWrapper = new HashSet<String>();
-      for (List<FinallyPathWrapper> lstwrapper : dgraph.mapLongRangeFinallyPaths.values()) {
-        for (FinallyPathWrapper finwraplong : lstwrapper) {
-          setLongPathWrapper.add(finwraplong.destination + "##" + finwraplong.source);
-        }
-      }
+      DirectNode exceptionDest = dgraph.getFinallyMonitorExceptionPathExit(pred);
+      boolean isExceptionMonitorExit = (exceptionDest != null && node != exceptionDest);
 
-      for (FinallyPathWrapper finwrap : dgraph.mapShortRangeFinallyPaths.get(predid)) {
+      for (FinallyPathWrapper finwrap : lstShortRangePaths) {
         SFormsFastMapDirect map;
 
-        boolean recFinally = dgraph.mapShortRangeFinallyPaths.containsKey(finwrap.source);
+        DirectNode source = finwrap.sourceNode;
+        boolean recFinally = (dgraph.getShortRangeFinallyPaths(source) != null);
 
         if (recFinally) {
           // recursion
-          map = getFilteredOutMap(finwrap.entry, finwrap.source, dgraph, destid);
+          map = getFilteredOutMap(finwrap.entryNode, source, dgraph, dest);
         }
         else {
-          if (finwrap.entry.equals(dgraph.mapNegIfBranch.get(finwrap.source))) {
-            map = outNegVarVersions.get(finwrap.source);
+          if (finwrap.entryNode == dgraph.getNegIfBranch(source)) {
+            map = outNegVarVersions[source.index];
           }
           else {
-            map = outVarVersions.get(finwrap.source);
+            map = outVarVersions[source.index];
           }
         }
 
@@ -600,10 +631,10 @@ public class SSAUConstructorSparseEx {
         boolean isFalsePath = true;
 
         if (recFinally) {
-          isFalsePath = !finwrap.destination.equals(nodeid);
+          isFalsePath = (finwrap.destinationNode != node);
         }
         else {
-          isFalsePath = !setLongPathWrapper.contains(destid + "##" + finwrap.source);
+          isFalsePath = !containsLongRangePath(dgraph, source, dest);
         }
 
         if (isFalsePath) {
@@ -633,7 +664,7 @@ public class SSAUConstructorSparseEx {
         if (!mapTrueSource.isEmpty() && !mapNew.isEmpty()) { // FIXME: what for??
 
           // replace phi versions with corresponding phantom ones
-          HashMap<VarVersionPair, VarVersionPair> mapPhantom = phantomexitnodes.get(predid);
+          HashMap<VarVersionPair, VarVersionPair> mapPhantom = phantomexitnodes[pred.index];
           if (mapPhantom == null) {
             mapPhantom = new HashMap<VarVersionPair, VarVersionPair>();
           }
@@ -641,12 +672,13 @@ public class SSAUConstructorSparseEx {
           SFormsFastMapDirect mapExitVar = mapNew.getCopy();
           mapExitVar.complement(mapTrueSource);
 
-          for (Entry<Integer, FastSparseSet<Integer>> ent : mapExitVar.entryList()) {
-            for (Integer version : ent.getValue()) {
+          for (Entry<Integer, IntSparseSet> ent : mapExitVar.entryList()) {
+            for (IntSparseSetIterator it = ent.getValue().iterator(); it.hasNext(); ) {
+              int version = it.next();
 
               Integer varindex = ent.getKey();
-              VarVersionPair exitvar = new VarVersionPair(varindex, version);
-              FastSparseSet<Integer> newSet = mapNew.get(varindex);
+              VarVersionPair exitvar = new VarVersionPair(varindex.intValue(), version);
+              IntSparseSet newSet = mapNew.get(varindex).getCopy();
 
               // remove the actual exit version
               newSet.remove(version);
@@ -654,8 +686,8 @@ public class SSAUConstructorSparseEx {
               // get or create phantom version
               VarVersionPair phantomvar = mapPhantom.get(exitvar);
               if (phantomvar == null) {
-                Integer newversion = getNextFreeVersion(exitvar.var, null);
-                phantomvar = new VarVersionPair(exitvar.var, newversion.intValue());
+                int newversion = getNextFreeVersion(exitvar.var, null);
+                phantomvar = new VarVersionPair(exitvar.var, newversion);
 
                 VarVersionNode exitnode = ssuversions.nodes.getWithKey(exitvar);
                 VarVersionNode phantomnode = ssuversions.createNode(phantomvar);
@@ -670,11 +702,12 @@ public class SSAUConstructorSparseEx {
 
               // add phantom version
               newSet.add(phantomvar.version);
+              mapNew.put(varindex, newSet);
             }
           }
 
           if (!mapPhantom.isEmpty()) {
-            phantomexitnodes.put(predid, mapPhantom);
+            phantomexitnodes[pred.index] = mapPhantom;
           }
         }
       }
@@ -683,6 +716,17 @@ public class SSAUConstructorSparseEx {
     return mapNew;
   }
 
+  private static boolean containsLongRangePath(DirectGraph dgraph, DirectNode source, DirectNode destination) {
+    for (List<FinallyPathWrapper> lstwrapper : dgraph.mapLongRangeFinallyPaths.values()) {
+      for (FinallyPathWrapper finwraplong : lstwrapper) {
+        if (finwraplong.sourceNode == source && finwraplong.destinationNode == destination) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   private static SFormsFastMapDirect mergeMaps(SFormsFastMapDirect mapTo, SFormsFastMapDirect map2) {
 
     if (map2 != null && !map2.isEmpty()) {
@@ -705,7 +749,7 @@ public class SSAUConstructorSparseEx {
       return false;
     }
 
-    for (Entry<Integer, FastSparseSet<Integer>> ent2 : map2.entryList()) {
+    for (Entry<Integer, IntSparseSet> ent2 : map2.entryList()) {
       if (!InterpreterUtil.equalObjects(map1.get(ent2.getKey()), ent2.getValue())) {
         return false;
       }
@@ -716,12 +760,22 @@ public class SSAUConstructorSparseEx {
 
 
   private void setCurrentVar(SFormsFastMapDirect varmap, Integer var, Integer vers) {
-    FastSparseSet<Integer> set = factory.spawnEmptySet();
+    IntSparseSet set = factory.spawnEmptySet();
     set.add(vers);
     varmap.put(var, set);
   }
 
-  private void setCatchMaps(Statement stat, DirectGraph dgraph, FlattenStatementsHelper flatthelper) {
+  private void setCatchMaps(Statement root, final DirectGraph dgraph, final FlattenStatementsHelper flatthelper) {
+    TreeWalker.walk(root, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement stat) {
+        setCatchMap(stat, dgraph, flatthelper);
+        return true;
+      }
+    });
+  }
+
+  private void setCatchMap(Statement stat, DirectGraph dgraph, FlattenStatementsHelper flatthelper) {
 
     SFormsFastMapDirect map;
 
@@ -744,15 +798,11 @@ public class SSAUConstructorSparseEx {
           map = new SFormsFastMapDirect();
           setCurrentVar(map, varindex, version);
 
-          extraVarVersions.put(dgraph.nodes.getWithKey(flatthelper.getMapDestinationNodes().get(stat.getStats().get(i).id)[0]).id, map);
+          extraVarVersions[dgraph.nodes.getWithKey(flatthelper.getMapDestinationNodes().get(stat.getStats().get(i).id)[0]).index] = map;
           //ssuversions.createOrGetNode(new VarVersionPair(varindex, version));
           ssuversions.createNode(new VarVersionPair(varindex, version));
         }
     }
-
-    for (Statement st : stat.getStats()) {
-      setCatchMaps(st, dgraph, flatthelper);
-    }
   }
 
   private SFormsFastMapDirect createFirstMap(StructMethod mt, RootStatement root) {
@@ -767,7 +817,7 @@ public class SSAUConstructorSparseEx {
     for (int i = 0; i < paramcount; i++) {
       int version = getNextFreeVersion(varindex, root); // == 1
 
-      FastSparseSet<Integer> set = factory.spawnEmptySet();
+      IntSparseSet set = factory.spawnEmptySet();
       set.add(version);
       map.put(varindex, set);
       ssuversions.createNode(new VarVersionPair(varindex, version));
@@ -815,10 +865,18 @@ public class SSAUConstructorSparseEx {
     return null;
   }
 
-  public HashMap<VarVersionPair, HashSet<Integer>> getPhi() {
+  public LongObjectHashMap<HashSet<Integer>> getPhi() {
     return phi;
   }
 
+  /**
+   * Returns the graph built by {@link #splitVariables}. Its nodes share the exprent lists of the statements, so it
+   * stays valid as long as only exprents are replaced or removed.
+   */
+  public DirectGraph getDirectGraph() {
+    return directGraph;
+  }
+
   public VarVersionsGraph getSsuversions() {
     return ssuversions;
   }
@@ -834,11 +892,28 @@ public class SSAUConstructorSparseEx {
     return null;
   }
 
-  public HashMap<VarVersionPair, Integer> getMapVersionFirstRange() {
-    return mapVersionFirstRange;
+  /**
+   * Returns the id of the first protected range (catch, finally) containing the definition of the version,
+   * or -1 if there is none.
+   */
+  public int getVersionFirstRange(VarVersionPair varpaar) {
+    return mapVersionFirstRange.get(varpaar.toLong(), -1);
   }
 
   public HashMap<Integer, Integer> getMapFieldVars() {
     return mapFieldVars;
   }
+
+  private static class ExprentFrame {
+    private final Exprent exprent;
+    private final VarExprent varassign;
+    private final List<Exprent> operands;
+    private int next;
+
+    private ExprentFrame(Exprent exprent, VarExprent varassign, List<Exprent> operands) {
+      this.exprent = exprent;
+      this.varassign = varassign;
+      this.operands = operands;
+    }
+  }
 }
@@ -101,10 +101,10 @@ public class IfStatement extends Statement {
         List<StatEdge> lstSucc = ifstat.getSuccessorEdges(StatEdge.TYPE_REGULAR);
         List<StatEdge> lstSucc1 = elsestat.getSuccessorEdges(StatEdge.TYPE_REGULAR);
 
-        if (ifstat.getPredecessorEdges(StatEdge.TYPE_REGULAR).size() > 1 || lstSucc.size() > 1) {
+        if (ifstat.getPredecessorEdgeView(StatEdge.TYPE_REGULAR).size() > 1 || lstSucc.size() > 1) {
           post = ifstat;
         }
-        else if (elsestat.getPredecessorEdges(StatEdge.TYPE_REGULAR).size() > 1 || lstSucc1.size() > 1) {
+        else if (elsestat.getPredecessorEdgeView(StatEdge.TYPE_REGULAR).size() > 1 || lstSucc1.size() > 1) {
           post = elsestat;
         }
         else {
@@ -177,7 +177,7 @@ public class IfStatement extends Statement {
   public static Statement isHead(Statement head) {
 
     if (head.type == TYPE_BASICBLOCK && head.getLastBasicType() == LASTBASICTYPE_IF) {
-      int regsize = head.getSuccessorEdges(StatEdge.TYPE_REGULAR).size();
+      int regsize = head.getSuccessorEdgeView(StatEdge.TYPE_REGULAR).size();
 
       Statement p = null;
 
@@ -209,11 +209,51 @@ public class IfStatement extends Statement {
     String indstr = InterpreterUtil.getIndentString(indent);
     TextBuffer buf = new TextBuffer();
 
+    // an else-if chain is printed in a loop, recursing into each else statement would overflow the thread stack
+    IfStatement stat = this;
+    while (true) {
+      TextBuffer content = stat.headToJava(indent, tracer);
+      if (stat != this) {
+        content.setStart(indstr.length());
+      }
+      buf.append(content);
+
+      if (!stat.hasElseIf()) {
+        break;
+      }
+
+      buf.appendIndent(indent).append("} else ");
+      stat = (IfStatement)stat.elsestat;
+    }
+
+    if (stat.elsestat != null) {
+      BytecodeMappingTracer else_tracer = new BytecodeMappingTracer(tracer.getCurrentSourceLine() + 1);
+      TextBuffer content = ExprProcessor.jmpWrapper(stat.elsestat, indent + 1, false, else_tracer);
+
+      if (content.length() > 0) {
+        buf.appendIndent(indent).append("} else {").appendLineSeparator();
+
+        tracer.setCurrentSourceLine(else_tracer.getCurrentSourceLine());
+        tracer.addTracer(else_tracer);
+
+        buf.append(content);
+      }
+    }
+
+    buf.appendIndent(indent).append("}").appendLineSeparator();
+    tracer.incrementCurrentSourceLine();
+
+    return buf;
+  }
+
+  private TextBuffer headToJava(int indent, BytecodeMappingTracer tracer) {
+    TextBuffer buf = new TextBuffer();
+
     buf.append(ExprProcessor.listToJava(varDefinitions, indent, tracer));
     buf.append(first.toJava(indent, tracer));
 
     if (isLabeled()) {
-      buf.appendIndent(indent).append("label").append(this.id.toString()).append(":").appendLineSeparator();
+      buf.appendIndent(indent).append("label").append(this.id).append(":").appendLineSeparator();
       tracer.incrementCurrentSourceLine();
     }
 
@@ -233,7 +273,7 @@ public class IfStatement extends Statement {
         }
 
         if (ifedge.labeled) {
-          buf.append(" label").append(ifedge.closure.id.toString());
+          buf.append(" label").append(ifedge.closure.id);
         }
         buf.append(";").appendLineSeparator();
         tracer.incrementCurrentSourceLine();
@@ -243,45 +283,17 @@ public class IfStatement extends Statement {
       buf.append(ExprProcessor.jmpWrapper(ifstat, indent + 1, false, tracer));
     }
 
-    boolean elseif = false;
-
-    if (elsestat != null) {
-      if (elsestat.type == Statement.TYPE_IF
-          && elsestat.varDefinitions.isEmpty() && elsestat.getFirst().getExprents().isEmpty() &&
-          !elsestat.isLabeled() &&
-          (elsestat.getSuccessorEdges(STATEDGE_DIRECT_ALL).isEmpty()
-           || !elsestat.getSuccessorEdges(STATEDGE_DIRECT_ALL).get(0).explicit)) { // else if
-        TextBuffer content = ExprProcessor.jmpWrapper(elsestat, indent, false, tracer);
-        content.setStart(indstr.length());
-
-        buf.appendIndent(indent).append("} else ");
-        buf.append(content);
-
-        elseif = true;
-      }
-      else {
-        BytecodeMappingTracer else_tracer = new BytecodeMappingTracer(tracer.getCurrentSourceLine() + 1);
-        TextBuffer content = ExprProcessor.jmpWrapper(elsestat, indent + 1, false, else_tracer);
-
-        if (content.length() > 0) {
-          buf.appendIndent(indent).append("} else {").appendLineSeparator();
-
-          tracer.setCurrentSourceLine(else_tracer.getCurrentSourceLine());
-          tracer.addTracer(else_tracer);
-
-          buf.append(content);
-        }
-      }
-    }
-
-    if (!elseif) {
-      buf.appendIndent(indent).append("}").appendLineSeparator();
-      tracer.incrementCurrentSourceLine();
-    }
-
     return buf;
   }
 
+  private boolean hasElseIf() {
+    return elsestat != null && elsestat.type == Statement.TYPE_IF
+           && elsestat.varDefinitions.isEmpty() && elsestat.getFirst().getExprents().isEmpty() &&
+           !elsestat.isLabeled() &&
+           (elsestat.getSuccessorEdgeView(STATEDGE_DIRECT_ALL).isEmpty()
+            || !elsestat.getSuccessorEdgeView(STATEDGE_DIRECT_ALL).get(0).explicit); // else if
+  }
+
   public void initExprents() {
 
     IfExprent ifexpr = (IfExprent)first.getExprents().remove(first.getExprents().size() - 1);
@@ -84,7 +84,7 @@ public class SequenceStatement extends Statement {
     if (edge != null && edge.getType() == StatEdge.TYPE_REGULAR) {
       Statement stat = edge.getDestination();
 
-      if (stat != head && stat.getPredecessorEdges(StatEdge.TYPE_REGULAR).size() == 1
+      if (stat != head && stat.getPredecessorEdgeView(StatEdge.TYPE_REGULAR).size() == 1
           && !stat.isMonitorEnter()) {
 
         if (stat.getLastBasicType() == Statement.LASTBASICTYPE_GENERAL) {
@@ -105,7 +105,7 @@ public class SequenceStatement extends Statement {
     buf.append(ExprProcessor.listToJava(varDefinitions, indent, tracer));
 
     if (islabeled) {
-      buf.appendIndent(indent++).append("label").append(this.id.toString()).append(": {").appendLineSeparator();
+      buf.appendIndent(indent++).append("label").append(this.id).append(": {").appendLineSeparator();
       tracer.incrementCurrentSourceLine();
     }
 
@@ -16,11 +16,11 @@
 package de.fernflower.modules.decompiler.stats;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 
 import de.fernflower.code.CodeConstants;
@@ -31,6 +31,7 @@ import de.fernflower.main.collectors.BytecodeMappingTracer;
 import de.fernflower.main.collectors.CounterContainer;
 import de.fernflower.modules.decompiler.StatEdge;
 import de.fernflower.modules.decompiler.StrongConnectivityHelper;
+import de.fernflower.modules.decompiler.TreeWalker;
 import de.fernflower.modules.decompiler.exps.Exprent;
 import de.fernflower.struct.match.IMatchable;
 import de.fernflower.struct.match.MatchEngine;
@@ -45,6 +46,8 @@ public class Statement implements IMatchable {
   public static final int STATEDGE_ALL = 1 << 31;
   public static final int STATEDGE_DIRECT_ALL = 1 << 30;
 
+  private static final int SLOT_COUNT = 8;
+
   public static final int DIRECTION_BACKWARD = 0;
   public static final int DIRECTION_FORWARD = 1;
 
@@ -74,17 +77,18 @@ public class Statement implements IMatchable {
 
   public int type;
 
-  public Integer id;
+  public int id;
 
   // *****************************************************************************
   // private fields
   // *****************************************************************************
 
-  private Map<Integer, List<StatEdge>> mapSuccEdges = new HashMap<Integer, List<StatEdge>>();
-  private Map<Integer, List<StatEdge>> mapPredEdges = new HashMap<Integer, List<StatEdge>>();
+  // edges and neighbours by edge type, indexed by edgeSlot(), lists are created on first use
+  private final List<StatEdge>[] succEdges = newSlots();
+  private final List<StatEdge>[] predEdges = newSlots();
 
-  private Map<Integer, List<Statement>> mapSuccStates = new HashMap<Integer, List<Statement>>();
-  private Map<Integer, List<Statement>> mapPredStates = new HashMap<Integer, List<Statement>>();
+  private final List<Statement>[] succStates = newSlots();
+  private final List<Statement>[] predStates = newSlots();
 
   // statement as graph
   protected VBStyleCollection<Statement, Integer> stats = new VBStyleCollection<Statement, Integer>();
@@ -95,7 +99,7 @@ public class Statement implements IMatchable {
 
   protected List<Exprent> exprents;
 
-  protected HashSet<StatEdge> labelEdges = new HashSet<StatEdge>();
+  protected HashSet<StatEdge> labelEdges = new LinkedHashSet<StatEdge>();
 
   protected List<Exprent> varDefinitions = new ArrayList<Exprent>();
 
@@ -113,7 +117,7 @@ public class Statement implements IMatchable {
 
   protected boolean containsMonitorExit;
 
-  protected HashSet<Statement> continueSet = new HashSet<Statement>();
+  protected HashSet<Statement> continueSet = new LinkedHashSet<Statement>();
 
   // *****************************************************************************
   // initializers
@@ -139,21 +143,32 @@ public class Statement implements IMatchable {
     isMonitorEnter = false;
     containsMonitorExit = false;
 
-    processMap(mapSuccEdges);
-    processMap(mapPredEdges);
-    processMap(mapSuccStates);
-    processMap(mapPredStates);
+    processSlots(succEdges);
+    processSlots(predEdges);
+    processSlots(succStates);
+    processSlots(predStates);
   }
 
-  private static <T> void processMap(Map<Integer, List<T>> map) {
-    map.remove(StatEdge.TYPE_EXCEPTION);
+  private static <T> void processSlots(List<T>[] slots) {
+    slots[edgeSlot(StatEdge.TYPE_EXCEPTION)] = null;
 
-    List<T> lst = map.get(STATEDGE_DIRECT_ALL);
-    if (lst != null) {
-      map.put(STATEDGE_ALL, new ArrayList<T>(lst));
-    }
-    else {
-      map.remove(STATEDGE_ALL);
+    List<T> lst = slots[edgeSlot(STATEDGE_DIRECT_ALL)];
+    slots[edgeSlot(STATEDGE_ALL)] = lst == null ? null : new ArrayList<T>(lst);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T> List<T>[] newSlots() {
+    return new List[SLOT_COUNT];
+  }
+
+  private static int edgeSlot(int edgetype) {
+    switch (edgetype) {
+      case STATEDGE_ALL:
+        return 0;
+      case STATEDGE_DIRECT_ALL:
+        return 1;
+      default:
+        return 2 + Integer.numberOfTrailingZeros(edgetype);
     }
   }
 
@@ -193,7 +208,7 @@ public class Statement implements IMatchable {
     }
 
     // exception edges
-    Set<Statement> setHandlers = new HashSet<Statement>(head.getNeighbours(StatEdge.TYPE_EXCEPTION, DIRECTION_FORWARD));
+    Set<Statement> setHandlers = new LinkedHashSet<Statement>(head.getNeighbours(StatEdge.TYPE_EXCEPTION, DIRECTION_FORWARD));
     for (Statement node : setNodes) {
       setHandlers.retainAll(node.getNeighbours(StatEdge.TYPE_EXCEPTION, DIRECTION_FORWARD));
     }
@@ -262,18 +277,19 @@ public class Statement implements IMatchable {
 
   private void addEdgeDirectInternal(int direction, StatEdge edge, int edgetype) {
 
-    Map<Integer, List<StatEdge>> mapEdges = direction == DIRECTION_BACKWARD ? mapPredEdges : mapSuccEdges;
-    Map<Integer, List<Statement>> mapStates = direction == DIRECTION_BACKWARD ? mapPredStates : mapSuccStates;
+    List<StatEdge>[] edges = direction == DIRECTION_BACKWARD ? predEdges : succEdges;
+    List<Statement>[] states = direction == DIRECTION_BACKWARD ? predStates : succStates;
+    int slot = edgeSlot(edgetype);
 
-    List<StatEdge> lst = mapEdges.get(edgetype);
+    List<StatEdge> lst = edges[slot];
     if (lst == null) {
-      mapEdges.put(edgetype, lst = new ArrayList<StatEdge>());
+      edges[slot] = lst = new ArrayList<StatEdge>();
     }
     lst.add(edge);
 
-    List<Statement> lstStates = mapStates.get(edgetype);
+    List<Statement> lstStates = states[slot];
     if (lstStates == null) {
-      mapStates.put(edgetype, lstStates = new ArrayList<Statement>());
+      states[slot] = lstStates = new ArrayList<Statement>();
     }
     lstStates.add(direction == DIRECTION_BACKWARD ? edge.getSource() : edge.getDestination());
   }
@@ -282,30 +298,25 @@ public class Statement implements IMatchable {
 
     int type = edge.getType();
 
-    int[] arrtypes;
-    if (type == StatEdge.TYPE_EXCEPTION) {
-      arrtypes = new int[]{STATEDGE_ALL, StatEdge.TYPE_EXCEPTION};
-    }
-    else {
-      arrtypes = new int[]{STATEDGE_ALL, STATEDGE_DIRECT_ALL, type};
-    }
-
-    for (int edgetype : arrtypes) {
-      addEdgeDirectInternal(direction, edge, edgetype);
+    addEdgeDirectInternal(direction, edge, STATEDGE_ALL);
+    if (type != StatEdge.TYPE_EXCEPTION) {
+      addEdgeDirectInternal(direction, edge, STATEDGE_DIRECT_ALL);
     }
+    addEdgeDirectInternal(direction, edge, type);
   }
 
   private void removeEdgeDirectInternal(int direction, StatEdge edge, int edgetype) {
 
-    Map<Integer, List<StatEdge>> mapEdges = direction == DIRECTION_BACKWARD ? mapPredEdges : mapSuccEdges;
-    Map<Integer, List<Statement>> mapStates = direction == DIRECTION_BACKWARD ? mapPredStates : mapSuccStates;
+    List<StatEdge>[] edges = direction == DIRECTION_BACKWARD ? predEdges : succEdges;
+    List<Statement>[] states = direction == DIRECTION_BACKWARD ? predStates : succStates;
+    int slot = edgeSlot(edgetype);
 
-    List<StatEdge> lst = mapEdges.get(edgetype);
+    List<StatEdge> lst = edges[slot];
     if (lst != null) {
       int index = lst.indexOf(edge);
       if (index >= 0) {
         lst.remove(index);
-        mapStates.get(edgetype).remove(index);
+        states[slot].remove(index);
       }
     }
   }
@@ -314,17 +325,11 @@ public class Statement implements IMatchable {
 
     int type = edge.getType();
 
-    int[] arrtypes;
-    if (type == StatEdge.TYPE_EXCEPTION) {
-      arrtypes = new int[]{STATEDGE_ALL, StatEdge.TYPE_EXCEPTION};
-    }
-    else {
-      arrtypes = new int[]{STATEDGE_ALL, STATEDGE_DIRECT_ALL, type};
-    }
-
-    for (int edgetype : arrtypes) {
-      removeEdgeDirectInternal(direction, edge, edgetype);
+    removeEdgeDirectInternal(direction, edge, STATEDGE_ALL);
+    if (type != StatEdge.TYPE_EXCEPTION) {
+      removeEdgeDirectInternal(direction, edge, STATEDGE_DIRECT_ALL);
     }
+    removeEdgeDirectInternal(direction, edge, type);
   }
 
   public void addPredecessor(StatEdge edge) {
@@ -469,7 +474,7 @@ public class Statement implements IMatchable {
       lstexits = StrongConnectivityHelper.getExitReps(schelper.getComponents());
     }
 
-    HashSet<Statement> setVisited = new HashSet<Statement>();
+    HashSet<Statement> setVisited = new LinkedHashSet<Statement>();
 
     for (Statement exit : lstexits) {
       addToPostReversePostOrderList(exit, res, setVisited);
@@ -486,19 +491,42 @@ public class Statement implements IMatchable {
     return this == stat || containsStatementStrict(stat);
   }
 
-  public boolean containsStatementStrict(Statement stat) {
+  public boolean containsStatementStrict(final Statement stat) {
 
     if (stats.contains(stat)) {
       return true;
     }
 
+    // most statements are shallow: look at the grandchildren first and only walk deeper trees
+    boolean deeper = false;
     for (int i = 0; i < stats.size(); i++) {
-      if (stats.get(i).containsStatementStrict(stat)) {
+      VBStyleCollection<Statement, Integer> childStats = stats.get(i).stats;
+      if (childStats.contains(stat)) {
         return true;
       }
+      for (int j = 0; j < childStats.size() && !deeper; j++) {
+        deeper = !childStats.get(j).stats.isEmpty();
+      }
     }
 
-    return false;
+    if (!deeper) {
+      return false;
+    }
+
+    final boolean[] found = new boolean[1];
+
+    TreeWalker.walk(this, new TreeWalker.StatementVisitor() {
+      @Override
+      public boolean enter(Statement st) {
+        if (st == stat && st != Statement.this) {
+          found[0] = true;
+          stop();
+        }
+        return true;
+      }
+    });
+
+    return found[0];
   }
 
   // to be overwritten
@@ -587,7 +615,7 @@ public class Statement implements IMatchable {
 
     LinkedList<Statement> stackNode = new LinkedList<Statement>();
     LinkedList<Integer> stackIndex = new LinkedList<Integer>();
-    HashSet<Statement> setVisited = new HashSet<Statement>();
+    HashSet<Statement> setVisited = new LinkedHashSet<Statement>();
 
     stackNode.add(root);
     stackIndex.add(0);
@@ -649,25 +677,17 @@ public class Statement implements IMatchable {
 
   public void changeEdgeNode(int direction, StatEdge edge, Statement value) {
 
-    Map<Integer, List<StatEdge>> mapEdges = direction == DIRECTION_BACKWARD ? mapPredEdges : mapSuccEdges;
-    Map<Integer, List<Statement>> mapStates = direction == DIRECTION_BACKWARD ? mapPredStates : mapSuccStates;
+    List<StatEdge>[] edges = direction == DIRECTION_BACKWARD ? predEdges : succEdges;
+    List<Statement>[] states = direction == DIRECTION_BACKWARD ? predStates : succStates;
 
     int type = edge.getType();
 
-    int[] arrtypes;
-    if (type == StatEdge.TYPE_EXCEPTION) {
-      arrtypes = new int[]{STATEDGE_ALL, StatEdge.TYPE_EXCEPTION};
-    }
-    else {
-      arrtypes = new int[]{STATEDGE_ALL, STATEDGE_DIRECT_ALL, type};
-    }
-
-    for (int edgetype : arrtypes) {
-      List<StatEdge> lst = mapEdges.get(edgetype);
+    for (int slot : new int[]{edgeSlot(STATEDGE_ALL), edgeSlot(STATEDGE_DIRECT_ALL), edgeSlot(type)}) {
+      List<StatEdge> lst = edges[slot];
       if (lst != null) {
         int index = lst.indexOf(edge);
         if (index >= 0) {
-          mapStates.get(edgetype).set(index, value);
+          states[slot].set(index, value);
         }
       }
     }
@@ -702,20 +722,23 @@ public class Statement implements IMatchable {
   }
 
 
-  private List<StatEdge> getEdges(int type, int direction) {
+  private static <T> List<T> getSlot(List<T>[] slots, int type) {
+    int slot = edgeSlot(type);
+    return slot < SLOT_COUNT ? slots[slot] : null;
+  }
 
-    Map<Integer, List<StatEdge>> map = direction == DIRECTION_BACKWARD ? mapPredEdges : mapSuccEdges;
+  private static <T> List<T> collect(List<T>[] slots, int type) {
 
-    List<StatEdge> res;
+    List<T> res;
     if ((type & (type - 1)) == 0) {
-      res = map.get(type);
-      res = res == null ? new ArrayList<StatEdge>() : new ArrayList<StatEdge>(res);
+      res = getSlot(slots, type);
+      res = res == null ? new ArrayList<T>() : new ArrayList<T>(res);
     }
     else {
-      res = new ArrayList<StatEdge>();
+      res = new ArrayList<T>();
       for (int edgetype : StatEdge.TYPES) {
         if ((type & edgetype) != 0) {
-          List<StatEdge> lst = map.get(edgetype);
+          List<T> lst = slots[edgeSlot(edgetype)];
           if (lst != null) {
             res.addAll(lst);
           }
@@ -726,32 +749,16 @@ public class Statement implements IMatchable {
     return res;
   }
 
-  public List<Statement> getNeighbours(int type, int direction) {
-
-    Map<Integer, List<Statement>> map = direction == DIRECTION_BACKWARD ? mapPredStates : mapSuccStates;
-
-    List<Statement> res;
-    if ((type & (type - 1)) == 0) {
-      res = map.get(type);
-      res = res == null ? new ArrayList<Statement>() : new ArrayList<Statement>(res);
-    }
-    else {
-      res = new ArrayList<Statement>();
-      for (int edgetype : StatEdge.TYPES) {
-        if ((type & edgetype) != 0) {
-          List<Statement> lst = map.get(edgetype);
-          if (lst != null) {
-            res.addAll(lst);
-          }
-        }
-      }
-    }
+  private List<StatEdge> getEdges(int type, int direction) {
+    return collect(direction == DIRECTION_BACKWARD ? predEdges : succEdges, type);
+  }
 
-    return res;
+  public List<Statement> getNeighbours(int type, int direction) {
+    return collect(direction == DIRECTION_BACKWARD ? predStates : succStates, type);
   }
 
   public Set<Statement> getNeighboursSet(int type, int direction) {
-    return new HashSet<Statement>(getNeighbours(type, direction));
+    return new LinkedHashSet<Statement>(getNeighbours(type, direction));
   }
 
   public List<StatEdge> getSuccessorEdges(int type) {
@@ -770,6 +777,38 @@ public class Statement implements IMatchable {
     return getEdges(STATEDGE_ALL, DIRECTION_BACKWARD);
   }
 
+  /**
+   * The successor edges of a single type, STATEDGE_ALL or STATEDGE_DIRECT_ALL without copying them.
+   * The list must not be modified or used after the edges of this statement change.
+   */
+  public List<StatEdge> getSuccessorEdgeView(int type) {
+    return getEdgeView(succEdges, type);
+  }
+
+  public List<StatEdge> getPredecessorEdgeView(int type) {
+    return getEdgeView(predEdges, type);
+  }
+
+  private static List<StatEdge> getEdgeView(List<StatEdge>[] slots, int type) {
+    if ((type & (type - 1)) != 0) {
+      return collect(slots, type);
+    }
+    List<StatEdge> lst = getSlot(slots, type);
+    return lst == null ? Collections.<StatEdge>emptyList() : lst;
+  }
+
+  public boolean hasAnySuccessor() {
+    return hasSuccessor(STATEDGE_ALL);
+  }
+
+  public boolean hasSuccessor(int type) {
+    return !getSuccessorEdgeView(type).isEmpty();
+  }
+
+  public StatEdge getFirstSuccessor() {
+    return getSuccessorEdgeView(STATEDGE_ALL).get(0);
+  }
+
   public Statement getFirst() {
     return first;
   }
@@ -869,7 +908,7 @@ public class Statement implements IMatchable {
 
   // helper methods
   public String toString() {
-    return id.toString();
+    return String.valueOf(id);
   }
   
   // *****************************************************************************
@@ -65,7 +65,7 @@ public class SwitchStatement extends Statement {
     stats.addWithKey(head, head.id);
 
     // find post node
-    Set<Statement> lstNodes = new HashSet<Statement>(head.getNeighbours(StatEdge.TYPE_REGULAR, DIRECTION_FORWARD));
+    Set<Statement> lstNodes = new LinkedHashSet<Statement>(head.getNeighbours(StatEdge.TYPE_REGULAR, DIRECTION_FORWARD));
 
     // cluster nodes
     if (poststat != null) {
@@ -73,7 +73,7 @@ public class SwitchStatement extends Statement {
       lstNodes.remove(post);
     }
 
-    default_edge = head.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0);
+    default_edge = head.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0);
 
     for (Statement st : lstNodes) {
       stats.addWithKey(st, st.id);
@@ -113,7 +113,7 @@ public class SwitchStatement extends Statement {
     buf.append(first.toJava(indent, tracer));
 
     if (isLabeled()) {
-      buf.appendIndent(indent).append("label").append(this.id.toString()).append(":").appendLineSeparator();
+      buf.appendIndent(indent).append("label").append(this.id).append(":").appendLineSeparator();
       tracer.incrementCurrentSourceLine();
     }
 
@@ -189,7 +189,7 @@ public class SwitchStatement extends Statement {
 
   public void initSimpleCopy() {
     first = stats.get(0);
-    default_edge = first.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0);
+    default_edge = first.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0);
 
     sortEdgesAndNodes();
   }
@@ -200,7 +200,7 @@ public class SwitchStatement extends Statement {
 
   public void sortEdgesAndNodes() {
 
-    HashMap<StatEdge, Integer> mapEdgeIndex = new HashMap<StatEdge, Integer>();
+    HashMap<StatEdge, Integer> mapEdgeIndex = new LinkedHashMap<StatEdge, Integer>();
 
     List<StatEdge> lstFirstSuccs = first.getSuccessorEdges(STATEDGE_DIRECT_ALL);
     for (int i = 0; i < lstFirstSuccs.size(); i++) {
@@ -265,7 +265,7 @@ public class SwitchStatement extends Statement {
       Statement stat = nodes.get(index);
 
       if (stat != null) {
-        HashSet<Statement> setPreds = new HashSet<Statement>(stat.getNeighbours(StatEdge.TYPE_REGULAR, DIRECTION_BACKWARD));
+        HashSet<Statement> setPreds = new LinkedHashSet<Statement>(stat.getNeighbours(StatEdge.TYPE_REGULAR, DIRECTION_BACKWARD));
         setPreds.remove(first);
 
         if (!setPreds.isEmpty()) {
@@ -251,39 +251,62 @@ public class VarDefinitionHelper {
 
   private Set<Integer> initStatement(Statement stat) {
 
-    HashMap<Integer, Integer> mapCount = new HashMap<Integer, Integer>();
-
-    List<VarExprent> condlst;
+    // statements are processed on an explicit stack, deeply nested statements would overflow the thread stack
+    List<InitFrame> stack = new ArrayList<InitFrame>();
+    stack.add(new InitFrame(stat));
 
-    if (stat.getExprents() == null) {
+    Set<Integer> childSet = null;
 
-      // recurse on children statements
-      List<Integer> childVars = new ArrayList<Integer>();
-      List<Exprent> currVars = new ArrayList<Exprent>();
+    while (true) {
+      InitFrame frame = stack.get(stack.size() - 1);
 
-      for (Object obj : stat.getSequentialObjects()) {
-        if (obj instanceof Statement) {
-          Statement st = (Statement)obj;
-          childVars.addAll(initStatement(st));
+      if (childSet != null) {
+        Statement st = (Statement)frame.objects.get(frame.index++);
+        frame.childVars.addAll(childSet);
+        childSet = null;
 
-          if (st.type == DoStatement.TYPE_DO) {
-            DoStatement dost = (DoStatement)st;
-            if (dost.getLooptype() != DoStatement.LOOP_FOR &&
-                dost.getLooptype() != DoStatement.LOOP_DO) {
-              currVars.add(dost.getConditionExprent());
-            }
+        if (st.type == DoStatement.TYPE_DO) {
+          DoStatement dost = (DoStatement)st;
+          if (dost.getLooptype() != DoStatement.LOOP_FOR &&
+              dost.getLooptype() != DoStatement.LOOP_DO) {
+            frame.currVars.add(dost.getConditionExprent());
           }
-          else if (st.type == DoStatement.TYPE_CATCHALL) {
-            CatchAllStatement fin = (CatchAllStatement)st;
-            if (fin.isFinally() && fin.getMonitor() != null) {
-              currVars.add(fin.getMonitor());
-            }
+        }
+        else if (st.type == DoStatement.TYPE_CATCHALL) {
+          CatchAllStatement fin = (CatchAllStatement)st;
+          if (fin.isFinally() && fin.getMonitor() != null) {
+            frame.currVars.add(fin.getMonitor());
           }
         }
-        else if (obj instanceof Exprent) {
-          currVars.add((Exprent)obj);
+      }
+
+      while (frame.index < frame.objects.size() && !(frame.objects.get(frame.index) instanceof Statement)) {
+        Object obj = frame.objects.get(frame.index++);
+        if (obj instanceof Exprent) {
+          frame.currVars.add((Exprent)obj);
+        }
+      }
+
+      if (frame.index < frame.objects.size()) {
+        stack.add(new InitFrame((Statement)frame.objects.get(frame.index)));
+      }
+      else {
+        stack.remove(stack.size() - 1);
+        childSet = initStatementVars(frame.stat, frame.childVars, frame.currVars);
+        if (stack.isEmpty()) {
+          return childSet;
         }
       }
+    }
+  }
+
+  private Set<Integer> initStatementVars(Statement stat, List<Integer> childVars, List<Exprent> currVars) {
+
+    HashMap<Integer, Integer> mapCount = new HashMap<Integer, Integer>();
+
+    List<VarExprent> condlst;
+
+    if (stat.getExprents() == null) {
 
       // children statements
       for (Integer index : childVars) {
@@ -352,4 +375,18 @@ public class VarDefinitionHelper {
     }
     return false;
   }
+
+  private static class InitFrame {
+    private final Statement stat;
+    // statements and exprents of the statement in sequential order, none if it is a basic block
+    private final List<Object> objects;
+    private final List<Integer> childVars = new ArrayList<Integer>();
+    private final List<Exprent> currVars = new ArrayList<Exprent>();
+    private int index;
+
+    private InitFrame(Statement stat) {
+      this.stat = stat;
+      this.objects = stat.getExprents() == null ? stat.getSequentialObjects() : Collections.emptyList();
+    }
+  }
 }
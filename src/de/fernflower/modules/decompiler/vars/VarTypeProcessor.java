@@ -22,6 +22,7 @@ import java.util.Map;
 
 import de.fernflower.code.CodeConstants;
 import de.fernflower.main.DecompilerContext;
+import de.fernflower.modules.decompiler.TreeWalker;
 import de.fernflower.modules.decompiler.exps.*;
 import de.fernflower.modules.decompiler.sforms.DirectGraph;
 import de.fernflower.modules.decompiler.stats.CatchAllStatement;
@@ -32,6 +33,7 @@ import de.fernflower.struct.StructClass;
 import de.fernflower.struct.StructMethod;
 import de.fernflower.struct.gen.MethodDescriptor;
 import de.fernflower.struct.gen.VarType;
+import de.fernflower.util.LongIntHashMap;
 
 public class VarTypeProcessor {
 
@@ -41,7 +43,7 @@ public class VarTypeProcessor {
 
   private Map<VarVersionPair, VarType> mapExprentMinTypes = new HashMap<VarVersionPair, VarType>();
   private Map<VarVersionPair, VarType> mapExprentMaxTypes = new HashMap<VarVersionPair, VarType>();
-  private Map<VarVersionPair, Integer> mapFinalVars = new HashMap<VarVersionPair, Integer>();
+  private LongIntHashMap mapFinalVars = new LongIntHashMap();
 
   private void setInitVars(RootStatement root) {
     StructMethod mt = (StructMethod)DecompilerContext.getProperty(DecompilerContext.CURRENT_METHOD);
@@ -133,11 +135,22 @@ public class VarTypeProcessor {
 
   private boolean checkTypeExprent(Exprent exprent) {
 
-    for (Exprent expr : exprent.getAllExprents()) {
-      if (!checkTypeExprent(expr)) {
-        return false;
+    final boolean[] res = new boolean[]{true};
+
+    TreeWalker.walk(exprent, new TreeWalker.ExprentVisitor() {
+      @Override
+      public void leave(Exprent exprent) {
+        if (!checkExprentTypeBounds(exprent)) {
+          res[0] = false;
+          stop();
+        }
       }
-    }
+    });
+
+    return res[0];
+  }
+
+  private boolean checkExprentTypeBounds(Exprent exprent) {
 
     if (exprent.type == Exprent.EXPRENT_CONST) {
       ConstExprent constExpr = (ConstExprent)exprent;
@@ -263,7 +276,7 @@ public class VarTypeProcessor {
     return mapExprentMinTypes;
   }
 
-  public Map<VarVersionPair, Integer> getMapFinalVars() {
+  public LongIntHashMap getMapFinalVars() {
     return mapFinalVars;
   }
 
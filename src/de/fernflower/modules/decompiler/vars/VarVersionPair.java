@@ -39,6 +39,17 @@ public class VarVersionPair {
     this.version = var.getVersion();
   }
 
+  /**
+   * Packs a var-version pair into a single long, the var in the upper and the version in the lower half.
+   */
+  public static long pack(int var, int version) {
+    return ((long)var << 32) | (version & 0xFFFFFFFFL);
+  }
+
+  public long toLong() {
+    return pack(var, version);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (o == this) return true;
@@ -50,6 +61,7 @@ public class VarVersionPair {
 
   @Override
   public int hashCode() {
+    // weak, but the iteration order of the pair keyed hash maps decides the numbering of the variables
     if (hashCode == -1) {
       hashCode = this.var * 3 + this.version;
     }
@@ -48,7 +48,7 @@ public class VarVersionsGraph {
     }
     else {
 
-      HashSet<VarVersionNode> marked = new HashSet<VarVersionNode>();
+      HashSet<VarVersionNode> marked = new LinkedHashSet<VarVersionNode>();
 
       if (domnodes.contains(node)) {
         return true;
@@ -85,7 +85,7 @@ public class VarVersionsGraph {
 
   public void initDominators() {
 
-    final HashSet<VarVersionNode> roots = new HashSet<VarVersionNode>();
+    final HashSet<VarVersionNode> roots = new LinkedHashSet<VarVersionNode>();
 
     for (VarVersionNode node : nodes) {
       if (node.preds.isEmpty()) {
@@ -99,7 +99,7 @@ public class VarVersionsGraph {
       }
 
       public Set<? extends IGraphNode> getRoots() {
-        return new HashSet<IGraphNode>(roots);
+        return new LinkedHashSet<IGraphNode>(roots);
       }
     });
 
@@ -109,7 +109,7 @@ public class VarVersionsGraph {
   private static LinkedList<VarVersionNode> getReversedPostOrder(Collection<VarVersionNode> roots) {
 
     LinkedList<VarVersionNode> lst = new LinkedList<VarVersionNode>();
-    HashSet<VarVersionNode> setVisited = new HashSet<VarVersionNode>();
+    HashSet<VarVersionNode> setVisited = new LinkedHashSet<VarVersionNode>();
 
     for (VarVersionNode root : roots) {
 
@@ -124,7 +124,7 @@ public class VarVersionsGraph {
 
   private static void addToReversePostOrderListIterative(VarVersionNode root, List<VarVersionNode> lst, HashSet<VarVersionNode> setVisited) {
 
-    HashMap<VarVersionNode, List<VarVersionEdge>> mapNodeSuccs = new HashMap<VarVersionNode, List<VarVersionEdge>>();
+    HashMap<VarVersionNode, List<VarVersionEdge>> mapNodeSuccs = new LinkedHashMap<VarVersionNode, List<VarVersionEdge>>();
 
     LinkedList<VarVersionNode> stackNode = new LinkedList<VarVersionNode>();
     LinkedList<Integer> stackIndex = new LinkedList<Integer>();
@@ -30,7 +30,9 @@ import de.fernflower.modules.decompiler.sforms.SSAConstructorSparseEx;
 import de.fernflower.modules.decompiler.stats.RootStatement;
 import de.fernflower.struct.StructMethod;
 import de.fernflower.struct.gen.VarType;
-import de.fernflower.util.FastSparseSetFactory.FastSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSetIterator;
+import de.fernflower.util.LongIntHashMap;
 
 public class VarVersionsProcessor {
 
@@ -63,11 +65,11 @@ public class VarVersionsProcessor {
   private static void mergePhiVersions(SSAConstructorSparseEx ssa, DirectGraph graph) {
     // collect phi versions
     List<Set<VarVersionPair>> lst = new ArrayList<Set<VarVersionPair>>();
-    for (Entry<VarVersionPair, FastSparseSet<Integer>> ent : ssa.getPhi().entrySet()) {
+    for (Entry<VarVersionPair, IntSparseSet> ent : ssa.getPhi().entrySet()) {
       Set<VarVersionPair> set = new HashSet<VarVersionPair>();
       set.add(ent.getKey());
-      for (Integer version : ent.getValue()) {
-        set.add(new VarVersionPair(ent.getKey().var, version.intValue()));
+      for (IntSparseSetIterator it = ent.getValue().iterator(); it.hasNext(); ) {
+        set.add(new VarVersionPair(ent.getKey().var, it.next()));
       }
 
       for (int i = lst.size() - 1; i >= 0; i--) {
@@ -208,7 +210,7 @@ public class VarVersionsProcessor {
                 firstType = secondType;
               }
 
-              typeProcessor.getMapFinalVars().put(firstPair, VarTypeProcessor.VAR_NON_FINAL);
+              typeProcessor.getMapFinalVars().put(firstPair.toLong(), VarTypeProcessor.VAR_NON_FINAL);
 
               lstVersions.remove(j);
               //noinspection AssignmentToForLoopParameter
@@ -227,7 +229,7 @@ public class VarVersionsProcessor {
   private void setNewVarIndices(VarTypeProcessor typeProcessor, DirectGraph graph) {
     final Map<VarVersionPair, VarType> mapExprentMaxTypes = typeProcessor.getMapExprentMaxTypes();
     Map<VarVersionPair, VarType> mapExprentMinTypes = typeProcessor.getMapExprentMinTypes();
-    Map<VarVersionPair, Integer> mapFinalVars = typeProcessor.getMapFinalVars();
+    LongIntHashMap mapFinalVars = typeProcessor.getMapFinalVars();
 
     CounterContainer counters = DecompilerContext.getCounterContainer();
 
@@ -246,8 +248,8 @@ public class VarVersionsProcessor {
         mapExprentMinTypes.put(newVar, mapExprentMinTypes.get(pair));
         mapExprentMaxTypes.put(newVar, mapExprentMaxTypes.get(pair));
 
-        if (mapFinalVars.containsKey(pair)) {
-          mapFinalVars.put(newVar, mapFinalVars.remove(pair));
+        if (mapFinalVars.containsKey(pair.toLong())) {
+          mapFinalVars.put(newVar.toLong(), mapFinalVars.remove(pair.toLong(), 0));
         }
 
         mapVarPaar.put(pair, newIndex);
@@ -297,15 +299,14 @@ public class VarVersionsProcessor {
   public int getVarFinal(VarVersionPair pair) {
     int ret = VarTypeProcessor.VAR_FINAL;
     if (typeProcessor != null) {
-      Integer fin = typeProcessor.getMapFinalVars().get(pair);
-      ret = fin == null ? VarTypeProcessor.VAR_FINAL : fin.intValue();
+      ret = typeProcessor.getMapFinalVars().get(pair.toLong(), VarTypeProcessor.VAR_FINAL);
     }
 
     return ret;
   }
 
   public void setVarFinal(VarVersionPair pair, int finalType) {
-    typeProcessor.getMapFinalVars().put(pair, finalType);
+    typeProcessor.getMapFinalVars().put(pair.toLong(), finalType);
   }
 
   public Map<Integer, Integer> getMapOriginalVarIndices() {
@@ -291,7 +291,7 @@ public class IdentifierConverter implements NewClassNameBuilder {
     LinkedList<ClassWrapperNode> stackNode = new LinkedList<ClassWrapperNode>();
     LinkedList<Integer> stackIndex = new LinkedList<Integer>();
 
-    Set<ClassWrapperNode> setVisited = new HashSet<ClassWrapperNode>();
+    Set<ClassWrapperNode> setVisited = new LinkedHashSet<ClassWrapperNode>();
 
     for (ClassWrapperNode root : roots) {
       stackNode.add(root);
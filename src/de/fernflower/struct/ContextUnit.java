@@ -22,6 +22,7 @@ import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
 import de.fernflower.main.DecompilerContext;
+import de.fernflower.main.collectors.FlightRecorderEvents;
 import de.fernflower.main.extern.IFernflowerPreferences;
 import de.fernflower.main.extern.IResultSaver;
 import de.fernflower.struct.lazy.LazyLoader;
@@ -120,7 +121,10 @@ public class ContextUnit {
               if (DecompilerContext.getOption(IFernflowerPreferences.BYTECODE_SOURCE_MAPPING)) {
                 mapping = DecompilerContext.getBytecodeSourceMapper().getOriginalLinesMapping();
               }
+              Object event = FlightRecorderEvents.beginResultSave(cl.qualifiedName);
               resultSaver.saveClassFile(filename, cl.qualifiedName, entryName, content, mapping);
+              FlightRecorderEvents.endResultSave(event, content.length());
+              DecompilerContext.getLogger().classSaved(cl.qualifiedName, content);
             }
           }
         }
@@ -152,7 +156,10 @@ public class ContextUnit {
           String entryName = decompiledData.getClassEntryName(cl, classEntries.get(i));
           if (entryName != null) {
             String content = decompiledData.getClassContent(cl);
+            Object event = FlightRecorderEvents.beginResultSave(cl.qualifiedName);
             resultSaver.saveClassEntry(archivePath, filename, cl.qualifiedName, entryName, content);
+            FlightRecorderEvents.endResultSave(event, content == null ? 0 : content.length());
+            DecompilerContext.getLogger().classSaved(cl.qualifiedName, content);
           }
         }
 
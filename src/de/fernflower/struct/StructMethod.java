@@ -104,8 +104,8 @@ public class StructMethod extends StructMember {
 
   public void expandData() throws IOException {
     if (containsCode && !expanded) {
-      byte[] code = classStruct.getLoader().loadBytecode(this, codeFullLength);
-      seq = parseBytecode(new DataInputFullStream(code), codeLength, classStruct.getPool());
+      DataInputFullStream code = classStruct.getLoader().loadBytecodeStream(this, codeFullLength);
+      seq = parseBytecode(code, codeLength, classStruct.getPool());
       expanded = true;
     }
   }
@@ -119,9 +119,10 @@ public class StructMethod extends StructMember {
 
   @SuppressWarnings("AssignmentToForLoopParameter")
   private InstructionSequence parseBytecode(DataInputFullStream in, int length, ConstantPool pool) throws IOException {
-    VBStyleCollection<Instruction, Integer> instructions = new VBStyleCollection<Instruction, Integer>();
+    FullInstructionSequence seq = new FullInstructionSequence(classStruct.getBytecodeVersion(), length);
 
-    int bytecode_version = classStruct.getBytecodeVersion();
+    // no instruction has more operands than bytes
+    int[] ops = new int[length];
 
     for (int i = 0; i < length; ) {
 
@@ -137,29 +138,29 @@ public class StructMethod extends StructMember {
         opcode = in.readUnsignedByte();
       }
 
-      List<Integer> operands = new ArrayList<Integer>();
+      int opsCount = 0;
 
       if (opcode >= opc_iconst_m1 && opcode <= opc_iconst_5) {
-        operands.add(new Integer(opr_iconst[opcode - opc_iconst_m1]));
+        ops[opsCount++] = opr_iconst[opcode - opc_iconst_m1];
         opcode = opc_bipush;
       }
       else if (opcode >= opc_iload_0 && opcode <= opc_aload_3) {
-        operands.add(new Integer(opr_loadstore[opcode - opc_iload_0]));
+        ops[opsCount++] = opr_loadstore[opcode - opc_iload_0];
         opcode = opcs_load[(opcode - opc_iload_0) / 4];
       }
       else if (opcode >= opc_istore_0 && opcode <= opc_astore_3) {
-        operands.add(new Integer(opr_loadstore[opcode - opc_istore_0]));
+        ops[opsCount++] = opr_loadstore[opcode - opc_istore_0];
         opcode = opcs_store[(opcode - opc_istore_0) / 4];
       }
       else {
         switch (opcode) {
           case opc_bipush:
-            operands.add(new Integer(in.readByte()));
+            ops[opsCount++] = in.readByte();
             i++;
             break;
           case opc_ldc:
           case opc_newarray:
-            operands.add(new Integer(in.readUnsignedByte()));
+            ops[opsCount++] = in.readUnsignedByte();
             i++;
             break;
           case opc_sipush:
@@ -184,7 +185,7 @@ public class StructMethod extends StructMember {
             if (opcode != opc_sipush) {
               group = GROUP_JUMP;
             }
-            operands.add(new Integer(in.readShort()));
+            ops[opsCount++] = in.readShort();
             i += 2;
             break;
           case opc_ldc_w:
@@ -200,7 +201,7 @@ public class StructMethod extends StructMember {
           case opc_anewarray:
           case opc_checkcast:
           case opc_instanceof:
-            operands.add(new Integer(in.readUnsignedShort()));
+            ops[opsCount++] = in.readUnsignedShort();
             i += 2;
             if (opcode >= opc_getstatic && opcode <= opc_putfield) {
               group = GROUP_FIELDACCESS;
@@ -211,7 +212,7 @@ public class StructMethod extends StructMember {
             break;
           case opc_invokedynamic:
             if (classStruct.isVersionGE_1_7()) { // instruction unused in Java 6 and before
-              operands.add(new Integer(in.readUnsignedShort()));
+              ops[opsCount++] = in.readUnsignedShort();
               in.discard(2);
               group = GROUP_INVOCATION;
               i += 4;
@@ -229,11 +230,11 @@ public class StructMethod extends StructMember {
           case opc_astore:
           case opc_ret:
             if (wide) {
-              operands.add(new Integer(in.readUnsignedShort()));
+              ops[opsCount++] = in.readUnsignedShort();
               i += 2;
             }
             else {
-              operands.add(new Integer(in.readUnsignedByte()));
+              ops[opsCount++] = in.readUnsignedByte();
               i++;
             }
             if (opcode == opc_ret) {
@@ -242,49 +243,49 @@ public class StructMethod extends StructMember {
             break;
           case opc_iinc:
             if (wide) {
-              operands.add(new Integer(in.readUnsignedShort()));
-              operands.add(new Integer(in.readShort()));
+              ops[opsCount++] = in.readUnsignedShort();
+              ops[opsCount++] = in.readShort();
               i += 4;
             }
             else {
-              operands.add(new Integer(in.readUnsignedByte()));
-              operands.add(new Integer(in.readByte()));
+              ops[opsCount++] = in.readUnsignedByte();
+              ops[opsCount++] = in.readByte();
               i += 2;
             }
             break;
           case opc_goto_w:
           case opc_jsr_w:
             opcode = opcode == opc_jsr_w ? opc_jsr : opc_goto;
-            operands.add(new Integer(in.readInt()));
+            ops[opsCount++] = in.readInt();
             group = GROUP_JUMP;
             i += 4;
             break;
           case opc_invokeinterface:
-            operands.add(new Integer(in.readUnsignedShort()));
-            operands.add(new Integer(in.readUnsignedByte()));
+            ops[opsCount++] = in.readUnsignedShort();
+            ops[opsCount++] = in.readUnsignedByte();
             in.discard(1);
             group = GROUP_INVOCATION;
             i += 4;
             break;
           case opc_multianewarray:
-            operands.add(new Integer(in.readUnsignedShort()));
-            operands.add(new Integer(in.readUnsignedByte()));
+            ops[opsCount++] = in.readUnsignedShort();
+            ops[opsCount++] = in.readUnsignedByte();
             i += 3;
             break;
           case opc_tableswitch:
             in.discard((4 - (i + 1) % 4) % 4);
             i += ((4 - (i + 1) % 4) % 4); // padding
-            operands.add(new Integer(in.readInt()));
+            ops[opsCount++] = in.readInt();
             i += 4;
             int low = in.readInt();
-            operands.add(new Integer(low));
+            ops[opsCount++] = low;
             i += 4;
             int high = in.readInt();
-            operands.add(new Integer(high));
+            ops[opsCount++] = high;
             i += 4;
 
             for (int j = 0; j < high - low + 1; j++) {
-              operands.add(new Integer(in.readInt()));
+              ops[opsCount++] = in.readInt();
               i += 4;
             }
             group = GROUP_SWITCH;
@@ -293,16 +294,16 @@ public class StructMethod extends StructMember {
           case opc_lookupswitch:
             in.discard((4 - (i + 1) % 4) % 4);
             i += ((4 - (i + 1) % 4) % 4); // padding
-            operands.add(new Integer(in.readInt()));
+            ops[opsCount++] = in.readInt();
             i += 4;
             int npairs = in.readInt();
-            operands.add(new Integer(npairs));
+            ops[opsCount++] = npairs;
             i += 4;
 
             for (int j = 0; j < npairs; j++) {
-              operands.add(new Integer(in.readInt()));
+              ops[opsCount++] = in.readInt();
               i += 4;
-              operands.add(new Integer(in.readInt()));
+              ops[opsCount++] = in.readInt();
               i += 4;
             }
             group = GROUP_SWITCH;
@@ -318,14 +319,7 @@ public class StructMethod extends StructMember {
         }
       }
 
-      int[] ops = new int[operands.size()];
-      for (int j = 0; j < operands.size(); j++) {
-        ops[j] = operands.get(j).intValue();
-      }
-
-      Instruction instr = ConstantsUtil.getInstructionInstance(opcode, wide, group, bytecode_version, ops);
-
-      instructions.addWithKey(instr, new Integer(offset));
+      seq.addInstruction(opcode, group, wide, offset, ops, opsCount);
 
       i++;
     }
@@ -349,19 +343,7 @@ public class StructMethod extends StructMember {
       lstHandlers.add(handler);
     }
 
-    InstructionSequence seq = new FullInstructionSequence(instructions, new ExceptionTable(lstHandlers));
-
-    // initialize instructions
-    int i = seq.length() - 1;
-    seq.setPointer(i);
-
-    while (i >= 0) {
-      Instruction instr = seq.getInstr(i--);
-      if (instr.group != GROUP_GENERAL) {
-        instr.initInstruction(seq);
-      }
-      seq.addToPointer(-1);
-    }
+    seq.setExceptionTable(new ExceptionTable(lstHandlers));
 
     return seq;
   }
@@ -382,6 +364,10 @@ public class StructMethod extends StructMember {
     return containsCode;
   }
 
+  public int getCodeLength() {
+    return codeLength;
+  }
+
   public int getLocalVariables() {
     return localVariables;
   }
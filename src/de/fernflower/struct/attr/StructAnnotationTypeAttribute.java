@@ -15,7 +15,6 @@
  */
 package de.fernflower.struct.attr;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -23,6 +22,7 @@ import java.util.List;
 
 import de.fernflower.modules.decompiler.exps.AnnotationExprent;
 import de.fernflower.struct.consts.ConstantPool;
+import de.fernflower.util.DataInputFullStream;
 
 public class StructAnnotationTypeAttribute extends StructGeneralAttribute {
 
@@ -65,7 +65,7 @@ public class StructAnnotationTypeAttribute extends StructGeneralAttribute {
 
   @Override
   public void initContent(ConstantPool pool) throws IOException {
-    DataInputStream data = stream();
+    DataInputFullStream data = stream();
 
     int len = data.readUnsignedByte();
     if (len > 0) {
@@ -82,7 +82,7 @@ public class StructAnnotationTypeAttribute extends StructGeneralAttribute {
     }
   }
 
-  private static AnnotationLocation parseAnnotationLocation(DataInputStream data) throws IOException {
+  private static AnnotationLocation parseAnnotationLocation(DataInputFullStream data) throws IOException {
     AnnotationLocation ann_location = new AnnotationLocation();
 
     // target type
@@ -15,11 +15,11 @@
  */
 package de.fernflower.struct.attr;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 
 import de.fernflower.struct.consts.ConstantPool;
 import de.fernflower.struct.consts.LinkConstant;
+import de.fernflower.util.DataInputFullStream;
 
 public class StructEnclosingMethodAttribute extends StructGeneralAttribute {
 
@@ -29,7 +29,7 @@ public class StructEnclosingMethodAttribute extends StructGeneralAttribute {
 
   @Override
   public void initContent(ConstantPool pool) throws IOException {
-    DataInputStream data = stream();
+    DataInputFullStream data = stream();
     int classIndex = data.readUnsignedShort();
     int methodIndex = data.readUnsignedShort();
 
@@ -15,13 +15,13 @@
  */
 package de.fernflower.struct.attr;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import de.fernflower.struct.consts.ConstantPool;
+import de.fernflower.util.DataInputFullStream;
 
 public class StructInnerClassesAttribute extends StructGeneralAttribute {
 
@@ -30,7 +30,7 @@ public class StructInnerClassesAttribute extends StructGeneralAttribute {
 
   @Override
   public void initContent(ConstantPool pool) throws IOException {
-    DataInputStream data = stream();
+    DataInputFullStream data = stream();
 
     int len = data.readUnsignedShort();
     if (len > 0) {
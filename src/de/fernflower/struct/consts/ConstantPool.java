@@ -15,7 +15,7 @@
  */
 package de.fernflower.struct.consts;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -38,7 +38,7 @@ public class ConstantPool implements NewClassNameBuilder {
   private PoolInterceptor interceptor;
 
 
-  public ConstantPool(DataInputStream in) throws IOException {
+  public ConstantPool(DataInput in) throws IOException {
     int size = in.readUnsignedShort();
     int[] pass = new int[size];
 
@@ -108,7 +108,7 @@ public class ConstantPool implements NewClassNameBuilder {
     interceptor = DecompilerContext.getPoolInterceptor();
   }
 
-  public static void skipPool(DataInputFullStream in) throws IOException {
+  public static void skipPool(DataInput in) throws IOException {
     int size = in.readUnsignedShort();
 
     for (int i = 1; i < size; i++) {
@@ -123,20 +123,20 @@ public class ConstantPool implements NewClassNameBuilder {
         case CodeConstants.CONSTANT_InterfaceMethodref:
         case CodeConstants.CONSTANT_NameAndType:
         case CodeConstants.CONSTANT_InvokeDynamic:
-          in.discard(4);
+          DataInputFullStream.discard(in, 4);
           break;
         case CodeConstants.CONSTANT_Long:
         case CodeConstants.CONSTANT_Double:
-          in.discard(8);
+          DataInputFullStream.discard(in, 8);
           i++;
           break;
         case CodeConstants.CONSTANT_Class:
         case CodeConstants.CONSTANT_String:
         case CodeConstants.CONSTANT_MethodType:
-          in.discard(2);
+          DataInputFullStream.discard(in, 2);
           break;
         case CodeConstants.CONSTANT_MethodHandle:
-          in.discard(3);
+          DataInputFullStream.discard(in, 3);
       }
     }
   }
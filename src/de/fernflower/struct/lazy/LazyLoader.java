@@ -15,10 +15,13 @@
  */
 package de.fernflower.struct.lazy;
 
+import java.io.DataInput;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import de.fernflower.main.DecompilerContext;
+import de.fernflower.main.collectors.FlightRecorderEvents;
 import de.fernflower.main.extern.IBytecodeProvider;
 import de.fernflower.struct.StructMethod;
 import de.fernflower.struct.attr.StructGeneralAttribute;
@@ -65,6 +68,23 @@ public class LazyLoader {
   }
 
   public byte[] loadBytecode(StructMethod mt, int codeFullLength) {
+    try {
+      DataInputFullStream in = loadBytecodeStream(mt, codeFullLength);
+      if (in == null) return null;
+
+      byte[] code = new byte[codeFullLength];
+      in.readFull(code);
+      return code;
+    }
+    catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Same as {@link #loadBytecode(StructMethod, int)}, but reads the code in place instead of copying it.
+   */
+  public DataInputFullStream loadBytecodeStream(StructMethod mt, int codeFullLength) {
     String className = mt.getClassStruct().qualifiedName;
 
     try {
@@ -118,9 +138,7 @@ public class LazyLoader {
             }
 
             in.discard(12);
-            byte[] code = new byte[codeFullLength];
-            in.readFull(code);
-            return code;
+            return in.slice(codeFullLength);
           }
 
           break;
@@ -137,21 +155,34 @@ public class LazyLoader {
     }
   }
 
+  public byte[] getClassBytes(String qualifiedClassName) throws IOException {
+    Link link = mapClassLinks.get(qualifiedClassName);
+    return link == null ? null : getBytecode(link.externalPath, link.internalPath);
+  }
+
   public DataInputFullStream getClassStream(String externalPath, String internalPath) throws IOException {
-    byte[] bytes = provider.getBytecode(externalPath, internalPath);
+    byte[] bytes = getBytecode(externalPath, internalPath);
+    DecompilerContext.getLogger().bytecodeLoaded(externalPath, internalPath, bytes.length);
     return new DataInputFullStream(bytes);
   }
 
+  private byte[] getBytecode(String externalPath, String internalPath) throws IOException {
+    Object event = FlightRecorderEvents.beginBytecodeLoad(externalPath, internalPath);
+    byte[] bytes = provider.getBytecode(externalPath, internalPath);
+    FlightRecorderEvents.endBytecodeLoad(event, bytes == null ? 0 : bytes.length);
+    return bytes;
+  }
+
   public DataInputFullStream getClassStream(String qualifiedClassName) throws IOException {
     Link link = mapClassLinks.get(qualifiedClassName);
     return link == null ? null : getClassStream(link.externalPath, link.internalPath);
   }
 
-  public static void skipAttributes(DataInputFullStream in) throws IOException {
+  public static void skipAttributes(DataInput in) throws IOException {
     int length = in.readUnsignedShort();
     for (int i = 0; i < length; i++) {
-      in.discard(2);
-      in.discard(in.readInt());
+      DataInputFullStream.discard(in, 2);
+      DataInputFullStream.discard(in, in.readInt());
     }
   }
 
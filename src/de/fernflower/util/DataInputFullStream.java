@@ -15,41 +15,230 @@
  */
 package de.fernflower.util;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
+import java.io.DataInput;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.UTFDataFormatException;
 
-public class DataInputFullStream extends DataInputStream {
+/**
+ * Big-endian reader over a byte array. Reads index the array directly, there is no stream underneath and
+ * nothing to close.
+ */
+public final class DataInputFullStream implements DataInput {
+
+  private final byte[] buffer;
+  private final int limit;
+  private int position;
 
   public DataInputFullStream(byte[] bytes) {
-    super(new ByteArrayInputStream(bytes));
+    this(bytes, 0, bytes.length);
+  }
+
+  public DataInputFullStream(byte[] bytes, int offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > bytes.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    buffer = bytes;
+    position = offset;
+    limit = offset + length;
+  }
+
+  /**
+   * A reader over the next length bytes, sharing the array. This reader skips them.
+   */
+  public DataInputFullStream slice(int length) throws IOException {
+    require(length);
+    DataInputFullStream slice = new DataInputFullStream(buffer, position, length);
+    position += length;
+    return slice;
   }
 
   public int readFull(byte[] b) throws IOException {
     int length = b.length;
-    byte[] temp = new byte[length];
-    int pos = 0;
-
-    int bytes_read;
-    while (true) {
-      bytes_read = read(temp, 0, length - pos);
-      if (bytes_read == -1) {
-        return -1;
+    int count = Math.min(length, limit - position);
+    System.arraycopy(buffer, position, b, 0, count);
+    position += count;
+    return count == length ? length : -1;
+  }
+
+  public void discard(int n) throws IOException {
+    if (n < 0 || n > limit - position) {
+      throw new IOException("Skip failed");
+    }
+    position += n;
+  }
+
+  /**
+   * Skips exactly n bytes of any input, fails like {@link #discard(int)} when there are fewer left.
+   */
+  public static void discard(DataInput in, int n) throws IOException {
+    if (in instanceof DataInputFullStream) {
+      ((DataInputFullStream)in).discard(n);
+      return;
+    }
+
+    while (n > 0) {
+      int skipped = in.skipBytes(n);
+      if (skipped <= 0) {
+        throw new IOException("Skip failed");
+      }
+      n -= skipped;
+    }
+  }
+
+  public int available() {
+    return limit - position;
+  }
+
+  public void close() {
+  }
+
+  public void readFully(byte[] b) throws IOException {
+    readFully(b, 0, b.length);
+  }
+
+  public void readFully(byte[] b, int off, int len) throws IOException {
+    require(len);
+    System.arraycopy(buffer, position, b, off, len);
+    position += len;
+  }
+
+  public int skipBytes(int n) {
+    int count = Math.max(0, Math.min(n, limit - position));
+    position += count;
+    return count;
+  }
+
+  public boolean readBoolean() throws IOException {
+    return readUnsignedByte() != 0;
+  }
+
+  public byte readByte() throws IOException {
+    require(1);
+    return buffer[position++];
+  }
+
+  public int readUnsignedByte() throws IOException {
+    require(1);
+    return buffer[position++] & 0xFF;
+  }
+
+  public short readShort() throws IOException {
+    return (short)readUnsignedShort();
+  }
+
+  public int readUnsignedShort() throws IOException {
+    require(2);
+    int value = ((buffer[position] & 0xFF) << 8) | (buffer[position + 1] & 0xFF);
+    position += 2;
+    return value;
+  }
+
+  public char readChar() throws IOException {
+    return (char)readUnsignedShort();
+  }
+
+  public int readInt() throws IOException {
+    require(4);
+    byte[] b = buffer;
+    int p = position;
+    position = p + 4;
+    return (b[p] << 24) | ((b[p + 1] & 0xFF) << 16) | ((b[p + 2] & 0xFF) << 8) | (b[p + 3] & 0xFF);
+  }
+
+  public long readLong() throws IOException {
+    return ((long)readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+  }
+
+  public float readFloat() throws IOException {
+    return Float.intBitsToFloat(readInt());
+  }
+
+  public double readDouble() throws IOException {
+    return Double.longBitsToDouble(readLong());
+  }
+
+  /**
+   * Reads bytes as ISO-8859-1 up to a line terminator, the way DataInputStream does. Returns null at the end.
+   */
+  public String readLine() {
+    if (position == limit) {
+      return null;
+    }
+
+    byte[] b = buffer;
+    int start = position;
+    int p = start;
+    while (p < limit && b[p] != '\n' && b[p] != '\r') {
+      p++;
+    }
+
+    char[] chars = new char[p - start];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char)(b[start + i] & 0xFF);
+    }
+
+    if (p < limit) {
+      if (b[p] == '\r' && p + 1 < limit && b[p + 1] == '\n') {
+        p++;
       }
+      p++;
+    }
+    position = p;
+
+    return new String(chars);
+  }
+
+  /**
+   * Modified UTF-8 as written by DataOutput.writeUTF and used by class files.
+   */
+  public String readUTF() throws IOException {
+    int length = readUnsignedShort();
+    require(length);
 
-      System.arraycopy(temp, 0, b, pos, bytes_read);
-      pos += bytes_read;
-      if (pos == length) {
-        break;
+    byte[] b = buffer;
+    int p = position;
+    int end = p + length;
+    char[] chars = new char[length];
+    int count = 0;
+
+    // ASCII only strings are the rule
+    while (p < end && b[p] >= 0) {
+      chars[count++] = (char)b[p++];
+    }
+
+    while (p < end) {
+      int c = b[p] & 0xFF;
+      if (c < 0x80) {
+        chars[count++] = (char)c;
+        p++;
+      }
+      else if ((c & 0xE0) == 0xC0) {
+        if (p + 1 >= end || (b[p + 1] & 0xC0) != 0x80) {
+          throw new UTFDataFormatException("malformed input around byte " + (p - position));
+        }
+        chars[count++] = (char)(((c & 0x1F) << 6) | (b[p + 1] & 0x3F));
+        p += 2;
+      }
+      else if ((c & 0xF0) == 0xE0) {
+        if (p + 2 >= end || (b[p + 1] & 0xC0) != 0x80 || (b[p + 2] & 0xC0) != 0x80) {
+          throw new UTFDataFormatException("malformed input around byte " + (p - position));
+        }
+        chars[count++] = (char)(((c & 0x0F) << 12) | ((b[p + 1] & 0x3F) << 6) | (b[p + 2] & 0x3F));
+        p += 3;
+      }
+      else {
+        throw new UTFDataFormatException("malformed input around byte " + (p - position));
       }
     }
 
-    return length;
+    position = end;
+    return new String(chars, 0, count);
   }
 
-  public void discard(int n) throws IOException {
-    if (super.skip(n) != n) {
-      throw new IOException("Skip failed");
+  private void require(int n) throws EOFException {
+    if (n > limit - position) {
+      throw new EOFException();
     }
   }
 }
@@ -28,7 +28,7 @@ import de.fernflower.modules.decompiler.vars.VarVersionEdge;
 import de.fernflower.modules.decompiler.vars.VarVersionNode;
 import de.fernflower.modules.decompiler.vars.VarVersionsGraph;
 import de.fernflower.struct.StructMethod;
-import de.fernflower.util.FastSparseSetFactory.FastSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSet;
 
 public class DotExporter {
   private static final String DOTS_FOLDER = System.getProperty("DOT_EXPORT_DIR", null);
@@ -95,7 +95,7 @@ public class DotExporter {
         // Add extra edge data
         // TODO do same for predecessors?
         for (Entry<StatEdge, String> entry : extraData.entrySet()) {
-          if (edge.getSource().id.equals(entry.getKey().getSource().id) && edge.getDestination().id.equals(entry.getKey().getDestination().id)) {
+          if (edge.getSource().id == entry.getKey().getSource().id && edge.getDestination().id == entry.getKey().getDestination().id) {
             edgeType = edgeType == null ? entry.getValue() : edgeType + " (" + entry.getValue() + ")";
           }
         }
@@ -456,9 +456,9 @@ public class DotExporter {
       if (vars != null && vars.containsKey(block.id)) {
         SFormsFastMapDirect map = vars.get(block.id);
 
-        List<Entry<Integer, FastSparseSet<Integer>>> lst = map.entryList();
+        List<Entry<Integer, IntSparseSet>> lst = map.entryList();
         if (lst != null) {
-          for (Entry<Integer, FastSparseSet<Integer>> entry : lst) {
+          for (Entry<Integer, IntSparseSet> entry : lst) {
             label.append("\\n").append(entry.getKey());
             Set<Integer> set = entry.getValue().toPlainSet();
             label.append("=").append(set.toString());
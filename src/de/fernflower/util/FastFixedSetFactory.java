@@ -17,8 +17,8 @@ package de.fernflower.util;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -210,7 +210,7 @@ public class FastFixedSetFactory<E> {
     }
 
     public Set<E> toPlainSet() {
-      return toPlainCollection(new HashSet<E>());
+      return toPlainCollection(new LinkedHashSet<E>());
     }
 
     public List<E> toPlainList() {
@@ -18,6 +18,7 @@ package de.fernflower.util;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class FastSetFactory<E> {
@@ -367,7 +368,7 @@ public class FastSetFactory<E> {
     }
 
     public Set<E> toPlainSet() {
-      HashSet<E> set = new HashSet<E>();
+      HashSet<E> set = new LinkedHashSet<E>();
 
       int[] intdata = data;
 
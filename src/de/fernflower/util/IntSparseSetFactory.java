@@ -0,0 +1,463 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.util;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Sparse bit sets of non-negative ints, the primitive counterpart of {@link FastSparseSetFactory} used for the
+ * version sets of the SSA constructors. As there, an element gets the next free bit position the first time the
+ * factory sees it and the sets iterate in that order; the position is looked up in an int array instead of a
+ * collection keyed by boxed values.
+ */
+public class IntSparseSetFactory {
+
+  // element -> bit position + 1, 0 for elements not seen yet
+  private int[] positions;
+
+  // bit position -> element
+  private int[] elements;
+
+  private int count;
+
+  /**
+   * Creates a factory knowing the elements 0 to {@code initialCount - 1}, in this order.
+   */
+  public IntSparseSetFactory(int initialCount) {
+    int capacity = Math.max(initialCount, 32);
+    positions = new int[capacity];
+    elements = new int[capacity];
+
+    for (int i = 0; i < initialCount; i++) {
+      addElement(i);
+    }
+  }
+
+  private int getPosition(int element) {
+    if (element >= positions.length) {
+      int[] newpositions = new int[Math.max(element + 1, positions.length * 2)];
+      System.arraycopy(positions, 0, newpositions, 0, positions.length);
+      positions = newpositions;
+    }
+
+    int position = positions[element] - 1;
+    if (position < 0) {
+      position = addElement(element);
+    }
+    return position;
+  }
+
+  private int addElement(int element) {
+    if (count == elements.length) {
+      int[] newelements = new int[count * 2];
+      System.arraycopy(elements, 0, newelements, 0, count);
+      elements = newelements;
+    }
+
+    elements[count] = element;
+    positions[element] = count + 1;
+    return count++;
+  }
+
+  public IntSparseSet spawnEmptySet() {
+    return new IntSparseSet(this);
+  }
+
+  public int getLastBlock() {
+    return count == 0 ? -1 : (count - 1) >>> 5;
+  }
+
+  public static class IntSparseSet {
+    public static final IntSparseSet[] EMPTY_ARRAY = new IntSparseSet[0];
+
+    private final IntSparseSetFactory factory;
+
+    private int[] data;
+    private int[] next;
+
+    // held by several SFormsFastMapDirect copies, which copy it before any change
+    private boolean shared;
+
+    // held by maps created with the SFormsFastMapDirect copy constructor, which change it in place for all of them
+    private boolean linked;
+
+    private IntSparseSet(IntSparseSetFactory factory) {
+      this.factory = factory;
+
+      int length = factory.getLastBlock() + 1;
+      this.data = new int[length];
+      this.next = new int[length];
+    }
+
+    private IntSparseSet(IntSparseSetFactory factory, int[] data, int[] next) {
+      this.factory = factory;
+      this.data = data;
+      this.next = next;
+    }
+
+    public IntSparseSet getCopy() {
+
+      int arrlength = data.length;
+      int[] cpdata = new int[arrlength];
+      int[] cpnext = new int[arrlength];
+
+      System.arraycopy(data, 0, cpdata, 0, arrlength);
+      System.arraycopy(next, 0, cpnext, 0, arrlength);
+
+      return new IntSparseSet(factory, cpdata, cpnext);
+    }
+
+    /**
+     * Returns true if the set is held by several maps and must not be changed in place.
+     */
+    public boolean isShared() {
+      return shared;
+    }
+
+    void setShared() {
+      shared = true;
+    }
+
+    boolean isLinked() {
+      return linked;
+    }
+
+    void setLinked() {
+      linked = true;
+    }
+
+    private int[] ensureCapacity(int index) {
+
+      int newlength = data.length;
+      if (newlength == 0) {
+        newlength = 1;
+      }
+
+      while (newlength <= index) {
+        newlength *= 2;
+      }
+
+      int[] newdata = new int[newlength];
+      System.arraycopy(data, 0, newdata, 0, data.length);
+      data = newdata;
+
+      int[] newnext = new int[newlength];
+      System.arraycopy(next, 0, newnext, 0, next.length);
+      next = newnext;
+
+      return newdata;
+    }
+
+    public void add(int element) {
+      int position = factory.getPosition(element);
+
+      int block = position >>> 5;
+      if (block >= data.length) {
+        ensureCapacity(block);
+      }
+
+      data[block] |= 1 << position;
+
+      changeNext(next, block, next[block], block);
+    }
+
+    public void remove(int element) {
+      int position = factory.getPosition(element);
+
+      int block = position >>> 5;
+      if (block < data.length) {
+        data[block] &= ~(1 << position);
+
+        if (data[block] == 0) {
+          changeNext(next, block, block, next[block]);
+        }
+      }
+    }
+
+    public boolean contains(int element) {
+      int position = factory.getPosition(element);
+
+      int block = position >>> 5;
+      return block < data.length && (data[block] & (1 << position)) != 0;
+    }
+
+    public boolean contains(IntSparseSet set) {
+      int[] extdata = set.data;
+      int[] intdata = data;
+
+      int minlength = Math.min(extdata.length, intdata.length);
+
+      for (int i = minlength - 1; i >= 0; i--) {
+        if ((extdata[i] & ~intdata[i]) != 0) {
+          return false;
+        }
+      }
+
+      for (int i = extdata.length - 1; i >= minlength; i--) {
+        if (extdata[i] != 0) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    private void setNext() {
+
+      int link = 0;
+      for (int i = data.length - 1; i >= 0; i--) {
+        next[i] = link;
+        if (data[i] != 0) {
+          link = i;
+        }
+      }
+    }
+
+    private static void changeNext(int[] arrnext, int key, int oldnext, int newnext) {
+      for (int i = key - 1; i >= 0; i--) {
+        if (arrnext[i] == oldnext) {
+          arrnext[i] = newnext;
+        }
+        else {
+          break;
+        }
+      }
+    }
+
+    public void union(IntSparseSet set) {
+
+      int[] extdata = set.data;
+      int[] extnext = set.next;
+      int[] intdata = data;
+      int intlength = intdata.length;
+
+      int pointer = 0;
+      do {
+        if (pointer >= intlength) {
+          intdata = ensureCapacity(extdata.length - 1);
+        }
+
+        boolean nextrec = (intdata[pointer] == 0);
+        intdata[pointer] |= extdata[pointer];
+
+        if (nextrec) {
+          changeNext(next, pointer, next[pointer], pointer);
+        }
+
+        pointer = extnext[pointer];
+      }
+      while (pointer != 0);
+    }
+
+    public void intersection(IntSparseSet set) {
+      int[] extdata = set.data;
+      int[] intdata = data;
+
+      int minlength = Math.min(extdata.length, intdata.length);
+
+      for (int i = minlength - 1; i >= 0; i--) {
+        intdata[i] &= extdata[i];
+      }
+
+      for (int i = intdata.length - 1; i >= minlength; i--) {
+        intdata[i] = 0;
+      }
+
+      setNext();
+    }
+
+    public void complement(IntSparseSet set) {
+
+      int[] extdata = set.data;
+      int[] intdata = data;
+      int extlength = extdata.length;
+
+      int pointer = 0;
+      do {
+        if (pointer >= extlength) {
+          break;
+        }
+
+        intdata[pointer] &= ~extdata[pointer];
+        if (intdata[pointer] == 0) {
+          changeNext(next, pointer, pointer, next[pointer]);
+        }
+
+        pointer = next[pointer];
+      }
+      while (pointer != 0);
+    }
+
+    public boolean equals(Object o) {
+      if (o == this) return true;
+      if (o == null || !(o instanceof IntSparseSet)) return false;
+
+      int[] longdata = ((IntSparseSet)o).data;
+      int[] shortdata = data;
+
+      if (data.length > longdata.length) {
+        shortdata = longdata;
+        longdata = data;
+      }
+
+      for (int i = shortdata.length - 1; i >= 0; i--) {
+        if (shortdata[i] != longdata[i]) {
+          return false;
+        }
+      }
+
+      for (int i = longdata.length - 1; i >= shortdata.length; i--) {
+        if (longdata[i] != 0) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    public int hashCode() {
+      int[] intdata = data;
+
+      // trailing zero blocks are ignored, as in equals
+      int last = intdata.length - 1;
+      while (last >= 0 && intdata[last] == 0) {
+        last--;
+      }
+
+      int hash = 1;
+      for (int i = 0; i <= last; i++) {
+        hash = 31 * hash + intdata[i];
+      }
+      return hash;
+    }
+
+    public int getCardinality() {
+
+      boolean found = false;
+      int[] intdata = data;
+
+      for (int i = intdata.length - 1; i >= 0; i--) {
+        int block = intdata[i];
+        if (block != 0) {
+          if (found) {
+            return 2;
+          }
+          else {
+            if ((block & (block - 1)) == 0) {
+              found = true;
+            }
+            else {
+              return 2;
+            }
+          }
+        }
+      }
+
+      return found ? 1 : 0;
+    }
+
+    public boolean isEmpty() {
+      return data.length == 0 || (next[0] == 0 && data[0] == 0);
+    }
+
+    public IntSparseSetIterator iterator() {
+      return new IntSparseSetIterator(this);
+    }
+
+    public Set<Integer> toPlainSet() {
+      HashSet<Integer> set = new LinkedHashSet<Integer>();
+
+      int[] intdata = data;
+      int[] elements = factory.elements;
+
+      int size = Math.min(intdata.length * 32, factory.count);
+
+      for (int i = size - 1; i >= 0; i--) {
+        if ((intdata[i >>> 5] & (1 << i)) != 0) {
+          set.add(elements[i]);
+        }
+      }
+
+      return set;
+    }
+
+    public String toString() {
+      return toPlainSet().toString();
+    }
+  }
+
+  /**
+   * Iterates the elements of a set in the order of their bit positions, without boxing them.
+   */
+  public static class IntSparseSetIterator {
+
+    private final int[] elements;
+    private final int[] data;
+    private final int[] next;
+
+    private int pointer = -1;
+
+    private IntSparseSetIterator(IntSparseSet set) {
+      elements = set.factory.elements;
+      data = set.data;
+      next = set.next;
+      pointer = getNextIndex(-1);
+    }
+
+    private int getNextIndex(int index) {
+
+      index++;
+      int bindex = index >>> 5;
+      int dindex = index & 0x1F;
+
+      while (bindex < data.length) {
+        int block = data[bindex];
+
+        if (block != 0) {
+          block >>>= dindex;
+          while (dindex < 32) {
+            if ((block & 1) != 0) {
+              return (bindex << 5) + dindex;
+            }
+            block >>>= 1;
+            dindex++;
+          }
+        }
+
+        dindex = 0;
+        bindex = next[bindex];
+
+        if (bindex == 0) {
+          break;
+        }
+      }
+
+      return -1;
+    }
+
+    public boolean hasNext() {
+      return pointer >= 0;
+    }
+
+    public int next() {
+      int element = elements[pointer];
+      pointer = getNextIndex(pointer);
+      return element;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2000-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fernflower.util;
+
+/**
+ * Open addressing map from long to int keys, meant for packed keys such as
+ * {@link de.fernflower.modules.decompiler.vars.VarVersionPair#toLong()}. Keys are spread with a multiplicative hash,
+ * collisions are resolved by linear probing. Lookups return a caller supplied value for missing keys, so nothing
+ * gets boxed.
+ */
+public class LongIntHashMap {
+
+  private long[] keys;
+  private int[] values;
+  private boolean[] used;
+
+  private int shift;
+  private int size;
+
+  public LongIntHashMap() {
+    this(16);
+  }
+
+  public LongIntHashMap(int expectedSize) {
+    int capacity = 4;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    used = new boolean[capacity];
+    shift = 64 - Integer.numberOfTrailingZeros(capacity);
+  }
+
+  private int slot(long key) {
+    return (int)((key * 0x9E3779B97F4A7C15L) >>> shift);
+  }
+
+  private int find(long key) {
+    int mask = keys.length - 1;
+    for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public int get(long key, int missingValue) {
+    int i = find(key);
+    return i < 0 ? missingValue : values[i];
+  }
+
+  public boolean containsKey(long key) {
+    return find(key) >= 0;
+  }
+
+  public void put(long key, int value) {
+    int mask = keys.length - 1;
+    int i = slot(key);
+    for (; used[i]; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        values[i] = value;
+        return;
+      }
+    }
+
+    used[i] = true;
+    keys[i] = key;
+    values[i] = value;
+
+    if (++size * 2 > keys.length) {
+      rehash(keys.length * 2);
+    }
+  }
+
+  public int remove(long key, int missingValue) {
+    int i = find(key);
+    if (i < 0) {
+      return missingValue;
+    }
+    int value = values[i];
+
+    // shift back the following entries of the probe run, so that lookups need no tombstones
+    int mask = keys.length - 1;
+    int gap = i;
+    for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+      if (((j - slot(keys[j])) & mask) >= ((j - gap) & mask)) {
+        keys[gap] = keys[j];
+        values[gap] = values[j];
+        gap = j;
+      }
+    }
+    used[gap] = false;
+    size--;
+
+    return value;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+
+    allocate(capacity);
+
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int j = slot(oldKeys[i]);
+        while (used[j]) {
+          j = (j + 1) & mask;
+        }
+        used[j] = true;
+        keys[j] = oldKeys[i];
+        values[j] = oldValues[i];
+      }
+    }
+  }
+}
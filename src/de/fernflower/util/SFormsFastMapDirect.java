@@ -20,15 +20,24 @@ import java.util.List;
 import java.util.Map.Entry;
 
 import de.fernflower.modules.decompiler.exps.VarExprent;
-import de.fernflower.util.FastSparseSetFactory.FastSparseSet;
+import de.fernflower.util.IntSparseSetFactory.IntSparseSet;
 
 import java.util.Set;
 
+/**
+ * Map from variable index to a set of versions.
+ * <p>
+ * A map created with the copy constructor shares its sets with the original, changes made in place are visible
+ * through both of them. {@link #getCopy()} creates an independent map: it shares the sets with the original too,
+ * but the two maps copy a set before changing it (copy on write). Sets handed out by {@link #get(int)} and
+ * {@link #entryList()} may be held by other maps and must not be changed by the caller, sets passed to
+ * {@link #put(int, IntSparseSet)} are taken over by the map.
+ */
 public class SFormsFastMapDirect {
 
   private int size;
 
-  @SuppressWarnings("unchecked") private FastSparseSet<Integer>[][] elements = new FastSparseSet[3][];
+  private IntSparseSet[][] elements = new IntSparseSet[3][];
 
   private int[][] next = new int[3][];
 
@@ -39,8 +48,7 @@ public class SFormsFastMapDirect {
   private SFormsFastMapDirect(boolean initialize) {
     if (initialize) {
       for (int i = 2; i >= 0; i--) {
-        @SuppressWarnings("unchecked") FastSparseSet<Integer>[] empty = FastSparseSet.EMPTY_ARRAY;
-        elements[i] = empty;
+        elements[i] = IntSparseSet.EMPTY_ARRAY;
         next[i] = InterpreterUtil.EMPTY_INT_ARRAY;
       }
     }
@@ -48,21 +56,38 @@ public class SFormsFastMapDirect {
 
   public SFormsFastMapDirect(SFormsFastMapDirect map) {
     for (int i = 2; i >= 0; i--) {
-      FastSparseSet<Integer>[] arr = map.elements[i];
+      IntSparseSet[] arr = map.elements[i];
       int[] arrnext = map.next[i];
 
       int length = arr.length;
-      @SuppressWarnings("unchecked") FastSparseSet<Integer>[] arrnew = new FastSparseSet[length];
-      int[] arrnextnew = new int[length];
 
-      System.arraycopy(arr, 0, arrnew, 0, length);
-      System.arraycopy(arrnext, 0, arrnextnew, 0, length);
+      if (length > 0) {
+        IntSparseSet[] arrnew = new IntSparseSet[length];
+        int[] arrnextnew = new int[length];
 
-      elements[i] = arrnew;
-      next[i] = arrnextnew;
+        // sets the original shares with independent copies become private to it first
+        for (int j = length - 1; j >= 0; j--) {
+          if (arr[j] != null) {
+            if (arr[j].isShared()) {
+              arr[j] = arr[j].getCopy();
+            }
+            arr[j].setLinked();
+          }
+        }
 
-      size = map.size;
+        System.arraycopy(arr, 0, arrnew, 0, length);
+        System.arraycopy(arrnext, 0, arrnextnew, 0, length);
+
+        elements[i] = arrnew;
+        next[i] = arrnextnew;
+      }
+      else {
+        elements[i] = IntSparseSet.EMPTY_ARRAY;
+        next[i] = InterpreterUtil.EMPTY_INT_ARRAY;
+      }
     }
+
+    size = map.size;
   }
 
   public SFormsFastMapDirect getCopy() {
@@ -70,38 +95,36 @@ public class SFormsFastMapDirect {
     SFormsFastMapDirect map = new SFormsFastMapDirect(false);
     map.size = size;
 
-    FastSparseSet[][] mapelements = map.elements;
-    int[][] mapnext = map.next;
-
     for (int i = 2; i >= 0; i--) {
-      FastSparseSet<Integer>[] arr = elements[i];
+      IntSparseSet[] arr = elements[i];
       int length = arr.length;
 
       if (length > 0) {
-        int[] arrnext = next[i];
-
-        @SuppressWarnings("unchecked") FastSparseSet<Integer>[] arrnew = new FastSparseSet[length];
+        IntSparseSet[] arrnew = new IntSparseSet[length];
         int[] arrnextnew = new int[length];
 
-        System.arraycopy(arrnext, 0, arrnextnew, 0, length);
-
-        mapelements[i] = arrnew;
-        mapnext[i] = arrnextnew;
-
-        int pointer = 0;
-        do {
-          FastSparseSet<Integer> set = arr[pointer];
+        // linked sets may still change in place through other maps and are copied right away
+        for (int j = length - 1; j >= 0; j--) {
+          IntSparseSet set = arr[j];
           if (set != null) {
-            arrnew[pointer] = set.getCopy();
+            if (set.isLinked()) {
+              set = set.getCopy();
+            }
+            else {
+              set.setShared();
+            }
+            arrnew[j] = set;
           }
-
-          pointer = arrnext[pointer];
         }
-        while (pointer != 0);
+
+        System.arraycopy(next[i], 0, arrnextnew, 0, length);
+
+        map.elements[i] = arrnew;
+        map.next[i] = arrnextnew;
       }
       else {
-        mapelements[i] = FastSparseSet.EMPTY_ARRAY;
-        mapnext[i] = InterpreterUtil.EMPTY_INT_ARRAY;
+        map.elements[i] = IntSparseSet.EMPTY_ARRAY;
+        map.next[i] = InterpreterUtil.EMPTY_INT_ARRAY;
       }
     }
 
@@ -116,7 +139,7 @@ public class SFormsFastMapDirect {
     return size == 0;
   }
 
-  public void put(int key, FastSparseSet<Integer> value) {
+  public void put(int key, IntSparseSet value) {
     putInternal(key, value, false);
   }
 
@@ -125,11 +148,11 @@ public class SFormsFastMapDirect {
   }
 
   public void removeAllFields() {
-    FastSparseSet<Integer>[] arr = elements[2];
+    IntSparseSet[] arr = elements[2];
     int[] arrnext = next[2];
 
     for (int i = arr.length - 1; i >= 0; i--) {
-      FastSparseSet<Integer> val = arr[i];
+      IntSparseSet val = arr[i];
       if (val != null) {
         arr[i] = null;
         size--;
@@ -138,7 +161,7 @@ public class SFormsFastMapDirect {
     }
   }
 
-  public void putInternal(final int key, final FastSparseSet<Integer> value, boolean remove) {
+  public void putInternal(final int key, final IntSparseSet value, boolean remove) {
 
     int index = 0;
     int ikey = key;
@@ -151,7 +174,7 @@ public class SFormsFastMapDirect {
       ikey -= VarExprent.STACK_BASE;
     }
 
-    FastSparseSet<Integer>[] arr = elements[index];
+    IntSparseSet[] arr = elements[index];
     if (ikey >= arr.length) {
       if (remove) {
         return;
@@ -161,7 +184,7 @@ public class SFormsFastMapDirect {
       }
     }
 
-    FastSparseSet<Integer> oldval = arr[ikey];
+    IntSparseSet oldval = arr[ikey];
     arr[ikey] = value;
 
     int[] arrnext = next[index];
@@ -191,7 +214,7 @@ public class SFormsFastMapDirect {
     return get(key) != null;
   }
 
-  public FastSparseSet<Integer> get(int key) {
+  public IntSparseSet get(int key) {
 
     int index = 0;
     if (key < 0) {
@@ -203,7 +226,7 @@ public class SFormsFastMapDirect {
       key -= VarExprent.STACK_BASE;
     }
 
-    FastSparseSet<Integer>[] arr = elements[index];
+    IntSparseSet[] arr = elements[index];
 
     if (key < arr.length) {
       return arr[key];
@@ -214,26 +237,27 @@ public class SFormsFastMapDirect {
   public void complement(SFormsFastMapDirect map) {
 
     for (int i = 2; i >= 0; i--) {
-      FastSparseSet<Integer>[] lstOwn = elements[i];
+      IntSparseSet[] lstOwn = elements[i];
 
       if (lstOwn.length == 0) {
         continue;
       }
 
-      FastSparseSet<Integer>[] lstExtern = map.elements[i];
+      IntSparseSet[] lstExtern = map.elements[i];
       int[] arrnext = next[i];
 
       int pointer = 0;
       do {
-        FastSparseSet<Integer> first = lstOwn[pointer];
+        IntSparseSet first = lstOwn[pointer];
 
         if (first != null) {
           if (pointer >= lstExtern.length) {
             break;
           }
-          FastSparseSet<Integer> second = lstExtern[pointer];
+          IntSparseSet second = lstExtern[pointer];
 
           if (second != null) {
+            first = getOwned(i, pointer);
             first.complement(second);
             if (first.isEmpty()) {
               lstOwn[pointer] = null;
@@ -252,26 +276,27 @@ public class SFormsFastMapDirect {
   public void intersection(SFormsFastMapDirect map) {
 
     for (int i = 2; i >= 0; i--) {
-      FastSparseSet<Integer>[] lstOwn = elements[i];
+      IntSparseSet[] lstOwn = elements[i];
 
       if (lstOwn.length == 0) {
         continue;
       }
 
-      FastSparseSet<Integer>[] lstExtern = map.elements[i];
+      IntSparseSet[] lstExtern = map.elements[i];
       int[] arrnext = next[i];
 
       int pointer = 0;
       do {
-        FastSparseSet<Integer> first = lstOwn[pointer];
+        IntSparseSet first = lstOwn[pointer];
 
         if (first != null) {
-          FastSparseSet<Integer> second = null;
+          IntSparseSet second = null;
           if (pointer < lstExtern.length) {
             second = lstExtern[pointer];
           }
 
-          if (second != null) {
+          if (second != null && !second.contains(first)) {
+            first = getOwned(i, pointer);
             first.intersection(second);
           }
 
@@ -291,13 +316,13 @@ public class SFormsFastMapDirect {
   public void union(SFormsFastMapDirect map) {
 
     for (int i = 2; i >= 0; i--) {
-      FastSparseSet<Integer>[] lstExtern = map.elements[i];
+      IntSparseSet[] lstExtern = map.elements[i];
 
       if (lstExtern.length == 0) {
         continue;
       }
 
-      FastSparseSet<Integer>[] lstOwn = elements[i];
+      IntSparseSet[] lstOwn = elements[i];
       int[] arrnext = next[i];
       int[] arrnextExtern = map.next[i];
 
@@ -308,18 +333,24 @@ public class SFormsFastMapDirect {
           arrnext = next[i];
         }
 
-        FastSparseSet<Integer> second = lstExtern[pointer];
+        IntSparseSet second = lstExtern[pointer];
 
         if (second != null) {
-          FastSparseSet<Integer> first = lstOwn[pointer];
+          IntSparseSet first = lstOwn[pointer];
 
           if (first == null) {
-            lstOwn[pointer] = second.getCopy();
+            if (second.isLinked()) {
+              second = second.getCopy();
+            }
+            else {
+              second.setShared();
+            }
+            lstOwn[pointer] = second;
             size++;
             changeNext(arrnext, pointer, arrnext[pointer], pointer);
           }
-          else {
-            first.union(second);
+          else if (first != second && !first.contains(second)) {
+            getOwned(i, pointer).union(second);
           }
         }
 
@@ -329,14 +360,44 @@ public class SFormsFastMapDirect {
     }
   }
 
+  /**
+   * Removes the given versions from the versions of the variable. The variable stays in the map even if no versions
+   * are left.
+   */
+  public void complement(int key, IntSparseSet versions) {
+
+    int index = 0;
+    if (key < 0) {
+      index = 2;
+      key = -key;
+    }
+    else if (key >= VarExprent.STACK_BASE) {
+      index = 1;
+      key -= VarExprent.STACK_BASE;
+    }
+
+    if (key < elements[index].length && elements[index][key] != null) {
+      getOwned(index, key).complement(versions);
+    }
+  }
+
+  private IntSparseSet getOwned(int index, int key) {
+    IntSparseSet set = elements[index][key];
+    if (set.isShared()) {
+      set = set.getCopy();
+      elements[index][key] = set;
+    }
+    return set;
+  }
+
   public String toString() {
 
     StringBuilder buffer = new StringBuilder("{");
 
-    List<Entry<Integer, FastSparseSet<Integer>>> lst = entryList();
+    List<Entry<Integer, IntSparseSet>> lst = entryList();
     if (lst != null) {
       boolean first = true;
-      for (Entry<Integer, FastSparseSet<Integer>> entry : lst) {
+      for (Entry<Integer, IntSparseSet> entry : lst) {
         if (!first) {
           buffer.append(", ");
         }
@@ -353,29 +414,29 @@ public class SFormsFastMapDirect {
     return buffer.toString();
   }
 
-  public List<Entry<Integer, FastSparseSet<Integer>>> entryList() {
-    List<Entry<Integer, FastSparseSet<Integer>>> list = new ArrayList<Entry<Integer, FastSparseSet<Integer>>>();
+  public List<Entry<Integer, IntSparseSet>> entryList() {
+    List<Entry<Integer, IntSparseSet>> list = new ArrayList<Entry<Integer, IntSparseSet>>();
 
     for (int i = 2; i >= 0; i--) {
       int ikey = 0;
-      for (final FastSparseSet<Integer> ent : elements[i]) {
+      for (final IntSparseSet ent : elements[i]) {
         if (ent != null) {
           final int key = i == 0 ? ikey : (i == 1 ? ikey + VarExprent.STACK_BASE : -ikey);
 
-          list.add(new Entry<Integer, FastSparseSet<Integer>>() {
+          list.add(new Entry<Integer, IntSparseSet>() {
 
             private Integer var = key;
-            private FastSparseSet<Integer> val = ent;
+            private IntSparseSet val = ent;
 
             public Integer getKey() {
               return var;
             }
 
-            public FastSparseSet<Integer> getValue() {
+            public IntSparseSet getValue() {
               return val;
             }
 
-            public FastSparseSet<Integer> setValue(FastSparseSet<Integer> newvalue) {
+            public IntSparseSet setValue(IntSparseSet newvalue) {
               return null;
             }
           });
@@ -388,9 +449,9 @@ public class SFormsFastMapDirect {
     return list;
   }
 
-  private FastSparseSet<Integer>[] ensureCapacity(int index, int size, boolean exact) {
+  private IntSparseSet[] ensureCapacity(int index, int size, boolean exact) {
 
-    FastSparseSet<Integer>[] arr = elements[index];
+    IntSparseSet[] arr = elements[index];
     int[] arrnext = next[index];
 
     int minsize = size;
@@ -401,7 +462,7 @@ public class SFormsFastMapDirect {
       }
     }
 
-    @SuppressWarnings("unchecked") FastSparseSet<Integer>[] arrnew = new FastSparseSet[minsize];
+    IntSparseSet[] arrnew = new IntSparseSet[minsize];
     System.arraycopy(arr, 0, arrnew, 0, arr.length);
 
     int[] arrnextnew = new int[minsize];
@@ -19,13 +19,22 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map.Entry;
 
+/**
+ * An array list whose elements can also be reached by key. The index of a key is kept in a mutable slot and
+ * brought up to date lazily: positional inserts and removals only lower the count of leading positions whose
+ * indices are known to be right, the next lookup that needs a later index rewrites the slots from there on.
+ */
 public class VBStyleCollection<E, K> extends ArrayList<E> {
 
-  private HashMap<K, Integer> map = new HashMap<K, Integer>();
+  private HashMap<K, int[]> map = new HashMap<K, int[]>();
 
   private ArrayList<K> lstKeys = new ArrayList<K>();
 
+  // keys at positions below this have the right index in their slot
+  private int indexedSize;
+
   public VBStyleCollection() {
     super();
   }
@@ -33,7 +42,7 @@ public class VBStyleCollection<E, K> extends ArrayList<E> {
   public VBStyleCollection(int initialCapacity) {
     super(initialCapacity);
     lstKeys = new ArrayList<K>(initialCapacity);
-    map = new HashMap<K, Integer>(initialCapacity);
+    map = new HashMap<K, int[]>(initialCapacity);
   }
 
   public VBStyleCollection(Collection<E> c) {
@@ -41,6 +50,7 @@ public class VBStyleCollection<E, K> extends ArrayList<E> {
   }
 
   public boolean add(E element) {
+    appended(1);
     lstKeys.add(null);
     super.add(element);
     return true;
@@ -51,6 +61,7 @@ public class VBStyleCollection<E, K> extends ArrayList<E> {
   }
 
   public boolean addAll(Collection<? extends E> c) {
+    appended(c.size());
     for (int i = c.size() - 1; i >= 0; i--) {
       lstKeys.add(null);
     }
@@ -65,9 +76,10 @@ public class VBStyleCollection<E, K> extends ArrayList<E> {
 
   public void addAllWithKey(Collection<E> elements, Collection<K> keys) {
     int index = super.size();
+    appended(keys.size());
 
     for (K key : keys) {
-      map.put(key, index++);
+      map.put(key, new int[]{index++});
     }
 
     super.addAll(elements);
@@ -75,64 +87,63 @@ public class VBStyleCollection<E, K> extends ArrayList<E> {
   }
 
   public void addWithKey(E element, K key) {
-    map.put(key, super.size());
+    appended(1);
+    map.put(key, new int[]{super.size()});
     super.add(element);
     lstKeys.add(key);
   }
 
-  // TODO: speed up the method
   public E putWithKey(E element, K key) {
-    Integer index = map.get(key);
+    int[] index = map.get(key);
     if (index == null) {
       addWithKey(element, key);
     }
     else {
-      return super.set(index, element);
+      return super.set(getIndex(index), element);
     }
     return null;
   }
 
   public void add(int index, E element) {
-    addToListIndex(index, 1);
+    shifted(index);
     lstKeys.add(index, null);
     super.add(index, element);
   }
 
   public void addWithKeyAndIndex(int index, E element, K key) {
-    addToListIndex(index, 1);
-    map.put(key, new Integer(index));
+    shifted(index);
+    map.put(key, new int[]{index});
     super.add(index, element);
     lstKeys.add(index, key);
   }
 
   public void removeWithKey(K key) {
-    int index = map.get(key).intValue();
-    addToListIndex(index + 1, -1);
+    int index = getIndex(map.get(key));
+    shifted(index);
+    map.remove(key);
     super.remove(index);
     lstKeys.remove(index);
-    map.remove(key);
   }
 
   public E remove(int index) {
-    addToListIndex(index + 1, -1);
-    K obj = lstKeys.get(index);
+    shifted(index);
+    K obj = lstKeys.remove(index);
     if (obj != null) {
       map.remove(obj);
     }
-    lstKeys.remove(index);
     return super.remove(index);
   }
 
   public E getWithKey(K key) {
-    Integer index = map.get(key);
+    int[] index = map.get(key);
     if (index == null) {
       return null;
     }
-    return super.get(index.intValue());
+    return super.get(getIndex(index));
   }
 
   public int getIndexByKey(K key) {
-    return map.get(key).intValue();
+    return getIndex(map.get(key));
   }
 
   public E getLast() {
@@ -146,14 +157,18 @@ public class VBStyleCollection<E, K> extends ArrayList<E> {
   public void clear() {
     map.clear();
     lstKeys.clear();
+    indexedSize = 0;
     super.clear();
   }
 
   public VBStyleCollection<E, K> clone() {
     VBStyleCollection<E, K> c = new VBStyleCollection<E, K>();
     c.addAll(new ArrayList<E>(this));
-    c.setMap(new HashMap<K, Integer>(map));
-    c.setLstKeys(new ArrayList<K>(lstKeys));
+    for (Entry<K, int[]> ent : map.entrySet()) {
+      c.map.put(ent.getKey(), new int[]{ent.getValue()[0]});
+    }
+    c.lstKeys = new ArrayList<K>(lstKeys);
+    c.indexedSize = indexedSize;
     return c;
   }
 
@@ -164,23 +179,15 @@ public class VBStyleCollection<E, K> extends ArrayList<E> {
 
     K key = lstKeys.get(index1);
     if (key != null) {
-      map.put(key, new Integer(index1));
+      map.get(key)[0] = index1;
     }
 
     key = lstKeys.get(index2);
     if (key != null) {
-      map.put(key, new Integer(index2));
+      map.get(key)[0] = index2;
     }
   }
 
-  public HashMap<K, Integer> getMap() {
-    return map;
-  }
-
-  public void setMap(HashMap<K, Integer> map) {
-    this.map = map;
-  }
-
   public K getKey(int index) {
     return lstKeys.get(index);
   }
@@ -189,16 +196,30 @@ public class VBStyleCollection<E, K> extends ArrayList<E> {
     return lstKeys;
   }
 
-  public void setLstKeys(ArrayList<K> lstKeys) {
-    this.lstKeys = lstKeys;
+  private int getIndex(int[] index) {
+    if (index[0] >= indexedSize) {
+      for (int i = indexedSize; i < lstKeys.size(); i++) {
+        K key = lstKeys.get(i);
+        int[] slot = key == null ? null : map.get(key);
+        if (slot != null) {
+          slot[0] = i;
+        }
+      }
+      indexedSize = lstKeys.size();
+    }
+    return index[0];
+  }
+
+  private void appended(int count) {
+    if (indexedSize == lstKeys.size()) {
+      indexedSize += count;
+    }
   }
 
-  private void addToListIndex(int index, int diff) {
-    for (int i = lstKeys.size() - 1; i >= index; i--) {
-      K obj = lstKeys.get(i);
-      if (obj != null) {
-        map.put(obj, new Integer(i + diff));
-      }
+  // elements from index on have moved
+  private void shifted(int index) {
+    if (indexedSize > index) {
+      indexedSize = index;
     }
   }
 }